@@ -0,0 +1,145 @@
+package top.parak.kraft.benchmark.cluster;
+
+import org.openjdk.jmh.annotations.*;
+
+import top.parak.kraft.core.node.Node;
+import top.parak.kraft.core.node.NodeBuilder;
+import top.parak.kraft.core.node.NodeEndpoint;
+import top.parak.kraft.core.node.NodeId;
+import top.parak.kraft.core.node.NodeImpl;
+import top.parak.kraft.core.node.config.NodeConfig;
+import top.parak.kraft.core.node.role.RoleName;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * End-to-end benchmark of an in-process group of 3 nodes.
+ * <p>
+ * Nodes communicate through {@link LoopbackNetwork}, and commands are appended to the leader
+ * and waited until applied to the state machine of leader.
+ * </p>
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClusterBenchmark {
+
+    /**
+     * Commands appended in one invocation of throughput benchmark.
+     */
+    private static final int BATCH = 1000;
+    /**
+     * Timeout in milliseconds to wait for commands applied.
+     */
+    private static final long APPLY_TIMEOUT = 10000;
+
+    @Param({"1", "4"})
+    private int maxReplicationInflight;
+
+    @Param({"128"})
+    private int commandLength;
+
+    private final List<Node> nodes = new ArrayList<>();
+    private LoopbackNetwork network;
+    private final List<CountingStateMachine> stateMachines = new ArrayList<>();
+    private Node leader;
+    private CountingStateMachine leaderStateMachine;
+    private byte[] command;
+    private long appendedCount;
+
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException {
+        List<NodeEndpoint> endpoints = Arrays.asList(
+                new NodeEndpoint("A", "127.0.0.1", 2333),
+                new NodeEndpoint("B", "127.0.0.1", 2334),
+                new NodeEndpoint("C", "127.0.0.1", 2335)
+        );
+        NodeConfig config = new NodeConfig();
+        config.setMinElectionTimeout(1000);
+        config.setMaxElectionTimeout(2000);
+        config.setLogReplicationInterval(300);
+        config.setLogReplicationReadTimeout(900);
+        config.setMaxReplicationInflight(maxReplicationInflight);
+        network = new LoopbackNetwork();
+        for (NodeEndpoint endpoint : endpoints) {
+            NodeImpl node = (NodeImpl) new NodeBuilder(endpoints, endpoint.getId())
+                    .setConfig(config)
+                    .setConnector(new LoopbackConnector(endpoint.getId(), network))
+                    .build();
+            CountingStateMachine stateMachine = new CountingStateMachine();
+            node.registerStateMachine(stateMachine);
+            nodes.add(node);
+            stateMachines.add(stateMachine);
+        }
+        for (Node node : nodes) {
+            node.start();
+        }
+        awaitLeader();
+        command = new byte[commandLength];
+        appendedCount = 0;
+    }
+
+    private void awaitLeader() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + APPLY_TIMEOUT;
+        while (System.currentTimeMillis() < deadline) {
+            for (int i = 0; i < nodes.size(); i++) {
+                if (nodes.get(i).getRoleNameAndLeaderId().getRoleName() == RoleName.LEADER) {
+                    leader = nodes.get(i);
+                    leaderStateMachine = stateMachines.get(i);
+                    return;
+                }
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("no leader elected");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        network.clear();
+        for (Node node : nodes) {
+            node.stop();
+        }
+        for (CountingStateMachine stateMachine : stateMachines) {
+            stateMachine.shutdown();
+        }
+        nodes.clear();
+        stateMachines.clear();
+    }
+
+    /**
+     * Latency from appending a command to applying it.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void appendLatency() throws InterruptedException, TimeoutException {
+        leader.appendLog(command);
+        leaderStateMachine.awaitApplied(++appendedCount, APPLY_TIMEOUT);
+    }
+
+    /**
+     * Throughput of commands appended concurrently.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(BATCH)
+    public void appendThroughput() throws InterruptedException, TimeoutException {
+        for (int i = 0; i < BATCH; i++) {
+            leader.appendLog(command);
+        }
+        appendedCount += BATCH;
+        leaderStateMachine.awaitApplied(appendedCount, APPLY_TIMEOUT);
+    }
+
+}
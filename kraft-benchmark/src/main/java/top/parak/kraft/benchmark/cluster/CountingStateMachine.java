@@ -0,0 +1,61 @@
+package top.parak.kraft.benchmark.cluster;
+
+import top.parak.kraft.core.log.statemachine.AbstractSingleThreadStateMachine;
+
+import javax.annotation.Nonnull;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * State machine counting applied commands.
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+public class CountingStateMachine extends AbstractSingleThreadStateMachine {
+
+    private long appliedCount = 0;
+
+    @Override
+    protected synchronized void applyCommand(int index, @Nonnull byte[] commandBytes) {
+        appliedCount++;
+        notifyAll();
+    }
+
+    /**
+     * Wait until count of applied commands reaches the target.
+     *
+     * @param count   target count
+     * @param timeout timeout in milliseconds
+     * @throws InterruptedException if interrupted
+     * @throws TimeoutException     if timeout
+     */
+    public synchronized void awaitApplied(long count, long timeout) throws InterruptedException, TimeoutException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        long remaining;
+        while (appliedCount < count) {
+            remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remaining <= 0) {
+                throw new TimeoutException("applied " + appliedCount + " < " + count);
+            }
+            wait(remaining);
+        }
+    }
+
+    @Override
+    protected void doApplySnapshot(int lastIncludedIndex, @Nonnull InputStream input) {
+    }
+
+    @Override
+    public boolean shouldGenerateSnapshot(int firstLogIndex, int lastApplied) {
+        return false;
+    }
+
+    @Override
+    public void generateSnapshot(@Nonnull OutputStream output) {
+    }
+
+}
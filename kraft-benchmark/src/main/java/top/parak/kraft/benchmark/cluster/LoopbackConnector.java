@@ -0,0 +1,179 @@
+package top.parak.kraft.benchmark.cluster;
+
+import top.parak.kraft.core.node.NodeEndpoint;
+import top.parak.kraft.core.node.NodeId;
+import top.parak.kraft.core.rpc.Channel;
+import top.parak.kraft.core.rpc.Connector;
+import top.parak.kraft.core.rpc.MessageDispatcher;
+import top.parak.kraft.core.rpc.message.*;
+
+import javax.annotation.Nonnull;
+import java.util.Collection;
+
+/**
+ * Connector of {@link LoopbackNetwork}.
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+public class LoopbackConnector implements Connector {
+
+    private final NodeId selfId;
+    private final LoopbackNetwork network;
+
+    /**
+     * Create LoopbackConnector.
+     *
+     * @param selfId  self id
+     * @param network network
+     */
+    public LoopbackConnector(NodeId selfId, LoopbackNetwork network) {
+        this.selfId = selfId;
+        this.network = network;
+    }
+
+    @Override
+    public void setMessageDispatcher(@Nonnull MessageDispatcher dispatcher) {
+        network.register(selfId, dispatcher);
+    }
+
+    @Override
+    public void initialize() {
+    }
+
+    @Override
+    public void sendRequestVote(@Nonnull RequestVoteRpc rpc, @Nonnull Collection<NodeEndpoint> destinationEndpoints) {
+        for (NodeEndpoint endpoint : destinationEndpoints) {
+            RequestVoteRpcMessage rpcMessage = new RequestVoteRpcMessage(rpc, selfId, new LoopbackChannel(selfId, endpoint.getId(), null));
+            network.post(endpoint.getId(), dispatcher -> dispatcher.onReceiveRequestVoteRpc(rpcMessage));
+        }
+    }
+
+    @Override
+    public void replyRequestVote(@Nonnull RequestVoteResult result, @Nonnull RequestVoteRpcMessage rpcMessage) {
+        rpcMessage.getChannel().writeRequestVoteResult(result);
+    }
+
+    @Override
+    public void sendAppendEntries(@Nonnull AppendEntriesRpc rpc, @Nonnull NodeEndpoint destinationEndpoint) {
+        AppendEntriesRpcMessage rpcMessage = new AppendEntriesRpcMessage(rpc, selfId, new LoopbackChannel(selfId, destinationEndpoint.getId(), rpc));
+        network.post(destinationEndpoint.getId(), dispatcher -> dispatcher.onReceiveAppendEntriesRpc(rpcMessage));
+    }
+
+    @Override
+    public void replyAppendEntries(@Nonnull AppendEntriesResult result, @Nonnull AppendEntriesRpcMessage rpcMessage) {
+        rpcMessage.getChannel().writeAppendEntriesResult(result);
+    }
+
+    @Override
+    public void sendInstallSnapshot(@Nonnull InstallSnapshotRpc rpc, @Nonnull NodeEndpoint destinationEndpoint) {
+        InstallSnapshotRpcMessage rpcMessage = new InstallSnapshotRpcMessage(rpc, selfId, new LoopbackChannel(selfId, destinationEndpoint.getId(), rpc));
+        network.post(destinationEndpoint.getId(), dispatcher -> dispatcher.onReceiveInstallSnapshotRpc(rpcMessage));
+    }
+
+    @Override
+    public void replyInstallSnapshot(@Nonnull InstallSnapshotResult result, @Nonnull InstallSnapshotRpcMessage rpcMessage) {
+        rpcMessage.getChannel().writeInstallSnapshotResult(result);
+    }
+
+    @Override
+    public void sendReadIndex(@Nonnull ReadIndexRpc rpc, @Nonnull NodeEndpoint destinationEndpoint) {
+        ReadIndexRpcMessage rpcMessage = new ReadIndexRpcMessage(rpc, selfId, new LoopbackChannel(selfId, destinationEndpoint.getId(), rpc));
+        network.post(destinationEndpoint.getId(), dispatcher -> dispatcher.onReceiveReadIndexRpc(rpcMessage));
+    }
+
+    @Override
+    public void replyReadIndex(@Nonnull ReadIndexResult result, @Nonnull ReadIndexRpcMessage rpcMessage) {
+        rpcMessage.getChannel().writeReadIndexResult(result);
+    }
+
+    @Override
+    public void resetChannels() {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    /**
+     * Channel between the node sending the rpc and the node receiving the rpc, held by the latter.
+     * <p>
+     * Messages written to the channel are posted to the node sending the rpc, as from the node receiving
+     * the rpc, and the rpc written to the channel is replied through a channel in the opposite direction.
+     * </p>
+     */
+    private class LoopbackChannel implements Channel {
+
+        /**
+         * The id of node sending the rpc, and receiving the result.
+         */
+        private final NodeId sourceId;
+        /**
+         * The id of node receiving the rpc, and writing the result.
+         */
+        private final NodeId destinationId;
+        /**
+         * The rpc of result.
+         */
+        private final Object rpc;
+
+        LoopbackChannel(NodeId sourceId, NodeId destinationId, Object rpc) {
+            this.sourceId = sourceId;
+            this.destinationId = destinationId;
+            this.rpc = rpc;
+        }
+
+        @Override
+        public void writeRequestVoteRpc(@Nonnull RequestVoteRpc rpc) {
+            RequestVoteRpcMessage rpcMessage = new RequestVoteRpcMessage(rpc, destinationId, new LoopbackChannel(destinationId, sourceId, null));
+            network.post(sourceId, dispatcher -> dispatcher.onReceiveRequestVoteRpc(rpcMessage));
+        }
+
+        @Override
+        public void writeRequestVoteResult(@Nonnull RequestVoteResult result) {
+            network.post(sourceId, dispatcher -> dispatcher.onReceiveRequestVoteResult(result));
+        }
+
+        @Override
+        public void writeAppendEntriesRpc(@Nonnull AppendEntriesRpc rpc) {
+            AppendEntriesRpcMessage rpcMessage = new AppendEntriesRpcMessage(rpc, destinationId, new LoopbackChannel(destinationId, sourceId, rpc));
+            network.post(sourceId, dispatcher -> dispatcher.onReceiveAppendEntriesRpc(rpcMessage));
+        }
+
+        @Override
+        public void writeAppendEntriesResult(@Nonnull AppendEntriesResult result) {
+            AppendEntriesResultMessage resultMessage = new AppendEntriesResultMessage(result, destinationId, (AppendEntriesRpc) rpc);
+            network.post(sourceId, dispatcher -> dispatcher.onReceiveAppendEntriesResult(resultMessage));
+        }
+
+        @Override
+        public void writeInstallSnapshotRpc(@Nonnull InstallSnapshotRpc rpc) {
+            InstallSnapshotRpcMessage rpcMessage = new InstallSnapshotRpcMessage(rpc, destinationId, new LoopbackChannel(destinationId, sourceId, rpc));
+            network.post(sourceId, dispatcher -> dispatcher.onReceiveInstallSnapshotRpc(rpcMessage));
+        }
+
+        @Override
+        public void writeInstallSnapshotResult(@Nonnull InstallSnapshotResult result) {
+            InstallSnapshotResultMessage resultMessage = new InstallSnapshotResultMessage(result, destinationId, (InstallSnapshotRpc) rpc);
+            network.post(sourceId, dispatcher -> dispatcher.onReceiveInstallSnapshotResult(resultMessage));
+        }
+
+        @Override
+        public void writeReadIndexRpc(@Nonnull ReadIndexRpc rpc) {
+            ReadIndexRpcMessage rpcMessage = new ReadIndexRpcMessage(rpc, destinationId, new LoopbackChannel(destinationId, sourceId, rpc));
+            network.post(sourceId, dispatcher -> dispatcher.onReceiveReadIndexRpc(rpcMessage));
+        }
+
+        @Override
+        public void writeReadIndexResult(@Nonnull ReadIndexResult result) {
+            network.post(sourceId, dispatcher -> dispatcher.onReceiveReadIndexResult(result));
+        }
+
+        @Override
+        public void close() {
+        }
+
+    }
+
+}
@@ -0,0 +1,54 @@
+package top.parak.kraft.benchmark.cluster;
+
+import top.parak.kraft.core.node.NodeId;
+import top.parak.kraft.core.rpc.MessageDispatcher;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * In-process network between nodes.
+ * <p>
+ * Messages are dispatched to destination node directly, without serialization.
+ * </p>
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+public class LoopbackNetwork {
+
+    private final Map<NodeId, MessageDispatcher> dispatchers = new ConcurrentHashMap<>();
+
+    /**
+     * Register the message dispatcher of node.
+     *
+     * @param nodeId     node id
+     * @param dispatcher message dispatcher
+     */
+    public void register(NodeId nodeId, MessageDispatcher dispatcher) {
+        dispatchers.put(nodeId, dispatcher);
+    }
+
+    /**
+     * Disconnect all nodes, messages posted later are dropped.
+     */
+    public void clear() {
+        dispatchers.clear();
+    }
+
+    /**
+     * Post message to node, message to unknown node is dropped.
+     *
+     * @param nodeId   destination node id
+     * @param delivery delivery of message to dispatcher of node
+     */
+    void post(NodeId nodeId, Consumer<MessageDispatcher> delivery) {
+        MessageDispatcher dispatcher = dispatchers.get(nodeId);
+        if (dispatcher != null) {
+            delivery.accept(dispatcher);
+        }
+    }
+
+}
@@ -0,0 +1,68 @@
+package top.parak.kraft.core.log.sequence;
+
+import org.openjdk.jmh.annotations.*;
+
+import top.parak.kraft.core.log.entry.Entry;
+import top.parak.kraft.core.log.entry.EntryFactory;
+import top.parak.kraft.core.log.entry.GeneralEntry;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of {@link EntriesFile}.
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntriesFileBenchmark {
+
+    private static final int ENTRY_COUNT = 10000;
+
+    @Param({"64", "1024"})
+    private int commandLength;
+
+    private File file;
+    private EntriesFile entriesFile;
+    private Entry entry;
+    private long[] offsets;
+    private int next;
+    private final EntryFactory entryFactory = new EntryFactory();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = File.createTempFile("entries", ".bin");
+        entriesFile = new EntriesFile(file);
+        entry = new GeneralEntry(1, 1, new byte[commandLength]);
+        offsets = new long[ENTRY_COUNT];
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            offsets[i] = entriesFile.appendEntry(new GeneralEntry(i + 1, 1, new byte[commandLength]));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        entriesFile.close();
+        file.delete();
+    }
+
+    @Benchmark
+    public long appendEntry() throws IOException {
+        return entriesFile.appendEntry(entry);
+    }
+
+    @Benchmark
+    public Entry loadEntry() throws IOException {
+        next = (next + 1) % ENTRY_COUNT;
+        return entriesFile.loadEntry(offsets[next], entryFactory);
+    }
+
+}
@@ -0,0 +1,66 @@
+package top.parak.kraft.core.log.sequence;
+
+import org.openjdk.jmh.annotations.*;
+
+import top.parak.kraft.core.log.entry.Entry;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of {@link EntryIndexFile}.
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntryIndexFileBenchmark {
+
+    @Param({"1000", "100000"})
+    private int entryCount;
+
+    private File file;
+    private EntryIndexFile entryIndexFile;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = File.createTempFile("entries", ".idx");
+        EntryIndexFile writer = new EntryIndexFile(file);
+        for (int i = 1; i <= entryCount; i++) {
+            writer.appendEntryIndex(i, i * 32L, Entry.KIND_GENERAL, 1);
+        }
+        writer.close();
+        entryIndexFile = new EntryIndexFile(file);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        entryIndexFile.close();
+        file.delete();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Measurement(iterations = 20)
+    public EntryIndexFile load() throws IOException {
+        EntryIndexFile loaded = new EntryIndexFile(file);
+        loaded.close();
+        return loaded;
+    }
+
+    @Benchmark
+    public long get() {
+        next = next % entryCount + 1;
+        return entryIndexFile.get(next).getOffset();
+    }
+
+}
@@ -0,0 +1,91 @@
+package top.parak.kraft.core.log.sequence;
+
+import org.openjdk.jmh.annotations.*;
+
+import top.parak.kraft.core.log.entry.Entry;
+import top.parak.kraft.core.log.entry.GeneralEntry;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of {@link FileEntrySequence}.
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FileEntrySequenceBenchmark {
+
+    private static final int ENTRY_COUNT = 10000;
+
+    @Param({"1", "100"})
+    private int batchSize;
+
+    /**
+     * Max bytes of tail cache, {@code 0} to read from file.
+     */
+    @Param({"0", "4194304"})
+    private int cacheBytes;
+
+    private File entriesFile;
+    private File entryIndexFile;
+    private FileEntrySequence sequence;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        entriesFile = File.createTempFile("entries", ".bin");
+        entryIndexFile = File.createTempFile("entries", ".idx");
+        sequence = new FileEntrySequence(new EntriesFile(entriesFile), new EntryIndexFile(entryIndexFile), 1,
+                null, cacheBytes);
+        for (int i = 1; i <= ENTRY_COUNT; i++) {
+            sequence.append(new GeneralEntry(i, 1, new byte[64]));
+        }
+        sequence.commit(ENTRY_COUNT);
+        next = 1;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sequence.close();
+        entriesFile.delete();
+        entryIndexFile.delete();
+    }
+
+    /**
+     * Read committed entries from file, or from tail cache if enabled.
+     *
+     * @return entries
+     */
+    @Benchmark
+    public List<Entry> subListCommitted() {
+        if (next + batchSize > ENTRY_COUNT) {
+            next = 1;
+        }
+        List<Entry> entries = sequence.subList(next, next + batchSize);
+        next += batchSize;
+        return entries;
+    }
+
+    /**
+     * Append a batch of entries, and commit them to file.
+     */
+    @Benchmark
+    public void appendAndCommit() {
+        int index = sequence.getNextLogIndex();
+        for (int i = 0; i < batchSize; i++) {
+            sequence.append(new GeneralEntry(index + i, 1, new byte[64]));
+        }
+        sequence.commit(index + batchSize - 1);
+    }
+
+}
@@ -0,0 +1,76 @@
+package top.parak.kraft.core.log.sequence;
+
+import org.openjdk.jmh.annotations.*;
+
+import top.parak.kraft.core.log.entry.AddNodeEntry;
+import top.parak.kraft.core.log.entry.GroupConfigEntry;
+import top.parak.kraft.core.node.NodeEndpoint;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of {@link GroupConfigEntryList}.
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GroupConfigEntryListBenchmark {
+
+    /**
+     * Distance of index between group config entries.
+     */
+    private static final int INDEX_STEP = 100;
+
+    @Param({"10", "1000"})
+    private int entryCount;
+
+    private GroupConfigEntryList list;
+    private Set<NodeEndpoint> endpoints;
+    private NodeEndpoint newEndpoint;
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        endpoints = Collections.singleton(new NodeEndpoint("A", "127.0.0.1", 2333));
+        newEndpoint = new NodeEndpoint("B", "127.0.0.1", 2334);
+        list = new GroupConfigEntryList();
+        for (int i = 1; i <= entryCount; i++) {
+            list.add(new AddNodeEntry(i * INDEX_STEP, 1, endpoints, newEndpoint));
+        }
+    }
+
+    @Benchmark
+    public GroupConfigEntry getLast() {
+        return list.getLast();
+    }
+
+    @Benchmark
+    public void add() {
+        list.add(new AddNodeEntry((entryCount + 1) * INDEX_STEP, 1, endpoints, newEndpoint));
+    }
+
+    /**
+     * Remove the last half of entries, e.g. log conflicts with leader.
+     *
+     * @return the first removed entry
+     */
+    @Benchmark
+    public GroupConfigEntry removeAfter() {
+        return list.removeAfter(entryCount / 2 * INDEX_STEP);
+    }
+
+    @Benchmark
+    public List<GroupConfigEntry> subList() {
+        return list.subList(entryCount / 4 * INDEX_STEP, entryCount / 2 * INDEX_STEP);
+    }
+
+}
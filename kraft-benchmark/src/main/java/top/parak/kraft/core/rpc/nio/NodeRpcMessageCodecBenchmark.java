@@ -0,0 +1,87 @@
+package top.parak.kraft.core.rpc.nio;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.openjdk.jmh.annotations.*;
+
+import top.parak.kraft.core.log.entry.Entry;
+import top.parak.kraft.core.log.entry.GeneralEntry;
+import top.parak.kraft.core.node.NodeId;
+import top.parak.kraft.core.rpc.message.AppendEntriesRpc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of {@link NodeRpcMessageEncoder} and {@link NodeRpcMessageDecoder}.
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NodeRpcMessageCodecBenchmark {
+
+    @Param({"1", "16", "256"})
+    private int batchSize;
+
+    @Param({"64", "1024"})
+    private int commandLength;
+
+    @Param({"false", "true"})
+    private boolean compact;
+
+    private EmbeddedChannel encoderChannel;
+    private EmbeddedChannel decoderChannel;
+    private AppendEntriesRpc rpc;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        NodeRpcMessageEncoder encoder = new NodeRpcMessageEncoder();
+        encoder.setCompact(compact);
+        encoderChannel = new EmbeddedChannel(encoder);
+        decoderChannel = new EmbeddedChannel(new NodeRpcMessageDecoder());
+        List<Entry> entries = new ArrayList<>(batchSize);
+        for (int i = 1; i <= batchSize; i++) {
+            entries.add(new GeneralEntry(i, 1, new byte[commandLength]));
+        }
+        rpc = new AppendEntriesRpc();
+        rpc.setMessageId(1L);
+        rpc.setTerm(1);
+        rpc.setLeaderId(NodeId.of("A"));
+        rpc.setPrevLogIndex(0);
+        rpc.setPrevLogTerm(0);
+        rpc.setLeaderCommit(0);
+        rpc.setEntries(entries);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        encoderChannel.finishAndReleaseAll();
+        decoderChannel.finishAndReleaseAll();
+    }
+
+    @Benchmark
+    public int encode() {
+        encoderChannel.writeOutbound(rpc);
+        ByteBuf buf = encoderChannel.readOutbound();
+        int length = buf.readableBytes();
+        buf.release();
+        return length;
+    }
+
+    @Benchmark
+    public AppendEntriesRpc roundTrip() {
+        encoderChannel.writeOutbound(rpc);
+        ByteBuf buf = encoderChannel.readOutbound();
+        decoderChannel.writeInbound(buf);
+        return decoderChannel.readInbound();
+    }
+
+}
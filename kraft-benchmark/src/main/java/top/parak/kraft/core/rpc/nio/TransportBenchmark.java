@@ -0,0 +1,116 @@
+package top.parak.kraft.core.rpc.nio;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import io.netty.handler.codec.LengthFieldPrepender;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import top.parak.kraft.core.node.config.NodeConfig;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of round trip of message on loopback by {@link Transport}.
+ * <p>
+ * Epoll falls back to nio if {@code netty-transport-native-epoll} is not in class path,
+ * see the transport name in log.
+ * </p>
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransportBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransportBenchmark.class);
+
+    @Param({"nio", "epoll"})
+    private String transportName;
+
+    @Param({"64", "4096"})
+    private int messageLength;
+
+    private EventLoopGroup bossGroup;
+    private EventLoopGroup serverWorkerGroup;
+    private EventLoopGroup clientWorkerGroup;
+    private Channel serverChannel;
+    private Channel clientChannel;
+    private ByteBuf message;
+    private volatile CompletableFuture<Integer> response;
+
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException {
+        NodeConfig config = new NodeConfig();
+        config.setTransport(transportName);
+        Transport transport = Transport.create(config);
+        logger.info("transport {}", transport.getName());
+        bossGroup = transport.createEventLoopGroup(1);
+        serverWorkerGroup = transport.createEventLoopGroup(1);
+        clientWorkerGroup = transport.createEventLoopGroup(1);
+        serverChannel = transport.createServerBootstrap(bossGroup, serverWorkerGroup)
+                .childHandler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        ch.pipeline().addLast(new LengthFieldBasedFrameDecoder(Integer.MAX_VALUE, 0, 4, 0, 4));
+                        ch.pipeline().addLast(new LengthFieldPrepender(4));
+                        ch.pipeline().addLast(new SimpleChannelInboundHandler<ByteBuf>(false) {
+                            @Override
+                            protected void channelRead0(ChannelHandlerContext ctx, ByteBuf msg) {
+                                ctx.writeAndFlush(msg);
+                            }
+                        });
+                    }
+                })
+                .bind(new InetSocketAddress("127.0.0.1", 0)).sync().channel();
+        clientChannel = transport.createBootstrap(clientWorkerGroup)
+                .handler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        ch.pipeline().addLast(new LengthFieldBasedFrameDecoder(Integer.MAX_VALUE, 0, 4, 0, 4));
+                        ch.pipeline().addLast(new LengthFieldPrepender(4));
+                        ch.pipeline().addLast(new SimpleChannelInboundHandler<ByteBuf>() {
+                            @Override
+                            protected void channelRead0(ChannelHandlerContext ctx, ByteBuf msg) {
+                                response.complete(msg.readableBytes());
+                            }
+                        });
+                    }
+                })
+                .connect(serverChannel.localAddress()).sync().channel();
+        message = Unpooled.unreleasableBuffer(Unpooled.directBuffer(messageLength).writeZero(messageLength));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        clientChannel.close().sync();
+        serverChannel.close().sync();
+        clientWorkerGroup.shutdownGracefully().sync();
+        serverWorkerGroup.shutdownGracefully().sync();
+        bossGroup.shutdownGracefully().sync();
+    }
+
+    @Benchmark
+    public int roundTrip() throws Exception {
+        response = new CompletableFuture<>();
+        clientChannel.writeAndFlush(message.duplicate());
+        return response.get();
+    }
+
+}
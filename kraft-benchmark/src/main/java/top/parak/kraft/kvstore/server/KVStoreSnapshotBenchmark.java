@@ -0,0 +1,59 @@
+package top.parak.kraft.kvstore.server;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of snapshot of {@link KVStoreServerService}.
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KVStoreSnapshotBenchmark {
+
+    @Param({"1000", "100000"})
+    private int keyCount;
+
+    @Param({"16", "256"})
+    private int valueLength;
+
+    private Map<String, byte[]> map;
+    private byte[] snapshot;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        map = new HashMap<>();
+        for (int i = 0; i < keyCount; i++) {
+            map.put("key-" + i, new byte[valueLength]);
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        KVStoreServerService.toSnapshot(map, output);
+        snapshot = output.toByteArray();
+    }
+
+    @Benchmark
+    public int toSnapshot() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(snapshot.length);
+        KVStoreServerService.toSnapshot(map, output);
+        return output.size();
+    }
+
+    @Benchmark
+    public Map<String, byte[]> fromSnapshot() throws IOException {
+        return KVStoreServerService.fromSnapshot(new ByteArrayInputStream(snapshot));
+    }
+
+}
@@ -9,20 +9,28 @@ import top.parak.kraft.core.log.event.GroupConfigEntryBatchRemovedEvent;
 import top.parak.kraft.core.log.event.GroupConfigEntryCommittedEvent;
 import top.parak.kraft.core.log.event.GroupConfigEntryFromLeaderAppendEvent;
 import top.parak.kraft.core.log.event.SnapshotGenerateEvent;
+import top.parak.kraft.core.log.event.SnapshotGeneratedEvent;
 import top.parak.kraft.core.log.sequence.EntrySequence;
 import top.parak.kraft.core.log.sequence.GroupConfigEntryList;
 import top.parak.kraft.core.log.snapshot.*;
 import top.parak.kraft.core.log.statemachine.EmptyStateMachine;
+import top.parak.kraft.core.log.statemachine.SnapshotView;
 import top.parak.kraft.core.log.statemachine.StateMachine;
 import top.parak.kraft.core.log.statemachine.StateMachineContext;
 import top.parak.kraft.core.node.NodeEndpoint;
 import top.parak.kraft.core.node.NodeId;
 import top.parak.kraft.core.rpc.message.AppendEntriesRpc;
 import top.parak.kraft.core.rpc.message.InstallSnapshotRpc;
+import top.parak.kraft.core.support.metrics.Histogram;
+import top.parak.kraft.core.support.metrics.MetricRegistry;
+import top.parak.kraft.core.support.task.DirectTaskExecutor;
+import top.parak.kraft.core.support.task.TaskExecutor;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Abstract log.
@@ -67,6 +75,38 @@ abstract class AbstractLog implements Log {
      * commit index.
      */
     protected int commitIndex = 0;
+    /**
+     * Id of last rpc message, increased monotonically.
+     */
+    private long lastMessageId = 0;
+    /**
+     * Executor to write snapshot.
+     */
+    private TaskExecutor snapshotExecutor = new DirectTaskExecutor();
+    /**
+     * The snapshot when generating started, {@code null} if not generating.
+     */
+    private Snapshot snapshotBeforeGenerating = null;
+    /**
+     * Codec of snapshot generated.
+     */
+    protected SnapshotCodec snapshotCodec = SnapshotCodecs.NONE;
+    /**
+     * Registry of metrics.
+     */
+    protected MetricRegistry metricRegistry = new MetricRegistry();
+    /**
+     * Duration in microseconds to generate snapshot.
+     */
+    private Histogram snapshotGenerateHistogram = new Histogram();
+    /**
+     * Duration in microseconds to install snapshot, from the first chunk to the last one.
+     */
+    private Histogram snapshotInstallHistogram = new Histogram();
+    /**
+     * The timestamp in nanoseconds when the first chunk of snapshot installing received.
+     */
+    private long snapshotInstallStartedAt;
 
     /**
      * Create AbstractLog.
@@ -86,6 +126,11 @@ abstract class AbstractLog implements Log {
         return entrySequence.getLastEntry().getMeta();
     }
 
+    @Override
+    public long nextMessageId() {
+        return ++lastMessageId;
+    }
+
     @Override
     public AppendEntriesRpc createAppendEntriesRpc(int term, NodeId selfId, int nextIndex, int maxEntries) {
         int nextLogIndex = entrySequence.getNextLogIndex();
@@ -96,7 +141,7 @@ abstract class AbstractLog implements Log {
             throw new EntryInSnapshotException(nextIndex);
         }
         AppendEntriesRpc rpc = new AppendEntriesRpc();
-        rpc.setMessageId(UUID.randomUUID().toString());
+        rpc.setMessageId(nextMessageId());
         rpc.setTerm(term);
         rpc.setLeaderId(selfId);
         rpc.setLeaderCommit(commitIndex);
@@ -132,17 +177,23 @@ abstract class AbstractLog implements Log {
     @Override
     public InstallSnapshotRpc createInstallSnapshotRpc(int term, NodeId selfId, int offset, int length) {
         InstallSnapshotRpc rpc = new InstallSnapshotRpc();
+        rpc.setMessageId(nextMessageId());
         rpc.setTerm(term);
         rpc.setLeaderId(selfId);
         rpc.setLastIndex(snapshot.getLastIncludedIndex());
         rpc.setLastTerm(snapshot.getLastIncludedTerm());
+        rpc.setCodec(snapshot.getCodec().getId());
         if (offset == 0) {
             rpc.setLastConfig(snapshot.getLastConfig());
         }
         rpc.setOffset(offset);
 
-        SnapshotChunk chunk = snapshot.readData(offset, length);
-        rpc.setData(chunk.toByteArray());
+        SnapshotChunk chunk = snapshot.readDataRegion(offset, length);
+        if (chunk.isFileRegion()) {
+            rpc.setDataRegion(chunk.getFile(), chunk.getPosition(), chunk.getLength());
+        } else {
+            rpc.setData(chunk.toByteArray());
+        }
         rpc.setDone(chunk.isLastChunk());
         return rpc;
     }
@@ -163,6 +214,22 @@ abstract class AbstractLog implements Log {
         return commitIndex;
     }
 
+    @Override
+    public int getLastApplicableIndex(int index) {
+        int lastIncludedIndex = snapshot.getLastIncludedIndex();
+        if (index <= lastIncludedIndex || entrySequence.isEmpty()) {
+            return index;
+        }
+        EntryMeta entryMeta;
+        for (int i = Math.min(index, entrySequence.getLastLogIndex()); i > lastIncludedIndex; i--) {
+            entryMeta = entrySequence.getEntryMeta(i);
+            if (entryMeta != null && entryMeta.getKind() == Entry.KIND_GENERAL) {
+                return i;
+            }
+        }
+        return lastIncludedIndex;
+    }
+
     @Override
     public boolean isNewerThan(int lastLogIndex, int lastLogTerm) {
         EntryMeta lastEntryMeta = getLastEntryMeta();
@@ -184,6 +251,17 @@ abstract class AbstractLog implements Log {
         return entry;
     }
 
+    @Override
+    public List<GeneralEntry> appendEntries(int term, List<byte[]> commands) {
+        List<GeneralEntry> entries = new ArrayList<>(commands.size());
+        int index = entrySequence.getNextLogIndex();
+        for (byte[] command : commands) {
+            entries.add(new GeneralEntry(index++, term, command));
+        }
+        entrySequence.append(new ArrayList<>(entries));
+        return entries;
+    }
+
     @Override
     public AddNodeEntry appendEntryForAddNode(int term, Set<NodeEndpoint> nodeEndpoints, NodeEndpoint newNodeEndpoint) {
         AddNodeEntry entry = new AddNodeEntry(entrySequence.getNextLogIndex(), term, nodeEndpoints, newNodeEndpoint);
@@ -213,9 +291,60 @@ abstract class AbstractLog implements Log {
         assert prevLogIndex + 1 == leaderEntries.get(0).getIndex();
         EntrySequenceView newEntries = removeUnmatchedLog(new EntrySequenceView(leaderEntries));
         appendEntriesFromLeader(newEntries);
+        // group commit, force entries before responding to leader
+        entrySequence.flush();
         return true;
     }
 
+    @Override
+    @Nonnull
+    public LogConflict findConflict(int prevLogIndex) {
+        int lastIncludedIndex = snapshot.getLastIncludedIndex();
+        if (prevLogIndex < lastIncludedIndex) {
+            // entries in snapshot are committed, retry after snapshot
+            return new LogConflict(0, lastIncludedIndex + 1);
+        }
+        if (prevLogIndex == lastIncludedIndex || prevLogIndex >= entrySequence.getNextLogIndex()) {
+            return new LogConflict(0, Math.min(prevLogIndex, entrySequence.getNextLogIndex()));
+        }
+        // terms are non-decreasing, binary search the first index of conflicting term
+        int term = entrySequence.getEntryMeta(prevLogIndex).getTerm();
+        int low = entrySequence.getFirstLogIndex();
+        int high = prevLogIndex;
+        int middle;
+        while (low < high) {
+            middle = (low + high) >>> 1;
+            if (entrySequence.getEntryMeta(middle).getTerm() < term) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return new LogConflict(term, low);
+    }
+
+    @Override
+    public int findLastIndexOfTerm(int term) {
+        if (!entrySequence.isEmpty()) {
+            // terms are non-decreasing, binary search the last index whose term <= specified term
+            int low = entrySequence.getFirstLogIndex() - 1;
+            int high = entrySequence.getLastLogIndex();
+            int middle;
+            while (low < high) {
+                middle = (low + high + 1) >>> 1;
+                if (entrySequence.getEntryMeta(middle).getTerm() <= term) {
+                    low = middle;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            if (low >= entrySequence.getFirstLogIndex()) {
+                return entrySequence.getEntryMeta(low).getTerm() == term ? low : 0;
+            }
+        }
+        return snapshot.getLastIncludedTerm() == term ? snapshot.getLastIncludedIndex() : 0;
+    }
+
     private void appendEntriesFromLeader(EntrySequenceView leaderEntries) {
         if (leaderEntries.isEmpty()) {
             return;
@@ -294,7 +423,7 @@ abstract class AbstractLog implements Log {
             logger.warn("applied log removed, reapply from start");
             applySnapshot(snapshot);
             logger.debug("apply log from {} to {}", entrySequence.getFirstLogIndex(), index);
-            entrySequence.subList(entrySequence.getFirstLogIndex(), index + 1).forEach(this::applyEntry);
+            applyEntries(entrySequence.subList(entrySequence.getFirstLogIndex(), index + 1));
         }
         logger.debug("remove entries after {}", index);
         entrySequence.removeAfter(index);
@@ -327,6 +456,8 @@ abstract class AbstractLog implements Log {
             return;
         }
         logger.debug("advance commit index from {} to {}", commitIndex, newCommitIndex);
+        // group commit, force entries appended since last commit
+        entrySequence.flush();
         entrySequence.commit(newCommitIndex);
         groupConfigsCommitted(newCommitIndex);
         commitIndex = newCommitIndex;
@@ -357,23 +488,31 @@ abstract class AbstractLog implements Log {
     }
 
     private void advanceApplyIndex() {
-        // start up and snapshot exists
+        // start up and snapshot exists, persistent state machine may have applied the snapshot
         int lastApplied = stateMachine.getLastApplied();
         int lastIncludedIndex = snapshot.getLastIncludedIndex();
-        if (lastApplied == 0 && lastIncludedIndex > 0) {
+        if (lastApplied < lastIncludedIndex) {
             assert commitIndex >= lastIncludedIndex;
             applySnapshot(snapshot);
             lastApplied = lastIncludedIndex;
         }
-        for (Entry entry : entrySequence.subList(lastApplied + 1, commitIndex + 1)) {
-            applyEntry(entry);
+        // persistent state machine may have applied log not committed after restart
+        if (lastApplied >= commitIndex) {
+            return;
         }
+        applyEntries(entrySequence.subList(lastApplied + 1, commitIndex + 1));
     }
 
-    private void applyEntry(Entry entry) {
-        // skip no-op entry and membership-change entry
-        if (isApplicable(entry)) {
-            stateMachine.applyLog(stateMachineContext, entry.getIndex(), entry.getCommandBytes(), entrySequence.getFirstLogIndex());
+    private void applyEntries(List<Entry> entries) {
+        List<Entry> applicableEntries = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            // skip no-op entry and membership-change entry
+            if (isApplicable(entry)) {
+                applicableEntries.add(entry);
+            }
+        }
+        if (!applicableEntries.isEmpty()) {
+            stateMachine.applyLogs(stateMachineContext, applicableEntries, entrySequence.getFirstLogIndex());
         }
     }
 
@@ -382,48 +521,148 @@ abstract class AbstractLog implements Log {
         if (rpc.getLastIndex() <= snapshot.getLastIncludedIndex()) {
             logger.debug("snapshot's last included index from rpc <= current one ({} <= {}), ignore",
                     rpc.getLastIndex(), snapshot.getLastIncludedIndex());
-            return new InstallSnapshotState(InstallSnapshotState.StateName.ILLEGAL_INSTALL_SNAPSHOT_RPC);
+            // the snapshot is installed, acknowledge the chunk
+            return new InstallSnapshotState(InstallSnapshotState.StateName.ILLEGAL_INSTALL_SNAPSHOT_RPC,
+                    rpc.getOffset() + rpc.getDataLength());
+        }
+        boolean building = snapshotBuilder.isBuilding(rpc);
+        if (rpc.getOffset() == 0 && building && snapshotBuilder.getOffset() > 0) {
+            // resume from the offset of snapshot being built, e.g. leader retries after timeout
+            logger.debug("resume installing snapshot from offset {}", snapshotBuilder.getOffset());
+            return new InstallSnapshotState(InstallSnapshotState.StateName.INSTALLING, snapshotBuilder.getOffset());
         }
         if (rpc.getOffset() == 0) {
             assert rpc.getLastConfig() != null;
             snapshotBuilder.close();
             snapshotBuilder = newSnapshotBuilder(rpc);
-        } else {
+            snapshotInstallStartedAt = System.nanoTime();
+        } else if (building && rpc.getOffset() == snapshotBuilder.getOffset()) {
             snapshotBuilder.append(rpc);
+        } else {
+            // duplicated, reordered or chunk of other snapshot, tell leader the offset expected
+            logger.debug("unexpected offset of snapshot chunk {}, expected {}", rpc.getOffset(),
+                    building ? snapshotBuilder.getOffset() : 0);
+            return new InstallSnapshotState(InstallSnapshotState.StateName.INSTALLING,
+                    building ? snapshotBuilder.getOffset() : 0);
         }
         if (!rpc.isDone()) {
-            return new InstallSnapshotState(InstallSnapshotState.StateName.INSTALLING);
+            return new InstallSnapshotState(InstallSnapshotState.StateName.INSTALLING, snapshotBuilder.getOffset());
         }
         Snapshot newSnapshot = snapshotBuilder.build();
+        snapshotBuilder = new NullSnapshotBuilder();
         applySnapshot(newSnapshot);
         replaceSnapshot(newSnapshot);
         int lastIncludedIndex = snapshot.getLastIncludedIndex();
         if (commitIndex < lastIncludedIndex) {
             commitIndex = lastIncludedIndex;
         }
+        snapshotInstallHistogram.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - snapshotInstallStartedAt));
         return new InstallSnapshotState(InstallSnapshotState.StateName.INSTALLED, newSnapshot.getLastConfig());
     }
 
     @Override
-    public void generateSnapshot(int lastIncludedIndex, Set<NodeEndpoint> groupConfig) {
-        logger.info("generate snapshot, last included index {}", lastIncludedIndex);
+    public void generateSnapshot(int lastIncludedIndex, Set<NodeEndpoint> groupConfig, SnapshotView view) {
+        if (snapshotBeforeGenerating != null) {
+            logger.info("previous snapshot is generating, skip generating snapshot, last included index {}", lastIncludedIndex);
+            view.release();
+            return;
+        }
         EntryMeta lastAppliedEntryMeta = entrySequence.getEntryMeta(lastIncludedIndex);
-        replaceSnapshot(generateSnapshot(lastAppliedEntryMeta, groupConfig));
+        if (lastAppliedEntryMeta == null) {
+            logger.info("log {} not found, maybe in snapshot, skip generating snapshot", lastIncludedIndex);
+            view.release();
+            return;
+        }
+        logger.info("generate snapshot, last included index {}", lastIncludedIndex);
+        snapshotBeforeGenerating = snapshot;
+        snapshotExecutor.submit(() -> {
+            Snapshot generatedSnapshot = null;
+            long startedAt = System.nanoTime();
+            try {
+                generatedSnapshot = generateSnapshot(lastAppliedEntryMeta, groupConfig, view);
+                snapshotGenerateHistogram.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startedAt));
+            } catch (RuntimeException e) {
+                logger.warn("failed to generate snapshot, last included index " + lastIncludedIndex, e);
+            } finally {
+                view.release();
+                // posted even if an error is thrown, otherwise no snapshot will be generated any more
+                eventBus.post(new SnapshotGeneratedEvent(lastIncludedIndex, generatedSnapshot));
+            }
+        });
+    }
+
+    @Override
+    public void replaceGeneratedSnapshot(@Nullable Snapshot generatedSnapshot) {
+        Snapshot snapshotBefore = snapshotBeforeGenerating;
+        snapshotBeforeGenerating = null;
+        if (generatedSnapshot == null) {
+            return;
+        }
+        if (snapshotBefore != snapshot || generatedSnapshot.getLastIncludedIndex() <= snapshot.getLastIncludedIndex()) {
+            logger.info("snapshot changed during generating, discard generated snapshot, last included index {}",
+                    generatedSnapshot.getLastIncludedIndex());
+            generatedSnapshot.close();
+            return;
+        }
+        replaceSnapshot(generatedSnapshot);
+    }
+
+    @Override
+    public void setSnapshotExecutor(TaskExecutor snapshotExecutor) {
+        this.snapshotExecutor = snapshotExecutor;
+    }
+
+    @Override
+    public void setSnapshotCodec(SnapshotCodec snapshotCodec) {
+        this.snapshotCodec = snapshotCodec;
+    }
+
+    @Override
+    public void setMetricRegistry(MetricRegistry metricRegistry) {
+        this.metricRegistry = metricRegistry;
+        snapshotGenerateHistogram = metricRegistry.histogram("snapshot.generate_micros");
+        snapshotInstallHistogram = metricRegistry.histogram("snapshot.install_micros");
+        // read by reporter thread, stale value is acceptable
+        metricRegistry.gauge("log.commit_index", () -> commitIndex);
+        metricRegistry.gauge("log.last_applied", () -> stateMachine.getLastApplied());
+        metricRegistry.gauge("log.pending_entries", () -> Math.max(0, entrySequence.getNextLogIndex() - 1 - commitIndex));
+        entrySequence.setMetricRegistry(metricRegistry);
+        stateMachine.setMetricRegistry(metricRegistry);
     }
 
     protected abstract void replaceSnapshot(Snapshot newSnapshot);
 
-    protected abstract Snapshot generateSnapshot(EntryMeta lastAppliedEntryMeta, Set<NodeEndpoint> groupConfig);
+    /**
+     * Generate snapshot from the view of state machine, run in snapshot thread.
+     *
+     * @param lastAppliedEntryMeta meta of last applied log entry
+     * @param groupConfig          group config
+     * @param view                 point-in-time view of state machine
+     * @return snapshot
+     * @throws LogException if failed to generate
+     */
+    protected abstract Snapshot generateSnapshot(EntryMeta lastAppliedEntryMeta, Set<NodeEndpoint> groupConfig, SnapshotView view);
 
     protected abstract SnapshotBuilder newSnapshotBuilder(InstallSnapshotRpc firstRpc);
 
     @Override
     public void setStateMachine(StateMachine stateMachine) {
         this.stateMachine = stateMachine;
+        stateMachine.setMetricRegistry(metricRegistry);
+    }
+
+    @Override
+    public void flush() {
+        entrySequence.flush();
     }
 
     @Override
     public void close() {
+        try {
+            snapshotExecutor.shutdown();
+        } catch (InterruptedException e) {
+            throw new LogException("failed to shutdown snapshot executor", e);
+        }
         snapshot.close();
         entrySequence.close();
         snapshotBuilder.close();
@@ -433,8 +672,8 @@ abstract class AbstractLog implements Log {
     private class StateMachineContextImpl implements StateMachineContext {
 
         @Override
-        public void generateSnapshot(int lastIncludedIndex) {
-            eventBus.post(new SnapshotGenerateEvent(lastIncludedIndex));
+        public void generateSnapshot(int lastIncludedIndex, @Nonnull SnapshotView view) {
+            eventBus.post(new SnapshotGenerateEvent(lastIncludedIndex, view));
         }
 
     }
@@ -61,6 +61,11 @@ abstract class AbstractLogDir implements LogDir {
         return new File(dir, RootDir.FILE_NAME_ENTRY_OFFSET_INDEX);
     }
 
+    @Override
+    public File getSegmentsDir() {
+        return new File(dir, RootDir.DIR_NAME_SEGMENTS);
+    }
+
     @Override
     public File get() {
         return dir;
@@ -6,7 +6,10 @@ import top.parak.kraft.core.log.entry.Entry;
 import top.parak.kraft.core.log.entry.EntryMeta;
 import top.parak.kraft.core.log.sequence.EntrySequence;
 import top.parak.kraft.core.log.sequence.FileEntrySequence;
+import top.parak.kraft.core.log.sequence.LogFlushPolicy;
+import top.parak.kraft.core.log.sequence.SegmentedEntrySequence;
 import top.parak.kraft.core.log.snapshot.*;
+import top.parak.kraft.core.log.statemachine.SnapshotView;
 import top.parak.kraft.core.node.NodeEndpoint;
 import top.parak.kraft.core.rpc.message.InstallSnapshotRpc;
 
@@ -27,6 +30,9 @@ import java.util.Set;
 public class FileLog extends AbstractLog {
 
     private final RootDir rootDir;
+    private final LogFlushPolicy flushPolicy;
+    private final int segmentSize;
+    private final int tailCacheBytes;
 
     /**
      * Create FileLog.
@@ -35,7 +41,35 @@ public class FileLog extends AbstractLog {
      * @param eventBus event bus
      */
     public FileLog(File baseDir, EventBus eventBus) {
+        this(baseDir, eventBus, null, 0);
+    }
+
+    /**
+     * Create FileLog.
+     *
+     * @param baseDir     base directory
+     * @param eventBus    event bus
+     * @param flushPolicy flush policy of write-ahead log, {@code null} if not write-ahead
+     * @param segmentSize size of memory-mapped log segment, {@code 0} to use single entries file
+     */
+    public FileLog(File baseDir, EventBus eventBus, LogFlushPolicy flushPolicy, int segmentSize) {
+        this(baseDir, eventBus, flushPolicy, segmentSize, 0);
+    }
+
+    /**
+     * Create FileLog.
+     *
+     * @param baseDir        base directory
+     * @param eventBus       event bus
+     * @param flushPolicy    flush policy of write-ahead log, {@code null} if not write-ahead
+     * @param segmentSize    size of memory-mapped log segment, {@code 0} to use single entries file
+     * @param tailCacheBytes max bytes of log entries cached at the tail of entries file, {@code 0} to disable
+     */
+    public FileLog(File baseDir, EventBus eventBus, LogFlushPolicy flushPolicy, int segmentSize, int tailCacheBytes) {
         super(eventBus);
+        this.flushPolicy = flushPolicy;
+        this.segmentSize = segmentSize;
+        this.tailCacheBytes = tailCacheBytes;
         rootDir = new RootDir(baseDir);
 
         LogGeneration latestGeneration = rootDir.getLatestGeneration();
@@ -44,23 +78,41 @@ public class FileLog extends AbstractLog {
             if (latestGeneration.getSnapshotFile().exists()) {
                 snapshot = new FileSnapshot(latestGeneration);
             }
-            FileEntrySequence fileEntrySequence = new FileEntrySequence(latestGeneration, snapshot.getLastIncludedIndex() + 1);
-            commitIndex = fileEntrySequence.getCommitIndex();
-            entrySequence = fileEntrySequence;
+            entrySequence = newEntrySequence(latestGeneration, snapshot.getLastIncludedIndex() + 1);
+            commitIndex = entrySequence.getCommitIndex();
             // TODO apply last group config entry
             groupConfigEntryList = entrySequence.buildGroupConfigEntryList();
         } else {
             LogGeneration firstGeneration = rootDir.createFirstGeneration();
-            entrySequence = new FileEntrySequence(firstGeneration, 1);
+            entrySequence = newEntrySequence(firstGeneration, 1);
+        }
+    }
+
+    /**
+     * Create log entry sequence in log directory.
+     *
+     * @param logDir         log directory
+     * @param logIndexOffset index of the first log entry
+     * @return log entry sequence
+     */
+    private EntrySequence newEntrySequence(LogDir logDir, int logIndexOffset) {
+        EntrySequence newEntrySequence;
+        if (segmentSize > 0) {
+            newEntrySequence = new SegmentedEntrySequence(logDir.getSegmentsDir(), logIndexOffset, segmentSize,
+                    flushPolicy != null ? flushPolicy : LogFlushPolicy.none());
+        } else {
+            newEntrySequence = new FileEntrySequence(logDir, logIndexOffset, flushPolicy, tailCacheBytes);
         }
+        newEntrySequence.setMetricRegistry(metricRegistry);
+        return newEntrySequence;
     }
 
     @Override
-    protected Snapshot generateSnapshot(EntryMeta lastAppliedEntryMeta, Set<NodeEndpoint> groupConfig) {
+    protected Snapshot generateSnapshot(EntryMeta lastAppliedEntryMeta, Set<NodeEndpoint> groupConfig, SnapshotView view) {
         LogDir logDir = rootDir.getLogDirForGenerating();
         try (FileSnapshotWriter snapshotWriter = new FileSnapshotWriter(
-                logDir.getSnapshotFile(), lastAppliedEntryMeta.getIndex(), lastAppliedEntryMeta.getTerm(), groupConfig)) {
-            stateMachine.generateSnapshot(snapshotWriter.getOutput());
+                logDir.getSnapshotFile(), lastAppliedEntryMeta.getIndex(), lastAppliedEntryMeta.getTerm(), groupConfig, snapshotCodec)) {
+            view.writeTo(snapshotWriter.getOutput());
         } catch (IOException e) {
             throw new LogException("failed to generate snapshot", e);
         }
@@ -79,9 +131,10 @@ public class FileLog extends AbstractLog {
         int logIndexOffset = lastIncludedIndex + 1;
 
         List<Entry> remainingEntries = entrySequence.subView(logIndexOffset);
-        EntrySequence newEntrySequence = new FileEntrySequence(fileSnapshot.getLogDir(), logIndexOffset);
+        int newCommitIndex = Math.max(commitIndex, lastIncludedIndex);
+        EntrySequence newEntrySequence = newEntrySequence(fileSnapshot.getLogDir(), logIndexOffset);
         newEntrySequence.append(remainingEntries);
-        newEntrySequence.commit(Math.max(commitIndex, lastIncludedIndex));
+        newEntrySequence.commit(newCommitIndex);
         newEntrySequence.close();
 
         snapshot.close();
@@ -90,7 +143,9 @@ public class FileLog extends AbstractLog {
 
         LogDir generation = rootDir.rename(fileSnapshot.getLogDir(), lastIncludedIndex);
         snapshot = new FileSnapshot(generation);
-        entrySequence = new FileEntrySequence(generation, logIndexOffset);
+        entrySequence = newEntrySequence(generation, logIndexOffset);
+        // write-ahead log does not persist commitIndex
+        entrySequence.commit(newCommitIndex);
         groupConfigEntryList = entrySequence.buildGroupConfigEntryList();
         commitIndex = entrySequence.getCommitIndex();
     }
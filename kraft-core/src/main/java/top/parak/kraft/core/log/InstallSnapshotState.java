@@ -21,11 +21,20 @@ public class InstallSnapshotState {
 
     private final StateName stateName;
     private Set<NodeEndpoint> lastConfig;
+    /**
+     * The offset of next chunk expected.
+     */
+    private int offset;
 
     public InstallSnapshotState(StateName stateName) {
         this.stateName = stateName;
     }
 
+    public InstallSnapshotState(StateName stateName, int offset) {
+        this.stateName = stateName;
+        this.offset = offset;
+    }
+
     public InstallSnapshotState(StateName stateName, Set<NodeEndpoint> lastConfig) {
         this.stateName = stateName;
         this.lastConfig = lastConfig;
@@ -39,4 +48,8 @@ public class InstallSnapshotState {
         return lastConfig;
     }
 
+    public int getOffset() {
+        return offset;
+    }
+
 }
@@ -1,11 +1,17 @@
 package top.parak.kraft.core.log;
 
 import top.parak.kraft.core.log.entry.*;
+import top.parak.kraft.core.log.snapshot.Snapshot;
+import top.parak.kraft.core.log.snapshot.SnapshotCodec;
+import top.parak.kraft.core.log.statemachine.SnapshotView;
 import top.parak.kraft.core.log.statemachine.StateMachine;
 import top.parak.kraft.core.node.NodeEndpoint;
 import top.parak.kraft.core.node.NodeId;
 import top.parak.kraft.core.rpc.message.AppendEntriesRpc;
 import top.parak.kraft.core.rpc.message.InstallSnapshotRpc;
+import top.parak.kraft.core.rpc.message.ReadIndexRpc;
+import top.parak.kraft.core.support.metrics.MetricRegistry;
+import top.parak.kraft.core.support.task.TaskExecutor;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -42,6 +48,13 @@ public interface Log {
      */
     AppendEntriesRpc createAppendEntriesRpc(int term, NodeId selfId, int nextIndex, int maxEntries);
 
+    /**
+     * Get next message id of rpc, like {@link AppendEntriesRpc} and {@link ReadIndexRpc}, increased monotonically.
+     *
+     * @return next message id, greater than {@code 0}
+     */
+    long nextMessageId();
+
     /**
      * Create rpc request to install snapshot from log.
      *
@@ -75,6 +88,18 @@ public interface Log {
      */
     int getCommitIndex();
 
+    /**
+     * Get the index that state machine reaches after applying log entries not after the specified index.
+     * <p>
+     * Only general log entries are applied to state machine, so the result is the index of the last
+     * general log entry not after the specified index, or the last included index of snapshot.
+     * </p>
+     *
+     * @param index index
+     * @return index to apply
+     */
+    int getLastApplicableIndex(int index);
+
     /**
      * Return if the candidate's last log entry is newer than the node's own last log entry.
      *
@@ -101,6 +126,15 @@ public interface Log {
      */
     GeneralEntry appendEntry(int term, byte[] command);
 
+    /**
+     * Append a batch of general log entries.
+     *
+     * @param term     current term
+     * @param commands commands in bytes
+     * @return general log entries
+     */
+    List<GeneralEntry> appendEntries(int term, List<byte[]> commands);
+
     /**
      * Append a log entry for adding node.
      *
@@ -131,6 +165,27 @@ public interface Log {
      */
     boolean appendEntriesFromLeader(int prevLogIndex, int prevLogTerm, List<Entry> leaderEntries);
 
+    /**
+     * Find the conflict with previous log of rejected append entries rpc.
+     * <p>
+     * The conflict helps leader skip all conflicting log entries of a term in one round,
+     * instead of backing off next index one by one.
+     * </p>
+     *
+     * @param prevLogIndex index of previous log entry
+     * @return conflict
+     */
+    @Nonnull
+    LogConflict findConflict(int prevLogIndex);
+
+    /**
+     * Find the index of the last log entry with term.
+     *
+     * @param term term
+     * @return index, or {@code 0} if not found
+     */
+    int findLastIndexOfTerm(int term);
+
     /**
      * Advance commitIndex.
      * <p>
@@ -145,6 +200,10 @@ public interface Log {
 
     /**
      * Install snapshot.
+     * <p>
+     * Chunks are appended in order of offset. Chunk with unexpected offset is ignored, and the state
+     * carries the offset expected, so that leader can resume from it.
+     * </p>
      *
      * @param rpc rpc
      * @return install snapshot state
@@ -152,12 +211,53 @@ public interface Log {
     InstallSnapshotState installSnapshot(InstallSnapshotRpc rpc);
 
     /**
-     * Generate snapshot.
+     * Generate snapshot asynchronously.
+     * <p>
+     * The view of state machine is written to a new snapshot by snapshot executor without blocking
+     * node thread, and {@link top.parak.kraft.core.log.event.SnapshotGeneratedEvent} is posted when
+     * finished. Generating is skipped if the previous one isn't finished.
+     * </p>
      *
      * @param lastIncludedIndex last included index
      * @param groupConfig       group config
+     * @param view              point-in-time view of state machine
+     */
+    void generateSnapshot(int lastIncludedIndex, Set<NodeEndpoint> groupConfig, SnapshotView view);
+
+    /**
+     * Replace current snapshot with the generated one, and finish generating.
+     * <p>
+     * The generated snapshot is discarded if current snapshot changed during generating,
+     * e.g. installed from leader.
+     * </p>
+     *
+     * @param generatedSnapshot generated snapshot, {@code null} if failed to generate
      */
-    void generateSnapshot(int lastIncludedIndex, Set<NodeEndpoint> groupConfig);
+    void replaceGeneratedSnapshot(@Nullable Snapshot generatedSnapshot);
+
+    /**
+     * Set executor to write snapshot.
+     *
+     * @param snapshotExecutor snapshot executor
+     */
+    void setSnapshotExecutor(TaskExecutor snapshotExecutor);
+
+    /**
+     * Set codec to compress snapshot generated.
+     * <p>
+     * Snapshot installed from leader keeps the codec of leader.
+     * </p>
+     *
+     * @param snapshotCodec snapshot codec
+     */
+    void setSnapshotCodec(SnapshotCodec snapshotCodec);
+
+    /**
+     * Set registry to record metrics of log, log entry sequence and state machine.
+     *
+     * @param metricRegistry metric registry
+     */
+    void setMetricRegistry(MetricRegistry metricRegistry);
 
     /**
      * Set state machine.
@@ -174,6 +274,15 @@ public interface Log {
      */
     void setStateMachine(StateMachine stateMachine);
 
+    /**
+     * Force log entries to disk if required by flush policy of write-ahead log.
+     * <p>
+     * Called periodically for {@code interval} policy, so that log entries are forced after a burst of
+     * writes ends, otherwise it does nothing if no log entry written since the last force.
+     * </p>
+     */
+    void flush();
+
     /**
      * Close log files.
      */
@@ -0,0 +1,63 @@
+package top.parak.kraft.core.log;
+
+/**
+ * Conflict of follower's log with previous log of append entries rpc.
+ * <p>
+ * If the previous log exists but its term differs, conflict term is the term of it,
+ * and conflict index is the first index of that term. If the previous log doesn't exist,
+ * conflict term is {@code 0}, and conflict index is the next index of follower's log.
+ * </p>
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+public class LogConflict {
+
+    /**
+     * The term of conflicting log entry, {@code 0} if not found.
+     */
+    private final int term;
+    /**
+     * The first index of conflicting term, or the next index of log.
+     */
+    private final int index;
+
+    /**
+     * Create LogConflict.
+     *
+     * @param term  the term of conflicting log entry
+     * @param index the first index of conflicting term, or the next index of log
+     */
+    public LogConflict(int term, int index) {
+        this.term = term;
+        this.index = index;
+    }
+
+    /**
+     * Get the term of conflicting log entry.
+     *
+     * @return term, {@code 0} if not found
+     */
+    public int getTerm() {
+        return term;
+    }
+
+    /**
+     * Get the first index of conflicting term, or the next index of log.
+     *
+     * @return index
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return "LogConflict{" +
+                "term=" + term +
+                ", index=" + index +
+                '}';
+    }
+
+}
@@ -44,6 +44,13 @@ public interface LogDir {
      */
     File getEntryOffsetIndexFile();
 
+    /**
+     * Get the directory to store log segments.
+     *
+     * @return segments directory
+     */
+    File getSegmentsDir();
+
     /**
      * Get directory.
      *
@@ -9,12 +9,14 @@ import top.parak.kraft.core.log.entry.EntryMeta;
 import top.parak.kraft.core.log.sequence.EntrySequence;
 import top.parak.kraft.core.log.sequence.MemoryEntrySequence;
 import top.parak.kraft.core.log.snapshot.*;
+import top.parak.kraft.core.log.statemachine.SnapshotView;
 import top.parak.kraft.core.node.NodeEndpoint;
 import top.parak.kraft.core.rpc.message.InstallSnapshotRpc;
 
 import javax.annotation.concurrent.NotThreadSafe;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Set;
 
@@ -60,14 +62,15 @@ public class MemoryLog extends AbstractLog {
     }
 
     @Override
-    protected Snapshot generateSnapshot(EntryMeta lastAppliedEntryMeta, Set<NodeEndpoint> groupConfig) {
+    protected Snapshot generateSnapshot(EntryMeta lastAppliedEntryMeta, Set<NodeEndpoint> groupConfig, SnapshotView view) {
         ByteArrayOutputStream output = new ByteArrayOutputStream();
-        try {
-            stateMachine.generateSnapshot(output);
+        try (OutputStream dataOutput = snapshotCodec.encode(output)) {
+            view.writeTo(dataOutput);
         } catch (IOException e) {
             throw new LogException("failed to generate snapshot", e);
         }
-        return new MemorySnapshot(lastAppliedEntryMeta.getIndex(), lastAppliedEntryMeta.getTerm(), output.toByteArray(), groupConfig);
+        return new MemorySnapshot(lastAppliedEntryMeta.getIndex(), lastAppliedEntryMeta.getTerm(),
+                output.toByteArray(), groupConfig, snapshotCodec);
     }
 
     @Override
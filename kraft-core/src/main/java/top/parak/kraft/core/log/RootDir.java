@@ -28,6 +28,10 @@ class RootDir {
      * The name of the log entry meta file.
      */
     static final String FILE_NAME_ENTRY_OFFSET_INDEX = "entries.idx";
+    /**
+     * The name of the directory to store log segments.
+     */
+    static final String DIR_NAME_SEGMENTS = "segments";
 
     private static final String DIR_NAME_GENERATING = "generating";
     private static final String DIR_NAME_INSTALLING = "installing";
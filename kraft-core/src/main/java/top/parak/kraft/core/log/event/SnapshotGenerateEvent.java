@@ -1,5 +1,7 @@
 package top.parak.kraft.core.log.event;
 
+import top.parak.kraft.core.log.statemachine.SnapshotView;
+
 /**
  * Snapshot generate event.
  *
@@ -10,13 +12,19 @@ package top.parak.kraft.core.log.event;
 public class SnapshotGenerateEvent {
 
     private final int lastIncludedIndex;
+    private final SnapshotView view;
 
-    public SnapshotGenerateEvent(int lastIncludedIndex) {
+    public SnapshotGenerateEvent(int lastIncludedIndex, SnapshotView view) {
         this.lastIncludedIndex = lastIncludedIndex;
+        this.view = view;
     }
 
     public int getLastIncludedIndex() {
         return lastIncludedIndex;
     }
 
+    public SnapshotView getView() {
+        return view;
+    }
+
 }
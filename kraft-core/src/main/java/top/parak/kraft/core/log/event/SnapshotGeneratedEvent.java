@@ -0,0 +1,38 @@
+package top.parak.kraft.core.log.event;
+
+import top.parak.kraft.core.log.snapshot.Snapshot;
+
+import javax.annotation.Nullable;
+
+/**
+ * Snapshot generated event, posted by snapshot thread when snapshot is written.
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+public class SnapshotGeneratedEvent {
+
+    private final int lastIncludedIndex;
+    private final Snapshot snapshot;
+
+    public SnapshotGeneratedEvent(int lastIncludedIndex, @Nullable Snapshot snapshot) {
+        this.lastIncludedIndex = lastIncludedIndex;
+        this.snapshot = snapshot;
+    }
+
+    public int getLastIncludedIndex() {
+        return lastIncludedIndex;
+    }
+
+    /**
+     * Get generated snapshot.
+     *
+     * @return snapshot, {@code null} if failed to generate
+     */
+    @Nullable
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+}
@@ -2,6 +2,8 @@ package top.parak.kraft.core.log.sequence;
 
 import top.parak.kraft.core.log.entry.Entry;
 import top.parak.kraft.core.log.entry.EntryMeta;
+import top.parak.kraft.core.support.metrics.Histogram;
+import top.parak.kraft.core.support.metrics.MetricRegistry;
 
 import java.util.Collections;
 import java.util.List;
@@ -34,6 +36,14 @@ public abstract class AbstractEntrySequence implements EntrySequence {
      * which is equal to {@code lastLogIndex - 1}, initialize as 1.
      */
     int nextLogIndex;
+    /**
+     * Latency in microseconds to write log entry to file.
+     */
+    Histogram writeHistogram = new Histogram();
+    /**
+     * Latency in microseconds to force log entries to disk.
+     */
+    Histogram flushHistogram = new Histogram();
 
     /**
      * Create AbstractEntrySequence.
@@ -45,6 +55,12 @@ public abstract class AbstractEntrySequence implements EntrySequence {
         this.nextLogIndex = logIndexOffset;
     }
 
+    @Override
+    public void setMetricRegistry(MetricRegistry registry) {
+        writeHistogram = registry.histogram("log.write_micros");
+        flushHistogram = registry.histogram("log.fsync_micros");
+    }
+
     @Override
     public boolean isEmpty() {
         return logIndexOffset == nextLogIndex;
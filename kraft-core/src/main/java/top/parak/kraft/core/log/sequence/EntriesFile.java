@@ -34,6 +34,11 @@ import java.io.IOException;
  */
 public class EntriesFile {
 
+    /**
+     * Length of log entry header: kind, index, term and length.
+     */
+    static final int LENGTH_ENTRY_HEADER = 16;
+
     private final SeekableFile seekableFile;
 
     /**
@@ -125,6 +130,15 @@ public class EntriesFile {
         seekableFile.truncate(offset);
     }
 
+    /**
+     * Force EntriesFile to disk.
+     *
+     * @throws IOException if IO exception occurs
+     */
+    public void flush() throws IOException {
+        seekableFile.flush();
+    }
+
     /**
      * Close EntriesFile.
      *
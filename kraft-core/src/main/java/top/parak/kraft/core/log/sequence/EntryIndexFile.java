@@ -4,12 +4,13 @@ import top.parak.kraft.core.support.file.RandomAccessFileAdapter;
 import top.parak.kraft.core.support.file.SeekableFile;
 
 import javax.annotation.Nonnull;
+import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
-import java.util.Map;
 
 /**
  * Log entry index file.
@@ -36,6 +37,10 @@ import java.util.Map;
  * then the index of the second log entry is {@code minEntryIndex + 1}, and the index of the
  * last log entry is {@link #maxEntryIndex}.
  *
+ * <p>Since the log entry indices are dense, the log entry index items are held in memory as
+ * primitive arrays indexed by {@code index - minEntryIndex}, so {@link #getOffset(int)},
+ * {@link #getKind(int)} and {@link #getTerm(int)} do not allocate.</p>
+ *
  * @author KHighness
  * @email parakovo@gmail.com
  * @since 2022-04-02
@@ -49,7 +54,15 @@ public class EntryIndexFile implements Iterable<EntryIndexItem> {
     /**
      * The length of a row of a log entry index.
      */
-    private static final int LENGTH_ENTRY_INDEX_ITEM = 16;
+    static final int LENGTH_ENTRY_INDEX_ITEM = 16;
+    /**
+     * The count of log entry index items to read at a time when loading.
+     */
+    private static final int LOAD_BATCH_SIZE = 4096;
+    /**
+     * The initial capacity of the arrays.
+     */
+    private static final int INITIAL_CAPACITY = 16;
     /**
      * The seekable file to store the log entry index.
      */
@@ -67,9 +80,17 @@ public class EntryIndexFile implements Iterable<EntryIndexItem> {
      */
     private int maxEntryIndex;
     /**
-     * The map to store the log entry index as key and {@link EntryIndexItem} as value.
+     * The offsets of the log entries, starting from {@link #minEntryIndex}.
+     */
+    private long[] offsets = new long[INITIAL_CAPACITY];
+    /**
+     * The kinds of the log entries, starting from {@link #minEntryIndex}.
+     */
+    private int[] kinds = new int[INITIAL_CAPACITY];
+    /**
+     * The terms of the log entries, starting from {@link #minEntryIndex}.
      */
-    private Map<Integer, EntryIndexItem> entryIndexMap = new HashMap<>();
+    private int[] terms = new int[INITIAL_CAPACITY];
 
     /**
      * Create EntryIndexFile.
@@ -163,7 +184,19 @@ public class EntryIndexFile implements Iterable<EntryIndexItem> {
         seekableFile.writeInt(kind);
         seekableFile.writeInt(term);
 
-        entryIndexMap.put(index, new EntryIndexItem(index, offset, kind, term));
+        setItem(index - minEntryIndex, offset, kind, term);
+    }
+
+    private void setItem(int position, long offset, int kind, int term) {
+        if (position >= offsets.length) {
+            int newCapacity = Math.max(position + 1, offsets.length + (offsets.length >> 1));
+            offsets = Arrays.copyOf(offsets, newCapacity);
+            kinds = Arrays.copyOf(kinds, newCapacity);
+            terms = Arrays.copyOf(terms, newCapacity);
+        }
+        offsets[position] = offset;
+        kinds[position] = kind;
+        terms[position] = term;
     }
 
     private long getOffsetOfEntryIndexItem(int index) {
@@ -190,10 +223,6 @@ public class EntryIndexFile implements Iterable<EntryIndexItem> {
         seekableFile.writeInt(newMaxEntryIndex);
         // reset size of the index file
         seekableFile.truncate(getOffsetOfEntryIndexItem(newMaxEntryIndex + 1));
-        // remove the log entry index in map
-        for (int i = newMaxEntryIndex + 1; i <= maxEntryIndex; i++) {
-            entryIndexMap.remove(i);
-        }
         maxEntryIndex = newMaxEntryIndex;
         entryIndexCount = newMaxEntryIndex - minEntryIndex + 1;
     }
@@ -206,7 +235,6 @@ public class EntryIndexFile implements Iterable<EntryIndexItem> {
     public void clear() throws IOException {
         seekableFile.truncate(0L);
         entryIndexCount = 0;
-        entryIndexMap.clear();
     }
 
     /**
@@ -216,7 +244,27 @@ public class EntryIndexFile implements Iterable<EntryIndexItem> {
      * @return the offset of the log entry
      */
     public long getOffset(int entryIndex) {
-        return get(entryIndex).getOffset();
+        return offsets[checkIndex(entryIndex)];
+    }
+
+    /**
+     * Get the kind of the log entry whose index equals to the specified index.
+     *
+     * @param entryIndex the specified index
+     * @return the kind of the log entry
+     */
+    public int getKind(int entryIndex) {
+        return kinds[checkIndex(entryIndex)];
+    }
+
+    /**
+     * Get the term of the log entry whose index equals to the specified index.
+     *
+     * @param entryIndex the specified index
+     * @return the term of the log entry
+     */
+    public int getTerm(int entryIndex) {
+        return terms[checkIndex(entryIndex)];
     }
 
     /**
@@ -229,11 +277,22 @@ public class EntryIndexFile implements Iterable<EntryIndexItem> {
      */
     @Nonnull
     public EntryIndexItem get(int entryIndex) {
+        int position = checkIndex(entryIndex);
+        return new EntryIndexItem(entryIndex, offsets[position], kinds[position], terms[position]);
+    }
+
+    /**
+     * Check the specified index and return its position in arrays.
+     *
+     * @param entryIndex the specified index
+     * @return the position in arrays
+     */
+    private int checkIndex(int entryIndex) {
         checkEmpty();
         if (entryIndex < minEntryIndex || entryIndex > maxEntryIndex) {
             throw new IllegalArgumentException("index < min or index > max");
         }
-        return entryIndexMap.get(entryIndex);
+        return entryIndex - minEntryIndex;
     }
 
     private void load() throws IOException {
@@ -244,14 +303,28 @@ public class EntryIndexFile implements Iterable<EntryIndexItem> {
         minEntryIndex = seekableFile.readInt();
         maxEntryIndex = seekableFile.readInt();
         updateEntryIndexCount();
-        long offset;
-        int kind;
-        int term;
-        for (int i = minEntryIndex; i <= maxEntryIndex; i++) {
-            offset = seekableFile.readLong();
-            kind = seekableFile.readInt();
-            term = seekableFile.readInt();
-            entryIndexMap.put(i, new EntryIndexItem(i, offset, kind, term));
+        offsets = new long[entryIndexCount];
+        kinds = new int[entryIndexCount];
+        terms = new int[entryIndexCount];
+        // read items in batch instead of field by field
+        byte[] bytes = new byte[Math.min(entryIndexCount, LOAD_BATCH_SIZE) * LENGTH_ENTRY_INDEX_ITEM];
+        int position = 0;
+        int count;
+        ByteBuffer buffer;
+        while (position < entryIndexCount) {
+            count = Math.min(entryIndexCount - position, LOAD_BATCH_SIZE);
+            if (count * LENGTH_ENTRY_INDEX_ITEM != bytes.length) {
+                bytes = new byte[count * LENGTH_ENTRY_INDEX_ITEM];
+            }
+            if (seekableFile.read(bytes) != bytes.length) {
+                throw new EOFException("unexpected end of entry index file");
+            }
+            buffer = ByteBuffer.wrap(bytes);
+            for (int i = 0; i < count; i++, position++) {
+                offsets[position] = buffer.getLong();
+                kinds[position] = buffer.getInt();
+                terms[position] = buffer.getInt();
+            }
         }
     }
 
@@ -274,6 +347,10 @@ public class EntryIndexFile implements Iterable<EntryIndexItem> {
         return new EntryIndexIterator(entryIndexCount, minEntryIndex);
     }
 
+    public void flush() throws IOException {
+        seekableFile.flush();
+    }
+
     public void close() throws IOException {
         seekableFile.close();
     }
@@ -303,7 +380,7 @@ public class EntryIndexFile implements Iterable<EntryIndexItem> {
         @Override
         public EntryIndexItem next() {
             checkModification();
-            return entryIndexMap.get(currentEntryIndex++);
+            return get(currentEntryIndex++);
         }
     }
 
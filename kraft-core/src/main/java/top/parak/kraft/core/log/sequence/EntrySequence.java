@@ -2,6 +2,7 @@ package top.parak.kraft.core.log.sequence;
 
 import top.parak.kraft.core.log.entry.Entry;
 import top.parak.kraft.core.log.entry.EntryMeta;
+import top.parak.kraft.core.support.metrics.MetricRegistry;
 
 import java.util.List;
 
@@ -113,6 +114,12 @@ public interface EntrySequence {
      */
     void commit(int index);
 
+    /**
+     * Force the appended log entries to disk according to the flush policy,
+     * called once for a batch of log entries (group commit).
+     */
+    void flush();
+
     /**
      * Get {@code commitIndex} of the log entry sequence.
      *
@@ -139,4 +146,11 @@ public interface EntrySequence {
      */
     GroupConfigEntryList buildGroupConfigEntryList();
 
+    /**
+     * Set registry to record latency of writing and forcing log entries.
+     *
+     * @param registry metric registry
+     */
+    void setMetricRegistry(MetricRegistry registry);
+
 }
@@ -6,6 +6,7 @@ import top.parak.kraft.core.log.entry.Entry;
 import top.parak.kraft.core.log.entry.EntryFactory;
 import top.parak.kraft.core.log.entry.EntryMeta;
 import top.parak.kraft.core.log.entry.GroupConfigEntry;
+import top.parak.kraft.core.support.metrics.MetricRegistry;
 
 import javax.annotation.concurrent.NotThreadSafe;
 import java.io.IOException;
@@ -13,10 +14,21 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * File-based log entry sequence.
  *
+ * <p>By default, the log entries are cached in memory until committed. If a {@link LogFlushPolicy}
+ * is specified, the log entry sequence works as a write-ahead log: the log entries are written to
+ * the log entry file and the log entry index file as they arrive, and forced to disk at {@link #flush()}
+ * according to the policy. Since the committed position is not persisted, {@code commitIndex} starts
+ * from the index before the first log entry after reopen, and is advanced by leader again.</p>
+ *
+ * <p>The log entries recently written to the log entry file are cached in memory, bounded by bytes,
+ * so that reading the tail of the log, like replicating to followers slightly behind, does not read
+ * the log entry file.</p>
+ *
  * @author KHighness
  * @since 2022-04-02
  * @email parakovo@gmail.com
@@ -40,6 +52,34 @@ public class FileEntrySequence extends AbstractEntrySequence {
      * The list to cache the log entries.
      */
     private final LinkedList<Entry> pendingEntries = new LinkedList<>();
+    /**
+     * The cache of the log entries at the tail of the log entry file.
+     */
+    private final TailEntryCache tailEntryCache;
+    /**
+     * The count of the log entries in file read from the tail cache.
+     */
+    private long tailEntryCacheHits;
+    /**
+     * The count of the log entries in file read from the log entry file.
+     */
+    private long tailEntryCacheMisses;
+    /**
+     * The policy to force the log entries to disk, {@code null} if not write-ahead.
+     */
+    private final LogFlushPolicy flushPolicy;
+    /**
+     * The bytes written since the last force.
+     */
+    private long unflushedBytes;
+    /**
+     * Whether there are changes since the last force.
+     */
+    private boolean dirty;
+    /**
+     * The timestamp of the last force.
+     */
+    private long lastFlushedAt;
     /**
      * The initial commitIndex defined in RAFT is {@code 0}, regardless
      * of whether the log is persistent or not.
@@ -53,7 +93,32 @@ public class FileEntrySequence extends AbstractEntrySequence {
      * @param logIndexOffset the index of the first log entry
      */
     public FileEntrySequence(LogDir logDir, int logIndexOffset) {
+        this(logDir, logIndexOffset, null);
+    }
+
+    /**
+     * Create FileEntrySequence.
+     *
+     * @param logDir         the log dir
+     * @param logIndexOffset the index of the first log entry
+     * @param flushPolicy    the flush policy, {@code null} if not write-ahead
+     */
+    public FileEntrySequence(LogDir logDir, int logIndexOffset, LogFlushPolicy flushPolicy) {
+        this(logDir, logIndexOffset, flushPolicy, 0);
+    }
+
+    /**
+     * Create FileEntrySequence.
+     *
+     * @param logDir         the log dir
+     * @param logIndexOffset the index of the first log entry
+     * @param flushPolicy    the flush policy, {@code null} if not write-ahead
+     * @param cacheBytes     the max bytes of the log entries cached at the tail of file, {@code 0} to disable
+     */
+    public FileEntrySequence(LogDir logDir, int logIndexOffset, LogFlushPolicy flushPolicy, int cacheBytes) {
         super(logIndexOffset);
+        this.flushPolicy = flushPolicy;
+        this.tailEntryCache = new TailEntryCache(cacheBytes);
         try {
             this.entriesFile = new EntriesFile(logDir.getEntriesFile());
             this.entryIndexFile = new EntryIndexFile(logDir.getEntryOffsetIndexFile());
@@ -71,7 +136,35 @@ public class FileEntrySequence extends AbstractEntrySequence {
      * @param logIndexOffset the index of the first log entry
      */
     public FileEntrySequence(EntriesFile entriesFile, EntryIndexFile entryIndexFile, int logIndexOffset) {
+        this(entriesFile, entryIndexFile, logIndexOffset, null);
+    }
+
+    /**
+     * Create FileEntrySequence.
+     *
+     * @param entriesFile    the log entry file
+     * @param entryIndexFile the log entry index file
+     * @param logIndexOffset the index of the first log entry
+     * @param flushPolicy    the flush policy, {@code null} if not write-ahead
+     */
+    public FileEntrySequence(EntriesFile entriesFile, EntryIndexFile entryIndexFile, int logIndexOffset, LogFlushPolicy flushPolicy) {
+        this(entriesFile, entryIndexFile, logIndexOffset, flushPolicy, 0);
+    }
+
+    /**
+     * Create FileEntrySequence.
+     *
+     * @param entriesFile    the log entry file
+     * @param entryIndexFile the log entry index file
+     * @param logIndexOffset the index of the first log entry
+     * @param flushPolicy    the flush policy, {@code null} if not write-ahead
+     * @param cacheBytes     the max bytes of the log entries cached at the tail of file, {@code 0} to disable
+     */
+    public FileEntrySequence(EntriesFile entriesFile, EntryIndexFile entryIndexFile, int logIndexOffset,
+                             LogFlushPolicy flushPolicy, int cacheBytes) {
         super(logIndexOffset);
+        this.flushPolicy = flushPolicy;
+        this.tailEntryCache = new TailEntryCache(cacheBytes);
         this.entriesFile = entriesFile;
         this.entryIndexFile = entryIndexFile;
         initialize();
@@ -81,22 +174,52 @@ public class FileEntrySequence extends AbstractEntrySequence {
      * Initialize fields.
      */
     private void initialize() {
+        lastFlushedAt = System.currentTimeMillis();
         if (entryIndexFile.isEmpty()) {
             commitIndex = logIndexOffset - 1;
             return;
         }
         logIndexOffset = entryIndexFile.getMinEntryIndex();
         nextLogIndex = entryIndexFile.getMaxEntryIndex() + 1;
-        commitIndex = entryIndexFile.getMaxEntryIndex();
+        // entries in write-ahead log may be uncommitted
+        commitIndex = isWriteAhead() ? logIndexOffset - 1 : entryIndexFile.getMaxEntryIndex();
     }
 
     /**
-     * Get the log entry whose index equals to the specified index from the log entry file.
+     * Check if the log entry sequence works as a write-ahead log.
+     *
+     * @return true if write-ahead, otherwise false
+     */
+    public boolean isWriteAhead() {
+        return flushPolicy != null;
+    }
+
+    @Override
+    public void setMetricRegistry(MetricRegistry registry) {
+        super.setMetricRegistry(registry);
+        // replace gauges of the sequence of previous generation
+        registry.remove("log.tail_cache_hits");
+        registry.gauge("log.tail_cache_hits", () -> tailEntryCacheHits);
+        registry.remove("log.tail_cache_misses");
+        registry.gauge("log.tail_cache_misses", () -> tailEntryCacheMisses);
+        registry.remove("log.tail_cache_bytes");
+        registry.gauge("log.tail_cache_bytes", tailEntryCache::getBytes);
+    }
+
+    /**
+     * Get the log entry whose index equals to the specified index from the tail cache,
+     * or the log entry file if not cached.
      *
      * @param index the specified index
      * @return the log entry
      */
     private Entry getEntryInFile(int index) {
+        Entry entry = tailEntryCache.get(index);
+        if (entry != null) {
+            tailEntryCacheHits++;
+            return entry;
+        }
+        tailEntryCacheMisses++;
         long offset = entryIndexFile.getOffset(index);
         try {
             return entriesFile.loadEntry(offset, entryFactory);
@@ -129,7 +252,7 @@ public class FileEntrySequence extends AbstractEntrySequence {
         if (entryIndexFile.isEmpty()) {
             return pendingEntries.get(index - doGetFirstLogIndex()).getMeta();
         }
-        return entryIndexFile.get(index).toEntryMeta();
+        return new EntryMeta(entryIndexFile.getKind(index), index, entryIndexFile.getTerm(index));
     }
 
     @Override
@@ -178,7 +301,22 @@ public class FileEntrySequence extends AbstractEntrySequence {
 
     @Override
     protected void doAppend(Entry entry) {
-        pendingEntries.add(entry);
+        if (!isWriteAhead()) {
+            pendingEntries.add(entry);
+            return;
+        }
+        try {
+            long startedAt = System.nanoTime();
+            long offset = entriesFile.appendEntry(entry);
+            entryIndexFile.appendEntryIndex(entry.getIndex(), offset, entry.getKind(), entry.getTerm());
+            writeHistogram.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startedAt));
+            tailEntryCache.add(entry);
+            unflushedBytes += EntriesFile.LENGTH_ENTRY_HEADER + entry.getCommandBytes().length
+                    + EntryIndexFile.LENGTH_ENTRY_INDEX_ITEM;
+            dirty = true;
+        } catch (IOException e) {
+            throw new LogException("failed to append entry " + entry, e);
+        }
     }
 
     @Override
@@ -197,20 +335,23 @@ public class FileEntrySequence extends AbstractEntrySequence {
             // remove entries whose index is greater than index
             if (index >= doGetFirstLogIndex()) {
                 pendingEntries.clear();
+                tailEntryCache.removeAfter(index);
                 entriesFile.truncate(entryIndexFile.getOffset(index + 1));
                 entryIndexFile.removeAfter(index);
                 nextLogIndex = index + 1;
-                commitIndex = index;
+                commitIndex = Math.min(commitIndex, index);
             }
             // index < index of first log entry in file
             // clear the log entry file and the log entry index file
             else {
                 pendingEntries.clear();
+                tailEntryCache.clear();
                 entriesFile.clear();
                 entryIndexFile.clear();
                 nextLogIndex = logIndexOffset;
                 commitIndex = logIndexOffset - 1;
             }
+            dirty = true;
         } catch (IOException e) {
             throw new LogException(e);
         }
@@ -224,6 +365,14 @@ public class FileEntrySequence extends AbstractEntrySequence {
         if (index == commitIndex) {
             return;
         }
+        if (isWriteAhead()) {
+            // entries have been written at append
+            if (index > doGetLastLogIndex()) {
+                throw new IllegalArgumentException("no entry to commit or commit index exceed");
+            }
+            commitIndex = index;
+            return;
+        }
         if (pendingEntries.isEmpty() || pendingEntries.getLast().getIndex() < index) {
             throw new IllegalArgumentException("no entry to commit or commit index exceed");
         }
@@ -232,8 +381,11 @@ public class FileEntrySequence extends AbstractEntrySequence {
         try {
             for (int i = commitIndex + 1; i <= index; i++) {
                 entry = pendingEntries.removeFirst();
+                long startedAt = System.nanoTime();
                 offset = entriesFile.appendEntry(entry);
                 entryIndexFile.appendEntryIndex(i, offset, entry.getKind(), entry.getTerm());
+                writeHistogram.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startedAt));
+                tailEntryCache.add(entry);
                 commitIndex = i;
             }
         } catch (IOException e) {
@@ -241,6 +393,36 @@ public class FileEntrySequence extends AbstractEntrySequence {
         }
     }
 
+    @Override
+    public void flush() {
+        if (!isWriteAhead() || !dirty) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (flushPolicy.shouldFlush(unflushedBytes, lastFlushedAt, now)) {
+            doFlush(now);
+        }
+    }
+
+    /**
+     * Force the log entry file and the log entry index file to disk.
+     *
+     * @param now current timestamp
+     */
+    private void doFlush(long now) {
+        long startedAt = System.nanoTime();
+        try {
+            entriesFile.flush();
+            entryIndexFile.flush();
+        } catch (IOException e) {
+            throw new LogException("failed to flush", e);
+        }
+        flushHistogram.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startedAt));
+        unflushedBytes = 0;
+        dirty = false;
+        lastFlushedAt = now;
+    }
+
     @Override
     public int getCommitIndex() {
         return commitIndex;
@@ -248,6 +430,10 @@ public class FileEntrySequence extends AbstractEntrySequence {
 
     @Override
     public void close() {
+        if (isWriteAhead() && dirty && flushPolicy.getKind() != LogFlushPolicy.Kind.NONE) {
+            doFlush(System.currentTimeMillis());
+        }
+        tailEntryCache.clear();
         try {
             entriesFile.close();
             entryIndexFile.close();
@@ -262,11 +448,13 @@ public class FileEntrySequence extends AbstractEntrySequence {
 
         // check file
         try {
-            int entryKind;
-            for (EntryIndexItem indexItem : entryIndexFile) {
-                entryKind = indexItem.getKind();
-                if (entryKind == Entry.KIND_ADD_NODE || entryKind == Entry.KIND_REMOVE_NODE) {
-                    list.add((GroupConfigEntry) entriesFile.loadEntry(indexItem.getOffset(), entryFactory));
+            if (!entryIndexFile.isEmpty()) {
+                int entryKind;
+                for (int i = entryIndexFile.getMinEntryIndex(); i <= entryIndexFile.getMaxEntryIndex(); i++) {
+                    entryKind = entryIndexFile.getKind(i);
+                    if (entryKind == Entry.KIND_ADD_NODE || entryKind == Entry.KIND_REMOVE_NODE) {
+                        list.add((GroupConfigEntry) entriesFile.loadEntry(entryIndexFile.getOffset(i), entryFactory));
+                    }
                 }
             }
         } catch (IOException e) {
@@ -0,0 +1,141 @@
+package top.parak.kraft.core.log.sequence;
+
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Policy to force the write-ahead log to disk.
+ *
+ * <p>The policy is checked at every group commit point, that is, once for a batch
+ * of log entries from leader or once before the leader advances {@code commitIndex},
+ * so that several appended log entries share a single {@code fsync}.</p>
+ * <ul>
+ *     <li>{@link Kind#ALWAYS}: force at every group commit point</li>
+ *     <li>{@link Kind#INTERVAL}: force if the last force is at least {@code interval} milliseconds ago</li>
+ *     <li>{@link Kind#BYTES}: force if at least {@code bytes} bytes have been written since the last force</li>
+ *     <li>{@link Kind#NONE}: never force, leave it to the operating system</li>
+ * </ul>
+ *
+ * <p>Policy named {@link #OFF} disables write-ahead log, log entries are written to file when committed.</p>
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+@Immutable
+public class LogFlushPolicy {
+
+    /**
+     * Name of policy to disable write-ahead log.
+     */
+    public static final String OFF = "off";
+
+    /**
+     * Kind of flush policy.
+     */
+    public enum Kind {
+        ALWAYS,
+        INTERVAL,
+        BYTES,
+        NONE
+    }
+
+    private final Kind kind;
+    private final int interval;
+    private final long bytes;
+
+    private LogFlushPolicy(Kind kind, int interval, long bytes) {
+        this.kind = kind;
+        this.interval = interval;
+        this.bytes = bytes;
+    }
+
+    public static LogFlushPolicy always() {
+        return new LogFlushPolicy(Kind.ALWAYS, 0, 0);
+    }
+
+    public static LogFlushPolicy interval(int interval) {
+        Preconditions.checkArgument(interval > 0, "flush interval should > 0");
+        return new LogFlushPolicy(Kind.INTERVAL, interval, 0);
+    }
+
+    public static LogFlushPolicy bytes(long bytes) {
+        Preconditions.checkArgument(bytes > 0, "flush bytes should > 0");
+        return new LogFlushPolicy(Kind.BYTES, 0, bytes);
+    }
+
+    public static LogFlushPolicy none() {
+        return new LogFlushPolicy(Kind.NONE, 0, 0);
+    }
+
+    /**
+     * Create policy by name.
+     *
+     * @param name     name of policy, one of {@code always}, {@code interval}, {@code bytes}, {@code none} and {@code off}
+     * @param interval interval in milliseconds, used by {@code interval}
+     * @param bytes    bytes, used by {@code bytes}
+     * @return policy, {@code null} if {@code off}
+     * @throws IllegalArgumentException if name is unknown
+     */
+    @Nullable
+    public static LogFlushPolicy of(String name, int interval, long bytes) {
+        if (OFF.equalsIgnoreCase(name.trim())) {
+            return null;
+        }
+        switch (Kind.valueOf(name.trim().toUpperCase())) {
+            case ALWAYS:
+                return always();
+            case INTERVAL:
+                return interval(interval);
+            case BYTES:
+                return bytes(bytes);
+            default:
+                return none();
+        }
+    }
+
+    /**
+     * Check if the log should be forced to disk.
+     *
+     * @param unflushedBytes bytes written since the last force
+     * @param lastFlushedAt  timestamp of the last force in milliseconds
+     * @param now            current timestamp in milliseconds
+     * @return true if should force, otherwise false
+     */
+    public boolean shouldFlush(long unflushedBytes, long lastFlushedAt, long now) {
+        switch (kind) {
+            case ALWAYS:
+                return true;
+            case INTERVAL:
+                return now - lastFlushedAt >= interval;
+            case BYTES:
+                return unflushedBytes >= bytes;
+            default:
+                return false;
+        }
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return "LogFlushPolicy{" +
+                "kind=" + kind +
+                ", interval=" + interval +
+                ", bytes=" + bytes +
+                '}';
+    }
+
+}
@@ -0,0 +1,421 @@
+package top.parak.kraft.core.log.sequence;
+
+import top.parak.kraft.core.log.entry.Entry;
+import top.parak.kraft.core.log.entry.EntryFactory;
+import top.parak.kraft.core.log.entry.EntryMeta;
+import top.parak.kraft.core.log.entry.GroupConfigEntry;
+import top.parak.kraft.core.support.file.Files;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+
+/**
+ * Memory-mapped log segment.
+ *
+ * <p><b>Structure of log segment</b></p>
+ * {@link LogSegment} is a pair of fixed-size files, named by the index of the first log entry
+ * (base index). The log file records the log entries in the same layout as {@link EntriesFile}:
+ * <pre>
+ * +----------+----------+----------+----------+----------------+
+ * |   int(4) |   int(4) |   int(4) |   int(4) |     bytes      |
+ * +----------+----------+----------+----------+----------------+
+ * |   kind   |   index  |   term   |  length  |  command bytes |
+ * +----------+----------+----------+----------+----------------+
+ * </pre>
+ * The index file is a sparse index, one item for every {@link #INDEX_INTERVAL} bytes of log entries:
+ * <pre>
+ * +-------------------+---------------+
+ * |       int(4)      |     int(4)    |
+ * +-------------------+---------------+
+ * | relativeIndex + 1 |    position   |
+ * +-------------------+---------------+
+ * </pre>
+ * An item with zero relative index means the end of the index. Both files are mapped into memory, so
+ * reading and writing a log entry is a memory copy, without any system call.
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+@NotThreadSafe
+class LogSegment {
+
+    /**
+     * Suffix of log file.
+     */
+    static final String SUFFIX_LOG = ".log";
+    /**
+     * Suffix of index file.
+     */
+    static final String SUFFIX_INDEX = ".idx";
+    /**
+     * Length of log entry header: kind, index, term and length.
+     */
+    static final int LENGTH_ENTRY_HEADER = 16;
+    /**
+     * Length of sparse index item: relative index and position.
+     */
+    private static final int LENGTH_INDEX_ITEM = 8;
+    /**
+     * Bytes of log entries between two sparse index items.
+     */
+    static final int INDEX_INTERVAL = 4096;
+
+    private final int baseIndex;
+    private final File logFile;
+    private final File indexFile;
+    private final MappedByteBuffer logBuffer;
+    private final MappedByteBuffer indexBuffer;
+    private final int capacity;
+    private final int indexCapacity;
+
+    /**
+     * The position to write next log entry.
+     */
+    private int writePosition;
+    /**
+     * The index of next log entry.
+     */
+    private int nextIndex;
+    /**
+     * The count of sparse index items.
+     */
+    private int indexCount;
+    /**
+     * Whether there are changes not forced to disk.
+     */
+    private boolean dirty;
+    /**
+     * Whether the buffers are unmapped.
+     */
+    private boolean closed;
+
+    /**
+     * Create or open LogSegment.
+     *
+     * @param dir       directory
+     * @param baseIndex index of the first log entry
+     * @param capacity  capacity in bytes, used if the segment is newly created
+     * @throws IOException if IO exception occurs
+     */
+    LogSegment(File dir, int baseIndex, int capacity) throws IOException {
+        this.baseIndex = baseIndex;
+        this.logFile = new File(dir, fileName(baseIndex, SUFFIX_LOG));
+        this.indexFile = new File(dir, fileName(baseIndex, SUFFIX_INDEX));
+        // existing segment keeps its own capacity
+        this.capacity = logFile.length() > 0 ? (int) logFile.length() : capacity;
+        this.indexCapacity = this.capacity / INDEX_INTERVAL + 1;
+        // mapping stays valid after the file is closed
+        try (RandomAccessFile logRaf = new RandomAccessFile(logFile, "rw");
+             RandomAccessFile indexRaf = new RandomAccessFile(indexFile, "rw")) {
+            logBuffer = logRaf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, this.capacity);
+            indexBuffer = indexRaf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, (long) indexCapacity * LENGTH_INDEX_ITEM);
+        }
+        recover();
+    }
+
+    static String fileName(int baseIndex, String suffix) {
+        return String.format("%020d%s", baseIndex, suffix);
+    }
+
+    /**
+     * Parse base index from the name of log file.
+     *
+     * @param fileName file name
+     * @return base index, or {@code -1} if not a log file of segment
+     */
+    static int parseBaseIndex(String fileName) {
+        if (!fileName.endsWith(SUFFIX_LOG)) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(fileName.substring(0, fileName.length() - SUFFIX_LOG.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Recover write position and next index.
+     * <p>
+     * Scan from the last valid sparse index item until a log entry whose index is unexpected,
+     * so only the tail of segment is scanned.
+     * </p>
+     */
+    private void recover() {
+        indexCount = 0;
+        while (indexCount < indexCapacity && indexBuffer.getInt(indexCount * LENGTH_INDEX_ITEM) > 0) {
+            indexCount++;
+        }
+        // drop index items pointing to log entries not written
+        while (indexCount > 0) {
+            int lastItem = (indexCount - 1) * LENGTH_INDEX_ITEM;
+            if (isEntryAt(indexBuffer.getInt(lastItem + 4), baseIndex + indexBuffer.getInt(lastItem) - 1)) {
+                break;
+            }
+            indexBuffer.putInt(lastItem, 0);
+            indexCount--;
+        }
+        int position = 0;
+        int index = baseIndex;
+        if (indexCount > 0) {
+            int lastItem = (indexCount - 1) * LENGTH_INDEX_ITEM;
+            index = baseIndex + indexBuffer.getInt(lastItem) - 1;
+            position = indexBuffer.getInt(lastItem + 4);
+        }
+        while (isEntryAt(position, index)) {
+            position += LENGTH_ENTRY_HEADER + logBuffer.getInt(position + 12);
+            index++;
+        }
+        writePosition = position;
+        nextIndex = index;
+    }
+
+    private boolean isEntryAt(int position, int index) {
+        if (position < 0 || position + LENGTH_ENTRY_HEADER > capacity || logBuffer.getInt(position + 4) != index) {
+            return false;
+        }
+        int length = logBuffer.getInt(position + 12);
+        return length >= 0 && position + LENGTH_ENTRY_HEADER + length <= capacity;
+    }
+
+    /**
+     * Append log entry.
+     *
+     * @param entry log entry
+     * @return true if appended, false if no enough space
+     */
+    boolean append(Entry entry) {
+        if (entry.getIndex() != nextIndex) {
+            throw new IllegalArgumentException("expected entry index " + nextIndex + ", but was " + entry.getIndex());
+        }
+        byte[] commandBytes = entry.getCommandBytes();
+        int length = LENGTH_ENTRY_HEADER + commandBytes.length;
+        if (writePosition + length > capacity) {
+            return false;
+        }
+        if (indexCount == 0 || writePosition - indexBuffer.getInt((indexCount - 1) * LENGTH_INDEX_ITEM + 4) >= INDEX_INTERVAL) {
+            // write index item before writing log entry, and recovery drops it if log entry is missing
+            indexBuffer.putInt(indexCount * LENGTH_INDEX_ITEM, nextIndex - baseIndex + 1);
+            indexBuffer.putInt(indexCount * LENGTH_INDEX_ITEM + 4, writePosition);
+            indexCount++;
+        }
+        ByteBuffer buffer = logBuffer.duplicate();
+        buffer.position(writePosition);
+        buffer.putInt(entry.getKind());
+        buffer.putInt(entry.getIndex());
+        buffer.putInt(entry.getTerm());
+        buffer.putInt(commandBytes.length);
+        buffer.put(commandBytes);
+        writePosition += length;
+        nextIndex++;
+        // mark end of segment
+        if (writePosition + LENGTH_ENTRY_HEADER <= capacity) {
+            logBuffer.putInt(writePosition + 4, 0);
+        }
+        dirty = true;
+        return true;
+    }
+
+    /**
+     * Locate the position of log entry.
+     *
+     * @param index index of log entry
+     * @return position
+     */
+    private int positionOf(int index) {
+        if (index < baseIndex || index >= nextIndex) {
+            throw new IllegalArgumentException("index " + index + " not in segment [" + baseIndex + ", " + nextIndex + ")");
+        }
+        // binary search the last sparse index item whose index <= index
+        int relativeIndex = index - baseIndex + 1;
+        int low = 0;
+        int high = indexCount - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (indexBuffer.getInt(mid * LENGTH_INDEX_ITEM) <= relativeIndex) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        int current = baseIndex + indexBuffer.getInt(low * LENGTH_INDEX_ITEM) - 1;
+        int position = indexBuffer.getInt(low * LENGTH_INDEX_ITEM + 4);
+        for (; current < index; current++) {
+            position += LENGTH_ENTRY_HEADER + logBuffer.getInt(position + 12);
+        }
+        return position;
+    }
+
+    private Entry readAt(int position, EntryFactory factory) {
+        int length = logBuffer.getInt(position + 12);
+        byte[] commandBytes = new byte[length];
+        ByteBuffer buffer = logBuffer.duplicate();
+        buffer.position(position + LENGTH_ENTRY_HEADER);
+        buffer.get(commandBytes);
+        return factory.create(logBuffer.getInt(position), logBuffer.getInt(position + 4), logBuffer.getInt(position + 8), commandBytes);
+    }
+
+    /**
+     * Read log entry.
+     *
+     * @param index   index of log entry
+     * @param factory entry factory
+     * @return log entry
+     */
+    Entry read(int index, EntryFactory factory) {
+        return readAt(positionOf(index), factory);
+    }
+
+    /**
+     * Read log entries whose index is in [fromIndex, toIndex) sequentially.
+     *
+     * @param fromIndex from index
+     * @param toIndex   to index
+     * @param factory   entry factory
+     * @param result    result
+     */
+    void read(int fromIndex, int toIndex, EntryFactory factory, List<Entry> result) {
+        int position = positionOf(fromIndex);
+        int end = Math.min(toIndex, nextIndex);
+        for (int i = fromIndex; i < end; i++) {
+            result.add(readAt(position, factory));
+            position += LENGTH_ENTRY_HEADER + logBuffer.getInt(position + 12);
+        }
+    }
+
+    /**
+     * Read meta of log entry.
+     *
+     * @param index index of log entry
+     * @return meta of log entry
+     */
+    EntryMeta readMeta(int index) {
+        int position = positionOf(index);
+        return new EntryMeta(logBuffer.getInt(position), index, logBuffer.getInt(position + 8));
+    }
+
+    /**
+     * Read group config entries by scanning the headers of log entries.
+     *
+     * @param factory entry factory
+     * @param result  result
+     */
+    void readGroupConfigEntries(EntryFactory factory, GroupConfigEntryList result) {
+        int position = 0;
+        int kind;
+        for (int i = baseIndex; i < nextIndex; i++) {
+            kind = logBuffer.getInt(position);
+            if (kind == Entry.KIND_ADD_NODE || kind == Entry.KIND_REMOVE_NODE) {
+                result.add((GroupConfigEntry) readAt(position, factory));
+            }
+            position += LENGTH_ENTRY_HEADER + logBuffer.getInt(position + 12);
+        }
+    }
+
+    /**
+     * Remove log entries whose index is greater than the specified index.
+     *
+     * @param index the specified index, should be greater than or equal to {@code baseIndex}
+     */
+    void removeAfter(int index) {
+        if (index >= nextIndex - 1) {
+            return;
+        }
+        int position = positionOf(index + 1);
+        // cut sparse index
+        int relativeIndex = index - baseIndex + 1;
+        while (indexCount > 0 && indexBuffer.getInt((indexCount - 1) * LENGTH_INDEX_ITEM) > relativeIndex) {
+            indexCount--;
+            indexBuffer.putInt(indexCount * LENGTH_INDEX_ITEM, 0);
+        }
+        // cut log entries
+        logBuffer.putInt(position + 4, 0);
+        writePosition = position;
+        nextIndex = index + 1;
+        dirty = true;
+    }
+
+    /**
+     * Force segment to disk if changed.
+     */
+    void flush() {
+        if (!dirty) {
+            return;
+        }
+        logBuffer.force();
+        indexBuffer.force();
+        dirty = false;
+    }
+
+    /**
+     * Force segment to disk and unmap the buffers.
+     * <p>
+     * Mapped buffers are released only when garbage collected, so segments closed or deleted
+     * would hold virtual memory and disk space for a long time without unmapping.
+     * The segment must not be accessed after closed.
+     * </p>
+     */
+    void close() {
+        if (closed) {
+            return;
+        }
+        logBuffer.force();
+        indexBuffer.force();
+        dirty = false;
+        unmap();
+    }
+
+    private void unmap() {
+        closed = true;
+        Files.unmap(logBuffer);
+        Files.unmap(indexBuffer);
+    }
+
+    /**
+     * Unmap the buffers and delete segment files.
+     *
+     * @throws IOException if IO exception occurs
+     */
+    void delete() throws IOException {
+        if (!closed) {
+            unmap();
+        }
+        if (!logFile.delete() || !indexFile.delete()) {
+            throw new IOException("failed to delete segment " + logFile);
+        }
+    }
+
+    boolean isDirty() {
+        return dirty;
+    }
+
+    int getBaseIndex() {
+        return baseIndex;
+    }
+
+    int getNextIndex() {
+        return nextIndex;
+    }
+
+    boolean isEmpty() {
+        return nextIndex == baseIndex;
+    }
+
+    @Override
+    public String toString() {
+        return "LogSegment{" +
+                "baseIndex=" + baseIndex +
+                ", nextIndex=" + nextIndex +
+                ", writePosition=" + writePosition +
+                ", capacity=" + capacity +
+                '}';
+    }
+
+}
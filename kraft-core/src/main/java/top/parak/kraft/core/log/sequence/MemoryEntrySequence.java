@@ -40,7 +40,8 @@ public class MemoryEntrySequence extends AbstractEntrySequence {
 
     @Override
     protected List<Entry> doSubList(int fromIndex, int toIndex) {
-        return entries.subList(fromIndex - logIndexOffset, toIndex - logIndexOffset);
+        // copy, sub list view is invalidated by later append while rpc holding it is pending
+        return new ArrayList<>(entries.subList(fromIndex - logIndexOffset, toIndex - logIndexOffset));
     }
 
     @Override
@@ -86,6 +87,10 @@ public class MemoryEntrySequence extends AbstractEntrySequence {
         }
     }
 
+    @Override
+    public void flush() {
+    }
+
     @Override
     public void close() {
     }
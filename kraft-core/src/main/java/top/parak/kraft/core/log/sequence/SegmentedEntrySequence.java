@@ -0,0 +1,293 @@
+package top.parak.kraft.core.log.sequence;
+
+import top.parak.kraft.core.log.LogException;
+import top.parak.kraft.core.log.entry.Entry;
+import top.parak.kraft.core.log.entry.EntryFactory;
+import top.parak.kraft.core.log.entry.EntryMeta;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Log entry sequence based on memory-mapped segments.
+ *
+ * <p><b>Structure of segmented log entry sequence</b></p>
+ * <pre>
+ * +--------------------+--------------------+- - - - - - - - - - -+
+ * |    segment(base)   |    segment(base)   |    segment(active)   |
+ * |  .log  |   .idx    |  .log  |   .idx    |  .log  |   .idx      |
+ * +--------------------+--------------------+- - - - - - - - - - -+
+ * </pre>
+ * Log entries are appended to the last segment, a new segment is rolled if the last segment is full.
+ * Removing log entries drops the segments after the specified index and cuts the segment containing it.
+ * Like {@link FileEntrySequence} in write-ahead mode, log entries are written as they arrive and forced
+ * to disk at {@link #flush()} according to the {@link LogFlushPolicy}, and {@code commitIndex} is not persisted.
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ * @see LogSegment
+ */
+@NotThreadSafe
+public class SegmentedEntrySequence extends AbstractEntrySequence {
+
+    /**
+     * The factory to create log entry.
+     */
+    private final EntryFactory entryFactory = new EntryFactory();
+    /**
+     * The directory to store segments.
+     */
+    private final File dir;
+    /**
+     * The capacity of new segment.
+     */
+    private final int segmentSize;
+    /**
+     * The policy to force the log entries to disk.
+     */
+    private final LogFlushPolicy flushPolicy;
+    /**
+     * The segments sorted by base index.
+     */
+    private final List<LogSegment> segments = new ArrayList<>();
+    /**
+     * The bytes written since the last force.
+     */
+    private long unflushedBytes;
+    /**
+     * The timestamp of the last force.
+     */
+    private long lastFlushedAt;
+    /**
+     * The initial commitIndex defined in RAFT is {@code 0}, regardless
+     * of whether the log is persistent or not.
+     */
+    private int commitIndex;
+
+    /**
+     * Create SegmentedEntrySequence.
+     *
+     * @param dir            the directory to store segments
+     * @param logIndexOffset the index of the first log entry
+     * @param segmentSize    the capacity of segment in bytes
+     * @param flushPolicy    the flush policy
+     */
+    public SegmentedEntrySequence(File dir, int logIndexOffset, int segmentSize, LogFlushPolicy flushPolicy) {
+        super(logIndexOffset);
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+        this.flushPolicy = flushPolicy;
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new LogException("failed to create directory " + dir);
+        }
+        try {
+            initialize();
+        } catch (IOException e) {
+            throw new LogException("failed to open segments", e);
+        }
+    }
+
+    /**
+     * Open existing segments.
+     *
+     * @throws IOException if IO exception occurs
+     */
+    private void initialize() throws IOException {
+        lastFlushedAt = System.currentTimeMillis();
+        List<Integer> baseIndices = new ArrayList<>();
+        String[] fileNames = dir.list();
+        if (fileNames != null) {
+            int baseIndex;
+            for (String fileName : fileNames) {
+                baseIndex = LogSegment.parseBaseIndex(fileName);
+                if (baseIndex > 0) {
+                    baseIndices.add(baseIndex);
+                }
+            }
+        }
+        baseIndices.sort(Integer::compare);
+        for (int baseIndex : baseIndices) {
+            segments.add(new LogSegment(dir, baseIndex, segmentSize));
+        }
+        if (!segments.isEmpty()) {
+            logIndexOffset = segments.get(0).getBaseIndex();
+            nextLogIndex = segments.get(segments.size() - 1).getNextIndex();
+        }
+        // entries in write-ahead log may be uncommitted
+        commitIndex = logIndexOffset - 1;
+    }
+
+    /**
+     * Find the segment containing the log entry.
+     *
+     * @param index the index of the log entry
+     * @return the segment
+     */
+    private LogSegment findSegment(int index) {
+        int low = 0;
+        int high = segments.size() - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (segments.get(mid).getBaseIndex() <= index) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return segments.get(low);
+    }
+
+    @Override
+    protected Entry doGetEntry(int index) {
+        return findSegment(index).read(index, entryFactory);
+    }
+
+    @Override
+    public EntryMeta getEntryMeta(int index) {
+        if (!isEntryPresent(index)) {
+            return null;
+        }
+        return findSegment(index).readMeta(index);
+    }
+
+    @Override
+    protected List<Entry> doSubList(int fromIndex, int toIndex) {
+        List<Entry> result = new ArrayList<>(toIndex - fromIndex);
+        int index = fromIndex;
+        LogSegment segment;
+        while (index < toIndex) {
+            segment = findSegment(index);
+            segment.read(index, toIndex, entryFactory, result);
+            index = segment.getNextIndex();
+        }
+        return result;
+    }
+
+    @Override
+    public Entry getLastEntry() {
+        if (isEmpty()) {
+            return null;
+        }
+        return doGetEntry(doGetLastLogIndex());
+    }
+
+    @Override
+    protected void doAppend(Entry entry) {
+        long startedAt = System.nanoTime();
+        try {
+            if (segments.isEmpty() || !segments.get(segments.size() - 1).append(entry)) {
+                LogSegment segment = new LogSegment(dir, entry.getIndex(), segmentSize);
+                if (!segment.append(entry)) {
+                    segment.delete();
+                    throw new LogException("entry " + entry.getIndex() + " is larger than segment size " + segmentSize);
+                }
+                segments.add(segment);
+            }
+        } catch (IOException e) {
+            throw new LogException("failed to append entry " + entry, e);
+        }
+        writeHistogram.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startedAt));
+        unflushedBytes += LogSegment.LENGTH_ENTRY_HEADER + entry.getCommandBytes().length;
+    }
+
+    @Override
+    protected void doRemoveAfter(int index) {
+        try {
+            // drop segments
+            LogSegment lastSegment;
+            while (!segments.isEmpty() && (lastSegment = segments.get(segments.size() - 1)).getBaseIndex() > index) {
+                lastSegment.delete();
+                segments.remove(segments.size() - 1);
+            }
+        } catch (IOException e) {
+            throw new LogException(e);
+        }
+        // cut the last segment
+        if (!segments.isEmpty()) {
+            segments.get(segments.size() - 1).removeAfter(index);
+        }
+        if (index < doGetFirstLogIndex()) {
+            nextLogIndex = logIndexOffset;
+            commitIndex = logIndexOffset - 1;
+        } else {
+            nextLogIndex = index + 1;
+            commitIndex = Math.min(commitIndex, index);
+        }
+    }
+
+    @Override
+    public void commit(int index) {
+        if (index < commitIndex) {
+            throw new IllegalArgumentException("commit index < " + commitIndex);
+        }
+        if (index == commitIndex) {
+            return;
+        }
+        // entries have been written at append
+        if (index > doGetLastLogIndex()) {
+            throw new IllegalArgumentException("no entry to commit or commit index exceed");
+        }
+        commitIndex = index;
+    }
+
+    @Override
+    public void flush() {
+        long now = System.currentTimeMillis();
+        if (flushPolicy.shouldFlush(unflushedBytes, lastFlushedAt, now)) {
+            doFlush(now);
+        }
+    }
+
+    /**
+     * Force changed segments to disk.
+     *
+     * @param now current timestamp
+     */
+    private void doFlush(long now) {
+        long startedAt = System.nanoTime();
+        for (LogSegment segment : segments) {
+            segment.flush();
+        }
+        flushHistogram.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startedAt));
+        unflushedBytes = 0;
+        lastFlushedAt = now;
+    }
+
+    @Override
+    public int getCommitIndex() {
+        return commitIndex;
+    }
+
+    @Override
+    public void close() {
+        for (LogSegment segment : segments) {
+            segment.close();
+        }
+        segments.clear();
+    }
+
+    @Override
+    public GroupConfigEntryList buildGroupConfigEntryList() {
+        GroupConfigEntryList list = new GroupConfigEntryList();
+        for (LogSegment segment : segments) {
+            segment.readGroupConfigEntries(entryFactory, list);
+        }
+        return list;
+    }
+
+    @Override
+    public String toString() {
+        return "SegmentedEntrySequence{" +
+                "dir=" + dir +
+                ", logIndexOffset=" + logIndexOffset +
+                ", nextLogIndex=" + nextLogIndex +
+                ", segments.size=" + segments.size() +
+                '}';
+    }
+
+}
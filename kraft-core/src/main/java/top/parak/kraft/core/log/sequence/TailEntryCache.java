@@ -0,0 +1,182 @@
+package top.parak.kraft.core.log.sequence;
+
+import top.parak.kraft.core.log.entry.Entry;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Cache of the log entries at the tail of the log entry file, bounded by bytes.
+ *
+ * <p>The log entries are held in a ring buffer in the order of index, and the indices are contiguous,
+ * so a log entry is located by {@code index - firstIndex} without searching. When the bytes of the log
+ * entries exceed the limit, the oldest log entries are evicted. The ring buffer grows by doubling,
+ * and never shrinks.</p>
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+@NotThreadSafe
+class TailEntryCache {
+
+    /**
+     * The bytes of a log entry besides command bytes: kind, index, term and length.
+     */
+    private static final int ENTRY_OVERHEAD = 16;
+    /**
+     * The initial capacity of the ring buffer, power of 2.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+    /**
+     * The max bytes of the log entries, {@code 0} to disable.
+     */
+    private final int maxBytes;
+    /**
+     * The ring buffer of the log entries, length is power of 2.
+     */
+    private Entry[] entries = new Entry[INITIAL_CAPACITY];
+    /**
+     * The bytes of each log entry, in the same slot as the log entry.
+     */
+    private int[] entryBytes = new int[INITIAL_CAPACITY];
+    /**
+     * The slot of the first log entry.
+     */
+    private int head;
+    /**
+     * The count of the log entries.
+     */
+    private int count;
+    /**
+     * The index of the first log entry.
+     */
+    private int firstIndex;
+    /**
+     * The bytes of the log entries.
+     */
+    private long bytes;
+
+    /**
+     * Create TailEntryCache.
+     *
+     * @param maxBytes the max bytes of the log entries, {@code 0} to disable
+     */
+    TailEntryCache(int maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Add the log entry after the last log entry, the oldest log entries are evicted if exceed the limit.
+     * <p>
+     * If the index of the log entry is not next to the last log entry, the cache is cleared first.
+     * The log entry larger than the limit is not cached.
+     * </p>
+     *
+     * @param entry the log entry
+     */
+    void add(Entry entry) {
+        if (maxBytes <= 0) {
+            return;
+        }
+        int size = ENTRY_OVERHEAD + entry.getCommandBytes().length;
+        if (size > maxBytes || (count > 0 && entry.getIndex() != firstIndex + count)) {
+            clear();
+            if (size > maxBytes) {
+                return;
+            }
+        }
+        while (bytes + size > maxBytes) {
+            removeFirst();
+        }
+        if (count == 0) {
+            firstIndex = entry.getIndex();
+        } else if (count == entries.length) {
+            grow();
+        }
+        int slot = (head + count) & (entries.length - 1);
+        entries[slot] = entry;
+        entryBytes[slot] = size;
+        count++;
+        bytes += size;
+    }
+
+    /**
+     * Get the log entry of the specified index.
+     *
+     * @param index the specified index
+     * @return the log entry, {@code null} if not cached
+     */
+    @Nullable
+    Entry get(int index) {
+        if (index < firstIndex || index >= firstIndex + count) {
+            return null;
+        }
+        return entries[(head + index - firstIndex) & (entries.length - 1)];
+    }
+
+    /**
+     * Remove the log entries whose index is greater than the specified index.
+     *
+     * @param index the specified index
+     */
+    void removeAfter(int index) {
+        while (count > 0 && firstIndex + count - 1 > index) {
+            int slot = (head + count - 1) & (entries.length - 1);
+            bytes -= entryBytes[slot];
+            entries[slot] = null;
+            count--;
+        }
+    }
+
+    /**
+     * Remove all log entries.
+     */
+    void clear() {
+        while (count > 0) {
+            removeFirst();
+        }
+        head = 0;
+    }
+
+    private void removeFirst() {
+        bytes -= entryBytes[head];
+        entries[head] = null;
+        head = (head + 1) & (entries.length - 1);
+        firstIndex++;
+        count--;
+    }
+
+    private void grow() {
+        Entry[] newEntries = new Entry[entries.length << 1];
+        int[] newEntryBytes = new int[entries.length << 1];
+        // count equals to length, copy from head to the end, then from the start to head
+        int headLength = entries.length - head;
+        System.arraycopy(entries, head, newEntries, 0, headLength);
+        System.arraycopy(entries, 0, newEntries, headLength, head);
+        System.arraycopy(entryBytes, head, newEntryBytes, 0, headLength);
+        System.arraycopy(entryBytes, 0, newEntryBytes, headLength, head);
+        entries = newEntries;
+        entryBytes = newEntryBytes;
+        head = 0;
+    }
+
+    /**
+     * Get the count of the log entries.
+     *
+     * @return count
+     */
+    int size() {
+        return count;
+    }
+
+    /**
+     * Get the bytes of the log entries.
+     *
+     * @return bytes
+     */
+    long getBytes() {
+        return bytes;
+    }
+
+}
@@ -2,9 +2,11 @@ package top.parak.kraft.core.log.snapshot;
 
 import top.parak.kraft.core.log.LogException;
 import top.parak.kraft.core.node.NodeEndpoint;
+import top.parak.kraft.core.node.NodeId;
 import top.parak.kraft.core.rpc.message.InstallSnapshotRpc;
 
 import java.io.IOException;
+import java.util.Objects;
 import java.util.Set;
 
 /**
@@ -16,6 +18,10 @@ import java.util.Set;
  */
 public abstract class AbstractSnapshotBuilder<T extends Snapshot> implements SnapshotBuilder<T> {
 
+    /**
+     * The id of leader sending the snapshot.
+     */
+    private final NodeId leaderId;
     /**
      * The index of the last log entry in the snapshot.
      */
@@ -28,6 +34,10 @@ public abstract class AbstractSnapshotBuilder<T extends Snapshot> implements Sna
      * The last group config in the snapshot.
      */
     Set<NodeEndpoint> lastConfig;
+    /**
+     * The codec of data in the snapshot.
+     */
+    SnapshotCodec codec;
     /**
      * The file-pointer of the snapshot.
      */
@@ -40,9 +50,11 @@ public abstract class AbstractSnapshotBuilder<T extends Snapshot> implements Sna
      */
     AbstractSnapshotBuilder(InstallSnapshotRpc firstRpc) {
         assert firstRpc.getOffset() == 0;
+        leaderId = firstRpc.getLeaderId();
         lastIncludedIndex = firstRpc.getLastIndex();
         lastIncludedTerm = firstRpc.getLastTerm();
         lastConfig = firstRpc.getLastConfig();
+        codec = SnapshotCodecs.of(firstRpc.getCodec());
         offset = firstRpc.getDataLength();
     }
 
@@ -67,6 +79,17 @@ public abstract class AbstractSnapshotBuilder<T extends Snapshot> implements Sna
      */
     protected abstract void doWrite(byte[] data) throws IOException;
 
+    @Override
+    public boolean isBuilding(InstallSnapshotRpc rpc) {
+        return Objects.equals(rpc.getLeaderId(), leaderId) &&
+                rpc.getLastIndex() == lastIncludedIndex && rpc.getLastTerm() == lastIncludedTerm;
+    }
+
+    @Override
+    public int getOffset() {
+        return offset;
+    }
+
     @Override
     public void append(InstallSnapshotRpc rpc) {
         if (rpc.getOffset() != offset) {
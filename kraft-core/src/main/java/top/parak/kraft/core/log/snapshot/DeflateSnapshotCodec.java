@@ -0,0 +1,88 @@
+package top.parak.kraft.core.log.snapshot;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Codec with deflate of JDK, smaller but slower than {@link Lz4SnapshotCodec}.
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+@Immutable
+public class DeflateSnapshotCodec implements SnapshotCodec {
+
+    public static final int ID = 1;
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private final int level;
+
+    /**
+     * Create DeflateSnapshotCodec with default compression level.
+     */
+    public DeflateSnapshotCodec() {
+        this(Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Create DeflateSnapshotCodec.
+     *
+     * @param level compression level, {@code 0-9} or {@link Deflater#DEFAULT_COMPRESSION}
+     */
+    public DeflateSnapshotCodec(int level) {
+        this.level = level;
+    }
+
+    @Override
+    public int getId() {
+        return ID;
+    }
+
+    @Nonnull
+    @Override
+    public String getName() {
+        return "deflate";
+    }
+
+    @Nonnull
+    @Override
+    public OutputStream encode(@Nonnull OutputStream output) {
+        Deflater deflater = new Deflater(level);
+        return new DeflaterOutputStream(output, deflater, BUFFER_SIZE) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    // deflater is not released by stream if specified
+                    deflater.end();
+                }
+            }
+        };
+    }
+
+    @Nonnull
+    @Override
+    public InputStream decode(@Nonnull InputStream input) {
+        Inflater inflater = new Inflater();
+        return new InflaterInputStream(input, inflater, BUFFER_SIZE) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    inflater.end();
+                }
+            }
+        };
+    }
+
+}
@@ -35,6 +35,12 @@ public class EmptySnapshot implements Snapshot {
         return Collections.emptySet();
     }
 
+    @Nonnull
+    @Override
+    public SnapshotCodec getCodec() {
+        return SnapshotCodecs.NONE;
+    }
+
     @Override
     public long getDataSize() {
         return 0;
@@ -49,6 +55,12 @@ public class EmptySnapshot implements Snapshot {
         throw new IllegalArgumentException("offset > 0");
     }
 
+    @Override
+    @Nonnull
+    public SnapshotChunk readDataRegion(int offset, int length) {
+        return readData(offset, length);
+    }
+
     @Override
     @Nonnull
     public InputStream getDataStream() {
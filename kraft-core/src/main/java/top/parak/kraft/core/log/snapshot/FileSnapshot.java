@@ -34,6 +34,10 @@ public class FileSnapshot implements Snapshot {
      * The file to store snapshot.
      */
     private SeekableFile seekableFile;
+    /**
+     * The snapshot file, {@code null} if created from seekable file.
+     */
+    private File file;
     /**
      * The index of the last log entry in the snapshot.
      */
@@ -46,6 +50,10 @@ public class FileSnapshot implements Snapshot {
      * The last group config.
      */
     private Set<NodeEndpoint> lastConfig;
+    /**
+     * The codec of the data.
+     */
+    private SnapshotCodec codec;
     /**
      * The offset of the data starting position.
      */
@@ -62,7 +70,8 @@ public class FileSnapshot implements Snapshot {
      */
     public FileSnapshot(LogDir logDir) {
         this.logDir = logDir;
-        readHeader(logDir.getSnapshotFile());
+        this.file = logDir.getSnapshotFile();
+        readHeader(file);
     }
 
     /**
@@ -71,6 +80,7 @@ public class FileSnapshot implements Snapshot {
      * @param file file
      */
     public FileSnapshot(File file) {
+        this.file = file;
         readHeader(file);
     }
 
@@ -103,9 +113,10 @@ public class FileSnapshot implements Snapshot {
             lastConfig = header.getLastConfigList().stream()
                     .map(e -> new NodeEndpoint(e.getId(), e.getHost(), e.getPort()))
                     .collect(Collectors.toSet());
+            codec = SnapshotCodecs.of(header.getCodec());
             dataStart = seekableFile.position();
             dataLength = seekableFile.size() - dataStart;
-        } catch (InvalidProtocolBufferException e) {
+        } catch (InvalidProtocolBufferException | IllegalArgumentException e) {
             throw new LogException("failed to parse header of snapshot", e);
         } catch (IOException e) {
             throw new LogException("failed to read snapshot", e);
@@ -128,6 +139,12 @@ public class FileSnapshot implements Snapshot {
         return lastConfig;
     }
 
+    @Nonnull
+    @Override
+    public SnapshotCodec getCodec() {
+        return codec;
+    }
+
     @Override
     public long getDataSize() {
         return dataLength;
@@ -149,11 +166,24 @@ public class FileSnapshot implements Snapshot {
         }
     }
 
+    @Override
+    @Nonnull
+    public SnapshotChunk readDataRegion(int offset, int length) {
+        if (file == null) {
+            return readData(offset, length);
+        }
+        if (offset > dataLength) {
+            throw new IllegalArgumentException("offset > data length");
+        }
+        int chunkLength = (int) Math.min(length, dataLength - offset);
+        return new SnapshotChunk(file, dataStart + offset, chunkLength, offset + chunkLength >= dataLength);
+    }
+
     @Override
     @Nonnull
     public InputStream getDataStream() {
         try {
-            return seekableFile.inputStream(dataStart);
+            return codec.decode(seekableFile.inputStream(dataStart));
         } catch (IOException e) {
             throw new LogException("failed to get input stream of snapshot data", e);
         }
@@ -35,7 +35,7 @@ public class FileSnapshotBuilder extends AbstractSnapshotBuilder<FileSnapshot> {
         this.logDir = logDir;
 
         try {
-            writer = new FileSnapshotWriter(logDir.getSnapshotFile(), firstRpc.getLastIndex(), firstRpc.getLastTerm(), firstRpc.getLastConfig());
+            writer = new FileSnapshotWriter(logDir.getSnapshotFile(), firstRpc.getLastIndex(), firstRpc.getLastTerm(), firstRpc.getLastConfig(), codec);
             writer.write(firstRpc.getData());
         } catch (IOException e) {
             throw new LogException("failed to write snapshot data to file", e);
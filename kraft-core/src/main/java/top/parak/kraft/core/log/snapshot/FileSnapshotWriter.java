@@ -9,6 +9,10 @@ import java.util.stream.Collectors;
 
 /**
  * Writer of snapshot file.
+ * <p>
+ * Data from state machine is written to {@link #getOutput()} and encoded by the codec,
+ * while data already encoded, e.g. transferred from leader, is written by {@link #write(byte[])}.
+ * </p>
  *
  * @author KHighness
  * @since 2022-04-06
@@ -20,6 +24,14 @@ public class FileSnapshotWriter implements AutoCloseable {
      * The output stream.
      */
     private final DataOutputStream output;
+    /**
+     * The codec of data.
+     */
+    private final SnapshotCodec codec;
+    /**
+     * The output stream to encode data, {@code null} if not created.
+     */
+    private OutputStream dataOutput;
 
     /**
      * Create FileSnapshotWriter.
@@ -31,7 +43,21 @@ public class FileSnapshotWriter implements AutoCloseable {
      * @throws IOException if IO exception occurs
      */
     public FileSnapshotWriter(File file, int lastIncludedIndex, int lastIncludedTerm, Set<NodeEndpoint> lastConfig) throws IOException {
-        this(new DataOutputStream(new FileOutputStream(file)), lastIncludedIndex, lastIncludedTerm, lastConfig);
+        this(file, lastIncludedIndex, lastIncludedTerm, lastConfig, SnapshotCodecs.NONE);
+    }
+
+    /**
+     * Create FileSnapshotWriter.
+     *
+     * @param file              output file
+     * @param lastIncludedIndex last index
+     * @param lastIncludedTerm  last term
+     * @param lastConfig        last config
+     * @param codec             codec of data
+     * @throws IOException if IO exception occurs
+     */
+    public FileSnapshotWriter(File file, int lastIncludedIndex, int lastIncludedTerm, Set<NodeEndpoint> lastConfig, SnapshotCodec codec) throws IOException {
+        this(new DataOutputStream(new FileOutputStream(file)), lastIncludedIndex, lastIncludedTerm, lastConfig, codec);
     }
 
     /**
@@ -44,7 +70,22 @@ public class FileSnapshotWriter implements AutoCloseable {
      * @throws IOException if IO exception occurs
      */
     FileSnapshotWriter(OutputStream output, int lastIncludedIndex, int lastIncludedTerm, Set<NodeEndpoint> lastConfig) throws IOException {
+        this(output, lastIncludedIndex, lastIncludedTerm, lastConfig, SnapshotCodecs.NONE);
+    }
+
+    /**
+     * Create FileSnapshotWriter.
+     *
+     * @param output            output stream
+     * @param lastIncludedIndex last index
+     * @param lastIncludedTerm  last term
+     * @param lastConfig        last config
+     * @param codec             codec of data
+     * @throws IOException if IO exception occurs
+     */
+    FileSnapshotWriter(OutputStream output, int lastIncludedIndex, int lastIncludedTerm, Set<NodeEndpoint> lastConfig, SnapshotCodec codec) throws IOException {
         this.output = new DataOutputStream(output);
+        this.codec = codec;
         byte[] headerBytes = Protos.SnapshotHeader.newBuilder()
                 .setLastIndex(lastIncludedIndex)
                 .setLastTerm(lastIncludedTerm)
@@ -56,34 +97,46 @@ public class FileSnapshotWriter implements AutoCloseable {
                                         .setPort(e.getPort())
                                         .build())
                                 .collect(Collectors.toList()))
+                .setCodec(codec.getId())
                 .build().toByteArray();
         this.output.writeInt(headerBytes.length);
         this.output.write(headerBytes);
-
     }
 
     /**
-     * Get the output stream.
+     * Get the output stream to write data, which is encoded by the codec.
      *
      * @return the output stream
+     * @throws IOException if IO exception occurs
      */
-    public OutputStream getOutput() {
-        return output;
+    public OutputStream getOutput() throws IOException {
+        if (dataOutput == null) {
+            dataOutput = codec.encode(output);
+        }
+        return dataOutput;
     }
 
     /**
-     * Write data.
+     * Write data encoded by the codec.
      *
      * @param data data
      * @throws IOException if occur o exception
      */
     public void write(byte[] data) throws IOException {
+        if (dataOutput != null) {
+            throw new IllegalStateException("encoded data can't be mixed with output");
+        }
         output.write(data);
     }
 
     @Override
     public void close() throws IOException {
-        output.close();
+        // finish encoding before closing file
+        if (dataOutput != null) {
+            dataOutput.close();
+        } else {
+            output.close();
+        }
     }
 
 }
@@ -0,0 +1,47 @@
+package top.parak.kraft.core.log.snapshot;
+
+import net.jpountz.lz4.LZ4FrameInputStream;
+import net.jpountz.lz4.LZ4FrameOutputStream;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Codec with LZ4 frame format, fast block compression at the cost of ratio.
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+@Immutable
+public class Lz4SnapshotCodec implements SnapshotCodec {
+
+    public static final int ID = 2;
+
+    @Override
+    public int getId() {
+        return ID;
+    }
+
+    @Nonnull
+    @Override
+    public String getName() {
+        return "lz4";
+    }
+
+    @Nonnull
+    @Override
+    public OutputStream encode(@Nonnull OutputStream output) throws IOException {
+        return new LZ4FrameOutputStream(output, LZ4FrameOutputStream.BLOCKSIZE.SIZE_64KB);
+    }
+
+    @Nonnull
+    @Override
+    public InputStream decode(@Nonnull InputStream input) throws IOException {
+        return new LZ4FrameInputStream(input);
+    }
+
+}
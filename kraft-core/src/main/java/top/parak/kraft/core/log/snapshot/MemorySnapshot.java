@@ -1,10 +1,12 @@
 package top.parak.kraft.core.log.snapshot;
 
+import top.parak.kraft.core.log.LogException;
 import top.parak.kraft.core.node.NodeEndpoint;
 
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.Immutable;
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.Collections;
 import java.util.Set;
@@ -28,9 +30,13 @@ public class MemorySnapshot implements Snapshot {
      */
     private final int lastIncludedTerm;
     /**
-     * The byte array to store snapshot.
+     * The byte array to store snapshot, encoded by the codec.
      */
     private final byte[] data;
+    /**
+     * The codec of the data.
+     */
+    private final SnapshotCodec codec;
     /**
      * The last group config in the snapshot.
      */
@@ -56,10 +62,24 @@ public class MemorySnapshot implements Snapshot {
      * @param lastConfig         last config
      */
     public MemorySnapshot(int lastIncludedIndex, int lastIncludedTerm, byte[] data, Set<NodeEndpoint> lastConfig) {
+        this(lastIncludedIndex, lastIncludedTerm, data, lastConfig, SnapshotCodecs.NONE);
+    }
+
+    /**
+     * Create MemorySnapshot.
+     *
+     * @param lastIncludedIndex last index
+     * @param lastIncludedTerm  last term
+     * @param data              byte array encoded by the codec
+     * @param lastConfig        last config
+     * @param codec             codec of data
+     */
+    public MemorySnapshot(int lastIncludedIndex, int lastIncludedTerm, byte[] data, Set<NodeEndpoint> lastConfig, SnapshotCodec codec) {
         this.lastIncludedIndex = lastIncludedIndex;
         this.lastIncludedTerm = lastIncludedTerm;
         this.data = data;
         this.lastConfig = lastConfig;
+        this.codec = codec;
     }
 
     @Override
@@ -78,6 +98,12 @@ public class MemorySnapshot implements Snapshot {
         return lastConfig;
     }
 
+    @Nonnull
+    @Override
+    public SnapshotCodec getCodec() {
+        return codec;
+    }
+
     @Override
     public long getDataSize() {
         return data.length;
@@ -100,10 +126,20 @@ public class MemorySnapshot implements Snapshot {
         return new SnapshotChunk(buffer, offset + length >= this.data.length);
     }
 
+    @Override
+    @Nonnull
+    public SnapshotChunk readDataRegion(int offset, int length) {
+        return readData(offset, length);
+    }
+
     @Override
     @Nonnull
     public InputStream getDataStream() {
-        return new ByteArrayInputStream(data);
+        try {
+            return codec.decode(new ByteArrayInputStream(data));
+        } catch (IOException e) {
+            throw new LogException("failed to decode snapshot data", e);
+        }
     }
 
     @Override
@@ -116,6 +152,7 @@ public class MemorySnapshot implements Snapshot {
                 "lastIncludedIndex=" + lastIncludedIndex +
                 ", lastIncludedTerm=" + lastIncludedTerm +
                 ", data.size=" + data.length +
+                ", codec=" + codec.getName() +
                 '}';
     }
 
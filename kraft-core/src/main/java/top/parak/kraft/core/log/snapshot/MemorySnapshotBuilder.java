@@ -43,7 +43,7 @@ public class MemorySnapshotBuilder extends AbstractSnapshotBuilder<MemorySnapsho
 
     @Override
     public MemorySnapshot build() {
-        return new MemorySnapshot(lastIncludedIndex, lastIncludedTerm, output.toByteArray(), lastConfig);
+        return new MemorySnapshot(lastIncludedIndex, lastIncludedTerm, output.toByteArray(), lastConfig, codec);
     }
 
     @Override
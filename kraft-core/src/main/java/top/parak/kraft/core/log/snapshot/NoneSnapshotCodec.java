@@ -0,0 +1,43 @@
+package top.parak.kraft.core.log.snapshot;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Codec without compression.
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+@Immutable
+public class NoneSnapshotCodec implements SnapshotCodec {
+
+    public static final int ID = 0;
+
+    @Override
+    public int getId() {
+        return ID;
+    }
+
+    @Nonnull
+    @Override
+    public String getName() {
+        return "none";
+    }
+
+    @Nonnull
+    @Override
+    public OutputStream encode(@Nonnull OutputStream output) {
+        return output;
+    }
+
+    @Nonnull
+    @Override
+    public InputStream decode(@Nonnull InputStream input) {
+        return input;
+    }
+
+}
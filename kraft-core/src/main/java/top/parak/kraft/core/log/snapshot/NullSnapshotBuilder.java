@@ -16,6 +16,16 @@ public class NullSnapshotBuilder implements SnapshotBuilder {
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public boolean isBuilding(InstallSnapshotRpc rpc) {
+        return false;
+    }
+
+    @Override
+    public int getOffset() {
+        return 0;
+    }
+
     @Override
     public Snapshot build() {
         throw new UnsupportedOperationException();
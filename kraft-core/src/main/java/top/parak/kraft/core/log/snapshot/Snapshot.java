@@ -29,6 +29,7 @@ import java.util.Set;
  * |                                                |
  * +------------------------------------------------+
  * </pre>
+ * Data is encoded by the codec in header, see {@link SnapshotCodec}.
  *
  * @author KHighness
  * @since 2022-03-18
@@ -60,23 +61,49 @@ public interface Snapshot {
     @Nonnull
     Set<NodeEndpoint> getLastConfig();
 
+    /**
+     * Get the codec of data.
+     *
+     * @return the codec
+     */
+    @Nonnull
+    SnapshotCodec getCodec();
+
     /**
      * Get the size of the snapshot.
+     * (the size of encoded data)
      *
      * @return the size of snapshot
      */
     long getDataSize();
 
     /**
-     * Get the input stream of the snapshot.
+     * Read a chunk of encoded data to transfer.
      *
-     * @return a input stream
+     * @param offset offset of data
+     * @param length max length of chunk
+     * @return chunk
      */
     @Nonnull
     SnapshotChunk readData(int offset, int length);
 
+    /**
+     * Read a chunk of data to transfer.
+     * <p>
+     * Unlike {@link #readData(int, int)}, the chunk may refer to a region of the snapshot file
+     * without reading into memory, so that it can be transferred from the file directly.
+     * </p>
+     *
+     * @param offset offset of data
+     * @param length max length of chunk
+     * @return chunk
+     */
+    @Nonnull
+    SnapshotChunk readDataRegion(int offset, int length);
+
     /**
      * Get the input stream of the snapshot.
+     * (data decoded by the codec, to apply to state machine)
      *
      * @return a input stream
      */
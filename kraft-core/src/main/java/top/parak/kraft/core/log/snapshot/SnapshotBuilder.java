@@ -20,6 +20,21 @@ public interface SnapshotBuilder<T extends Snapshot> {
      */
     void append(InstallSnapshotRpc rpc);
 
+    /**
+     * Test if rpc is for the snapshot being built.
+     *
+     * @param rpc rpc
+     * @return true if leader id, last included index and term of rpc are same, otherwise false
+     */
+    boolean isBuilding(InstallSnapshotRpc rpc);
+
+    /**
+     * Get the offset of next chunk expected.
+     *
+     * @return offset
+     */
+    int getOffset();
+
     /**
      * Build snapshot.
      *
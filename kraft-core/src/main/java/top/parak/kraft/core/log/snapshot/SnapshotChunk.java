@@ -1,7 +1,12 @@
 package top.parak.kraft.core.log.snapshot;
 
+import java.io.File;
+
 /**
  * Snapshot chunk.
+ * <p>
+ * The chunk holds either the bytes, or the region of snapshot file.
+ * </p>
  *
  * @author KHighness
  * @since 2022-04-06
@@ -13,6 +18,18 @@ public class SnapshotChunk {
      * The bytes of snapshot chunk.
      */
     private final byte[] bytes;
+    /**
+     * The file containing the chunk.
+     */
+    private final File file;
+    /**
+     * The position of the chunk in file.
+     */
+    private final long position;
+    /**
+     * The length of the chunk.
+     */
+    private final int length;
     /**
      * If this chunk is last.
      */
@@ -26,6 +43,25 @@ public class SnapshotChunk {
      */
     SnapshotChunk(byte[] bytes, boolean lastChunk) {
         this.bytes = bytes;
+        this.file = null;
+        this.position = 0;
+        this.length = bytes.length;
+        this.lastChunk = lastChunk;
+    }
+
+    /**
+     * Create SnapshotChunk of file region.
+     *
+     * @param file      the file containing the chunk
+     * @param position  the position of the chunk in file
+     * @param length    the length of the chunk
+     * @param lastChunk if this chunk is last
+     */
+    SnapshotChunk(File file, long position, int length, boolean lastChunk) {
+        this.bytes = null;
+        this.file = file;
+        this.position = position;
+        this.length = length;
         this.lastChunk = lastChunk;
     }
 
@@ -41,10 +77,31 @@ public class SnapshotChunk {
     /**
      * Return the bytes of snapshot bytes.
      *
-     * @return the bytes of snapshot bytes
+     * @return the bytes of snapshot bytes, {@code null} if this chunk is file region
      */
     public byte[] toByteArray() {
         return bytes;
     }
 
+    /**
+     * Check if this chunk is file region.
+     *
+     * @return true if file region, otherwise false
+     */
+    public boolean isFileRegion() {
+        return file != null;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public long getPosition() {
+        return position;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
 }
@@ -0,0 +1,61 @@
+package top.parak.kraft.core.log.snapshot;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Codec to compress snapshot data.
+ * <p>
+ * Data is encoded when the snapshot is generated, stored and transferred encoded, and decoded only
+ * when it is applied to state machine. The id of codec is recorded in the header of snapshot and in
+ * {@link top.parak.kraft.core.rpc.message.InstallSnapshotRpc}, so it must be unique and never reused.
+ * </p>
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ * @see SnapshotCodecs
+ */
+public interface SnapshotCodec {
+
+    /**
+     * Get the id of codec.
+     *
+     * @return id
+     */
+    int getId();
+
+    /**
+     * Get the name of codec.
+     *
+     * @return name
+     */
+    @Nonnull
+    String getName();
+
+    /**
+     * Wrap output stream to encode data written.
+     * <p>
+     * Closing the returned stream finishes encoding and closes the underlying stream.
+     * </p>
+     *
+     * @param output underlying output stream
+     * @return output stream
+     * @throws IOException if IO exception occurs
+     */
+    @Nonnull
+    OutputStream encode(@Nonnull OutputStream output) throws IOException;
+
+    /**
+     * Wrap input stream to decode data read.
+     *
+     * @param input underlying input stream
+     * @return input stream
+     * @throws IOException if IO exception occurs
+     */
+    @Nonnull
+    InputStream decode(@Nonnull InputStream input) throws IOException;
+
+}
@@ -0,0 +1,86 @@
+package top.parak.kraft.core.log.snapshot;
+
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of snapshot codecs.
+ * <p>
+ * Built-in codecs are {@code none}, {@code deflate} and {@code lz4}. Custom codec can be registered
+ * before the node starts, and must be registered on every node of the group with the same id.
+ * </p>
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+public final class SnapshotCodecs {
+
+    public static final SnapshotCodec NONE = new NoneSnapshotCodec();
+    public static final SnapshotCodec DEFLATE = new DeflateSnapshotCodec();
+    public static final SnapshotCodec LZ4 = new Lz4SnapshotCodec();
+
+    private static final Map<Integer, SnapshotCodec> codecsById = new ConcurrentHashMap<>();
+    private static final Map<String, SnapshotCodec> codecsByName = new ConcurrentHashMap<>();
+
+    static {
+        register(NONE);
+        register(DEFLATE);
+        register(LZ4);
+    }
+
+    private SnapshotCodecs() {
+    }
+
+    /**
+     * Register codec.
+     *
+     * @param codec codec
+     * @throws IllegalArgumentException if id or name is registered by other codec
+     */
+    public static synchronized void register(@Nonnull SnapshotCodec codec) {
+        Preconditions.checkNotNull(codec);
+        SnapshotCodec codecWithId = codecsById.get(codec.getId());
+        SnapshotCodec codecWithName = codecsByName.get(codec.getName());
+        Preconditions.checkArgument(codecWithId == null || codecWithId == codec, "codec id " + codec.getId() + " registered");
+        Preconditions.checkArgument(codecWithName == null || codecWithName == codec, "codec name " + codec.getName() + " registered");
+        codecsById.put(codec.getId(), codec);
+        codecsByName.put(codec.getName(), codec);
+    }
+
+    /**
+     * Get codec by id.
+     *
+     * @param id id of codec
+     * @return codec
+     * @throws IllegalArgumentException if codec not found
+     */
+    @Nonnull
+    public static SnapshotCodec of(int id) {
+        SnapshotCodec codec = codecsById.get(id);
+        if (codec == null) {
+            throw new IllegalArgumentException("unknown snapshot codec " + id);
+        }
+        return codec;
+    }
+
+    /**
+     * Get codec by name.
+     *
+     * @param name name of codec
+     * @return codec
+     * @throws IllegalArgumentException if codec not found
+     */
+    @Nonnull
+    public static SnapshotCodec of(@Nonnull String name) {
+        SnapshotCodec codec = codecsByName.get(name.trim().toLowerCase());
+        if (codec == null) {
+            throw new IllegalArgumentException("unknown snapshot codec " + name);
+        }
+        return codec;
+    }
+
+}
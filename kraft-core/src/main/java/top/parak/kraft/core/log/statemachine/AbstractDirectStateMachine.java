@@ -33,7 +33,7 @@ public abstract class AbstractDirectStateMachine implements StateMachine {
         applyCommand(commandBytes);
         lastApplied = index;
         if (shouldGenerateSnapshot(firstLogIndex, index)) {
-            context.generateSnapshot(index);
+            context.generateSnapshot(index, takeSnapshotView());
         }
     }
 
@@ -42,7 +42,10 @@ public abstract class AbstractDirectStateMachine implements StateMachine {
     @Override
     public void applySnapshot(@Nonnull Snapshot snapshot) throws IOException {
         logger.info("apply snapshot, last included index {}", snapshot.getLastIncludedIndex());
-        doApplySnapshot(snapshot.getDataStream());
+        // release file and decoder of snapshot data
+        try (InputStream input = snapshot.getDataStream()) {
+            doApplySnapshot(input);
+        }
         lastApplied = snapshot.getLastIncludedIndex();
     }
 
@@ -3,13 +3,19 @@ package top.parak.kraft.core.log.statemachine;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import top.parak.kraft.core.log.entry.Entry;
 import top.parak.kraft.core.log.snapshot.Snapshot;
+import top.parak.kraft.core.support.metrics.Histogram;
+import top.parak.kraft.core.support.metrics.MetricRegistry;
 import top.parak.kraft.core.support.task.SingleThreadTaskExecutor;
 import top.parak.kraft.core.support.task.TaskExecutor;
 
 import javax.annotation.Nonnull;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Abstract single thread state machine.
@@ -23,8 +29,30 @@ public abstract class AbstractSingleThreadStateMachine implements StateMachine {
     private static final Logger logger = LoggerFactory.getLogger(AbstractSingleThreadStateMachine.class);
     private volatile int lastApplied = 0;
     private final TaskExecutor taskExecutor;
+    /**
+     * Actions waiting for applied index, run in state machine thread.
+     */
+    private final PriorityQueue<WaitingAction> waitingActions = new PriorityQueue<>();
+    /**
+     * Latency in microseconds from log committed to applied.
+     */
+    private volatile Histogram commitToApplyHistogram = new Histogram();
 
     public AbstractSingleThreadStateMachine() {
+        this(0);
+    }
+
+    /**
+     * Create AbstractSingleThreadStateMachine.
+     * <p>
+     * Persistent state machine restores the last applied index, so that log will be applied from
+     * the next index without applying snapshot again.
+     * </p>
+     *
+     * @param lastApplied the last applied index restored
+     */
+    public AbstractSingleThreadStateMachine(int lastApplied) {
+        this.lastApplied = lastApplied;
         taskExecutor = new SingleThreadTaskExecutor("state-machine");
     }
 
@@ -33,9 +61,19 @@ public abstract class AbstractSingleThreadStateMachine implements StateMachine {
         return lastApplied;
     }
 
+    @Override
+    public void setMetricRegistry(MetricRegistry metricRegistry) {
+        commitToApplyHistogram = metricRegistry.histogram("state_machine.commit_to_apply_micros");
+    }
+
+    // log is applied right after committed
     @Override
     public void applyLog(StateMachineContext context, int index, @Nonnull byte[] commandBytes, int firstLogIndex) {
-        taskExecutor.submit(() -> doApplyLog(context, index, commandBytes, firstLogIndex));
+        long committedAt = System.nanoTime();
+        taskExecutor.submit(() -> {
+            doApplyLog(context, index, commandBytes, firstLogIndex);
+            commitToApplyHistogram.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - committedAt));
+        });
     }
 
     private void doApplyLog(StateMachineContext context, int index, @Nonnull byte[] commandBytes, int firstLogIndex) {
@@ -43,24 +81,119 @@ public abstract class AbstractSingleThreadStateMachine implements StateMachine {
             return;
         }
         logger.debug("apply log {}", index);
-        applyCommand(commandBytes);
+        applyCommand(index, commandBytes);
+        lastApplied = index;
+        afterApplied(context, firstLogIndex);
+    }
+
+    // batch is applied in one task
+    @Override
+    public void applyLogs(StateMachineContext context, @Nonnull List<Entry> entries, int firstLogIndex) {
+        long committedAt = System.nanoTime();
+        taskExecutor.submit(() -> {
+            doApplyLogs(context, entries, firstLogIndex);
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - committedAt);
+            for (int i = 0; i < entries.size(); i++) {
+                commitToApplyHistogram.record(micros);
+            }
+        });
+    }
+
+    private void doApplyLogs(StateMachineContext context, @Nonnull List<Entry> entries, int firstLogIndex) {
+        int index = lastApplied;
+        for (Entry entry : entries) {
+            if (entry.getIndex() <= index) {
+                continue;
+            }
+            applyCommand(entry.getIndex(), entry.getCommandBytes());
+            index = entry.getIndex();
+        }
+        if (index == lastApplied) {
+            return;
+        }
+        logger.debug("apply log from {} to {}", entries.get(0).getIndex(), index);
         lastApplied = index;
-        if (shouldGenerateSnapshot(firstLogIndex, index)) {
-            context.generateSnapshot(index);
+        afterApplied(context, firstLogIndex);
+    }
+
+    /**
+     * Run after a log entry or a batch of log entries applied.
+     *
+     * @param context       the context of the state machine
+     * @param firstLogIndex the index of the first log
+     */
+    private void afterApplied(StateMachineContext context, int firstLogIndex) {
+        onApplied(lastApplied);
+        runWaitingActions();
+        if (shouldGenerateSnapshot(firstLogIndex, lastApplied)) {
+            context.generateSnapshot(lastApplied, takeSnapshotView());
         }
     }
 
-    protected abstract void applyCommand(@Nonnull byte[] commandBytes);
+    /**
+     * Called in state machine thread after a log entry or a batch of log entries applied,
+     * e.g. to flush replies to clients written while applying.
+     *
+     * @param lastApplied the index of the last applied log
+     */
+    protected void onApplied(int lastApplied) {
+    }
+
+    /**
+     * Apply command.
+     *
+     * @param index        the index of log entry
+     * @param commandBytes the bytes of command
+     */
+    protected abstract void applyCommand(int index, @Nonnull byte[] commandBytes);
+
+    /**
+     * Run action in state machine thread after the log entry of specified index is applied.
+     * <p>
+     * Used to read from state machine after read index, e.g. {@link top.parak.kraft.core.node.Node#readIndex()}.
+     * </p>
+     *
+     * @param index  index
+     * @param action action
+     */
+    public void runAfterApplied(int index, @Nonnull Runnable action) {
+        taskExecutor.submit(() -> {
+            if (index <= lastApplied) {
+                action.run();
+            } else {
+                waitingActions.add(new WaitingAction(index, action));
+            }
+        });
+    }
+
+    private void runWaitingActions() {
+        WaitingAction waitingAction;
+        while ((waitingAction = waitingActions.peek()) != null && waitingAction.index <= lastApplied) {
+            waitingActions.poll();
+            waitingAction.action.run();
+        }
+    }
 
     // run in node thread
     @Override
     public void applySnapshot(@Nonnull Snapshot snapshot) throws IOException {
         logger.info("apply snapshot, last included index {}", snapshot.getLastIncludedIndex());
-        doApplySnapshot(snapshot.getDataStream());
+        // release file and decoder of snapshot data
+        try (InputStream input = snapshot.getDataStream()) {
+            doApplySnapshot(snapshot.getLastIncludedIndex(), input);
+        }
         lastApplied = snapshot.getLastIncludedIndex();
+        taskExecutor.submit(this::runWaitingActions);
     }
 
-    protected abstract void doApplySnapshot(@Nonnull InputStream input) throws IOException;
+    /**
+     * Apply data of snapshot.
+     *
+     * @param lastIncludedIndex the last included index of snapshot
+     * @param input             the input stream of data
+     * @throws IOException if IO exception occurs
+     */
+    protected abstract void doApplySnapshot(int lastIncludedIndex, @Nonnull InputStream input) throws IOException;
 
     @Override
     public void shutdown() {
@@ -71,4 +204,21 @@ public abstract class AbstractSingleThreadStateMachine implements StateMachine {
         }
     }
 
+    private static class WaitingAction implements Comparable<WaitingAction> {
+
+        private final int index;
+        private final Runnable action;
+
+        WaitingAction(int index, Runnable action) {
+            this.index = index;
+            this.action = action;
+        }
+
+        @Override
+        public int compareTo(@Nonnull WaitingAction o) {
+            return Integer.compare(index, o.index);
+        }
+
+    }
+
 }
@@ -0,0 +1,38 @@
+package top.parak.kraft.core.log.statemachine;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Point-in-time view of state machine to generate snapshot.
+ * <p>
+ * The view is taken in the thread applying log, and written in snapshot thread while the
+ * state machine continues applying log, so it must not be changed by log applied later.
+ * </p>
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+@FunctionalInterface
+public interface SnapshotView {
+
+    /**
+     * Write the view into the output stream.
+     *
+     * @param output the output stream
+     * @throws IOException if IO exception occurs
+     */
+    void writeTo(@Nonnull OutputStream output) throws IOException;
+
+    /**
+     * Release resources held by the view, e.g. files of state machine.
+     * <p>
+     * Called once after the view is written, or skipped without writing.
+     * </p>
+     */
+    default void release() {
+    }
+
+}
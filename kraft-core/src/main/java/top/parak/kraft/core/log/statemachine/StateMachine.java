@@ -1,10 +1,15 @@
 package top.parak.kraft.core.log.statemachine;
 
+import top.parak.kraft.core.log.LogException;
+import top.parak.kraft.core.log.entry.Entry;
 import top.parak.kraft.core.log.snapshot.Snapshot;
+import top.parak.kraft.core.support.metrics.MetricRegistry;
 
 import javax.annotation.Nonnull;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.List;
 
 /**
  * State machine.
@@ -32,6 +37,24 @@ public interface StateMachine {
      */
     void applyLog(StateMachineContext context, int index, @Nonnull byte[] commandBytes, int firstLogIndex);
 
+    /**
+     * Apply a batch of log entries to the state machine.
+     * <p>
+     * Entries are the applicable ones among a contiguous range of committed log, in ascending order of index,
+     * no-op and group config entries are excluded. State machine may apply them in one task, to amortize
+     * the cost of locking and replying to clients. The default implementation applies one by one.
+     * </p>
+     *
+     * @param context       the context of the state machine
+     * @param entries       the log entries to be applied, not empty
+     * @param firstLogIndex the index of the first applied log
+     */
+    default void applyLogs(StateMachineContext context, @Nonnull List<Entry> entries, int firstLogIndex) {
+        for (Entry entry : entries) {
+            applyLog(context, entry.getIndex(), entry.getCommandBytes(), firstLogIndex);
+        }
+    }
+
     /**
      * Return whether the state machine should generate snapshot or not.
      * <p>
@@ -52,6 +75,27 @@ public interface StateMachine {
      */
     void generateSnapshot(@Nonnull OutputStream output) throws IOException;
 
+    /**
+     * Take a point-in-time view of state machine to generate snapshot asynchronously.
+     * <p>
+     * Called in the thread applying log right after the last included log is applied. The default
+     * view generates snapshot into memory synchronously in the calling thread, state machine which is
+     * able to take a view cheaply should override it to write snapshot asynchronously.
+     * </p>
+     *
+     * @return the view
+     */
+    @Nonnull
+    default SnapshotView takeSnapshotView() {
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        try {
+            generateSnapshot(snapshot);
+        } catch (IOException e) {
+            throw new LogException("failed to generate snapshot", e);
+        }
+        return snapshot::writeTo;
+    }
+
     /**
      * Apply the snapshot to the state machine
      *
@@ -60,6 +104,14 @@ public interface StateMachine {
      */
     void applySnapshot(@Nonnull Snapshot snapshot) throws IOException;
 
+    /**
+     * Set registry to record metrics of state machine, called in node thread.
+     *
+     * @param metricRegistry metric registry
+     */
+    default void setMetricRegistry(@Nonnull MetricRegistry metricRegistry) {
+    }
+
     /**
      * Shutdown the state machine.
      */
@@ -1,5 +1,7 @@
 package top.parak.kraft.core.log.statemachine;
 
+import javax.annotation.Nonnull;
+
 /**
  * The context of {@link StateMachine}
  *
@@ -13,7 +15,8 @@ public interface StateMachineContext {
      * Generate snapshot.
      *
      * @param lastIncludedIndex the index of the last included log
+     * @param view              the point-in-time view of state machine after the last included log applied
      */
-    void generateSnapshot(int lastIncludedIndex);
+    void generateSnapshot(int lastIncludedIndex, @Nonnull SnapshotView view);
 
 }
@@ -0,0 +1,186 @@
+package top.parak.kraft.core.node;
+
+import top.parak.kraft.core.support.metrics.Histogram;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Batcher to coalesce commands appended by leader.
+ * <p>
+ * Commands are queued by client threads, and drained by node thread in batch, so that a batch
+ * of commands is appended to log at once and replicated in one round.
+ * The first command of a batch triggers a flush after the window, and a full batch triggers
+ * a flush immediately. If the window is {@code 0}, every batch is flushed immediately, and
+ * commands arrived while the node thread is busy are coalesced.
+ * </p>
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+@ThreadSafe
+class AppendBatcher {
+
+    /**
+     * Action to trigger flush, returned on offering command.
+     */
+    enum Trigger {
+        /**
+         * No action, flush is triggered by others.
+         */
+        NONE,
+        /**
+         * Flush immediately.
+         */
+        FLUSH_NOW,
+        /**
+         * Flush after window.
+         */
+        FLUSH_LATER
+    }
+
+    private final int window;
+    private final int maxBatchSize;
+    private final int maxBatchBytes;
+    private final Queue<PendingCommand> pendingCommands = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingSize = new AtomicInteger();
+    private final AtomicLong pendingBytes = new AtomicLong();
+    private final AtomicBoolean flushSubmitted = new AtomicBoolean(false);
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private final Histogram batchSizeHistogram = new Histogram();
+    private final Histogram latencyHistogram = new Histogram();
+    /**
+     * Timestamp in nanoseconds when the first command of the last batch was offered, accessed by node thread.
+     */
+    private long drainedOfferedAt;
+
+    /**
+     * Create AppendBatcher.
+     *
+     * @param window        window in milliseconds
+     * @param maxBatchSize  max commands in batch
+     * @param maxBatchBytes max bytes of commands in batch
+     */
+    AppendBatcher(int window, int maxBatchSize, int maxBatchBytes) {
+        if (window < 0 || maxBatchSize <= 0 || maxBatchBytes <= 0) {
+            throw new IllegalArgumentException("window < 0 or max batch size/bytes <= 0");
+        }
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+        this.maxBatchBytes = maxBatchBytes;
+    }
+
+    /**
+     * Offer a command.
+     *
+     * @param command command
+     * @return action to trigger flush
+     */
+    Trigger offer(byte[] command) {
+        pendingCommands.add(new PendingCommand(command, System.nanoTime()));
+        int size = pendingSize.incrementAndGet();
+        long bytes = pendingBytes.addAndGet(command.length);
+        if (window == 0 || size >= maxBatchSize || bytes >= maxBatchBytes) {
+            return flushSubmitted.compareAndSet(false, true) ? Trigger.FLUSH_NOW : Trigger.NONE;
+        }
+        return flushScheduled.compareAndSet(false, true) ? Trigger.FLUSH_LATER : Trigger.NONE;
+    }
+
+    /**
+     * Drain a batch of commands.
+     * <p>
+     * Commands offered after draining will trigger a new flush.
+     * </p>
+     *
+     * @return commands, may be empty
+     */
+    List<byte[]> drain() {
+        flushSubmitted.set(false);
+        flushScheduled.set(false);
+        List<byte[]> commands = new ArrayList<>();
+        long bytes = 0;
+        long now = System.nanoTime();
+        PendingCommand pendingCommand;
+        while (commands.size() < maxBatchSize && bytes < maxBatchBytes &&
+                (pendingCommand = pendingCommands.poll()) != null) {
+            if (commands.isEmpty()) {
+                drainedOfferedAt = pendingCommand.offeredAt;
+            }
+            commands.add(pendingCommand.command);
+            bytes += pendingCommand.command.length;
+            latencyHistogram.record(TimeUnit.NANOSECONDS.toMicros(now - pendingCommand.offeredAt));
+        }
+        if (!commands.isEmpty()) {
+            pendingSize.addAndGet(-commands.size());
+            pendingBytes.addAndGet(-bytes);
+            batchSizeHistogram.record(commands.size());
+        }
+        return commands;
+    }
+
+    /**
+     * Test if flush should be submitted again for the rest of commands.
+     *
+     * @return true if should, otherwise false
+     */
+    boolean shouldFlushAgain() {
+        return !pendingCommands.isEmpty() && flushSubmitted.compareAndSet(false, true);
+    }
+
+    /**
+     * Get timestamp in nanoseconds when the first command of the last batch drained was offered.
+     *
+     * @return timestamp
+     */
+    long getDrainedOfferedAt() {
+        return drainedOfferedAt;
+    }
+
+    /**
+     * Get window.
+     *
+     * @return window in milliseconds
+     */
+    int getWindow() {
+        return window;
+    }
+
+    /**
+     * Get histogram of commands in each batch.
+     *
+     * @return histogram
+     */
+    Histogram getBatchSizeHistogram() {
+        return batchSizeHistogram;
+    }
+
+    /**
+     * Get histogram of microseconds from offering to draining command.
+     *
+     * @return histogram
+     */
+    Histogram getLatencyHistogram() {
+        return latencyHistogram;
+    }
+
+    private static class PendingCommand {
+
+        private final byte[] command;
+        private final long offeredAt;
+
+        PendingCommand(byte[] command, long offeredAt) {
+            this.command = command;
+            this.offeredAt = offeredAt;
+        }
+
+    }
+
+}
@@ -105,14 +105,22 @@ class GroupMember {
         return ensureReplicatingState().advance(lastEntryIndex);
     }
 
-    boolean backOffNextIndex() {
-        return ensureReplicatingState().backOffNextIndex();
+    boolean backOffNextIndex(int conflictNextIndex) {
+        return ensureReplicatingState().backOffNextIndex(conflictNextIndex);
     }
 
     void replicateNow() {
         replicateAt(System.currentTimeMillis());
     }
 
+    void replicateNow(long messageId) {
+        ensureReplicatingState().replicate(messageId, System.currentTimeMillis());
+    }
+
+    boolean onAppendEntriesResult(long messageId) {
+        return ensureReplicatingState().onAppendEntriesResult(messageId);
+    }
+
     void replicateAt(long replicatedAt) {
         ReplicatingState replicatingState = ensureReplicatingState();
         replicatingState.setReplicating(true);
@@ -146,6 +154,101 @@ class GroupMember {
                 System.currentTimeMillis() - replicatingState.getLastReplicatedAt() >= readTimeout;
     }
 
+    /**
+     * Test if should send append entries rpc in pipelined replication.
+     * <p>
+     * Return true if
+     * <ol>
+     * <li>no in-flight rpc and heartbeat is required</li>
+     * <li>in-flight rpc less than {@code maxInflight} and there are entries not sent</li>
+     * </ol>
+     * In-flight rpc will be given up if no response in specified timeout.
+     * </p>
+     *
+     * @param maxInflight  max in-flight rpc
+     * @param readTimeout  read timeout
+     * @param nextLogIndex next log index of leader
+     * @param heartbeat    whether to send rpc even if there is no entry
+     * @return true if should, otherwise false
+     */
+    boolean shouldReplicatePipelined(int maxInflight, long readTimeout, int nextLogIndex, boolean heartbeat) {
+        ReplicatingState replicatingState = ensureReplicatingState();
+        if (replicatingState.isReplicating() &&
+                System.currentTimeMillis() - replicatingState.getLastReplicatedAt() >= readTimeout) {
+            replicatingState.resetInflight();
+        }
+        if (replicatingState.isInstallingSnapshot()) {
+            return false;
+        }
+        return (heartbeat && replicatingState.getInflight() == 0) ||
+                (replicatingState.getInflight() < maxInflight && replicatingState.getNextIndex() < nextLogIndex);
+    }
+
+    void onAppendEntriesSent(long messageId, int lastEntryIndex) {
+        ensureReplicatingState().onAppendEntriesSent(messageId, lastEntryIndex, System.currentTimeMillis());
+    }
+
+    boolean onAppendEntriesSucceeded(long messageId, int lastEntryIndex) {
+        return ensureReplicatingState().onAppendEntriesSucceeded(messageId, lastEntryIndex);
+    }
+
+    boolean rewindNextIndex(long messageId, int conflictNextIndex) {
+        return ensureReplicatingState().rewindNextIndex(messageId, conflictNextIndex);
+    }
+
+    boolean isInstallingSnapshot() {
+        return ensureReplicatingState().isInstallingSnapshot();
+    }
+
+    void startInstallSnapshot(int offset) {
+        ensureReplicatingState().startInstallSnapshot(offset);
+    }
+
+    /**
+     * Test if should send snapshot chunk.
+     * <p>
+     * In-flight rpc will be given up if no response in specified timeout, and chunks are
+     * sent again from the offset acknowledged.
+     * </p>
+     *
+     * @param maxInflight max in-flight install snapshot rpc
+     * @param readTimeout read timeout
+     * @return true if should, otherwise false
+     */
+    boolean shouldSendSnapshotChunk(int maxInflight, long readTimeout) {
+        ReplicatingState replicatingState = ensureReplicatingState();
+        if (replicatingState.isReplicating() &&
+                System.currentTimeMillis() - replicatingState.getLastReplicatedAt() >= readTimeout) {
+            replicatingState.resetInflight();
+        }
+        return replicatingState.shouldSendSnapshotChunk(maxInflight);
+    }
+
+    void onInstallSnapshotSent(long messageId, int nextOffset, boolean done) {
+        ensureReplicatingState().onInstallSnapshotSent(messageId, nextOffset, done, System.currentTimeMillis());
+    }
+
+    boolean onInstallSnapshotResult(long messageId, int expectedOffset, int offset) {
+        return ensureReplicatingState().onInstallSnapshotResult(messageId, expectedOffset, offset, System.currentTimeMillis());
+    }
+
+    int getSnapshotOffset() {
+        return ensureReplicatingState().getSnapshotOffset();
+    }
+
+    int getInflight() {
+        return ensureReplicatingState().getInflight();
+    }
+
+    void renewLease(long ackedAt) {
+        ensureReplicatingState().renewLease(ackedAt);
+    }
+
+    boolean isLeaseValid(long now, long duration) {
+        ReplicatingState replicatingState = ensureReplicatingState();
+        return replicatingState.isLeaseAcked() && now - replicatingState.getLeaseAckedAt() < duration;
+    }
+
     @Override
     public String toString() {
         return "GroupMember{" +
@@ -0,0 +1,122 @@
+package top.parak.kraft.core.node;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lease of leader to serve read requests locally.
+ * <p>
+ * The sent timestamp of append entries rpc is recorded, and when the result is received, the member
+ * renews its lease from the sent timestamp. The leader holds the lease if major members have renewed
+ * within {@code minElectionTimeout - driftBound}, because followers won't vote for other candidates
+ * within {@code minElectionTimeout} after hearing from the leader. The drift bound covers the difference
+ * of clock rate between nodes.
+ * </p>
+ * <p>
+ * Timestamps are from {@link System#nanoTime()}. Run in node thread.
+ * </p>
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+@NotThreadSafe
+class LeaderLease {
+
+    /**
+     * Max count of rpc whose result is waited, rpc without result is evicted.
+     */
+    private static final int MAX_SENT_RPC = 1024;
+
+    private final boolean enabled;
+    private final long duration;
+    private final Map<Long, Long> sentAts = new LinkedHashMap<Long, Long>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+            return size() > MAX_SENT_RPC;
+        }
+    };
+
+    /**
+     * Create LeaderLease.
+     *
+     * @param enabled            whether lease is enabled
+     * @param minElectionTimeout min election timeout in milliseconds
+     * @param driftBound         drift bound of clock in milliseconds
+     */
+    LeaderLease(boolean enabled, int minElectionTimeout, int driftBound) {
+        if (enabled && (driftBound < 0 || driftBound >= minElectionTimeout)) {
+            throw new IllegalArgumentException("drift bound < 0 or drift bound >= min election timeout");
+        }
+        this.enabled = enabled;
+        this.duration = TimeUnit.MILLISECONDS.toNanos(minElectionTimeout - driftBound);
+    }
+
+    /**
+     * Test if lease is enabled.
+     *
+     * @return true if enabled, otherwise false
+     */
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Reset when becoming leader.
+     */
+    void reset() {
+        sentAts.clear();
+    }
+
+    /**
+     * Record the sent timestamp of append entries rpc.
+     *
+     * @param messageId message id of rpc
+     * @param sentAt    sent timestamp
+     */
+    void onAppendEntriesSent(long messageId, long sentAt) {
+        if (enabled) {
+            sentAts.put(messageId, sentAt);
+        }
+    }
+
+    /**
+     * Renew the lease of member from the sent timestamp of rpc.
+     * <p>
+     * Result whether success or not acknowledges the leadership.
+     * </p>
+     *
+     * @param member    member
+     * @param messageId message id of rpc
+     */
+    void onAppendEntriesAcked(GroupMember member, long messageId) {
+        Long sentAt = sentAts.remove(messageId);
+        if (sentAt != null) {
+            member.renewLease(sentAt);
+        }
+    }
+
+    /**
+     * Test if leader holds the lease.
+     *
+     * @param group group
+     * @param now   current timestamp
+     * @return true if holds, otherwise false
+     */
+    boolean isValid(NodeGroup group, long now) {
+        if (!enabled) {
+            return false;
+        }
+        // self
+        int count = 1;
+        for (GroupMember member : group.listReplicationTarget()) {
+            if (member.isMajor() && member.isLeaseValid(now, duration)) {
+                count++;
+            }
+        }
+        return count > group.getCountOfMajor() / 2;
+    }
+
+}
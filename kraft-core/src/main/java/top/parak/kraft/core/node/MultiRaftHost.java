@@ -0,0 +1,244 @@
+package top.parak.kraft.core.node;
+
+import com.google.common.base.Preconditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import top.parak.kraft.core.node.config.NodeConfig;
+import top.parak.kraft.core.rpc.message.MessageConstants;
+import top.parak.kraft.core.rpc.nio.NioConnector;
+import top.parak.kraft.core.rpc.nio.Transport;
+import top.parak.kraft.core.schedule.DefaultScheduler;
+import top.parak.kraft.core.support.metrics.MetricRegistry;
+import top.parak.kraft.core.support.metrics.MetricsReporter;
+import top.parak.kraft.core.support.task.ListeningTaskExecutor;
+import top.parak.kraft.core.support.task.SharedTaskExecutor;
+import top.parak.kraft.core.support.task.TaskExecutor;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.File;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Host of many independent raft groups in one process.
+ * <p>
+ * Groups share one {@link NioConnector} listening on the endpoint of host, one scheduler thread,
+ * a fixed pool of node threads, and the threads for group config change and snapshot. Each group is
+ * bound to one node thread by group id, so tasks of group are still run in order. The host has the
+ * same node id in all groups, so that one connection between two hosts is shared by all groups.
+ * </p>
+ * <p>
+ * Data of group is stored in sub directory {@code group-<id>} of data directory if specified.
+ * Metrics of group are prefixed with {@code group-<id>}, and reported with metrics of host.
+ * </p>
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+@ThreadSafe
+public class MultiRaftHost {
+
+    private static final Logger logger = LoggerFactory.getLogger(MultiRaftHost.class);
+
+    private final NodeEndpoint selfEndpoint;
+    private final NodeConfig config;
+    private final File dataDir;
+    private final NioConnector connector;
+    private final ScheduledExecutorService scheduledExecutorService =
+            Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "scheduler"));
+    private final ExecutorService monitorExecutorService =
+            Executors.newSingleThreadExecutor(r -> new Thread(r, "monitor"));
+    private final TaskExecutor[] nodeTaskExecutors;
+    private final TaskExecutor groupConfigChangeTaskExecutor;
+    private final TaskExecutor snapshotExecutor;
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final List<MetricsReporter> metricsReporters;
+    private final Map<Integer, Node> nodes = new TreeMap<>();
+    private boolean started = false;
+
+    /**
+     * Create MultiRaftHost.
+     *
+     * @param selfEndpoint endpoint of host
+     * @param config       configuration of all groups
+     * @param dataDirPath  data directory, optional
+     */
+    public MultiRaftHost(@Nonnull NodeEndpoint selfEndpoint, @Nonnull NodeConfig config, @Nullable String dataDirPath) {
+        Preconditions.checkNotNull(selfEndpoint);
+        Preconditions.checkNotNull(config);
+        this.selfEndpoint = selfEndpoint;
+        this.config = config;
+        if (dataDirPath == null || dataDirPath.isEmpty()) {
+            this.dataDir = null;
+        } else {
+            this.dataDir = new File(dataDirPath);
+            if (!dataDir.isDirectory()) {
+                throw new IllegalArgumentException("[" + dataDirPath + "] isn't a directory, or it doesn't exist");
+            }
+        }
+        Transport transport = Transport.create(config);
+        this.connector = new NioConnector(transport, transport.createEventLoopGroup(config.getNioWorkerThreads()), false,
+                selfEndpoint.getId(), new InetSocketAddress(selfEndpoint.getHost(), selfEndpoint.getPort()),
+                config.getLogReplicationInterval());
+        this.connector.setMetricRegistry(metricRegistry);
+        this.connector.setCompactEnabled(config.isCompactRpcEnabled());
+        this.connector.setReplicationInflight(config.getMaxReplicationInflight());
+        this.metricsReporters = NodeBuilder.createMetricsReporters(config, metricRegistry, selfEndpoint.getId().getValue());
+        int nodeThreads = config.getMultiRaftNodeThreads() > 0 ?
+                config.getMultiRaftNodeThreads() : Runtime.getRuntime().availableProcessors();
+        this.nodeTaskExecutors = new TaskExecutor[nodeThreads];
+        for (int i = 0; i < nodeThreads; i++) {
+            String name = "node-" + i;
+            nodeTaskExecutors[i] = new ListeningTaskExecutor(
+                    Executors.newSingleThreadExecutor(r -> new Thread(r, name)), monitorExecutorService);
+        }
+        this.groupConfigChangeTaskExecutor = new ListeningTaskExecutor(
+                Executors.newSingleThreadExecutor(r -> new Thread(r, "group-config-change")), monitorExecutorService);
+        this.snapshotExecutor = new ListeningTaskExecutor(
+                Executors.newSingleThreadExecutor(r -> new Thread(r, "snapshot")), monitorExecutorService);
+    }
+
+    /**
+     * Add raft group, the node is started if host started.
+     *
+     * @param groupId   id of group, from 1 to {@link MessageConstants#MAX_GROUP_ID}
+     * @param endpoints endpoints of group, including the endpoint of host
+     * @return node of host in group
+     * @throws IllegalArgumentException if group exists
+     */
+    @Nonnull
+    public synchronized Node addGroup(int groupId, @Nonnull Collection<NodeEndpoint> endpoints) {
+        Preconditions.checkArgument(groupId > 0 && groupId <= MessageConstants.MAX_GROUP_ID,
+                "group id should be in [1, " + MessageConstants.MAX_GROUP_ID + "]");
+        Preconditions.checkArgument(!nodes.containsKey(groupId), "group " + groupId + " exists");
+        NodeBuilder builder = new NodeBuilder(endpoints, selfEndpoint.getId())
+                .setConfig(config)
+                .setDataDir(createGroupDataDir(groupId))
+                .setMetricRegistry(metricRegistry.scope("group-" + groupId));
+        builder.setScheduler(new DefaultScheduler(config, scheduledExecutorService))
+                .setConnector(connector.createGroupConnector(groupId))
+                .setTaskExecutor(new SharedTaskExecutor(nodeTaskExecutors[groupId % nodeTaskExecutors.length]))
+                .setGroupConfigChangeTaskExecutor(new SharedTaskExecutor(groupConfigChangeTaskExecutor))
+                .setSnapshotExecutor(new SharedTaskExecutor(snapshotExecutor));
+        Node node = builder.build();
+        nodes.put(groupId, node);
+        if (started) {
+            node.start();
+        }
+        logger.info("add group {}, endpoints {}", groupId, endpoints);
+        return node;
+    }
+
+    /**
+     * Remove raft group and stop the node of host in group.
+     * <p>
+     * Components shared with other groups, like connector, scheduler and executors, keep running.
+     * </p>
+     *
+     * @param groupId id of group
+     * @return true if removed, false if group not found
+     * @throws InterruptedException if interrupted
+     * @throws IllegalStateException if host didn't start
+     */
+    public synchronized boolean removeGroup(int groupId) throws InterruptedException {
+        Preconditions.checkState(started, "host didn't start");
+        Node node = nodes.remove(groupId);
+        if (node == null) {
+            return false;
+        }
+        node.stop();
+        logger.info("remove group {}", groupId);
+        return true;
+    }
+
+    private String createGroupDataDir(int groupId) {
+        if (dataDir == null) {
+            return null;
+        }
+        File groupDataDir = new File(dataDir, "group-" + groupId);
+        if (!groupDataDir.isDirectory() && !groupDataDir.mkdirs()) {
+            throw new IllegalStateException("failed to create directory [" + groupDataDir + "]");
+        }
+        return groupDataDir.getPath();
+    }
+
+    /**
+     * Get node of host in group.
+     *
+     * @param groupId id of group
+     * @return node, {@code null} if group not found
+     */
+    @Nullable
+    public synchronized Node getGroup(int groupId) {
+        return nodes.get(groupId);
+    }
+
+    /**
+     * List id of groups in ascending order.
+     *
+     * @return id of groups
+     */
+    @Nonnull
+    public synchronized List<Integer> listGroupIds() {
+        return new ArrayList<>(nodes.keySet());
+    }
+
+    /**
+     * Get registry of metrics of host and all groups.
+     *
+     * @return metric registry
+     */
+    @Nonnull
+    public MetricRegistry getMetricRegistry() {
+        return metricRegistry;
+    }
+
+    /**
+     * Start connector and nodes of groups added.
+     */
+    public synchronized void start() {
+        Preconditions.checkState(!started, "host started");
+        connector.initialize();
+        metricsReporters.forEach(MetricsReporter::start);
+        for (Node node : nodes.values()) {
+            node.start();
+        }
+        started = true;
+    }
+
+    /**
+     * Stop nodes of all groups, and shared components.
+     *
+     * @throws InterruptedException if interrupted
+     */
+    public synchronized void stop() throws InterruptedException {
+        Preconditions.checkState(started, "host didn't start");
+        for (Node node : nodes.values()) {
+            node.stop();
+        }
+        connector.close();
+        metricsReporters.forEach(MetricsReporter::stop);
+        scheduledExecutorService.shutdown();
+        scheduledExecutorService.awaitTermination(1, TimeUnit.SECONDS);
+        for (TaskExecutor nodeTaskExecutor : nodeTaskExecutors) {
+            nodeTaskExecutor.shutdown();
+        }
+        groupConfigChangeTaskExecutor.shutdown();
+        snapshotExecutor.shutdown();
+        monitorExecutorService.shutdown();
+        started = false;
+    }
+
+}
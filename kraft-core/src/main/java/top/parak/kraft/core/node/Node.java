@@ -3,8 +3,11 @@ package top.parak.kraft.core.node;
 import top.parak.kraft.core.log.statemachine.StateMachine;
 import top.parak.kraft.core.node.role.RoleNameAndLeaderId;
 import top.parak.kraft.core.node.task.GroupConfigChangeTaskReference;
+import top.parak.kraft.core.support.metrics.Histogram;
+import top.parak.kraft.core.support.metrics.MetricRegistry;
 
 import javax.annotation.Nonnull;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Node.
@@ -57,6 +60,52 @@ public interface Node {
      */
     void appendLog(@Nonnull byte[] commandBytes);
 
+    /**
+     * Get histogram of commands in each append batch.
+     *
+     * @return histogram
+     */
+    @Nonnull
+    Histogram getAppendBatchSizeHistogram();
+
+    /**
+     * Get histogram of microseconds commands waiting in append batch.
+     *
+     * @return histogram
+     */
+    @Nonnull
+    Histogram getAppendLatencyHistogram();
+
+    /**
+     * Get registry of metrics of node, log and state machine.
+     *
+     * @return metric registry
+     */
+    @Nonnull
+    MetricRegistry getMetricRegistry();
+
+    /**
+     * Get read index for linearizable read.
+     * <p>
+     * Leader confirms its leadership by a round of heartbeat to major members, and takes its
+     * commit index as read index. Follower forwards the request to leader. Then the future
+     * completes when the commit index of current node reaches the read index.
+     * </p>
+     * <p>
+     * The value of future is the index which {@link StateMachine#getLastApplied()} should reach
+     * before reading from state machine, it may be less than read index since only general log
+     * entries are applied to state machine.
+     * </p>
+     * <p>
+     * The future completes exceptionally with {@link NotLeaderException} if leadership is lost
+     * or leader is unknown, or with {@link java.util.concurrent.TimeoutException} if timeout.
+     * </p>
+     *
+     * @return future of the index to apply
+     */
+    @Nonnull
+    CompletableFuture<Integer> readIndex();
+
     /**
      * Add node.
      *
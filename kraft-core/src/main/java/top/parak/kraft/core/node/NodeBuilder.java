@@ -8,13 +8,20 @@ import top.parak.kraft.core.log.Log;
 import top.parak.kraft.core.node.config.NodeConfig;
 import top.parak.kraft.core.log.FileLog;
 import top.parak.kraft.core.log.MemoryLog;
+import top.parak.kraft.core.log.sequence.LogFlushPolicy;
+import top.parak.kraft.core.log.snapshot.SnapshotCodecs;
 import top.parak.kraft.core.node.store.FileNodeStore;
 import top.parak.kraft.core.node.store.MemoryNodeStore;
 import top.parak.kraft.core.node.store.NodeStore;
 import top.parak.kraft.core.rpc.Connector;
 import top.parak.kraft.core.rpc.nio.NioConnector;
+import top.parak.kraft.core.rpc.nio.Transport;
 import top.parak.kraft.core.schedule.DefaultScheduler;
 import top.parak.kraft.core.schedule.Scheduler;
+import top.parak.kraft.core.support.metrics.HttpMetricsReporter;
+import top.parak.kraft.core.support.metrics.JmxMetricsReporter;
+import top.parak.kraft.core.support.metrics.MetricRegistry;
+import top.parak.kraft.core.support.metrics.MetricsReporter;
 import top.parak.kraft.core.support.task.ListeningTaskExecutor;
 import top.parak.kraft.core.support.task.TaskExecutor;
 
@@ -22,8 +29,10 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.File;
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.Executors;
 
 /**
@@ -67,6 +76,12 @@ public class NodeBuilder {
      */
     private Log log = null;
 
+    /**
+     * Data directory.
+     * If specified, {@link FileLog} will be created with the write-ahead log flush policy in config.
+     */
+    private File dataDir = null;
+
     /**
      * Store for current term and last node id voted for.
      * If data directory specified, {@link FileNodeStore} will be created.
@@ -94,12 +109,24 @@ public class NodeBuilder {
      */
     private TaskExecutor groupConfigChangeTaskExecutor = null;
 
+    /**
+     * Task executor to write snapshot, INTERNAL.
+     */
+    private TaskExecutor snapshotExecutor = null;
+
     /**
      * Event loop group for worker.
      * If specified, reuse, otherwise create one.
      */
     private NioEventLoopGroup workerGroup = null;
 
+    /**
+     * Metric registry.
+     * If specified, metrics are reported by the owner of registry, otherwise node creates
+     * one and reporters configured.
+     */
+    private MetricRegistry metricRegistry = null;
+
     /**
      * Create NodeBuilder whose type is standby.
      *
@@ -220,8 +247,23 @@ public class NodeBuilder {
         return this;
     }
 
+    /**
+     * Set snapshot executor.
+     *
+     * @param snapshotExecutor snapshot executor
+     * @return this
+     */
+    public NodeBuilder setSnapshotExecutor(TaskExecutor snapshotExecutor) {
+        Preconditions.checkNotNull(snapshotExecutor);
+        this.snapshotExecutor = snapshotExecutor;
+        return this;
+    }
+
     /**
      * Set event loop group for worker.
+     * <p>
+     * Nio transport is used with the group, regardless of the transport in config.
+     * </p>
      *
      * @param workerGroup event loop group for worker
      * @return this
@@ -232,6 +274,18 @@ public class NodeBuilder {
         return this;
     }
 
+    /**
+     * Set metric registry, e.g. scoped registry of a raft group.
+     *
+     * @param metricRegistry metric registry
+     * @return this
+     */
+    public NodeBuilder setMetricRegistry(MetricRegistry metricRegistry) {
+        Preconditions.checkNotNull(metricRegistry);
+        this.metricRegistry = metricRegistry;
+        return this;
+    }
+
     /**
      * Set data directory.
      *
@@ -246,7 +300,7 @@ public class NodeBuilder {
         if (!dataDir.isDirectory() || !dataDir.exists()) {
             throw new IllegalArgumentException("[" + dataDirPath + "] isn't a directory, or it doesn't exist");
         }
-        log = new FileLog(dataDir, eventBus);
+        this.dataDir = dataDir;
         store = new FileNodeStore(new File(dataDir, FileNodeStore.FILE_NAME));
         return this;
     }
@@ -272,12 +326,24 @@ public class NodeBuilder {
         nodeContext.setGroup(group);
         nodeContext.setMode(evaluateMode());
         nodeContext.setStore(store != null ? store : new MemoryNodeStore());
-        nodeContext.setLog(log != null ? log : new MemoryLog(eventBus));
+        LogFlushPolicy logFlushPolicy = LogFlushPolicy.of(
+                config.getLogFlushPolicy(), config.getLogFlushInterval(), config.getLogFlushBytes());
+        Log nodeLog = log != null ? log : createLog(logFlushPolicy);
+        nodeLog.setSnapshotExecutor(snapshotExecutor != null ? snapshotExecutor :
+                new ListeningTaskExecutor(Executors.newSingleThreadExecutor(r -> new Thread(r, "snapshot"))));
+        nodeLog.setSnapshotCodec(SnapshotCodecs.of(config.getSnapshotCodec()));
+        MetricRegistry nodeMetricRegistry = metricRegistry != null ? metricRegistry : new MetricRegistry();
+        nodeLog.setMetricRegistry(nodeMetricRegistry);
+        nodeContext.setLog(nodeLog);
+        nodeContext.setLogFlushPolicy(logFlushPolicy);
+        nodeContext.setMetricRegistry(nodeMetricRegistry);
+        nodeContext.setMetricsReporters(metricRegistry != null ? Collections.emptyList() :
+                createMetricsReporters(config, nodeMetricRegistry, selfId.getValue()));
         nodeContext.setSelfId(selfId);
         nodeContext.setConfig(config);
         nodeContext.setEventBus(eventBus);
         nodeContext.setScheduler(scheduler != null ? scheduler : new DefaultScheduler(config));
-        nodeContext.setConnector(connector != null ? connector : createNioConnector());
+        nodeContext.setConnector(connector != null ? connector : createNioConnector(nodeMetricRegistry));
         nodeContext.setTaskExecutor(taskExecutor != null ? taskExecutor :
                 new ListeningTaskExecutor(Executors.newSingleThreadExecutor(r -> new Thread(r, "node"))
         ));
@@ -286,6 +352,21 @@ public class NodeBuilder {
         return nodeContext;
     }
 
+    /**
+     * Create log.
+     *
+     * @param flushPolicy policy to force write-ahead log
+     * @return log
+     */
+    @Nonnull
+    private Log createLog(@Nullable LogFlushPolicy flushPolicy) {
+        if (dataDir == null) {
+            return new MemoryLog(eventBus);
+        }
+        // policy off to write log entries when committed, as before write-ahead log
+        return new FileLog(dataDir, eventBus, flushPolicy, config.getLogSegmentSize(), config.getLogTailCacheBytes());
+    }
+
     /**
      * Evaluate mode.
      *
@@ -306,18 +387,46 @@ public class NodeBuilder {
     /**
      * Create nio connector.
      *
+     * @param metricRegistry metric registry
      * @return nio connector
      */
     @Nonnull
-    private NioConnector createNioConnector() {
+    private NioConnector createNioConnector(MetricRegistry metricRegistry) {
         NodeEndpoint endpoint = group.findSelf().getEndpoint();
         InetSocketAddress inetSocketAddress = new InetSocketAddress(endpoint.getHost(), endpoint.getPort());
+        NioConnector nioConnector;
         if (workerGroup != null) {
-            return new NioConnector(workerGroup, selfId, eventBus, inetSocketAddress,
+            nioConnector = new NioConnector(Transport.nio(config), workerGroup, false, selfId, inetSocketAddress,
                     config.getLogReplicationInterval());
+        } else {
+            Transport transport = Transport.create(config);
+            nioConnector = new NioConnector(transport, transport.createEventLoopGroup(config.getNioWorkerThreads()), false,
+                    selfId, inetSocketAddress, config.getLogReplicationInterval());
+        }
+        nioConnector.setMetricRegistry(metricRegistry);
+        nioConnector.setCompactEnabled(config.isCompactRpcEnabled());
+        nioConnector.setReplicationInflight(config.getMaxReplicationInflight());
+        return nioConnector;
+    }
+
+    /**
+     * Create metrics reporters enabled in config.
+     *
+     * @param config         config
+     * @param metricRegistry metric registry
+     * @param name           name of reporter, e.g. node id
+     * @return reporters, may be empty
+     */
+    @Nonnull
+    static List<MetricsReporter> createMetricsReporters(NodeConfig config, MetricRegistry metricRegistry, String name) {
+        List<MetricsReporter> reporters = new ArrayList<>();
+        if (config.isMetricsJmxEnabled()) {
+            reporters.add(new JmxMetricsReporter(metricRegistry, name));
+        }
+        if (config.getMetricsHttpPort() > 0) {
+            reporters.add(new HttpMetricsReporter(metricRegistry, config.getMetricsHttpPort()));
         }
-        return new NioConnector(new NioEventLoopGroup(config.getNioWorkerThreads()), false, selfId,
-                eventBus, inetSocketAddress, config.getLogReplicationInterval());
+        return reporters;
     }
 
 }
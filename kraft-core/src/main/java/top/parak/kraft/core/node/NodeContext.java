@@ -3,12 +3,19 @@ package top.parak.kraft.core.node;
 import com.google.common.eventbus.EventBus;
 
 import top.parak.kraft.core.log.Log;
+import top.parak.kraft.core.log.sequence.LogFlushPolicy;
 import top.parak.kraft.core.node.config.NodeConfig;
 import top.parak.kraft.core.node.store.NodeStore;
 import top.parak.kraft.core.rpc.Connector;
 import top.parak.kraft.core.schedule.Scheduler;
+import top.parak.kraft.core.support.metrics.MetricRegistry;
+import top.parak.kraft.core.support.metrics.MetricsReporter;
 import top.parak.kraft.core.support.task.TaskExecutor;
 
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Node context.
  * <p>
@@ -45,6 +52,10 @@ public class NodeContext {
      * Log component.
      */
     private Log log;
+    /**
+     * Policy to force write-ahead log, {@code null} if off.
+     */
+    private LogFlushPolicy logFlushPolicy;
     /**
      * Network io connector.
      */
@@ -65,6 +76,14 @@ public class NodeContext {
      * Group config change task executor
      */
     private TaskExecutor groupConfigChangeTaskExecutor;
+    /**
+     * Metric registry.
+     */
+    private MetricRegistry metricRegistry = new MetricRegistry();
+    /**
+     * Metrics reporters owned by node, started and stopped with node.
+     */
+    private List<MetricsReporter> metricsReporters = Collections.emptyList();
 
     public NodeId selfId() {
         return selfId;
@@ -114,6 +133,15 @@ public class NodeContext {
         this.log = log;
     }
 
+    @Nullable
+    public LogFlushPolicy logFlushPolicy() {
+        return logFlushPolicy;
+    }
+
+    public void setLogFlushPolicy(@Nullable LogFlushPolicy logFlushPolicy) {
+        this.logFlushPolicy = logFlushPolicy;
+    }
+
     public Connector connector() {
         return connector;
     }
@@ -154,4 +182,20 @@ public class NodeContext {
         this.groupConfigChangeTaskExecutor = groupConfigChangeTaskExecutor;
     }
 
+    public MetricRegistry metricRegistry() {
+        return metricRegistry;
+    }
+
+    public void setMetricRegistry(MetricRegistry metricRegistry) {
+        this.metricRegistry = metricRegistry;
+    }
+
+    public List<MetricsReporter> metricsReporters() {
+        return metricsReporters;
+    }
+
+    public void setMetricsReporters(List<MetricsReporter> metricsReporters) {
+        this.metricsReporters = metricsReporters;
+    }
+
 }
@@ -4,10 +4,12 @@ import com.google.common.base.Preconditions;
 import com.google.common.eventbus.DeadEvent;
 import com.google.common.eventbus.Subscribe;
 import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.RateLimiter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import top.parak.kraft.core.log.InstallSnapshotState;
+import top.parak.kraft.core.log.LogConflict;
 import top.parak.kraft.core.log.entry.Entry;
 import top.parak.kraft.core.log.entry.EntryMeta;
 import top.parak.kraft.core.log.entry.GroupConfigEntry;
@@ -16,14 +18,22 @@ import top.parak.kraft.core.log.event.GroupConfigEntryBatchRemovedEvent;
 import top.parak.kraft.core.log.event.GroupConfigEntryCommittedEvent;
 import top.parak.kraft.core.log.event.GroupConfigEntryFromLeaderAppendEvent;
 import top.parak.kraft.core.log.event.SnapshotGenerateEvent;
+import top.parak.kraft.core.log.event.SnapshotGeneratedEvent;
 import top.parak.kraft.core.log.snapshot.EntryInSnapshotException;
+import top.parak.kraft.core.log.sequence.LogFlushPolicy;
 import top.parak.kraft.core.log.statemachine.StateMachine;
 import top.parak.kraft.core.node.role.*;
 import top.parak.kraft.core.node.store.NodeStore;
 import top.parak.kraft.core.node.task.*;
+import top.parak.kraft.core.rpc.MessageDispatcher;
 import top.parak.kraft.core.rpc.message.*;
 import top.parak.kraft.core.schedule.ElectionTimeout;
+import top.parak.kraft.core.schedule.LogFlushTask;
 import top.parak.kraft.core.schedule.LogReplicationTask;
+import top.parak.kraft.core.support.metrics.Histogram;
+import top.parak.kraft.core.support.metrics.MetricRegistry;
+import top.parak.kraft.core.support.metrics.MetricsReporter;
+import top.parak.kraft.core.support.queue.MpscArrayQueue;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -32,9 +42,12 @@ import javax.annotation.concurrent.ThreadSafe;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Node implementation.
@@ -44,10 +57,15 @@ import java.util.concurrent.TimeoutException;
  * @email parakovo@gmail.com
  */
 @ThreadSafe
-public class NodeImpl implements Node {
+public class NodeImpl implements Node, MessageDispatcher {
 
     private static final Logger logger = LoggerFactory.getLogger(NodeImpl.class);
 
+    /**
+     * Max count of inbound messages processed in one task.
+     */
+    private static final int MAX_INBOUND_DRAIN_BATCH = 256;
+
     /**
      * Callback for async tasks。
      */
@@ -79,6 +97,42 @@ public class NodeImpl implements Node {
      * Node role listeners.
      */
     private final List<NodeRoleListener> roleListeners = new CopyOnWriteArrayList<>();
+    /**
+     * Batcher of commands to append.
+     */
+    private final AppendBatcher appendBatcher;
+    /**
+     * Tracker of read index requests.
+     */
+    private final ReadIndexTracker readIndexTracker = new ReadIndexTracker();
+    /**
+     * Lease of leader to serve read index requests locally.
+     */
+    private final LeaderLease leaderLease;
+    /**
+     * Timestamp in nanoseconds of the last append entries rpc from leader.
+     */
+    private long lastHeardFromLeaderAt = 0;
+    /**
+     * Rate limiter of snapshot data sent by leader in bytes, {@code null} if unlimited.
+     */
+    private final RateLimiter snapshotRateLimiter;
+    /**
+     * Metrics of node.
+     */
+    private final NodeMetrics metrics;
+    /**
+     * Inbound messages from connector, drained in batch by node thread.
+     */
+    private final MpscArrayQueue<Object> inboundQueue;
+    /**
+     * Whether a task to drain inbound messages is submitted and not finished.
+     */
+    private final AtomicBoolean inboundDrainScheduled = new AtomicBoolean(false);
+    /**
+     * Periodic task to force write-ahead log for {@code interval} flush policy.
+     */
+    private LogFlushTask logFlushTask = LogFlushTask.NONE;
 
     private final NewNodeCatchUpTaskContext newNodeCatchUpTaskContext = new NewNodeCatchUpTaskContextImpl();
     private final NewNodeCatchUpTaskGroup newNodeCatchUpTaskGroup = new NewNodeCatchUpTaskGroup();
@@ -92,6 +146,15 @@ public class NodeImpl implements Node {
      */
     NodeImpl(NodeContext context) {
         this.context = context;
+        this.appendBatcher = new AppendBatcher(context.config().getAppendBatchWindow(),
+                context.config().getMaxAppendBatchSize(), context.config().getMaxAppendBatchBytes());
+        this.leaderLease = new LeaderLease(context.config().isReadLeaseEnabled(),
+                context.config().getMinElectionTimeout(), context.config().getReadLeaseDriftBound());
+        this.snapshotRateLimiter = context.config().getSnapshotTransferRate() > 0 ?
+                RateLimiter.create(context.config().getSnapshotTransferRate()) : null;
+        this.metrics = new NodeMetrics(context.metricRegistry(), context.taskExecutor());
+        this.inboundQueue = new MpscArrayQueue<>(context.config().getInboundQueueCapacity());
+        context.metricRegistry().gauge("node.inbound_queue_depth", inboundQueue::size);
     }
 
     /**
@@ -138,7 +201,10 @@ public class NodeImpl implements Node {
         }
         // initialize event-bus and connector
         context.eventBus().register(this);
+        context.connector().setMessageDispatcher(this);
         context.connector().initialize();
+        context.metricsReporters().forEach(MetricsReporter::start);
+        logFlushTask = scheduleLogFlushTask();
 
         // load term, votedFor from store and become follower
         NodeStore store = context.store();
@@ -152,10 +218,141 @@ public class NodeImpl implements Node {
     public void appendLog(@Nonnull byte[] commandBytes) {
         Preconditions.checkNotNull(commandBytes);
         ensureLeader();
-        context.taskExecutor().submit(() -> {
-            context.log().appendEntry(role.getTerm(), commandBytes);
+        switch (appendBatcher.offer(commandBytes)) {
+            case FLUSH_NOW:
+                submitAppendBatchFlush();
+                break;
+            case FLUSH_LATER:
+                context.scheduler().scheduleAppendBatchFlush(this::submitAppendBatchFlush, appendBatcher.getWindow());
+                break;
+            default:
+                // flush has been triggered
+                break;
+        }
+    }
+
+    /**
+     * Submit task to flush append batch.
+     */
+    private void submitAppendBatchFlush() {
+        context.taskExecutor().submit(this::doFlushAppendBatch, LOGGING_FUTURE_CALLBACK);
+    }
+
+    /**
+     * Append a batch of commands to log and replicate in one round.
+     */
+    private void doFlushAppendBatch() {
+        List<byte[]> commands = appendBatcher.drain();
+        if (!commands.isEmpty()) {
+            if (role.getName() == RoleName.LEADER) {
+                context.log().appendEntries(role.getTerm(), commands);
+                metrics.onAppended(context.log().getNextIndex() - 1, appendBatcher.getDrainedOfferedAt());
+                doReplicateLog();
+            } else {
+                logger.warn("node {} is not leader, drop {} commands", context.selfId(), commands.size());
+            }
+        }
+        if (appendBatcher.shouldFlushAgain()) {
+            submitAppendBatchFlush();
+        }
+    }
+
+    @Nonnull
+    @Override
+    public Histogram getAppendBatchSizeHistogram() {
+        return appendBatcher.getBatchSizeHistogram();
+    }
+
+    @Nonnull
+    @Override
+    public Histogram getAppendLatencyHistogram() {
+        return appendBatcher.getLatencyHistogram();
+    }
+
+    @Nonnull
+    @Override
+    public MetricRegistry getMetricRegistry() {
+        return context.metricRegistry();
+    }
+
+    @Nonnull
+    @Override
+    public CompletableFuture<Integer> readIndex() {
+        CompletableFuture<Integer> future = new CompletableFuture<>();
+        context.taskExecutor().submit(() -> doReadIndex(future), LOGGING_FUTURE_CALLBACK);
+        return future;
+    }
+
+    /**
+     * Confirm read index by leader, then wait for commit.
+     *
+     * @param future future to complete with the index to apply
+     */
+    private void doReadIndex(CompletableFuture<Integer> future) {
+        long now = System.currentTimeMillis();
+        readIndexTracker.expire(now, context.config().getReadIndexTimeout());
+        CompletableFuture<Integer> confirmed = new CompletableFuture<>();
+        confirmed.whenComplete((readIndex, cause) -> {
+            if (cause != null) {
+                future.completeExceptionally(cause);
+                return;
+            }
+            readIndexTracker.addCommitting(readIndex, future, System.currentTimeMillis());
+            completeCommittedReads();
+        });
+        if (role.getName() == RoleName.LEADER) {
+            confirmLeadership(confirmed, now);
+            return;
+        }
+        // forward to leader
+        NodeId leaderId = role.getLeaderId(context.selfId());
+        GroupMember leader = leaderId != null ? context.group().getMember(leaderId) : null;
+        if (leader == null) {
+            confirmed.completeExceptionally(new NotLeaderException(role.getName(), null));
+            return;
+        }
+        ReadIndexRpc rpc = new ReadIndexRpc(context.log().nextMessageId());
+        readIndexTracker.addForwarded(rpc.getMessageId(), confirmed, now);
+        context.connector().sendReadIndex(rpc, leader.getEndpoint());
+    }
+
+    /**
+     * Confirm leadership by lease, or with a round of heartbeat.
+     *
+     * @param confirmed future to complete with read index
+     * @param now       current timestamp
+     */
+    private void confirmLeadership(CompletableFuture<Integer> confirmed, long now) {
+        if (leaderLease.isValid(context.group(), System.nanoTime())) {
+            confirmed.complete(readIndexTracker.getReadIndex(context.log().getCommitIndex()));
+            return;
+        }
+        readIndexTracker.addConfirming(readIndexTracker.getReadIndex(context.log().getCommitIndex()), confirmed, now);
+        readIndexTracker.confirm(context.group());
+        if (readIndexTracker.hasConfirmingReads()) {
             doReplicateLog();
-        }, LOGGING_FUTURE_CALLBACK);
+        }
+    }
+
+    /**
+     * Complete read index requests whose read index is committed.
+     */
+    private void completeCommittedReads() {
+        for (ReadIndexTracker.PendingRead read : readIndexTracker.removeCommitted(context.log().getCommitIndex())) {
+            read.getFuture().complete(context.log().getLastApplicableIndex(read.getReadIndex()));
+        }
+    }
+
+    /**
+     * Advance commit index, and complete read index requests.
+     *
+     * @param newCommitIndex new commit index
+     * @param currentTerm    current term
+     */
+    private void advanceCommitIndex(int newCommitIndex, int currentTerm) {
+        context.log().advanceCommitIndex(newCommitIndex, currentTerm);
+        metrics.onCommitted(context.log().getCommitIndex());
+        completeCommittedReads();
     }
 
     @Override
@@ -248,15 +445,37 @@ public class NodeImpl implements Node {
         if (!started) {
             throw new IllegalStateException("node didn't start");
         }
+        logFlushTask.cancel();
         context.log().close();
         context.connector().close();
         context.store().close();
         context.scheduler().stop();
         context.taskExecutor().shutdown();
         context.groupConfigChangeTaskExecutor().shutdown();
+        context.metricsReporters().forEach(MetricsReporter::stop);
         started = false;
     }
 
+    /**
+     * Schedule periodic task to force write-ahead log if flush policy is {@code interval}.
+     * <p>
+     * Write-ahead log is forced when appended only if the interval elapsed, so the last writes of a burst
+     * are forced by this task within the interval after the burst ends.
+     * </p>
+     *
+     * @return log flush task
+     */
+    private LogFlushTask scheduleLogFlushTask() {
+        LogFlushPolicy flushPolicy = context.logFlushPolicy();
+        if (flushPolicy == null || flushPolicy.getKind() != LogFlushPolicy.Kind.INTERVAL) {
+            return LogFlushTask.NONE;
+        }
+        return context.scheduler().scheduleLogFlushTask(
+                () -> context.taskExecutor().submit(() -> context.log().flush(), LOGGING_FUTURE_CALLBACK),
+                flushPolicy.getInterval()
+        );
+    }
+
     /**
      * Ensure leader status.
      *
@@ -290,6 +509,12 @@ public class NodeImpl implements Node {
 
             // notify listeners
             roleListeners.forEach(l -> l.nodeRoleChanged(state));
+
+            // read index requests can't be confirmed by new role
+            NodeId leaderId = newRole.getLeaderId(context.selfId());
+            GroupMember leader = leaderId != null ? context.group().getMember(leaderId) : null;
+            readIndexTracker.failConfirming(new NotLeaderException(newRole.getName(), leader != null ? leader.getEndpoint() : null));
+            metrics.onRoleChanged();
         }
         role = newRole;
     }
@@ -371,7 +596,8 @@ public class NodeImpl implements Node {
                 logger.info("node {} become leader, term {}", context.selfId(), newTerm);
                 resetReplicatingStates();
                 changeToRole(new LeaderNodeRole(newTerm, scheduleLogReplicationTask()));
-                context.log().appendEntry(newTerm);
+                leaderLease.reset();
+                readIndexTracker.resetLeader(context.log().appendEntry(newTerm).getIndex());
             }
         } else {
             logger.info("node {} start election", context.selfId());
@@ -404,7 +630,10 @@ public class NodeImpl implements Node {
      * </p>
      */
     protected void replicateLog() {
-        context.taskExecutor().submit(this::doReplicateLog, LOGGING_FUTURE_CALLBACK);
+        context.taskExecutor().submit(() -> {
+            readIndexTracker.expire(System.currentTimeMillis(), context.config().getReadIndexTimeout());
+            doReplicateLog();
+        }, LOGGING_FUTURE_CALLBACK);
     }
 
     /**
@@ -413,12 +642,18 @@ public class NodeImpl implements Node {
     private void doReplicateLog() {
         // just advance commit index if group is standalone
         if (context.group().isStandalone()) {
-            context.log().advanceCommitIndex(context.log().getNextIndex() - 1, role.getTerm());
+            advanceCommitIndex(context.log().getNextIndex() - 1, role.getTerm());
             return;
         }
         logger.debug("leader {} replicate log", context.selfId());
+        int lastLogIndex = context.log().getNextIndex() - 1;
         for (GroupMember member : context.group().listReplicationTarget()) {
-            if (member.shouldReplicate(context.config().getLogReplicationReadTimeout())) {
+            metrics.updateMatchIndexLag(member.getId(), lastLogIndex - member.getMatchIndex());
+            if (member.isInstallingSnapshot()) {
+                doInstallSnapshot(member);
+            } else if (isReplicationPipelined()) {
+                doReplicateLogPipelined(member, true);
+            } else if (member.shouldReplicate(context.config().getLogReplicationReadTimeout())) {
                 doReplicateLog(member, context.config().getMaxReplicationEntries());
             } else {
                 logger.debug("node {} is replicating, skip replication task", member.getId());
@@ -430,17 +665,139 @@ public class NodeImpl implements Node {
      * Do replicate log.
      */
     private void doReplicateLog(GroupMember member, int maxEntries) {
-        member.replicateNow();
         try {
             AppendEntriesRpc rpc = context.log().createAppendEntriesRpc(role.getTerm(), context.selfId(), member.getNextIndex(), maxEntries);
+            member.replicateNow(rpc.getMessageId());
+            readIndexTracker.onAppendEntriesSent(rpc.getMessageId());
+            leaderLease.onAppendEntriesSent(rpc.getMessageId(), System.nanoTime());
             context.connector().sendAppendEntries(rpc, member.getEndpoint());
         } catch (EntryInSnapshotException ignored) {
             logger.debug("log entry {} in snapshot, replicate with install snapshot rpc", member.getNextIndex());
-            InstallSnapshotRpc rpc = context.log().createInstallSnapshotRpc(role.getTerm(), context.selfId(), 0, context.config().getSnapshotDataLength());
+            member.startInstallSnapshot(0);
+            doInstallSnapshot(member);
+        }
+    }
+
+    /**
+     * Send snapshot chunks until the window of in-flight rpc is full or the last chunk is sent.
+     * <p>
+     * Chunks are sent without waiting for the result of previous one, and the offset of next chunk
+     * is advanced on sending. If the rate of snapshot transfer is limited, the rest of chunks are
+     * sent on next result or log replication.
+     * </p>
+     *
+     * @param member member
+     */
+    private void doInstallSnapshot(GroupMember member) {
+        int maxInflight = context.config().getMaxSnapshotInflight();
+        int readTimeout = context.config().getLogReplicationReadTimeout();
+        int dataLength = context.config().getSnapshotDataLength();
+        while (member.shouldSendSnapshotChunk(maxInflight, readTimeout)) {
+            if (snapshotRateLimiter != null && !snapshotRateLimiter.tryAcquire(dataLength)) {
+                logger.debug("snapshot transfer rate limited, send to node {} later", member.getId());
+                return;
+            }
+            InstallSnapshotRpc rpc;
+            try {
+                rpc = context.log().createInstallSnapshotRpc(role.getTerm(), context.selfId(), member.getSnapshotOffset(), dataLength);
+            } catch (IllegalArgumentException e) {
+                // snapshot replaced during transfer, offset is beyond the new one
+                logger.info("snapshot replaced during transfer to node {}, restart", member.getId());
+                member.startInstallSnapshot(0);
+                continue;
+            }
+            member.onInstallSnapshotSent(rpc.getMessageId(), rpc.getOffset() + rpc.getDataLength(), rpc.isDone());
             context.connector().sendInstallSnapshot(rpc, member.getEndpoint());
         }
     }
 
+    /**
+     * Check if replication is pipelined.
+     *
+     * @return true if max in-flight append entries rpc is greater than {@code 1}
+     */
+    private boolean isReplicationPipelined() {
+        return context.config().getMaxReplicationInflight() > 1;
+    }
+
+    /**
+     * Do replicate log in pipelined mode.
+     * <p>
+     * Send append entries rpc until the window of in-flight rpc is full or all entries
+     * are sent, next index is advanced optimistically on sending.
+     * </p>
+     *
+     * @param member    member
+     * @param heartbeat whether to send rpc even if there is no entry
+     */
+    private void doReplicateLogPipelined(GroupMember member, boolean heartbeat) {
+        int maxInflight = context.config().getMaxReplicationInflight();
+        int readTimeout = context.config().getLogReplicationReadTimeout();
+        while (member.shouldReplicatePipelined(maxInflight, readTimeout, context.log().getNextIndex(), heartbeat)) {
+            try {
+                AppendEntriesRpc rpc = context.log().createAppendEntriesRpc(role.getTerm(), context.selfId(), member.getNextIndex(), context.config().getMaxReplicationEntries());
+                member.onAppendEntriesSent(rpc.getMessageId(), rpc.getLastEntryIndex());
+                readIndexTracker.onAppendEntriesSent(rpc.getMessageId());
+                leaderLease.onAppendEntriesSent(rpc.getMessageId(), System.nanoTime());
+                context.connector().sendAppendEntries(rpc, member.getEndpoint());
+            } catch (EntryInSnapshotException ignored) {
+                logger.debug("log entry {} in snapshot, replicate with install snapshot rpc", member.getNextIndex());
+                member.startInstallSnapshot(0);
+                doInstallSnapshot(member);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Process {@link AppendEntriesResult} in pipelined mode.
+     *
+     * @param member member
+     * @param result result
+     * @param rpc    rpc of result
+     */
+    private void doProcessAppendEntriesResultPipelined(GroupMember member, AppendEntriesResult result, AppendEntriesRpc rpc) {
+        if (result.isSuccess()) {
+            if (member.onAppendEntriesSucceeded(rpc.getMessageId(), rpc.getLastEntryIndex()) && member.isMajor()) {
+                advanceCommitIndex(context.group().getMatchIndexOfMajor(), role.getTerm());
+            }
+        } else if (!member.rewindNextIndex(rpc.getMessageId(), getNextIndexAfterRejected(result, rpc.getPrevLogIndex()))) {
+            logger.debug("stale append entries result from node {}, skip", member.getId());
+            return;
+        }
+        if (!member.isMajor()) {
+            logger.debug("node {} is not major, skip", member.getId());
+            return;
+        }
+        doReplicateLogPipelined(member, readIndexTracker.isWaitingFor(member.getId()));
+    }
+
+    /**
+     * Get the next index to retry after append entries rpc is rejected.
+     * <p>
+     * If the leader has log entries of conflicting term, retry after the last one of them,
+     * otherwise retry from the conflict index, to skip all conflicting log entries of a term.
+     * If the follower provides no conflict, back off to the fallback.
+     * </p>
+     *
+     * @param result            rejected result
+     * @param fallbackNextIndex next index if no conflict provided
+     * @return next index
+     */
+    private int getNextIndexAfterRejected(AppendEntriesResult result, int fallbackNextIndex) {
+        if (result.getConflictIndex() <= 0) {
+            return fallbackNextIndex;
+        }
+        int nextIndex = result.getConflictIndex();
+        if (result.getConflictTerm() > 0) {
+            int lastIndexOfTerm = context.log().findLastIndexOfTerm(result.getConflictTerm());
+            if (lastIndexOfTerm > 0) {
+                nextIndex = lastIndexOfTerm + 1;
+            }
+        }
+        return Math.min(nextIndex, context.log().getNextIndex());
+    }
+
     /**
      * Reset replicating states.
      */
@@ -480,6 +837,73 @@ public class NodeImpl implements Node {
         groupConfigChangeTaskHolder = new GroupConfigChangeTaskHolder();
     }
 
+    /**
+     * Offer inbound message, and schedule draining if not scheduled.
+     * <p>
+     * Message is dropped if queue is full, raft recovers it as a lost message.
+     * </p>
+     *
+     * @param message inbound message
+     */
+    private void offerInbound(Object message) {
+        if (!inboundQueue.offer(message)) {
+            logger.warn("inbound queue is full, drop {}", message);
+            return;
+        }
+        if (inboundDrainScheduled.compareAndSet(false, true)) {
+            context.taskExecutor().submit(this::drainInbound, LOGGING_FUTURE_CALLBACK);
+        }
+    }
+
+    /**
+     * Process inbound messages in batch.
+     * <p>
+     * The count of messages in one task is limited so that other tasks of node thread are not delayed.
+     * </p>
+     */
+    private void drainInbound() {
+        inboundQueue.drain(MAX_INBOUND_DRAIN_BATCH, this::dispatchInbound);
+        inboundDrainScheduled.set(false);
+        // messages offered after draining but before reset are not scheduled by producer
+        if (!inboundQueue.isEmpty() && inboundDrainScheduled.compareAndSet(false, true)) {
+            context.taskExecutor().submit(this::drainInbound, LOGGING_FUTURE_CALLBACK);
+        }
+    }
+
+    /**
+     * Process inbound message, failure of one message does not affect others.
+     *
+     * @param message inbound message
+     */
+    private void dispatchInbound(Object message) {
+        try {
+            if (message instanceof AppendEntriesRpcMessage) {
+                AppendEntriesRpcMessage rpcMessage = (AppendEntriesRpcMessage) message;
+                context.connector().replyAppendEntries(doProcessAppendEntriesRpc(rpcMessage), rpcMessage);
+            } else if (message instanceof AppendEntriesResultMessage) {
+                doProcessAppendEntriesResult((AppendEntriesResultMessage) message);
+            } else if (message instanceof RequestVoteRpcMessage) {
+                RequestVoteRpcMessage rpcMessage = (RequestVoteRpcMessage) message;
+                context.connector().replyRequestVote(doProcessRequestVoteRpc(rpcMessage), rpcMessage);
+            } else if (message instanceof RequestVoteResult) {
+                doProcessRequestVoteResult((RequestVoteResult) message);
+            } else if (message instanceof InstallSnapshotRpcMessage) {
+                InstallSnapshotRpcMessage rpcMessage = (InstallSnapshotRpcMessage) message;
+                context.connector().replyInstallSnapshot(doProcessInstallSnapshotRpc(rpcMessage), rpcMessage);
+            } else if (message instanceof InstallSnapshotResultMessage) {
+                doProcessInstallSnapshotResult((InstallSnapshotResultMessage) message);
+            } else if (message instanceof ReadIndexRpcMessage) {
+                doProcessReadIndexRpc((ReadIndexRpcMessage) message);
+            } else if (message instanceof ReadIndexResult) {
+                doProcessReadIndexResult((ReadIndexResult) message);
+            } else {
+                logger.warn("unexpected inbound message {}", message);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("failed to process " + message, e);
+        }
+    }
+
     /**
      * Receive {@link RequestVoteRpcMessage}.
      * <p>
@@ -488,14 +912,19 @@ public class NodeImpl implements Node {
      *
      * @param rpcMessage request vote rpc message
      */
-    @Subscribe
-    public void onReceiveRequestVoteRpc(RequestVoteRpcMessage rpcMessage) {
-        context.taskExecutor().submit(
-                () -> {
-                    context.connector().replyRequestVote(doProcessRequestVoteRpc(rpcMessage), rpcMessage);
-                },
-                LOGGING_FUTURE_CALLBACK
-        );
+    @Override
+    public void onReceiveRequestVoteRpc(@Nonnull RequestVoteRpcMessage rpcMessage) {
+        offerInbound(rpcMessage);
+    }
+
+    /**
+     * Check if follower heard from leader within min election timeout in lease mode.
+     *
+     * @return true if heard, otherwise false
+     */
+    private boolean isLeaderAlive() {
+        return leaderLease.isEnabled() && role.getName() == RoleName.FOLLOWER && role.getLeaderId(context.selfId()) != null &&
+                System.nanoTime() - lastHeardFromLeaderAt < TimeUnit.MILLISECONDS.toNanos(context.config().getMinElectionTimeout());
     }
 
     /**
@@ -518,6 +947,12 @@ public class NodeImpl implements Node {
             return new RequestVoteResult(role.getTerm(), false);
         }
 
+        // don't step down if heard from leader within min election timeout, keep the lease of leader
+        if (rpc.getTerm() > role.getTerm() && isLeaderAlive()) {
+            logger.debug("heard from leader {} within min election timeout, don't vote for {}", role.getLeaderId(context.selfId()), rpc.getCandidateId());
+            return new RequestVoteResult(role.getTerm(), false);
+        }
+
         // step down if rpc term is larger than current term
         if (rpc.getTerm() > role.getTerm()) {
             boolean votedForCandidate = !context.log().isNewerThan(rpc.getLastLogIndex(), rpc.getLastLogTerm());
@@ -557,12 +992,9 @@ public class NodeImpl implements Node {
      *
      * @param result request vote result
      */
-    @Subscribe
-    public void onReceiveRequestVoteResult(RequestVoteResult result) {
-        context.taskExecutor().submit(
-                () -> doProcessRequestVoteResult(result),
-                LOGGING_FUTURE_CALLBACK)
-        ;
+    @Override
+    public void onReceiveRequestVoteResult(@Nonnull RequestVoteResult result) {
+        offerInbound(result);
     }
 
     /**
@@ -611,7 +1043,8 @@ public class NodeImpl implements Node {
             logger.info("become leader, term {}", role.getTerm());
             resetReplicatingStates();
             changeToRole(new LeaderNodeRole(role.getTerm(), scheduleLogReplicationTask()));
-            context.log().appendEntry(role.getTerm());
+            leaderLease.reset();
+            readIndexTracker.resetLeader(context.log().appendEntry(role.getTerm()).getIndex());
             context.connector().resetChannels();
         } else {
             // update vote count and create new election timeout
@@ -624,12 +1057,9 @@ public class NodeImpl implements Node {
      *
      * @param rpcMessage append entries rpc
      */
-    @Subscribe
-    public void onReceiveAppendEntriesRpc(AppendEntriesRpcMessage rpcMessage) {
-        context.taskExecutor().submit(
-                () -> context.connector().replyAppendEntries(doProcessAppendEntriesRpc(rpcMessage), rpcMessage),
-                LOGGING_FUTURE_CALLBACK
-        );
+    @Override
+    public void onReceiveAppendEntriesRpc(@Nonnull AppendEntriesRpcMessage rpcMessage) {
+        offerInbound(rpcMessage);
     }
 
     /**
@@ -645,11 +1075,12 @@ public class NodeImpl implements Node {
         if (rpc.getTerm() < role.getTerm()) {
             return new AppendEntriesResult(rpc.getMessageId(), role.getTerm(), false);
         }
+        lastHeardFromLeaderAt = System.nanoTime();
 
         // step down if rpc term is larger than current term
         if (rpc.getTerm() > role.getTerm()) {
             becomeFollower(rpc.getTerm(), null, rpc.getLeaderId(), true);
-            return new AppendEntriesResult(rpc.getMessageId(), rpc.getTerm(), appendEntries(rpc));
+            return appendEntries(rpc);
         }
 
         assert rpc.getTerm() == role.getTerm();
@@ -660,11 +1091,11 @@ public class NodeImpl implements Node {
             case CANDIDATE:
                 // more than one candidate but another node won the election
                 becomeFollower(rpc.getTerm(), null, rpc.getLeaderId(), true);
-                return new AppendEntriesResult(rpc.getMessageId(), rpc.getTerm(), appendEntries(rpc));
+                return appendEntries(rpc);
             case FOLLOWER:
                 // reset election timeout and append entries
                 becomeFollower(rpc.getTerm(), ((FollowerNodeRole) role).getVotedFor(), rpc.getLeaderId(), true);
-                return new AppendEntriesResult(rpc.getMessageId(), rpc.getTerm(), appendEntries(rpc));
+                return appendEntries(rpc);
             default:
                 throw new IllegalStateException("unexpected node role [" + role.getName() + "]");
         }
@@ -672,16 +1103,21 @@ public class NodeImpl implements Node {
 
     /**
      * Append entries and advance commit index if possible.
+     * <p>
+     * If previous log check failed, the conflict of log is replied to help leader locate next index.
+     * </p>
      *
      * @param rpc append entries rpc
-     * @return true if log appended, false if previous log check failed
+     * @return append entries result
      */
-    private boolean appendEntries(AppendEntriesRpc rpc) {
-        boolean result = context.log().appendEntriesFromLeader(rpc.getPrevLogIndex(), rpc.getPrevLogTerm(), rpc.getEntries());
-        if (result) {
-            context.log().advanceCommitIndex(Math.min(rpc.getLeaderCommit(), rpc.getLastEntryIndex()), rpc.getTerm());
+    private AppendEntriesResult appendEntries(AppendEntriesRpc rpc) {
+        if (!context.log().appendEntriesFromLeader(rpc.getPrevLogIndex(), rpc.getPrevLogTerm(), rpc.getEntries())) {
+            LogConflict conflict = context.log().findConflict(rpc.getPrevLogIndex());
+            logger.debug("previous log check failed, conflict {}", conflict);
+            return new AppendEntriesResult(rpc.getMessageId(), rpc.getTerm(), false, conflict.getTerm(), conflict.getIndex());
         }
-        return result;
+        advanceCommitIndex(Math.min(rpc.getLeaderCommit(), rpc.getLastEntryIndex()), rpc.getTerm());
+        return new AppendEntriesResult(rpc.getMessageId(), rpc.getTerm(), true);
     }
 
     /**
@@ -689,12 +1125,9 @@ public class NodeImpl implements Node {
      *
      * @param resultMessage append entries result
      */
-    @Subscribe
-    public void onReceiveAppendEntriesResult(AppendEntriesResultMessage resultMessage) {
-        context.taskExecutor().submit(
-                () -> doProcessAppendEntriesResult(resultMessage),
-                LOGGING_FUTURE_CALLBACK
-        );
+    @Override
+    public void onReceiveAppendEntriesResult(@Nonnull AppendEntriesResultMessage resultMessage) {
+        offerInbound(resultMessage);
     }
 
     /**
@@ -744,6 +1177,17 @@ public class NodeImpl implements Node {
         }
 
         AppendEntriesRpc rpc = resultMessage.getRpc();
+        readIndexTracker.onAppendEntriesAcked(sourceNodeId, rpc.getMessageId(), context.group());
+        leaderLease.onAppendEntriesAcked(member, rpc.getMessageId());
+        if (isReplicationPipelined()) {
+            doProcessAppendEntriesResultPipelined(member, result, rpc);
+            return;
+        }
+        // result of rpc given up, e.g. sent again after read timeout
+        if (!member.onAppendEntriesResult(rpc.getMessageId())) {
+            logger.debug("stale append entries result from node {}, skip", sourceNodeId);
+            return;
+        }
         if (result.isSuccess()) {
             if (!member.isMajor()) {
                 if (member.isRemoving()) {
@@ -758,17 +1202,17 @@ public class NodeImpl implements Node {
             // peer
             // advance commit index if major of match index changed
             if (member.advanceReplicatingState(rpc.getLastEntryIndex())) {
-                context.log().advanceCommitIndex(context.group().getMatchIndexOfMajor(), role.getTerm());
+                advanceCommitIndex(context.group().getMatchIndexOfMajor(), role.getTerm());
             }
 
-            // node caught up
-            if (member.getNextIndex() >= context.log().getNextIndex()) {
+            // node caught up, unless heartbeat is required by read index
+            if (member.getNextIndex() >= context.log().getNextIndex() && !readIndexTracker.isWaitingFor(sourceNodeId)) {
                 member.stopReplicating();
                 return;
             }
         } else {
-            // backoff next index if failed to append entries
-            if (!member.backOffNextIndex()) {
+            // backoff next index to the conflict if failed to append entries
+            if (!member.backOffNextIndex(getNextIndexAfterRejected(result, member.getNextIndex() - 1))) {
                 logger.warn("can't back off next index more, node {}", sourceNodeId);
                 member.stopReplicating();
                 return;
@@ -784,11 +1228,9 @@ public class NodeImpl implements Node {
      *
      * @param rpcMessage install snapshot rpc message
      */
-    public void onReceiveInstallSnapshotRpc(InstallSnapshotRpcMessage rpcMessage) {
-        context.taskExecutor().submit(
-                () -> context.connector().replyInstallSnapshot(doProcessInstallSnapshotRpc(rpcMessage), rpcMessage),
-                LOGGING_FUTURE_CALLBACK
-        );
+    @Override
+    public void onReceiveInstallSnapshotRpc(@Nonnull InstallSnapshotRpcMessage rpcMessage) {
+        offerInbound(rpcMessage);
     }
 
     /**
@@ -802,18 +1244,27 @@ public class NodeImpl implements Node {
 
         // reply current term if rpc term is smaller than current term
         if (rpc.getTerm() < role.getTerm()) {
-            return new InstallSnapshotResult(role.getTerm());
+            return new InstallSnapshotResult(rpc.getMessageId(), role.getTerm());
         }
 
+        lastHeardFromLeaderAt = System.nanoTime();
+
         // step down if rpc term is larger than current term
         if (rpc.getTerm() > role.getTerm()) {
             becomeFollower(rpc.getTerm(), null, rpc.getLeaderId(), true);
+        } else if (role.getName() == RoleName.FOLLOWER) {
+            // reset election timeout, snapshot transfer may take longer than election timeout
+            becomeFollower(rpc.getTerm(), ((FollowerNodeRole) role).getVotedFor(), rpc.getLeaderId(), true);
+        } else if (role.getName() == RoleName.CANDIDATE) {
+            // more than one candidate but another node won the election
+            becomeFollower(rpc.getTerm(), null, rpc.getLeaderId(), true);
         }
         InstallSnapshotState state = context.log().installSnapshot(rpc);
         if (state.getStateName() == InstallSnapshotState.StateName.INSTALLED) {
             context.group().updateNodes(state.getLastConfig());
+            completeCommittedReads();
         }
-        return new InstallSnapshotResult(rpc.getTerm());
+        return new InstallSnapshotResult(rpc.getMessageId(), rpc.getTerm(), state.getOffset());
     }
 
     /**
@@ -821,11 +1272,9 @@ public class NodeImpl implements Node {
      *
      * @param resultMessage install snapshot result message
      */
-    public void onReceiveInstallSnapshotResult(InstallSnapshotResultMessage resultMessage) {
-        context.taskExecutor().submit(
-                () -> doProcessInstallSnapshotResult(resultMessage),
-                LOGGING_FUTURE_CALLBACK
-        );
+    @Override
+    public void onReceiveInstallSnapshotResult(@Nonnull InstallSnapshotResultMessage resultMessage) {
+        offerInbound(resultMessage);
     }
 
     /**
@@ -862,16 +1311,87 @@ public class NodeImpl implements Node {
         }
 
         InstallSnapshotRpc rpc = resultMessage.getRpc();
-        if (rpc.isDone()) {
+        int expectedOffset = rpc.getOffset() + rpc.getDataLength();
+        // result of rpc not in flight is ignored, e.g. sent before timeout or the snapshot is installed
+        boolean acked = member.onInstallSnapshotResult(rpc.getMessageId(), expectedOffset, result.getOffset());
+        if (rpc.isDone() && acked) {
             // change to append entries rpc
             member.advanceReplicatingState(rpc.getLastIndex());
+            if (isReplicationPipelined() && member.isMajor()) {
+                doReplicateLogPipelined(member, true);
+                return;
+            }
             int maxEntries = member.isMajor() ? context.config().getMaxReplicationEntries() : context.config().getMaxReplicationEntriesForNewNode();
             doReplicateLog(member, maxEntries);
         } else {
             // transfer data
-            InstallSnapshotRpc nextRpc = context.log().createInstallSnapshotRpc(role.getTerm(), context.selfId(),
-                    rpc.getOffset() + rpc.getDataLength(), context.config().getSnapshotDataLength());
-            context.connector().sendInstallSnapshot(nextRpc, member.getEndpoint());
+            doInstallSnapshot(member);
+        }
+    }
+
+    /**
+     * Receive {@link ReadIndexRpc}.
+     * <p>
+     * Source: connector.
+     * </p>
+     *
+     * @param rpcMessage read index rpc message
+     */
+    @Override
+    public void onReceiveReadIndexRpc(@Nonnull ReadIndexRpcMessage rpcMessage) {
+        offerInbound(rpcMessage);
+    }
+
+    /**
+     * Process {@link ReadIndexRpcMessage}, reply after leadership is confirmed.
+     *
+     * @param rpcMessage read index rpc message
+     */
+    private void doProcessReadIndexRpc(ReadIndexRpcMessage rpcMessage) {
+        long messageId = rpcMessage.get().getMessageId();
+        if (role.getName() != RoleName.LEADER) {
+            logger.debug("receive read index rpc from node {} but current node isn't leader", rpcMessage.getSourceNodeId());
+            context.connector().replyReadIndex(new ReadIndexResult(messageId, false, 0), rpcMessage);
+            return;
+        }
+        long now = System.currentTimeMillis();
+        readIndexTracker.expire(now, context.config().getReadIndexTimeout());
+        CompletableFuture<Integer> confirmed = new CompletableFuture<>();
+        confirmed.whenComplete((readIndex, cause) -> context.connector().replyReadIndex(
+                cause == null ? new ReadIndexResult(messageId, true, readIndex) : new ReadIndexResult(messageId, false, 0),
+                rpcMessage
+        ));
+        confirmLeadership(confirmed, now);
+    }
+
+    /**
+     * Receive {@link ReadIndexResult}.
+     * <p>
+     * Source: connector.
+     * </p>
+     *
+     * @param result read index result
+     */
+    @Override
+    public void onReceiveReadIndexResult(@Nonnull ReadIndexResult result) {
+        offerInbound(result);
+    }
+
+    /**
+     * Process {@link ReadIndexResult}.
+     *
+     * @param result read index result
+     */
+    private void doProcessReadIndexResult(ReadIndexResult result) {
+        CompletableFuture<Integer> confirmed = readIndexTracker.removeForwarded(result.getRpcMessageId());
+        if (confirmed == null) {
+            logger.debug("no read index request with message id {}, maybe timeout", result.getRpcMessageId());
+            return;
+        }
+        if (result.isSuccess()) {
+            confirmed.complete(result.getReadIndex());
+        } else {
+            confirmed.completeExceptionally(new NotLeaderException(role.getName(), null));
         }
     }
 
@@ -950,7 +1470,22 @@ public class NodeImpl implements Node {
     @Subscribe
     public void onGenerateSnapshot(SnapshotGenerateEvent event) {
         context.taskExecutor().submit(() -> {
-            context.log().generateSnapshot(event.getLastIncludedIndex(), context.group().listEndpointOfMajor());
+            context.log().generateSnapshot(event.getLastIncludedIndex(), context.group().listEndpointOfMajor(), event.getView());
+        }, LOGGING_FUTURE_CALLBACK);
+    }
+
+    /**
+     * Replace snapshot with the generated one.
+     * <p>
+     * Source: log, in snapshot thread.
+     * </p>
+     *
+     * @param event snapshot generated event
+     */
+    @Subscribe
+    public void onSnapshotGenerated(SnapshotGeneratedEvent event) {
+        context.taskExecutor().submit(() -> {
+            context.log().replaceGeneratedSnapshot(event.getSnapshot());
         }, LOGGING_FUTURE_CALLBACK);
     }
 
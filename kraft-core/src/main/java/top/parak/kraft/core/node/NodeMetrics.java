@@ -0,0 +1,113 @@
+package top.parak.kraft.core.node;
+
+import top.parak.kraft.core.support.metrics.Histogram;
+import top.parak.kraft.core.support.metrics.MetricRegistry;
+import top.parak.kraft.core.support.task.TaskExecutor;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Metrics of node, updated in node thread.
+ * <p>
+ * Latency from appending to committing is tracked by the last index of each batch appended by leader,
+ * from the time the first command of batch was offered. Lag of match index is updated on each round of
+ * replication, and read by reporter thread.
+ * </p>
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+@NotThreadSafe
+class NodeMetrics {
+
+    /**
+     * The max count of batches waiting for commit, the eldest is dropped if exceeded.
+     */
+    private static final int MAX_PENDING_BATCHES = 4096;
+
+    private final MetricRegistry registry;
+    private final Histogram appendToCommitHistogram;
+    private final Queue<AppendedBatch> appendedBatches = new ArrayDeque<>();
+    private final Map<NodeId, AtomicLong> matchIndexLags = new ConcurrentHashMap<>();
+
+    /**
+     * Create NodeMetrics.
+     *
+     * @param registry     metric registry
+     * @param taskExecutor task executor of node
+     */
+    NodeMetrics(MetricRegistry registry, TaskExecutor taskExecutor) {
+        this.registry = registry;
+        this.appendToCommitHistogram = registry.histogram("node.append_to_commit_micros");
+        registry.gauge("node.task_queue_depth", taskExecutor::getPendingTaskCount);
+    }
+
+    /**
+     * Called after a batch appended by leader.
+     *
+     * @param lastIndex index of the last entry in batch
+     * @param offeredAt timestamp in nanoseconds when the first command of batch was offered
+     */
+    void onAppended(int lastIndex, long offeredAt) {
+        if (appendedBatches.size() >= MAX_PENDING_BATCHES) {
+            appendedBatches.poll();
+        }
+        appendedBatches.add(new AppendedBatch(lastIndex, offeredAt));
+    }
+
+    /**
+     * Called after commit index advanced.
+     *
+     * @param commitIndex commit index
+     */
+    void onCommitted(int commitIndex) {
+        long now = System.nanoTime();
+        AppendedBatch batch;
+        while ((batch = appendedBatches.peek()) != null && batch.lastIndex <= commitIndex) {
+            appendedBatches.poll();
+            appendToCommitHistogram.record(TimeUnit.NANOSECONDS.toMicros(now - batch.offeredAt));
+        }
+    }
+
+    /**
+     * Update lag of match index of member to the last log index of leader.
+     *
+     * @param nodeId id of member
+     * @param lag    lag
+     */
+    void updateMatchIndexLag(NodeId nodeId, long lag) {
+        matchIndexLags.computeIfAbsent(nodeId, id -> {
+            AtomicLong value = new AtomicLong();
+            registry.gauge("replication.match_index_lag." + id.getValue(), value::get);
+            return value;
+        }).set(lag);
+    }
+
+    /**
+     * Called after role changed, batches appended by old leader are discarded.
+     */
+    void onRoleChanged() {
+        appendedBatches.clear();
+        matchIndexLags.values().forEach(lag -> lag.set(0));
+    }
+
+    private static class AppendedBatch {
+
+        final int lastIndex;
+        final long offeredAt;
+
+        AppendedBatch(int lastIndex, long offeredAt) {
+            this.lastIndex = lastIndex;
+            this.offeredAt = offeredAt;
+        }
+
+    }
+
+}
@@ -0,0 +1,307 @@
+package top.parak.kraft.core.node;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Tracker of read index requests.
+ * <p>
+ * On leader, each request is assigned a round, and append entries rpc sent after the request
+ * is tagged with the round. The request is confirmed when major members have acknowledged rpc
+ * of its round, which means the node was still leader when the request was received.
+ * Requests received before any rpc of current round is sent share the round.
+ * </p>
+ * <p>
+ * On follower, requests are forwarded to leader, and confirmed by the result from leader.
+ * </p>
+ * <p>
+ * After confirmed, requests wait until the commit index of local log reaches the read index.
+ * </p>
+ * <p>
+ * Run in node thread.
+ * </p>
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+@NotThreadSafe
+class ReadIndexTracker {
+
+    /**
+     * Current round.
+     */
+    private int round = 0;
+    /**
+     * Whether any rpc of current round is sent.
+     */
+    private boolean roundSent = false;
+    /**
+     * The min read index of leader, the index of no-op log entry appended when becoming leader.
+     */
+    private int minReadIndex = 0;
+    /**
+     * Round of append entries rpc, message id as key.
+     */
+    private final Map<Long, Integer> sentRounds = new HashMap<>();
+    /**
+     * The max acknowledged round of members.
+     */
+    private final Map<NodeId, Integer> ackedRounds = new HashMap<>();
+    /**
+     * Requests waiting for leadership confirmation, in ascending order of round.
+     */
+    private final LinkedList<PendingRead> confirmingReads = new LinkedList<>();
+    /**
+     * Requests forwarded to leader, message id of rpc as key.
+     */
+    private final Map<Long, PendingRead> forwardedReads = new LinkedHashMap<>();
+    /**
+     * Requests waiting for commit.
+     */
+    private final List<PendingRead> committingReads = new LinkedList<>();
+
+    /**
+     * Reset when becoming leader.
+     *
+     * @param minReadIndex index of no-op log entry
+     */
+    void resetLeader(int minReadIndex) {
+        this.minReadIndex = minReadIndex;
+        sentRounds.clear();
+        ackedRounds.clear();
+    }
+
+    /**
+     * Get the read index of a request received by leader.
+     *
+     * @param commitIndex commit index
+     * @return read index
+     */
+    int getReadIndex(int commitIndex) {
+        return Math.max(commitIndex, minReadIndex);
+    }
+
+    /**
+     * Add a request waiting for leadership confirmation.
+     *
+     * @param readIndex read index
+     * @param future    future to complete with read index
+     * @param now       current timestamp
+     */
+    void addConfirming(int readIndex, CompletableFuture<Integer> future, long now) {
+        if (roundSent) {
+            round++;
+            roundSent = false;
+        }
+        confirmingReads.add(new PendingRead(round, readIndex, future, now));
+    }
+
+    /**
+     * Test if there are requests waiting for leadership confirmation.
+     *
+     * @return true if there are, otherwise false
+     */
+    boolean hasConfirmingReads() {
+        return !confirmingReads.isEmpty();
+    }
+
+    /**
+     * Tag append entries rpc with current round.
+     *
+     * @param messageId message id of rpc
+     */
+    void onAppendEntriesSent(long messageId) {
+        if (confirmingReads.isEmpty()) {
+            return;
+        }
+        sentRounds.put(messageId, round);
+        roundSent = true;
+    }
+
+    /**
+     * Record the result of append entries rpc, and confirm requests.
+     * <p>
+     * Result whether success or not acknowledges the leadership.
+     * </p>
+     *
+     * @param memberId  member id
+     * @param messageId message id of rpc
+     * @param group     group
+     */
+    void onAppendEntriesAcked(NodeId memberId, long messageId, NodeGroup group) {
+        Integer sentRound = sentRounds.remove(messageId);
+        if (sentRound == null) {
+            return;
+        }
+        ackedRounds.merge(memberId, sentRound, Math::max);
+        confirm(group);
+    }
+
+    /**
+     * Test if the acknowledgement of member is required to confirm requests.
+     *
+     * @param memberId member id
+     * @return true if required, otherwise false
+     */
+    boolean isWaitingFor(NodeId memberId) {
+        return !confirmingReads.isEmpty() && ackedRounds.getOrDefault(memberId, -1) < confirmingReads.getLast().round;
+    }
+
+    /**
+     * Confirm requests whose round is acknowledged by major members.
+     *
+     * @param group group
+     */
+    void confirm(NodeGroup group) {
+        int countOfMajor = group.getCountOfMajor();
+        PendingRead read;
+        while ((read = confirmingReads.peek()) != null) {
+            // self
+            int count = 1;
+            for (GroupMember member : group.listReplicationTarget()) {
+                if (member.isMajor() && ackedRounds.getOrDefault(member.getId(), -1) >= read.round) {
+                    count++;
+                }
+            }
+            if (count <= countOfMajor / 2) {
+                break;
+            }
+            confirmingReads.poll();
+            read.future.complete(read.readIndex);
+        }
+        if (confirmingReads.isEmpty()) {
+            sentRounds.clear();
+        }
+    }
+
+    /**
+     * Add a request forwarded to leader.
+     *
+     * @param messageId message id of rpc
+     * @param future    future to complete with read index
+     * @param now       current timestamp
+     */
+    void addForwarded(long messageId, CompletableFuture<Integer> future, long now) {
+        forwardedReads.put(messageId, new PendingRead(0, 0, future, now));
+    }
+
+    /**
+     * Remove a request forwarded to leader.
+     *
+     * @param messageId message id of rpc
+     * @return future of request, or {@code null} if not found
+     */
+    CompletableFuture<Integer> removeForwarded(long messageId) {
+        PendingRead read = forwardedReads.remove(messageId);
+        return read != null ? read.future : null;
+    }
+
+    /**
+     * Add a request waiting for commit.
+     *
+     * @param readIndex read index
+     * @param future    future to complete
+     * @param now       current timestamp
+     */
+    void addCommitting(int readIndex, CompletableFuture<Integer> future, long now) {
+        committingReads.add(new PendingRead(0, readIndex, future, now));
+    }
+
+    /**
+     * Remove requests whose read index is committed.
+     *
+     * @param commitIndex commit index
+     * @return requests
+     */
+    List<PendingRead> removeCommitted(int commitIndex) {
+        if (committingReads.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<PendingRead> reads = new ArrayList<>();
+        Iterator<PendingRead> iterator = committingReads.iterator();
+        PendingRead read;
+        while (iterator.hasNext()) {
+            read = iterator.next();
+            if (read.readIndex <= commitIndex) {
+                iterator.remove();
+                reads.add(read);
+            }
+        }
+        return reads;
+    }
+
+    /**
+     * Fail requests waiting for confirmation, e.g. role changed.
+     *
+     * @param cause cause
+     */
+    void failConfirming(Throwable cause) {
+        for (PendingRead read : confirmingReads) {
+            read.future.completeExceptionally(cause);
+        }
+        confirmingReads.clear();
+        sentRounds.clear();
+        for (PendingRead read : forwardedReads.values()) {
+            read.future.completeExceptionally(cause);
+        }
+        forwardedReads.clear();
+    }
+
+    /**
+     * Fail requests not completed in timeout.
+     *
+     * @param now     current timestamp
+     * @param timeout timeout in milliseconds
+     */
+    void expire(long now, long timeout) {
+        expire(confirmingReads, now, timeout);
+        expire(forwardedReads.values(), now, timeout);
+        expire(committingReads, now, timeout);
+        if (confirmingReads.isEmpty()) {
+            sentRounds.clear();
+        }
+    }
+
+    private void expire(Collection<PendingRead> reads, long now, long timeout) {
+        Iterator<PendingRead> iterator = reads.iterator();
+        PendingRead read;
+        while (iterator.hasNext()) {
+            read = iterator.next();
+            if (now - read.createdAt >= timeout) {
+                iterator.remove();
+                read.future.completeExceptionally(new TimeoutException("read index timeout"));
+            }
+        }
+    }
+
+    /**
+     * Pending read index request.
+     */
+    static class PendingRead {
+
+        private final int round;
+        private final int readIndex;
+        private final CompletableFuture<Integer> future;
+        private final long createdAt;
+
+        PendingRead(int round, int readIndex, CompletableFuture<Integer> future, long createdAt) {
+            this.round = round;
+            this.readIndex = readIndex;
+            this.future = future;
+            this.createdAt = createdAt;
+        }
+
+        int getReadIndex() {
+            return readIndex;
+        }
+
+        CompletableFuture<Integer> getFuture() {
+            return future;
+        }
+
+    }
+
+}
@@ -1,5 +1,8 @@
 package top.parak.kraft.core.node;
 
+import java.util.HashSet;
+import java.util.Set;
+
 /**
  * Replicating State.
  * <p>
@@ -37,6 +40,38 @@ class ReplicatingState {
      * The last replicated timestamp.
      */
     private long lastReplicatedAt = 0;
+    /**
+     * The message ids of in-flight append entries rpc, at most one if replication is not pipelined.
+     */
+    private final Set<Long> inflightMessageIds = new HashSet<>();
+    /**
+     * Whether installing snapshot.
+     */
+    private boolean installingSnapshot = false;
+    /**
+     * The offset of next snapshot chunk to send.
+     */
+    private int snapshotOffset = 0;
+    /**
+     * The offset of snapshot acknowledged by the follower.
+     */
+    private int snapshotAckedOffset = 0;
+    /**
+     * The message ids of in-flight install snapshot rpc.
+     */
+    private final Set<Long> snapshotInflightMessageIds = new HashSet<>();
+    /**
+     * Whether the last snapshot chunk is sent.
+     */
+    private boolean snapshotDoneSent = false;
+    /**
+     * Whether any append entries rpc is acknowledged for leader lease.
+     */
+    private boolean leaseAcked = false;
+    /**
+     * The sent timestamp in nanoseconds of the latest acknowledged append entries rpc.
+     */
+    private long leaseAckedAt = 0;
 
     /**
      * Create ReplicatingState.
@@ -77,32 +112,270 @@ class ReplicatingState {
     }
 
     /**
-     * Back off next index, in other word, decrease.
+     * Back off next index to the conflict of follower's log.
+     * <p>
+     * Next index is not less than {@code matchIndex + 1}, since the matched log entries won't conflict.
+     * </p>
      *
-     * @return true if decrease successfully, false if next index is less than or equal to {@code 1}
+     * @param conflictNextIndex next index by the conflict
+     * @return true if back off successfully, false if next index by the conflict is less than {@code 1}
      */
-    boolean backOffNextIndex() {
-        if (nextIndex > 1) {
-            nextIndex--;
-            return true;
+    boolean backOffNextIndex(int conflictNextIndex) {
+        if (conflictNextIndex < 1) {
+            return false;
         }
-        return false;
+        nextIndex = Math.max(conflictNextIndex, matchIndex + 1);
+        return true;
     }
 
     /**
      * Advance next index and match index by last entry index.
+     * <p>
+     * Neither of them moves backwards, the last entry index of a stale result is ignored.
+     * </p>
      *
      * @param lastEntryIndex last entry index
-     * @return true if advanced, false if no change
+     * @return true if match index advanced, otherwise false
      */
     boolean advance(int lastEntryIndex) {
-        // changed
-        boolean result = (matchIndex != lastEntryIndex || nextIndex != (lastEntryIndex + 1));
+        nextIndex = Math.max(nextIndex, lastEntryIndex + 1);
+        installingSnapshot = false;
+        snapshotInflightMessageIds.clear();
+        if (lastEntryIndex <= matchIndex) {
+            return false;
+        }
+        matchIndex = lastEntryIndex;
+        return true;
+    }
 
+    /**
+     * Record an append entries rpc sent in stop-and-wait replication, the rpc in flight before is given up.
+     *
+     * @param messageId message id of rpc
+     * @param sentAt    sent timestamp
+     */
+    void replicate(long messageId, long sentAt) {
+        inflightMessageIds.clear();
+        inflightMessageIds.add(messageId);
+        replicating = true;
+        lastReplicatedAt = sentAt;
+    }
+
+    /**
+     * Release the append entries rpc in flight by its result in stop-and-wait replication.
+     *
+     * @param messageId message id of rpc
+     * @return true if the rpc is in flight, false if the result is stale
+     */
+    boolean onAppendEntriesResult(long messageId) {
+        return inflightMessageIds.remove(messageId);
+    }
+
+    /**
+     * Record an append entries rpc sent in pipelined replication, and advance next index
+     * optimistically without waiting for the result.
+     *
+     * @param messageId      message id of rpc
+     * @param lastEntryIndex last entry index of rpc
+     * @param sentAt         sent timestamp
+     */
+    void onAppendEntriesSent(long messageId, int lastEntryIndex, long sentAt) {
+        inflightMessageIds.add(messageId);
+        nextIndex = Math.max(nextIndex, lastEntryIndex + 1);
+        replicating = true;
+        lastReplicatedAt = sentAt;
+    }
+
+    /**
+     * Release an append entries rpc which is succeeded.
+     *
+     * @param messageId      message id of rpc
+     * @param lastEntryIndex last entry index of rpc
+     * @return true if match index advanced, otherwise false
+     */
+    boolean onAppendEntriesSucceeded(long messageId, int lastEntryIndex) {
+        release(messageId);
+        nextIndex = Math.max(nextIndex, lastEntryIndex + 1);
+        if (lastEntryIndex <= matchIndex) {
+            return false;
+        }
         matchIndex = lastEntryIndex;
-        nextIndex = lastEntryIndex + 1;
+        return true;
+    }
+
+    /**
+     * Release an append entries rpc which is rejected, rewind next index to the conflict
+     * of follower's log, and give up other in-flight rpc whose results are stale.
+     *
+     * @param messageId         message id of rpc
+     * @param conflictNextIndex next index by the conflict
+     * @return true if next index rewound, false if the rpc is stale or can't rewind
+     */
+    boolean rewindNextIndex(long messageId, int conflictNextIndex) {
+        if (!release(messageId) || conflictNextIndex < 1) {
+            return false;
+        }
+        resetInflight();
+        nextIndex = Math.max(conflictNextIndex, matchIndex + 1);
+        return true;
+    }
+
+    private boolean release(long messageId) {
+        boolean removed = inflightMessageIds.remove(messageId);
+        if (inflightMessageIds.isEmpty()) {
+            replicating = false;
+        }
+        return removed;
+    }
 
-        return result;
+    /**
+     * Give up all in-flight rpc, e.g. no result in read timeout.
+     * <p>
+     * If installing snapshot, resume from the offset acknowledged.
+     * </p>
+     */
+    void resetInflight() {
+        inflightMessageIds.clear();
+        replicating = false;
+        snapshotOffset = snapshotAckedOffset;
+        snapshotInflightMessageIds.clear();
+        snapshotDoneSent = false;
+    }
+
+    /**
+     * Get the count of in-flight append entries rpc.
+     *
+     * @return in-flight count
+     */
+    int getInflight() {
+        return inflightMessageIds.size();
+    }
+
+    /**
+     * Test if installing snapshot.
+     *
+     * @return true if installing, otherwise false
+     */
+    boolean isInstallingSnapshot() {
+        return installingSnapshot;
+    }
+
+    /**
+     * Start installing snapshot from offset.
+     *
+     * @param offset offset
+     */
+    void startInstallSnapshot(int offset) {
+        resetInflight();
+        installingSnapshot = true;
+        snapshotOffset = offset;
+        snapshotAckedOffset = offset;
+    }
+
+    /**
+     * Test if should send snapshot chunk.
+     *
+     * @param maxInflight max in-flight install snapshot rpc
+     * @return true if installing, the last chunk is not sent and the window is not full, otherwise false
+     */
+    boolean shouldSendSnapshotChunk(int maxInflight) {
+        return installingSnapshot && !snapshotDoneSent && snapshotInflightMessageIds.size() < maxInflight;
+    }
+
+    /**
+     * Record an install snapshot rpc sent.
+     *
+     * @param messageId  message id of rpc
+     * @param nextOffset offset of next chunk
+     * @param done       whether the chunk is the last one
+     * @param sentAt     sent timestamp
+     */
+    void onInstallSnapshotSent(long messageId, int nextOffset, boolean done, long sentAt) {
+        snapshotInflightMessageIds.add(messageId);
+        snapshotOffset = nextOffset;
+        snapshotDoneSent = done;
+        replicating = true;
+        lastReplicatedAt = sentAt;
+    }
+
+    /**
+     * Release an install snapshot rpc by its result.
+     * <p>
+     * The result of rpc not in flight is stale, e.g. rpc given up after timeout or rewinding.
+     * If the offset of result is not the expected one, which means chunks are lost or reordered,
+     * rewind to the offset of result, and give up other in-flight rpc.
+     * </p>
+     *
+     * @param messageId      message id of rpc
+     * @param expectedOffset the offset of chunk end
+     * @param offset         the offset from result
+     * @param now            current timestamp
+     * @return true if the chunk is acknowledged, otherwise false
+     */
+    boolean onInstallSnapshotResult(long messageId, int expectedOffset, int offset, long now) {
+        if (!snapshotInflightMessageIds.remove(messageId)) {
+            return false;
+        }
+        replicating = !snapshotInflightMessageIds.isEmpty();
+        lastReplicatedAt = now;
+        if (offset == expectedOffset) {
+            snapshotAckedOffset = Math.max(snapshotAckedOffset, offset);
+            return true;
+        }
+        snapshotInflightMessageIds.clear();
+        replicating = false;
+        snapshotOffset = offset;
+        snapshotAckedOffset = offset;
+        snapshotDoneSent = false;
+        return false;
+    }
+
+    /**
+     * Get the offset of next snapshot chunk to send.
+     *
+     * @return offset
+     */
+    int getSnapshotOffset() {
+        return snapshotOffset;
+    }
+
+    /**
+     * Get the count of in-flight install snapshot rpc.
+     *
+     * @return in-flight count
+     */
+    int getSnapshotInflight() {
+        return snapshotInflightMessageIds.size();
+    }
+
+    /**
+     * Renew leader lease by an acknowledged append entries rpc.
+     *
+     * @param ackedAt sent timestamp in nanoseconds of rpc
+     */
+    void renewLease(long ackedAt) {
+        if (!leaseAcked || ackedAt - leaseAckedAt > 0) {
+            leaseAckedAt = ackedAt;
+            leaseAcked = true;
+        }
+    }
+
+    /**
+     * Test if any append entries rpc is acknowledged for leader lease.
+     *
+     * @return true if acknowledged, otherwise false
+     */
+    boolean isLeaseAcked() {
+        return leaseAcked;
+    }
+
+    /**
+     * Get the sent timestamp of the latest acknowledged append entries rpc.
+     *
+     * @return timestamp in nanoseconds
+     */
+    long getLeaseAckedAt() {
+        return leaseAckedAt;
     }
 
     /**
@@ -148,6 +421,9 @@ class ReplicatingState {
                 ", matchIndex=" + matchIndex +
                 ", replicating=" + replicating +
                 ", lastReplicatedAt=" + lastReplicatedAt +
+                ", inflight=" + inflightMessageIds.size() +
+                ", installingSnapshot=" + installingSnapshot +
+                ", snapshotOffset=" + snapshotOffset +
                 '}';
     }
 
@@ -56,16 +56,58 @@ public class DefaultNodeConfigLoader implements NodeConfigLoader {
         config.setLogReplicationInterval(getIntProperty(p, "replication.interval", 1000));
         config.setLogReplicationReadTimeout(getIntProperty(p, "replication.timeout.read", 900));
         config.setMaxReplicationEntries(getIntProperty(p, "replication.entries.max", Log.ALL_ENTRIES));
-        config.setSnapshotDataLength(getIntProperty(p, "snapshot.data.length", 1024));
+        config.setMaxReplicationInflight(getIntProperty(p, "replication.inflight.max", 1));
+        config.setSnapshotDataLength(getIntProperty(p, "snapshot.data.length", 1048576));
+        config.setMaxSnapshotInflight(getIntProperty(p, "snapshot.inflight.max", 4));
+        config.setSnapshotTransferRate(getIntProperty(p, "snapshot.transfer.rate", 0));
+        config.setSnapshotCodec(getStringProperty(p, "snapshot.codec", "none"));
         config.setMaxReplicationEntriesForNewNode(getIntProperty(p, "new-node.replication.entries.max", Log.ALL_ENTRIES));
         config.setNewNodeMaxRound(getIntProperty(p, "new-node.round.max", 10));
         config.setNewNodeReadTimeout(getIntProperty(p, "new-node.timeout.read", 3000));
         config.setNewNodeAdvanceTimeout(getIntProperty(p, "new-node.timeout.advance", 3000));
         config.setPreviousGroupConfigChangeTimeout(getIntProperty(p, "group.config.change.timeout", 0));
         config.setNioWorkerThreads(getIntProperty(p, "connector.workers", 0));
+        config.setCompactRpcEnabled(getBooleanProperty(p, "connector.compact.enabled", true));
+        config.setLogFlushPolicy(getStringProperty(p, "log.flush.policy", "always"));
+        config.setLogFlushInterval(getIntProperty(p, "log.flush.interval", 1000));
+        config.setLogFlushBytes(getIntProperty(p, "log.flush.bytes", 1024 * 1024));
+        config.setLogSegmentSize(getIntProperty(p, "log.segment.size", 0));
+        config.setLogTailCacheBytes(getIntProperty(p, "log.tail-cache.bytes", 4 * 1024 * 1024));
+        config.setAppendBatchWindow(getIntProperty(p, "append.batch.window", 0));
+        config.setMaxAppendBatchSize(getIntProperty(p, "append.batch.size.max", 1024));
+        config.setMaxAppendBatchBytes(getIntProperty(p, "append.batch.bytes.max", 1024 * 1024));
+        config.setReadIndexTimeout(getIntProperty(p, "read-index.timeout", 3000));
+        config.setReadLeaseEnabled(getBooleanProperty(p, "read-index.lease.enabled", false));
+        config.setReadLeaseDriftBound(getIntProperty(p, "read-index.lease.drift", 500));
+        config.setMultiRaftNodeThreads(getIntProperty(p, "multi-raft.node.threads", 0));
+        config.setMetricsJmxEnabled(getBooleanProperty(p, "metrics.jmx.enabled", false));
+        config.setMetricsHttpPort(getIntProperty(p, "metrics.http.port", 0));
+        config.setInboundQueueCapacity(getIntProperty(p, "inbound-queue.capacity", 16384));
+        config.setTransport(getStringProperty(p, "transport", "auto"));
+        config.setSocketSendBufferSize(getIntProperty(p, "transport.socket.sndbuf", 0));
+        config.setSocketReceiveBufferSize(getIntProperty(p, "transport.socket.rcvbuf", 0));
+        config.setWriteBufferLowWaterMark(getIntProperty(p, "transport.write-buffer.low", 0));
+        config.setWriteBufferHighWaterMark(getIntProperty(p, "transport.write-buffer.high", 0));
+        config.setEpollBusyPollMicros(getIntProperty(p, "transport.epoll.busy-poll", 0));
         return config;
     }
 
+    private String getStringProperty(Properties properties, String name, String defaultValue) {
+        return properties.getProperty(propertyNamePrefix + name, defaultValue);
+    }
+
+    private boolean getBooleanProperty(Properties properties, String name, boolean defaultValue) {
+        String value = properties.getProperty(propertyNamePrefix + name);
+        if (value != null) {
+            if ("true".equalsIgnoreCase(value) || "false".equalsIgnoreCase(value)) {
+                return Boolean.parseBoolean(value);
+            }
+            logger.warn("illegal value [" + value + "] for property " + name +
+                    ", fallback to default value " + defaultValue);
+        }
+        return defaultValue;
+    }
+
     private int getIntProperty(Properties properties, String name, int defaultValue) {
         String value = properties.getProperty(propertyNamePrefix + name);
         if (value != null) {
@@ -52,6 +52,15 @@ public class NodeConfig {
      */
     private int maxReplicationEntries = Log.ALL_ENTRIES;
 
+    /**
+     * Max in-flight append entries rpc per follower.
+     * <p>
+     * Default is {@code 1}, wait for the result before sending next rpc. If greater than
+     * {@code 1}, leader advances next index optimistically and pipelines rpc.
+     * </p>
+     */
+    private int maxReplicationInflight = 1;
+
     /**
      * Max entries to send when replicating log to new node.
      */
@@ -60,7 +69,28 @@ public class NodeConfig {
     /**
      * Data length in install snapshot rpc.
      */
-    private int snapshotDataLength = 1024;
+    private int snapshotDataLength = 1048576;
+
+    /**
+     * Max in-flight install snapshot rpc to a member.
+     */
+    private int maxSnapshotInflight = 4;
+
+    /**
+     * Max bytes per second of snapshot data sent by leader, {@code 0} means unlimited.
+     * <p>
+     * The rate should allow a chunk to be sent within the min election timeout.
+     * </p>
+     */
+    private int snapshotTransferRate = 0;
+
+    /**
+     * Codec to compress snapshot generated, one of {@code none}, {@code deflate} and {@code lz4}.
+     * <p>
+     * Snapshot is compressed when generated, transferred compressed and decompressed when applied.
+     * </p>
+     */
+    private String snapshotCodec = "none";
 
     /**
      * Max round for new node to catch up.
@@ -99,6 +129,159 @@ public class NodeConfig {
      */
     private int nioWorkerThreads = 0;
 
+    /**
+     * Whether to use the compact rpc format between nodes, negotiated at handshake.
+     * <p>
+     * In compact format, message ids are written as int64, node id of handshake is omitted, and heartbeat
+     * and append entries result are written in fixed-length binary. The legacy format is used if either
+     * node doesn't enable it, or doesn't support it. Default is {@code true}.
+     * </p>
+     */
+    private boolean compactRpcEnabled = true;
+
+    /**
+     * Policy to force write-ahead log to disk, one of {@code always},
+     * {@code interval}, {@code bytes}, {@code none} and {@code off}.
+     * <p>
+     * Default is {@code always}, force once per group commit. {@code none} still writes log entries
+     * as they arrive but never forces them, {@code off} disables write-ahead log, log entries are
+     * held in memory and written to file when committed.
+     * </p>
+     */
+    private String logFlushPolicy = "always";
+
+    /**
+     * Interval in milliseconds to force write-ahead log, used by {@code interval} policy.
+     */
+    private int logFlushInterval = 1000;
+
+    /**
+     * Bytes written to force write-ahead log, used by {@code bytes} policy.
+     */
+    private int logFlushBytes = 1024 * 1024;
+
+    /**
+     * Size in bytes of memory-mapped log segment.
+     * <p>
+     * Default is {@code 0}, store log entries in single entries file.
+     * </p>
+     */
+    private int logSegmentSize = 0;
+
+    /**
+     * Max bytes of log entries recently written to entries file, cached in memory for replication reads.
+     * <p>
+     * Default is {@code 4194304}, 4 MB. {@code 0} to disable. Not used with log segments.
+     * </p>
+     */
+    private int logTailCacheBytes = 4 * 1024 * 1024;
+
+    /**
+     * Window in milliseconds to coalesce commands appended by leader.
+     * <p>
+     * Default is {@code 0}, commands arrived while the node thread is busy are coalesced
+     * without waiting.
+     * </p>
+     */
+    private int appendBatchWindow = 0;
+
+    /**
+     * Max commands in one append batch.
+     */
+    private int maxAppendBatchSize = 1024;
+
+    /**
+     * Max bytes of commands in one append batch.
+     */
+    private int maxAppendBatchBytes = 1024 * 1024;
+
+    /**
+     * Timeout in milliseconds of read index request.
+     */
+    private int readIndexTimeout = 3000;
+
+    /**
+     * Whether leader serves read index request locally when holding lease.
+     * <p>
+     * The lease is held if major members acknowledged append entries rpc sent within
+     * {@code minElectionTimeout - readLeaseDriftBound}, and followers ignore request vote
+     * rpc within {@code minElectionTimeout} after hearing from leader. Default is {@code false}.
+     * </p>
+     */
+    private boolean readLeaseEnabled = false;
+
+    /**
+     * Bound in milliseconds of clock drift between nodes in lease mode.
+     */
+    private int readLeaseDriftBound = 500;
+
+    /**
+     * Count of node threads shared by raft groups in multi-raft host.
+     * <p>
+     * Each group is bound to one thread, so tasks of group are still run in order.
+     * Default is {@code 0}, count of cpu.
+     * </p>
+     */
+    private int multiRaftNodeThreads = 0;
+
+    /**
+     * Whether to expose metrics by JMX.
+     */
+    private boolean metricsJmxEnabled = false;
+
+    /**
+     * Port of HTTP endpoint {@code /metrics} serving metrics in plain text.
+     * Default is {@code 0}, disabled.
+     */
+    private int metricsHttpPort = 0;
+
+    /**
+     * Capacity of queue of inbound messages, drained in batch by node thread.
+     * <p>
+     * Messages are dropped if queue is full, and recovered by raft as lost messages.
+     * </p>
+     */
+    private int inboundQueueCapacity = 16384;
+
+    /**
+     * Transport of netty channels of raft rpc and kv-store service, one of {@code auto}, {@code nio} and {@code epoll}.
+     * <p>
+     * Default is {@code auto}, epoll if available on platform, otherwise nio.
+     * Epoll falls back to nio if not available.
+     * </p>
+     */
+    private String transport = "auto";
+
+    /**
+     * Size of socket send buffer in bytes, {@code SO_SNDBUF}.
+     * Default is {@code 0}, decided by operating system.
+     */
+    private int socketSendBufferSize = 0;
+
+    /**
+     * Size of socket receive buffer in bytes, {@code SO_RCVBUF}.
+     * Default is {@code 0}, decided by operating system.
+     */
+    private int socketReceiveBufferSize = 0;
+
+    /**
+     * Low water mark of outbound buffer of channel in bytes, channel becomes writable again below it.
+     * Default is {@code 0}, the smaller one of netty default and high water mark.
+     */
+    private int writeBufferLowWaterMark = 0;
+
+    /**
+     * High water mark of outbound buffer of channel in bytes, channel becomes not writable above it.
+     * Default is {@code 0}, netty default.
+     */
+    private int writeBufferHighWaterMark = 0;
+
+    /**
+     * Microseconds to busy poll socket when reading, {@code SO_BUSY_POLL}, only for epoll transport.
+     * Default is {@code 0}, disabled.
+     */
+    private int epollBusyPollMicros = 0;
+
     public int getMinElectionTimeout() {
         return minElectionTimeout;
     }
@@ -147,6 +330,14 @@ public class NodeConfig {
         this.maxReplicationEntries = maxReplicationEntries;
     }
 
+    public int getMaxReplicationInflight() {
+        return maxReplicationInflight;
+    }
+
+    public void setMaxReplicationInflight(int maxReplicationInflight) {
+        this.maxReplicationInflight = maxReplicationInflight;
+    }
+
     public int getMaxReplicationEntriesForNewNode() {
         return maxReplicationEntriesForNewNode;
     }
@@ -163,6 +354,30 @@ public class NodeConfig {
         this.snapshotDataLength = snapshotDataLength;
     }
 
+    public int getMaxSnapshotInflight() {
+        return maxSnapshotInflight;
+    }
+
+    public void setMaxSnapshotInflight(int maxSnapshotInflight) {
+        this.maxSnapshotInflight = maxSnapshotInflight;
+    }
+
+    public String getSnapshotCodec() {
+        return snapshotCodec;
+    }
+
+    public void setSnapshotCodec(String snapshotCodec) {
+        this.snapshotCodec = snapshotCodec;
+    }
+
+    public int getSnapshotTransferRate() {
+        return snapshotTransferRate;
+    }
+
+    public void setSnapshotTransferRate(int snapshotTransferRate) {
+        this.snapshotTransferRate = snapshotTransferRate;
+    }
+
     public int getNewNodeMaxRound() {
         return newNodeMaxRound;
     }
@@ -203,4 +418,180 @@ public class NodeConfig {
         this.nioWorkerThreads = nioWorkerThreads;
     }
 
+    public boolean isCompactRpcEnabled() {
+        return compactRpcEnabled;
+    }
+
+    public void setCompactRpcEnabled(boolean compactRpcEnabled) {
+        this.compactRpcEnabled = compactRpcEnabled;
+    }
+
+    public String getLogFlushPolicy() {
+        return logFlushPolicy;
+    }
+
+    public void setLogFlushPolicy(String logFlushPolicy) {
+        this.logFlushPolicy = logFlushPolicy;
+    }
+
+    public int getLogFlushInterval() {
+        return logFlushInterval;
+    }
+
+    public void setLogFlushInterval(int logFlushInterval) {
+        this.logFlushInterval = logFlushInterval;
+    }
+
+    public int getLogFlushBytes() {
+        return logFlushBytes;
+    }
+
+    public void setLogFlushBytes(int logFlushBytes) {
+        this.logFlushBytes = logFlushBytes;
+    }
+
+    public int getLogSegmentSize() {
+        return logSegmentSize;
+    }
+
+    public void setLogSegmentSize(int logSegmentSize) {
+        this.logSegmentSize = logSegmentSize;
+    }
+
+    public int getAppendBatchWindow() {
+        return appendBatchWindow;
+    }
+
+    public void setAppendBatchWindow(int appendBatchWindow) {
+        this.appendBatchWindow = appendBatchWindow;
+    }
+
+    public int getMaxAppendBatchSize() {
+        return maxAppendBatchSize;
+    }
+
+    public void setMaxAppendBatchSize(int maxAppendBatchSize) {
+        this.maxAppendBatchSize = maxAppendBatchSize;
+    }
+
+    public int getMaxAppendBatchBytes() {
+        return maxAppendBatchBytes;
+    }
+
+    public void setMaxAppendBatchBytes(int maxAppendBatchBytes) {
+        this.maxAppendBatchBytes = maxAppendBatchBytes;
+    }
+
+    public int getReadIndexTimeout() {
+        return readIndexTimeout;
+    }
+
+    public void setReadIndexTimeout(int readIndexTimeout) {
+        this.readIndexTimeout = readIndexTimeout;
+    }
+
+    public boolean isReadLeaseEnabled() {
+        return readLeaseEnabled;
+    }
+
+    public void setReadLeaseEnabled(boolean readLeaseEnabled) {
+        this.readLeaseEnabled = readLeaseEnabled;
+    }
+
+    public int getReadLeaseDriftBound() {
+        return readLeaseDriftBound;
+    }
+
+    public void setReadLeaseDriftBound(int readLeaseDriftBound) {
+        this.readLeaseDriftBound = readLeaseDriftBound;
+    }
+
+    public int getMultiRaftNodeThreads() {
+        return multiRaftNodeThreads;
+    }
+
+    public void setMultiRaftNodeThreads(int multiRaftNodeThreads) {
+        this.multiRaftNodeThreads = multiRaftNodeThreads;
+    }
+
+    public boolean isMetricsJmxEnabled() {
+        return metricsJmxEnabled;
+    }
+
+    public void setMetricsJmxEnabled(boolean metricsJmxEnabled) {
+        this.metricsJmxEnabled = metricsJmxEnabled;
+    }
+
+    public int getMetricsHttpPort() {
+        return metricsHttpPort;
+    }
+
+    public void setMetricsHttpPort(int metricsHttpPort) {
+        this.metricsHttpPort = metricsHttpPort;
+    }
+
+    public int getInboundQueueCapacity() {
+        return inboundQueueCapacity;
+    }
+
+    public void setInboundQueueCapacity(int inboundQueueCapacity) {
+        this.inboundQueueCapacity = inboundQueueCapacity;
+    }
+
+    public String getTransport() {
+        return transport;
+    }
+
+    public void setTransport(String transport) {
+        this.transport = transport;
+    }
+
+    public int getSocketSendBufferSize() {
+        return socketSendBufferSize;
+    }
+
+    public void setSocketSendBufferSize(int socketSendBufferSize) {
+        this.socketSendBufferSize = socketSendBufferSize;
+    }
+
+    public int getSocketReceiveBufferSize() {
+        return socketReceiveBufferSize;
+    }
+
+    public void setSocketReceiveBufferSize(int socketReceiveBufferSize) {
+        this.socketReceiveBufferSize = socketReceiveBufferSize;
+    }
+
+    public int getWriteBufferLowWaterMark() {
+        return writeBufferLowWaterMark;
+    }
+
+    public void setWriteBufferLowWaterMark(int writeBufferLowWaterMark) {
+        this.writeBufferLowWaterMark = writeBufferLowWaterMark;
+    }
+
+    public int getWriteBufferHighWaterMark() {
+        return writeBufferHighWaterMark;
+    }
+
+    public void setWriteBufferHighWaterMark(int writeBufferHighWaterMark) {
+        this.writeBufferHighWaterMark = writeBufferHighWaterMark;
+    }
+
+    public int getEpollBusyPollMicros() {
+        return epollBusyPollMicros;
+    }
+
+    public void setEpollBusyPollMicros(int epollBusyPollMicros) {
+        this.epollBusyPollMicros = epollBusyPollMicros;
+    }
+
+    public int getLogTailCacheBytes() {
+        return logTailCacheBytes;
+    }
+
+    public void setLogTailCacheBytes(int logTailCacheBytes) {
+        this.logTailCacheBytes = logTailCacheBytes;
+    }
+
 }
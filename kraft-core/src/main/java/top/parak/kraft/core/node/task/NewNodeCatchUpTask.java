@@ -124,7 +124,9 @@ public class NewNodeCatchUpTask implements Callable<NewNodeCatchUpTaskResult> {
                 setStateAndNotify(State.REPLICATION_FAILED);
                 return;
             }
-            nextIndex--;
+            // back off to the conflict of new node's log if provided
+            int conflictIndex = resultMessage.get().getConflictIndex();
+            nextIndex = conflictIndex > 0 ? Math.min(conflictIndex, nextLogIndex) : nextIndex - 1;
             if (System.currentTimeMillis() - lastAdvanceAt >= config.getNewNodeAdvanceTimeout()) {
                 logger.debug("node {} cannot make progress within timeout", nodeId);
                 setStateAndNotify(State.TIMEOUT);
@@ -143,7 +145,8 @@ public class NewNodeCatchUpTask implements Callable<NewNodeCatchUpTaskResult> {
             throw new IllegalStateException("receive append entries result when state is not replicating");
         }
         InstallSnapshotRpc rpc = resultMessage.getRpc();
-        if (rpc.isDone()) {
+        int offset = resultMessage.get().getOffset();
+        if (rpc.isDone() && offset >= rpc.getOffset() + rpc.getDataLength()) {
             matchIndex = rpc.getLastIndex();
             nextIndex = rpc.getLastIndex() + 1;
             lastAdvanceAt = System.currentTimeMillis();
@@ -154,7 +157,8 @@ public class NewNodeCatchUpTask implements Callable<NewNodeCatchUpTaskResult> {
             round++;
             context.doReplicateLog(endpoint, nextIndex);
         } else {
-            context.sendInstallSnapshot(endpoint, rpc.getOffset() + rpc.getDataLength());
+            // continue from the offset expected by new node
+            context.sendInstallSnapshot(endpoint, offset);
         }
         lastReplicateAt = System.currentTimeMillis();
         notify();
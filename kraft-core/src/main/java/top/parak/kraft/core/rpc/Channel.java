@@ -55,6 +55,20 @@ public interface Channel {
      */
     void writeInstallSnapshotResult(@Nonnull InstallSnapshotResult result);
 
+    /**
+     * Write read index rpc.
+     *
+     * @param rpc rpc
+     */
+    void writeReadIndexRpc(@Nonnull ReadIndexRpc rpc);
+
+    /**
+     * Write read index result.
+     *
+     * @param result result
+     */
+    void writeReadIndexResult(@Nonnull ReadIndexResult result);
+
     /**
      * Close channel.
      */
@@ -16,6 +16,16 @@ import java.util.Collection;
  */
 public interface Connector {
 
+    /**
+     * Set dispatcher of messages received.
+     * <p>
+     * Should be called before initialization.
+     * </p>
+     *
+     * @param dispatcher dispatcher
+     */
+    void setMessageDispatcher(@Nonnull MessageDispatcher dispatcher);
+
     /**
      * Initialize the connector.
      * <p>
@@ -78,6 +88,22 @@ public interface Connector {
      */
     void replyInstallSnapshot(@Nonnull InstallSnapshotResult result, @Nonnull InstallSnapshotRpcMessage rpcMessage);
 
+    /**
+     * Send ReadIndex RPC.
+     *
+     * @param rpc                 rpc
+     * @param destinationEndpoint destination endpoint
+     */
+    void sendReadIndex(@Nonnull ReadIndexRpc rpc, @Nonnull NodeEndpoint destinationEndpoint);
+
+    /**
+     * Reply ReadIndex result.
+     *
+     * @param result     result
+     * @param rpcMessage rpc message
+     */
+    void replyReadIndex(@Nonnull ReadIndexResult result, @Nonnull ReadIndexRpcMessage rpcMessage);
+
     /**
      * Called when node becomes leader.
      * <p>
@@ -15,6 +15,10 @@ import java.util.Collection;
  */
 public abstract class ConnectorAdapter implements Connector {
 
+    @Override
+    public void setMessageDispatcher(@Nonnull MessageDispatcher dispatcher) {
+    }
+
     @Override
     public void initialize() {
     }
@@ -48,6 +52,16 @@ public abstract class ConnectorAdapter implements Connector {
 
     }
 
+    @Override
+    public void sendReadIndex(@Nonnull ReadIndexRpc rpc, @Nonnull NodeEndpoint destinationEndpoint) {
+
+    }
+
+    @Override
+    public void replyReadIndex(@Nonnull ReadIndexResult result, @Nonnull ReadIndexRpcMessage rpcMessage) {
+
+    }
+
     @Override
     public void resetChannels() {
     }
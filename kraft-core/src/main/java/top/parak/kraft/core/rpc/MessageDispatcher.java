@@ -0,0 +1,75 @@
+package top.parak.kraft.core.rpc;
+
+import top.parak.kraft.core.rpc.message.*;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Dispatcher of messages received by {@link Connector}.
+ * <p>
+ * Called in IO thread, so implementation should hand messages over to its own thread and return quickly.
+ * </p>
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+public interface MessageDispatcher {
+
+    /**
+     * Receive RequestVote RPC.
+     *
+     * @param rpcMessage rpc message
+     */
+    void onReceiveRequestVoteRpc(@Nonnull RequestVoteRpcMessage rpcMessage);
+
+    /**
+     * Receive result of RequestVote RPC.
+     *
+     * @param result result
+     */
+    void onReceiveRequestVoteResult(@Nonnull RequestVoteResult result);
+
+    /**
+     * Receive AppendEntries RPC.
+     *
+     * @param rpcMessage rpc message
+     */
+    void onReceiveAppendEntriesRpc(@Nonnull AppendEntriesRpcMessage rpcMessage);
+
+    /**
+     * Receive result of AppendEntries RPC.
+     *
+     * @param resultMessage result message
+     */
+    void onReceiveAppendEntriesResult(@Nonnull AppendEntriesResultMessage resultMessage);
+
+    /**
+     * Receive InstallSnapshot RPC.
+     *
+     * @param rpcMessage rpc message
+     */
+    void onReceiveInstallSnapshotRpc(@Nonnull InstallSnapshotRpcMessage rpcMessage);
+
+    /**
+     * Receive result of InstallSnapshot RPC.
+     *
+     * @param resultMessage result message
+     */
+    void onReceiveInstallSnapshotResult(@Nonnull InstallSnapshotResultMessage resultMessage);
+
+    /**
+     * Receive ReadIndex RPC.
+     *
+     * @param rpcMessage rpc message
+     */
+    void onReceiveReadIndexRpc(@Nonnull ReadIndexRpcMessage rpcMessage);
+
+    /**
+     * Receive result of ReadIndex RPC.
+     *
+     * @param result result
+     */
+    void onReceiveReadIndexResult(@Nonnull ReadIndexResult result);
+
+}
@@ -71,6 +71,22 @@ public class MockConnector extends ConnectorAdapter {
         messages.add(m);
     }
 
+    @Override
+    public void sendReadIndex(@Nonnull ReadIndexRpc rpc, @Nonnull NodeEndpoint destinationEndpoint) {
+        Message m = new Message();
+        m.rpc = rpc;
+        m.destinationNodeId = destinationEndpoint.getId();
+        messages.add(m);
+    }
+
+    @Override
+    public void replyReadIndex(@Nonnull ReadIndexResult result, @Nonnull ReadIndexRpcMessage rpcMessage) {
+        Message m = new Message();
+        m.result = result;
+        m.destinationNodeId = rpcMessage.getSourceNodeId();
+        messages.add(m);
+    }
+
     public Message getLastMessage() {
         return messages.isEmpty() ? null : messages.getLast();
     }
@@ -14,7 +14,7 @@ public class AppendEntriesResult implements Serializable {
     /**
      * RPC message id.
      */
-    private final String rpcMessageId;
+    private final long rpcMessageId;
     /**
      * Current term.
      * <p>Help leader update term.</p>
@@ -25,14 +25,29 @@ public class AppendEntriesResult implements Serializable {
      * otherwise false.
      */
     private final boolean success;
+    /**
+     * The term of follower's conflicting log entry if failed, {@code 0} if previous log not found.
+     */
+    private final int conflictTerm;
+    /**
+     * The first index of conflicting term, or the next index of follower's log if previous log not found.
+     * <p>{@code 0} if succeeded or no conflict provided, then leader backs off next index by one.</p>
+     */
+    private final int conflictIndex;
+
+    public AppendEntriesResult(long rpcMessageId, int term, boolean success) {
+        this(rpcMessageId, term, success, 0, 0);
+    }
 
-    public AppendEntriesResult(String rpcMessageId, int term, boolean success) {
+    public AppendEntriesResult(long rpcMessageId, int term, boolean success, int conflictTerm, int conflictIndex) {
         this.rpcMessageId = rpcMessageId;
         this.term = term;
         this.success = success;
+        this.conflictTerm = conflictTerm;
+        this.conflictIndex = conflictIndex;
     }
 
-    public String getRpcMessageId() {
+    public long getRpcMessageId() {
         return rpcMessageId;
     }
 
@@ -44,12 +59,22 @@ public class AppendEntriesResult implements Serializable {
         return success;
     }
 
+    public int getConflictTerm() {
+        return conflictTerm;
+    }
+
+    public int getConflictIndex() {
+        return conflictIndex;
+    }
+
     @Override
     public String toString() {
         return "AppendEntriesResult{" +
-                "rpcMessageId='" + rpcMessageId + '\'' +
+                "rpcMessageId=" + rpcMessageId +
                 ", success=" + success +
                 ", term=" + term +
+                ", conflictTerm=" + conflictTerm +
+                ", conflictIndex=" + conflictIndex +
                 '}';
     }
 
@@ -16,7 +16,7 @@ import java.util.List;
  */
 public class AppendEntriesRpc implements Serializable {
 
-    private String messageId;
+    private long messageId;
     private int term;
     private NodeId leaderId;
     private int prevLogIndex = 0;
@@ -24,11 +24,11 @@ public class AppendEntriesRpc implements Serializable {
     private List<Entry> entries = Collections.emptyList();
     private int leaderCommit;
 
-    public String getMessageId() {
+    public long getMessageId() {
         return messageId;
     }
 
-    public void setMessageId(String messageId) {
+    public void setMessageId(long messageId) {
         this.messageId = messageId;
     }
 
@@ -87,8 +87,8 @@ public class AppendEntriesRpc implements Serializable {
     @Override
     public String toString() {
         return "AppendEntriesRpc{" +
-                "messageId='" + messageId +
-                "', entries.size=" + entries.size() +
+                "messageId=" + messageId +
+                ", entries.size=" + entries.size() +
                 ", leaderCommit=" + leaderCommit +
                 ", leaderId=" + leaderId +
                 ", prevLogIndex=" + prevLogIndex +
@@ -9,23 +9,47 @@ package top.parak.kraft.core.rpc.message;
  */
 public class InstallSnapshotResult {
 
+    /**
+     * RPC message id, {@code 0} if replied by node of older version.
+     */
+    private final long rpcMessageId;
     /**
      * Current term, for leader to update itself.
      */
     private final int term;
+    /**
+     * The offset of the next chunk expected, for leader to resume or rewind the transfer.
+     */
+    private final int offset;
+
+    public InstallSnapshotResult(long rpcMessageId, int term) {
+        this(rpcMessageId, term, 0);
+    }
 
-    public InstallSnapshotResult(int term) {
+    public InstallSnapshotResult(long rpcMessageId, int term, int offset) {
+        this.rpcMessageId = rpcMessageId;
         this.term = term;
+        this.offset = offset;
+    }
+
+    public long getRpcMessageId() {
+        return rpcMessageId;
     }
 
     public int getTerm() {
         return term;
     }
 
+    public int getOffset() {
+        return offset;
+    }
+
     @Override
     public String toString() {
         return "InstallSnapshotResult{" +
-                "term=" + term +
+                "rpcMessageId=" + rpcMessageId +
+                ", term=" + term +
+                ", offset=" + offset +
                 '}';
     }
 
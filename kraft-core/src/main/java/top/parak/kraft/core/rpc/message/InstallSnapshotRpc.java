@@ -3,6 +3,7 @@ package top.parak.kraft.core.rpc.message;
 import top.parak.kraft.core.node.NodeEndpoint;
 import top.parak.kraft.core.node.NodeId;
 
+import java.io.File;
 import java.util.Set;
 
 /**
@@ -14,6 +15,10 @@ import java.util.Set;
  */
 public class InstallSnapshotRpc {
 
+    /**
+     * RPC message id, unique in the leader's log.
+     */
+    private long messageId;
     /**
      * The leader's term.
      */
@@ -42,10 +47,34 @@ public class InstallSnapshotRpc {
      * The raw bytes of the snapshot chunk, starting at offset.
      */
     private byte[] data;
+    /**
+     * The file containing the chunk, the chunk is transferred from the file without reading into memory if set.
+     */
+    private File dataFile;
+    /**
+     * The position of the chunk in the data file.
+     */
+    private long dataPosition;
+    /**
+     * The length of the chunk in the data file.
+     */
+    private int dataFileLength;
     /**
      * True if this is the last chunk.
      */
     private boolean done;
+    /**
+     * The id of snapshot codec, data is encoded by it.
+     */
+    private int codec;
+
+    public long getMessageId() {
+        return messageId;
+    }
+
+    public void setMessageId(long messageId) {
+        this.messageId = messageId;
+    }
 
     public int getTerm() {
         return term;
@@ -95,18 +124,47 @@ public class InstallSnapshotRpc {
         this.offset = offset;
     }
 
+    /**
+     * Get the raw bytes of the chunk.
+     *
+     * @return raw bytes, {@code null} if the chunk is in data file
+     */
     public byte[] getData() {
         return data;
     }
 
     public int getDataLength() {
-        return this.data.length;
+        if (data != null) {
+            return data.length;
+        }
+        return dataFile != null ? dataFileLength : 0;
     }
 
     public void setData(byte[] data) {
         this.data = data;
     }
 
+    public File getDataFile() {
+        return dataFile;
+    }
+
+    public long getDataPosition() {
+        return dataPosition;
+    }
+
+    /**
+     * Set the region of data file as the chunk.
+     *
+     * @param file     data file
+     * @param position position of the chunk in file
+     * @param length   length of the chunk
+     */
+    public void setDataRegion(File file, long position, int length) {
+        this.dataFile = file;
+        this.dataPosition = position;
+        this.dataFileLength = length;
+    }
+
     public boolean isDone() {
         return done;
     }
@@ -115,14 +173,24 @@ public class InstallSnapshotRpc {
         this.done = done;
     }
 
+    public int getCodec() {
+        return codec;
+    }
+
+    public void setCodec(int codec) {
+        this.codec = codec;
+    }
+
     @Override
     public String toString() {
         return "InstallSnapshotRpc{" +
-                "data.size=" + (data != null ? data.length : 0) +
+                "data.size=" + getDataLength() +
                 ", done=" + done +
+                ", codec=" + codec +
                 ", lastIndex=" + lastIndex +
                 ", lastTerm=" + lastTerm +
                 ", leaderId=" + leaderId +
+                ", messageId=" + messageId +
                 ", offset=" + offset +
                 ", term=" + term +
                 '}';
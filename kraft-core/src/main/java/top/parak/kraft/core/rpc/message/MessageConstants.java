@@ -39,5 +39,44 @@ public class MessageConstants {
      * Message type of {@link InstallSnapshotResult}.
      */
     public static final int MSG_TYPE_INSTALL_SNAPSHOT_RESULT = 6;
+    /**
+     * Message type of {@link ReadIndexRpc}.
+     */
+    public static final int MSG_TYPE_READ_INDEX_RPC = 7;
+    /**
+     * Message type of {@link ReadIndexResult}.
+     */
+    public static final int MSG_TYPE_READ_INDEX_RESULT = 8;
+    /**
+     * Message type of {@link AppendEntriesRpc} without entries from the node of handshake, in fixed-length binary.
+     * Only written in compact format.
+     */
+    public static final int MSG_TYPE_APPEND_ENTRIES_HEARTBEAT = 9;
+    /**
+     * Message type of {@link AppendEntriesResult} in fixed-length binary. Only written in compact format.
+     */
+    public static final int MSG_TYPE_APPEND_ENTRIES_COMPACT_RESULT = 10;
+    /**
+     * Message type of features of rpc format, written after {@link NodeId} by the node connecting,
+     * and replied with the features accepted. Ignored by nodes not supporting it.
+     */
+    public static final int MSG_TYPE_FEATURES = 11;
+
+    /**
+     * Shift of raft group id in the message type of frame.
+     * <p>
+     * The high 16 bits of message type is the id of raft group, and the low 16 bits is the type.
+     * Group {@code 0} is the single group of legacy frame, so frames of single group are unchanged.
+     * </p>
+     */
+    public static final int GROUP_ID_SHIFT = 16;
+    /**
+     * Mask of type in the message type of frame.
+     */
+    public static final int MSG_TYPE_MASK = 0xFFFF;
+    /**
+     * Max id of raft group.
+     */
+    public static final int MAX_GROUP_ID = 0xFFFF;
 
 }
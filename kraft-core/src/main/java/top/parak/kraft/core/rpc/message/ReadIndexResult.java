@@ -0,0 +1,54 @@
+package top.parak.kraft.core.rpc.message;
+
+import java.io.Serializable;
+
+/**
+ * ReadIndex RPC result.
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+public class ReadIndexResult implements Serializable {
+
+    /**
+     * RPC message id.
+     */
+    private final long rpcMessageId;
+    /**
+     * True if the leader has confirmed its leadership, otherwise false.
+     */
+    private final boolean success;
+    /**
+     * Read index, the commit index of leader when it received the rpc.
+     */
+    private final int readIndex;
+
+    public ReadIndexResult(long rpcMessageId, boolean success, int readIndex) {
+        this.rpcMessageId = rpcMessageId;
+        this.success = success;
+        this.readIndex = readIndex;
+    }
+
+    public long getRpcMessageId() {
+        return rpcMessageId;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public int getReadIndex() {
+        return readIndex;
+    }
+
+    @Override
+    public String toString() {
+        return "ReadIndexResult{" +
+                "rpcMessageId=" + rpcMessageId +
+                ", success=" + success +
+                ", readIndex=" + readIndex +
+                '}';
+    }
+
+}
@@ -0,0 +1,34 @@
+package top.parak.kraft.core.rpc.message;
+
+import java.io.Serializable;
+
+/**
+ * ReadIndex RPC arguments.
+ * <p>
+ * Sent by follower to ask leader for the read index of a linearizable read.
+ * </p>
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+public class ReadIndexRpc implements Serializable {
+
+    private final long messageId;
+
+    public ReadIndexRpc(long messageId) {
+        this.messageId = messageId;
+    }
+
+    public long getMessageId() {
+        return messageId;
+    }
+
+    @Override
+    public String toString() {
+        return "ReadIndexRpc{" +
+                "messageId=" + messageId +
+                '}';
+    }
+
+}
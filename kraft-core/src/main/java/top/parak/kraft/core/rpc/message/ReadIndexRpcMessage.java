@@ -0,0 +1,21 @@
+package top.parak.kraft.core.rpc.message;
+
+import top.parak.kraft.core.node.NodeId;
+import top.parak.kraft.core.rpc.Channel;
+
+import javax.annotation.Nullable;
+
+/**
+ * ReadIndexRpc message.
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+public class ReadIndexRpcMessage extends AbstractRpcMessage<ReadIndexRpc> {
+
+    public ReadIndexRpcMessage(ReadIndexRpc rpc, NodeId sourceNodeId, @Nullable Channel channel) {
+        super(rpc, sourceNodeId, channel);
+    }
+
+}
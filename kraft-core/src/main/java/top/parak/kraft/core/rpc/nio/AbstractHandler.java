@@ -1,16 +1,22 @@
 package top.parak.kraft.core.rpc.nio;
 
-import com.google.common.eventbus.EventBus;
 import top.parak.kraft.core.node.NodeId;
-import top.parak.kraft.core.rpc.Channel;
+import top.parak.kraft.core.rpc.MessageDispatcher;
 import top.parak.kraft.core.rpc.message.*;
+import top.parak.kraft.core.support.metrics.Histogram;
 import io.netty.channel.ChannelDuplexHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPromise;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Objects;
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
 
 /**
  * Abstract handler.
@@ -24,10 +30,13 @@ abstract class AbstractHandler extends ChannelDuplexHandler {
     private static final Logger logger = LoggerFactory.getLogger(AbstractHandler.class);
 
     /**
-     * EventBus is a pub-sub component used to publish event to subscribers.
+     * Dispatcher of messages to the RAFT algorithm component.
      * This decouples the RAFT algorithm component and RPC implementation component.
+     * <p>
+     * Each raft group has its own dispatcher, looked up by group id, {@code null} if group not found.
+     * </p>
      */
-    protected final EventBus eventBus;
+    protected final IntFunction<MessageDispatcher> dispatchers;
 
     /**
      * The id of remote node.
@@ -37,25 +46,64 @@ abstract class AbstractHandler extends ChannelDuplexHandler {
     /**
      * RPC channel between remote node and self.
      */
-    protected Channel channel;
+    protected NioChannel channel;
 
     /**
-     * RPC channel between remote node and self.
+     * RPC channels of raft groups other than {@code 0}, sharing the same connection, group id as key.
+     */
+    private final Map<Integer, NioChannel> groupChannels = new HashMap<>();
+
+    /**
+     * The max count of {@link InstallSnapshotRpc} waiting for result.
      */
-    private AppendEntriesRpc lastAppendEntriesRpc;
+    private static final int MAX_PENDING_INSTALL_SNAPSHOT_RPC = 1024;
 
     /**
-     * The last {@link InstallSnapshotRpc}.
+     * The max count of {@link AppendEntriesRpc} waiting for result of each raft group, the window of replication.
      */
-    private InstallSnapshotRpc lastInstallSnapshotRpc;
+    private final int maxPendingAppendEntriesRpcs;
+
+    /**
+     * The {@link AppendEntriesRpc} waiting for result of each raft group, message id as key, in sent order.
+     * <p>
+     * More than one rpc may be in flight if replication is pipelined. Message id is only unique in group.
+     * The oldest rpc is dropped once the window is full, since it has been given up by the leader.
+     * </p>
+     */
+    private final Map<Integer, Map<Long, PendingAppendEntriesRpc>> pendingAppendEntriesRpcs = new HashMap<>();
+
+    /**
+     * Round-trip time in microseconds of {@link AppendEntriesRpc} to remote node.
+     */
+    Histogram appendEntriesRttHistogram = new Histogram();
+
+    /**
+     * The {@link InstallSnapshotRpc} waiting for result of each raft group, message id as key, in sent order.
+     * <p>
+     * More than one rpc may be in flight. Results are replied in the order of rpc, so rpc sent before the one
+     * of a result won't be replied, e.g. dropped by remote node.
+     * </p>
+     */
+    private final Map<Integer, Map<Long, InstallSnapshotRpc>> pendingInstallSnapshotRpcs = new HashMap<>();
+
+    /**
+     * Create AbstractHandler, at most one {@link AppendEntriesRpc} waiting for result of each raft group.
+     *
+     * @param dispatchers message dispatcher of raft group by group id
+     */
+    AbstractHandler(IntFunction<MessageDispatcher> dispatchers) {
+        this(dispatchers, 1);
+    }
 
     /**
      * Create AbstractHandler.
      *
-     * @param eventBus event-bus
+     * @param dispatchers                 message dispatcher of raft group by group id
+     * @param maxPendingAppendEntriesRpcs max count of {@link AppendEntriesRpc} waiting for result of each raft group
      */
-    AbstractHandler(EventBus eventBus) {
-        this.eventBus = eventBus;
+    AbstractHandler(IntFunction<MessageDispatcher> dispatchers, int maxPendingAppendEntriesRpcs) {
+        this.dispatchers = dispatchers;
+        this.maxPendingAppendEntriesRpcs = Math.max(1, maxPendingAppendEntriesRpcs);
     }
 
     @Override
@@ -63,51 +111,127 @@ abstract class AbstractHandler extends ChannelDuplexHandler {
         assert remoteId != null;
         assert channel != null;
 
+        int groupId = 0;
+        if (msg instanceof GroupMessage) {
+            groupId = ((GroupMessage) msg).getGroupId();
+            msg = ((GroupMessage) msg).getMessage();
+        }
+        MessageDispatcher dispatcher = dispatchers.apply(groupId);
+        if (dispatcher == null) {
+            logger.warn("no raft group {}, drop {} from {}", groupId, msg, remoteId);
+            return;
+        }
+        NioChannel channel = groupId != 0 ?
+                groupChannels.computeIfAbsent(groupId, id -> new NioChannel(this.channel.getDelegate(), id)) : this.channel;
+
         if (msg instanceof RequestVoteRpc) {
             RequestVoteRpc rpc = (RequestVoteRpc) msg;
-            eventBus.post(new RequestVoteRpcMessage(rpc, remoteId, channel));
+            dispatcher.onReceiveRequestVoteRpc(new RequestVoteRpcMessage(rpc, remoteId, channel));
         } else if (msg instanceof RequestVoteResult) {
-            eventBus.post(msg);
+            dispatcher.onReceiveRequestVoteResult((RequestVoteResult) msg);
         } else if (msg instanceof AppendEntriesRpc) {
             AppendEntriesRpc rpc = (AppendEntriesRpc) msg;
-            eventBus.post(new AppendEntriesRpcMessage(rpc, remoteId, channel));
+            dispatcher.onReceiveAppendEntriesRpc(new AppendEntriesRpcMessage(rpc, remoteId, channel));
         } else if (msg instanceof AppendEntriesResult) {
             AppendEntriesResult result = (AppendEntriesResult) msg;
-            if (lastAppendEntriesRpc == null) {
-                logger.warn("no last append entries rpc");
+            Map<Long, PendingAppendEntriesRpc> pendingRpcs = pendingAppendEntriesRpcs.get(groupId);
+            PendingAppendEntriesRpc pendingRpc = pendingRpcs != null ? pendingRpcs.remove(result.getRpcMessageId()) : null;
+            if (pendingRpc == null) {
+                logger.warn("no append entries rpc with message id {}", result.getRpcMessageId());
             } else {
-                if (!Objects.equals(result.getRpcMessageId(), lastAppendEntriesRpc.getMessageId())) {
-                    logger.warn("incorrect append entries rpc message id {}, expected {}", result.getRpcMessageId(), lastAppendEntriesRpc.getMessageId());
-                } else {
-                    eventBus.post(new AppendEntriesResultMessage(result, remoteId, lastAppendEntriesRpc));
-                    lastAppendEntriesRpc = null;
-                }
+                appendEntriesRttHistogram.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - pendingRpc.sentAt));
+                dispatcher.onReceiveAppendEntriesResult(new AppendEntriesResultMessage(result, remoteId, pendingRpc.rpc));
             }
         } else if (msg instanceof InstallSnapshotRpc) {
             InstallSnapshotRpc rpc = (InstallSnapshotRpc) msg;
-            eventBus.post(new InstallSnapshotRpcMessage(rpc, remoteId, channel));
+            dispatcher.onReceiveInstallSnapshotRpc(new InstallSnapshotRpcMessage(rpc, remoteId, channel));
         } else if (msg instanceof InstallSnapshotResult) {
             InstallSnapshotResult result = (InstallSnapshotResult) msg;
-            assert lastInstallSnapshotRpc != null;
-            eventBus.post(new InstallSnapshotResultMessage(result, remoteId, lastInstallSnapshotRpc));
-            lastInstallSnapshotRpc = null;
+            Map<Long, InstallSnapshotRpc> pendingRpcs = pendingInstallSnapshotRpcs.get(groupId);
+            InstallSnapshotRpc rpc = pendingRpcs != null ? removePendingRpc(pendingRpcs, result.getRpcMessageId()) : null;
+            if (rpc == null) {
+                logger.warn("no install snapshot rpc with message id {}", result.getRpcMessageId());
+            } else {
+                dispatcher.onReceiveInstallSnapshotResult(new InstallSnapshotResultMessage(result, remoteId, rpc));
+            }
+        } else if (msg instanceof ReadIndexRpc) {
+            ReadIndexRpc rpc = (ReadIndexRpc) msg;
+            dispatcher.onReceiveReadIndexRpc(new ReadIndexRpcMessage(rpc, remoteId, channel));
+        } else if (msg instanceof ReadIndexResult) {
+            dispatcher.onReceiveReadIndexResult((ReadIndexResult) msg);
         }
     }
 
     @Override
     public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
-        if (msg instanceof AppendEntriesRpc) {
-            lastAppendEntriesRpc = (AppendEntriesRpc) msg;
-        } else if (msg instanceof InstallSnapshotRpc) {
-            lastInstallSnapshotRpc = (InstallSnapshotRpc) msg;
+        int groupId = 0;
+        Object rpc = msg;
+        if (msg instanceof GroupMessage) {
+            groupId = ((GroupMessage) msg).getGroupId();
+            rpc = ((GroupMessage) msg).getMessage();
+        }
+        if (rpc instanceof AppendEntriesRpc) {
+            AppendEntriesRpc appendEntriesRpc = (AppendEntriesRpc) rpc;
+            pendingAppendEntriesRpcs.computeIfAbsent(groupId, id -> new LinkedHashMap<Long, PendingAppendEntriesRpc>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, PendingAppendEntriesRpc> eldest) {
+                    return size() > maxPendingAppendEntriesRpcs;
+                }
+            }).put(appendEntriesRpc.getMessageId(), new PendingAppendEntriesRpc(appendEntriesRpc, System.nanoTime()));
+        } else if (rpc instanceof InstallSnapshotRpc) {
+            InstallSnapshotRpc installSnapshotRpc = (InstallSnapshotRpc) rpc;
+            pendingInstallSnapshotRpcs.computeIfAbsent(groupId, id -> new LinkedHashMap<Long, InstallSnapshotRpc>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, InstallSnapshotRpc> eldest) {
+                    return size() > MAX_PENDING_INSTALL_SNAPSHOT_RPC;
+                }
+            }).put(installSnapshotRpc.getMessageId(), installSnapshotRpc);
         }
         super.write(ctx, msg, promise);
     }
 
+    /**
+     * Remove the rpc of message id, and the rpc sent before it which won't be replied.
+     * <p>
+     * Result without message id is replied by node of older version, the oldest rpc is removed.
+     * </p>
+     *
+     * @param pendingRpcs pending rpc in sent order
+     * @param messageId   message id of result
+     * @return rpc, {@code null} if not found
+     */
+    @Nullable
+    private static InstallSnapshotRpc removePendingRpc(Map<Long, InstallSnapshotRpc> pendingRpcs, long messageId) {
+        if (messageId != 0 && !pendingRpcs.containsKey(messageId)) {
+            return null;
+        }
+        Iterator<Map.Entry<Long, InstallSnapshotRpc>> iterator = pendingRpcs.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, InstallSnapshotRpc> entry = iterator.next();
+            iterator.remove();
+            if (messageId == 0 || entry.getKey() == messageId) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
     @Override
     public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
         logger.warn(cause.getMessage(), cause);
         ctx.close();
     }
 
+    private static class PendingAppendEntriesRpc {
+
+        final AppendEntriesRpc rpc;
+        final long sentAt;
+
+        PendingAppendEntriesRpc(AppendEntriesRpc rpc, long sentAt) {
+            this.rpc = rpc;
+            this.sentAt = sentAt;
+        }
+
+    }
+
 }
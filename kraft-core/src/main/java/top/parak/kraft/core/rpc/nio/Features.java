@@ -0,0 +1,43 @@
+package top.parak.kraft.core.rpc.nio;
+
+/**
+ * Features of rpc format negotiated at handshake.
+ * <p>
+ * The node connecting writes the features it supports after its node id, and the remote node replies with
+ * the features both support. Nodes not supporting negotiation ignore the message, so the legacy format
+ * is used with them.
+ * </p>
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+class Features {
+
+    /**
+     * Compact format, see {@link NodeRpcMessageEncoder}.
+     */
+    static final int COMPACT = 1;
+
+    private final int flags;
+
+    Features(int flags) {
+        this.flags = flags;
+    }
+
+    int getFlags() {
+        return flags;
+    }
+
+    boolean isCompact() {
+        return (flags & COMPACT) != 0;
+    }
+
+    @Override
+    public String toString() {
+        return "Features{" +
+                "flags=" + flags +
+                '}';
+    }
+
+}
@@ -1,11 +1,13 @@
 package top.parak.kraft.core.rpc.nio;
 
-import com.google.common.eventbus.EventBus;
 import io.netty.channel.ChannelHandlerContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import top.parak.kraft.core.node.NodeId;
+import top.parak.kraft.core.rpc.MessageDispatcher;
+
+import java.util.function.IntFunction;
 
 /**
  * Netty Handler to deal with remote node's connection.
@@ -18,16 +20,29 @@ class FromRemoteHandler extends AbstractHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(FromRemoteHandler.class);
     private final InboundChannelGroup channelGroup;
+    private final boolean compactEnabled;
 
     /**
      * Create FromRemoteHandler.
      *
-     * @param eventBus     eventBus
+     * @param dispatchers  message dispatcher of raft group by group id
      * @param channelGroup inbound channel group
      */
-    FromRemoteHandler(EventBus eventBus, InboundChannelGroup channelGroup) {
-        super(eventBus);
+    FromRemoteHandler(IntFunction<MessageDispatcher> dispatchers, InboundChannelGroup channelGroup) {
+        this(dispatchers, channelGroup, false);
+    }
+
+    /**
+     * Create FromRemoteHandler.
+     *
+     * @param dispatchers    message dispatcher of raft group by group id
+     * @param channelGroup   inbound channel group
+     * @param compactEnabled whether to accept compact format
+     */
+    FromRemoteHandler(IntFunction<MessageDispatcher> dispatchers, InboundChannelGroup channelGroup, boolean compactEnabled) {
+        super(dispatchers);
         this.channelGroup = channelGroup;
+        this.compactEnabled = compactEnabled;
     }
 
     @Override
@@ -39,6 +54,14 @@ class FromRemoteHandler extends AbstractHandler {
             channelGroup.add(remoteId, nioChannel);
             return;
         }
+        if (msg instanceof Features) {
+            // reply features accepted, remote node switches format once received
+            Features accepted = new Features(compactEnabled ? ((Features) msg).getFlags() & Features.COMPACT : 0);
+            logger.debug("receive {} from {}, accept {}", msg, remoteId, accepted);
+            ctx.pipeline().get(NodeRpcMessageEncoder.class).setCompact(accepted.isCompact());
+            ctx.writeAndFlush(accepted);
+            return;
+        }
 
         logger.debug("receive {} from {}", msg, remoteId);
         super.channelRead(ctx, msg);
@@ -0,0 +1,41 @@
+package top.parak.kraft.core.rpc.nio;
+
+import top.parak.kraft.core.rpc.message.MessageConstants;
+
+/**
+ * Message of raft group other than the legacy group {@code 0}.
+ * <p>
+ * Encoded into the high bits of message type in frame, see {@link MessageConstants#GROUP_ID_SHIFT}.
+ * </p>
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+class GroupMessage {
+
+    private final int groupId;
+    private final Object message;
+
+    GroupMessage(int groupId, Object message) {
+        this.groupId = groupId;
+        this.message = message;
+    }
+
+    int getGroupId() {
+        return groupId;
+    }
+
+    Object getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return "GroupMessage{" +
+                "groupId=" + groupId +
+                ", message=" + message +
+                '}';
+    }
+
+}
@@ -0,0 +1,94 @@
+package top.parak.kraft.core.rpc.nio;
+
+import io.netty.channel.Channel;
+import io.netty.util.Attribute;
+import io.netty.util.AttributeKey;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Message ids of rpc in legacy format of a channel.
+ * <p>
+ * Nodes on legacy format write message id as string, in decimal or as UUID. Decimal id is parsed,
+ * and other id is mapped to a negative id when rpc is decoded, and mapped back when the result is encoded
+ * to the same channel. Ids whose result is never replied are removed when exceed the limit.
+ * </p>
+ * <p>
+ * Decoder and encoder of channel run in the event loop of channel, so it's not thread safe.
+ * </p>
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+@NotThreadSafe
+class LegacyMessageIds {
+
+    private static final AttributeKey<LegacyMessageIds> KEY = AttributeKey.valueOf(LegacyMessageIds.class.getName());
+    /**
+     * The max count of ids mapped.
+     */
+    private static final int MAX_IDS = 1024;
+
+    private final Map<Long, String> ids = new LinkedHashMap<Long, String>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, String> eldest) {
+            return size() > MAX_IDS;
+        }
+    };
+    private long lastId = 0;
+
+    /**
+     * Get legacy message ids of channel.
+     *
+     * @param channel channel
+     * @return legacy message ids
+     */
+    static LegacyMessageIds of(Channel channel) {
+        Attribute<LegacyMessageIds> attribute = channel.attr(KEY);
+        LegacyMessageIds ids = attribute.get();
+        if (ids == null) {
+            ids = new LegacyMessageIds();
+            attribute.set(ids);
+        }
+        return ids;
+    }
+
+    /**
+     * Get message id of legacy id.
+     *
+     * @param legacyId legacy id
+     * @return message id, {@code 0} if legacy id is empty
+     */
+    long toId(String legacyId) {
+        if (legacyId.isEmpty()) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(legacyId);
+        } catch (NumberFormatException e) {
+            long id = --lastId;
+            ids.put(id, legacyId);
+            return id;
+        }
+    }
+
+    /**
+     * Get legacy id of message id, legacy id mapped is removed.
+     *
+     * @param id message id
+     * @return legacy id
+     */
+    String toLegacyId(long id) {
+        if (id < 0) {
+            String legacyId = ids.remove(id);
+            if (legacyId != null) {
+                return legacyId;
+            }
+        }
+        return Long.toString(id);
+    }
+
+}
@@ -1,5 +1,8 @@
 package top.parak.kraft.core.rpc.nio;
 
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+
 import top.parak.kraft.core.rpc.Channel;
 import top.parak.kraft.core.rpc.ChannelException;
 import top.parak.kraft.core.rpc.message.*;
@@ -8,6 +11,14 @@ import javax.annotation.Nonnull;
 
 /**
  * NIO channel.
+ * <p>
+ * Messages written are tagged with the id of raft group, so that one connection is shared by groups.
+ * </p>
+ * <p>
+ * Messages are written in the event loop of channel without waiting, and flushes in one iteration of
+ * event loop are consolidated by {@link io.netty.handler.flush.FlushConsolidationHandler FlushConsolidationHandler}
+ * in pipeline. Messages written to an outbound channel still connecting are queued until connected.
+ * </p>
  *
  * @author KHighness
  * @since 2022-04-14
@@ -17,39 +28,78 @@ import javax.annotation.Nonnull;
 class NioChannel implements Channel {
 
     private final io.netty.channel.Channel nettyChannel;
+    /**
+     * Future of connection, {@code null} if connected.
+     */
+    private final ChannelFuture connectFuture;
+    private final int groupId;
 
     NioChannel(io.netty.channel.Channel nettyChannel) {
+        this(nettyChannel, null, 0);
+    }
+
+    NioChannel(io.netty.channel.Channel nettyChannel, int groupId) {
+        this(nettyChannel, null, groupId);
+    }
+
+    NioChannel(io.netty.channel.Channel nettyChannel, ChannelFuture connectFuture) {
+        this(nettyChannel, connectFuture, 0);
+    }
+
+    private NioChannel(io.netty.channel.Channel nettyChannel, ChannelFuture connectFuture, int groupId) {
         this.nettyChannel = nettyChannel;
+        this.connectFuture = connectFuture;
+        this.groupId = groupId;
+    }
+
+    /**
+     * Create channel of raft group sharing the same connection.
+     *
+     * @param groupId id of raft group
+     * @return channel of group
+     */
+    NioChannel forGroup(int groupId) {
+        return new NioChannel(nettyChannel, connectFuture, groupId);
     }
 
     @Override
     public void writeRequestVoteRpc(@Nonnull RequestVoteRpc rpc) {
-        nettyChannel.writeAndFlush(rpc);
+        write(rpc);
     }
 
     @Override
     public void writeRequestVoteResult(@Nonnull RequestVoteResult result) {
-        nettyChannel.writeAndFlush(result);
+        write(result);
     }
 
     @Override
     public void writeAppendEntriesRpc(@Nonnull AppendEntriesRpc rpc) {
-        nettyChannel.writeAndFlush(rpc);
+        write(rpc);
     }
 
     @Override
     public void writeAppendEntriesResult(@Nonnull AppendEntriesResult result) {
-        nettyChannel.writeAndFlush(result);
+        write(result);
     }
 
     @Override
     public void writeInstallSnapshotRpc(@Nonnull InstallSnapshotRpc rpc) {
-        nettyChannel.writeAndFlush(rpc);
+        write(rpc);
     }
 
     @Override
     public void writeInstallSnapshotResult(@Nonnull InstallSnapshotResult result) {
-        nettyChannel.writeAndFlush(result);
+        write(result);
+    }
+
+    @Override
+    public void writeReadIndexRpc(@Nonnull ReadIndexRpc rpc) {
+        write(rpc);
+    }
+
+    @Override
+    public void writeReadIndexResult(@Nonnull ReadIndexResult result) {
+        write(result);
     }
 
     @Override
@@ -61,8 +111,40 @@ class NioChannel implements Channel {
         }
     }
 
+    /**
+     * Write message, queued if connecting, dropped if failed to connect.
+     *
+     * @param message message
+     */
+    private void write(Object message) {
+        Object wrapped = wrap(message);
+        if (connectFuture == null || connectFuture.isSuccess()) {
+            nettyChannel.writeAndFlush(wrapped);
+            return;
+        }
+        connectFuture.addListener((ChannelFutureListener) future -> {
+            if (future.isSuccess()) {
+                nettyChannel.writeAndFlush(wrapped);
+            }
+        });
+    }
+
+    /**
+     * Wrap message with group id if not the legacy group.
+     *
+     * @param message message
+     * @return message to write
+     */
+    Object wrap(Object message) {
+        return groupId != 0 ? new GroupMessage(groupId, message) : message;
+    }
+
     io.netty.channel.Channel getDelegate() {
         return nettyChannel;
     }
 
+    int getGroupId() {
+        return groupId;
+    }
+
 }
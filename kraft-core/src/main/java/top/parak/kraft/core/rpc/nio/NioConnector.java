@@ -1,32 +1,45 @@
 package top.parak.kraft.core.rpc.nio;
 
 import com.google.common.base.Preconditions;
-import com.google.common.eventbus.EventBus;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelPipeline;
-import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.EventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.flush.FlushConsolidationHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import top.parak.kraft.core.node.NodeEndpoint;
 import top.parak.kraft.core.node.NodeId;
-import top.parak.kraft.core.rpc.Channel;
 import top.parak.kraft.core.rpc.ChannelConnectException;
 import top.parak.kraft.core.rpc.Connector;
+import top.parak.kraft.core.rpc.MessageDispatcher;
 import top.parak.kraft.core.rpc.message.*;
+import top.parak.kraft.core.support.metrics.MetricRegistry;
 
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.ThreadSafe;
 import java.net.InetSocketAddress;
 import java.util.Collection;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * NIO connector.
+ * <p>
+ * One connector can be shared by many raft groups in process, see {@link #createGroupConnector(int)}.
+ * Connections between nodes are shared, and messages are tagged with the id of raft group.
+ * </p>
+ * <p>
+ * Sending never blocks the caller: connections are established asynchronously, messages are written
+ * in event loop, and messages written in one iteration of event loop, like heartbeats of groups to the
+ * same node, are flushed together.
+ * </p>
+ * <p>
+ * Channels are created by {@link Transport}, the worker group should be created by the same transport.
+ * </p>
  *
  * @author KHighness
  * @since 2022-05-25
@@ -36,53 +49,138 @@ import java.util.concurrent.Executors;
 public class NioConnector implements Connector {
 
     private static final Logger logger = LoggerFactory.getLogger(NioConnector.class);
-    private final NioEventLoopGroup bossNioEventLoopGroup = new NioEventLoopGroup(1);
-    private final NioEventLoopGroup workerNioEventLoopGroup;
+    private final Transport transport;
+    private final EventLoopGroup bossNioEventLoopGroup;
+    private final EventLoopGroup workerNioEventLoopGroup;
     private final boolean workerGroupShared;
-    private final EventBus eventBus;
+    /**
+     * Message dispatcher of raft group, group id as key, the legacy single group is {@code 0}.
+     */
+    private final ConcurrentMap<Integer, MessageDispatcher> dispatchers = new ConcurrentHashMap<>();
+    /**
+     * Id of raft groups created by {@link #createGroupConnector(int)}.
+     */
+    private final Set<Integer> groupIds = ConcurrentHashMap.newKeySet();
     private final InetSocketAddress serviceAddress;
     private final InboundChannelGroup inboundChannelGroup = new InboundChannelGroup();
+    /**
+     * Registry of metrics, round-trip time of append entries rpc to each node is recorded.
+     */
+    private volatile MetricRegistry metricRegistry = new MetricRegistry();
+    /**
+     * Whether to use compact format with nodes supporting it, negotiated at handshake.
+     */
+    private volatile boolean compactEnabled = false;
+    /**
+     * Max in-flight append entries rpc of each raft group, results of rpc out of the window are dropped.
+     */
+    private volatile int replicationInflight = 1;
     private final OutboundChannelGroup outboundChannelGroup;
-    private final ExecutorService executorService = Executors.newCachedThreadPool((r) -> {
-        Thread thread = new Thread(r);
-        thread.setUncaughtExceptionHandler((t, e) -> {
-            logException(e);
-        });
-        return thread;
-    });
 
-    public NioConnector(NioEventLoopGroup workerNioEventLoopGroup,
-                        NodeId selfId, EventBus eventBus,
-                        InetSocketAddress serviceAddress, int logReplicationInterval) {
-        this(workerNioEventLoopGroup, false, selfId, eventBus, serviceAddress, logReplicationInterval);
+    public NioConnector(EventLoopGroup workerNioEventLoopGroup,
+                        NodeId selfId, InetSocketAddress serviceAddress, int logReplicationInterval) {
+        this(workerNioEventLoopGroup, false, selfId, serviceAddress, logReplicationInterval);
+    }
+
+    public NioConnector(EventLoopGroup workerNioEventLoopGroup, boolean workerGroupShared,
+                        NodeId selfId, InetSocketAddress serviceAddress, int logReplicationInterval) {
+        this(Transport.nio(), workerNioEventLoopGroup, workerGroupShared, selfId, serviceAddress, logReplicationInterval);
     }
 
-    public NioConnector(NioEventLoopGroup workerNioEventLoopGroup, boolean workerGroupShared,
-                        NodeId selfId, EventBus eventBus,
-                        InetSocketAddress serviceAddress, int logReplicationInterval) {
+    /**
+     * Create NioConnector.
+     *
+     * @param transport               transport of channels
+     * @param workerNioEventLoopGroup worker group created by transport
+     * @param workerGroupShared       if worker group is shared, not shut down when closed
+     * @param selfId                  self id
+     * @param serviceAddress          service address
+     * @param logReplicationInterval  log replication interval
+     */
+    public NioConnector(Transport transport, EventLoopGroup workerNioEventLoopGroup, boolean workerGroupShared,
+                        NodeId selfId, InetSocketAddress serviceAddress, int logReplicationInterval) {
+        this.transport = transport;
+        this.bossNioEventLoopGroup = transport.createEventLoopGroup(1);
         this.workerNioEventLoopGroup = workerNioEventLoopGroup;
         this.workerGroupShared = workerGroupShared;
-        this.eventBus = eventBus;
         this.serviceAddress = serviceAddress;
-        outboundChannelGroup = new OutboundChannelGroup(workerNioEventLoopGroup, eventBus, selfId, logReplicationInterval);
+        outboundChannelGroup = new OutboundChannelGroup(transport, workerNioEventLoopGroup, dispatchers::get, selfId,
+                logReplicationInterval, nodeId -> metricRegistry.histogram("rpc.append_entries_rtt_micros." + nodeId.getValue()),
+                () -> compactEnabled, () -> replicationInflight);
+    }
+
+    /**
+     * Create connector of raft group sharing this connector.
+     * <p>
+     * This connector should be initialized and closed by the owner, instead of the group connector.
+     * Messages of group are dropped until the dispatcher of group connector is set.
+     * </p>
+     *
+     * @param groupId id of raft group, from 1 to {@link MessageConstants#MAX_GROUP_ID}
+     * @return connector of raft group
+     * @throws IllegalStateException if group exists
+     */
+    @Nonnull
+    public Connector createGroupConnector(int groupId) {
+        Preconditions.checkArgument(groupId > 0 && groupId <= MessageConstants.MAX_GROUP_ID,
+                "group id should be in [1, " + MessageConstants.MAX_GROUP_ID + "]");
+        if (!groupIds.add(groupId)) {
+            throw new IllegalStateException("group " + groupId + " exists");
+        }
+        return new GroupConnector(groupId);
+    }
+
+    /**
+     * Set registry of metrics, should be called before connections created.
+     *
+     * @param metricRegistry metric registry
+     */
+    public void setMetricRegistry(@Nonnull MetricRegistry metricRegistry) {
+        Preconditions.checkNotNull(metricRegistry);
+        this.metricRegistry = metricRegistry;
+    }
+
+    /**
+     * Set whether to use compact format with nodes supporting it, should be called before initialized.
+     * Legacy format is used by default.
+     *
+     * @param compactEnabled whether to use compact format
+     */
+    public void setCompactEnabled(boolean compactEnabled) {
+        this.compactEnabled = compactEnabled;
+    }
+
+    /**
+     * Set max in-flight append entries rpc of each raft group, should be called before initialized.
+     * Stop-and-wait replication by default.
+     *
+     * @param replicationInflight max in-flight append entries rpc
+     */
+    public void setReplicationInflight(int replicationInflight) {
+        this.replicationInflight = replicationInflight;
+    }
+
+    @Override
+    public void setMessageDispatcher(@Nonnull MessageDispatcher dispatcher) {
+        Preconditions.checkNotNull(dispatcher);
+        dispatchers.put(0, dispatcher);
     }
 
     // should not call more than once
     @Override
     public void initialize() {
-        ServerBootstrap serverBootstrap = new ServerBootstrap()
-                .group(bossNioEventLoopGroup, workerNioEventLoopGroup)
-                .channel(NioServerSocketChannel.class)
+        ServerBootstrap serverBootstrap = transport.createServerBootstrap(bossNioEventLoopGroup, workerNioEventLoopGroup)
                 .childHandler(new ChannelInitializer<SocketChannel>() {
                     @Override
                     protected void initChannel(SocketChannel ch) throws Exception {
                         ChannelPipeline pipeline = ch.pipeline();
+                        pipeline.addLast(new FlushConsolidationHandler(FlushConsolidationHandler.DEFAULT_EXPLICIT_FLUSH_AFTER_FLUSHES, true));
                         pipeline.addLast(new NodeRpcMessageDecoder());
                         pipeline.addLast(new NodeRpcMessageEncoder());
-                        pipeline.addLast(new FromRemoteHandler(eventBus, inboundChannelGroup));
+                        pipeline.addLast(new FromRemoteHandler(dispatchers::get, inboundChannelGroup, compactEnabled));
                     }
                 });
-        logger.debug("raft-rpc server is serving at [{}]", this.serviceAddress.toString());
+        logger.debug("raft-rpc server is serving at [{}] with {} transport", this.serviceAddress.toString(), transport.getName());
         try {
             serverBootstrap.bind(serviceAddress).sync();
         } catch (InterruptedException e) {
@@ -92,11 +190,19 @@ public class NioConnector implements Connector {
 
     @Override
     public void sendRequestVote(@Nonnull RequestVoteRpc rpc, @Nonnull Collection<NodeEndpoint> destinationEndpoints) {
+        sendRequestVote(0, rpc, destinationEndpoints);
+    }
+
+    private void sendRequestVote(int groupId, RequestVoteRpc rpc, Collection<NodeEndpoint> destinationEndpoints) {
         Preconditions.checkNotNull(rpc);
         Preconditions.checkNotNull(destinationEndpoints);
         for (NodeEndpoint endpoint : destinationEndpoints) {
             logger.debug("send {} to node {}", rpc, endpoint.getId());
-            executorService.execute(() -> getChannel(endpoint).writeRequestVoteRpc(rpc));
+            try {
+                getChannel(groupId, endpoint).writeRequestVoteRpc(rpc);
+            } catch (Exception e) {
+                logException(e);
+            }
         }
     }
 
@@ -122,10 +228,18 @@ public class NioConnector implements Connector {
 
     @Override
     public void sendAppendEntries(@Nonnull AppendEntriesRpc rpc, @Nonnull NodeEndpoint destinationEndpoint) {
+        sendAppendEntries(0, rpc, destinationEndpoint);
+    }
+
+    private void sendAppendEntries(int groupId, AppendEntriesRpc rpc, NodeEndpoint destinationEndpoint) {
         Preconditions.checkNotNull(rpc);
         Preconditions.checkNotNull(destinationEndpoint);
         logger.debug("send {} to node {}", rpc, destinationEndpoint.getId());
-        executorService.execute(() -> getChannel(destinationEndpoint).writeAppendEntriesRpc(rpc));
+        try {
+            getChannel(groupId, destinationEndpoint).writeAppendEntriesRpc(rpc);
+        } catch (Exception e) {
+            logException(e);
+        }
     }
 
     @Override
@@ -142,11 +256,15 @@ public class NioConnector implements Connector {
 
     @Override
     public void sendInstallSnapshot(@Nonnull InstallSnapshotRpc rpc, @Nonnull NodeEndpoint destinationEndpoint) {
+        sendInstallSnapshot(0, rpc, destinationEndpoint);
+    }
+
+    private void sendInstallSnapshot(int groupId, InstallSnapshotRpc rpc, NodeEndpoint destinationEndpoint) {
         Preconditions.checkNotNull(rpc);
         Preconditions.checkNotNull(destinationEndpoint);
         logger.debug("send {} to node {}", rpc, destinationEndpoint.getId());
         try {
-            getChannel(destinationEndpoint).writeInstallSnapshotRpc(rpc);
+            getChannel(groupId, destinationEndpoint).writeInstallSnapshotRpc(rpc);
         } catch (Exception e) {
             logException(e);
         }
@@ -164,13 +282,42 @@ public class NioConnector implements Connector {
         }
     }
 
+    @Override
+    public void sendReadIndex(@Nonnull ReadIndexRpc rpc, @Nonnull NodeEndpoint destinationEndpoint) {
+        sendReadIndex(0, rpc, destinationEndpoint);
+    }
+
+    private void sendReadIndex(int groupId, ReadIndexRpc rpc, NodeEndpoint destinationEndpoint) {
+        Preconditions.checkNotNull(rpc);
+        Preconditions.checkNotNull(destinationEndpoint);
+        logger.debug("send {} to node {}", rpc, destinationEndpoint.getId());
+        try {
+            getChannel(groupId, destinationEndpoint).writeReadIndexRpc(rpc);
+        } catch (Exception e) {
+            logException(e);
+        }
+    }
+
+    @Override
+    public void replyReadIndex(@Nonnull ReadIndexResult result, @Nonnull ReadIndexRpcMessage rpcMessage) {
+        Preconditions.checkNotNull(result);
+        Preconditions.checkNotNull(rpcMessage);
+        logger.debug("reply {} to node {}", result, rpcMessage.getSourceNodeId());
+        try {
+            rpcMessage.getChannel().writeReadIndexResult(result);
+        } catch (Exception e) {
+            logException(e);
+        }
+    }
+
     @Override
     public void resetChannels() {
         inboundChannelGroup.closeAll();
     }
 
-    private Channel getChannel(NodeEndpoint endpoint) {
-        return outboundChannelGroup.getOrConnect(endpoint.getId(), endpoint.getAddress());
+    private NioChannel getChannel(int groupId, NodeEndpoint endpoint) {
+        NioChannel channel = outboundChannelGroup.getOrConnect(endpoint.getId(), endpoint.getAddress());
+        return groupId != 0 ? channel.forGroup(groupId) : channel;
     }
 
     @Override
@@ -184,4 +331,81 @@ public class NioConnector implements Connector {
         }
     }
 
+    /**
+     * Connector of raft group sharing {@link NioConnector}.
+     */
+    private class GroupConnector implements Connector {
+
+        private final int groupId;
+
+        GroupConnector(int groupId) {
+            this.groupId = groupId;
+        }
+
+        @Override
+        public void setMessageDispatcher(@Nonnull MessageDispatcher dispatcher) {
+            Preconditions.checkNotNull(dispatcher);
+            dispatchers.put(groupId, dispatcher);
+        }
+
+        @Override
+        public void initialize() {
+            // shared connector is initialized by owner
+        }
+
+        @Override
+        public void sendRequestVote(@Nonnull RequestVoteRpc rpc, @Nonnull Collection<NodeEndpoint> destinationEndpoints) {
+            NioConnector.this.sendRequestVote(groupId, rpc, destinationEndpoints);
+        }
+
+        @Override
+        public void replyRequestVote(@Nonnull RequestVoteResult result, @Nonnull RequestVoteRpcMessage rpcMessage) {
+            // channel of rpc message is bound to group
+            NioConnector.this.replyRequestVote(result, rpcMessage);
+        }
+
+        @Override
+        public void sendAppendEntries(@Nonnull AppendEntriesRpc rpc, @Nonnull NodeEndpoint destinationEndpoint) {
+            NioConnector.this.sendAppendEntries(groupId, rpc, destinationEndpoint);
+        }
+
+        @Override
+        public void replyAppendEntries(@Nonnull AppendEntriesResult result, @Nonnull AppendEntriesRpcMessage rpcMessage) {
+            NioConnector.this.replyAppendEntries(result, rpcMessage);
+        }
+
+        @Override
+        public void sendInstallSnapshot(@Nonnull InstallSnapshotRpc rpc, @Nonnull NodeEndpoint destinationEndpoint) {
+            NioConnector.this.sendInstallSnapshot(groupId, rpc, destinationEndpoint);
+        }
+
+        @Override
+        public void replyInstallSnapshot(@Nonnull InstallSnapshotResult result, @Nonnull InstallSnapshotRpcMessage rpcMessage) {
+            NioConnector.this.replyInstallSnapshot(result, rpcMessage);
+        }
+
+        @Override
+        public void sendReadIndex(@Nonnull ReadIndexRpc rpc, @Nonnull NodeEndpoint destinationEndpoint) {
+            NioConnector.this.sendReadIndex(groupId, rpc, destinationEndpoint);
+        }
+
+        @Override
+        public void replyReadIndex(@Nonnull ReadIndexResult result, @Nonnull ReadIndexRpcMessage rpcMessage) {
+            NioConnector.this.replyReadIndex(result, rpcMessage);
+        }
+
+        @Override
+        public void resetChannels() {
+            // connections are shared with other groups
+        }
+
+        @Override
+        public void close() {
+            logger.debug("close connector of group {}", groupId);
+            dispatchers.remove(groupId);
+            groupIds.remove(groupId);
+        }
+
+    }
+
 }
@@ -4,12 +4,16 @@ import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.ByteToMessageDecoder;
 
+import com.google.protobuf.CodedInputStream;
 import top.parak.kraft.core.Protos;
 import top.parak.kraft.core.log.entry.EntryFactory;
 import top.parak.kraft.core.node.NodeEndpoint;
 import top.parak.kraft.core.node.NodeId;
 import top.parak.kraft.core.rpc.message.*;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -23,6 +27,18 @@ import java.util.stream.Collectors;
  *   |   Message Type   |  Message Length  | Message Content  |
  *   +------------------+------------------+------------------+
  * </pre>
+ * <p>
+ * Message of raft group other than {@code 0} is decoded as {@link GroupMessage}.
+ * </p>
+ * <p>
+ * Messages in both legacy and compact format are decoded, distinguished by message type and fields,
+ * see {@link NodeRpcMessageEncoder}. Node id received at handshake is reused as the node id omitted
+ * in later messages.
+ * </p>
+ * <p>
+ * The message content is parsed from the buffer without copying, byte fields alias the buffer
+ * and are copied once when creating log entries and rpc.
+ * </p>
  *
  * @author KHighness
  * @since 2022-04-14
@@ -31,6 +47,10 @@ import java.util.stream.Collectors;
 public class NodeRpcMessageDecoder extends ByteToMessageDecoder {
 
     private final EntryFactory entryFactory = new EntryFactory();
+    /**
+     * Node id received at handshake, {@code null} if not received.
+     */
+    private NodeId handshakeId;
 
     @Override
     protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
@@ -38,70 +58,144 @@ public class NodeRpcMessageDecoder extends ByteToMessageDecoder {
         if (availableBytes < 8) return;
 
         in.markReaderIndex();
-        int messageType = in.readInt();
+        int frameType = in.readInt();
         int payloadLength = in.readInt();
         if (in.readableBytes() < payloadLength) {
             in.resetReaderIndex();
             return;
         }
 
-        byte[] payload = new byte[payloadLength];
-        in.readBytes(payload);
+        ByteBuffer payload = in.nioBuffer(in.readerIndex(), payloadLength);
+        in.skipBytes(payloadLength);
+        int groupId = frameType >>> MessageConstants.GROUP_ID_SHIFT;
+        Object msg = decode(frameType & MessageConstants.MSG_TYPE_MASK, payload, payloadLength, LegacyMessageIds.of(ctx.channel()));
+        if (msg != null) {
+            out.add(groupId != 0 ? new GroupMessage(groupId, msg) : msg);
+        }
+    }
+
+    private Object decode(int messageType, ByteBuffer payload, int payloadLength, LegacyMessageIds legacyMessageIds) throws IOException {
         switch (messageType) {
             case MessageConstants.MSG_TYPE_NODE_ID:
-                out.add(new NodeId(new String(payload)));
-                break;
+                byte[] nodeId = new byte[payloadLength];
+                payload.get(nodeId);
+                handshakeId = new NodeId(new String(nodeId, Charset.defaultCharset()));
+                return handshakeId;
+            case MessageConstants.MSG_TYPE_FEATURES:
+                return new Features(payload.getInt());
             case MessageConstants.MSG_TYPE_REQUEST_VOTE_RPC:
-                Protos.RequestVoteRpc protoRVRpc = Protos.RequestVoteRpc.parseFrom(payload);
+                Protos.RequestVoteRpc protoRVRpc = Protos.RequestVoteRpc.parseFrom(newInput(payload));
                 RequestVoteRpc rpc = new RequestVoteRpc();
                 rpc.setTerm(protoRVRpc.getTerm());
-                rpc.setCandidateId(new NodeId(protoRVRpc.getCandidateId()));
+                rpc.setCandidateId(toNodeId(protoRVRpc.getCandidateId()));
                 rpc.setLastLogIndex(protoRVRpc.getLastLogIndex());
                 rpc.setLastLogTerm(protoRVRpc.getLastLogTerm());
-                out.add(rpc);
-                break;
+                return rpc;
             case MessageConstants.MSG_TYPE_REQUEST_VOTE_RESULT:
-                Protos.RequestVoteResult protoRVResult = Protos.RequestVoteResult.parseFrom(payload);
-                out.add(new RequestVoteResult(protoRVResult.getTerm(), protoRVResult.getVoteGranted()));
-                break;
+                Protos.RequestVoteResult protoRVResult = Protos.RequestVoteResult.parseFrom(newInput(payload));
+                return new RequestVoteResult(protoRVResult.getTerm(), protoRVResult.getVoteGranted());
             case MessageConstants.MSG_TYPE_APPEND_ENTRIES_RPC:
-                Protos.AppendEntriesRpc protoAERpc = Protos.AppendEntriesRpc.parseFrom(payload);
+                Protos.AppendEntriesRpc protoAERpc = Protos.AppendEntriesRpc.parseFrom(newInput(payload));
                 AppendEntriesRpc aeRpc = new AppendEntriesRpc();
-                aeRpc.setMessageId(protoAERpc.getMessageId());
+                aeRpc.setMessageId(toMessageId(protoAERpc.getMessageId(), protoAERpc.getLegacyMessageId(), legacyMessageIds));
                 aeRpc.setTerm(protoAERpc.getTerm());
-                aeRpc.setLeaderId(new NodeId(protoAERpc.getLeaderId()));
+                aeRpc.setLeaderId(toNodeId(protoAERpc.getLeaderId()));
                 aeRpc.setLeaderCommit(protoAERpc.getLeaderCommit());
                 aeRpc.setPrevLogIndex(protoAERpc.getPrevLogIndex());
                 aeRpc.setPrevLogTerm(protoAERpc.getPrevLogTerm());
                 aeRpc.setEntries(protoAERpc.getEntriesList().stream().map(e ->
                         entryFactory.create(e.getKind(), e.getIndex(), e.getTerm(), e.getCommand().toByteArray())
                 ).collect(Collectors.toList()));
-                out.add(aeRpc);
-                break;
+                return aeRpc;
+            case MessageConstants.MSG_TYPE_APPEND_ENTRIES_HEARTBEAT:
+                AppendEntriesRpc heartbeat = new AppendEntriesRpc();
+                heartbeat.setMessageId(payload.getLong());
+                heartbeat.setTerm(payload.getInt());
+                heartbeat.setLeaderId(toNodeId(""));
+                heartbeat.setLeaderCommit(payload.getInt());
+                heartbeat.setPrevLogIndex(payload.getInt());
+                heartbeat.setPrevLogTerm(payload.getInt());
+                return heartbeat;
             case MessageConstants.MSG_TYPE_APPEND_ENTRIES_RESULT:
-                Protos.AppendEntriesResult protoAEResult = Protos.AppendEntriesResult.parseFrom(payload);
-                out.add(new AppendEntriesResult(protoAEResult.getRpcMessageId(), protoAEResult.getTerm(), protoAEResult.getSuccess()));
-                break;
+                Protos.AppendEntriesResult protoAEResult = Protos.AppendEntriesResult.parseFrom(newInput(payload));
+                return new AppendEntriesResult(
+                        toMessageId(protoAEResult.getRpcMessageId(), protoAEResult.getLegacyRpcMessageId(), legacyMessageIds),
+                        protoAEResult.getTerm(), protoAEResult.getSuccess(),
+                        protoAEResult.getConflictTerm(), protoAEResult.getConflictIndex());
+            case MessageConstants.MSG_TYPE_APPEND_ENTRIES_COMPACT_RESULT:
+                return new AppendEntriesResult(payload.getLong(), payload.getInt(), payload.get() != 0,
+                        payload.getInt(), payload.getInt());
             case MessageConstants.MSG_TYPE_INSTALL_SNAPSHOT_PRC:
-                Protos.InstallSnapshotRpc protoISRpc = Protos.InstallSnapshotRpc.parseFrom(payload);
+                Protos.InstallSnapshotRpc protoISRpc = Protos.InstallSnapshotRpc.parseFrom(newInput(payload));
                 InstallSnapshotRpc isRpc = new InstallSnapshotRpc();
+                isRpc.setMessageId(protoISRpc.getMessageId());
                 isRpc.setTerm(protoISRpc.getTerm());
-                isRpc.setLeaderId(new NodeId(protoISRpc.getLeaderId()));
+                isRpc.setLeaderId(toNodeId(protoISRpc.getLeaderId()));
                 isRpc.setLastIndex(protoISRpc.getLastIndex());
-                isRpc.setLastTerm(protoISRpc.getTerm());
+                isRpc.setLastTerm(protoISRpc.getLastTerm());
                 isRpc.setLastConfig(protoISRpc.getLastConfigList().stream().map(e ->
                         new NodeEndpoint(e.getId(), e.getHost(), e.getPort())
                 ).collect(Collectors.toSet()));
                 isRpc.setOffset(protoISRpc.getOffset());
                 isRpc.setData(protoISRpc.getData().toByteArray());
                 isRpc.setDone(protoISRpc.getDone());
-                out.add(isRpc);
-                break;
+                isRpc.setCodec(protoISRpc.getCodec());
+                return isRpc;
             case MessageConstants.MSG_TYPE_INSTALL_SNAPSHOT_RESULT:
-                Protos.InstallSnapshotResult protoISResult = Protos.InstallSnapshotResult.parseFrom(payload);
-                out.add(new InstallSnapshotResult(protoISResult.getTerm()));
-                break;
+                Protos.InstallSnapshotResult protoISResult = Protos.InstallSnapshotResult.parseFrom(newInput(payload));
+                return new InstallSnapshotResult(protoISResult.getRpcMessageId(), protoISResult.getTerm(),
+                        protoISResult.getOffset());
+            case MessageConstants.MSG_TYPE_READ_INDEX_RPC:
+                Protos.ReadIndexRpc protoRIRpc = Protos.ReadIndexRpc.parseFrom(newInput(payload));
+                return new ReadIndexRpc(toMessageId(protoRIRpc.getMessageId(), protoRIRpc.getLegacyMessageId(), legacyMessageIds));
+            case MessageConstants.MSG_TYPE_READ_INDEX_RESULT:
+                Protos.ReadIndexResult protoRIResult = Protos.ReadIndexResult.parseFrom(newInput(payload));
+                return new ReadIndexResult(
+                        toMessageId(protoRIResult.getRpcMessageId(), protoRIResult.getLegacyRpcMessageId(), legacyMessageIds),
+                        protoRIResult.getSuccess(), protoRIResult.getReadIndex());
+            default:
+                return null;
         }
     }
 
+    /**
+     * Get message id, int64 id in compact format, or string id in legacy format.
+     *
+     * @param messageId        int64 id, {@code 0} if not set
+     * @param legacyMessageId  string id, empty if not set
+     * @param legacyMessageIds legacy message ids of channel
+     * @return message id
+     */
+    private long toMessageId(long messageId, String legacyMessageId, LegacyMessageIds legacyMessageIds) {
+        return messageId != 0 ? messageId : legacyMessageIds.toId(legacyMessageId);
+    }
+
+    /**
+     * Get node id of value, the node id of handshake is reused.
+     *
+     * @param value value, empty if omitted as the node id of handshake
+     * @return node id
+     */
+    private NodeId toNodeId(String value) {
+        if (handshakeId != null && (value.isEmpty() || value.equals(handshakeId.getValue()))) {
+            return handshakeId;
+        }
+        if (value.isEmpty()) {
+            throw new IllegalStateException("node id omitted before handshake");
+        }
+        return new NodeId(value);
+    }
+
+    /**
+     * Create input aliasing the payload, byte fields must be copied before the buffer is released.
+     *
+     * @param payload payload
+     * @return input
+     */
+    private CodedInputStream newInput(ByteBuffer payload) {
+        CodedInputStream input = CodedInputStream.newInstance(payload);
+        input.enableAliasing(true);
+        return input;
+    }
+
 }
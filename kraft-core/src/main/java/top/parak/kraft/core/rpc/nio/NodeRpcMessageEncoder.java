@@ -1,17 +1,21 @@
 package top.parak.kraft.core.rpc.nio;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.MessageToByteEncoder;
+import io.netty.channel.DefaultFileRegion;
+import io.netty.handler.codec.MessageToMessageEncoder;
 
-import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
 import com.google.protobuf.MessageLite;
+import com.google.protobuf.UnsafeByteOperations;
+import com.google.protobuf.WireFormat;
 import top.parak.kraft.core.Protos;
 import top.parak.kraft.core.node.NodeId;
 import top.parak.kraft.core.rpc.message.*;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.List;
 import java.util.stream.Collectors;
 
 /**
@@ -24,39 +28,122 @@ import java.util.stream.Collectors;
  *   |   Message Type   |  Message Length  | Message Content  |
  *   +------------------+------------------+------------------+
  * </pre>
+ * <p>
+ * The high 16 bits of message type is the id of raft group, which is {@code 0} for the single group,
+ * see {@link MessageConstants#GROUP_ID_SHIFT}.
+ * </p>
+ * <p>
+ * The first message of connection is the id of node connecting, followed by the {@link Features} it supports.
+ * Messages are written in legacy format until compact format is negotiated, see {@link #setCompact(boolean)}.
+ * In compact format, message ids are written as int64 instead of string, node id equal to the node id of
+ * handshake is omitted, and heartbeat and append entries result are written in fixed-length binary without protobuf:
+ * </p>
+ * <pre>
+ *   heartbeat: | message id (8) | term (4) | leader commit (4) | prev log index (4) | prev log term (4) |
+ *   result:    | rpc message id (8) | term (4) | success (1) | conflict term (4) | conflict index (4) |
+ * </pre>
+ * <p>
+ * In legacy format, message id of result is written as the id in rpc, see {@link LegacyMessageIds}.
+ * </p>
+ * <p>
+ * The message content is written directly into a pooled buffer allocated with the exact size,
+ * and byte arrays of log entries and snapshot are wrapped without copying. Snapshot chunk in file
+ * is transferred from the file region.
+ * </p>
  *
  * @author KHighness
  * @since 2022-04-14
  * @email parakovo@gmail.com
  */
-class NodeRpcMessageEncoder extends MessageToByteEncoder<Object> {
+class NodeRpcMessageEncoder extends MessageToMessageEncoder<Object> {
+
+    /**
+     * Length of content of heartbeat.
+     */
+    static final int HEARTBEAT_LENGTH = 24;
+    /**
+     * Length of content of append entries result.
+     */
+    static final int APPEND_ENTRIES_RESULT_LENGTH = 21;
+
+    /**
+     * Length of content of features.
+     */
+    static final int FEATURES_LENGTH = 4;
+
+    /**
+     * Node id written at handshake, {@code null} if not written.
+     */
+    private NodeId handshakeId;
+    /**
+     * Whether to write in compact format, set in event loop of channel once negotiated.
+     */
+    private boolean compact = false;
+
+    /**
+     * Set whether to write in compact format.
+     * <p>
+     * It should be called in event loop of channel, and only after the remote node accepted compact format,
+     * messages written before are not affected.
+     * </p>
+     *
+     * @param compact whether to write in compact format
+     */
+    void setCompact(boolean compact) {
+        this.compact = compact;
+    }
+
+    boolean isCompact() {
+        return compact;
+    }
 
     @Override
-    protected void encode(ChannelHandlerContext ctx, Object msg, ByteBuf out) throws Exception {
+    protected void encode(ChannelHandlerContext ctx, Object msg, List<Object> out) throws Exception {
+        int groupId = 0;
+        if (msg instanceof GroupMessage) {
+            groupId = ((GroupMessage) msg).getGroupId();
+            msg = ((GroupMessage) msg).getMessage();
+        }
         if (msg instanceof NodeId) {
-            this.writeMessage(out, MessageConstants.MSG_TYPE_NODE_ID, ((NodeId) msg).getValue().getBytes());
+            handshakeId = (NodeId) msg;
+            out.add(this.writeMessage(ctx, MessageConstants.MSG_TYPE_NODE_ID, handshakeId.getValue().getBytes()));
+        } else if (msg instanceof Features) {
+            ByteBuf buf = ctx.alloc().ioBuffer(8 + FEATURES_LENGTH);
+            buf.writeInt(MessageConstants.MSG_TYPE_FEATURES);
+            buf.writeInt(FEATURES_LENGTH);
+            buf.writeInt(((Features) msg).getFlags());
+            out.add(buf);
         } else if (msg instanceof RequestVoteRpc) {
             RequestVoteRpc rpc = (RequestVoteRpc) msg;
             Protos.RequestVoteRpc protoRpc = Protos.RequestVoteRpc.newBuilder()
                     .setTerm(rpc.getTerm())
-                    .setCandidateId(rpc.getCandidateId().getValue())
+                    .setCandidateId(toNodeIdValue(rpc.getCandidateId()))
                     .setLastLogIndex(rpc.getLastLogIndex())
                     .setLastLogTerm(rpc.getLastLogTerm())
                     .build();
-            this.writeMessage(out, MessageConstants.MSG_TYPE_REQUEST_VOTE_RPC, protoRpc);
+            out.add(this.writeMessage(ctx, groupId, MessageConstants.MSG_TYPE_REQUEST_VOTE_RPC, protoRpc));
         } else if (msg instanceof RequestVoteResult) {
             RequestVoteResult result = (RequestVoteResult) msg;
             Protos.RequestVoteResult protoResult = Protos.RequestVoteResult.newBuilder()
                     .setTerm(result.getTerm())
                     .setVoteGranted(result.isVoteGranted())
                     .build();
-            this.writeMessage(out, MessageConstants.MSG_TYPE_REQUEST_VOTE_RESULT, protoResult);
+            out.add(this.writeMessage(ctx, groupId, MessageConstants.MSG_TYPE_REQUEST_VOTE_RESULT, protoResult));
         } else if (msg instanceof AppendEntriesRpc) {
             AppendEntriesRpc rpc = (AppendEntriesRpc) msg;
-            Protos.AppendEntriesRpc protoRpc = Protos.AppendEntriesRpc.newBuilder()
-                    .setMessageId(rpc.getMessageId())
+            if (compact && rpc.getEntries().isEmpty() && rpc.getLeaderId().equals(handshakeId)) {
+                out.add(this.writeHeartbeat(ctx, groupId, rpc));
+                return;
+            }
+            Protos.AppendEntriesRpc.Builder protoRpcBuilder = Protos.AppendEntriesRpc.newBuilder();
+            if (compact) {
+                protoRpcBuilder.setMessageId(rpc.getMessageId());
+            } else {
+                protoRpcBuilder.setLegacyMessageId(Long.toString(rpc.getMessageId()));
+            }
+            Protos.AppendEntriesRpc protoRpc = protoRpcBuilder
                     .setTerm(rpc.getTerm())
-                    .setLeaderId(rpc.getLeaderId().getValue())
+                    .setLeaderId(toNodeIdValue(rpc.getLeaderId()))
                     .setLeaderCommit(rpc.getLeaderCommit())
                     .setPrevLogIndex(rpc.getPrevLogIndex())
                     .setPrevLogTerm(rpc.getPrevLogTerm())
@@ -66,62 +153,213 @@ class NodeRpcMessageEncoder extends MessageToByteEncoder<Object> {
                                             .setKind(e.getKind())
                                             .setIndex(e.getIndex())
                                             .setTerm(e.getTerm())
-                                            .setCommand(ByteString.copyFrom(e.getCommandBytes()))
+                                            .setCommand(UnsafeByteOperations.unsafeWrap(e.getCommandBytes()))
                                             .build()
                             ).collect(Collectors.toList())
                     ).build();
-            this.writeMessage(out, MessageConstants.MSG_TYPE_APPEND_ENTRIES_RPC, protoRpc);
+            out.add(this.writeMessage(ctx, groupId, MessageConstants.MSG_TYPE_APPEND_ENTRIES_RPC, protoRpc));
         } else if (msg instanceof AppendEntriesResult) {
             AppendEntriesResult result = (AppendEntriesResult) msg;
+            if (compact) {
+                out.add(this.writeAppendEntriesResult(ctx, groupId, result));
+                return;
+            }
             Protos.AppendEntriesResult protoResult = Protos.AppendEntriesResult.newBuilder()
-                    .setRpcMessageId(result.getRpcMessageId())
+                    .setLegacyRpcMessageId(LegacyMessageIds.of(ctx.channel()).toLegacyId(result.getRpcMessageId()))
                     .setTerm(result.getTerm())
                     .setSuccess(result.isSuccess())
+                    .setConflictTerm(result.getConflictTerm())
+                    .setConflictIndex(result.getConflictIndex())
                     .build();
-            this.writeMessage(out, MessageConstants.MSG_TYPE_APPEND_ENTRIES_RESULT, protoResult);
+            out.add(this.writeMessage(ctx, groupId, MessageConstants.MSG_TYPE_APPEND_ENTRIES_RESULT, protoResult));
         } else if (msg instanceof InstallSnapshotRpc) {
             InstallSnapshotRpc rpc = (InstallSnapshotRpc) msg;
-            Protos.InstallSnapshotRpc protoRpc = Protos.InstallSnapshotRpc.newBuilder()
+            Protos.InstallSnapshotRpc.Builder protoRpcBuilder = Protos.InstallSnapshotRpc.newBuilder()
+                    .setMessageId(rpc.getMessageId())
                     .setTerm(rpc.getTerm())
-                    .setLeaderId(rpc.getLeaderId().getValue())
+                    .setLeaderId(toNodeIdValue(rpc.getLeaderId()))
                     .setLastIndex(rpc.getLastIndex())
                     .setLastTerm(rpc.getLastTerm())
-                    .addAllLastConfig(
-                            rpc.getLastConfig().stream().map(e ->
-                                    Protos.NodeEndpoint.newBuilder()
-                                            .setId(e.getId().getValue())
-                                            .setHost(e.getHost())
-                                            .setPort(e.getPort())
-                                            .build()
-                            ).collect(Collectors.toList()))
                     .setOffset(rpc.getOffset())
-                    .setData(ByteString.copyFrom(rpc.getData()))
-                    .setDone(rpc.isDone()).build();
-            this.writeMessage(out, MessageConstants.MSG_TYPE_INSTALL_SNAPSHOT_PRC, protoRpc);
+                    .setDone(rpc.isDone())
+                    .setCodec(rpc.getCodec());
+            // only the first chunk carries last config
+            if (rpc.getLastConfig() != null) {
+                protoRpcBuilder.addAllLastConfig(
+                        rpc.getLastConfig().stream().map(e ->
+                                Protos.NodeEndpoint.newBuilder()
+                                        .setId(e.getId().getValue())
+                                        .setHost(e.getHost())
+                                        .setPort(e.getPort())
+                                        .build()
+                        ).collect(Collectors.toList()));
+            }
+            if (rpc.getDataFile() != null) {
+                this.writeInstallSnapshotRpc(ctx, groupId, protoRpcBuilder.build(), rpc, out);
+            } else {
+                if (rpc.getData() != null) {
+                    protoRpcBuilder.setData(UnsafeByteOperations.unsafeWrap(rpc.getData()));
+                }
+                out.add(this.writeMessage(ctx, groupId, MessageConstants.MSG_TYPE_INSTALL_SNAPSHOT_PRC, protoRpcBuilder.build()));
+            }
         } else if (msg instanceof InstallSnapshotResult) {
             InstallSnapshotResult result = (InstallSnapshotResult) msg;
             Protos.InstallSnapshotResult protoResult = Protos.InstallSnapshotResult.newBuilder()
-                    .setTerm(result.getTerm()).build();
-            this.writeMessage(out, MessageConstants.MSG_TYPE_INSTALL_SNAPSHOT_RESULT, protoResult);
+                    .setRpcMessageId(result.getRpcMessageId())
+                    .setTerm(result.getTerm())
+                    .setOffset(result.getOffset())
+                    .build();
+            out.add(this.writeMessage(ctx, groupId, MessageConstants.MSG_TYPE_INSTALL_SNAPSHOT_RESULT, protoResult));
+        } else if (msg instanceof ReadIndexRpc) {
+            ReadIndexRpc rpc = (ReadIndexRpc) msg;
+            Protos.ReadIndexRpc.Builder protoRpcBuilder = Protos.ReadIndexRpc.newBuilder();
+            if (compact) {
+                protoRpcBuilder.setMessageId(rpc.getMessageId());
+            } else {
+                protoRpcBuilder.setLegacyMessageId(Long.toString(rpc.getMessageId()));
+            }
+            Protos.ReadIndexRpc protoRpc = protoRpcBuilder.build();
+            out.add(this.writeMessage(ctx, groupId, MessageConstants.MSG_TYPE_READ_INDEX_RPC, protoRpc));
+        } else if (msg instanceof ReadIndexResult) {
+            ReadIndexResult result = (ReadIndexResult) msg;
+            Protos.ReadIndexResult.Builder protoResultBuilder = Protos.ReadIndexResult.newBuilder();
+            if (compact) {
+                protoResultBuilder.setRpcMessageId(result.getRpcMessageId());
+            } else {
+                protoResultBuilder.setLegacyRpcMessageId(LegacyMessageIds.of(ctx.channel()).toLegacyId(result.getRpcMessageId()));
+            }
+            Protos.ReadIndexResult protoResult = protoResultBuilder
+                    .setSuccess(result.isSuccess())
+                    .setReadIndex(result.getReadIndex())
+                    .build();
+            out.add(this.writeMessage(ctx, groupId, MessageConstants.MSG_TYPE_READ_INDEX_RESULT, protoResult));
+        }
+    }
+
+    /**
+     * Write append entries rpc without entries, leader id is the node id of handshake.
+     *
+     * @param ctx     context
+     * @param groupId id of raft group
+     * @param rpc     rpc
+     * @return buffer
+     */
+    private ByteBuf writeHeartbeat(ChannelHandlerContext ctx, int groupId, AppendEntriesRpc rpc) {
+        ByteBuf buf = ctx.alloc().ioBuffer(8 + HEARTBEAT_LENGTH);
+        buf.writeInt(toFrameType(groupId, MessageConstants.MSG_TYPE_APPEND_ENTRIES_HEARTBEAT));
+        buf.writeInt(HEARTBEAT_LENGTH);
+        buf.writeLong(rpc.getMessageId());
+        buf.writeInt(rpc.getTerm());
+        buf.writeInt(rpc.getLeaderCommit());
+        buf.writeInt(rpc.getPrevLogIndex());
+        buf.writeInt(rpc.getPrevLogTerm());
+        return buf;
+    }
+
+    /**
+     * Write append entries result in fixed-length binary.
+     *
+     * @param ctx     context
+     * @param groupId id of raft group
+     * @param result  result
+     * @return buffer
+     */
+    private ByteBuf writeAppendEntriesResult(ChannelHandlerContext ctx, int groupId, AppendEntriesResult result) {
+        ByteBuf buf = ctx.alloc().ioBuffer(8 + APPEND_ENTRIES_RESULT_LENGTH);
+        buf.writeInt(toFrameType(groupId, MessageConstants.MSG_TYPE_APPEND_ENTRIES_COMPACT_RESULT));
+        buf.writeInt(APPEND_ENTRIES_RESULT_LENGTH);
+        buf.writeLong(result.getRpcMessageId());
+        buf.writeInt(result.getTerm());
+        buf.writeBoolean(result.isSuccess());
+        buf.writeInt(result.getConflictTerm());
+        buf.writeInt(result.getConflictIndex());
+        return buf;
+    }
+
+    /**
+     * Get value of node id to write, empty if equal to the node id of handshake in compact format.
+     *
+     * @param nodeId node id
+     * @return value
+     */
+    private String toNodeIdValue(NodeId nodeId) {
+        return compact && nodeId.equals(handshakeId) ? "" : nodeId.getValue();
+    }
+
+    private ByteBuf writeMessage(ChannelHandlerContext ctx, int groupId, int messageType, MessageLite message) throws IOException {
+        int length = message.getSerializedSize();
+        ByteBuf buf = ctx.alloc().ioBuffer(8 + length);
+        try {
+            buf.writeInt(toFrameType(groupId, messageType));
+            buf.writeInt(length);
+            if (buf.nioBufferCount() == 1) {
+                // write to the memory of buffer directly
+                CodedOutputStream output = CodedOutputStream.newInstance(buf.nioBuffer(buf.writerIndex(), length));
+                message.writeTo(output);
+                output.checkNoSpaceLeft();
+                buf.writerIndex(buf.writerIndex() + length);
+            } else {
+                CodedOutputStream output = CodedOutputStream.newInstance(new ByteBufOutputStream(buf), length);
+                message.writeTo(output);
+                output.flush();
+            }
+            return buf;
+        } catch (IOException | RuntimeException e) {
+            buf.release();
+            throw e;
         }
     }
 
-    private void writeMessage(ByteBuf out, int messageType, MessageLite message) throws IOException {
-        ByteArrayOutputStream byteOutput = new ByteArrayOutputStream();
-        message.writeTo(byteOutput);
-        out.writeInt(messageType);
-        this.writeBytes(out, byteOutput.toByteArray());
+    /**
+     * Write install snapshot rpc whose chunk is a region of file.
+     * <p>
+     * The message without data is written to buffer, followed by the tag and length of data field,
+     * and the data is transferred from file by {@link DefaultFileRegion}, which uses {@code sendfile}
+     * if the transport supports. Fields of protobuf message can be in any order, so the decoder
+     * parses the message as usual.
+     * </p>
+     *
+     * @param ctx      context
+     * @param groupId  id of raft group
+     * @param protoRpc message without data
+     * @param rpc      rpc
+     * @param out      output
+     * @throws IOException if failed to write
+     */
+    private void writeInstallSnapshotRpc(ChannelHandlerContext ctx, int groupId, Protos.InstallSnapshotRpc protoRpc,
+                                         InstallSnapshotRpc rpc, List<Object> out) throws IOException {
+        int dataLength = rpc.getDataLength();
+        int headerLength = protoRpc.getSerializedSize() +
+                CodedOutputStream.computeTagSize(Protos.InstallSnapshotRpc.DATA_FIELD_NUMBER) +
+                CodedOutputStream.computeUInt32SizeNoTag(dataLength);
+        ByteBuf buf = ctx.alloc().ioBuffer(8 + headerLength);
+        try {
+            buf.writeInt(toFrameType(groupId, MessageConstants.MSG_TYPE_INSTALL_SNAPSHOT_PRC));
+            buf.writeInt(headerLength + dataLength);
+            CodedOutputStream output = CodedOutputStream.newInstance(new ByteBufOutputStream(buf), headerLength);
+            protoRpc.writeTo(output);
+            output.writeTag(Protos.InstallSnapshotRpc.DATA_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            output.writeUInt32NoTag(dataLength);
+            output.flush();
+        } catch (IOException | RuntimeException e) {
+            buf.release();
+            throw e;
+        }
+        out.add(buf);
+        out.add(new DefaultFileRegion(rpc.getDataFile(), rpc.getDataPosition(), dataLength));
     }
 
-    private void writeMessage(ByteBuf out, int messageType, byte[] bytes) {
+    private ByteBuf writeMessage(ChannelHandlerContext ctx, int messageType, byte[] bytes) {
         // 4 + 4 + VAR
-        out.writeInt(messageType);
-        this.writeBytes(out, bytes);
+        ByteBuf buf = ctx.alloc().ioBuffer(8 + bytes.length);
+        buf.writeInt(messageType);
+        buf.writeInt(bytes.length);
+        buf.writeBytes(bytes);
+        return buf;
     }
 
-    private void writeBytes(ByteBuf out, byte[] bytes) {
-        out.writeInt(bytes.length);
-        out.writeBytes(bytes);
+    private int toFrameType(int groupId, int messageType) {
+        return (groupId << MessageConstants.GROUP_ID_SHIFT) | messageType;
     }
 
 }
@@ -1,21 +1,24 @@
 package top.parak.kraft.core.rpc.nio;
 
-import com.google.common.eventbus.EventBus;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.*;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.flush.FlushConsolidationHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import top.parak.kraft.core.node.NodeId;
 import top.parak.kraft.core.rpc.Address;
-import top.parak.kraft.core.rpc.ChannelConnectException;
-import top.parak.kraft.core.rpc.ChannelException;
+import top.parak.kraft.core.rpc.MessageDispatcher;
+import top.parak.kraft.core.support.metrics.Histogram;
 
 import javax.annotation.concurrent.ThreadSafe;
-import java.net.ConnectException;
-import java.util.concurrent.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.IntSupplier;
 
 /**
  * The container to manage outbound channels (channels to remote channels).
@@ -28,94 +31,131 @@ import java.util.concurrent.*;
 class OutboundChannelGroup {
 
     private static final Logger logger = LoggerFactory.getLogger(OutboundChannelGroup.class);
+    private final Transport transport;
     private final EventLoopGroup workerGroup;
-    private final EventBus eventBus;
+    private final IntFunction<MessageDispatcher> dispatchers;
     private final NodeId selfId;
     private final int connectTimeoutMillis;
-    private final ConcurrentMap<NodeId, Future<NioChannel>> channelMap = new ConcurrentHashMap<>();
+    private final Function<NodeId, Histogram> rttHistograms;
+    private final BooleanSupplier compactEnabled;
+    private final IntSupplier replicationInflight;
+    private final ConcurrentMap<NodeId, NioChannel> channelMap = new ConcurrentHashMap<>();
 
     /**
      * Create OutboundChannelGroup.
      *
-     * @param workerGroup            worker group
-     * @param eventBus               event-bus
+     * @param transport              transport of channels
+     * @param workerGroup            worker group created by transport
+     * @param dispatchers            message dispatcher of raft group by group id
      * @param selfId                 self id
      * @param logReplicationInterval log replication interval
+     * @param rttHistograms          round-trip time histogram of append entries rpc by remote node id
      */
-    OutboundChannelGroup(EventLoopGroup workerGroup, EventBus eventBus, NodeId selfId, int logReplicationInterval) {
+    OutboundChannelGroup(Transport transport, EventLoopGroup workerGroup, IntFunction<MessageDispatcher> dispatchers, NodeId selfId,
+                         int logReplicationInterval, Function<NodeId, Histogram> rttHistograms) {
+        this(transport, workerGroup, dispatchers, selfId, logReplicationInterval, rttHistograms, () -> false);
+    }
+
+    /**
+     * Create OutboundChannelGroup.
+     *
+     * @param transport              transport of channels
+     * @param workerGroup            worker group created by transport
+     * @param dispatchers            message dispatcher of raft group by group id
+     * @param selfId                 self id
+     * @param logReplicationInterval log replication interval
+     * @param rttHistograms          round-trip time histogram of append entries rpc by remote node id
+     * @param compactEnabled         whether to ask for compact format when connected
+     */
+    OutboundChannelGroup(Transport transport, EventLoopGroup workerGroup, IntFunction<MessageDispatcher> dispatchers, NodeId selfId,
+                         int logReplicationInterval, Function<NodeId, Histogram> rttHistograms, BooleanSupplier compactEnabled) {
+        this(transport, workerGroup, dispatchers, selfId, logReplicationInterval, rttHistograms, compactEnabled, () -> 1);
+    }
+
+    /**
+     * Create OutboundChannelGroup.
+     *
+     * @param transport              transport of channels
+     * @param workerGroup            worker group created by transport
+     * @param dispatchers            message dispatcher of raft group by group id
+     * @param selfId                 self id
+     * @param logReplicationInterval log replication interval
+     * @param rttHistograms          round-trip time histogram of append entries rpc by remote node id
+     * @param compactEnabled         whether to ask for compact format when connected
+     * @param replicationInflight    max in-flight append entries rpc of each raft group
+     */
+    OutboundChannelGroup(Transport transport, EventLoopGroup workerGroup, IntFunction<MessageDispatcher> dispatchers, NodeId selfId,
+                         int logReplicationInterval, Function<NodeId, Histogram> rttHistograms, BooleanSupplier compactEnabled,
+                         IntSupplier replicationInflight) {
+        this.transport = transport;
         this.workerGroup = workerGroup;
-        this.eventBus = eventBus;
+        this.dispatchers = dispatchers;
         this.selfId = selfId;
         this.connectTimeoutMillis = logReplicationInterval / 2;
+        this.rttHistograms = rttHistograms;
+        this.compactEnabled = compactEnabled;
+        this.replicationInflight = replicationInflight;
     }
 
     /**
      * Get channel to remote node.
-     * If channel doesn't exist, it will be created.
+     * If channel doesn't exist, it will be created without waiting for connection.
+     * <p>
+     * Messages written before connected are queued, and dropped if failed to connect.
+     * </p>
      *
      * @param nodeId  id of remote node
      * @param address address of remote node
      * @return nio channel to remote node
      */
     NioChannel getOrConnect(NodeId nodeId, Address address) {
-        Future<NioChannel> future = channelMap.get(nodeId);
-        if (future == null) {
-            FutureTask<NioChannel> newFuture = new FutureTask<>(() -> connect(nodeId, address));
-            future = channelMap.putIfAbsent(nodeId, newFuture);
-            if (future == null) {
-                future = newFuture;
-                newFuture.run();
-            }
-        }
-        try {
-            return future.get();
-        } catch (Exception e) {
-            channelMap.remove(nodeId);
-            if (e instanceof ExecutionException) {
-                Throwable cause = e.getCause();
-                if (cause instanceof ConnectException) {
-                    throw new ChannelConnectException("failed to get channel to node " + nodeId +
-                            ", cause " + cause.getMessage(), cause);
-                }
-            }
-            throw new ChannelException("failed to get channel to node " + nodeId, e);
-        }
+        return channelMap.computeIfAbsent(nodeId, id -> connect(id, address));
     }
 
     /**
-     * Connect to remote node and return the channel.
+     * Start to connect to remote node and return the channel.
      *
      * @param nodeId  id of remote node
      * @param address address of remote node
      * @return nio channel to remote node
-     * @throws InterruptedException if interrupted
      */
-    private NioChannel connect(NodeId nodeId, Address address) throws InterruptedException {
-        Bootstrap bootstrap = new Bootstrap()
-                .group(workerGroup)
-                .channel(NioSocketChannel.class)
-                .option(ChannelOption.TCP_NODELAY, true)
+    private NioChannel connect(NodeId nodeId, Address address) {
+        Bootstrap bootstrap = transport.createBootstrap(workerGroup)
                 .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMillis)
                 .handler(new ChannelInitializer<SocketChannel>() {
                     @Override
                     protected void initChannel(SocketChannel ch) throws Exception {
                         ChannelPipeline pipeline = ch.pipeline();
+                        pipeline.addLast(new FlushConsolidationHandler(FlushConsolidationHandler.DEFAULT_EXPLICIT_FLUSH_AFTER_FLUSHES, true));
                         pipeline.addLast(new NodeRpcMessageDecoder());
                         pipeline.addLast(new NodeRpcMessageEncoder());
-                        pipeline.addLast(new ToRemoteHandler(eventBus, nodeId, selfId));
+                        pipeline.addLast(new ToRemoteHandler(dispatchers, nodeId, selfId, rttHistograms.apply(nodeId),
+                                replicationInflight.getAsInt()));
                     }
                 });
-        ChannelFuture future = bootstrap.connect(address.getHost(), address.getPort()).sync();
-        if (!future.isSuccess()) {
-            throw new ChannelException("failed to connect", future.cause());
-        }
-        logger.debug("channel OUTBOUND-{} connected", nodeId);
-        Channel nettyChannel = future.channel();
+        ChannelFuture connectFuture = bootstrap.connect(address.getHost(), address.getPort());
+        Channel nettyChannel = connectFuture.channel();
+        NioChannel channel = new NioChannel(nettyChannel, connectFuture);
+        // added before any message queued, so self id and features are written first
+        connectFuture.addListener((ChannelFutureListener) cf -> {
+            if (cf.isSuccess()) {
+                logger.debug("channel OUTBOUND-{} connected", nodeId);
+                nettyChannel.write(selfId);
+                if (compactEnabled.getAsBoolean()) {
+                    nettyChannel.write(new Features(Features.COMPACT));
+                }
+                // flushed without waiting for messages, so features are negotiated once connected
+                nettyChannel.flush();
+            } else {
+                logger.warn("failed to get channel to node {}, cause {}", nodeId, cf.cause().getMessage());
+                channelMap.remove(nodeId, channel);
+            }
+        });
         nettyChannel.closeFuture().addListener((ChannelFutureListener) cf -> {
             logger.debug("channel OUTBOUND-{} disconnected", nodeId);
-            channelMap.remove(nodeId);
+            channelMap.remove(nodeId, channel);
         });
-        return new NioChannel(nettyChannel);
+        return channel;
     }
 
     /**
@@ -123,9 +163,9 @@ class OutboundChannelGroup {
      */
     void closeAll() {
         logger.debug("close all outbound channels");
-        channelMap.forEach((nodeId, nioChannelFuture) -> {
+        channelMap.forEach((nodeId, nioChannel) -> {
             try {
-                nioChannelFuture.get().close();
+                nioChannel.close();
             } catch (Exception e) {
                 logger.warn("failed to close", e);
             }
@@ -1,11 +1,14 @@
 package top.parak.kraft.core.rpc.nio;
 
-import com.google.common.eventbus.EventBus;
 import io.netty.channel.ChannelHandlerContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import top.parak.kraft.core.node.NodeId;
+import top.parak.kraft.core.rpc.MessageDispatcher;
+import top.parak.kraft.core.support.metrics.Histogram;
+
+import java.util.function.IntFunction;
 
 /**
  * Netty Handler to connect remote node.
@@ -22,24 +25,34 @@ class ToRemoteHandler extends AbstractHandler {
     /**
      * Create ToRemoteHandler.
      *
-     * @param eventBus event-bus
-     * @param remoteId id of remote node
-     * @param selfId   self id
+     * @param dispatchers message dispatcher of raft group by group id
+     * @param remoteId   id of remote node
+     * @param selfId     self id
+     * @param rttHistogram round-trip time histogram of append entries rpc to remote node
+     * @param replicationInflight max in-flight append entries rpc of each raft group
      */
-    ToRemoteHandler(EventBus eventBus, NodeId remoteId, NodeId selfId) {
-        super(eventBus);
+    ToRemoteHandler(IntFunction<MessageDispatcher> dispatchers, NodeId remoteId, NodeId selfId, Histogram rttHistogram,
+                    int replicationInflight) {
+        super(dispatchers, replicationInflight);
         this.remoteId = remoteId;
         this.selfId = selfId;
+        this.appendEntriesRttHistogram = rttHistogram;
     }
 
     @Override
     public void channelActive(ChannelHandlerContext ctx) {
-        ctx.write(selfId);
+        // self id and features are written by OutboundChannelGroup once connected
         channel = new NioChannel(ctx.channel());
     }
 
     @Override
     public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        if (msg instanceof Features) {
+            // features accepted by remote node
+            logger.debug("receive {} from {}", msg, remoteId);
+            ctx.pipeline().get(NodeRpcMessageEncoder.class).setCompact(((Features) msg).isCompact());
+            return;
+        }
         logger.debug("receive {} from {}", msg, remoteId);
         super.channelRead(ctx, msg);
     }
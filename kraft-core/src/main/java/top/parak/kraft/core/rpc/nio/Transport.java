@@ -0,0 +1,251 @@
+package top.parak.kraft.core.rpc.nio;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import top.parak.kraft.core.node.config.NodeConfig;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Transport of netty channels, including event loop group, channel classes and socket options.
+ * <p>
+ * Native epoll transport is used if {@code netty-transport-native-epoll} with classifier of platform is
+ * in class path and available, which is looked up by reflection, otherwise nio transport is used.
+ * </p>
+ * <p>
+ * Channels should be created with event loop group created by the same transport.
+ * </p>
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+@Immutable
+public class Transport {
+
+    private static final Logger logger = LoggerFactory.getLogger(Transport.class);
+
+    /**
+     * Select epoll if available, otherwise nio.
+     */
+    public static final String AUTO = "auto";
+    public static final String NIO = "nio";
+    public static final String EPOLL = "epoll";
+
+    private static final String EPOLL_PACKAGE = "io.netty.channel.epoll.";
+    private static final boolean EPOLL_AVAILABLE = checkEpollAvailable();
+
+    private final boolean epoll;
+    private final int socketSendBufferSize;
+    private final int socketReceiveBufferSize;
+    private final int writeBufferLowWaterMark;
+    private final int writeBufferHighWaterMark;
+    private final int epollBusyPollMicros;
+
+    private Transport(boolean epoll, NodeConfig config) {
+        this.epoll = epoll;
+        this.socketSendBufferSize = config.getSocketSendBufferSize();
+        this.socketReceiveBufferSize = config.getSocketReceiveBufferSize();
+        this.writeBufferLowWaterMark = config.getWriteBufferLowWaterMark();
+        this.writeBufferHighWaterMark = config.getWriteBufferHighWaterMark();
+        this.epollBusyPollMicros = config.getEpollBusyPollMicros();
+    }
+
+    /**
+     * Create nio transport with default socket options.
+     *
+     * @return transport
+     */
+    @Nonnull
+    public static Transport nio() {
+        return nio(new NodeConfig());
+    }
+
+    /**
+     * Create nio transport with socket options in config, regardless of the transport in config.
+     *
+     * @param config config
+     * @return transport
+     */
+    @Nonnull
+    public static Transport nio(@Nonnull NodeConfig config) {
+        return new Transport(false, config);
+    }
+
+    /**
+     * Create transport in config, fallback to nio if epoll is not available.
+     *
+     * @param config config
+     * @return transport
+     * @throws IllegalArgumentException if transport in config is unknown
+     */
+    @Nonnull
+    public static Transport create(@Nonnull NodeConfig config) {
+        String name = config.getTransport();
+        switch (name) {
+            case NIO:
+                return nio(config);
+            case AUTO:
+                logger.debug("epoll transport {}available", EPOLL_AVAILABLE ? "" : "not ");
+                return new Transport(EPOLL_AVAILABLE, config);
+            case EPOLL:
+                if (!EPOLL_AVAILABLE) {
+                    logger.warn("epoll transport not available, fallback to nio");
+                }
+                return new Transport(EPOLL_AVAILABLE, config);
+            default:
+                throw new IllegalArgumentException("unknown transport [" + name + "]");
+        }
+    }
+
+    /**
+     * Check if native epoll transport is available.
+     *
+     * @return true if available, otherwise false
+     */
+    public static boolean isEpollAvailable() {
+        return EPOLL_AVAILABLE;
+    }
+
+    private static boolean checkEpollAvailable() {
+        try {
+            return (Boolean) Class.forName(EPOLL_PACKAGE + "Epoll").getMethod("isAvailable").invoke(null);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Get name of transport, {@link #NIO} or {@link #EPOLL}.
+     *
+     * @return name
+     */
+    @Nonnull
+    public String getName() {
+        return epoll ? EPOLL : NIO;
+    }
+
+    /**
+     * Create event loop group.
+     *
+     * @param threads count of threads, {@code 0} to use default count of netty
+     * @return event loop group
+     */
+    @Nonnull
+    public EventLoopGroup createEventLoopGroup(int threads) {
+        if (!epoll) {
+            return new NioEventLoopGroup(threads);
+        }
+        try {
+            return loadEpollClass("EpollEventLoopGroup", EventLoopGroup.class).getConstructor(int.class).newInstance(threads);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("failed to create epoll event loop group", e);
+        }
+    }
+
+    /**
+     * Create bootstrap of client channels with socket options.
+     *
+     * @param group event loop group created by this transport
+     * @return bootstrap
+     */
+    @Nonnull
+    public Bootstrap createBootstrap(@Nonnull EventLoopGroup group) {
+        Bootstrap bootstrap = new Bootstrap()
+                .group(group)
+                .channel(epoll ? loadEpollClass("EpollSocketChannel", Channel.class) : NioSocketChannel.class)
+                .option(ChannelOption.TCP_NODELAY, true);
+        if (socketSendBufferSize > 0) {
+            bootstrap.option(ChannelOption.SO_SNDBUF, socketSendBufferSize);
+        }
+        if (socketReceiveBufferSize > 0) {
+            bootstrap.option(ChannelOption.SO_RCVBUF, socketReceiveBufferSize);
+        }
+        if (writeBufferHighWaterMark > 0) {
+            bootstrap.option(ChannelOption.WRITE_BUFFER_WATER_MARK, createWriteBufferWaterMark());
+        }
+        if (epoll && epollBusyPollMicros > 0) {
+            bootstrap.option(getBusyPollOption(), epollBusyPollMicros);
+        }
+        return bootstrap;
+    }
+
+    /**
+     * Create bootstrap of server channel with socket options of accepted channels.
+     *
+     * @param bossGroup   event loop group to accept, created by this transport
+     * @param workerGroup event loop group of accepted channels, created by this transport
+     * @return server bootstrap
+     */
+    @Nonnull
+    public ServerBootstrap createServerBootstrap(@Nonnull EventLoopGroup bossGroup, @Nonnull EventLoopGroup workerGroup) {
+        ServerBootstrap serverBootstrap = new ServerBootstrap()
+                .group(bossGroup, workerGroup)
+                .channel(epoll ? loadEpollClass("EpollServerSocketChannel", ServerChannel.class) : NioServerSocketChannel.class)
+                .childOption(ChannelOption.TCP_NODELAY, true);
+        if (socketSendBufferSize > 0) {
+            serverBootstrap.childOption(ChannelOption.SO_SNDBUF, socketSendBufferSize);
+        }
+        if (socketReceiveBufferSize > 0) {
+            // window larger than 64 KB is negotiated when accepted, so set on server channel too
+            serverBootstrap.option(ChannelOption.SO_RCVBUF, socketReceiveBufferSize);
+            serverBootstrap.childOption(ChannelOption.SO_RCVBUF, socketReceiveBufferSize);
+        }
+        if (writeBufferHighWaterMark > 0) {
+            serverBootstrap.childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, createWriteBufferWaterMark());
+        }
+        if (epoll && epollBusyPollMicros > 0) {
+            serverBootstrap.childOption(getBusyPollOption(), epollBusyPollMicros);
+        }
+        return serverBootstrap;
+    }
+
+    private WriteBufferWaterMark createWriteBufferWaterMark() {
+        int low = writeBufferLowWaterMark > 0 ?
+                writeBufferLowWaterMark : Math.min(WriteBufferWaterMark.DEFAULT.low(), writeBufferHighWaterMark);
+        return new WriteBufferWaterMark(low, writeBufferHighWaterMark);
+    }
+
+    @SuppressWarnings("unchecked")
+    private ChannelOption<Integer> getBusyPollOption() {
+        try {
+            return (ChannelOption<Integer>) loadEpollClass("EpollChannelOption", ChannelOption.class)
+                    .getField("SO_BUSY_POLL").get(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("busy poll not supported by epoll transport", e);
+        }
+    }
+
+    private static <T> Class<? extends T> loadEpollClass(String simpleName, Class<T> superClass) {
+        try {
+            return Class.forName(EPOLL_PACKAGE + simpleName).asSubclass(superClass);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("failed to load epoll class " + simpleName, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Transport{" +
+                "name=" + getName() +
+                ", socketSendBufferSize=" + socketSendBufferSize +
+                ", socketReceiveBufferSize=" + socketReceiveBufferSize +
+                ", writeBufferLowWaterMark=" + writeBufferLowWaterMark +
+                ", writeBufferHighWaterMark=" + writeBufferHighWaterMark +
+                ", epollBusyPollMicros=" + epollBusyPollMicros +
+                '}';
+    }
+
+}
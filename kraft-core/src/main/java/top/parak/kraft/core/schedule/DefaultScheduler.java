@@ -9,6 +9,8 @@ import top.parak.kraft.core.node.config.NodeConfig;
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.ThreadSafe;
 import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
@@ -16,6 +18,10 @@ import java.util.concurrent.TimeUnit;
 
 /**
  * Default scheduler.
+ * <p>
+ * The scheduled executor can be shared by schedulers of raft groups, in which case stopping
+ * the scheduler cancels its tasks instead of shutting down the executor.
+ * </p>
  *
  * @author KHighness
  * @since 2022-03-19
@@ -31,13 +37,30 @@ public class DefaultScheduler implements Scheduler {
     private final int logReplicationInterval;
     private final Random electionTimeoutRandom;
     private final ScheduledExecutorService scheduledExecutorService;
+    private final boolean executorShared;
+    /**
+     * Periodic tasks not done, tracked only if executor shared.
+     */
+    private final Set<ScheduledFuture<?>> periodicFutures = ConcurrentHashMap.newKeySet();
+    private volatile boolean stopped = false;
 
     public DefaultScheduler(NodeConfig config) {
         this(config.getMinElectionTimeout(), config.getMaxElectionTimeout(), config.getLogReplicationDelay(),
                 config.getLogReplicationInterval());
     }
 
+    public DefaultScheduler(NodeConfig config, ScheduledExecutorService scheduledExecutorService) {
+        this(config.getMinElectionTimeout(), config.getMaxElectionTimeout(), config.getLogReplicationDelay(),
+                config.getLogReplicationInterval(), scheduledExecutorService, true);
+    }
+
     public DefaultScheduler(int minElectionTimeout, int maxElectionTimeout, int logReplicationDelay, int logReplicationInterval) {
+        this(minElectionTimeout, maxElectionTimeout, logReplicationDelay, logReplicationInterval,
+                Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "scheduler")), false);
+    }
+
+    private DefaultScheduler(int minElectionTimeout, int maxElectionTimeout, int logReplicationDelay, int logReplicationInterval,
+                             ScheduledExecutorService scheduledExecutorService, boolean executorShared) {
         if (minElectionTimeout <= 0 || maxElectionTimeout <= 0 || minElectionTimeout > maxElectionTimeout) {
             throw new IllegalArgumentException("election timeout should not be 0 or min > max");
         }
@@ -49,7 +72,8 @@ public class DefaultScheduler implements Scheduler {
         this.logReplicationDelay = logReplicationDelay;
         this.logReplicationInterval = logReplicationInterval;
         electionTimeoutRandom = new Random();
-        scheduledExecutorService = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "scheduler"));
+        this.scheduledExecutorService = scheduledExecutorService;
+        this.executorShared = executorShared;
     }
 
     @Override
@@ -58,7 +82,11 @@ public class DefaultScheduler implements Scheduler {
         Preconditions.checkNotNull(task);
         logger.trace("schedule log replication task");
         ScheduledFuture<?> scheduledFuture = this.scheduledExecutorService.scheduleWithFixedDelay(
-                task, logReplicationDelay, logReplicationInterval, TimeUnit.MILLISECONDS);
+                guard(task), logReplicationDelay, logReplicationInterval, TimeUnit.MILLISECONDS);
+        if (executorShared) {
+            periodicFutures.removeIf(ScheduledFuture::isDone);
+            periodicFutures.add(scheduledFuture);
+        }
         return new LogReplicationTask(scheduledFuture);
     }
 
@@ -68,13 +96,57 @@ public class DefaultScheduler implements Scheduler {
         Preconditions.checkNotNull(task);
         logger.trace("schedule election timeout");
         int timeout = electionTimeoutRandom.nextInt(maxElectionTimeout - minElectionTimeout) + minElectionTimeout;
-        ScheduledFuture<?> scheduledFuture = scheduledExecutorService.schedule(task, timeout, TimeUnit.MILLISECONDS);
+        ScheduledFuture<?> scheduledFuture = scheduledExecutorService.schedule(guard(task), timeout, TimeUnit.MILLISECONDS);
         return new ElectionTimeout(scheduledFuture);
     }
 
+    @Override
+    public void scheduleAppendBatchFlush(@Nonnull Runnable task, int delay) {
+        Preconditions.checkNotNull(task);
+        scheduledExecutorService.schedule(guard(task), delay, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    @Nonnull
+    public LogFlushTask scheduleLogFlushTask(@Nonnull Runnable task, int interval) {
+        Preconditions.checkNotNull(task);
+        Preconditions.checkArgument(interval > 0, "log flush interval should > 0");
+        logger.trace("schedule log flush task");
+        ScheduledFuture<?> scheduledFuture = scheduledExecutorService.scheduleWithFixedDelay(
+                guard(task), interval, interval, TimeUnit.MILLISECONDS);
+        if (executorShared) {
+            periodicFutures.removeIf(ScheduledFuture::isDone);
+            periodicFutures.add(scheduledFuture);
+        }
+        return new LogFlushTask(scheduledFuture);
+    }
+
+    /**
+     * Guard task not to run after scheduler stopped, for shared executor.
+     *
+     * @param task task
+     * @return guarded task
+     */
+    private Runnable guard(Runnable task) {
+        if (!executorShared) {
+            return task;
+        }
+        return () -> {
+            if (!stopped) {
+                task.run();
+            }
+        };
+    }
+
     @Override
     public void stop() throws InterruptedException {
         logger.info("stop scheduler");
+        stopped = true;
+        if (executorShared) {
+            periodicFutures.forEach(f -> f.cancel(false));
+            periodicFutures.clear();
+            return;
+        }
         scheduledExecutorService.shutdown();
         scheduledExecutorService.awaitTermination(1, TimeUnit.SECONDS);
     }
@@ -0,0 +1,40 @@
+package top.parak.kraft.core.schedule;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodic task to force write-ahead log to disk.
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+public class LogFlushTask {
+
+    public static final LogFlushTask NONE = new LogFlushTask(new NullScheduledFuture());
+    private static final Logger logger = LoggerFactory.getLogger(LogFlushTask.class);
+    private final ScheduledFuture<?> scheduledFuture;
+
+    public LogFlushTask(ScheduledFuture<?> scheduledFuture) {
+        this.scheduledFuture = scheduledFuture;
+    }
+
+    public void cancel() {
+        logger.trace("cancel log flush task");
+        this.scheduledFuture.cancel(false);
+    }
+
+    boolean isCancelled() {
+        return scheduledFuture.isCancelled();
+    }
+
+    @Override
+    public String toString() {
+        return "LogFlushTask{delay=" + scheduledFuture.getDelay(TimeUnit.MILLISECONDS) + "}";
+    }
+
+}
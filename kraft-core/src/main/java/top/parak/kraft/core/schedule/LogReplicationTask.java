@@ -28,6 +28,10 @@ public class LogReplicationTask {
         this.scheduledFuture.cancel(false);
     }
 
+    boolean isCancelled() {
+        return scheduledFuture.isCancelled();
+    }
+
     @Override
     public String toString() {
         return "LogReplicationTask{delay=" + scheduledFuture.getDelay(TimeUnit.MILLISECONDS) + "}";
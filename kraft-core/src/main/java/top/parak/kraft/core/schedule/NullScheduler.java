@@ -33,6 +33,18 @@ public class NullScheduler implements Scheduler {
         return ElectionTimeout.NONE;
     }
 
+    @Override
+    public void scheduleAppendBatchFlush(@Nonnull Runnable task, int delay) {
+        logger.debug("schedule append batch flush");
+    }
+
+    @Override
+    @Nonnull
+    public LogFlushTask scheduleLogFlushTask(@Nonnull Runnable task, int interval) {
+        logger.debug("schedule log flush task");
+        return LogFlushTask.NONE;
+    }
+
     @Override
     public void stop() throws InterruptedException {
     }
@@ -29,6 +29,24 @@ public interface Scheduler {
     @Nonnull
     ElectionTimeout scheduleElectionTimeout(@Nonnull Runnable task);
 
+    /**
+     * Schedule append batch flush.
+     *
+     * @param task  task
+     * @param delay delay in milliseconds
+     */
+    void scheduleAppendBatchFlush(@Nonnull Runnable task, int delay);
+
+    /**
+     * Schedule periodic task to force write-ahead log to disk.
+     *
+     * @param task     task
+     * @param interval interval in milliseconds
+     * @return log flush task
+     */
+    @Nonnull
+    LogFlushTask scheduleLogFlushTask(@Nonnull Runnable task, int interval);
+
     /**
      * Stop scheduler.
      *
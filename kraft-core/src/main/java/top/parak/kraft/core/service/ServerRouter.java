@@ -6,6 +6,7 @@ import org.slf4j.LoggerFactory;
 import top.parak.kraft.core.node.NodeId;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Server router.
@@ -17,8 +18,8 @@ import java.util.*;
 public class ServerRouter {
 
     private static Logger logger = LoggerFactory.getLogger(ServerRouter.class);
-    private final Map<NodeId, Channel> availableServers = new HashMap<>();
-    private NodeId leaderId;
+    private final Map<NodeId, Channel> availableServers = new ConcurrentHashMap<>();
+    private volatile NodeId leaderId;
 
     /**
      * Send message to server.
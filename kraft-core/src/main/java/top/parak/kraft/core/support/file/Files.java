@@ -2,6 +2,10 @@ package top.parak.kraft.core.support.file;
 
 import java.io.File;
 import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 
 /**
  * File util.
@@ -24,4 +28,35 @@ public class Files {
         }
     }
 
+    /**
+     * Unmap memory-mapped buffer at once, instead of when it is garbage collected.
+     * <p>
+     * The buffer must not be accessed after unmapped, or the JVM may crash.
+     * If the cleaner is not accessible, the buffer is left to garbage collection.
+     * </p>
+     *
+     * @param buffer memory-mapped buffer
+     */
+    public static void unmap(MappedByteBuffer buffer) {
+        try {
+            try {
+                // Java 9+
+                Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+                Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+                theUnsafe.setAccessible(true);
+                invokeCleaner.invoke(theUnsafe.get(null), buffer);
+            } catch (NoSuchMethodException e) {
+                // Java 8, sun.nio.ch.DirectBuffer#cleaner
+                Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+                cleanerMethod.setAccessible(true);
+                Object cleaner = cleanerMethod.invoke(buffer);
+                if (cleaner != null) {
+                    cleaner.getClass().getMethod("clean").invoke(cleaner);
+                }
+            }
+        } catch (ReflectiveOperationException | RuntimeException ignored) {
+        }
+    }
+
 }
@@ -84,6 +84,7 @@ public class RandomAccessFileAdapter implements SeekableFile {
 
     @Override
     public void flush() throws IOException {
+        randomAccessFile.getChannel().force(false);
     }
 
     @Override
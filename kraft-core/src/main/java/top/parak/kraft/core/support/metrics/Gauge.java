@@ -0,0 +1,23 @@
+package top.parak.kraft.core.support.metrics;
+
+/**
+ * Gauge, the value is read when reported.
+ * <p>
+ * Gauge may be read by reporter thread, so it should not block, and tolerate slightly stale value.
+ * </p>
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+@FunctionalInterface
+public interface Gauge {
+
+    /**
+     * Get current value.
+     *
+     * @return value
+     */
+    long getValue();
+
+}
@@ -0,0 +1,99 @@
+package top.parak.kraft.core.support.metrics;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of non-negative values with power-of-two buckets.
+ * <p>
+ * Bucket {@code 0} counts value {@code 0}, bucket {@code i} counts values in
+ * {@code [2^(i-1), 2^i)}. Percentile is approximated by the upper bound of bucket.
+ * </p>
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+@ThreadSafe
+public class Histogram {
+
+    private static final int BUCKETS = 64;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Record a value.
+     *
+     * @param value value, negative value is recorded as {@code 0}
+     */
+    public void record(long value) {
+        long v = Math.max(0, value);
+        buckets.incrementAndGet(BUCKETS - Long.numberOfLeadingZeros(v));
+        count.incrementAndGet();
+        sum.addAndGet(v);
+        long m;
+        while ((m = max.get()) < v && !max.compareAndSet(m, v)) {
+            // retry
+        }
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getSum() {
+        return sum.get();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Get mean of values.
+     *
+     * @return mean, {@code 0} if no value
+     */
+    public double getMean() {
+        long c = count.get();
+        return c == 0 ? 0 : (double) sum.get() / c;
+    }
+
+    /**
+     * Get approximate percentile of values.
+     *
+     * @param percentile percentile in {@code (0, 1]}
+     * @return upper bound of the bucket containing the percentile, not greater than max
+     */
+    public long getPercentile(double percentile) {
+        long c = count.get();
+        if (c == 0) {
+            return 0;
+        }
+        long threshold = (long) Math.ceil(c * percentile);
+        long accumulated = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            accumulated += buckets.get(i);
+            if (accumulated >= threshold) {
+                return i == 0 ? 0 : Math.min((1L << i) - 1, max.get());
+            }
+        }
+        return max.get();
+    }
+
+    @Override
+    public String toString() {
+        return "Histogram{" +
+                "count=" + getCount() +
+                ", mean=" + String.format("%.2f", getMean()) +
+                ", p50=" + getPercentile(0.5) +
+                ", p99=" + getPercentile(0.99) +
+                ", max=" + getMax() +
+                '}';
+    }
+
+}
@@ -0,0 +1,74 @@
+package top.parak.kraft.core.support.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Reporter to serve metrics in plain text at {@code http://<host>:<port>/metrics}, one {@code name value} per line.
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+public class HttpMetricsReporter implements MetricsReporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(HttpMetricsReporter.class);
+
+    private final MetricRegistry registry;
+    private final int port;
+    private HttpServer server;
+
+    /**
+     * Create HttpMetricsReporter.
+     *
+     * @param registry registry
+     * @param port     port to listen
+     */
+    public HttpMetricsReporter(MetricRegistry registry, int port) {
+        this.registry = registry;
+        this.port = port;
+    }
+
+    @Override
+    public synchronized void start() {
+        try {
+            server = HttpServer.create(new InetSocketAddress(port), 0);
+        } catch (IOException e) {
+            logger.warn("failed to listen metrics port " + port, e);
+            return;
+        }
+        server.createContext("/metrics", this::handle);
+        server.start();
+        logger.info("serve metrics at port {}", port);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, Number> entry : registry.snapshot().entrySet()) {
+            builder.append(entry.getKey()).append(' ').append(entry.getValue()).append('\n');
+        }
+        byte[] body = builder.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+    }
+
+}
@@ -0,0 +1,124 @@
+package top.parak.kraft.core.support.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Reporter to expose metrics as read-only attributes of MBean
+ * {@code top.parak.kraft:type=Metrics,name=<name>}.
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+public class JmxMetricsReporter implements MetricsReporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(JmxMetricsReporter.class);
+
+    private final MetricRegistry registry;
+    private final ObjectName objectName;
+    private final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+    /**
+     * Create JmxMetricsReporter.
+     *
+     * @param registry registry
+     * @param name     name of MBean, e.g. node id
+     */
+    public JmxMetricsReporter(MetricRegistry registry, String name) {
+        this.registry = registry;
+        try {
+            this.objectName = new ObjectName("top.parak.kraft:type=Metrics,name=" + ObjectName.quote(name));
+        } catch (JMException e) {
+            throw new IllegalArgumentException("illegal name " + name, e);
+        }
+    }
+
+    @Override
+    public void start() {
+        try {
+            server.registerMBean(new MetricsMBean(), objectName);
+        } catch (JMException e) {
+            logger.warn("failed to register mbean " + objectName, e);
+        }
+    }
+
+    @Override
+    public void stop() {
+        try {
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            logger.warn("failed to unregister mbean " + objectName, e);
+        }
+    }
+
+    private class MetricsMBean implements DynamicMBean {
+
+        @Override
+        public Object getAttribute(String attribute) throws AttributeNotFoundException {
+            Number value = registry.snapshot().get(attribute);
+            if (value == null) {
+                throw new AttributeNotFoundException(attribute);
+            }
+            return value;
+        }
+
+        @Override
+        public void setAttribute(Attribute attribute) {
+            throw new UnsupportedOperationException("metrics are read-only");
+        }
+
+        @Override
+        public AttributeList getAttributes(String[] attributes) {
+            SortedMap<String, Number> snapshot = registry.snapshot();
+            AttributeList list = new AttributeList();
+            for (String attribute : attributes) {
+                Number value = snapshot.get(attribute);
+                if (value != null) {
+                    list.add(new Attribute(attribute, value));
+                }
+            }
+            return list;
+        }
+
+        @Override
+        public AttributeList setAttributes(AttributeList attributes) {
+            return new AttributeList();
+        }
+
+        @Override
+        public Object invoke(String actionName, Object[] params, String[] signature) {
+            throw new UnsupportedOperationException("no operation");
+        }
+
+        @Override
+        public MBeanInfo getMBeanInfo() {
+            SortedMap<String, Number> snapshot = registry.snapshot();
+            MBeanAttributeInfo[] attributes = new MBeanAttributeInfo[snapshot.size()];
+            int i = 0;
+            for (Map.Entry<String, Number> entry : snapshot.entrySet()) {
+                attributes[i++] = new MBeanAttributeInfo(entry.getKey(), entry.getValue().getClass().getName(),
+                        entry.getKey(), true, false, false);
+            }
+            return new MBeanInfo(JmxMetricsReporter.class.getName(), "metrics of kraft", attributes,
+                    null, null, null);
+        }
+
+    }
+
+}
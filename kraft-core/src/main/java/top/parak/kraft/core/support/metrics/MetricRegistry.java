@@ -0,0 +1,121 @@
+package top.parak.kraft.core.support.metrics;
+
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Registry of named metrics, histograms and gauges.
+ * <p>
+ * A scoped registry shares metrics with its parent, and prefixes names with scope, so that
+ * metrics of many components, e.g. raft groups in one process, are reported together.
+ * </p>
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+@ThreadSafe
+public class MetricRegistry {
+
+    private final ConcurrentMap<String, Object> metrics;
+    private final String prefix;
+
+    /**
+     * Create MetricRegistry.
+     */
+    public MetricRegistry() {
+        this(new ConcurrentHashMap<>(), "");
+    }
+
+    private MetricRegistry(ConcurrentMap<String, Object> metrics, String prefix) {
+        this.metrics = metrics;
+        this.prefix = prefix;
+    }
+
+    /**
+     * Create registry sharing metrics, with names prefixed by scope.
+     *
+     * @param scope scope
+     * @return scoped registry
+     */
+    @Nonnull
+    public MetricRegistry scope(@Nonnull String scope) {
+        Preconditions.checkArgument(!scope.isEmpty(), "scope should not be empty");
+        return new MetricRegistry(metrics, prefix + scope + ".");
+    }
+
+    /**
+     * Get histogram, create if absent.
+     *
+     * @param name name
+     * @return histogram
+     * @throws IllegalArgumentException if metric with name isn't a histogram
+     */
+    @Nonnull
+    public Histogram histogram(@Nonnull String name) {
+        Object metric = metrics.computeIfAbsent(prefix + name, n -> new Histogram());
+        Preconditions.checkArgument(metric instanceof Histogram, "metric " + name + " isn't a histogram");
+        return (Histogram) metric;
+    }
+
+    /**
+     * Register gauge, keep the existing one if present.
+     *
+     * @param name  name
+     * @param gauge gauge
+     */
+    public void gauge(@Nonnull String name, @Nonnull Gauge gauge) {
+        Preconditions.checkNotNull(gauge);
+        metrics.putIfAbsent(prefix + name, gauge);
+    }
+
+    /**
+     * Remove metric.
+     *
+     * @param name name
+     */
+    public void remove(@Nonnull String name) {
+        metrics.remove(prefix + name);
+    }
+
+    /**
+     * Take snapshot of metrics in scope, sorted by name.
+     * <p>
+     * Histogram is expanded to {@code count}, {@code mean}, {@code p50}, {@code p99}, {@code p999} and
+     * {@code max} with suffix of its name.
+     * </p>
+     *
+     * @return values by name
+     */
+    @Nonnull
+    public SortedMap<String, Number> snapshot() {
+        SortedMap<String, Number> values = new TreeMap<>();
+        for (Map.Entry<String, Object> entry : metrics.entrySet()) {
+            if (!entry.getKey().startsWith(prefix)) {
+                continue;
+            }
+            String name = entry.getKey();
+            Object metric = entry.getValue();
+            if (metric instanceof Gauge) {
+                values.put(name, ((Gauge) metric).getValue());
+            } else {
+                Histogram histogram = (Histogram) metric;
+                values.put(name + ".count", histogram.getCount());
+                values.put(name + ".mean", histogram.getMean());
+                values.put(name + ".p50", histogram.getPercentile(0.5));
+                values.put(name + ".p99", histogram.getPercentile(0.99));
+                values.put(name + ".p999", histogram.getPercentile(0.999));
+                values.put(name + ".max", histogram.getMax());
+            }
+        }
+        return values;
+    }
+
+}
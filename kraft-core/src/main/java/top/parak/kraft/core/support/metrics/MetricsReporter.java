@@ -0,0 +1,22 @@
+package top.parak.kraft.core.support.metrics;
+
+/**
+ * Reporter to expose metrics of {@link MetricRegistry}.
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+public interface MetricsReporter {
+
+    /**
+     * Start reporting.
+     */
+    void start();
+
+    /**
+     * Stop reporting.
+     */
+    void stop();
+
+}
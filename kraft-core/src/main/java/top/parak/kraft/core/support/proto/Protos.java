@@ -2048,14 +2048,14 @@ public final class Protos {
       com.google.protobuf.MessageOrBuilder {
 
     /**
-     * <code>string message_id = 1;</code>
+     * <code>string legacy_message_id = 1;</code>
      */
-    String getMessageId();
+    String getLegacyMessageId();
     /**
-     * <code>string message_id = 1;</code>
+     * <code>string legacy_message_id = 1;</code>
      */
     com.google.protobuf.ByteString
-        getMessageIdBytes();
+        getLegacyMessageIdBytes();
 
     /**
      * <code>int32 term = 2;</code>
@@ -2110,6 +2110,11 @@ public final class Protos {
      */
     top.parak.kraft.core.Protos.AppendEntriesRpc.EntryOrBuilder getEntriesOrBuilder(
         int index);
+
+    /**
+     * <code>int64 message_id = 8;</code>
+     */
+    long getMessageId();
   }
   /**
    * Protobuf type {@code AppendEntriesRpc}
@@ -2124,13 +2129,14 @@ public final class Protos {
       super(builder);
     }
     private AppendEntriesRpc() {
-      messageId_ = "";
+      legacyMessageId_ = "";
       term_ = 0;
       leaderId_ = "";
       prevLogIndex_ = 0;
       prevLogTerm_ = 0;
       leaderCommit_ = 0;
       entries_ = java.util.Collections.emptyList();
+      messageId_ = 0L;
     }
 
     @Override
@@ -2160,7 +2166,7 @@ public final class Protos {
             case 10: {
               String s = input.readStringRequireUtf8();
 
-              messageId_ = s;
+              legacyMessageId_ = s;
               break;
             }
             case 16: {
@@ -2198,6 +2204,11 @@ public final class Protos {
                   input.readMessage(top.parak.kraft.core.Protos.AppendEntriesRpc.Entry.parser(), extensionRegistry));
               break;
             }
+            case 64: {
+
+              messageId_ = input.readInt64();
+              break;
+            }
             default: {
               if (!parseUnknownFieldProto3(
                   input, unknownFields, extensionRegistry, tag)) {
@@ -2902,34 +2913,34 @@ public final class Protos {
     }
 
     private int bitField0_;
-    public static final int MESSAGE_ID_FIELD_NUMBER = 1;
-    private volatile Object messageId_;
+    public static final int LEGACY_MESSAGE_ID_FIELD_NUMBER = 1;
+    private volatile Object legacyMessageId_;
     /**
-     * <code>string message_id = 1;</code>
+     * <code>string legacy_message_id = 1;</code>
      */
-    public String getMessageId() {
-      Object ref = messageId_;
+    public String getLegacyMessageId() {
+      Object ref = legacyMessageId_;
       if (ref instanceof String) {
         return (String) ref;
       } else {
         com.google.protobuf.ByteString bs =
             (com.google.protobuf.ByteString) ref;
         String s = bs.toStringUtf8();
-        messageId_ = s;
+        legacyMessageId_ = s;
         return s;
       }
     }
     /**
-     * <code>string message_id = 1;</code>
+     * <code>string legacy_message_id = 1;</code>
      */
     public com.google.protobuf.ByteString
-        getMessageIdBytes() {
-      Object ref = messageId_;
+        getLegacyMessageIdBytes() {
+      Object ref = legacyMessageId_;
       if (ref instanceof String) {
         com.google.protobuf.ByteString b =
             com.google.protobuf.ByteString.copyFromUtf8(
                 (String) ref);
-        messageId_ = b;
+        legacyMessageId_ = b;
         return b;
       } else {
         return (com.google.protobuf.ByteString) ref;
@@ -3041,6 +3052,15 @@ public final class Protos {
       return entries_.get(index);
     }
 
+    public static final int MESSAGE_ID_FIELD_NUMBER = 8;
+    private long messageId_;
+    /**
+     * <code>int64 message_id = 8;</code>
+     */
+    public long getMessageId() {
+      return messageId_;
+    }
+
     private byte memoizedIsInitialized = -1;
     @Override
     public final boolean isInitialized() {
@@ -3055,8 +3075,8 @@ public final class Protos {
     @Override
     public void writeTo(com.google.protobuf.CodedOutputStream output)
                         throws java.io.IOException {
-      if (!getMessageIdBytes().isEmpty()) {
-        com.google.protobuf.GeneratedMessageV3.writeString(output, 1, messageId_);
+      if (!getLegacyMessageIdBytes().isEmpty()) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 1, legacyMessageId_);
       }
       if (term_ != 0) {
         output.writeInt32(2, term_);
@@ -3076,6 +3096,9 @@ public final class Protos {
       for (int i = 0; i < entries_.size(); i++) {
         output.writeMessage(7, entries_.get(i));
       }
+      if (messageId_ != 0L) {
+        output.writeInt64(8, messageId_);
+      }
       unknownFields.writeTo(output);
     }
 
@@ -3085,8 +3108,8 @@ public final class Protos {
       if (size != -1) return size;
 
       size = 0;
-      if (!getMessageIdBytes().isEmpty()) {
-        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(1, messageId_);
+      if (!getLegacyMessageIdBytes().isEmpty()) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(1, legacyMessageId_);
       }
       if (term_ != 0) {
         size += com.google.protobuf.CodedOutputStream
@@ -3111,6 +3134,10 @@ public final class Protos {
         size += com.google.protobuf.CodedOutputStream
           .computeMessageSize(7, entries_.get(i));
       }
+      if (messageId_ != 0L) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(8, messageId_);
+      }
       size += unknownFields.getSerializedSize();
       memoizedSize = size;
       return size;
@@ -3127,8 +3154,8 @@ public final class Protos {
       top.parak.kraft.core.Protos.AppendEntriesRpc other = (top.parak.kraft.core.Protos.AppendEntriesRpc) obj;
 
       boolean result = true;
-      result = result && getMessageId()
-          .equals(other.getMessageId());
+      result = result && getLegacyMessageId()
+          .equals(other.getLegacyMessageId());
       result = result && (getTerm()
           == other.getTerm());
       result = result && getLeaderId()
@@ -3141,6 +3168,8 @@ public final class Protos {
           == other.getLeaderCommit());
       result = result && getEntriesList()
           .equals(other.getEntriesList());
+      result = result && (getMessageId()
+          == other.getMessageId());
       result = result && unknownFields.equals(other.unknownFields);
       return result;
     }
@@ -3152,8 +3181,8 @@ public final class Protos {
       }
       int hash = 41;
       hash = (19 * hash) + getDescriptor().hashCode();
-      hash = (37 * hash) + MESSAGE_ID_FIELD_NUMBER;
-      hash = (53 * hash) + getMessageId().hashCode();
+      hash = (37 * hash) + LEGACY_MESSAGE_ID_FIELD_NUMBER;
+      hash = (53 * hash) + getLegacyMessageId().hashCode();
       hash = (37 * hash) + TERM_FIELD_NUMBER;
       hash = (53 * hash) + getTerm();
       hash = (37 * hash) + LEADER_ID_FIELD_NUMBER;
@@ -3168,6 +3197,9 @@ public final class Protos {
         hash = (37 * hash) + ENTRIES_FIELD_NUMBER;
         hash = (53 * hash) + getEntriesList().hashCode();
       }
+      hash = (37 * hash) + MESSAGE_ID_FIELD_NUMBER;
+      hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+          getMessageId());
       hash = (29 * hash) + unknownFields.hashCode();
       memoizedHashCode = hash;
       return hash;
@@ -3302,7 +3334,7 @@ public final class Protos {
       @Override
       public Builder clear() {
         super.clear();
-        messageId_ = "";
+        legacyMessageId_ = "";
 
         term_ = 0;
 
@@ -3320,6 +3352,8 @@ public final class Protos {
         } else {
           entriesBuilder_.clear();
         }
+        messageId_ = 0L;
+
         return this;
       }
 
@@ -3348,7 +3382,7 @@ public final class Protos {
         top.parak.kraft.core.Protos.AppendEntriesRpc result = new top.parak.kraft.core.Protos.AppendEntriesRpc(this);
         int from_bitField0_ = bitField0_;
         int to_bitField0_ = 0;
-        result.messageId_ = messageId_;
+        result.legacyMessageId_ = legacyMessageId_;
         result.term_ = term_;
         result.leaderId_ = leaderId_;
         result.prevLogIndex_ = prevLogIndex_;
@@ -3364,6 +3398,7 @@ public final class Protos {
           result.entries_ = entriesBuilder_.build();
         }
         result.bitField0_ = to_bitField0_;
+        result.messageId_ = messageId_;
         onBuilt();
         return result;
       }
@@ -3412,8 +3447,8 @@ public final class Protos {
 
       public Builder mergeFrom(top.parak.kraft.core.Protos.AppendEntriesRpc other) {
         if (other == top.parak.kraft.core.Protos.AppendEntriesRpc.getDefaultInstance()) return this;
-        if (!other.getMessageId().isEmpty()) {
-          messageId_ = other.messageId_;
+        if (!other.getLegacyMessageId().isEmpty()) {
+          legacyMessageId_ = other.legacyMessageId_;
           onChanged();
         }
         if (other.getTerm() != 0) {
@@ -3458,6 +3493,9 @@ public final class Protos {
             }
           }
         }
+        if (other.getMessageId() != 0L) {
+          setMessageId(other.getMessageId());
+        }
         this.mergeUnknownFields(other.unknownFields);
         onChanged();
         return this;
@@ -3488,71 +3526,71 @@ public final class Protos {
       }
       private int bitField0_;
 
-      private Object messageId_ = "";
+      private Object legacyMessageId_ = "";
       /**
-       * <code>string message_id = 1;</code>
+       * <code>string legacy_message_id = 1;</code>
        */
-      public String getMessageId() {
-        Object ref = messageId_;
+      public String getLegacyMessageId() {
+        Object ref = legacyMessageId_;
         if (!(ref instanceof String)) {
           com.google.protobuf.ByteString bs =
               (com.google.protobuf.ByteString) ref;
           String s = bs.toStringUtf8();
-          messageId_ = s;
+          legacyMessageId_ = s;
           return s;
         } else {
           return (String) ref;
         }
       }
       /**
-       * <code>string message_id = 1;</code>
+       * <code>string legacy_message_id = 1;</code>
        */
       public com.google.protobuf.ByteString
-          getMessageIdBytes() {
-        Object ref = messageId_;
+          getLegacyMessageIdBytes() {
+        Object ref = legacyMessageId_;
         if (ref instanceof String) {
           com.google.protobuf.ByteString b =
               com.google.protobuf.ByteString.copyFromUtf8(
                   (String) ref);
-          messageId_ = b;
+          legacyMessageId_ = b;
           return b;
         } else {
           return (com.google.protobuf.ByteString) ref;
         }
       }
       /**
-       * <code>string message_id = 1;</code>
+       * <code>string legacy_message_id = 1;</code>
        */
-      public Builder setMessageId(
+      public Builder setLegacyMessageId(
           String value) {
         if (value == null) {
     throw new NullPointerException();
   }
 
-        messageId_ = value;
+        legacyMessageId_ = value;
         onChanged();
         return this;
       }
       /**
-       * <code>string message_id = 1;</code>
+       * <code>string legacy_message_id = 1;</code>
        */
-      public Builder clearMessageId() {
+      public Builder clearLegacyMessageId() {
 
-        messageId_ = getDefaultInstance().getMessageId();
+        legacyMessageId_ = getDefaultInstance().getLegacyMessageId();
         onChanged();
         return this;
       }
       /**
-       * <code>string message_id = 1;</code>
+       * <code>string legacy_message_id = 1;</code>
        */
-      public Builder setMessageIdBytes(
+      public Builder setLegacyMessageIdBytes(
           com.google.protobuf.ByteString value) {
         if (value == null) {
     throw new NullPointerException();
   }
   checkByteStringIsUtf8(value);
 
-        messageId_ = value;
+        legacyMessageId_ = value;
         onChanged();
         return this;
       }
@@ -3969,6 +4007,32 @@ public final class Protos {
         }
         return entriesBuilder_;
       }
+
+      private long messageId_ ;
+      /**
+       * <code>int64 message_id = 8;</code>
+       */
+      public long getMessageId() {
+        return messageId_;
+      }
+      /**
+       * <code>int64 message_id = 8;</code>
+       */
+      public Builder setMessageId(long value) {
+
+        messageId_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>int64 message_id = 8;</code>
+       */
+      public Builder clearMessageId() {
+
+        messageId_ = 0L;
+        onChanged();
+        return this;
+      }
       @Override
       public final Builder setUnknownFields(
           final com.google.protobuf.UnknownFieldSet unknownFields) {
@@ -4027,14 +4091,14 @@ public final class Protos {
       com.google.protobuf.MessageOrBuilder {
 
     /**
-     * <code>string rpc_message_id = 1;</code>
+     * <code>string legacy_rpc_message_id = 1;</code>
      */
-    String getRpcMessageId();
+    String getLegacyRpcMessageId();
     /**
-     * <code>string rpc_message_id = 1;</code>
+     * <code>string legacy_rpc_message_id = 1;</code>
      */
     com.google.protobuf.ByteString
-        getRpcMessageIdBytes();
+        getLegacyRpcMessageIdBytes();
 
     /**
      * <code>int32 term = 2;</code>
@@ -4045,6 +4109,21 @@ public final class Protos {
      * <code>bool success = 3;</code>
      */
     boolean getSuccess();
+
+    /**
+     * <code>int32 conflict_term = 4;</code>
+     */
+    int getConflictTerm();
+
+    /**
+     * <code>int32 conflict_index = 5;</code>
+     */
+    int getConflictIndex();
+
+    /**
+     * <code>int64 rpc_message_id = 6;</code>
+     */
+    long getRpcMessageId();
   }
   /**
    * Protobuf type {@code AppendEntriesResult}
@@ -4059,9 +4138,12 @@ public final class Protos {
       super(builder);
     }
     private AppendEntriesResult() {
-      rpcMessageId_ = "";
+      legacyRpcMessageId_ = "";
       term_ = 0;
       success_ = false;
+      conflictTerm_ = 0;
+      conflictIndex_ = 0;
+      rpcMessageId_ = 0L;
     }
 
     @Override
@@ -4091,7 +4173,7 @@ public final class Protos {
             case 10: {
               String s = input.readStringRequireUtf8();
 
-              rpcMessageId_ = s;
+              legacyRpcMessageId_ = s;
               break;
             }
             case 16: {
@@ -4104,6 +4186,21 @@ public final class Protos {
               success_ = input.readBool();
               break;
             }
+            case 32: {
+
+              conflictTerm_ = input.readInt32();
+              break;
+            }
+            case 40: {
+
+              conflictIndex_ = input.readInt32();
+              break;
+            }
+            case 48: {
+
+              rpcMessageId_ = input.readInt64();
+              break;
+            }
             default: {
               if (!parseUnknownFieldProto3(
                   input, unknownFields, extensionRegistry, tag)) {
@@ -4136,34 +4233,34 @@ public final class Protos {
               top.parak.kraft.core.Protos.AppendEntriesResult.class, top.parak.kraft.core.Protos.AppendEntriesResult.Builder.class);
     }
 
-    public static final int RPC_MESSAGE_ID_FIELD_NUMBER = 1;
-    private volatile Object rpcMessageId_;
+    public static final int LEGACY_RPC_MESSAGE_ID_FIELD_NUMBER = 1;
+    private volatile Object legacyRpcMessageId_;
     /**
-     * <code>string rpc_message_id = 1;</code>
+     * <code>string legacy_rpc_message_id = 1;</code>
      */
-    public String getRpcMessageId() {
-      Object ref = rpcMessageId_;
+    public String getLegacyRpcMessageId() {
+      Object ref = legacyRpcMessageId_;
       if (ref instanceof String) {
         return (String) ref;
       } else {
         com.google.protobuf.ByteString bs =
             (com.google.protobuf.ByteString) ref;
         String s = bs.toStringUtf8();
-        rpcMessageId_ = s;
+        legacyRpcMessageId_ = s;
         return s;
       }
     }
     /**
-     * <code>string rpc_message_id = 1;</code>
+     * <code>string legacy_rpc_message_id = 1;</code>
      */
     public com.google.protobuf.ByteString
-        getRpcMessageIdBytes() {
-      Object ref = rpcMessageId_;
+        getLegacyRpcMessageIdBytes() {
+      Object ref = legacyRpcMessageId_;
       if (ref instanceof String) {
         com.google.protobuf.ByteString b =
             com.google.protobuf.ByteString.copyFromUtf8(
                 (String) ref);
-        rpcMessageId_ = b;
+        legacyRpcMessageId_ = b;
         return b;
       } else {
         return (com.google.protobuf.ByteString) ref;
@@ -4188,6 +4285,33 @@ public final class Protos {
       return success_;
     }
 
+    public static final int CONFLICT_TERM_FIELD_NUMBER = 4;
+    private int conflictTerm_;
+    /**
+     * <code>int32 conflict_term = 4;</code>
+     */
+    public int getConflictTerm() {
+      return conflictTerm_;
+    }
+
+    public static final int CONFLICT_INDEX_FIELD_NUMBER = 5;
+    private int conflictIndex_;
+    /**
+     * <code>int32 conflict_index = 5;</code>
+     */
+    public int getConflictIndex() {
+      return conflictIndex_;
+    }
+
+    public static final int RPC_MESSAGE_ID_FIELD_NUMBER = 6;
+    private long rpcMessageId_;
+    /**
+     * <code>int64 rpc_message_id = 6;</code>
+     */
+    public long getRpcMessageId() {
+      return rpcMessageId_;
+    }
+
     private byte memoizedIsInitialized = -1;
     @Override
     public final boolean isInitialized() {
@@ -4202,8 +4326,8 @@ public final class Protos {
     @Override
     public void writeTo(com.google.protobuf.CodedOutputStream output)
                         throws java.io.IOException {
-      if (!getRpcMessageIdBytes().isEmpty()) {
-        com.google.protobuf.GeneratedMessageV3.writeString(output, 1, rpcMessageId_);
+      if (!getLegacyRpcMessageIdBytes().isEmpty()) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 1, legacyRpcMessageId_);
       }
       if (term_ != 0) {
         output.writeInt32(2, term_);
@@ -4211,6 +4335,15 @@ public final class Protos {
       if (success_ != false) {
         output.writeBool(3, success_);
       }
+      if (conflictTerm_ != 0) {
+        output.writeInt32(4, conflictTerm_);
+      }
+      if (conflictIndex_ != 0) {
+        output.writeInt32(5, conflictIndex_);
+      }
+      if (rpcMessageId_ != 0L) {
+        output.writeInt64(6, rpcMessageId_);
+      }
       unknownFields.writeTo(output);
     }
 
@@ -4220,8 +4353,8 @@ public final class Protos {
       if (size != -1) return size;
 
       size = 0;
-      if (!getRpcMessageIdBytes().isEmpty()) {
-        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(1, rpcMessageId_);
+      if (!getLegacyRpcMessageIdBytes().isEmpty()) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(1, legacyRpcMessageId_);
       }
       if (term_ != 0) {
         size += com.google.protobuf.CodedOutputStream
@@ -4231,6 +4364,18 @@ public final class Protos {
         size += com.google.protobuf.CodedOutputStream
           .computeBoolSize(3, success_);
       }
+      if (conflictTerm_ != 0) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt32Size(4, conflictTerm_);
+      }
+      if (conflictIndex_ != 0) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt32Size(5, conflictIndex_);
+      }
+      if (rpcMessageId_ != 0L) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(6, rpcMessageId_);
+      }
       size += unknownFields.getSerializedSize();
       memoizedSize = size;
       return size;
@@ -4247,12 +4392,18 @@ public final class Protos {
       top.parak.kraft.core.Protos.AppendEntriesResult other = (top.parak.kraft.core.Protos.AppendEntriesResult) obj;
 
       boolean result = true;
-      result = result && getRpcMessageId()
-          .equals(other.getRpcMessageId());
+      result = result && getLegacyRpcMessageId()
+          .equals(other.getLegacyRpcMessageId());
       result = result && (getTerm()
           == other.getTerm());
       result = result && (getSuccess()
           == other.getSuccess());
+      result = result && (getConflictTerm()
+          == other.getConflictTerm());
+      result = result && (getConflictIndex()
+          == other.getConflictIndex());
+      result = result && (getRpcMessageId()
+          == other.getRpcMessageId());
       result = result && unknownFields.equals(other.unknownFields);
       return result;
     }
@@ -4264,13 +4415,20 @@ public final class Protos {
       }
       int hash = 41;
       hash = (19 * hash) + getDescriptor().hashCode();
-      hash = (37 * hash) + RPC_MESSAGE_ID_FIELD_NUMBER;
-      hash = (53 * hash) + getRpcMessageId().hashCode();
+      hash = (37 * hash) + LEGACY_RPC_MESSAGE_ID_FIELD_NUMBER;
+      hash = (53 * hash) + getLegacyRpcMessageId().hashCode();
       hash = (37 * hash) + TERM_FIELD_NUMBER;
       hash = (53 * hash) + getTerm();
       hash = (37 * hash) + SUCCESS_FIELD_NUMBER;
       hash = (53 * hash) + com.google.protobuf.Internal.hashBoolean(
           getSuccess());
+      hash = (37 * hash) + CONFLICT_TERM_FIELD_NUMBER;
+      hash = (53 * hash) + getConflictTerm();
+      hash = (37 * hash) + CONFLICT_INDEX_FIELD_NUMBER;
+      hash = (53 * hash) + getConflictIndex();
+      hash = (37 * hash) + RPC_MESSAGE_ID_FIELD_NUMBER;
+      hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+          getRpcMessageId());
       hash = (29 * hash) + unknownFields.hashCode();
       memoizedHashCode = hash;
       return hash;
@@ -4404,12 +4562,18 @@ public final class Protos {
       @Override
       public Builder clear() {
         super.clear();
-        rpcMessageId_ = "";
+        legacyRpcMessageId_ = "";
 
         term_ = 0;
 
         success_ = false;
 
+        conflictTerm_ = 0;
+
+        conflictIndex_ = 0;
+
+        rpcMessageId_ = 0L;
+
         return this;
       }
 
@@ -4436,9 +4600,12 @@ public final class Protos {
       @Override
       public top.parak.kraft.core.Protos.AppendEntriesResult buildPartial() {
         top.parak.kraft.core.Protos.AppendEntriesResult result = new top.parak.kraft.core.Protos.AppendEntriesResult(this);
-        result.rpcMessageId_ = rpcMessageId_;
+        result.legacyRpcMessageId_ = legacyRpcMessageId_;
         result.term_ = term_;
         result.success_ = success_;
+        result.conflictTerm_ = conflictTerm_;
+        result.conflictIndex_ = conflictIndex_;
+        result.rpcMessageId_ = rpcMessageId_;
         onBuilt();
         return result;
       }
@@ -4487,8 +4654,8 @@ public final class Protos {
 
       public Builder mergeFrom(top.parak.kraft.core.Protos.AppendEntriesResult other) {
         if (other == top.parak.kraft.core.Protos.AppendEntriesResult.getDefaultInstance()) return this;
-        if (!other.getRpcMessageId().isEmpty()) {
-          rpcMessageId_ = other.rpcMessageId_;
+        if (!other.getLegacyRpcMessageId().isEmpty()) {
+          legacyRpcMessageId_ = other.legacyRpcMessageId_;
           onChanged();
         }
         if (other.getTerm() != 0) {
@@ -4497,6 +4664,15 @@ public final class Protos {
         if (other.getSuccess() != false) {
           setSuccess(other.getSuccess());
         }
+        if (other.getConflictTerm() != 0) {
+          setConflictTerm(other.getConflictTerm());
+        }
+        if (other.getConflictIndex() != 0) {
+          setConflictIndex(other.getConflictIndex());
+        }
+        if (other.getRpcMessageId() != 0L) {
+          setRpcMessageId(other.getRpcMessageId());
+        }
         this.mergeUnknownFields(other.unknownFields);
         onChanged();
         return this;
@@ -4526,71 +4702,71 @@ public final class Protos {
         return this;
       }
 
-      private Object rpcMessageId_ = "";
+      private Object legacyRpcMessageId_ = "";
       /**
-       * <code>string rpc_message_id = 1;</code>
+       * <code>string legacy_rpc_message_id = 1;</code>
        */
-      public String getRpcMessageId() {
-        Object ref = rpcMessageId_;
+      public String getLegacyRpcMessageId() {
+        Object ref = legacyRpcMessageId_;
         if (!(ref instanceof String)) {
           com.google.protobuf.ByteString bs =
               (com.google.protobuf.ByteString) ref;
           String s = bs.toStringUtf8();
-          rpcMessageId_ = s;
+          legacyRpcMessageId_ = s;
           return s;
         } else {
           return (String) ref;
         }
       }
       /**
-       * <code>string rpc_message_id = 1;</code>
+       * <code>string legacy_rpc_message_id = 1;</code>
        */
       public com.google.protobuf.ByteString
-          getRpcMessageIdBytes() {
-        Object ref = rpcMessageId_;
+          getLegacyRpcMessageIdBytes() {
+        Object ref = legacyRpcMessageId_;
         if (ref instanceof String) {
           com.google.protobuf.ByteString b =
               com.google.protobuf.ByteString.copyFromUtf8(
                   (String) ref);
-          rpcMessageId_ = b;
+          legacyRpcMessageId_ = b;
           return b;
         } else {
           return (com.google.protobuf.ByteString) ref;
         }
       }
       /**
-       * <code>string rpc_message_id = 1;</code>
+       * <code>string legacy_rpc_message_id = 1;</code>
        */
-      public Builder setRpcMessageId(
+      public Builder setLegacyRpcMessageId(
           String value) {
         if (value == null) {
     throw new NullPointerException();
   }
 
-        rpcMessageId_ = value;
+        legacyRpcMessageId_ = value;
         onChanged();
         return this;
       }
       /**
-       * <code>string rpc_message_id = 1;</code>
+       * <code>string legacy_rpc_message_id = 1;</code>
        */
-      public Builder clearRpcMessageId() {
+      public Builder clearLegacyRpcMessageId() {
 
-        rpcMessageId_ = getDefaultInstance().getRpcMessageId();
+        legacyRpcMessageId_ = getDefaultInstance().getLegacyRpcMessageId();
         onChanged();
         return this;
       }
       /**
-       * <code>string rpc_message_id = 1;</code>
+       * <code>string legacy_rpc_message_id = 1;</code>
        */
-      public Builder setRpcMessageIdBytes(
+      public Builder setLegacyRpcMessageIdBytes(
           com.google.protobuf.ByteString value) {
         if (value == null) {
     throw new NullPointerException();
   }
   checkByteStringIsUtf8(value);
 
-        rpcMessageId_ = value;
+        legacyRpcMessageId_ = value;
         onChanged();
         return this;
       }
@@ -4646,6 +4822,84 @@ public final class Protos {
         onChanged();
         return this;
       }
+
+      private int conflictTerm_ ;
+      /**
+       * <code>int32 conflict_term = 4;</code>
+       */
+      public int getConflictTerm() {
+        return conflictTerm_;
+      }
+      /**
+       * <code>int32 conflict_term = 4;</code>
+       */
+      public Builder setConflictTerm(int value) {
+
+        conflictTerm_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>int32 conflict_term = 4;</code>
+       */
+      public Builder clearConflictTerm() {
+
+        conflictTerm_ = 0;
+        onChanged();
+        return this;
+      }
+
+      private int conflictIndex_ ;
+      /**
+       * <code>int32 conflict_index = 5;</code>
+       */
+      public int getConflictIndex() {
+        return conflictIndex_;
+      }
+      /**
+       * <code>int32 conflict_index = 5;</code>
+       */
+      public Builder setConflictIndex(int value) {
+
+        conflictIndex_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>int32 conflict_index = 5;</code>
+       */
+      public Builder clearConflictIndex() {
+
+        conflictIndex_ = 0;
+        onChanged();
+        return this;
+      }
+
+      private long rpcMessageId_ ;
+      /**
+       * <code>int64 rpc_message_id = 6;</code>
+       */
+      public long getRpcMessageId() {
+        return rpcMessageId_;
+      }
+      /**
+       * <code>int64 rpc_message_id = 6;</code>
+       */
+      public Builder setRpcMessageId(long value) {
+
+        rpcMessageId_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>int64 rpc_message_id = 6;</code>
+       */
+      public Builder clearRpcMessageId() {
+
+        rpcMessageId_ = 0L;
+        onChanged();
+        return this;
+      }
       @Override
       public final Builder setUnknownFields(
           final com.google.protobuf.UnknownFieldSet unknownFields) {
@@ -4766,6 +5020,16 @@ public final class Protos {
      * <code>bool done = 8;</code>
      */
     boolean getDone();
+
+    /**
+     * <code>int32 codec = 9;</code>
+     */
+    int getCodec();
+
+    /**
+     * <code>int64 message_id = 10;</code>
+     */
+    long getMessageId();
   }
   /**
    * Protobuf type {@code InstallSnapshotRpc}
@@ -4788,6 +5052,8 @@ public final class Protos {
       offset_ = 0;
       data_ = com.google.protobuf.ByteString.EMPTY;
       done_ = false;
+      codec_ = 0;
+      messageId_ = 0L;
     }
 
     @Override
@@ -4859,6 +5125,16 @@ public final class Protos {
               done_ = input.readBool();
               break;
             }
+            case 72: {
+
+              codec_ = input.readInt32();
+              break;
+            }
+            case 80: {
+
+              messageId_ = input.readInt64();
+              break;
+            }
             default: {
               if (!parseUnknownFieldProto3(
                   input, unknownFields, extensionRegistry, tag)) {
@@ -5018,6 +5294,24 @@ public final class Protos {
       return done_;
     }
 
+    public static final int CODEC_FIELD_NUMBER = 9;
+    private int codec_;
+    /**
+     * <code>int32 codec = 9;</code>
+     */
+    public int getCodec() {
+      return codec_;
+    }
+
+    public static final int MESSAGE_ID_FIELD_NUMBER = 10;
+    private long messageId_;
+    /**
+     * <code>int64 message_id = 10;</code>
+     */
+    public long getMessageId() {
+      return messageId_;
+    }
+
     private byte memoizedIsInitialized = -1;
     @Override
     public final boolean isInitialized() {
@@ -5056,6 +5350,12 @@ public final class Protos {
       if (done_ != false) {
         output.writeBool(8, done_);
       }
+      if (codec_ != 0) {
+        output.writeInt32(9, codec_);
+      }
+      if (messageId_ != 0L) {
+        output.writeInt64(10, messageId_);
+      }
       unknownFields.writeTo(output);
     }
 
@@ -5096,6 +5396,14 @@ public final class Protos {
         size += com.google.protobuf.CodedOutputStream
           .computeBoolSize(8, done_);
       }
+      if (codec_ != 0) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt32Size(9, codec_);
+      }
+      if (messageId_ != 0L) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(10, messageId_);
+      }
       size += unknownFields.getSerializedSize();
       memoizedSize = size;
       return size;
@@ -5128,6 +5436,10 @@ public final class Protos {
           .equals(other.getData());
       result = result && (getDone()
           == other.getDone());
+      result = result && (getCodec()
+          == other.getCodec());
+      result = result && (getMessageId()
+          == other.getMessageId());
       result = result && unknownFields.equals(other.unknownFields);
       return result;
     }
@@ -5158,6 +5470,11 @@ public final class Protos {
       hash = (37 * hash) + DONE_FIELD_NUMBER;
       hash = (53 * hash) + com.google.protobuf.Internal.hashBoolean(
           getDone());
+      hash = (37 * hash) + CODEC_FIELD_NUMBER;
+      hash = (53 * hash) + getCodec();
+      hash = (37 * hash) + MESSAGE_ID_FIELD_NUMBER;
+      hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+          getMessageId());
       hash = (29 * hash) + unknownFields.hashCode();
       memoizedHashCode = hash;
       return hash;
@@ -5312,6 +5629,10 @@ public final class Protos {
 
         done_ = false;
 
+        codec_ = 0;
+
+        messageId_ = 0L;
+
         return this;
       }
 
@@ -5356,7 +5677,9 @@ public final class Protos {
         result.offset_ = offset_;
         result.data_ = data_;
         result.done_ = done_;
+        result.codec_ = codec_;
         result.bitField0_ = to_bitField0_;
+        result.messageId_ = messageId_;
         onBuilt();
         return result;
       }
@@ -5453,6 +5776,12 @@ public final class Protos {
         if (other.getDone() != false) {
           setDone(other.getDone());
         }
+        if (other.getCodec() != 0) {
+          setCodec(other.getCodec());
+        }
+        if (other.getMessageId() != 0L) {
+          setMessageId(other.getMessageId());
+        }
         this.mergeUnknownFields(other.unknownFields);
         onChanged();
         return this;
@@ -5950,6 +6279,58 @@ public final class Protos {
         onChanged();
         return this;
       }
+
+      private int codec_ ;
+      /**
+       * <code>int32 codec = 9;</code>
+       */
+      public int getCodec() {
+        return codec_;
+      }
+      /**
+       * <code>int32 codec = 9;</code>
+       */
+      public Builder setCodec(int value) {
+
+        codec_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>int32 codec = 9;</code>
+       */
+      public Builder clearCodec() {
+
+        codec_ = 0;
+        onChanged();
+        return this;
+      }
+
+      private long messageId_ ;
+      /**
+       * <code>int64 message_id = 10;</code>
+       */
+      public long getMessageId() {
+        return messageId_;
+      }
+      /**
+       * <code>int64 message_id = 10;</code>
+       */
+      public Builder setMessageId(long value) {
+
+        messageId_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>int64 message_id = 10;</code>
+       */
+      public Builder clearMessageId() {
+
+        messageId_ = 0L;
+        onChanged();
+        return this;
+      }
       @Override
       public final Builder setUnknownFields(
           final com.google.protobuf.UnknownFieldSet unknownFields) {
@@ -6011,6 +6392,16 @@ public final class Protos {
      * <code>int32 term = 1;</code>
      */
     int getTerm();
+
+    /**
+     * <code>int32 offset = 2;</code>
+     */
+    int getOffset();
+
+    /**
+     * <code>int64 rpc_message_id = 3;</code>
+     */
+    long getRpcMessageId();
   }
   /**
    * Protobuf type {@code InstallSnapshotResult}
@@ -6026,6 +6417,8 @@ public final class Protos {
     }
     private InstallSnapshotResult() {
       term_ = 0;
+      offset_ = 0;
+      rpcMessageId_ = 0L;
     }
 
     @Override
@@ -6057,6 +6450,11 @@ public final class Protos {
               term_ = input.readInt32();
               break;
             }
+            case 24: {
+
+              rpcMessageId_ = input.readInt64();
+              break;
+            }
             default: {
               if (!parseUnknownFieldProto3(
                   input, unknownFields, extensionRegistry, tag)) {
@@ -6064,6 +6462,11 @@ public final class Protos {
               }
               break;
             }
+            case 16: {
+
+              offset_ = input.readInt32();
+              break;
+            }
           }
         }
       } catch (com.google.protobuf.InvalidProtocolBufferException e) {
@@ -6098,6 +6501,24 @@ public final class Protos {
       return term_;
     }
 
+    public static final int OFFSET_FIELD_NUMBER = 2;
+    private int offset_;
+    /**
+     * <code>int32 offset = 2;</code>
+     */
+    public int getOffset() {
+      return offset_;
+    }
+
+    public static final int RPC_MESSAGE_ID_FIELD_NUMBER = 3;
+    private long rpcMessageId_;
+    /**
+     * <code>int64 rpc_message_id = 3;</code>
+     */
+    public long getRpcMessageId() {
+      return rpcMessageId_;
+    }
+
     private byte memoizedIsInitialized = -1;
     @Override
     public final boolean isInitialized() {
@@ -6115,6 +6536,12 @@ public final class Protos {
       if (term_ != 0) {
         output.writeInt32(1, term_);
       }
+      if (offset_ != 0) {
+        output.writeInt32(2, offset_);
+      }
+      if (rpcMessageId_ != 0L) {
+        output.writeInt64(3, rpcMessageId_);
+      }
       unknownFields.writeTo(output);
     }
 
@@ -6128,6 +6555,14 @@ public final class Protos {
         size += com.google.protobuf.CodedOutputStream
           .computeInt32Size(1, term_);
       }
+      if (offset_ != 0) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt32Size(2, offset_);
+      }
+      if (rpcMessageId_ != 0L) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(3, rpcMessageId_);
+      }
       size += unknownFields.getSerializedSize();
       memoizedSize = size;
       return size;
@@ -6146,6 +6581,10 @@ public final class Protos {
       boolean result = true;
       result = result && (getTerm()
           == other.getTerm());
+      result = result && (getOffset()
+          == other.getOffset());
+      result = result && (getRpcMessageId()
+          == other.getRpcMessageId());
       result = result && unknownFields.equals(other.unknownFields);
       return result;
     }
@@ -6159,6 +6598,11 @@ public final class Protos {
       hash = (19 * hash) + getDescriptor().hashCode();
       hash = (37 * hash) + TERM_FIELD_NUMBER;
       hash = (53 * hash) + getTerm();
+      hash = (37 * hash) + OFFSET_FIELD_NUMBER;
+      hash = (53 * hash) + getOffset();
+      hash = (37 * hash) + RPC_MESSAGE_ID_FIELD_NUMBER;
+      hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+          getRpcMessageId());
       hash = (29 * hash) + unknownFields.hashCode();
       memoizedHashCode = hash;
       return hash;
@@ -6294,6 +6738,10 @@ public final class Protos {
         super.clear();
         term_ = 0;
 
+        offset_ = 0;
+
+        rpcMessageId_ = 0L;
+
         return this;
       }
 
@@ -6321,6 +6769,8 @@ public final class Protos {
       public top.parak.kraft.core.Protos.InstallSnapshotResult buildPartial() {
         top.parak.kraft.core.Protos.InstallSnapshotResult result = new top.parak.kraft.core.Protos.InstallSnapshotResult(this);
         result.term_ = term_;
+        result.offset_ = offset_;
+        result.rpcMessageId_ = rpcMessageId_;
         onBuilt();
         return result;
       }
@@ -6372,6 +6822,12 @@ public final class Protos {
         if (other.getTerm() != 0) {
           setTerm(other.getTerm());
         }
+        if (other.getOffset() != 0) {
+          setOffset(other.getOffset());
+        }
+        if (other.getRpcMessageId() != 0L) {
+          setRpcMessageId(other.getRpcMessageId());
+        }
         this.mergeUnknownFields(other.unknownFields);
         onChanged();
         return this;
@@ -6426,6 +6882,58 @@ public final class Protos {
         onChanged();
         return this;
       }
+
+      private int offset_ ;
+      /**
+       * <code>int32 offset = 2;</code>
+       */
+      public int getOffset() {
+        return offset_;
+      }
+      /**
+       * <code>int32 offset = 2;</code>
+       */
+      public Builder setOffset(int value) {
+
+        offset_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>int32 offset = 2;</code>
+       */
+      public Builder clearOffset() {
+
+        offset_ = 0;
+        onChanged();
+        return this;
+      }
+
+      private long rpcMessageId_ ;
+      /**
+       * <code>int64 rpc_message_id = 3;</code>
+       */
+      public long getRpcMessageId() {
+        return rpcMessageId_;
+      }
+      /**
+       * <code>int64 rpc_message_id = 3;</code>
+       */
+      public Builder setRpcMessageId(long value) {
+
+        rpcMessageId_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>int64 rpc_message_id = 3;</code>
+       */
+      public Builder clearRpcMessageId() {
+
+        rpcMessageId_ = 0L;
+        onChanged();
+        return this;
+      }
       @Override
       public final Builder setUnknownFields(
           final com.google.protobuf.UnknownFieldSet unknownFields) {
@@ -11119,6 +11627,11 @@ public final class Protos {
      */
     top.parak.kraft.core.Protos.NodeEndpointOrBuilder getLastConfigOrBuilder(
         int index);
+
+    /**
+     * <code>int32 codec = 4;</code>
+     */
+    int getCodec();
   }
   /**
    * Protobuf type {@code SnapshotHeader}
@@ -11136,6 +11649,7 @@ public final class Protos {
       lastIndex_ = 0;
       lastTerm_ = 0;
       lastConfig_ = java.util.Collections.emptyList();
+      codec_ = 0;
     }
 
     @Override
@@ -11181,6 +11695,11 @@ public final class Protos {
                   input.readMessage(top.parak.kraft.core.Protos.NodeEndpoint.parser(), extensionRegistry));
               break;
             }
+            case 32: {
+
+              codec_ = input.readInt32();
+              break;
+            }
             default: {
               if (!parseUnknownFieldProto3(
                   input, unknownFields, extensionRegistry, tag)) {
@@ -11270,6 +11789,15 @@ public final class Protos {
       return lastConfig_.get(index);
     }
 
+    public static final int CODEC_FIELD_NUMBER = 4;
+    private int codec_;
+    /**
+     * <code>int32 codec = 4;</code>
+     */
+    public int getCodec() {
+      return codec_;
+    }
+
     private byte memoizedIsInitialized = -1;
     @Override
     public final boolean isInitialized() {
@@ -11293,6 +11821,9 @@ public final class Protos {
       for (int i = 0; i < lastConfig_.size(); i++) {
         output.writeMessage(3, lastConfig_.get(i));
       }
+      if (codec_ != 0) {
+        output.writeInt32(4, codec_);
+      }
       unknownFields.writeTo(output);
     }
 
@@ -11314,6 +11845,10 @@ public final class Protos {
         size += com.google.protobuf.CodedOutputStream
           .computeMessageSize(3, lastConfig_.get(i));
       }
+      if (codec_ != 0) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt32Size(4, codec_);
+      }
       size += unknownFields.getSerializedSize();
       memoizedSize = size;
       return size;
@@ -11336,6 +11871,8 @@ public final class Protos {
           == other.getLastTerm());
       result = result && getLastConfigList()
           .equals(other.getLastConfigList());
+      result = result && (getCodec()
+          == other.getCodec());
       result = result && unknownFields.equals(other.unknownFields);
       return result;
     }
@@ -11355,6 +11892,8 @@ public final class Protos {
         hash = (37 * hash) + LAST_CONFIG_FIELD_NUMBER;
         hash = (53 * hash) + getLastConfigList().hashCode();
       }
+      hash = (37 * hash) + CODEC_FIELD_NUMBER;
+      hash = (53 * hash) + getCodec();
       hash = (29 * hash) + unknownFields.hashCode();
       memoizedHashCode = hash;
       return hash;
@@ -11499,6 +12038,8 @@ public final class Protos {
         } else {
           lastConfigBuilder_.clear();
         }
+        codec_ = 0;
+
         return this;
       }
 
@@ -11538,6 +12079,7 @@ public final class Protos {
         } else {
           result.lastConfig_ = lastConfigBuilder_.build();
         }
+        result.codec_ = codec_;
         result.bitField0_ = to_bitField0_;
         onBuilt();
         return result;
@@ -11619,6 +12161,9 @@ public final class Protos {
             }
           }
         }
+        if (other.getCodec() != 0) {
+          setCodec(other.getCodec());
+        }
         this.mergeUnknownFields(other.unknownFields);
         onChanged();
         return this;
@@ -11940,6 +12485,32 @@ public final class Protos {
         }
         return lastConfigBuilder_;
       }
+
+      private int codec_ ;
+      /**
+       * <code>int32 codec = 4;</code>
+       */
+      public int getCodec() {
+        return codec_;
+      }
+      /**
+       * <code>int32 codec = 4;</code>
+       */
+      public Builder setCodec(int value) {
+
+        codec_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>int32 codec = 4;</code>
+       */
+      public Builder clearCodec() {
+
+        codec_ = 0;
+        onChanged();
+        return this;
+      }
       @Override
       public final Builder setUnknownFields(
           final com.google.protobuf.UnknownFieldSet unknownFields) {
@@ -11993,162 +12564,1486 @@ public final class Protos {
 
   }
 
-  private static final com.google.protobuf.Descriptors.Descriptor
-    internal_static_NodeEndpoint_descriptor;
-  private static final
-    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
-      internal_static_NodeEndpoint_fieldAccessorTable;
-  private static final com.google.protobuf.Descriptors.Descriptor
-    internal_static_RequestVoteRpc_descriptor;
-  private static final
-    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
-      internal_static_RequestVoteRpc_fieldAccessorTable;
-  private static final com.google.protobuf.Descriptors.Descriptor
-    internal_static_RequestVoteResult_descriptor;
-  private static final
-    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
-      internal_static_RequestVoteResult_fieldAccessorTable;
-  private static final com.google.protobuf.Descriptors.Descriptor
-    internal_static_AppendEntriesRpc_descriptor;
-  private static final
-    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
-      internal_static_AppendEntriesRpc_fieldAccessorTable;
-  private static final com.google.protobuf.Descriptors.Descriptor
-    internal_static_AppendEntriesRpc_Entry_descriptor;
-  private static final
-    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
-      internal_static_AppendEntriesRpc_Entry_fieldAccessorTable;
-  private static final com.google.protobuf.Descriptors.Descriptor
-    internal_static_AppendEntriesResult_descriptor;
-  private static final
-    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
-      internal_static_AppendEntriesResult_fieldAccessorTable;
-  private static final com.google.protobuf.Descriptors.Descriptor
-    internal_static_InstallSnapshotRpc_descriptor;
-  private static final
-    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
-      internal_static_InstallSnapshotRpc_fieldAccessorTable;
-  private static final com.google.protobuf.Descriptors.Descriptor
-    internal_static_InstallSnapshotResult_descriptor;
-  private static final
-    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
-      internal_static_InstallSnapshotResult_fieldAccessorTable;
-  private static final com.google.protobuf.Descriptors.Descriptor
-    internal_static_AddServerRpc_descriptor;
-  private static final
-    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
-      internal_static_AddServerRpc_fieldAccessorTable;
-  private static final com.google.protobuf.Descriptors.Descriptor
-    internal_static_AddServerResult_descriptor;
-  private static final
-    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
-      internal_static_AddServerResult_fieldAccessorTable;
-  private static final com.google.protobuf.Descriptors.Descriptor
-    internal_static_RemoveServerRpc_descriptor;
-  private static final
-    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
-      internal_static_RemoveServerRpc_fieldAccessorTable;
-  private static final com.google.protobuf.Descriptors.Descriptor
-    internal_static_RemoveServerResult_descriptor;
-  private static final
-    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
-      internal_static_RemoveServerResult_fieldAccessorTable;
-  private static final com.google.protobuf.Descriptors.Descriptor
-    internal_static_AddNodeCommand_descriptor;
-  private static final
-    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
-      internal_static_AddNodeCommand_fieldAccessorTable;
-  private static final com.google.protobuf.Descriptors.Descriptor
-    internal_static_RemoveNodeCommand_descriptor;
-  private static final
-    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
-      internal_static_RemoveNodeCommand_fieldAccessorTable;
-  private static final com.google.protobuf.Descriptors.Descriptor
-    internal_static_SnapshotHeader_descriptor;
-  private static final
-    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
-      internal_static_SnapshotHeader_fieldAccessorTable;
+  public interface ReadIndexRpcOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:ReadIndexRpc)
+      com.google.protobuf.MessageOrBuilder {
 
-  public static com.google.protobuf.Descriptors.FileDescriptor
-      getDescriptor() {
-    return descriptor;
+    /**
+     * <code>string legacy_message_id = 1;</code>
+     */
+    String getLegacyMessageId();
+    /**
+     * <code>string legacy_message_id = 1;</code>
+     */
+    com.google.protobuf.ByteString
+        getLegacyMessageIdBytes();
+
+    /**
+     * <code>int64 message_id = 2;</code>
+     */
+    long getMessageId();
   }
-  private static  com.google.protobuf.Descriptors.FileDescriptor
-      descriptor;
-  static {
-    String[] descriptorData = {
-      "\n\037xraft-core/src/proto/core.proto\"6\n\014Nod" +
-      "eEndpoint\022\n\n\002id\030\001 \001(\t\022\014\n\004host\030\002 \001(\t\022\014\n\004p" +
-      "ort\030\003 \001(\005\"c\n\016RequestVoteRpc\022\014\n\004term\030\001 \001(" +
-      "\005\022\024\n\014candidate_id\030\002 \001(\t\022\026\n\016last_log_inde" +
-      "x\030\003 \001(\005\022\025\n\rlast_log_term\030\004 \001(\005\"7\n\021Reques" +
-      "tVoteResult\022\014\n\004term\030\001 \001(\005\022\024\n\014vote_grante" +
-      "d\030\002 \001(\010\"\374\001\n\020AppendEntriesRpc\022\022\n\nmessage_" +
-      "id\030\001 \001(\t\022\014\n\004term\030\002 \001(\005\022\021\n\tleader_id\030\003 \001(" +
-      "\t\022\026\n\016prev_log_index\030\004 \001(\005\022\025\n\rprev_log_te" +
-      "rm\030\005 \001(\005\022\025\n\rleader_commit\030\006 \001(\005\022(\n\007entri" +
-      "es\030\007 \003(\0132\027.AppendEntriesRpc.Entry\032C\n\005Ent" +
-      "ry\022\014\n\004kind\030\001 \001(\005\022\r\n\005index\030\002 \001(\005\022\014\n\004term\030" +
-      "\003 \001(\005\022\017\n\007command\030\004 \001(\014\"L\n\023AppendEntriesR" +
-      "esult\022\026\n\016rpc_message_id\030\001 \001(\t\022\014\n\004term\030\002 " +
-      "\001(\005\022\017\n\007success\030\003 \001(\010\"\254\001\n\022InstallSnapshot" +
-      "Rpc\022\014\n\004term\030\001 \001(\005\022\021\n\tleader_id\030\002 \001(\t\022\022\n\n" +
-      "last_index\030\003 \001(\005\022\021\n\tlast_term\030\004 \001(\005\022\"\n\013l" +
-      "ast_config\030\005 \003(\0132\r.NodeEndpoint\022\016\n\006offse" +
-      "t\030\006 \001(\005\022\014\n\004data\030\007 \001(\014\022\014\n\004done\030\010 \001(\010\"%\n\025I" +
-      "nstallSnapshotResult\022\014\n\004term\030\001 \001(\005\"1\n\014Ad" +
-      "dServerRpc\022!\n\nnew_server\030\001 \001(\0132\r.NodeEnd" +
-      "point\"E\n\017AddServerResult\022\016\n\006status\030\001 \001(\t" +
-      "\022\"\n\013leader_hint\030\002 \001(\0132\r.NodeEndpoint\"4\n\017" +
-      "RemoveServerRpc\022!\n\nold_server\030\001 \001(\0132\r.No" +
-      "deEndpoint\"H\n\022RemoveServerResult\022\016\n\006stat" +
-      "us\030\001 \001(\t\022\"\n\013leader_hint\030\002 \001(\0132\r.NodeEndp" +
-      "oint\"a\n\016AddNodeCommand\022%\n\016node_endpoints" +
-      "\030\001 \003(\0132\r.NodeEndpoint\022(\n\021new_node_endpoi" +
-      "nt\030\002 \001(\0132\r.NodeEndpoint\"R\n\021RemoveNodeCom" +
-      "mand\022%\n\016node_endpoints\030\001 \003(\0132\r.NodeEndpo" +
-      "int\022\026\n\016node_to_remove\030\002 \001(\t\"[\n\016SnapshotH" +
-      "eader\022\022\n\nlast_index\030\001 \001(\005\022\021\n\tlast_term\030\002" +
-      " \001(\005\022\"\n\013last_config\030\003 \003(\0132\r.NodeEndpoint" +
-      "B\037\n\025top.parak.kraft.coreB\006Protosb\006proto" +
-      "3"
-    };
-    com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner assigner =
-        new com.google.protobuf.Descriptors.FileDescriptor.    InternalDescriptorAssigner() {
-          public com.google.protobuf.ExtensionRegistry assignDescriptors(
-              com.google.protobuf.Descriptors.FileDescriptor root) {
-            descriptor = root;
-            return null;
+  /**
+   * Protobuf type {@code ReadIndexRpc}
+   */
+  public  static final class ReadIndexRpc extends
+      com.google.protobuf.GeneratedMessageV3 implements
+      // @@protoc_insertion_point(message_implements:ReadIndexRpc)
+      ReadIndexRpcOrBuilder {
+  private static final long serialVersionUID = 0L;
+    // Use ReadIndexRpc.newBuilder() to construct.
+    private ReadIndexRpc(com.google.protobuf.GeneratedMessageV3.Builder<?> builder) {
+      super(builder);
+    }
+    private ReadIndexRpc() {
+      legacyMessageId_ = "";
+      messageId_ = 0L;
+    }
+
+    @Override
+    public final com.google.protobuf.UnknownFieldSet
+    getUnknownFields() {
+      return this.unknownFields;
+    }
+    private ReadIndexRpc(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      this();
+      if (extensionRegistry == null) {
+        throw new NullPointerException();
+      }
+      int mutable_bitField0_ = 0;
+      com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+          com.google.protobuf.UnknownFieldSet.newBuilder();
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            case 16: {
+
+              messageId_ = input.readInt64();
+              break;
+            }
+            default: {
+              if (!parseUnknownFieldProto3(
+                  input, unknownFields, extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+            case 10: {
+              String s = input.readStringRequireUtf8();
+
+              legacyMessageId_ = s;
+              break;
+            }
           }
-        };
-    com.google.protobuf.Descriptors.FileDescriptor
-      .internalBuildGeneratedFileFrom(descriptorData,
-        new com.google.protobuf.Descriptors.FileDescriptor[] {
-        }, assigner);
-    internal_static_NodeEndpoint_descriptor =
-      getDescriptor().getMessageTypes().get(0);
-    internal_static_NodeEndpoint_fieldAccessorTable = new
-      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
-        internal_static_NodeEndpoint_descriptor,
-        new String[] { "Id", "Host", "Port", });
-    internal_static_RequestVoteRpc_descriptor =
-      getDescriptor().getMessageTypes().get(1);
-    internal_static_RequestVoteRpc_fieldAccessorTable = new
-      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
-        internal_static_RequestVoteRpc_descriptor,
-        new String[] { "Term", "CandidateId", "LastLogIndex", "LastLogTerm", });
-    internal_static_RequestVoteResult_descriptor =
-      getDescriptor().getMessageTypes().get(2);
-    internal_static_RequestVoteResult_fieldAccessorTable = new
-      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
-        internal_static_RequestVoteResult_descriptor,
-        new String[] { "Term", "VoteGranted", });
-    internal_static_AppendEntriesRpc_descriptor =
-      getDescriptor().getMessageTypes().get(3);
-    internal_static_AppendEntriesRpc_fieldAccessorTable = new
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e).setUnfinishedMessage(this);
+      } finally {
+        this.unknownFields = unknownFields.build();
+        makeExtensionsImmutable();
+      }
+    }
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return top.parak.kraft.core.Protos.internal_static_ReadIndexRpc_descriptor;
+    }
+
+    protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return top.parak.kraft.core.Protos.internal_static_ReadIndexRpc_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              top.parak.kraft.core.Protos.ReadIndexRpc.class, top.parak.kraft.core.Protos.ReadIndexRpc.Builder.class);
+    }
+
+    public static final int LEGACY_MESSAGE_ID_FIELD_NUMBER = 1;
+    private volatile Object legacyMessageId_;
+    /**
+     * <code>string legacy_message_id = 1;</code>
+     */
+    public String getLegacyMessageId() {
+      Object ref = legacyMessageId_;
+      if (ref instanceof String) {
+        return (String) ref;
+      } else {
+        com.google.protobuf.ByteString bs =
+            (com.google.protobuf.ByteString) ref;
+        String s = bs.toStringUtf8();
+        legacyMessageId_ = s;
+        return s;
+      }
+    }
+    /**
+     * <code>string legacy_message_id = 1;</code>
+     */
+    public com.google.protobuf.ByteString
+        getLegacyMessageIdBytes() {
+      Object ref = legacyMessageId_;
+      if (ref instanceof String) {
+        com.google.protobuf.ByteString b =
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (String) ref);
+        legacyMessageId_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    public static final int MESSAGE_ID_FIELD_NUMBER = 2;
+    private long messageId_;
+    /**
+     * <code>int64 message_id = 2;</code>
+     */
+    public long getMessageId() {
+      return messageId_;
+    }
+
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      if (!getLegacyMessageIdBytes().isEmpty()) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 1, legacyMessageId_);
+      }
+      if (messageId_ != 0L) {
+        output.writeInt64(2, messageId_);
+      }
+      unknownFields.writeTo(output);
+    }
+
+    public int getSerializedSize() {
+      int size = memoizedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (!getLegacyMessageIdBytes().isEmpty()) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(1, legacyMessageId_);
+      }
+      if (messageId_ != 0L) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(2, messageId_);
+      }
+      size += unknownFields.getSerializedSize();
+      memoizedSize = size;
+      return size;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (obj == this) {
+       return true;
+      }
+      if (!(obj instanceof top.parak.kraft.core.Protos.ReadIndexRpc)) {
+        return super.equals(obj);
+      }
+      top.parak.kraft.core.Protos.ReadIndexRpc other = (top.parak.kraft.core.Protos.ReadIndexRpc) obj;
+
+      boolean result = true;
+      result = result && getLegacyMessageId()
+          .equals(other.getLegacyMessageId());
+      result = result && (getMessageId()
+          == other.getMessageId());
+      result = result && unknownFields.equals(other.unknownFields);
+      return result;
+    }
+
+    @Override
+    public int hashCode() {
+      if (memoizedHashCode != 0) {
+        return memoizedHashCode;
+      }
+      int hash = 41;
+      hash = (19 * hash) + getDescriptor().hashCode();
+      hash = (37 * hash) + LEGACY_MESSAGE_ID_FIELD_NUMBER;
+      hash = (53 * hash) + getLegacyMessageId().hashCode();
+      hash = (37 * hash) + MESSAGE_ID_FIELD_NUMBER;
+      hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+          getMessageId());
+      hash = (29 * hash) + unknownFields.hashCode();
+      memoizedHashCode = hash;
+      return hash;
+    }
+
+    public static top.parak.kraft.core.Protos.ReadIndexRpc parseFrom(
+        java.nio.ByteBuffer data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static top.parak.kraft.core.Protos.ReadIndexRpc parseFrom(
+        java.nio.ByteBuffer data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static top.parak.kraft.core.Protos.ReadIndexRpc parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static top.parak.kraft.core.Protos.ReadIndexRpc parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static top.parak.kraft.core.Protos.ReadIndexRpc parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static top.parak.kraft.core.Protos.ReadIndexRpc parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static top.parak.kraft.core.Protos.ReadIndexRpc parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static top.parak.kraft.core.Protos.ReadIndexRpc parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static top.parak.kraft.core.Protos.ReadIndexRpc parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input);
+    }
+    public static top.parak.kraft.core.Protos.ReadIndexRpc parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static top.parak.kraft.core.Protos.ReadIndexRpc parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static top.parak.kraft.core.Protos.ReadIndexRpc parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder() {
+      return DEFAULT_INSTANCE.toBuilder();
+    }
+    public static Builder newBuilder(top.parak.kraft.core.Protos.ReadIndexRpc prototype) {
+      return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() {
+      return this == DEFAULT_INSTANCE
+          ? new Builder() : new Builder().mergeFrom(this);
+    }
+
+    @Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code ReadIndexRpc}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessageV3.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:ReadIndexRpc)
+        top.parak.kraft.core.Protos.ReadIndexRpcOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return top.parak.kraft.core.Protos.internal_static_ReadIndexRpc_descriptor;
+      }
+
+      protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return top.parak.kraft.core.Protos.internal_static_ReadIndexRpc_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                top.parak.kraft.core.Protos.ReadIndexRpc.class, top.parak.kraft.core.Protos.ReadIndexRpc.Builder.class);
+      }
+
+      // Construct using top.parak.kraft.core.Protos.ReadIndexRpc.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessageV3
+                .alwaysUseFieldBuilders) {
+        }
+      }
+      public Builder clear() {
+        super.clear();
+        legacyMessageId_ = "";
+
+        messageId_ = 0L;
+
+        return this;
+      }
+
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return top.parak.kraft.core.Protos.internal_static_ReadIndexRpc_descriptor;
+      }
+
+      public top.parak.kraft.core.Protos.ReadIndexRpc getDefaultInstanceForType() {
+        return top.parak.kraft.core.Protos.ReadIndexRpc.getDefaultInstance();
+      }
+
+      public top.parak.kraft.core.Protos.ReadIndexRpc build() {
+        top.parak.kraft.core.Protos.ReadIndexRpc result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      public top.parak.kraft.core.Protos.ReadIndexRpc buildPartial() {
+        top.parak.kraft.core.Protos.ReadIndexRpc result = new top.parak.kraft.core.Protos.ReadIndexRpc(this);
+        result.legacyMessageId_ = legacyMessageId_;
+        result.messageId_ = messageId_;
+        onBuilt();
+        return result;
+      }
+
+      public Builder clone() {
+        return (Builder) super.clone();
+      }
+      public Builder setField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          Object value) {
+        return (Builder) super.setField(field, value);
+      }
+      public Builder clearField(
+          com.google.protobuf.Descriptors.FieldDescriptor field) {
+        return (Builder) super.clearField(field);
+      }
+      public Builder clearOneof(
+          com.google.protobuf.Descriptors.OneofDescriptor oneof) {
+        return (Builder) super.clearOneof(oneof);
+      }
+      public Builder setRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          int index, Object value) {
+        return (Builder) super.setRepeatedField(field, index, value);
+      }
+      public Builder addRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          Object value) {
+        return (Builder) super.addRepeatedField(field, value);
+      }
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof top.parak.kraft.core.Protos.ReadIndexRpc) {
+          return mergeFrom((top.parak.kraft.core.Protos.ReadIndexRpc)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(top.parak.kraft.core.Protos.ReadIndexRpc other) {
+        if (other == top.parak.kraft.core.Protos.ReadIndexRpc.getDefaultInstance()) return this;
+        if (!other.getLegacyMessageId().isEmpty()) {
+          legacyMessageId_ = other.legacyMessageId_;
+          onChanged();
+        }
+        if (other.getMessageId() != 0L) {
+          setMessageId(other.getMessageId());
+        }
+        this.mergeUnknownFields(other.unknownFields);
+        onChanged();
+        return this;
+      }
+
+      public final boolean isInitialized() {
+        return true;
+      }
+
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        top.parak.kraft.core.Protos.ReadIndexRpc parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (top.parak.kraft.core.Protos.ReadIndexRpc) e.getUnfinishedMessage();
+          throw e.unwrapIOException();
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+
+      private Object legacyMessageId_ = "";
+      /**
+       * <code>string legacy_message_id = 1;</code>
+       */
+      public String getLegacyMessageId() {
+        Object ref = legacyMessageId_;
+        if (!(ref instanceof String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          String s = bs.toStringUtf8();
+          legacyMessageId_ = s;
+          return s;
+        } else {
+          return (String) ref;
+        }
+      }
+      /**
+       * <code>string legacy_message_id = 1;</code>
+       */
+      public com.google.protobuf.ByteString
+          getLegacyMessageIdBytes() {
+        Object ref = legacyMessageId_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b =
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (String) ref);
+          legacyMessageId_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>string legacy_message_id = 1;</code>
+       */
+      public Builder setLegacyMessageId(
+          String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+
+        legacyMessageId_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>string legacy_message_id = 1;</code>
+       */
+      public Builder clearLegacyMessageId() {
+
+        legacyMessageId_ = getDefaultInstance().getLegacyMessageId();
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>string legacy_message_id = 1;</code>
+       */
+      public Builder setLegacyMessageIdBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  checkByteStringIsUtf8(value);
+
+        legacyMessageId_ = value;
+        onChanged();
+        return this;
+      }
+
+      private long messageId_ ;
+      /**
+       * <code>int64 message_id = 2;</code>
+       */
+      public long getMessageId() {
+        return messageId_;
+      }
+      /**
+       * <code>int64 message_id = 2;</code>
+       */
+      public Builder setMessageId(long value) {
+
+        messageId_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>int64 message_id = 2;</code>
+       */
+      public Builder clearMessageId() {
+
+        messageId_ = 0L;
+        onChanged();
+        return this;
+      }
+      public final Builder setUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.setUnknownFieldsProto3(unknownFields);
+      }
+
+      public final Builder mergeUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.mergeUnknownFields(unknownFields);
+      }
+
+
+      // @@protoc_insertion_point(builder_scope:ReadIndexRpc)
+    }
+
+    // @@protoc_insertion_point(class_scope:ReadIndexRpc)
+    private static final top.parak.kraft.core.Protos.ReadIndexRpc DEFAULT_INSTANCE;
+    static {
+      DEFAULT_INSTANCE = new top.parak.kraft.core.Protos.ReadIndexRpc();
+    }
+
+    public static top.parak.kraft.core.Protos.ReadIndexRpc getDefaultInstance() {
+      return DEFAULT_INSTANCE;
+    }
+
+    private static final com.google.protobuf.Parser<ReadIndexRpc>
+        PARSER = new com.google.protobuf.AbstractParser<ReadIndexRpc>() {
+      public ReadIndexRpc parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return new ReadIndexRpc(input, extensionRegistry);
+      }
+    };
+
+    public static com.google.protobuf.Parser<ReadIndexRpc> parser() {
+      return PARSER;
+    }
+
+    @Override
+    public com.google.protobuf.Parser<ReadIndexRpc> getParserForType() {
+      return PARSER;
+    }
+
+    public top.parak.kraft.core.Protos.ReadIndexRpc getDefaultInstanceForType() {
+      return DEFAULT_INSTANCE;
+    }
+
+  }
+
+  public interface ReadIndexResultOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:ReadIndexResult)
+      com.google.protobuf.MessageOrBuilder {
+
+    /**
+     * <code>string legacy_rpc_message_id = 1;</code>
+     */
+    String getLegacyRpcMessageId();
+    /**
+     * <code>string legacy_rpc_message_id = 1;</code>
+     */
+    com.google.protobuf.ByteString
+        getLegacyRpcMessageIdBytes();
+
+    /**
+     * <code>bool success = 2;</code>
+     */
+    boolean getSuccess();
+
+    /**
+     * <code>int32 read_index = 3;</code>
+     */
+    int getReadIndex();
+
+    /**
+     * <code>int64 rpc_message_id = 4;</code>
+     */
+    long getRpcMessageId();
+  }
+  /**
+   * Protobuf type {@code ReadIndexResult}
+   */
+  public  static final class ReadIndexResult extends
+      com.google.protobuf.GeneratedMessageV3 implements
+      // @@protoc_insertion_point(message_implements:ReadIndexResult)
+      ReadIndexResultOrBuilder {
+  private static final long serialVersionUID = 0L;
+    // Use ReadIndexResult.newBuilder() to construct.
+    private ReadIndexResult(com.google.protobuf.GeneratedMessageV3.Builder<?> builder) {
+      super(builder);
+    }
+    private ReadIndexResult() {
+      legacyRpcMessageId_ = "";
+      success_ = false;
+      readIndex_ = 0;
+      rpcMessageId_ = 0L;
+    }
+
+    @Override
+    public final com.google.protobuf.UnknownFieldSet
+    getUnknownFields() {
+      return this.unknownFields;
+    }
+    private ReadIndexResult(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      this();
+      if (extensionRegistry == null) {
+        throw new NullPointerException();
+      }
+      int mutable_bitField0_ = 0;
+      com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+          com.google.protobuf.UnknownFieldSet.newBuilder();
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            case 32: {
+
+              rpcMessageId_ = input.readInt64();
+              break;
+            }
+            default: {
+              if (!parseUnknownFieldProto3(
+                  input, unknownFields, extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+            case 10: {
+              String s = input.readStringRequireUtf8();
+
+              legacyRpcMessageId_ = s;
+              break;
+            }
+            case 16: {
+
+              success_ = input.readBool();
+              break;
+            }
+            case 24: {
+
+              readIndex_ = input.readInt32();
+              break;
+            }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e).setUnfinishedMessage(this);
+      } finally {
+        this.unknownFields = unknownFields.build();
+        makeExtensionsImmutable();
+      }
+    }
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return top.parak.kraft.core.Protos.internal_static_ReadIndexResult_descriptor;
+    }
+
+    protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return top.parak.kraft.core.Protos.internal_static_ReadIndexResult_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              top.parak.kraft.core.Protos.ReadIndexResult.class, top.parak.kraft.core.Protos.ReadIndexResult.Builder.class);
+    }
+
+    public static final int LEGACY_RPC_MESSAGE_ID_FIELD_NUMBER = 1;
+    private volatile Object legacyRpcMessageId_;
+    /**
+     * <code>string legacy_rpc_message_id = 1;</code>
+     */
+    public String getLegacyRpcMessageId() {
+      Object ref = legacyRpcMessageId_;
+      if (ref instanceof String) {
+        return (String) ref;
+      } else {
+        com.google.protobuf.ByteString bs =
+            (com.google.protobuf.ByteString) ref;
+        String s = bs.toStringUtf8();
+        legacyRpcMessageId_ = s;
+        return s;
+      }
+    }
+    /**
+     * <code>string legacy_rpc_message_id = 1;</code>
+     */
+    public com.google.protobuf.ByteString
+        getLegacyRpcMessageIdBytes() {
+      Object ref = legacyRpcMessageId_;
+      if (ref instanceof String) {
+        com.google.protobuf.ByteString b =
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (String) ref);
+        legacyRpcMessageId_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    public static final int SUCCESS_FIELD_NUMBER = 2;
+    private boolean success_;
+    /**
+     * <code>bool success = 2;</code>
+     */
+    public boolean getSuccess() {
+      return success_;
+    }
+
+    public static final int READ_INDEX_FIELD_NUMBER = 3;
+    private int readIndex_;
+    /**
+     * <code>int32 read_index = 3;</code>
+     */
+    public int getReadIndex() {
+      return readIndex_;
+    }
+
+    public static final int RPC_MESSAGE_ID_FIELD_NUMBER = 4;
+    private long rpcMessageId_;
+    /**
+     * <code>int64 rpc_message_id = 4;</code>
+     */
+    public long getRpcMessageId() {
+      return rpcMessageId_;
+    }
+
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      if (!getLegacyRpcMessageIdBytes().isEmpty()) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 1, legacyRpcMessageId_);
+      }
+      if (success_ != false) {
+        output.writeBool(2, success_);
+      }
+      if (readIndex_ != 0) {
+        output.writeInt32(3, readIndex_);
+      }
+      if (rpcMessageId_ != 0L) {
+        output.writeInt64(4, rpcMessageId_);
+      }
+      unknownFields.writeTo(output);
+    }
+
+    public int getSerializedSize() {
+      int size = memoizedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (!getLegacyRpcMessageIdBytes().isEmpty()) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(1, legacyRpcMessageId_);
+      }
+      if (success_ != false) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBoolSize(2, success_);
+      }
+      if (readIndex_ != 0) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt32Size(3, readIndex_);
+      }
+      if (rpcMessageId_ != 0L) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(4, rpcMessageId_);
+      }
+      size += unknownFields.getSerializedSize();
+      memoizedSize = size;
+      return size;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (obj == this) {
+       return true;
+      }
+      if (!(obj instanceof top.parak.kraft.core.Protos.ReadIndexResult)) {
+        return super.equals(obj);
+      }
+      top.parak.kraft.core.Protos.ReadIndexResult other = (top.parak.kraft.core.Protos.ReadIndexResult) obj;
+
+      boolean result = true;
+      result = result && getLegacyRpcMessageId()
+          .equals(other.getLegacyRpcMessageId());
+      result = result && (getSuccess()
+          == other.getSuccess());
+      result = result && (getReadIndex()
+          == other.getReadIndex());
+      result = result && (getRpcMessageId()
+          == other.getRpcMessageId());
+      result = result && unknownFields.equals(other.unknownFields);
+      return result;
+    }
+
+    @Override
+    public int hashCode() {
+      if (memoizedHashCode != 0) {
+        return memoizedHashCode;
+      }
+      int hash = 41;
+      hash = (19 * hash) + getDescriptor().hashCode();
+      hash = (37 * hash) + LEGACY_RPC_MESSAGE_ID_FIELD_NUMBER;
+      hash = (53 * hash) + getLegacyRpcMessageId().hashCode();
+      hash = (37 * hash) + SUCCESS_FIELD_NUMBER;
+      hash = (53 * hash) + com.google.protobuf.Internal.hashBoolean(
+          getSuccess());
+      hash = (37 * hash) + READ_INDEX_FIELD_NUMBER;
+      hash = (53 * hash) + getReadIndex();
+      hash = (37 * hash) + RPC_MESSAGE_ID_FIELD_NUMBER;
+      hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+          getRpcMessageId());
+      hash = (29 * hash) + unknownFields.hashCode();
+      memoizedHashCode = hash;
+      return hash;
+    }
+
+    public static top.parak.kraft.core.Protos.ReadIndexResult parseFrom(
+        java.nio.ByteBuffer data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static top.parak.kraft.core.Protos.ReadIndexResult parseFrom(
+        java.nio.ByteBuffer data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static top.parak.kraft.core.Protos.ReadIndexResult parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static top.parak.kraft.core.Protos.ReadIndexResult parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static top.parak.kraft.core.Protos.ReadIndexResult parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static top.parak.kraft.core.Protos.ReadIndexResult parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static top.parak.kraft.core.Protos.ReadIndexResult parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static top.parak.kraft.core.Protos.ReadIndexResult parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static top.parak.kraft.core.Protos.ReadIndexResult parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input);
+    }
+    public static top.parak.kraft.core.Protos.ReadIndexResult parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static top.parak.kraft.core.Protos.ReadIndexResult parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static top.parak.kraft.core.Protos.ReadIndexResult parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder() {
+      return DEFAULT_INSTANCE.toBuilder();
+    }
+    public static Builder newBuilder(top.parak.kraft.core.Protos.ReadIndexResult prototype) {
+      return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() {
+      return this == DEFAULT_INSTANCE
+          ? new Builder() : new Builder().mergeFrom(this);
+    }
+
+    @Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code ReadIndexResult}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessageV3.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:ReadIndexResult)
+        top.parak.kraft.core.Protos.ReadIndexResultOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return top.parak.kraft.core.Protos.internal_static_ReadIndexResult_descriptor;
+      }
+
+      protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return top.parak.kraft.core.Protos.internal_static_ReadIndexResult_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                top.parak.kraft.core.Protos.ReadIndexResult.class, top.parak.kraft.core.Protos.ReadIndexResult.Builder.class);
+      }
+
+      // Construct using top.parak.kraft.core.Protos.ReadIndexResult.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessageV3
+                .alwaysUseFieldBuilders) {
+        }
+      }
+      public Builder clear() {
+        super.clear();
+        legacyRpcMessageId_ = "";
+
+        success_ = false;
+
+        readIndex_ = 0;
+
+        rpcMessageId_ = 0L;
+
+        return this;
+      }
+
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return top.parak.kraft.core.Protos.internal_static_ReadIndexResult_descriptor;
+      }
+
+      public top.parak.kraft.core.Protos.ReadIndexResult getDefaultInstanceForType() {
+        return top.parak.kraft.core.Protos.ReadIndexResult.getDefaultInstance();
+      }
+
+      public top.parak.kraft.core.Protos.ReadIndexResult build() {
+        top.parak.kraft.core.Protos.ReadIndexResult result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      public top.parak.kraft.core.Protos.ReadIndexResult buildPartial() {
+        top.parak.kraft.core.Protos.ReadIndexResult result = new top.parak.kraft.core.Protos.ReadIndexResult(this);
+        result.legacyRpcMessageId_ = legacyRpcMessageId_;
+        result.success_ = success_;
+        result.readIndex_ = readIndex_;
+        result.rpcMessageId_ = rpcMessageId_;
+        onBuilt();
+        return result;
+      }
+
+      public Builder clone() {
+        return (Builder) super.clone();
+      }
+      public Builder setField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          Object value) {
+        return (Builder) super.setField(field, value);
+      }
+      public Builder clearField(
+          com.google.protobuf.Descriptors.FieldDescriptor field) {
+        return (Builder) super.clearField(field);
+      }
+      public Builder clearOneof(
+          com.google.protobuf.Descriptors.OneofDescriptor oneof) {
+        return (Builder) super.clearOneof(oneof);
+      }
+      public Builder setRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          int index, Object value) {
+        return (Builder) super.setRepeatedField(field, index, value);
+      }
+      public Builder addRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          Object value) {
+        return (Builder) super.addRepeatedField(field, value);
+      }
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof top.parak.kraft.core.Protos.ReadIndexResult) {
+          return mergeFrom((top.parak.kraft.core.Protos.ReadIndexResult)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(top.parak.kraft.core.Protos.ReadIndexResult other) {
+        if (other == top.parak.kraft.core.Protos.ReadIndexResult.getDefaultInstance()) return this;
+        if (!other.getLegacyRpcMessageId().isEmpty()) {
+          legacyRpcMessageId_ = other.legacyRpcMessageId_;
+          onChanged();
+        }
+        if (other.getSuccess() != false) {
+          setSuccess(other.getSuccess());
+        }
+        if (other.getReadIndex() != 0) {
+          setReadIndex(other.getReadIndex());
+        }
+        if (other.getRpcMessageId() != 0L) {
+          setRpcMessageId(other.getRpcMessageId());
+        }
+        this.mergeUnknownFields(other.unknownFields);
+        onChanged();
+        return this;
+      }
+
+      public final boolean isInitialized() {
+        return true;
+      }
+
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        top.parak.kraft.core.Protos.ReadIndexResult parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (top.parak.kraft.core.Protos.ReadIndexResult) e.getUnfinishedMessage();
+          throw e.unwrapIOException();
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+
+      private Object legacyRpcMessageId_ = "";
+      /**
+       * <code>string legacy_rpc_message_id = 1;</code>
+       */
+      public String getLegacyRpcMessageId() {
+        Object ref = legacyRpcMessageId_;
+        if (!(ref instanceof String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          String s = bs.toStringUtf8();
+          legacyRpcMessageId_ = s;
+          return s;
+        } else {
+          return (String) ref;
+        }
+      }
+      /**
+       * <code>string legacy_rpc_message_id = 1;</code>
+       */
+      public com.google.protobuf.ByteString
+          getLegacyRpcMessageIdBytes() {
+        Object ref = legacyRpcMessageId_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b =
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (String) ref);
+          legacyRpcMessageId_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>string legacy_rpc_message_id = 1;</code>
+       */
+      public Builder setLegacyRpcMessageId(
+          String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+
+        legacyRpcMessageId_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>string legacy_rpc_message_id = 1;</code>
+       */
+      public Builder clearLegacyRpcMessageId() {
+
+        legacyRpcMessageId_ = getDefaultInstance().getLegacyRpcMessageId();
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>string legacy_rpc_message_id = 1;</code>
+       */
+      public Builder setLegacyRpcMessageIdBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  checkByteStringIsUtf8(value);
+
+        legacyRpcMessageId_ = value;
+        onChanged();
+        return this;
+      }
+
+      private boolean success_ ;
+      /**
+       * <code>bool success = 2;</code>
+       */
+      public boolean getSuccess() {
+        return success_;
+      }
+      /**
+       * <code>bool success = 2;</code>
+       */
+      public Builder setSuccess(boolean value) {
+
+        success_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>bool success = 2;</code>
+       */
+      public Builder clearSuccess() {
+
+        success_ = false;
+        onChanged();
+        return this;
+      }
+
+      private int readIndex_ ;
+      /**
+       * <code>int32 read_index = 3;</code>
+       */
+      public int getReadIndex() {
+        return readIndex_;
+      }
+      /**
+       * <code>int32 read_index = 3;</code>
+       */
+      public Builder setReadIndex(int value) {
+
+        readIndex_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>int32 read_index = 3;</code>
+       */
+      public Builder clearReadIndex() {
+
+        readIndex_ = 0;
+        onChanged();
+        return this;
+      }
+
+      private long rpcMessageId_ ;
+      /**
+       * <code>int64 rpc_message_id = 4;</code>
+       */
+      public long getRpcMessageId() {
+        return rpcMessageId_;
+      }
+      /**
+       * <code>int64 rpc_message_id = 4;</code>
+       */
+      public Builder setRpcMessageId(long value) {
+
+        rpcMessageId_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>int64 rpc_message_id = 4;</code>
+       */
+      public Builder clearRpcMessageId() {
+
+        rpcMessageId_ = 0L;
+        onChanged();
+        return this;
+      }
+      public final Builder setUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.setUnknownFieldsProto3(unknownFields);
+      }
+
+      public final Builder mergeUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.mergeUnknownFields(unknownFields);
+      }
+
+
+      // @@protoc_insertion_point(builder_scope:ReadIndexResult)
+    }
+
+    // @@protoc_insertion_point(class_scope:ReadIndexResult)
+    private static final top.parak.kraft.core.Protos.ReadIndexResult DEFAULT_INSTANCE;
+    static {
+      DEFAULT_INSTANCE = new top.parak.kraft.core.Protos.ReadIndexResult();
+    }
+
+    public static top.parak.kraft.core.Protos.ReadIndexResult getDefaultInstance() {
+      return DEFAULT_INSTANCE;
+    }
+
+    private static final com.google.protobuf.Parser<ReadIndexResult>
+        PARSER = new com.google.protobuf.AbstractParser<ReadIndexResult>() {
+      public ReadIndexResult parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return new ReadIndexResult(input, extensionRegistry);
+      }
+    };
+
+    public static com.google.protobuf.Parser<ReadIndexResult> parser() {
+      return PARSER;
+    }
+
+    @Override
+    public com.google.protobuf.Parser<ReadIndexResult> getParserForType() {
+      return PARSER;
+    }
+
+    public top.parak.kraft.core.Protos.ReadIndexResult getDefaultInstanceForType() {
+      return DEFAULT_INSTANCE;
+    }
+
+  }
+
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_NodeEndpoint_descriptor;
+  private static final
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_NodeEndpoint_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_RequestVoteRpc_descriptor;
+  private static final
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_RequestVoteRpc_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_RequestVoteResult_descriptor;
+  private static final
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_RequestVoteResult_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_AppendEntriesRpc_descriptor;
+  private static final
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_AppendEntriesRpc_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_AppendEntriesRpc_Entry_descriptor;
+  private static final
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_AppendEntriesRpc_Entry_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_AppendEntriesResult_descriptor;
+  private static final
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_AppendEntriesResult_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_InstallSnapshotRpc_descriptor;
+  private static final
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_InstallSnapshotRpc_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_InstallSnapshotResult_descriptor;
+  private static final
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_InstallSnapshotResult_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_AddServerRpc_descriptor;
+  private static final
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_AddServerRpc_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_AddServerResult_descriptor;
+  private static final
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_AddServerResult_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_RemoveServerRpc_descriptor;
+  private static final
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_RemoveServerRpc_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_RemoveServerResult_descriptor;
+  private static final
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_RemoveServerResult_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_AddNodeCommand_descriptor;
+  private static final
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_AddNodeCommand_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_RemoveNodeCommand_descriptor;
+  private static final
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_RemoveNodeCommand_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_SnapshotHeader_descriptor;
+  private static final
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_SnapshotHeader_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_ReadIndexRpc_descriptor;
+  private static final
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_ReadIndexRpc_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_ReadIndexResult_descriptor;
+  private static final
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_ReadIndexResult_fieldAccessorTable;
+
+  public static com.google.protobuf.Descriptors.FileDescriptor
+      getDescriptor() {
+    return descriptor;
+  }
+  private static  com.google.protobuf.Descriptors.FileDescriptor
+      descriptor;
+  static {
+    String[] descriptorData = {
+      "\n\037xraft-core/src/proto/core.proto\"6\n\014Nod" +
+      "eEndpoint\022\n\n\002id\030\001 \001(\t\022\014\n\004host\030\002 \001(\t\022\014\n\004p" +
+      "ort\030\003 \001(\005\"c\n\016RequestVoteRpc\022\014\n\004term\030\001 \001(" +
+      "\005\022\024\n\014candidate_id\030\002 \001(\t\022\026\n\016last_log_inde" +
+      "x\030\003 \001(\005\022\025\n\rlast_log_term\030\004 \001(\005\"7\n\021Reques" +
+      "tVoteResult\022\014\n\004term\030\001 \001(\005\022\024\n\014vote_grante" +
+      "d\030\002 \001(\010\"\227\002\n\020AppendEntriesRpc\022\031\n\021legacy_m" +
+      "essage_id\030\001 \001(\t\022\014\n\004term\030\002 \001(\005\022\021\n\tleader_" +
+      "id\030\003 \001(\t\022\026\n\016prev_log_index\030\004 \001(\005\022\025\n\rprev" +
+      "_log_term\030\005 \001(\005\022\025\n\rleader_commit\030\006 \001(\005\022(" +
+      "\n\007entries\030\007 \003(\0132\027.AppendEntriesRpc.Entry" +
+      "\022\022\n\nmessage_id\030\010 \001(\003\032C\n\005Entry\022\014\n\004kind\030\001 " +
+      "\001(\005\022\r\n\005index\030\002 \001(\005\022\014\n\004term\030\003 \001(\005\022\017\n\007comm" +
+      "and\030\004 \001(\014\"\232\001\n\023AppendEntriesResult\022\035\n\025leg" +
+      "acy_rpc_message_id\030\001 \001(\t\022\014\n\004term\030\002 \001(\005\022\017" +
+      "\n\007success\030\003 \001(\010\022\025\n\rconflict_term\030\004 \001(\005\022\026" +
+      "\n\016conflict_index\030\005 \001(\005\022\026\n\016rpc_message_id" +
+      "\030\006 \001(\003\"\317\001\n\022InstallSnapshotRpc\022\014\n\004term\030\001 " +
+      "\001(\005\022\021\n\tleader_id\030\002 \001(\t\022\022\n\nlast_index\030\003 \001" +
+      "(\005\022\021\n\tlast_term\030\004 \001(\005\022\"\n\013last_config\030\005 \003" +
+      "(\0132\r.NodeEndpoint\022\016\n\006offset\030\006 \001(\005\022\014\n\004dat" +
+      "a\030\007 \001(\014\022\014\n\004done\030\010 \001(\010\022\r\n\005codec\030\t \001(\005\022\022\n\n" +
+      "message_id\030\n \001(\003\"M\n\025InstallSnapshotResul" +
+      "t\022\014\n\004term\030\001 \001(\005\022\016\n\006offset\030\002 \001(\005\022\026\n\016rpc_m" +
+      "essage_id\030\003 \001(\003\"1\n\014AddServerRpc\022!\n\nnew_s" +
+      "erver\030\001 \001(\0132\r.NodeEndpoint\"E\n\017AddServerR" +
+      "esult\022\016\n\006status\030\001 \001(\t\022\"\n\013leader_hint\030\002 \001" +
+      "(\0132\r.NodeEndpoint\"4\n\017RemoveServerRpc\022!\n\n" +
+      "old_server\030\001 \001(\0132\r.NodeEndpoint\"H\n\022Remov" +
+      "eServerResult\022\016\n\006status\030\001 \001(\t\022\"\n\013leader_" +
+      "hint\030\002 \001(\0132\r.NodeEndpoint\"a\n\016AddNodeComm" +
+      "and\022%\n\016node_endpoints\030\001 \003(\0132\r.NodeEndpoi" +
+      "nt\022(\n\021new_node_endpoint\030\002 \001(\0132\r.NodeEndp" +
+      "oint\"R\n\021RemoveNodeCommand\022%\n\016node_endpoi" +
+      "nts\030\001 \003(\0132\r.NodeEndpoint\022\026\n\016node_to_remo" +
+      "ve\030\002 \001(\t\"j\n\016SnapshotHeader\022\022\n\nlast_index" +
+      "\030\001 \001(\005\022\021\n\tlast_term\030\002 \001(\005\022\"\n\013last_config" +
+      "\030\003 \003(\0132\r.NodeEndpoint\022\r\n\005codec\030\004 \001(\005\"=\n\014" +
+      "ReadIndexRpc\022\031\n\021legacy_message_id\030\001 \001(\t\022" +
+      "\022\n\nmessage_id\030\002 \001(\003\"m\n\017ReadIndexResult\022\035" +
+      "\n\025legacy_rpc_message_id\030\001 \001(\t\022\017\n\007success" +
+      "\030\002 \001(\010\022\022\n\nread_index\030\003 \001(\005\022\026\n\016rpc_messag" +
+      "e_id\030\004 \001(\003B\036\n\024top.parak.kraft.coreB\006Prot" +
+      "osb\006proto3"
+    };
+    com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner assigner =
+        new com.google.protobuf.Descriptors.FileDescriptor.    InternalDescriptorAssigner() {
+          public com.google.protobuf.ExtensionRegistry assignDescriptors(
+              com.google.protobuf.Descriptors.FileDescriptor root) {
+            descriptor = root;
+            return null;
+          }
+        };
+    com.google.protobuf.Descriptors.FileDescriptor
+      .internalBuildGeneratedFileFrom(descriptorData,
+        new com.google.protobuf.Descriptors.FileDescriptor[] {
+        }, assigner);
+    internal_static_NodeEndpoint_descriptor =
+      getDescriptor().getMessageTypes().get(0);
+    internal_static_NodeEndpoint_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_NodeEndpoint_descriptor,
+        new String[] { "Id", "Host", "Port", });
+    internal_static_RequestVoteRpc_descriptor =
+      getDescriptor().getMessageTypes().get(1);
+    internal_static_RequestVoteRpc_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_RequestVoteRpc_descriptor,
+        new String[] { "Term", "CandidateId", "LastLogIndex", "LastLogTerm", });
+    internal_static_RequestVoteResult_descriptor =
+      getDescriptor().getMessageTypes().get(2);
+    internal_static_RequestVoteResult_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_RequestVoteResult_descriptor,
+        new String[] { "Term", "VoteGranted", });
+    internal_static_AppendEntriesRpc_descriptor =
+      getDescriptor().getMessageTypes().get(3);
+    internal_static_AppendEntriesRpc_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_AppendEntriesRpc_descriptor,
-        new String[] { "MessageId", "Term", "LeaderId", "PrevLogIndex", "PrevLogTerm", "LeaderCommit", "Entries", });
+        new String[] { "LegacyMessageId", "Term", "LeaderId", "PrevLogIndex", "PrevLogTerm", "LeaderCommit", "Entries", "MessageId", });
     internal_static_AppendEntriesRpc_Entry_descriptor =
       internal_static_AppendEntriesRpc_descriptor.getNestedTypes().get(0);
     internal_static_AppendEntriesRpc_Entry_fieldAccessorTable = new
@@ -12160,19 +14055,19 @@ public final class Protos {
     internal_static_AppendEntriesResult_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_AppendEntriesResult_descriptor,
-        new String[] { "RpcMessageId", "Term", "Success", });
+        new String[] { "LegacyRpcMessageId", "Term", "Success", "ConflictTerm", "ConflictIndex", "RpcMessageId", });
     internal_static_InstallSnapshotRpc_descriptor =
       getDescriptor().getMessageTypes().get(5);
     internal_static_InstallSnapshotRpc_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_InstallSnapshotRpc_descriptor,
-        new String[] { "Term", "LeaderId", "LastIndex", "LastTerm", "LastConfig", "Offset", "Data", "Done", });
+        new String[] { "Term", "LeaderId", "LastIndex", "LastTerm", "LastConfig", "Offset", "Data", "Done", "Codec", "MessageId", });
     internal_static_InstallSnapshotResult_descriptor =
       getDescriptor().getMessageTypes().get(6);
     internal_static_InstallSnapshotResult_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_InstallSnapshotResult_descriptor,
-        new String[] { "Term", });
+        new String[] { "Term", "Offset", "RpcMessageId", });
     internal_static_AddServerRpc_descriptor =
       getDescriptor().getMessageTypes().get(7);
     internal_static_AddServerRpc_fieldAccessorTable = new
@@ -12214,7 +14109,19 @@ public final class Protos {
     internal_static_SnapshotHeader_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_SnapshotHeader_descriptor,
-        new String[] { "LastIndex", "LastTerm", "LastConfig", });
+        new String[] { "LastIndex", "LastTerm", "LastConfig", "Codec", });
+    internal_static_ReadIndexRpc_descriptor =
+      getDescriptor().getMessageTypes().get(14);
+    internal_static_ReadIndexRpc_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_ReadIndexRpc_descriptor,
+        new String[] { "LegacyMessageId", "MessageId", });
+    internal_static_ReadIndexResult_descriptor =
+      getDescriptor().getMessageTypes().get(15);
+    internal_static_ReadIndexResult_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_ReadIndexResult_descriptor,
+        new String[] { "LegacyRpcMessageId", "Success", "ReadIndex", "RpcMessageId", });
   }
 
   // @@protoc_insertion_point(outer_class_scope)
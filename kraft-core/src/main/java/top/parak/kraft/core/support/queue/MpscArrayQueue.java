@@ -0,0 +1,135 @@
+package top.parak.kraft.core.support.queue;
+
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded lock-free queue for multiple producers and a single consumer, backed by a ring buffer.
+ * <p>
+ * Producers claim a slot by CAS on the producer index, then publish the element into the slot.
+ * The only consumer takes elements in the order of claiming, and waits briefly if the slot is
+ * claimed but the element is not published yet.
+ * </p>
+ * <p>
+ * {@link #poll()} and {@link #drain(int, Consumer)} must be called by one thread at a time.
+ * </p>
+ *
+ * @param <E> type of element
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+@ThreadSafe
+public class MpscArrayQueue<E> {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> buffer;
+    private final AtomicLong producerIndex = new AtomicLong(0);
+    private final AtomicLong consumerIndex = new AtomicLong(0);
+
+    /**
+     * Create MpscArrayQueue.
+     *
+     * @param capacity max count of elements
+     */
+    public MpscArrayQueue(int capacity) {
+        Preconditions.checkArgument(capacity > 0 && capacity <= (1 << 30), "capacity should be in (0, 2^30]");
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.capacity = capacity;
+        this.mask = size - 1;
+        this.buffer = new AtomicReferenceArray<>(size);
+    }
+
+    /**
+     * Offer element, called by producers.
+     *
+     * @param element element
+     * @return true if offered, false if queue is full
+     */
+    public boolean offer(@Nonnull E element) {
+        Preconditions.checkNotNull(element);
+        long index;
+        do {
+            index = producerIndex.get();
+            if (index - consumerIndex.get() >= capacity) {
+                return false;
+            }
+        } while (!producerIndex.compareAndSet(index, index + 1));
+        buffer.lazySet((int) index & mask, element);
+        return true;
+    }
+
+    /**
+     * Poll element, called by the consumer.
+     *
+     * @return element, {@code null} if queue is empty
+     */
+    @Nullable
+    public E poll() {
+        long index = consumerIndex.get();
+        int offset = (int) index & mask;
+        E element = buffer.get(offset);
+        if (element == null) {
+            if (index == producerIndex.get()) {
+                return null;
+            }
+            // slot is claimed, wait for the producer to publish
+            do {
+                element = buffer.get(offset);
+            } while (element == null);
+        }
+        buffer.lazySet(offset, null);
+        consumerIndex.lazySet(index + 1);
+        return element;
+    }
+
+    /**
+     * Drain elements to consumer, called by the consumer.
+     *
+     * @param limit    max count of elements to drain
+     * @param consumer consumer of elements
+     * @return count of elements drained
+     */
+    public int drain(int limit, @Nonnull Consumer<? super E> consumer) {
+        int count = 0;
+        E element;
+        while (count < limit && (element = poll()) != null) {
+            consumer.accept(element);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Test if queue is empty, elements claimed but not published are counted.
+     *
+     * @return true if empty, otherwise false
+     */
+    public boolean isEmpty() {
+        return consumerIndex.get() == producerIndex.get();
+    }
+
+    /**
+     * Get approximate count of elements.
+     *
+     * @return count
+     */
+    public int size() {
+        return (int) Math.max(0, producerIndex.get() - consumerIndex.get());
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+}
@@ -6,6 +6,7 @@ import com.google.common.util.concurrent.*;
 import javax.annotation.Nonnull;
 import java.util.Collection;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Listening task executor.
@@ -19,6 +20,10 @@ public class ListeningTaskExecutor extends AbstractTaskExecutor {
     private final ListeningExecutorService listeningExecutorService;
     private final ExecutorService monitorExecutorService;
     private final boolean monitorShared;
+    /**
+     * Count of tasks submitted but not started.
+     */
+    private final AtomicInteger pendingTaskCount = new AtomicInteger(0);
 
     public ListeningTaskExecutor(ExecutorService executorService) {
         this(MoreExecutors.listeningDecorator(executorService));
@@ -42,24 +47,41 @@ public class ListeningTaskExecutor extends AbstractTaskExecutor {
     @Nonnull
     public Future<?> submit(@Nonnull Runnable task) {
         Preconditions.checkNotNull(task);
-        return listeningExecutorService.submit(task);
+        return listeningExecutorService.submit(track(task));
     }
 
     @Override
     @Nonnull
     public <V> Future<V> submit(@Nonnull Callable<V> task) {
         Preconditions.checkNotNull(task);
-        return listeningExecutorService.submit(task);
+        pendingTaskCount.incrementAndGet();
+        return listeningExecutorService.submit(() -> {
+            pendingTaskCount.decrementAndGet();
+            return task.call();
+        });
     }
 
     @Override
     public void submit(@Nonnull Runnable task, @Nonnull Collection<FutureCallback<Object>> callbacks) {
         Preconditions.checkNotNull(task);
         Preconditions.checkNotNull(callbacks);
-        ListenableFuture<?> future = listeningExecutorService.submit(task);
+        ListenableFuture<?> future = listeningExecutorService.submit(track(task));
         callbacks.forEach(c -> Futures.addCallback(future, c, monitorExecutorService));
     }
 
+    private Runnable track(Runnable task) {
+        pendingTaskCount.incrementAndGet();
+        return () -> {
+            pendingTaskCount.decrementAndGet();
+            task.run();
+        };
+    }
+
+    @Override
+    public int getPendingTaskCount() {
+        return pendingTaskCount.get();
+    }
+
     @Override
     public void shutdown() throws InterruptedException {
         listeningExecutorService.shutdown();
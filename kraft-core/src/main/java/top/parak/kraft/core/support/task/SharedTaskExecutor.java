@@ -0,0 +1,57 @@
+package top.parak.kraft.core.support.task;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.FutureCallback;
+
+import javax.annotation.Nonnull;
+import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+/**
+ * Task executor shared by many users.
+ * <p>
+ * Tasks are submitted to the delegate, and {@link #shutdown()} does nothing,
+ * the delegate should be shut down by its owner.
+ * </p>
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+public class SharedTaskExecutor extends AbstractTaskExecutor {
+
+    private final TaskExecutor delegate;
+
+    public SharedTaskExecutor(TaskExecutor delegate) {
+        Preconditions.checkNotNull(delegate);
+        this.delegate = delegate;
+    }
+
+    @Override
+    @Nonnull
+    public Future<?> submit(@Nonnull Runnable task) {
+        return delegate.submit(task);
+    }
+
+    @Override
+    @Nonnull
+    public <V> Future<V> submit(@Nonnull Callable<V> task) {
+        return delegate.submit(task);
+    }
+
+    @Override
+    public void submit(@Nonnull Runnable task, @Nonnull Collection<FutureCallback<Object>> callbacks) {
+        delegate.submit(task, callbacks);
+    }
+
+    @Override
+    public int getPendingTaskCount() {
+        return delegate.getPendingTaskCount();
+    }
+
+    @Override
+    public void shutdown() {
+    }
+
+}
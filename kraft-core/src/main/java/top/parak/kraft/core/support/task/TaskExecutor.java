@@ -51,6 +51,15 @@ public interface TaskExecutor {
      */
     void submit(@Nonnull Runnable task, @Nonnull Collection<FutureCallback<Object>> callbacks);
 
+    /**
+     * Get count of tasks submitted but not started.
+     *
+     * @return count of pending tasks, {@code 0} if not tracked
+     */
+    default int getPendingTaskCount() {
+        return 0;
+    }
+
     /**
      * Shutdown.
      *
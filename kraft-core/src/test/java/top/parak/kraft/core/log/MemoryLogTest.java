@@ -1,22 +1,35 @@
 package top.parak.kraft.core.log;
 
 import com.google.common.eventbus.EventBus;
+import com.google.common.eventbus.Subscribe;
+import com.google.common.io.ByteStreams;
 import org.junit.Assert;
 import org.junit.Test;
 
 import top.parak.kraft.core.log.entry.Entry;
 import top.parak.kraft.core.log.entry.EntryMeta;
+import top.parak.kraft.core.log.entry.GeneralEntry;
 import top.parak.kraft.core.log.entry.GroupConfigEntry;
 import top.parak.kraft.core.log.entry.NoOpEntry;
+import top.parak.kraft.core.log.event.SnapshotGeneratedEvent;
 import top.parak.kraft.core.log.sequence.MemoryEntrySequence;
 import top.parak.kraft.core.log.snapshot.EntryInSnapshotException;
 import top.parak.kraft.core.log.snapshot.MemorySnapshot;
+import top.parak.kraft.core.log.snapshot.Snapshot;
+import top.parak.kraft.core.log.snapshot.SnapshotCodecs;
 import top.parak.kraft.core.log.statemachine.EmptyStateMachine;
+import top.parak.kraft.core.log.statemachine.SnapshotView;
+import top.parak.kraft.core.log.statemachine.StateMachineContext;
 import top.parak.kraft.core.node.NodeEndpoint;
 import top.parak.kraft.core.node.NodeId;
 import top.parak.kraft.core.rpc.message.AppendEntriesRpc;
 import top.parak.kraft.core.rpc.message.InstallSnapshotRpc;
 
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -334,6 +347,18 @@ public class MemoryLogTest {
         Assert.assertNotNull(memoryLog.getLastUncommittedGroupConfigEntry());
     }
 
+    @Test
+    public void testAppendEntries() {
+        MemoryLog memoryLog = new MemoryLog();
+        memoryLog.appendEntry(1); // 1
+        List<GeneralEntry> entries = memoryLog.appendEntries(2, Arrays.asList("foo".getBytes(), "bar".getBytes()));
+        Assert.assertEquals(2, entries.size());
+        Assert.assertEquals(2, entries.get(0).getIndex());
+        Assert.assertEquals(3, entries.get(1).getIndex());
+        Assert.assertEquals(4, memoryLog.getNextIndex());
+        Assert.assertEquals(2, memoryLog.getLastEntryMeta().getTerm());
+    }
+
     @Test
     public void testAppendEntriesFromLeaderNoLog() {
         MemoryLog memoryLog = new MemoryLog();
@@ -393,6 +418,66 @@ public class MemoryLogTest {
         Assert.assertFalse(memoryLog.appendEntriesFromLeader(1, 2, Collections.emptyList()));
     }
 
+    @Test
+    public void testFindConflictPrevLogNotFound() {
+        MemoryLog memoryLog = new MemoryLog();
+        memoryLog.appendEntry(1); // 1
+        LogConflict conflict = memoryLog.findConflict(5);
+        Assert.assertEquals(0, conflict.getTerm());
+        Assert.assertEquals(2, conflict.getIndex());
+    }
+
+    // follower: (1, 1), (2, 2), (3, 2), (4, 2)
+    @Test
+    public void testFindConflictPrevLogTermNotMatch() {
+        MemoryLog memoryLog = new MemoryLog();
+        memoryLog.appendEntry(1); // 1
+        memoryLog.appendEntry(2); // 2
+        memoryLog.appendEntry(2); // 3
+        memoryLog.appendEntry(2); // 4
+        LogConflict conflict = memoryLog.findConflict(4);
+        Assert.assertEquals(2, conflict.getTerm());
+        Assert.assertEquals(2, conflict.getIndex());
+    }
+
+    @Test
+    public void testFindConflictInSnapshot() {
+        MemoryLog memoryLog = new MemoryLog(
+                new MemorySnapshot(3, 4),
+                new MemoryEntrySequence(4),
+                new EventBus()
+        );
+        LogConflict conflict = memoryLog.findConflict(1);
+        Assert.assertEquals(0, conflict.getTerm());
+        Assert.assertEquals(4, conflict.getIndex());
+    }
+
+    // leader: (1, 1), (2, 1), (3, 3), (4, 3)
+    @Test
+    public void testFindLastIndexOfTerm() {
+        MemoryLog memoryLog = new MemoryLog();
+        memoryLog.appendEntry(1); // 1
+        memoryLog.appendEntry(1); // 2
+        memoryLog.appendEntry(3); // 3
+        memoryLog.appendEntry(3); // 4
+        Assert.assertEquals(2, memoryLog.findLastIndexOfTerm(1));
+        Assert.assertEquals(0, memoryLog.findLastIndexOfTerm(2));
+        Assert.assertEquals(4, memoryLog.findLastIndexOfTerm(3));
+        Assert.assertEquals(0, memoryLog.findLastIndexOfTerm(4));
+    }
+
+    @Test
+    public void testFindLastIndexOfTermInSnapshot() {
+        MemoryLog memoryLog = new MemoryLog(
+                new MemorySnapshot(3, 4),
+                new MemoryEntrySequence(4),
+                new EventBus()
+        );
+        memoryLog.appendEntry(5); // 4
+        Assert.assertEquals(3, memoryLog.findLastIndexOfTerm(4));
+        Assert.assertEquals(4, memoryLog.findLastIndexOfTerm(5));
+    }
+
     // (index, term)
     // follower: (1, 1), (2, 1)
     // leader  :         (2, 1), (3, 2)
@@ -539,6 +624,29 @@ public class MemoryLogTest {
         Assert.assertEquals(1, stateMachine.getLastApplied());
     }
 
+    @Test
+    public void testAdvanceCommitIndexApplyBatch() {
+        List<List<Entry>> batches = new ArrayList<>();
+        EmptyStateMachine stateMachine = new EmptyStateMachine() {
+            @Override
+            public void applyLogs(StateMachineContext context, @Nonnull List<Entry> entries, int firstLogIndex) {
+                batches.add(entries);
+                super.applyLogs(context, entries, firstLogIndex);
+            }
+        };
+
+        MemoryLog memoryLog = new MemoryLog();
+        memoryLog.setStateMachine(stateMachine);
+        memoryLog.appendEntry(1); // index 1
+        memoryLog.appendEntry(1, "a".getBytes()); // index 2
+        memoryLog.appendEntry(1, "b".getBytes()); // index 3
+        memoryLog.advanceCommitIndex(3, 1);
+        Assert.assertEquals(1, batches.size());
+        Assert.assertEquals(2, batches.get(0).size());
+        Assert.assertEquals(2, batches.get(0).get(0).getIndex());
+        Assert.assertEquals(3, stateMachine.getLastApplied());
+    }
+
     @Test
     public void testAdvanceCommitIndexApplySnapshot() {
         EmptyStateMachine stateMachine = new EmptyStateMachine();
@@ -560,10 +668,177 @@ public class MemoryLogTest {
         MemoryLog memoryLog = new MemoryLog();
         memoryLog.appendEntry(1);
         memoryLog.advanceCommitIndex(1, 1);
-        memoryLog.generateSnapshot(1, Collections.emptySet());
+        memoryLog.generateSnapshot(1, Collections.emptySet(), output -> {
+        });
         memoryLog.appendEntry(2);
     }
 
+    private static class SnapshotGeneratedListener {
+
+        private final List<SnapshotGeneratedEvent> events = new ArrayList<>();
+
+        @Subscribe
+        public void onSnapshotGenerated(SnapshotGeneratedEvent event) {
+            events.add(event);
+        }
+
+    }
+
+    @Test
+    public void testGenerateSnapshot() {
+        EventBus eventBus = new EventBus();
+        SnapshotGeneratedListener listener = new SnapshotGeneratedListener();
+        eventBus.register(listener);
+        MemoryLog memoryLog = new MemoryLog(eventBus);
+        memoryLog.appendEntry(1); // 1
+        memoryLog.appendEntry(1); // 2
+        memoryLog.appendEntry(1); // 3
+        memoryLog.advanceCommitIndex(2, 1);
+        memoryLog.generateSnapshot(2, Collections.emptySet(), output -> output.write("test".getBytes()));
+        // skip while previous one is generating
+        memoryLog.generateSnapshot(2, Collections.emptySet(), output -> output.write("test".getBytes()));
+        Assert.assertEquals(1, listener.events.size());
+
+        Snapshot generatedSnapshot = listener.events.get(0).getSnapshot();
+        Assert.assertNotNull(generatedSnapshot);
+        Assert.assertEquals(2, generatedSnapshot.getLastIncludedIndex());
+        memoryLog.replaceGeneratedSnapshot(generatedSnapshot);
+        InstallSnapshotRpc rpc = memoryLog.createInstallSnapshotRpc(1, NodeId.of("A"), 0, 10);
+        Assert.assertEquals(2, rpc.getLastIndex());
+        Assert.assertEquals("test", new String(rpc.getData()));
+        Assert.assertEquals(4, memoryLog.getNextIndex());
+    }
+
+    private static class CountingSnapshotView implements SnapshotView {
+
+        private int written = 0;
+        private int released = 0;
+
+        @Override
+        public void writeTo(@Nonnull OutputStream output) throws IOException {
+            written++;
+            output.write("test".getBytes());
+        }
+
+        @Override
+        public void release() {
+            released++;
+        }
+
+    }
+
+    @Test
+    public void testGenerateSnapshotReleaseView() {
+        EventBus eventBus = new EventBus();
+        SnapshotGeneratedListener listener = new SnapshotGeneratedListener();
+        eventBus.register(listener);
+        MemoryLog memoryLog = new MemoryLog(eventBus);
+        memoryLog.appendEntry(1); // 1
+        memoryLog.appendEntry(1); // 2
+        memoryLog.advanceCommitIndex(2, 1);
+        CountingSnapshotView view = new CountingSnapshotView();
+        memoryLog.generateSnapshot(2, Collections.emptySet(), view);
+        Assert.assertEquals(1, view.written);
+        Assert.assertEquals(1, view.released);
+
+        // released without writing while previous one is generating
+        CountingSnapshotView skippedView = new CountingSnapshotView();
+        memoryLog.generateSnapshot(2, Collections.emptySet(), skippedView);
+        Assert.assertEquals(0, skippedView.written);
+        Assert.assertEquals(1, skippedView.released);
+    }
+
+    @Test
+    public void testGenerateSnapshotCompressed() throws IOException {
+        EventBus eventBus = new EventBus();
+        SnapshotGeneratedListener listener = new SnapshotGeneratedListener();
+        eventBus.register(listener);
+        MemoryLog memoryLog = new MemoryLog(eventBus);
+        memoryLog.setSnapshotCodec(SnapshotCodecs.DEFLATE);
+        memoryLog.appendEntry(1); // 1
+        memoryLog.appendEntry(1); // 2
+        memoryLog.advanceCommitIndex(2, 1);
+        memoryLog.generateSnapshot(2, Collections.emptySet(), output -> output.write("test".getBytes()));
+
+        Snapshot generatedSnapshot = listener.events.get(0).getSnapshot();
+        Assert.assertNotNull(generatedSnapshot);
+        Assert.assertSame(SnapshotCodecs.DEFLATE, generatedSnapshot.getCodec());
+        try (InputStream input = generatedSnapshot.getDataStream()) {
+            Assert.assertEquals("test", new String(ByteStreams.toByteArray(input)));
+        }
+        memoryLog.replaceGeneratedSnapshot(generatedSnapshot);
+        // transferred compressed
+        InstallSnapshotRpc rpc = memoryLog.createInstallSnapshotRpc(1, NodeId.of("A"), 0, 1024);
+        Assert.assertEquals(SnapshotCodecs.DEFLATE.getId(), rpc.getCodec());
+        Assert.assertNotEquals("test", new String(rpc.getData()));
+    }
+
+    @Test
+    public void testGenerateSnapshotFailed() {
+        EventBus eventBus = new EventBus();
+        SnapshotGeneratedListener listener = new SnapshotGeneratedListener();
+        eventBus.register(listener);
+        MemoryLog memoryLog = new MemoryLog(eventBus);
+        memoryLog.appendEntry(1); // 1
+        memoryLog.advanceCommitIndex(1, 1);
+        memoryLog.generateSnapshot(1, Collections.emptySet(), output -> {
+            throw new IOException("test");
+        });
+        Assert.assertNull(listener.events.get(0).getSnapshot());
+        memoryLog.replaceGeneratedSnapshot(null);
+        // generate again after failed
+        memoryLog.generateSnapshot(1, Collections.emptySet(), output -> {
+        });
+        Assert.assertEquals(2, listener.events.size());
+        Assert.assertNotNull(listener.events.get(1).getSnapshot());
+    }
+
+    @Test
+    public void testGenerateSnapshotError() {
+        EventBus eventBus = new EventBus();
+        SnapshotGeneratedListener listener = new SnapshotGeneratedListener();
+        eventBus.register(listener);
+        MemoryLog memoryLog = new MemoryLog(eventBus);
+        memoryLog.appendEntry(1); // 1
+        memoryLog.advanceCommitIndex(1, 1);
+        memoryLog.generateSnapshot(1, Collections.emptySet(), output -> {
+            throw new OutOfMemoryError("test");
+        });
+        Assert.assertEquals(1, listener.events.size());
+        Assert.assertNull(listener.events.get(0).getSnapshot());
+        memoryLog.replaceGeneratedSnapshot(null);
+        // generate again after error
+        memoryLog.generateSnapshot(1, Collections.emptySet(), output -> {
+        });
+        Assert.assertEquals(2, listener.events.size());
+        Assert.assertNotNull(listener.events.get(1).getSnapshot());
+    }
+
+    @Test
+    public void testGenerateSnapshotDiscarded() {
+        EventBus eventBus = new EventBus();
+        SnapshotGeneratedListener listener = new SnapshotGeneratedListener();
+        eventBus.register(listener);
+        MemoryLog memoryLog = new MemoryLog(eventBus);
+        memoryLog.appendEntry(1); // 1
+        memoryLog.advanceCommitIndex(1, 1);
+        memoryLog.generateSnapshot(1, Collections.emptySet(), output -> {
+        });
+
+        // install snapshot from leader during generating
+        InstallSnapshotRpc installSnapshotRpc = new InstallSnapshotRpc();
+        installSnapshotRpc.setLastIndex(5);
+        installSnapshotRpc.setLastTerm(2);
+        installSnapshotRpc.setLastConfig(Collections.emptySet());
+        installSnapshotRpc.setData(new byte[0]);
+        installSnapshotRpc.setDone(true);
+        memoryLog.installSnapshot(installSnapshotRpc);
+
+        memoryLog.replaceGeneratedSnapshot(listener.events.get(0).getSnapshot());
+        Assert.assertEquals(5, memoryLog.createInstallSnapshotRpc(2, NodeId.of("A"), 0, 10).getLastIndex());
+        Assert.assertEquals(6, memoryLog.getNextIndex());
+    }
+
     @Test
     public void testInstallSnapshotLessThanLastIncludedIndex() {
         MemoryLog memoryLog = new MemoryLog(
@@ -611,5 +886,40 @@ public class MemoryLogTest {
         Assert.assertEquals(0, stateMachine.getLastApplied());
     }
 
+    private InstallSnapshotRpc createInstallSnapshotRpc(int offset, String data, boolean done) {
+        InstallSnapshotRpc rpc = new InstallSnapshotRpc();
+        rpc.setLeaderId(NodeId.of("A"));
+        rpc.setLastIndex(2);
+        rpc.setLastTerm(3);
+        if (offset == 0) {
+            rpc.setLastConfig(Collections.emptySet());
+        }
+        rpc.setOffset(offset);
+        rpc.setData(data.getBytes());
+        rpc.setDone(done);
+        return rpc;
+    }
+
+    @Test
+    public void testInstallSnapshotUnexpectedOffset() {
+        MemoryLog memoryLog = new MemoryLog();
+        memoryLog.setStateMachine(new EmptyStateMachine());
+        Assert.assertEquals(2, memoryLog.installSnapshot(createInstallSnapshotRpc(0, "he", false)).getOffset());
+        // lost chunk
+        InstallSnapshotState state = memoryLog.installSnapshot(createInstallSnapshotRpc(4, "o", true));
+        Assert.assertEquals(InstallSnapshotState.StateName.INSTALLING, state.getStateName());
+        Assert.assertEquals(2, state.getOffset());
+        // resume from offset of snapshot being built
+        Assert.assertEquals(2, memoryLog.installSnapshot(createInstallSnapshotRpc(0, "he", false)).getOffset());
+        Assert.assertEquals(4, memoryLog.installSnapshot(createInstallSnapshotRpc(2, "ll", false)).getOffset());
+        state = memoryLog.installSnapshot(createInstallSnapshotRpc(4, "o", true));
+        Assert.assertEquals(InstallSnapshotState.StateName.INSTALLED, state.getStateName());
+        Assert.assertEquals(2, memoryLog.commitIndex);
+        // duplicated chunk after installed
+        state = memoryLog.installSnapshot(createInstallSnapshotRpc(4, "o", true));
+        Assert.assertEquals(InstallSnapshotState.StateName.ILLEGAL_INSTALL_SNAPSHOT_RPC, state.getStateName());
+        Assert.assertEquals(5, state.getOffset());
+    }
+
 
 }
\ No newline at end of file
@@ -202,4 +202,24 @@ public class EntryIndexFileTest {
         iterator.next();
     }
 
+    @Test
+    public void testLoadMoreThanOneBatch() throws IOException {
+        EntryIndexFile entryIndexFile = new EntryIndexFile(makeEntryIndexFileContent(1, 10000));
+        Assert.assertEquals(10000, entryIndexFile.getEntryIndexCount());
+        Assert.assertEquals(50000L, entryIndexFile.getOffset(5000));
+        Assert.assertEquals(1, entryIndexFile.getKind(10000));
+        Assert.assertEquals(10000, entryIndexFile.getTerm(10000));
+    }
+
+    @Test
+    public void testAppendAfterRemove() throws IOException {
+        EntryIndexFile entryIndexFile = new EntryIndexFile(makeEntryIndexFileContent(3, 40));
+        entryIndexFile.removeAfter(10);
+        entryIndexFile.appendEntryIndex(11, 1000L, 1, 5);
+        Assert.assertEquals(11, entryIndexFile.getMaxEntryIndex());
+        Assert.assertEquals(1000L, entryIndexFile.getOffset(11));
+        Assert.assertEquals(5, entryIndexFile.getTerm(11));
+        Assert.assertEquals(10, entryIndexFile.getTerm(10));
+    }
+
 }
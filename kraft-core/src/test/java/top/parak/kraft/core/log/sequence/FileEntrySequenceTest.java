@@ -387,4 +387,97 @@ public class FileEntrySequenceTest {
         Assert.assertEquals(1, fileEntrySequence.getLastLogIndex());
     }
 
+    @Test
+    public void testWriteAheadAppend() throws IOException {
+        FileEntrySequence fileEntrySequence = new FileEntrySequence(entriesFile, entryIndexFile, 1, LogFlushPolicy.always());
+        fileEntrySequence.append(new NoOpEntry(fileEntrySequence.getNextLogIndex(), 1));
+        fileEntrySequence.append(new GeneralEntry(fileEntrySequence.getNextLogIndex(), 1, "test".getBytes()));
+        Assert.assertEquals(2, entryIndexFile.getEntryIndexCount());
+        Assert.assertEquals(0, fileEntrySequence.getCommitIndex());
+        Assert.assertEquals(1, fileEntrySequence.getEntryMeta(1).getTerm());
+        Assert.assertEquals("test", new String(fileEntrySequence.getEntry(2).getCommandBytes()));
+        fileEntrySequence.flush();
+        fileEntrySequence.commit(2);
+        Assert.assertEquals(2, fileEntrySequence.getCommitIndex());
+        Assert.assertEquals(2, entryIndexFile.getEntryIndexCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWriteAheadCommitExceed() {
+        FileEntrySequence fileEntrySequence = new FileEntrySequence(entriesFile, entryIndexFile, 1, LogFlushPolicy.none());
+        fileEntrySequence.append(new NoOpEntry(fileEntrySequence.getNextLogIndex(), 1));
+        fileEntrySequence.commit(2);
+    }
+
+    @Test
+    public void testWriteAheadInitialize() throws IOException {
+        appendEntryToFile(new NoOpEntry(1, 1));
+        appendEntryToFile(new NoOpEntry(2, 1));
+        FileEntrySequence fileEntrySequence = new FileEntrySequence(entriesFile, entryIndexFile, 1, LogFlushPolicy.always());
+        Assert.assertEquals(2, fileEntrySequence.getLastLogIndex());
+        // committed position is not persisted
+        Assert.assertEquals(0, fileEntrySequence.getCommitIndex());
+    }
+
+    @Test
+    public void testWriteAheadRemoveAfter() {
+        FileEntrySequence fileEntrySequence = new FileEntrySequence(entriesFile, entryIndexFile, 1, LogFlushPolicy.bytes(1024));
+        fileEntrySequence.append(new NoOpEntry(fileEntrySequence.getNextLogIndex(), 1));
+        fileEntrySequence.append(new NoOpEntry(fileEntrySequence.getNextLogIndex(), 1));
+        fileEntrySequence.append(new NoOpEntry(fileEntrySequence.getNextLogIndex(), 2));
+        fileEntrySequence.commit(1);
+        fileEntrySequence.removeAfter(2);
+        Assert.assertEquals(2, fileEntrySequence.getLastLogIndex());
+        Assert.assertEquals(1, fileEntrySequence.getCommitIndex());
+        Assert.assertEquals(2, entryIndexFile.getMaxEntryIndex());
+        fileEntrySequence.removeAfter(0);
+        Assert.assertTrue(fileEntrySequence.isEmpty());
+        Assert.assertEquals(0, fileEntrySequence.getCommitIndex());
+    }
+
+    @Test
+    public void testTailEntryCache() throws IOException {
+        appendEntryToFile(new NoOpEntry(1, 1));
+        FileEntrySequence fileEntrySequence = new FileEntrySequence(entriesFile, entryIndexFile, 1, null, 1024);
+        Entry entry2 = new GeneralEntry(2, 1, "test".getBytes());
+        Entry entry3 = new NoOpEntry(3, 1);
+        fileEntrySequence.append(entry2);
+        fileEntrySequence.append(entry3);
+        fileEntrySequence.commit(3);
+        Assert.assertSame(entry2, fileEntrySequence.getEntry(2));
+        Assert.assertSame(entry3, fileEntrySequence.getLastEntry());
+        List<Entry> subList = fileEntrySequence.subList(1, 4);
+        Assert.assertEquals(3, subList.size());
+        Assert.assertNotSame(entry2, fileEntrySequence.getEntry(1));
+        Assert.assertEquals(1, subList.get(0).getIndex());
+        Assert.assertSame(entry2, subList.get(1));
+        Assert.assertSame(entry3, subList.get(2));
+    }
+
+    @Test
+    public void testWriteAheadTailEntryCacheRemoveAfter() {
+        FileEntrySequence fileEntrySequence = new FileEntrySequence(entriesFile, entryIndexFile, 1, LogFlushPolicy.bytes(1024), 1024);
+        fileEntrySequence.append(new NoOpEntry(1, 1));
+        fileEntrySequence.append(new NoOpEntry(2, 1));
+        fileEntrySequence.removeAfter(1);
+        Entry entry = new NoOpEntry(2, 2);
+        fileEntrySequence.append(entry);
+        Assert.assertSame(entry, fileEntrySequence.getEntry(2));
+        fileEntrySequence.removeAfter(0);
+        fileEntrySequence.append(new GeneralEntry(1, 3, "test".getBytes()));
+        Assert.assertEquals(3, fileEntrySequence.getEntry(1).getTerm());
+    }
+
+    @Test
+    public void testFlushPolicy() {
+        Assert.assertTrue(LogFlushPolicy.always().shouldFlush(0L, 0L, 0L));
+        Assert.assertFalse(LogFlushPolicy.none().shouldFlush(1024L, 0L, 1000L));
+        Assert.assertFalse(LogFlushPolicy.interval(100).shouldFlush(0L, 1000L, 1050L));
+        Assert.assertTrue(LogFlushPolicy.interval(100).shouldFlush(0L, 1000L, 1100L));
+        Assert.assertFalse(LogFlushPolicy.bytes(1024).shouldFlush(1023L, 0L, 0L));
+        Assert.assertTrue(LogFlushPolicy.bytes(1024).shouldFlush(1024L, 0L, 0L));
+        Assert.assertEquals(LogFlushPolicy.Kind.INTERVAL, LogFlushPolicy.of("interval", 10, 0).getKind());
+        Assert.assertNull(LogFlushPolicy.of("off", 10, 0));
+    }
+
 }
@@ -99,6 +99,16 @@ public class MemoryEntrySequenceTest {
         Assert.assertEquals(2, subList.get(0).getIndex());
     }
 
+    @Test
+    public void testSubListAfterAppend() {
+        MemoryEntrySequence memoryEntrySequence = new MemoryEntrySequence(2);
+        memoryEntrySequence.append(new NoOpEntry(2, 1));
+        List<Entry> subList = memoryEntrySequence.subList(2, 3);
+        memoryEntrySequence.append(new NoOpEntry(3, 1));
+        Assert.assertEquals(1, subList.size());
+        Assert.assertEquals(2, subList.get(0).getIndex());
+    }
+
     @Test
     public void testSubViewEmpty() {
         MemoryEntrySequence memoryEntrySequence = new MemoryEntrySequence(2);
@@ -0,0 +1,161 @@
+package top.parak.kraft.core.log.sequence;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import top.parak.kraft.core.log.entry.*;
+import top.parak.kraft.core.node.NodeEndpoint;
+import top.parak.kraft.core.node.NodeId;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+public class SegmentedEntrySequenceTest {
+
+    private static final int SEGMENT_SIZE = 128;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = folder.newFolder("segments");
+    }
+
+    private SegmentedEntrySequence newSequence(int logIndexOffset) {
+        return new SegmentedEntrySequence(dir, logIndexOffset, SEGMENT_SIZE, LogFlushPolicy.always());
+    }
+
+    // 16 bytes header + 16 bytes command, 4 entries per segment
+    private GeneralEntry newEntry(int index, int term) {
+        return new GeneralEntry(index, term, String.format("command-%08d", index).getBytes());
+    }
+
+    @Test
+    public void testInitializeEmpty() {
+        SegmentedEntrySequence sequence = newSequence(5);
+        Assert.assertTrue(sequence.isEmpty());
+        Assert.assertEquals(5, sequence.getNextLogIndex());
+        Assert.assertEquals(4, sequence.getCommitIndex());
+    }
+
+    @Test
+    public void testAppendAndRoll() {
+        SegmentedEntrySequence sequence = newSequence(1);
+        for (int i = 1; i <= 10; i++) {
+            sequence.append(newEntry(i, 1));
+        }
+        Assert.assertEquals(10, sequence.getLastLogIndex());
+        Assert.assertEquals(6, dir.list().length);
+        Assert.assertEquals("command-00000007", new String(sequence.getEntry(7).getCommandBytes()));
+        EntryMeta meta = sequence.getEntryMeta(9);
+        Assert.assertEquals(Entry.KIND_GENERAL, meta.getKind());
+        Assert.assertEquals(9, meta.getIndex());
+        Assert.assertEquals(10, sequence.getLastEntry().getIndex());
+    }
+
+    @Test
+    public void testSubList() {
+        SegmentedEntrySequence sequence = newSequence(1);
+        for (int i = 1; i <= 10; i++) {
+            sequence.append(newEntry(i, 1));
+        }
+        List<Entry> entries = sequence.subList(3, 10);
+        Assert.assertEquals(7, entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            Assert.assertEquals(3 + i, entries.get(i).getIndex());
+        }
+    }
+
+    @Test
+    public void testReopen() {
+        SegmentedEntrySequence sequence = newSequence(1);
+        for (int i = 1; i <= 6; i++) {
+            sequence.append(newEntry(i, 1));
+        }
+        sequence.commit(6);
+        sequence.close();
+
+        sequence = newSequence(1);
+        Assert.assertEquals(1, sequence.getFirstLogIndex());
+        Assert.assertEquals(6, sequence.getLastLogIndex());
+        // committed position is not persisted
+        Assert.assertEquals(0, sequence.getCommitIndex());
+        sequence.append(newEntry(7, 2));
+        Assert.assertEquals(2, sequence.getEntry(7).getTerm());
+    }
+
+    @Test
+    public void testCloseFlushPolicyNone() {
+        SegmentedEntrySequence sequence = new SegmentedEntrySequence(dir, 1, SEGMENT_SIZE, LogFlushPolicy.none());
+        for (int i = 1; i <= 6; i++) {
+            sequence.append(newEntry(i, 1));
+        }
+        // segments are forced and unmapped
+        sequence.close();
+
+        sequence = newSequence(1);
+        Assert.assertEquals(6, sequence.getLastLogIndex());
+        Assert.assertEquals("command-00000005", new String(sequence.getEntry(5).getCommandBytes()));
+    }
+
+    @Test
+    public void testRemoveAfter() {
+        SegmentedEntrySequence sequence = newSequence(1);
+        for (int i = 1; i <= 10; i++) {
+            sequence.append(newEntry(i, 1));
+        }
+        sequence.commit(3);
+        sequence.removeAfter(2);
+        Assert.assertEquals(2, sequence.getLastLogIndex());
+        Assert.assertEquals(2, sequence.getCommitIndex());
+        Assert.assertEquals(2, dir.list().length);
+        sequence.append(newEntry(3, 2));
+        sequence.close();
+
+        sequence = newSequence(1);
+        Assert.assertEquals(3, sequence.getLastLogIndex());
+        Assert.assertEquals(2, sequence.getEntry(3).getTerm());
+    }
+
+    @Test
+    public void testRemoveAfterAll() {
+        SegmentedEntrySequence sequence = newSequence(1);
+        for (int i = 1; i <= 5; i++) {
+            sequence.append(newEntry(i, 1));
+        }
+        sequence.removeAfter(0);
+        Assert.assertTrue(sequence.isEmpty());
+        Assert.assertEquals(0, dir.list().length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCommitExceed() {
+        SegmentedEntrySequence sequence = newSequence(1);
+        sequence.append(newEntry(1, 1));
+        sequence.commit(2);
+    }
+
+    @Test
+    public void testBuildGroupConfigEntryList() {
+        SegmentedEntrySequence sequence = newSequence(1);
+        sequence.append(new NoOpEntry(1, 1));
+        sequence.append(new AddNodeEntry(2, 1, Collections.emptySet(), new NodeEndpoint("A", "localhost", 2333)));
+        sequence.append(newEntry(3, 1));
+        sequence.append(new RemoveNodeEntry(4, 1, Collections.emptySet(), new NodeId("A")));
+        GroupConfigEntryList list = sequence.buildGroupConfigEntryList();
+        Iterator<GroupConfigEntry> iterator = list.iterator();
+        Assert.assertEquals(2, iterator.next().getIndex());
+        Assert.assertEquals(4, iterator.next().getIndex());
+        Assert.assertFalse(iterator.hasNext());
+    }
+
+}
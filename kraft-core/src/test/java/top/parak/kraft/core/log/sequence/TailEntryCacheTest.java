@@ -0,0 +1,93 @@
+package top.parak.kraft.core.log.sequence;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import top.parak.kraft.core.log.entry.Entry;
+import top.parak.kraft.core.log.entry.GeneralEntry;
+import top.parak.kraft.core.log.entry.NoOpEntry;
+
+public class TailEntryCacheTest {
+
+    @Test
+    public void testDisabled() {
+        TailEntryCache cache = new TailEntryCache(0);
+        cache.add(new NoOpEntry(1, 1));
+        Assert.assertEquals(0, cache.size());
+        Assert.assertNull(cache.get(1));
+    }
+
+    @Test
+    public void testAddAndGet() {
+        TailEntryCache cache = new TailEntryCache(1024);
+        // grow ring buffer
+        for (int i = 1; i <= 40; i++) {
+            cache.add(new NoOpEntry(i, 1));
+        }
+        Assert.assertEquals(40, cache.size());
+        Assert.assertEquals(40 * 16, cache.getBytes());
+        Assert.assertNull(cache.get(0));
+        Assert.assertEquals(1, cache.get(1).getIndex());
+        Assert.assertEquals(40, cache.get(40).getIndex());
+        Assert.assertNull(cache.get(41));
+    }
+
+    @Test
+    public void testEvict() {
+        TailEntryCache cache = new TailEntryCache(100);
+        for (int i = 1; i <= 10; i++) {
+            cache.add(new GeneralEntry(i, 1, new byte[4]));
+        }
+        // 20 bytes each
+        Assert.assertEquals(5, cache.size());
+        Assert.assertEquals(100, cache.getBytes());
+        Assert.assertNull(cache.get(5));
+        Assert.assertEquals(6, cache.get(6).getIndex());
+        Assert.assertEquals(10, cache.get(10).getIndex());
+
+        cache.add(new GeneralEntry(11, 1, new byte[44]));
+        Assert.assertEquals(3, cache.size());
+        Assert.assertEquals(100, cache.getBytes());
+        Assert.assertNull(cache.get(8));
+        Assert.assertEquals(9, cache.get(9).getIndex());
+        Assert.assertEquals(11, cache.get(11).getIndex());
+
+        // larger than limit
+        cache.add(new GeneralEntry(12, 1, new byte[100]));
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(0, cache.getBytes());
+        cache.add(new NoOpEntry(13, 1));
+        Assert.assertEquals(13, cache.get(13).getIndex());
+    }
+
+    @Test
+    public void testAddNotContiguous() {
+        TailEntryCache cache = new TailEntryCache(1024);
+        cache.add(new NoOpEntry(1, 1));
+        cache.add(new NoOpEntry(2, 1));
+        cache.add(new NoOpEntry(5, 1));
+        Assert.assertEquals(1, cache.size());
+        Assert.assertNull(cache.get(1));
+        Assert.assertEquals(5, cache.get(5).getIndex());
+    }
+
+    @Test
+    public void testRemoveAfter() {
+        TailEntryCache cache = new TailEntryCache(1024);
+        for (int i = 1; i <= 20; i++) {
+            cache.add(new NoOpEntry(i, 1));
+        }
+        cache.removeAfter(15);
+        Assert.assertEquals(15, cache.size());
+        Assert.assertNull(cache.get(16));
+        Entry entry = new NoOpEntry(16, 2);
+        cache.add(entry);
+        Assert.assertSame(entry, cache.get(16));
+
+        cache.removeAfter(0);
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(0, cache.getBytes());
+        Assert.assertNull(cache.get(1));
+    }
+
+}
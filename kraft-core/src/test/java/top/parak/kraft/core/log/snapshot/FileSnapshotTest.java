@@ -1,6 +1,7 @@
 package top.parak.kraft.core.log.snapshot;
 
 import com.google.common.collect.ImmutableSet;
+import com.google.common.io.ByteStreams;
 import org.junit.Assert;
 import org.junit.Test;
 import top.parak.kraft.core.node.NodeEndpoint;
@@ -8,6 +9,8 @@ import top.parak.kraft.core.support.file.ByteArraySeekableFile;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
 import java.nio.charset.StandardCharsets;
 
 public class FileSnapshotTest {
@@ -32,6 +35,23 @@ public class FileSnapshotTest {
         SnapshotChunk snapshotChunk = snapshot.readData(0, 10);
         Assert.assertArrayEquals(data, snapshotChunk.toByteArray());
         Assert.assertTrue(snapshotChunk.isLastChunk());
+        Assert.assertSame(SnapshotCodecs.NONE, snapshot.getCodec());
+    }
+
+    @Test
+    public void testCompressed() throws IOException {
+        byte[] data = new byte[100000];
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (FileSnapshotWriter writer = new FileSnapshotWriter(output, 1, 2, Collections.emptySet(), SnapshotCodecs.LZ4)) {
+            writer.getOutput().write(data);
+        }
+
+        FileSnapshot snapshot = new FileSnapshot(new ByteArraySeekableFile(output.toByteArray()));
+        Assert.assertSame(SnapshotCodecs.LZ4, snapshot.getCodec());
+        Assert.assertTrue(snapshot.getDataSize() < data.length);
+        try (InputStream input = snapshot.getDataStream()) {
+            Assert.assertArrayEquals(data, ByteStreams.toByteArray(input));
+        }
     }
 
 }
@@ -1,9 +1,14 @@
 package top.parak.kraft.core.log.snapshot;
 
+import com.google.common.io.ByteStreams;
 import org.junit.Assert;
 import org.junit.Test;
 import top.parak.kraft.core.rpc.message.InstallSnapshotRpc;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 
 public class MemorySnapshotBuilderTest {
@@ -25,6 +30,28 @@ public class MemorySnapshotBuilderTest {
         Assert.assertArrayEquals(data, snapshot.getData());
     }
 
+    @Test
+    public void testCodec() throws IOException {
+        ByteArrayOutputStream encodedOutput = new ByteArrayOutputStream();
+        try (OutputStream output = SnapshotCodecs.DEFLATE.encode(encodedOutput)) {
+            output.write("test".getBytes(StandardCharsets.UTF_8));
+        }
+        InstallSnapshotRpc rpc = new InstallSnapshotRpc();
+        rpc.setLastIndex(3);
+        rpc.setLastTerm(2);
+        rpc.setOffset(0);
+        rpc.setData(encodedOutput.toByteArray());
+        rpc.setDone(true);
+        rpc.setCodec(SnapshotCodecs.DEFLATE.getId());
+
+        MemorySnapshot snapshot = new MemorySnapshotBuilder(rpc).build();
+        Assert.assertSame(SnapshotCodecs.DEFLATE, snapshot.getCodec());
+        Assert.assertArrayEquals(encodedOutput.toByteArray(), snapshot.getData());
+        try (InputStream input = snapshot.getDataStream()) {
+            Assert.assertArrayEquals("test".getBytes(StandardCharsets.UTF_8), ByteStreams.toByteArray(input));
+        }
+    }
+
     @Test
     public void testAppend() {
         InstallSnapshotRpc firstRpc = new InstallSnapshotRpc();
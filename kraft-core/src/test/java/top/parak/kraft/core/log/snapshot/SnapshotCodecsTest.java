@@ -0,0 +1,86 @@
+package top.parak.kraft.core.log.snapshot;
+
+import com.google.common.io.ByteStreams;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+public class SnapshotCodecsTest {
+
+    private byte[] repeat(String s, int times) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < times; i++) {
+            builder.append(s).append(i % 10);
+        }
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte[] encode(SnapshotCodec codec, byte[] data) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (OutputStream encodedOutput = codec.encode(output)) {
+            encodedOutput.write(data);
+        }
+        return output.toByteArray();
+    }
+
+    private byte[] decode(SnapshotCodec codec, byte[] data) throws IOException {
+        try (InputStream input = codec.decode(new ByteArrayInputStream(data))) {
+            return ByteStreams.toByteArray(input);
+        }
+    }
+
+    @Test
+    public void testOf() {
+        Assert.assertSame(SnapshotCodecs.NONE, SnapshotCodecs.of(0));
+        Assert.assertSame(SnapshotCodecs.DEFLATE, SnapshotCodecs.of("deflate"));
+        Assert.assertSame(SnapshotCodecs.LZ4, SnapshotCodecs.of(" LZ4 "));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOfUnknown() {
+        SnapshotCodecs.of(100);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRegisterDuplicatedId() {
+        SnapshotCodecs.register(new DeflateSnapshotCodec());
+    }
+
+    @Test
+    public void testNone() throws IOException {
+        byte[] data = repeat("test", 1000);
+        Assert.assertArrayEquals(data, encode(SnapshotCodecs.NONE, data));
+        Assert.assertArrayEquals(data, decode(SnapshotCodecs.NONE, data));
+    }
+
+    @Test
+    public void testDeflate() throws IOException {
+        byte[] data = repeat("test", 1000);
+        byte[] encoded = encode(SnapshotCodecs.DEFLATE, data);
+        Assert.assertTrue(encoded.length < data.length);
+        Assert.assertArrayEquals(data, decode(SnapshotCodecs.DEFLATE, encoded));
+    }
+
+    @Test
+    public void testLz4() throws IOException {
+        // more than one block
+        byte[] data = repeat("test", 100000);
+        byte[] encoded = encode(SnapshotCodecs.LZ4, data);
+        Assert.assertTrue(encoded.length < data.length);
+        Assert.assertArrayEquals(data, decode(SnapshotCodecs.LZ4, encoded));
+    }
+
+    @Test
+    public void testEmpty() throws IOException {
+        for (SnapshotCodec codec : new SnapshotCodec[]{SnapshotCodecs.NONE, SnapshotCodecs.DEFLATE, SnapshotCodecs.LZ4}) {
+            Assert.assertEquals(0, decode(codec, encode(codec, new byte[0])).length);
+        }
+    }
+
+}
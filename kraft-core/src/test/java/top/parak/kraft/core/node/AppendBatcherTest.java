@@ -0,0 +1,63 @@
+package top.parak.kraft.core.node;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class AppendBatcherTest {
+
+    @Test
+    public void testOfferNoWindow() {
+        AppendBatcher batcher = new AppendBatcher(0, 10, 1024);
+        Assert.assertEquals(AppendBatcher.Trigger.FLUSH_NOW, batcher.offer("a".getBytes()));
+        Assert.assertEquals(AppendBatcher.Trigger.NONE, batcher.offer("b".getBytes()));
+        List<byte[]> commands = batcher.drain();
+        Assert.assertEquals(2, commands.size());
+        Assert.assertEquals("a", new String(commands.get(0)));
+        Assert.assertEquals(AppendBatcher.Trigger.FLUSH_NOW, batcher.offer("c".getBytes()));
+    }
+
+    @Test
+    public void testOfferWindow() {
+        AppendBatcher batcher = new AppendBatcher(10, 3, 1024);
+        Assert.assertEquals(AppendBatcher.Trigger.FLUSH_LATER, batcher.offer("a".getBytes()));
+        Assert.assertEquals(AppendBatcher.Trigger.NONE, batcher.offer("b".getBytes()));
+        // batch is full
+        Assert.assertEquals(AppendBatcher.Trigger.FLUSH_NOW, batcher.offer("c".getBytes()));
+        Assert.assertEquals(AppendBatcher.Trigger.NONE, batcher.offer("d".getBytes()));
+        Assert.assertEquals(3, batcher.drain().size());
+        Assert.assertTrue(batcher.shouldFlushAgain());
+        Assert.assertFalse(batcher.shouldFlushAgain());
+        Assert.assertEquals(1, batcher.drain().size());
+        Assert.assertFalse(batcher.shouldFlushAgain());
+    }
+
+    @Test
+    public void testDrainMaxBytes() {
+        AppendBatcher batcher = new AppendBatcher(0, 10, 4);
+        batcher.offer("abc".getBytes());
+        batcher.offer("def".getBytes());
+        batcher.offer("g".getBytes());
+        Assert.assertEquals(2, batcher.drain().size());
+        Assert.assertEquals(1, batcher.drain().size());
+        Assert.assertTrue(batcher.drain().isEmpty());
+    }
+
+    @Test
+    public void testHistogram() {
+        AppendBatcher batcher = new AppendBatcher(0, 10, 1024);
+        batcher.offer("a".getBytes());
+        batcher.offer("b".getBytes());
+        batcher.drain();
+        batcher.offer("c".getBytes());
+        batcher.drain();
+        batcher.drain();
+        Assert.assertEquals(2, batcher.getBatchSizeHistogram().getCount());
+        Assert.assertEquals(3, batcher.getBatchSizeHistogram().getSum());
+        Assert.assertEquals(2, batcher.getBatchSizeHistogram().getMax());
+        Assert.assertEquals(1, batcher.getBatchSizeHistogram().getPercentile(0.5));
+        Assert.assertEquals(3, batcher.getLatencyHistogram().getCount());
+    }
+
+}
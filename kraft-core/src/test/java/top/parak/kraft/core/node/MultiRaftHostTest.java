@@ -0,0 +1,111 @@
+package top.parak.kraft.core.node;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import top.parak.kraft.core.log.statemachine.AbstractSingleThreadStateMachine;
+import top.parak.kraft.core.log.statemachine.SnapshotView;
+import top.parak.kraft.core.node.config.NodeConfig;
+import top.parak.kraft.core.node.role.RoleName;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class MultiRaftHostTest {
+
+    private static class CountingStateMachine extends AbstractSingleThreadStateMachine {
+
+        private final CountDownLatch appliedLatch;
+        private final CountDownLatch snapshotLatch = new CountDownLatch(1);
+
+        CountingStateMachine(int count) {
+            appliedLatch = new CountDownLatch(count);
+        }
+
+        @Override
+        protected void applyCommand(int index, @Nonnull byte[] commandBytes) {
+            appliedLatch.countDown();
+        }
+
+        @Override
+        public boolean shouldGenerateSnapshot(int firstLogIndex, int lastApplied) {
+            return appliedLatch.getCount() == 0 && snapshotLatch.getCount() > 0;
+        }
+
+        @Override
+        public void generateSnapshot(@Nonnull OutputStream output) {
+        }
+
+        // written in snapshot thread shared by groups
+        @Nonnull
+        @Override
+        public SnapshotView takeSnapshotView() {
+            return output -> snapshotLatch.countDown();
+        }
+
+        @Override
+        protected void doApplySnapshot(int lastIncludedIndex, @Nonnull InputStream input) {
+        }
+
+    }
+
+    private static int findFreePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void awaitLeader(Node node) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            if (node.getRoleNameAndLeaderId().getRoleName() == RoleName.LEADER) {
+                return;
+            }
+            TimeUnit.MILLISECONDS.sleep(50);
+        }
+        Assert.fail("node didn't become leader");
+    }
+
+    @Test
+    public void testRemoveGroup() throws Exception {
+        NodeEndpoint endpoint = new NodeEndpoint("A", "127.0.0.1", findFreePort());
+        NodeConfig config = new NodeConfig();
+        config.setMinElectionTimeout(100);
+        config.setMaxElectionTimeout(200);
+        // groups share the same node thread
+        config.setMultiRaftNodeThreads(1);
+        MultiRaftHost host = new MultiRaftHost(endpoint, config, null);
+        Node node1 = host.addGroup(1, Collections.singleton(endpoint));
+        Node node2 = host.addGroup(2, Collections.singleton(endpoint));
+        CountingStateMachine stateMachine2 = new CountingStateMachine(3);
+        node1.registerStateMachine(new CountingStateMachine(1));
+        node2.registerStateMachine(stateMachine2);
+        host.start();
+        try {
+            awaitLeader(node1);
+            awaitLeader(node2);
+
+            Assert.assertTrue(host.removeGroup(1));
+            Assert.assertFalse(host.removeGroup(1));
+            Assert.assertEquals(Collections.singletonList(2), host.listGroupIds());
+
+            // scheduler, node thread and snapshot thread are still running for other groups
+            Node node3 = host.addGroup(3, Collections.singleton(endpoint));
+            node3.registerStateMachine(new CountingStateMachine(1));
+            awaitLeader(node3);
+            for (int i = 0; i < 3; i++) {
+                node2.appendLog(new byte[]{(byte) i});
+            }
+            Assert.assertTrue(stateMachine2.appliedLatch.await(3, TimeUnit.SECONDS));
+            Assert.assertTrue(stateMachine2.snapshotLatch.await(3, TimeUnit.SECONDS));
+        } finally {
+            host.stop();
+        }
+    }
+
+}
@@ -6,10 +6,14 @@ import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import top.parak.kraft.core.log.MemoryLog;
 import top.parak.kraft.core.log.entry.*;
 import top.parak.kraft.core.log.event.GroupConfigEntryBatchRemovedEvent;
 import top.parak.kraft.core.log.event.GroupConfigEntryCommittedEvent;
 import top.parak.kraft.core.log.event.GroupConfigEntryFromLeaderAppendEvent;
+import top.parak.kraft.core.log.event.SnapshotGenerateEvent;
+import top.parak.kraft.core.log.sequence.MemoryEntrySequence;
+import top.parak.kraft.core.log.snapshot.MemorySnapshot;
 import top.parak.kraft.core.node.config.NodeConfig;
 import top.parak.kraft.core.node.role.RoleName;
 import top.parak.kraft.core.node.role.RoleState;
@@ -27,8 +31,12 @@ import top.parak.kraft.core.support.task.TaskExecutor;
 
 import javax.annotation.Nonnull;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -41,9 +49,11 @@ public class NodeImplTest {
     private static class WaitConnector extends ConnectorAdapter {
 
         private boolean sent = false;
+        private final Map<NodeId, AppendEntriesRpc> lastAppendEntriesRpcs = new HashMap<>();
 
         @Override
         public synchronized void sendAppendEntries(@Nonnull AppendEntriesRpc rpc, @Nonnull NodeEndpoint destinationEndpoint) {
+            lastAppendEntriesRpcs.put(destinationEndpoint.getId(), rpc);
             appendEntriesRpcSent();
         }
 
@@ -59,6 +69,13 @@ public class NodeImplTest {
             sent = false;
         }
 
+        synchronized AppendEntriesRpc awaitAppendEntriesRpc(NodeId destinationNodeId) throws InterruptedException {
+            while (!lastAppendEntriesRpcs.containsKey(destinationNodeId)) {
+                wait();
+            }
+            return lastAppendEntriesRpcs.get(destinationNodeId);
+        }
+
         void reset() {
             sent = false;
         }
@@ -74,7 +91,8 @@ public class NodeImplTest {
         return new NodeBuilder(Arrays.asList(endpoints), selfId)
                 .setScheduler(new NullScheduler())
                 .setConnector(new MockConnector())
-                .setTaskExecutor(new DirectTaskExecutor(true));
+                .setTaskExecutor(new DirectTaskExecutor(true))
+                .setSnapshotExecutor(new DirectTaskExecutor(true));
     }
 
     private AppendEntriesRpc createAppendEntriesRpc(int lastEntryIndex) {
@@ -83,6 +101,12 @@ public class NodeImplTest {
         return rpc;
     }
 
+    private void replyAppendEntriesRpc(NodeImpl node, WaitConnector connector, NodeId sourceNodeId) throws Exception {
+        AppendEntriesRpc rpc = connector.awaitAppendEntriesRpc(sourceNodeId);
+        node.processAppendEntriesResult(new AppendEntriesResultMessage(
+                new AppendEntriesResult(rpc.getMessageId(), 1, true), sourceNodeId, rpc)).get();
+    }
+
     private void checkWithinTaskExecutor(NodeImpl node, Runnable r) throws Throwable {
         try {
             node.getContext().taskExecutor().submit(r).get();
@@ -340,6 +364,339 @@ public class NodeImplTest {
         Assert.assertEquals(3, mockConnector.getMessageCount());
     }
 
+    private NodeImpl newPipelinedLeader() {
+        NodeConfig config = new NodeConfig();
+        config.setMaxReplicationInflight(4);
+        config.setMaxReplicationEntries(1);
+        NodeImpl node = (NodeImpl) newNodeBuilder(
+                NodeId.of("A"),
+                new NodeEndpoint("A", "127.0.0.1", 2333),
+                new NodeEndpoint("B", "127.0.0.1", 2334),
+                new NodeEndpoint("C", "127.0.0.1", 2335))
+                .setConfig(config)
+                .build();
+        node.start();
+        node.electionTimeout();
+        node.onReceiveRequestVoteResult(new RequestVoteResult(1, true));
+        return node;
+    }
+
+    @Test
+    public void testAppendLogPipelined() {
+        NodeImpl node = newPipelinedLeader();
+        node.appendLog("test".getBytes());
+
+        MockConnector mockConnector = (MockConnector) node.getContext().connector();
+        // request vote rpc + append entries rpc(no-op entry) * 2 + append entries rpc(general entry) * 2
+        Assert.assertEquals(5, mockConnector.getMessageCount());
+        GroupMember member = node.getContext().group().findMember(NodeId.of("B"));
+        Assert.assertEquals(2, member.getInflight());
+        Assert.assertEquals(3, member.getNextIndex());
+    }
+
+    private List<AppendEntriesRpc> getAppendEntriesRpcs(MockConnector mockConnector, NodeId destinationNodeId) {
+        return mockConnector.getMessages().stream()
+                .filter(m -> m.getRpc() instanceof AppendEntriesRpc && destinationNodeId.equals(m.getDestinationNodeId()))
+                .map(m -> (AppendEntriesRpc) m.getRpc())
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testOnReceiveAppendEntriesResultPipelined() {
+        NodeImpl node = newPipelinedLeader();
+        node.appendLog("test".getBytes());
+        GroupMember member = node.getContext().group().findMember(NodeId.of("B"));
+        MockConnector mockConnector = (MockConnector) node.getContext().connector();
+        List<AppendEntriesRpc> rpcs = getAppendEntriesRpcs(mockConnector, NodeId.of("B"));
+        Assert.assertEquals(2, rpcs.size());
+
+        node.onReceiveAppendEntriesResult(new AppendEntriesResultMessage(
+                new AppendEntriesResult(rpcs.get(0).getMessageId(), 1, true), NodeId.of("B"), rpcs.get(0)));
+        Assert.assertEquals(1, member.getMatchIndex());
+        Assert.assertEquals(1, member.getInflight());
+        Assert.assertEquals(3, member.getNextIndex());
+
+        node.onReceiveAppendEntriesResult(new AppendEntriesResultMessage(
+                new AppendEntriesResult(rpcs.get(1).getMessageId(), 1, true), NodeId.of("B"), rpcs.get(1)));
+        Assert.assertEquals(2, member.getMatchIndex());
+        Assert.assertEquals(0, member.getInflight());
+        Assert.assertFalse(member.isReplicating());
+    }
+
+    @Test
+    public void testOnReceiveAppendEntriesResultPipelinedRejected() {
+        NodeImpl node = newPipelinedLeader();
+        node.appendLog("test".getBytes());
+        GroupMember member = node.getContext().group().findMember(NodeId.of("B"));
+        MockConnector mockConnector = (MockConnector) node.getContext().connector();
+        List<AppendEntriesRpc> rpcs = getAppendEntriesRpcs(mockConnector, NodeId.of("B"));
+        mockConnector.clearMessage();
+
+        // second rpc rejected, rewind to its previous log index and resend
+        node.onReceiveAppendEntriesResult(new AppendEntriesResultMessage(
+                new AppendEntriesResult(rpcs.get(1).getMessageId(), 1, false), NodeId.of("B"), rpcs.get(1)));
+        List<AppendEntriesRpc> resent = getAppendEntriesRpcs(mockConnector, NodeId.of("B"));
+        Assert.assertEquals(2, resent.size());
+        Assert.assertEquals(0, resent.get(0).getPrevLogIndex());
+        Assert.assertEquals(1, resent.get(1).getPrevLogIndex());
+        Assert.assertEquals(2, member.getInflight());
+        Assert.assertEquals(3, member.getNextIndex());
+
+        // result of the first rpc is stale after rewinding
+        mockConnector.clearMessage();
+        node.onReceiveAppendEntriesResult(new AppendEntriesResultMessage(
+                new AppendEntriesResult(rpcs.get(0).getMessageId(), 1, false), NodeId.of("B"), rpcs.get(0)));
+        Assert.assertEquals(0, mockConnector.getMessageCount());
+        Assert.assertEquals(2, member.getInflight());
+        Assert.assertEquals(3, member.getNextIndex());
+    }
+
+    private NodeImpl newLeader() {
+        NodeImpl node = (NodeImpl) newNodeBuilder(
+                NodeId.of("A"),
+                new NodeEndpoint("A", "127.0.0.1", 2333),
+                new NodeEndpoint("B", "127.0.0.1", 2334),
+                new NodeEndpoint("C", "127.0.0.1", 2335))
+                .build();
+        node.start();
+        node.electionTimeout();
+        node.onReceiveRequestVoteResult(new RequestVoteResult(1, true));
+        return node;
+    }
+
+    @Test
+    public void testReadIndexStandalone() throws Exception {
+        NodeImpl node = (NodeImpl) newNodeBuilder(NodeId.of("A"), new NodeEndpoint("A", "127.0.0.1", 2333))
+                .build();
+        node.start();
+        node.electionTimeout();
+        node.appendLog("test".getBytes()); // 2
+        node.appendLog("test".getBytes()); // 3
+        Assert.assertEquals(3, node.getContext().log().getCommitIndex());
+        CompletableFuture<Integer> future = node.readIndex();
+        Assert.assertEquals(3, future.get().intValue());
+    }
+
+    @Test
+    public void testReadIndexWaitCommit() throws Exception {
+        NodeImpl node = (NodeImpl) newNodeBuilder(NodeId.of("A"), new NodeEndpoint("A", "127.0.0.1", 2333))
+                .build();
+        node.start();
+        node.electionTimeout();
+        // no-op log entry not committed
+        CompletableFuture<Integer> future = node.readIndex();
+        Assert.assertFalse(future.isDone());
+        node.replicateLog();
+        // no-op log entry is not applied to state machine
+        Assert.assertEquals(0, future.get().intValue());
+    }
+
+    @Test
+    public void testReadIndexLeader() throws Exception {
+        NodeImpl node = newLeader();
+        MockConnector mockConnector = (MockConnector) node.getContext().connector();
+        mockConnector.clearMessage();
+        CompletableFuture<Integer> future = node.readIndex();
+        // heartbeat to B and C
+        List<AppendEntriesRpc> rpcs = getAppendEntriesRpcs(mockConnector, NodeId.of("B"));
+        Assert.assertEquals(1, rpcs.size());
+        Assert.assertEquals(2, mockConnector.getMessageCount());
+        Assert.assertFalse(future.isDone());
+
+        node.onReceiveAppendEntriesResult(new AppendEntriesResultMessage(
+                new AppendEntriesResult(rpcs.get(0).getMessageId(), 1, true), NodeId.of("B"), rpcs.get(0)));
+        Assert.assertEquals(1, node.getContext().log().getCommitIndex());
+        Assert.assertEquals(0, future.get().intValue());
+    }
+
+    @Test
+    public void testReadIndexLeaderStale() {
+        NodeImpl node = newLeader();
+        MockConnector mockConnector = (MockConnector) node.getContext().connector();
+        node.appendLog("test".getBytes());
+        // rpc sent before read index request
+        List<AppendEntriesRpc> rpcs = getAppendEntriesRpcs(mockConnector, NodeId.of("B"));
+        mockConnector.clearMessage();
+        CompletableFuture<Integer> future = node.readIndex();
+        // B is replicating
+        Assert.assertEquals(0, mockConnector.getMessageCount());
+
+        node.onReceiveAppendEntriesResult(new AppendEntriesResultMessage(
+                new AppendEntriesResult(rpcs.get(0).getMessageId(), 1, true), NodeId.of("B"), rpcs.get(0)));
+        Assert.assertFalse(future.isDone());
+        // heartbeat for read index though B caught up
+        Assert.assertEquals(1, getAppendEntriesRpcs(mockConnector, NodeId.of("B")).size());
+        Assert.assertTrue(node.getContext().group().findMember(NodeId.of("B")).isReplicating());
+    }
+
+    @Test
+    public void testReadIndexLeaderStepDown() {
+        NodeImpl node = newLeader();
+        CompletableFuture<Integer> future = node.readIndex();
+        node.onReceiveAppendEntriesResult(new AppendEntriesResultMessage(
+                new AppendEntriesResult(0L, 2, false), NodeId.of("B"), createAppendEntriesRpc(1)));
+        Assert.assertTrue(future.isCompletedExceptionally());
+    }
+
+    @Test
+    public void testReadIndexFollower() throws Exception {
+        NodeImpl node = (NodeImpl) newNodeBuilder(
+                NodeId.of("A"),
+                new NodeEndpoint("A", "127.0.0.1", 2333),
+                new NodeEndpoint("B", "127.0.0.1", 2334),
+                new NodeEndpoint("C", "127.0.0.1", 2335))
+                .build();
+        node.start();
+        AppendEntriesRpc aeRpc = new AppendEntriesRpc();
+        aeRpc.setTerm(1);
+        aeRpc.setLeaderId(NodeId.of("B"));
+        node.onReceiveAppendEntriesRpc(new AppendEntriesRpcMessage(aeRpc, NodeId.of("B"), null));
+        CompletableFuture<Integer> future = node.readIndex();
+
+        // forward to leader
+        MockConnector mockConnector = (MockConnector) node.getContext().connector();
+        ReadIndexRpc rpc = (ReadIndexRpc) mockConnector.getRpc();
+        Assert.assertEquals(NodeId.of("B"), mockConnector.getDestinationNodeId());
+        Assert.assertFalse(future.isDone());
+
+        node.onReceiveReadIndexResult(new ReadIndexResult(rpc.getMessageId(), true, 0));
+        Assert.assertEquals(0, future.get().intValue());
+    }
+
+    @Test
+    public void testReadIndexFollowerRejected() {
+        NodeImpl node = (NodeImpl) newNodeBuilder(
+                NodeId.of("A"),
+                new NodeEndpoint("A", "127.0.0.1", 2333),
+                new NodeEndpoint("B", "127.0.0.1", 2334))
+                .build();
+        node.start();
+        // leader unknown
+        Assert.assertTrue(node.readIndex().isCompletedExceptionally());
+
+        AppendEntriesRpc aeRpc = new AppendEntriesRpc();
+        aeRpc.setTerm(1);
+        aeRpc.setLeaderId(NodeId.of("B"));
+        node.onReceiveAppendEntriesRpc(new AppendEntriesRpcMessage(aeRpc, NodeId.of("B"), null));
+        CompletableFuture<Integer> future = node.readIndex();
+        ReadIndexRpc rpc = (ReadIndexRpc) ((MockConnector) node.getContext().connector()).getRpc();
+        node.onReceiveReadIndexResult(new ReadIndexResult(rpc.getMessageId(), false, 0));
+        Assert.assertTrue(future.isCompletedExceptionally());
+    }
+
+    @Test
+    public void testOnReceiveReadIndexRpc() {
+        NodeImpl node = newLeader();
+        MockConnector mockConnector = (MockConnector) node.getContext().connector();
+        mockConnector.clearMessage();
+        node.onReceiveReadIndexRpc(new ReadIndexRpcMessage(new ReadIndexRpc(1L), NodeId.of("C"), null));
+        List<AppendEntriesRpc> rpcs = getAppendEntriesRpcs(mockConnector, NodeId.of("B"));
+        node.onReceiveAppendEntriesResult(new AppendEntriesResultMessage(
+                new AppendEntriesResult(rpcs.get(0).getMessageId(), 1, false), NodeId.of("B"), rpcs.get(0)));
+
+        ReadIndexResult result = (ReadIndexResult) mockConnector.getMessages().stream()
+                .filter(m -> m.getResult() instanceof ReadIndexResult)
+                .findFirst().get().getResult();
+        Assert.assertEquals(1L, result.getRpcMessageId());
+        Assert.assertTrue(result.isSuccess());
+        Assert.assertEquals(1, result.getReadIndex());
+    }
+
+    @Test
+    public void testOnReceiveReadIndexRpcFollower() {
+        NodeImpl node = (NodeImpl) newNodeBuilder(
+                NodeId.of("A"),
+                new NodeEndpoint("A", "127.0.0.1", 2333),
+                new NodeEndpoint("B", "127.0.0.1", 2334))
+                .build();
+        node.start();
+        node.onReceiveReadIndexRpc(new ReadIndexRpcMessage(new ReadIndexRpc(1L), NodeId.of("B"), null));
+        ReadIndexResult result = (ReadIndexResult) ((MockConnector) node.getContext().connector()).getResult();
+        Assert.assertFalse(result.isSuccess());
+    }
+
+    private NodeImpl newLeaseLeader(int driftBound) {
+        NodeConfig config = new NodeConfig();
+        config.setReadLeaseEnabled(true);
+        config.setReadLeaseDriftBound(driftBound);
+        NodeImpl node = (NodeImpl) newNodeBuilder(
+                NodeId.of("A"),
+                new NodeEndpoint("A", "127.0.0.1", 2333),
+                new NodeEndpoint("B", "127.0.0.1", 2334),
+                new NodeEndpoint("C", "127.0.0.1", 2335))
+                .setConfig(config)
+                .build();
+        node.start();
+        node.electionTimeout();
+        node.onReceiveRequestVoteResult(new RequestVoteResult(1, true));
+        return node;
+    }
+
+    @Test
+    public void testReadIndexLeaderLease() throws Exception {
+        NodeImpl node = newLeaseLeader(500);
+        node.replicateLog();
+        MockConnector mockConnector = (MockConnector) node.getContext().connector();
+        List<AppendEntriesRpc> rpcs = getAppendEntriesRpcs(mockConnector, NodeId.of("B"));
+        node.onReceiveAppendEntriesResult(new AppendEntriesResultMessage(
+                new AppendEntriesResult(rpcs.get(0).getMessageId(), 1, true), NodeId.of("B"), rpcs.get(0)));
+        mockConnector.clearMessage();
+
+        // no heartbeat in lease
+        CompletableFuture<Integer> future = node.readIndex();
+        Assert.assertEquals(0, mockConnector.getMessageCount());
+        Assert.assertEquals(0, future.get().intValue());
+    }
+
+    @Test
+    public void testReadIndexLeaderLeaseExpired() throws Exception {
+        // lease of 1 millisecond
+        NodeImpl node = newLeaseLeader(2999);
+        node.replicateLog();
+        MockConnector mockConnector = (MockConnector) node.getContext().connector();
+        List<AppendEntriesRpc> rpcs = getAppendEntriesRpcs(mockConnector, NodeId.of("B"));
+        node.onReceiveAppendEntriesResult(new AppendEntriesResultMessage(
+                new AppendEntriesResult(rpcs.get(0).getMessageId(), 1, true), NodeId.of("B"), rpcs.get(0)));
+        mockConnector.clearMessage();
+        Thread.sleep(5);
+
+        // fallback to heartbeat, C is replicating
+        CompletableFuture<Integer> future = node.readIndex();
+        rpcs = getAppendEntriesRpcs(mockConnector, NodeId.of("B"));
+        Assert.assertEquals(1, mockConnector.getMessageCount());
+        Assert.assertFalse(future.isDone());
+        node.onReceiveAppendEntriesResult(new AppendEntriesResultMessage(
+                new AppendEntriesResult(rpcs.get(0).getMessageId(), 1, true), NodeId.of("B"), rpcs.get(0)));
+        Assert.assertEquals(0, future.get().intValue());
+    }
+
+    @Test
+    public void testOnReceiveRequestVoteRpcLeaderAlive() {
+        NodeConfig config = new NodeConfig();
+        config.setReadLeaseEnabled(true);
+        NodeImpl node = (NodeImpl) newNodeBuilder(
+                NodeId.of("A"),
+                new NodeEndpoint("A", "127.0.0.1", 2333),
+                new NodeEndpoint("B", "127.0.0.1", 2334),
+                new NodeEndpoint("C", "127.0.0.1", 2335))
+                .setConfig(config)
+                .build();
+        node.start();
+        AppendEntriesRpc aeRpc = new AppendEntriesRpc();
+        aeRpc.setTerm(1);
+        aeRpc.setLeaderId(NodeId.of("B"));
+        node.onReceiveAppendEntriesRpc(new AppendEntriesRpcMessage(aeRpc, NodeId.of("B"), null));
+
+        RequestVoteRpc rpc = new RequestVoteRpc();
+        rpc.setTerm(2);
+        rpc.setCandidateId(NodeId.of("C"));
+        node.onReceiveRequestVoteRpc(new RequestVoteRpcMessage(rpc, NodeId.of("C"), null));
+        RequestVoteResult result = (RequestVoteResult) ((MockConnector) node.getContext().connector()).getResult();
+        Assert.assertEquals(1, result.getTerm());
+        Assert.assertFalse(result.isVoteGranted());
+        Assert.assertEquals(1, node.getRoleState().getTerm());
+    }
+
     @Test(expected = NotLeaderException.class)
     public void testAddNodeWhenFollower() {
         NodeImpl node = (NodeImpl) newNodeBuilder(
@@ -420,21 +777,17 @@ public class NodeImplTest {
 
         // catch up
         node.onReceiveAppendEntriesResult(new AppendEntriesResultMessage(
-                new AppendEntriesResult("", 1, true),
+                new AppendEntriesResult(0L, 1, true),
                 NodeId.of("D"), createAppendEntriesRpc(1)
         ));
         GroupConfigChangeTaskReference reference = future.get();
         connector.awaitAppendEntriesRpc();
 
-        // send replication to B, C, d
-        node.onReceiveAppendEntriesResult(new AppendEntriesResultMessage(
-                new AppendEntriesResult("", 1, true),
-                NodeId.of("B"), createAppendEntriesRpc(2)
-        ));
-        node.onReceiveAppendEntriesResult(new AppendEntriesResultMessage(
-                new AppendEntriesResult("", 1, true),
-                NodeId.of("C"), createAppendEntriesRpc(2)
-        ));
+        // send replication to B, C, d, reply the no-op log entry and the group config entry
+        for (int i = 0; i < 2; i++) {
+            replyAppendEntriesRpc(node, connector, NodeId.of("B"));
+            replyAppendEntriesRpc(node, connector, NodeId.of("C"));
+        }
 
         Assert.assertEquals(GroupConfigChangeTaskResult.OK, reference.getResult(1000L));
         checkWithinTaskExecutor(node, () -> Assert.assertEquals(4, node.getContext().group().getCountOfMajor()));
@@ -465,7 +818,7 @@ public class NodeImplTest {
         );
         connector.awaitAppendEntriesRpc();
         node.onReceiveAppendEntriesResult(new AppendEntriesResultMessage(
-                new AppendEntriesResult("", 1, true),
+                new AppendEntriesResult(0L, 1, true),
                 NodeId.of("D"), createAppendEntriesRpc(0)
         ));
 
@@ -495,7 +848,7 @@ public class NodeImplTest {
                 node.addNode(new NodeEndpoint("D", "127.0.0.1", 2336)));
         connector.awaitAppendEntriesRpc();
         node.processAppendEntriesResult(new AppendEntriesResultMessage(
-                new AppendEntriesResult("", 1, true),
+                new AppendEntriesResult(0L, 1, true),
                 NodeId.of("D"), createAppendEntriesRpc(1)
         )).get();
         connector.awaitAppendEntriesRpc();
@@ -503,7 +856,7 @@ public class NodeImplTest {
                 node.addNode(new NodeEndpoint("E", "127.0.0.1", 2337)));
         connector.awaitAppendEntriesRpc();
         node.processAppendEntriesResult(new AppendEntriesResultMessage(
-                new AppendEntriesResult("", 1, true),
+                new AppendEntriesResult(0L, 1, true),
                 NodeId.of("E"), createAppendEntriesRpc(2)
         ));
         Assert.assertEquals(GroupConfigChangeTaskResult.TIMEOUT, future2.get().getResult(1000L));
@@ -553,10 +906,9 @@ public class NodeImplTest {
         node.electionTimeout();
         node.processRequestVoteResult(new RequestVoteResult(1, true)).get(); // become leader, add no-op log
         GroupConfigChangeTaskReference reference = node.removeNode(NodeId.of("B"));
-        connector.awaitAppendEntriesRpc();
-        node.onReceiveAppendEntriesResult(new AppendEntriesResultMessage(
-                new AppendEntriesResult("", 1, true),
-                NodeId.of("C"), createAppendEntriesRpc(2)));
+        for (int i = 0; i < 2; i++) {
+            replyAppendEntriesRpc(node, connector, NodeId.of("C"));
+        }
         Assert.assertEquals(GroupConfigChangeTaskResult.OK, reference.getResult(1000L));
         checkWithinTaskExecutor(node, () -> {
             Assert.assertEquals(2, node.getContext().group().getCountOfMajor());
@@ -581,13 +933,10 @@ public class NodeImplTest {
         connector.reset();
         node.processRequestVoteResult(new RequestVoteResult(1, true)).get();
         GroupConfigChangeTaskReference reference = node.removeNode(NodeId.of("A"));
-        connector.awaitAppendEntriesRpc();
-        node.onReceiveAppendEntriesResult(new AppendEntriesResultMessage(
-                new AppendEntriesResult("", 1, true),
-                NodeId.of("B"), createAppendEntriesRpc(2)));
-        node.onReceiveAppendEntriesResult(new AppendEntriesResultMessage(
-                new AppendEntriesResult("", 1, true),
-                NodeId.of("C"), createAppendEntriesRpc(2)));
+        for (int i = 0; i < 2; i++) {
+            replyAppendEntriesRpc(node, connector, NodeId.of("B"));
+            replyAppendEntriesRpc(node, connector, NodeId.of("C"));
+        }
         Assert.assertEquals(GroupConfigChangeTaskResult.OK, reference.getResult(1000L));
         checkWithinTaskExecutor(node, () -> {
             Assert.assertEquals(2, node.getContext().group().getCountOfMajor());
@@ -599,7 +948,7 @@ public class NodeImplTest {
     }
 
     @Test
-    public void testRemoveNodeAppendEntriesResultFromRemovingNode() throws ExecutionException, InterruptedException {
+    public void testRemoveNodeAppendEntriesResultFromRemovingNode() throws Exception {
         WaitConnector connector = new WaitConnector();
         NodeImpl node = (NodeImpl) newNodeBuilder(
                 NodeId.of("A"),
@@ -614,10 +963,7 @@ public class NodeImplTest {
         node.electionTimeout();
         node.processRequestVoteResult(new RequestVoteResult(1, true)).get();
         node.removeNode(NodeId.of("B"));
-        connector.awaitAppendEntriesRpc();
-        node.processAppendEntriesResult(new AppendEntriesResultMessage(
-                new AppendEntriesResult("", 1, true),
-                NodeId.of("B"), createAppendEntriesRpc(2))).get();
+        replyAppendEntriesRpc(node, connector, NodeId.of("B"));
         node.cancelGroupConfigChangeTask();
     }
 
@@ -1032,6 +1378,40 @@ public class NodeImplTest {
         Assert.assertEquals(NodeId.of("B"), state.getLeaderId());
     }
 
+    // follower: (1, 1), (2, 2), (3, 2)
+    @Test
+    public void testOnReceiveAppendEntriesRpcConflict() {
+        NodeImpl node = (NodeImpl) newNodeBuilder(
+                NodeId.of("A"),
+                new NodeEndpoint("A", "127.0.0.1", 2333),
+                new NodeEndpoint("B", "127.0.0.1", 2334),
+                new NodeEndpoint("C", "127.0.0.1", 2335))
+                .setStore(new MemoryNodeStore(3, null))
+                .build();
+        node.getContext().log().appendEntry(1);
+        node.getContext().log().appendEntry(2);
+        node.getContext().log().appendEntry(2);
+        node.start();
+        AppendEntriesRpc rpc = new AppendEntriesRpc();
+        rpc.setTerm(3);
+        rpc.setLeaderId(NodeId.of("B"));
+        rpc.setPrevLogIndex(3);
+        rpc.setPrevLogTerm(3);
+        node.onReceiveAppendEntriesRpc(new AppendEntriesRpcMessage(rpc, NodeId.of("B"), null));
+        MockConnector connector = (MockConnector) node.getContext().connector();
+        AppendEntriesResult result = (AppendEntriesResult) connector.getResult();
+        Assert.assertFalse(result.isSuccess());
+        Assert.assertEquals(2, result.getConflictTerm());
+        Assert.assertEquals(2, result.getConflictIndex());
+
+        rpc.setPrevLogIndex(5);
+        node.onReceiveAppendEntriesRpc(new AppendEntriesRpcMessage(rpc, NodeId.of("B"), null));
+        result = (AppendEntriesResult) connector.getResult();
+        Assert.assertFalse(result.isSuccess());
+        Assert.assertEquals(0, result.getConflictTerm());
+        Assert.assertEquals(4, result.getConflictIndex());
+    }
+
     @Test
     public void testOnReceiveAppendEntriesRpcCandidate() {
         NodeImpl node = (NodeImpl) newNodeBuilder(
@@ -1096,14 +1476,51 @@ public class NodeImplTest {
         node.electionTimeout(); // become candidate
         node.onReceiveRequestVoteResult(new RequestVoteResult(1, true)); // become leader
         GroupMember member = node.getContext().group().findMember(NodeId.of("B"));
-        member.replicateNow();
+        // in flight, message id of rpc created in test is 0
+        member.replicateNow(0L);
         node.onReceiveAppendEntriesResult(new AppendEntriesResultMessage(
-                new AppendEntriesResult("", 1, true),
+                new AppendEntriesResult(0L, 1, true),
                 NodeId.of("B"), createAppendEntriesRpc(1)));
         Assert.assertFalse(member.isReplicating());
         Assert.assertEquals(1, member.getMatchIndex());
     }
 
+    @Test
+    public void testOnReceiveAppendEntriesResultStale() {
+        NodeImpl node = (NodeImpl) newNodeBuilder(
+                NodeId.of("A"),
+                new NodeEndpoint("A", "127.0.0.1", 2333),
+                new NodeEndpoint("B", "127.0.0.1", 2334),
+                new NodeEndpoint("C", "127.0.0.1", 2335)
+        ).build();
+        node.start();
+        node.electionTimeout(); // become candidate
+        node.onReceiveRequestVoteResult(new RequestVoteResult(1, true)); // become leader
+        GroupMember member = node.getContext().group().findMember(NodeId.of("B"));
+        member.replicateNow(1L);
+        // result of rpc sent before
+        node.onReceiveAppendEntriesResult(new AppendEntriesResultMessage(
+                new AppendEntriesResult(0L, 1, true),
+                NodeId.of("B"), createAppendEntriesRpc(1)));
+        Assert.assertTrue(member.isReplicating());
+        Assert.assertEquals(0, member.getMatchIndex());
+
+        AppendEntriesRpc rpc = createAppendEntriesRpc(1);
+        rpc.setMessageId(1L);
+        node.onReceiveAppendEntriesResult(new AppendEntriesResultMessage(
+                new AppendEntriesResult(1L, 1, true), NodeId.of("B"), rpc));
+        Assert.assertEquals(1, member.getMatchIndex());
+
+        // match index and next index never move backwards
+        member.replicateNow(2L);
+        rpc = createAppendEntriesRpc(0);
+        rpc.setMessageId(2L);
+        node.onReceiveAppendEntriesResult(new AppendEntriesResultMessage(
+                new AppendEntriesResult(2L, 1, true), NodeId.of("B"), rpc));
+        Assert.assertEquals(1, member.getMatchIndex());
+        Assert.assertEquals(2, member.getNextIndex());
+    }
+
     @Test
     public void testOnReceiveAppendEntriesResultPeerNotCatchUp() {
         NodeImpl node = (NodeImpl) newNodeBuilder(
@@ -1116,9 +1533,9 @@ public class NodeImplTest {
         node.electionTimeout(); // become candidate
         node.onReceiveRequestVoteResult(new RequestVoteResult(1, true)); // become leader
         GroupMember member = node.getContext().group().findMember(NodeId.of("B"));
-        member.replicateNow();
+        member.replicateNow(0L);
         node.onReceiveAppendEntriesResult(new AppendEntriesResultMessage(
-                new AppendEntriesResult("", 1, true),
+                new AppendEntriesResult(0L, 1, true),
                 NodeId.of("B"), createAppendEntriesRpc(0)));
         Assert.assertTrue(member.isReplicating());
         Assert.assertEquals(0, member.getMatchIndex());
@@ -1141,7 +1558,7 @@ public class NodeImplTest {
         node.getContext().log().appendEntry(1);
         node.start();
         node.onReceiveAppendEntriesResult(new AppendEntriesResultMessage(
-                new AppendEntriesResult("", 1, false),
+                new AppendEntriesResult(0L, 1, false),
                 NodeId.of("B"), createAppendEntriesRpc(1)));
         // do nothing
     }
@@ -1160,16 +1577,59 @@ public class NodeImplTest {
         node.electionTimeout(); // become candidate
         node.onReceiveRequestVoteResult(new RequestVoteResult(2, true)); // become leader
         GroupMember member = node.getContext().group().findMember(NodeId.of("B"));
-        member.replicateNow();
+        member.replicateNow(0L);
         Assert.assertEquals(2, member.getNextIndex());
         node.onReceiveAppendEntriesResult(new AppendEntriesResultMessage(
-                new AppendEntriesResult("", 1, false),
+                new AppendEntriesResult(0L, 1, false),
                 NodeId.of("B"), createAppendEntriesRpc(1)));
         Assert.assertTrue(member.isReplicating());
         Assert.assertEquals(1, member.getNextIndex());
         Assert.assertEquals(0, member.getMatchIndex());
     }
 
+    // leader: (1, 1), (2, 1), (3, 1), (4, 2)
+    @Test
+    public void testOnReceiveAppendEntriesResultBackOffToConflict() {
+        NodeImpl node = (NodeImpl) newNodeBuilder(
+                NodeId.of("A"),
+                new NodeEndpoint("A", "127.0.0.1", 2333),
+                new NodeEndpoint("B", "127.0.0.1", 2334),
+                new NodeEndpoint("C", "127.0.0.1", 2335))
+                .setStore(new MemoryNodeStore(1, null))
+                .build();
+        node.getContext().log().appendEntry(1);
+        node.getContext().log().appendEntry(1);
+        node.getContext().log().appendEntry(1);
+        node.start();
+        node.electionTimeout(); // become candidate
+        node.onReceiveRequestVoteResult(new RequestVoteResult(2, true)); // become leader
+        GroupMember member = node.getContext().group().findMember(NodeId.of("B"));
+        member.replicateNow(0L);
+        Assert.assertEquals(4, member.getNextIndex());
+
+        // conflicting term not in leader's log, retry from the first index of it
+        node.onReceiveAppendEntriesResult(new AppendEntriesResultMessage(
+                new AppendEntriesResult(0L, 2, false, 3, 2),
+                NodeId.of("B"), createAppendEntriesRpc(3)));
+        Assert.assertEquals(2, member.getNextIndex());
+
+        // conflicting term in leader's log, retry after the last index of it
+        MockConnector mockConnector = (MockConnector) node.getContext().connector();
+        AppendEntriesRpc rpc = (AppendEntriesRpc) mockConnector.getRpc();
+        node.onReceiveAppendEntriesResult(new AppendEntriesResultMessage(
+                new AppendEntriesResult(rpc.getMessageId(), 2, false, 1, 1),
+                NodeId.of("B"), rpc));
+        Assert.assertEquals(4, member.getNextIndex());
+
+        // follower's log is shorter
+        rpc = (AppendEntriesRpc) mockConnector.getRpc();
+        node.onReceiveAppendEntriesResult(new AppendEntriesResultMessage(
+                new AppendEntriesResult(rpc.getMessageId(), 2, false, 0, 1),
+                NodeId.of("B"), rpc));
+        Assert.assertEquals(1, member.getNextIndex());
+        Assert.assertEquals(0, member.getMatchIndex());
+    }
+
     @Test
     public void testOnReceiveAppendEntriesResultBackOffFailed() {
         NodeImpl node = (NodeImpl) newNodeBuilder(
@@ -1182,9 +1642,9 @@ public class NodeImplTest {
         node.electionTimeout(); // become candidate
         node.onReceiveRequestVoteResult(new RequestVoteResult(1, true)); // become leader
         GroupMember member = node.getContext().group().findMember(NodeId.of("B"));
-        member.replicateNow();
+        member.replicateNow(0L);
         node.onReceiveAppendEntriesResult(new AppendEntriesResultMessage(
-                new AppendEntriesResult("", 1, false),
+                new AppendEntriesResult(0L, 1, false),
                 NodeId.of("B"), createAppendEntriesRpc(1)));
         Assert.assertFalse(member.isReplicating());
         Assert.assertEquals(0, member.getMatchIndex());
@@ -1202,7 +1662,7 @@ public class NodeImplTest {
         node.electionTimeout(); // become candidate
         node.onReceiveRequestVoteResult(new RequestVoteResult(1, true)); // become leader
         node.onReceiveAppendEntriesResult(new AppendEntriesResultMessage(
-                new AppendEntriesResult("", 3, false),
+                new AppendEntriesResult(0L, 3, false),
                 NodeId.of("B"), createAppendEntriesRpc(1)));
         RoleState state = node.getRoleState();
         Assert.assertEquals(RoleName.FOLLOWER, state.getRoleName());
@@ -1221,7 +1681,7 @@ public class NodeImplTest {
         node.electionTimeout(); // become candidate
         node.onReceiveRequestVoteResult(new RequestVoteResult(1, true)); // become leader
         node.onReceiveAppendEntriesResult(new AppendEntriesResultMessage(
-                new AppendEntriesResult("", 1, false),
+                new AppendEntriesResult(0L, 1, false),
                 NodeId.of("D"), createAppendEntriesRpc(1)));
     }
 
@@ -1237,10 +1697,10 @@ public class NodeImplTest {
         node.electionTimeout(); // become candidate
         node.onReceiveRequestVoteResult(new RequestVoteResult(1, true)); // become leader
         GroupMember member = node.getContext().group().addNode(new NodeEndpoint("D", "127.0.0.1", 2336), 2, 0, false);
-        member.replicateNow();
+        member.replicateNow(0L);
         member.setRemoving();
         node.onReceiveAppendEntriesResult(new AppendEntriesResultMessage(
-                new AppendEntriesResult("", 1, true),
+                new AppendEntriesResult(0L, 1, true),
                 NodeId.of("D"), createAppendEntriesRpc(1)));
         Assert.assertFalse(member.isReplicating());
     }
@@ -1263,6 +1723,25 @@ public class NodeImplTest {
         Assert.assertEquals(3, result.getTerm());
     }
 
+    @Test
+    public void testOnGenerateSnapshot() {
+        NodeImpl node = (NodeImpl) newNodeBuilder(
+                NodeId.of("A"),
+                new NodeEndpoint("A", "127.0.0.1", 2333),
+                new NodeEndpoint("B", "127.0.0.1", 2334),
+                new NodeEndpoint("C", "127.0.0.1", 2335))
+                .setStore(new MemoryNodeStore(1, null))
+                .build();
+        node.getContext().log().appendEntry(1); // 1
+        node.getContext().log().appendEntry(1); // 2
+        node.getContext().log().advanceCommitIndex(2, 1);
+        node.start();
+        node.onGenerateSnapshot(new SnapshotGenerateEvent(2, output -> output.write("test".getBytes())));
+        InstallSnapshotRpc rpc = node.getContext().log().createInstallSnapshotRpc(1, NodeId.of("A"), 0, 10);
+        Assert.assertEquals(2, rpc.getLastIndex());
+        Assert.assertEquals("test", new String(rpc.getData()));
+    }
+
     @Test
     public void testOnReceiveInstallSnapshotRpc() {
         NodeImpl node = (NodeImpl) newNodeBuilder(
@@ -1333,7 +1812,7 @@ public class NodeImplTest {
                 .build();
         node.start();
         node.onReceiveInstallSnapshotResult(new InstallSnapshotResultMessage(
-                new InstallSnapshotResult(2), NodeId.of("C"), new InstallSnapshotRpc()));
+                new InstallSnapshotResult(0L, 2), NodeId.of("C"), new InstallSnapshotRpc()));
         RoleState state = node.getRoleState();
         Assert.assertEquals(RoleName.FOLLOWER, state.getRoleName());
         Assert.assertEquals(2, state.getTerm());
@@ -1355,8 +1834,11 @@ public class NodeImplTest {
         node.onReceiveRequestVoteResult(new RequestVoteResult(2, true));
         InstallSnapshotRpc installSnapshotRpc = new InstallSnapshotRpc();
         installSnapshotRpc.setDone(true);
+        GroupMember member = node.getContext().group().findMember(NodeId.of("C"));
+        member.startInstallSnapshot(0);
+        member.onInstallSnapshotSent(installSnapshotRpc.getMessageId(), 0, true);
         node.onReceiveInstallSnapshotResult(new InstallSnapshotResultMessage(
-                new InstallSnapshotResult(2), NodeId.of("C"), installSnapshotRpc));
+                new InstallSnapshotResult(0L, 2), NodeId.of("C"), installSnapshotRpc));
         Assert.assertEquals(NodeId.of("C"), mockConnector.getDestinationNodeId());
         Assert.assertTrue(mockConnector.getRpc() instanceof AppendEntriesRpc);
     }
@@ -1376,7 +1858,7 @@ public class NodeImplTest {
         installSnapshotRpc.setDone(false);
         installSnapshotRpc.setData(new byte[0]);
         node.onReceiveInstallSnapshotResult(new InstallSnapshotResultMessage(
-                new InstallSnapshotResult(2), NodeId.of("C"), installSnapshotRpc));
+                new InstallSnapshotResult(0L, 2), NodeId.of("C"), installSnapshotRpc));
     }
 
     @Test
@@ -1396,12 +1878,146 @@ public class NodeImplTest {
         InstallSnapshotRpc installSnapshotRpc = new InstallSnapshotRpc();
         installSnapshotRpc.setDone(false);
         installSnapshotRpc.setData(new byte[0]);
+        GroupMember member = node.getContext().group().findMember(NodeId.of("C"));
+        member.startInstallSnapshot(0);
+        member.onInstallSnapshotSent(installSnapshotRpc.getMessageId(), 0, false);
         node.onReceiveInstallSnapshotResult(new InstallSnapshotResultMessage(
-                new InstallSnapshotResult(2), NodeId.of("C"), installSnapshotRpc));
+                new InstallSnapshotResult(0L, 2), NodeId.of("C"), installSnapshotRpc));
         Assert.assertEquals(NodeId.of("C"), mockConnector.getDestinationNodeId());
         Assert.assertTrue(mockConnector.getRpc() instanceof InstallSnapshotRpc);
     }
 
+    private NodeImpl newSnapshotLeader() {
+        NodeConfig config = new NodeConfig();
+        config.setSnapshotDataLength(2);
+        config.setMaxSnapshotInflight(2);
+        NodeImpl node = (NodeImpl) newNodeBuilder(
+                NodeId.of("A"),
+                new NodeEndpoint("A", "127.0.0.1", 2333),
+                new NodeEndpoint("B", "127.0.0.1", 2334),
+                new NodeEndpoint("C", "127.0.0.1", 2335))
+                .setConfig(config)
+                .build();
+        node.getContext().setLog(new MemoryLog(
+                new MemorySnapshot(3, 1, "hello".getBytes(), Collections.emptySet()),
+                new MemoryEntrySequence(4),
+                node.getContext().eventBus()
+        ));
+        node.start();
+        node.electionTimeout();
+        node.onReceiveRequestVoteResult(new RequestVoteResult(node.getRoleState().getTerm(), true));
+        return node;
+    }
+
+    private List<InstallSnapshotRpc> getInstallSnapshotRpcs(MockConnector mockConnector, NodeId destinationNodeId) {
+        return mockConnector.getMessages().stream()
+                .filter(m -> m.getRpc() instanceof InstallSnapshotRpc && destinationNodeId.equals(m.getDestinationNodeId()))
+                .map(m -> (InstallSnapshotRpc) m.getRpc())
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testInstallSnapshotWindowed() {
+        NodeImpl node = newSnapshotLeader();
+        MockConnector mockConnector = (MockConnector) node.getContext().connector();
+        GroupMember member = node.getContext().group().findMember(NodeId.of("B"));
+        member.startInstallSnapshot(0);
+        node.replicateLog();
+        List<InstallSnapshotRpc> rpcs = getInstallSnapshotRpcs(mockConnector, NodeId.of("B"));
+        // window is full
+        Assert.assertEquals(2, rpcs.size());
+        Assert.assertEquals(0, rpcs.get(0).getOffset());
+        Assert.assertEquals(2, rpcs.get(1).getOffset());
+
+        int term = node.getRoleState().getTerm();
+        node.onReceiveInstallSnapshotResult(new InstallSnapshotResultMessage(
+                new InstallSnapshotResult(rpcs.get(0).getMessageId(), term, 2), NodeId.of("B"), rpcs.get(0)));
+        rpcs = getInstallSnapshotRpcs(mockConnector, NodeId.of("B"));
+        Assert.assertEquals(3, rpcs.size());
+        Assert.assertEquals(4, rpcs.get(2).getOffset());
+        Assert.assertTrue(rpcs.get(2).isDone());
+
+        node.onReceiveInstallSnapshotResult(new InstallSnapshotResultMessage(
+                new InstallSnapshotResult(rpcs.get(1).getMessageId(), term, 4), NodeId.of("B"), rpcs.get(1)));
+        // last chunk is sent
+        Assert.assertEquals(3, getInstallSnapshotRpcs(mockConnector, NodeId.of("B")).size());
+
+        node.onReceiveInstallSnapshotResult(new InstallSnapshotResultMessage(
+                new InstallSnapshotResult(rpcs.get(2).getMessageId(), term, 5), NodeId.of("B"), rpcs.get(2)));
+        Assert.assertFalse(member.isInstallingSnapshot());
+        Assert.assertEquals(3, member.getMatchIndex());
+        Assert.assertTrue(mockConnector.getRpc() instanceof AppendEntriesRpc);
+    }
+
+    @Test
+    public void testInstallSnapshotRewind() {
+        NodeImpl node = newSnapshotLeader();
+        MockConnector mockConnector = (MockConnector) node.getContext().connector();
+        GroupMember member = node.getContext().group().findMember(NodeId.of("B"));
+        member.startInstallSnapshot(0);
+        node.replicateLog();
+        List<InstallSnapshotRpc> rpcs = getInstallSnapshotRpcs(mockConnector, NodeId.of("B"));
+        Assert.assertEquals(2, rpcs.size());
+
+        // follower expects offset 0
+        int term = node.getRoleState().getTerm();
+        node.onReceiveInstallSnapshotResult(new InstallSnapshotResultMessage(
+                new InstallSnapshotResult(rpcs.get(0).getMessageId(), term, 0), NodeId.of("B"), rpcs.get(0)));
+        rpcs = getInstallSnapshotRpcs(mockConnector, NodeId.of("B"));
+        Assert.assertEquals(4, rpcs.size());
+        Assert.assertEquals(0, rpcs.get(2).getOffset());
+        Assert.assertEquals(2, rpcs.get(3).getOffset());
+
+        // result of rpc sent before rewinding is ignored
+        node.onReceiveInstallSnapshotResult(new InstallSnapshotResultMessage(
+                new InstallSnapshotResult(rpcs.get(1).getMessageId(), term, 0), NodeId.of("B"), rpcs.get(1)));
+        Assert.assertEquals(4, getInstallSnapshotRpcs(mockConnector, NodeId.of("B")).size());
+        Assert.assertEquals(4, member.getSnapshotOffset());
+    }
+
+    @Test
+    public void testOnReceiveInstallSnapshotResultAfterTimeout() {
+        NodeImpl node = newSnapshotLeader();
+        MockConnector mockConnector = (MockConnector) node.getContext().connector();
+        GroupMember member = node.getContext().group().findMember(NodeId.of("B"));
+        member.startInstallSnapshot(0);
+        node.replicateLog();
+        List<InstallSnapshotRpc> rpcs = getInstallSnapshotRpcs(mockConnector, NodeId.of("B"));
+        Assert.assertEquals(2, rpcs.size());
+
+        // no result in read timeout
+        Assert.assertTrue(member.shouldSendSnapshotChunk(2, 0));
+        // result after timeout is ignored, chunks are sent again from the offset acknowledged
+        int term = node.getRoleState().getTerm();
+        node.onReceiveInstallSnapshotResult(new InstallSnapshotResultMessage(
+                new InstallSnapshotResult(rpcs.get(0).getMessageId(), term, 2), NodeId.of("B"), rpcs.get(0)));
+        rpcs = getInstallSnapshotRpcs(mockConnector, NodeId.of("B"));
+        Assert.assertEquals(4, rpcs.size());
+        Assert.assertEquals(0, rpcs.get(2).getOffset());
+        Assert.assertTrue(member.isInstallingSnapshot());
+    }
+
+    @Test
+    public void testOnReceiveInstallSnapshotResultAfterInstalled() {
+        NodeImpl node = newSnapshotLeader();
+        MockConnector mockConnector = (MockConnector) node.getContext().connector();
+        GroupMember member = node.getContext().group().findMember(NodeId.of("B"));
+        member.startInstallSnapshot(4);
+        node.replicateLog();
+        InstallSnapshotRpc rpc = getInstallSnapshotRpcs(mockConnector, NodeId.of("B")).get(0);
+        Assert.assertTrue(rpc.isDone());
+        int term = node.getRoleState().getTerm();
+        node.onReceiveInstallSnapshotResult(new InstallSnapshotResultMessage(
+                new InstallSnapshotResult(rpc.getMessageId(), term, 5), NodeId.of("B"), rpc));
+        Assert.assertFalse(member.isInstallingSnapshot());
+
+        // result of the last chunk sent again is ignored, instead of restarting the transfer
+        node.onReceiveInstallSnapshotResult(new InstallSnapshotResultMessage(
+                new InstallSnapshotResult(rpc.getMessageId(), term, 0), NodeId.of("B"), rpc));
+        Assert.assertFalse(member.isInstallingSnapshot());
+        Assert.assertEquals(1, getInstallSnapshotRpcs(mockConnector, NodeId.of("B")).size());
+    }
+
     @Test
     public void testOnGroupConfigEntryFromLeaderAppend() {
         NodeImpl node = (NodeImpl) newNodeBuilder(
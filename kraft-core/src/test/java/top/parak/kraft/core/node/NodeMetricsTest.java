@@ -0,0 +1,50 @@
+package top.parak.kraft.core.node;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import top.parak.kraft.core.support.metrics.MetricRegistry;
+import top.parak.kraft.core.support.task.DirectTaskExecutor;
+
+import java.util.Map;
+
+public class NodeMetricsTest {
+
+    @Test
+    public void testAppendToCommit() {
+        MetricRegistry registry = new MetricRegistry();
+        NodeMetrics metrics = new NodeMetrics(registry, new DirectTaskExecutor());
+        long now = System.nanoTime();
+        metrics.onAppended(2, now);
+        metrics.onAppended(5, now);
+        metrics.onCommitted(3);
+        Assert.assertEquals(1L, registry.snapshot().get("node.append_to_commit_micros.count"));
+        metrics.onCommitted(5);
+        Assert.assertEquals(2L, registry.snapshot().get("node.append_to_commit_micros.count"));
+    }
+
+    @Test
+    public void testRoleChanged() {
+        MetricRegistry registry = new MetricRegistry();
+        NodeMetrics metrics = new NodeMetrics(registry, new DirectTaskExecutor());
+        metrics.onAppended(1, System.nanoTime());
+        metrics.updateMatchIndexLag(NodeId.of("B"), 3);
+        Assert.assertEquals(3L, registry.snapshot().get("replication.match_index_lag.B"));
+        metrics.onRoleChanged();
+        metrics.onCommitted(1);
+        Map<String, Number> snapshot = registry.snapshot();
+        Assert.assertEquals(0L, snapshot.get("node.append_to_commit_micros.count"));
+        Assert.assertEquals(0L, snapshot.get("replication.match_index_lag.B"));
+    }
+
+    @Test
+    public void testScope() {
+        MetricRegistry registry = new MetricRegistry();
+        new NodeMetrics(registry.scope("group-1"), new DirectTaskExecutor());
+        registry.scope("group-2").histogram("foo").record(1);
+        Assert.assertEquals(0L, registry.snapshot().get("group-1.node.task_queue_depth"));
+        Assert.assertEquals(1L, registry.snapshot().get("group-2.foo.count"));
+        Assert.assertFalse(registry.scope("group-2").snapshot().containsKey("group-1.node.task_queue_depth"));
+    }
+
+}
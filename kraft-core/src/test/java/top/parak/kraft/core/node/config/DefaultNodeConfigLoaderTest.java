@@ -39,4 +39,20 @@ public class DefaultNodeConfigLoaderTest {
         Assert.assertEquals(Log.ALL_ENTRIES, config.getMaxReplicationEntries());
     }
 
+    @Test
+    public void testLoadLogFlushPolicy() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        Properties p = new Properties();
+        p.setProperty("log.flush.policy", "interval");
+        p.setProperty("log.flush.interval", "200");
+        p.store(output, "");
+
+        DefaultNodeConfigLoader loader = new DefaultNodeConfigLoader();
+        NodeConfig config = loader.load(new ByteArrayInputStream(output.toByteArray()));
+        Assert.assertEquals("interval", config.getLogFlushPolicy());
+        Assert.assertEquals(200, config.getLogFlushInterval());
+        Assert.assertEquals(1024 * 1024, config.getLogFlushBytes());
+    }
+
 }
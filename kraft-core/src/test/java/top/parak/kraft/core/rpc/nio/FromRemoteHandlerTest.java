@@ -0,0 +1,148 @@
+package top.parak.kraft.core.rpc.nio;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.Assert;
+import org.junit.Test;
+
+import top.parak.kraft.core.node.NodeId;
+import top.parak.kraft.core.rpc.MessageDispatcher;
+import top.parak.kraft.core.rpc.message.*;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class FromRemoteHandlerTest {
+
+    private static class RecordingDispatcher implements MessageDispatcher {
+
+        private final List<RequestVoteRpcMessage> rpcMessages = new ArrayList<>();
+
+        @Override
+        public void onReceiveRequestVoteRpc(@Nonnull RequestVoteRpcMessage rpcMessage) {
+            rpcMessages.add(rpcMessage);
+        }
+
+        @Override
+        public void onReceiveRequestVoteResult(@Nonnull RequestVoteResult result) {
+        }
+
+        @Override
+        public void onReceiveAppendEntriesRpc(@Nonnull AppendEntriesRpcMessage rpcMessage) {
+        }
+
+        @Override
+        public void onReceiveAppendEntriesResult(@Nonnull AppendEntriesResultMessage resultMessage) {
+        }
+
+        @Override
+        public void onReceiveInstallSnapshotRpc(@Nonnull InstallSnapshotRpcMessage rpcMessage) {
+        }
+
+        @Override
+        public void onReceiveInstallSnapshotResult(@Nonnull InstallSnapshotResultMessage resultMessage) {
+        }
+
+        @Override
+        public void onReceiveReadIndexRpc(@Nonnull ReadIndexRpcMessage rpcMessage) {
+        }
+
+        @Override
+        public void onReceiveReadIndexResult(@Nonnull ReadIndexResult result) {
+        }
+
+    }
+
+    private static RequestVoteRpc createRpc(int term) {
+        RequestVoteRpc rpc = new RequestVoteRpc();
+        rpc.setTerm(term);
+        rpc.setCandidateId(NodeId.of("A"));
+        return rpc;
+    }
+
+    @Test
+    public void testDispatchByGroupId() {
+        Map<Integer, MessageDispatcher> dispatchers = new HashMap<>();
+        RecordingDispatcher legacyDispatcher = new RecordingDispatcher();
+        RecordingDispatcher dispatcher1 = new RecordingDispatcher();
+        RecordingDispatcher dispatcher2 = new RecordingDispatcher();
+        dispatchers.put(0, legacyDispatcher);
+        dispatchers.put(1, dispatcher1);
+        dispatchers.put(MessageConstants.MAX_GROUP_ID, dispatcher2);
+
+        EmbeddedChannel remoteChannel = new EmbeddedChannel(new NodeRpcMessageEncoder());
+        EmbeddedChannel channel = new EmbeddedChannel(
+                new NodeRpcMessageDecoder(),
+                new NodeRpcMessageEncoder(),
+                new FromRemoteHandler(dispatchers::get, new InboundChannelGroup())
+        );
+        remoteChannel.writeOutbound(NodeId.of("A"));
+        remoteChannel.writeOutbound(new GroupMessage(1, createRpc(1)));
+        remoteChannel.writeOutbound(new GroupMessage(MessageConstants.MAX_GROUP_ID, createRpc(2)));
+        remoteChannel.writeOutbound(createRpc(3));
+        // group not found, dropped
+        remoteChannel.writeOutbound(new GroupMessage(2, createRpc(4)));
+        ByteBuf frame;
+        while ((frame = remoteChannel.readOutbound()) != null) {
+            channel.writeInbound(frame);
+        }
+
+        Assert.assertEquals(1, dispatcher1.rpcMessages.size());
+        Assert.assertEquals(1, dispatcher1.rpcMessages.get(0).get().getTerm());
+        Assert.assertEquals(NodeId.of("A"), dispatcher1.rpcMessages.get(0).getSourceNodeId());
+        Assert.assertEquals(1, dispatcher2.rpcMessages.size());
+        Assert.assertEquals(2, dispatcher2.rpcMessages.get(0).get().getTerm());
+        Assert.assertEquals(1, legacyDispatcher.rpcMessages.size());
+        Assert.assertEquals(3, legacyDispatcher.rpcMessages.get(0).get().getTerm());
+
+        // reply is tagged with group id of rpc
+        dispatcher2.rpcMessages.get(0).getChannel().writeRequestVoteResult(new RequestVoteResult(2, true));
+        legacyDispatcher.rpcMessages.get(0).getChannel().writeRequestVoteResult(new RequestVoteResult(3, false));
+        channel.runPendingTasks();
+        ByteBuf result = channel.readOutbound();
+        Assert.assertEquals(MessageConstants.MAX_GROUP_ID, result.getInt(0) >>> MessageConstants.GROUP_ID_SHIFT);
+        Assert.assertEquals(MessageConstants.MSG_TYPE_REQUEST_VOTE_RESULT, result.getInt(0) & MessageConstants.MSG_TYPE_MASK);
+        result.release();
+        result = channel.readOutbound();
+        Assert.assertEquals(MessageConstants.MSG_TYPE_REQUEST_VOTE_RESULT, result.getInt(0));
+        result.release();
+    }
+
+    private static Features negotiate(boolean compactEnabled, Features features) {
+        NodeRpcMessageEncoder encoder = new NodeRpcMessageEncoder();
+        EmbeddedChannel channel = new EmbeddedChannel(
+                new NodeRpcMessageDecoder(),
+                encoder,
+                new FromRemoteHandler(groupId -> null, new InboundChannelGroup(), compactEnabled)
+        );
+        EmbeddedChannel remoteChannel = new EmbeddedChannel(new NodeRpcMessageEncoder());
+        remoteChannel.writeOutbound(NodeId.of("A"), features);
+        ByteBuf frame;
+        while ((frame = remoteChannel.readOutbound()) != null) {
+            channel.writeInbound(frame);
+        }
+
+        EmbeddedChannel replyChannel = new EmbeddedChannel(new NodeRpcMessageDecoder());
+        replyChannel.writeInbound((ByteBuf) channel.readOutbound());
+        Features accepted = replyChannel.readInbound();
+        Assert.assertEquals(accepted.isCompact(), encoder.isCompact());
+        return accepted;
+    }
+
+    @Test
+    public void testNegotiateCompact() {
+        Assert.assertTrue(negotiate(true, new Features(Features.COMPACT)).isCompact());
+        // unknown features are not accepted
+        Assert.assertEquals(Features.COMPACT, negotiate(true, new Features(Features.COMPACT | 0x80)).getFlags());
+    }
+
+    @Test
+    public void testNegotiateLegacy() {
+        Assert.assertFalse(negotiate(false, new Features(Features.COMPACT)).isCompact());
+        Assert.assertFalse(negotiate(true, new Features(0)).isCompact());
+    }
+
+}
@@ -0,0 +1,353 @@
+package top.parak.kraft.core.rpc.nio;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.FileRegion;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.protobuf.MessageLite;
+import top.parak.kraft.core.Protos;
+import top.parak.kraft.core.log.entry.Entry;
+import top.parak.kraft.core.log.entry.GeneralEntry;
+import top.parak.kraft.core.log.entry.NoOpEntry;
+import top.parak.kraft.core.node.NodeEndpoint;
+import top.parak.kraft.core.node.NodeId;
+import top.parak.kraft.core.rpc.message.AppendEntriesResult;
+import top.parak.kraft.core.rpc.message.AppendEntriesRpc;
+import top.parak.kraft.core.rpc.message.InstallSnapshotResult;
+import top.parak.kraft.core.rpc.message.InstallSnapshotRpc;
+import top.parak.kraft.core.rpc.message.MessageConstants;
+import top.parak.kraft.core.rpc.message.ReadIndexResult;
+import top.parak.kraft.core.rpc.message.ReadIndexRpc;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+
+public class NodeRpcMessageCodecTest {
+
+    private Object roundTrip(Object msg) {
+        return roundTrip(msg, false);
+    }
+
+    private Object roundTrip(Object msg, boolean compact) {
+        NodeRpcMessageEncoder encoder = new NodeRpcMessageEncoder();
+        encoder.setCompact(compact);
+        EmbeddedChannel encoderChannel = new EmbeddedChannel(encoder);
+        Assert.assertTrue(encoderChannel.writeOutbound(msg));
+        ByteBuf buf = encoderChannel.readOutbound();
+        Assert.assertEquals(buf.readableBytes(), buf.getInt(4) + 8);
+
+        EmbeddedChannel decoderChannel = new EmbeddedChannel(new NodeRpcMessageDecoder());
+        // split to test partial payload
+        Assert.assertFalse(decoderChannel.writeInbound(buf.readRetainedSlice(buf.readableBytes() / 2)));
+        Assert.assertTrue(decoderChannel.writeInbound(buf));
+        return decoderChannel.readInbound();
+    }
+
+    @Test
+    public void testNodeId() {
+        Assert.assertEquals(NodeId.of("A"), roundTrip(NodeId.of("A")));
+    }
+
+    @Test
+    public void testFeatures() {
+        Features features = (Features) roundTrip(new Features(Features.COMPACT));
+        Assert.assertTrue(features.isCompact());
+        Assert.assertFalse(((Features) roundTrip(new Features(0))).isCompact());
+    }
+
+    @Test
+    public void testAppendEntriesRpc() {
+        testAppendEntriesRpc(false);
+        testAppendEntriesRpc(true);
+    }
+
+    private void testAppendEntriesRpc(boolean compact) {
+        AppendEntriesRpc rpc = new AppendEntriesRpc();
+        rpc.setMessageId(1L);
+        rpc.setTerm(2);
+        rpc.setLeaderId(NodeId.of("A"));
+        rpc.setPrevLogIndex(1);
+        rpc.setPrevLogTerm(1);
+        rpc.setLeaderCommit(1);
+        rpc.setEntries(Arrays.asList(
+                new NoOpEntry(2, 2),
+                new GeneralEntry(3, 2, "test".getBytes())
+        ));
+        AppendEntriesRpc decoded = (AppendEntriesRpc) roundTrip(rpc, compact);
+        Assert.assertEquals(1L, decoded.getMessageId());
+        Assert.assertEquals(2, decoded.getTerm());
+        Assert.assertEquals(NodeId.of("A"), decoded.getLeaderId());
+        Assert.assertEquals(1, decoded.getPrevLogIndex());
+        Assert.assertEquals(1, decoded.getLeaderCommit());
+        Assert.assertEquals(2, decoded.getEntries().size());
+        Entry entry = decoded.getEntries().get(1);
+        Assert.assertEquals(Entry.KIND_GENERAL, entry.getKind());
+        Assert.assertEquals(3, entry.getIndex());
+        Assert.assertEquals("test", new String(entry.getCommandBytes()));
+    }
+
+    @Test
+    public void testInstallSnapshotRpc() {
+        InstallSnapshotRpc rpc = new InstallSnapshotRpc();
+        rpc.setMessageId(1L);
+        rpc.setTerm(2);
+        rpc.setLeaderId(NodeId.of("A"));
+        rpc.setLastIndex(3);
+        rpc.setLastTerm(1);
+        rpc.setOffset(2);
+        rpc.setData("test".getBytes());
+        rpc.setCodec(2);
+        InstallSnapshotRpc decoded = (InstallSnapshotRpc) roundTrip(rpc);
+        Assert.assertEquals(1L, decoded.getMessageId());
+        Assert.assertEquals(3, decoded.getLastIndex());
+        Assert.assertEquals(1, decoded.getLastTerm());
+        Assert.assertEquals(2, decoded.getOffset());
+        Assert.assertEquals("test", new String(decoded.getData()));
+        Assert.assertEquals(2, decoded.getCodec());
+        Assert.assertTrue(decoded.getLastConfig().isEmpty());
+    }
+
+    @Test
+    public void testInstallSnapshotRpcFileRegion() throws IOException {
+        File file = File.createTempFile("snapshot", ".ss");
+        file.deleteOnExit();
+        Files.write(file.toPath(), "hello world".getBytes());
+        InstallSnapshotRpc rpc = new InstallSnapshotRpc();
+        rpc.setTerm(2);
+        rpc.setLeaderId(NodeId.of("A"));
+        rpc.setLastIndex(3);
+        rpc.setLastTerm(1);
+        rpc.setLastConfig(Collections.singleton(new NodeEndpoint("A", "127.0.0.1", 2333)));
+        rpc.setDataRegion(file, 6, 5);
+        rpc.setDone(true);
+
+        EmbeddedChannel encoderChannel = new EmbeddedChannel(new NodeRpcMessageEncoder());
+        Assert.assertTrue(encoderChannel.writeOutbound(rpc));
+        ByteBuf header = encoderChannel.readOutbound();
+        FileRegion region = encoderChannel.readOutbound();
+        Assert.assertEquals(header.readableBytes() + region.count(), header.getInt(4) + 8);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        region.transferTo(Channels.newChannel(output), 0);
+        region.release();
+
+        EmbeddedChannel decoderChannel = new EmbeddedChannel(new NodeRpcMessageDecoder());
+        Assert.assertFalse(decoderChannel.writeInbound(header));
+        Assert.assertTrue(decoderChannel.writeInbound(Unpooled.wrappedBuffer(output.toByteArray())));
+        InstallSnapshotRpc decoded = decoderChannel.readInbound();
+        Assert.assertEquals(3, decoded.getLastIndex());
+        Assert.assertEquals(1, decoded.getLastTerm());
+        Assert.assertEquals(1, decoded.getLastConfig().size());
+        Assert.assertEquals("world", new String(decoded.getData()));
+        Assert.assertTrue(decoded.isDone());
+    }
+
+    @Test
+    public void testInstallSnapshotResult() {
+        InstallSnapshotResult result = (InstallSnapshotResult) roundTrip(new InstallSnapshotResult(1L, 2, 1024));
+        Assert.assertEquals(1L, result.getRpcMessageId());
+        Assert.assertEquals(2, result.getTerm());
+        Assert.assertEquals(1024, result.getOffset());
+    }
+
+    @Test
+    public void testAppendEntriesResult() {
+        for (boolean compact : new boolean[]{false, true}) {
+            AppendEntriesResult result = (AppendEntriesResult) roundTrip(new AppendEntriesResult(1L, 2, true), compact);
+            Assert.assertEquals(1L, result.getRpcMessageId());
+            Assert.assertEquals(2, result.getTerm());
+            Assert.assertTrue(result.isSuccess());
+        }
+    }
+
+    @Test
+    public void testAppendEntriesResultConflict() {
+        for (boolean compact : new boolean[]{false, true}) {
+            AppendEntriesResult result = (AppendEntriesResult) roundTrip(new AppendEntriesResult(1L, 2, false, 1, 100), compact);
+            Assert.assertFalse(result.isSuccess());
+            Assert.assertEquals(1, result.getConflictTerm());
+            Assert.assertEquals(100, result.getConflictIndex());
+        }
+    }
+
+    @Test
+    public void testAppendEntriesResultFrameType() {
+        NodeRpcMessageEncoder encoder = new NodeRpcMessageEncoder();
+        EmbeddedChannel encoderChannel = new EmbeddedChannel(encoder);
+        Assert.assertTrue(encoderChannel.writeOutbound(new AppendEntriesResult(1L, 2, true)));
+        ByteBuf buf = encoderChannel.readOutbound();
+        Assert.assertEquals(MessageConstants.MSG_TYPE_APPEND_ENTRIES_RESULT, buf.getInt(0));
+        buf.release();
+
+        encoder.setCompact(true);
+        Assert.assertTrue(encoderChannel.writeOutbound(new AppendEntriesResult(1L, 2, true)));
+        buf = encoderChannel.readOutbound();
+        Assert.assertEquals(MessageConstants.MSG_TYPE_APPEND_ENTRIES_COMPACT_RESULT, buf.getInt(0));
+        Assert.assertEquals(8 + NodeRpcMessageEncoder.APPEND_ENTRIES_RESULT_LENGTH, buf.readableBytes());
+        buf.release();
+    }
+
+    @Test
+    public void testReadIndex() {
+        for (boolean compact : new boolean[]{false, true}) {
+            Assert.assertEquals(Long.MAX_VALUE, ((ReadIndexRpc) roundTrip(new ReadIndexRpc(Long.MAX_VALUE), compact)).getMessageId());
+            ReadIndexResult result = (ReadIndexResult) roundTrip(new ReadIndexResult(1L, true, 10), compact);
+            Assert.assertEquals(1L, result.getRpcMessageId());
+            Assert.assertTrue(result.isSuccess());
+            Assert.assertEquals(10, result.getReadIndex());
+        }
+    }
+
+    /**
+     * Write message in frame as node on legacy format.
+     */
+    private static ByteBuf legacyFrame(int messageType, MessageLite message) {
+        byte[] bytes = message.toByteArray();
+        ByteBuf buf = Unpooled.buffer(8 + bytes.length);
+        buf.writeInt(messageType);
+        buf.writeInt(bytes.length);
+        buf.writeBytes(bytes);
+        return buf;
+    }
+
+    @Test
+    public void testLegacyMessageId() throws IOException {
+        String legacyId = UUID.randomUUID().toString();
+        EmbeddedChannel channel = new EmbeddedChannel(new NodeRpcMessageDecoder(), new NodeRpcMessageEncoder());
+        Assert.assertTrue(channel.writeInbound(legacyFrame(MessageConstants.MSG_TYPE_APPEND_ENTRIES_RPC,
+                Protos.AppendEntriesRpc.newBuilder().setLegacyMessageId(legacyId).setTerm(2).setLeaderId("A").build())));
+        AppendEntriesRpc rpc = channel.readInbound();
+        Assert.assertTrue(rpc.getMessageId() < 0);
+        Assert.assertEquals(NodeId.of("A"), rpc.getLeaderId());
+
+        Assert.assertTrue(channel.writeInbound(legacyFrame(MessageConstants.MSG_TYPE_READ_INDEX_RPC,
+                Protos.ReadIndexRpc.newBuilder().setLegacyMessageId("r1").build())));
+        ReadIndexRpc readIndexRpc = channel.readInbound();
+        Assert.assertTrue(readIndexRpc.getMessageId() < 0);
+        Assert.assertNotEquals(rpc.getMessageId(), readIndexRpc.getMessageId());
+
+        // decimal id of new node on legacy format
+        Assert.assertTrue(channel.writeInbound(legacyFrame(MessageConstants.MSG_TYPE_APPEND_ENTRIES_RESULT,
+                Protos.AppendEntriesResult.newBuilder().setLegacyRpcMessageId("123").setTerm(2).setSuccess(true).build())));
+        Assert.assertEquals(123L, ((AppendEntriesResult) channel.readInbound()).getRpcMessageId());
+
+        // results are replied with legacy id
+        Assert.assertTrue(channel.writeOutbound(new AppendEntriesResult(rpc.getMessageId(), 2, true)));
+        ByteBuf buf = channel.readOutbound();
+        Assert.assertEquals(MessageConstants.MSG_TYPE_APPEND_ENTRIES_RESULT, buf.readInt());
+        buf.skipBytes(4);
+        Protos.AppendEntriesResult protoResult = Protos.AppendEntriesResult.parseFrom(buf.nioBuffer());
+        Assert.assertEquals(legacyId, protoResult.getLegacyRpcMessageId());
+        Assert.assertEquals(0L, protoResult.getRpcMessageId());
+        buf.release();
+
+        Assert.assertTrue(channel.writeOutbound(new ReadIndexResult(readIndexRpc.getMessageId(), true, 10)));
+        buf = channel.readOutbound();
+        Assert.assertEquals(MessageConstants.MSG_TYPE_READ_INDEX_RESULT, buf.readInt());
+        buf.skipBytes(4);
+        Assert.assertEquals("r1", Protos.ReadIndexResult.parseFrom(buf.nioBuffer()).getLegacyRpcMessageId());
+        buf.release();
+    }
+
+    @Test
+    public void testLegacyAfterHandshake() throws IOException {
+        EmbeddedChannel encoderChannel = new EmbeddedChannel(new NodeRpcMessageEncoder());
+        Assert.assertTrue(encoderChannel.writeOutbound(NodeId.of("A")));
+        ((ByteBuf) encoderChannel.readOutbound()).release();
+
+        // heartbeat in protobuf, node id and message id as string
+        AppendEntriesRpc rpc = new AppendEntriesRpc();
+        rpc.setMessageId(1L);
+        rpc.setTerm(2);
+        rpc.setLeaderId(NodeId.of("A"));
+        Assert.assertTrue(encoderChannel.writeOutbound(rpc));
+        ByteBuf buf = encoderChannel.readOutbound();
+        Assert.assertEquals(MessageConstants.MSG_TYPE_APPEND_ENTRIES_RPC, buf.readInt());
+        buf.skipBytes(4);
+        Protos.AppendEntriesRpc protoRpc = Protos.AppendEntriesRpc.parseFrom(buf.nioBuffer());
+        Assert.assertEquals("1", protoRpc.getLegacyMessageId());
+        Assert.assertEquals(0L, protoRpc.getMessageId());
+        Assert.assertEquals("A", protoRpc.getLeaderId());
+        buf.release();
+    }
+
+    @Test
+    public void testHeartbeatAfterHandshake() {
+        NodeRpcMessageEncoder encoder = new NodeRpcMessageEncoder();
+        encoder.setCompact(true);
+        EmbeddedChannel encoderChannel = new EmbeddedChannel(encoder);
+        EmbeddedChannel decoderChannel = new EmbeddedChannel(new NodeRpcMessageDecoder());
+        Assert.assertTrue(encoderChannel.writeOutbound(NodeId.of("A")));
+        Assert.assertTrue(decoderChannel.writeInbound((ByteBuf) encoderChannel.readOutbound()));
+        NodeId handshakeId = decoderChannel.readInbound();
+
+        AppendEntriesRpc rpc = new AppendEntriesRpc();
+        rpc.setMessageId(Long.MAX_VALUE);
+        rpc.setTerm(2);
+        rpc.setLeaderId(NodeId.of("A"));
+        rpc.setPrevLogIndex(3);
+        rpc.setPrevLogTerm(1);
+        rpc.setLeaderCommit(2);
+        Assert.assertTrue(encoderChannel.writeOutbound(new GroupMessage(3, rpc)));
+        ByteBuf buf = encoderChannel.readOutbound();
+        Assert.assertEquals((3 << MessageConstants.GROUP_ID_SHIFT) | MessageConstants.MSG_TYPE_APPEND_ENTRIES_HEARTBEAT, buf.getInt(0));
+        Assert.assertEquals(8 + NodeRpcMessageEncoder.HEARTBEAT_LENGTH, buf.readableBytes());
+        Assert.assertTrue(decoderChannel.writeInbound(buf));
+        AppendEntriesRpc decoded = (AppendEntriesRpc) ((GroupMessage) decoderChannel.readInbound()).getMessage();
+        Assert.assertEquals(Long.MAX_VALUE, decoded.getMessageId());
+        Assert.assertEquals(2, decoded.getTerm());
+        Assert.assertSame(handshakeId, decoded.getLeaderId());
+        Assert.assertEquals(3, decoded.getPrevLogIndex());
+        Assert.assertEquals(1, decoded.getPrevLogTerm());
+        Assert.assertEquals(2, decoded.getLeaderCommit());
+        Assert.assertTrue(decoded.getEntries().isEmpty());
+
+        // leader id of rpc with entries is omitted too
+        rpc.setEntries(Collections.singletonList(new NoOpEntry(4, 2)));
+        Assert.assertTrue(encoderChannel.writeOutbound(rpc));
+        Assert.assertTrue(decoderChannel.writeInbound((ByteBuf) encoderChannel.readOutbound()));
+        decoded = decoderChannel.readInbound();
+        Assert.assertSame(handshakeId, decoded.getLeaderId());
+        Assert.assertEquals(1, decoded.getEntries().size());
+    }
+
+    @Test
+    public void testGroupMessage() {
+        AppendEntriesRpc rpc = new AppendEntriesRpc();
+        rpc.setMessageId(1L);
+        rpc.setTerm(2);
+        rpc.setLeaderId(NodeId.of("A"));
+        GroupMessage decoded = (GroupMessage) roundTrip(new GroupMessage(MessageConstants.MAX_GROUP_ID, rpc));
+        Assert.assertEquals(MessageConstants.MAX_GROUP_ID, decoded.getGroupId());
+        AppendEntriesRpc decodedRpc = (AppendEntriesRpc) decoded.getMessage();
+        Assert.assertEquals(1L, decodedRpc.getMessageId());
+        Assert.assertEquals(2, decodedRpc.getTerm());
+    }
+
+    @Test
+    public void testGroupMessageFrameType() {
+        EmbeddedChannel encoderChannel = new EmbeddedChannel(new NodeRpcMessageEncoder());
+        Assert.assertTrue(encoderChannel.writeOutbound(new GroupMessage(3, new InstallSnapshotResult(1L, 2, 1024))));
+        ByteBuf buf = encoderChannel.readOutbound();
+        Assert.assertEquals((3 << 16) | MessageConstants.MSG_TYPE_INSTALL_SNAPSHOT_RESULT, buf.getInt(0));
+        buf.release();
+    }
+
+    @Test
+    public void testLegacyGroupFrameType() {
+        EmbeddedChannel encoderChannel = new EmbeddedChannel(new NodeRpcMessageEncoder());
+        Assert.assertTrue(encoderChannel.writeOutbound(new InstallSnapshotResult(1L, 2, 1024)));
+        ByteBuf buf = encoderChannel.readOutbound();
+        Assert.assertEquals(MessageConstants.MSG_TYPE_INSTALL_SNAPSHOT_RESULT, buf.getInt(0));
+        buf.release();
+    }
+
+}
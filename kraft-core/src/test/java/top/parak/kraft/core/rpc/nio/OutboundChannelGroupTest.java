@@ -0,0 +1,167 @@
+package top.parak.kraft.core.rpc.nio;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import top.parak.kraft.core.node.NodeId;
+import top.parak.kraft.core.node.config.NodeConfig;
+import top.parak.kraft.core.rpc.Address;
+import top.parak.kraft.core.rpc.message.RequestVoteRpc;
+import top.parak.kraft.core.support.metrics.Histogram;
+
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class OutboundChannelGroupTest {
+
+    private final Transport transport = Transport.nio(new NodeConfig());
+    private EventLoopGroup group;
+    private OutboundChannelGroup channelGroup;
+    /**
+     * Messages received by server in order.
+     */
+    private final BlockingQueue<Object> messages = new LinkedBlockingQueue<>();
+
+    @Before
+    public void setUp() {
+        group = transport.createEventLoopGroup(2);
+        channelGroup = new OutboundChannelGroup(transport, group, groupId -> null, NodeId.of("A"),
+                1000, nodeId -> new Histogram());
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        channelGroup.closeAll();
+        group.shutdownGracefully(0, 1, TimeUnit.SECONDS).sync();
+    }
+
+    private Channel startServer() throws InterruptedException {
+        return transport.createServerBootstrap(group, group)
+                .childHandler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        ch.pipeline().addLast(new NodeRpcMessageDecoder());
+                        ch.pipeline().addLast(new ChannelInboundHandlerAdapter() {
+                            @Override
+                            public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                                messages.add(msg);
+                            }
+                        });
+                    }
+                })
+                .bind(new InetSocketAddress("127.0.0.1", 0)).sync().channel();
+    }
+
+    private static RequestVoteRpc createRpc(int term) {
+        RequestVoteRpc rpc = new RequestVoteRpc();
+        rpc.setTerm(term);
+        rpc.setCandidateId(NodeId.of("A"));
+        return rpc;
+    }
+
+    private Object takeMessage() throws InterruptedException {
+        Object message = messages.poll(3, TimeUnit.SECONDS);
+        Assert.assertNotNull("no message received", message);
+        return message;
+    }
+
+    @Test
+    public void testWriteWhileConnecting() throws Exception {
+        Channel serverChannel = startServer();
+        try {
+            int port = ((InetSocketAddress) serverChannel.localAddress()).getPort();
+            NioChannel channel = channelGroup.getOrConnect(NodeId.of("B"), new Address("127.0.0.1", port));
+            NioChannel groupChannel = channel.forGroup(1);
+            // written right after connect started, queued until connected
+            channel.writeRequestVoteRpc(createRpc(1));
+            groupChannel.writeRequestVoteRpc(createRpc(2));
+            channel.writeRequestVoteRpc(createRpc(3));
+            Assert.assertSame(channel, channelGroup.getOrConnect(NodeId.of("B"), new Address("127.0.0.1", port)));
+
+            // self id first, then messages in order of writing
+            Assert.assertEquals(NodeId.of("A"), takeMessage());
+            Assert.assertEquals(1, ((RequestVoteRpc) takeMessage()).getTerm());
+            GroupMessage groupMessage = (GroupMessage) takeMessage();
+            Assert.assertEquals(1, groupMessage.getGroupId());
+            Assert.assertEquals(2, ((RequestVoteRpc) groupMessage.getMessage()).getTerm());
+            Assert.assertEquals(3, ((RequestVoteRpc) takeMessage()).getTerm());
+
+            // written directly after connected
+            channel.writeRequestVoteRpc(createRpc(4));
+            Assert.assertEquals(4, ((RequestVoteRpc) takeMessage()).getTerm());
+        } finally {
+            serverChannel.close().sync();
+        }
+    }
+
+    @Test
+    public void testWriteWhenConnectFailed() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        Address address = new Address("127.0.0.1", port);
+        NioChannel channel = channelGroup.getOrConnect(NodeId.of("B"), address);
+        channel.writeRequestVoteRpc(createRpc(1));
+
+        // listener added after the one of group, so channel is removed when notified
+        CountDownLatch closedLatch = new CountDownLatch(1);
+        channel.getDelegate().closeFuture().addListener((ChannelFutureListener) future -> closedLatch.countDown());
+        Assert.assertTrue(closedLatch.await(3, TimeUnit.SECONDS));
+        Assert.assertFalse(channel.getDelegate().isActive());
+
+        // queued message is dropped, and message written after failure doesn't throw
+        channel.writeRequestVoteRpc(createRpc(2));
+        Assert.assertTrue(channel.getDelegate().closeFuture().isDone());
+
+        // reconnect on next get
+        NioChannel newChannel = channelGroup.getOrConnect(NodeId.of("B"), address);
+        Assert.assertNotSame(channel, newChannel);
+    }
+
+    @Test
+    public void testNegotiateCompact() throws Exception {
+        OutboundChannelGroup compactChannelGroup = new OutboundChannelGroup(transport, group, groupId -> null, NodeId.of("A"),
+                1000, nodeId -> new Histogram(), () -> true);
+        Channel serverChannel = transport.createServerBootstrap(group, group)
+                .childHandler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        ch.pipeline().addLast(new NodeRpcMessageDecoder());
+                        ch.pipeline().addLast(new NodeRpcMessageEncoder());
+                        ch.pipeline().addLast(new FromRemoteHandler(groupId -> null, new InboundChannelGroup(), true));
+                    }
+                })
+                .bind(new InetSocketAddress("127.0.0.1", 0)).sync().channel();
+        try {
+            int port = ((InetSocketAddress) serverChannel.localAddress()).getPort();
+            NioChannel channel = compactChannelGroup.getOrConnect(NodeId.of("B"), new Address("127.0.0.1", port));
+            // legacy format until features accepted by remote node, encoder is added once registered
+            NodeRpcMessageEncoder encoder = null;
+            for (int i = 0; i < 100 && (encoder == null || !encoder.isCompact()); i++) {
+                TimeUnit.MILLISECONDS.sleep(30);
+                encoder = channel.getDelegate().pipeline().get(NodeRpcMessageEncoder.class);
+            }
+            Assert.assertNotNull(encoder);
+            Assert.assertTrue(encoder.isCompact());
+        } finally {
+            compactChannelGroup.closeAll();
+            serverChannel.close().sync();
+        }
+    }
+
+}
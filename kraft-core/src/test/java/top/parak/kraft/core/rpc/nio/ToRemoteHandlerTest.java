@@ -0,0 +1,115 @@
+package top.parak.kraft.core.rpc.nio;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.Assert;
+import org.junit.Test;
+
+import top.parak.kraft.core.node.NodeId;
+import top.parak.kraft.core.rpc.MessageDispatcher;
+import top.parak.kraft.core.rpc.message.*;
+import top.parak.kraft.core.support.metrics.Histogram;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ToRemoteHandlerTest {
+
+    private static class RecordingDispatcher implements MessageDispatcher {
+
+        private final List<AppendEntriesResultMessage> resultMessages = new ArrayList<>();
+        private final List<InstallSnapshotResultMessage> installSnapshotResultMessages = new ArrayList<>();
+
+        @Override
+        public void onReceiveRequestVoteRpc(@Nonnull RequestVoteRpcMessage rpcMessage) {
+        }
+
+        @Override
+        public void onReceiveRequestVoteResult(@Nonnull RequestVoteResult result) {
+        }
+
+        @Override
+        public void onReceiveAppendEntriesRpc(@Nonnull AppendEntriesRpcMessage rpcMessage) {
+        }
+
+        @Override
+        public void onReceiveAppendEntriesResult(@Nonnull AppendEntriesResultMessage resultMessage) {
+            resultMessages.add(resultMessage);
+        }
+
+        @Override
+        public void onReceiveInstallSnapshotRpc(@Nonnull InstallSnapshotRpcMessage rpcMessage) {
+        }
+
+        @Override
+        public void onReceiveInstallSnapshotResult(@Nonnull InstallSnapshotResultMessage resultMessage) {
+            installSnapshotResultMessages.add(resultMessage);
+        }
+
+        @Override
+        public void onReceiveReadIndexRpc(@Nonnull ReadIndexRpcMessage rpcMessage) {
+        }
+
+        @Override
+        public void onReceiveReadIndexResult(@Nonnull ReadIndexResult result) {
+        }
+
+    }
+
+    private static AppendEntriesRpc createAppendEntriesRpc(long messageId) {
+        AppendEntriesRpc rpc = new AppendEntriesRpc();
+        rpc.setMessageId(messageId);
+        return rpc;
+    }
+
+    private static InstallSnapshotRpc createInstallSnapshotRpc(long messageId) {
+        InstallSnapshotRpc rpc = new InstallSnapshotRpc();
+        rpc.setMessageId(messageId);
+        return rpc;
+    }
+
+    @Test
+    public void testAppendEntriesResultOutOfWindow() {
+        RecordingDispatcher dispatcher = new RecordingDispatcher();
+        EmbeddedChannel channel = new EmbeddedChannel(
+                new ToRemoteHandler(groupId -> dispatcher, NodeId.of("B"), NodeId.of("A"), new Histogram(), 2)
+        );
+        for (long messageId = 1; messageId <= 3; messageId++) {
+            channel.writeOutbound(createAppendEntriesRpc(messageId));
+        }
+        // rpc 1 is out of window
+        channel.writeInbound(new AppendEntriesResult(1L, 1, true));
+        Assert.assertEquals(0, dispatcher.resultMessages.size());
+        channel.writeInbound(new AppendEntriesResult(3L, 1, true));
+        channel.writeInbound(new AppendEntriesResult(2L, 1, true));
+        Assert.assertEquals(2, dispatcher.resultMessages.size());
+        Assert.assertEquals(3L, dispatcher.resultMessages.get(0).getRpc().getMessageId());
+        Assert.assertEquals(2L, dispatcher.resultMessages.get(1).getRpc().getMessageId());
+        // result is dispatched only once
+        channel.writeInbound(new AppendEntriesResult(2L, 1, true));
+        Assert.assertEquals(2, dispatcher.resultMessages.size());
+    }
+
+    @Test
+    public void testInstallSnapshotResult() {
+        RecordingDispatcher dispatcher = new RecordingDispatcher();
+        EmbeddedChannel channel = new EmbeddedChannel(
+                new ToRemoteHandler(groupId -> dispatcher, NodeId.of("B"), NodeId.of("A"), new Histogram(), 1)
+        );
+        for (long messageId = 1; messageId <= 4; messageId++) {
+            channel.writeOutbound(createInstallSnapshotRpc(messageId));
+        }
+        // rpc 1 is not replied
+        channel.writeInbound(new InstallSnapshotResult(2L, 1, 0));
+        Assert.assertEquals(1, dispatcher.installSnapshotResultMessages.size());
+        Assert.assertEquals(2L, dispatcher.installSnapshotResultMessages.get(0).getRpc().getMessageId());
+        channel.writeInbound(new InstallSnapshotResult(1L, 1, 0));
+        channel.writeInbound(new InstallSnapshotResult(2L, 1, 0));
+        Assert.assertEquals(1, dispatcher.installSnapshotResultMessages.size());
+        // result without message id is paired with the oldest rpc
+        channel.writeInbound(new InstallSnapshotResult(0L, 1, 0));
+        Assert.assertEquals(2, dispatcher.installSnapshotResultMessages.size());
+        Assert.assertEquals(3L, dispatcher.installSnapshotResultMessages.get(1).getRpc().getMessageId());
+    }
+
+}
@@ -0,0 +1,57 @@
+package top.parak.kraft.core.rpc.nio;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.WriteBufferWaterMark;
+import org.junit.Assert;
+import org.junit.Test;
+
+import top.parak.kraft.core.node.config.NodeConfig;
+
+public class TransportTest {
+
+    @Test
+    public void testCreate() {
+        NodeConfig config = new NodeConfig();
+        config.setTransport(Transport.NIO);
+        Assert.assertEquals(Transport.NIO, Transport.create(config).getName());
+
+        config.setTransport(Transport.AUTO);
+        Assert.assertEquals(Transport.isEpollAvailable() ? Transport.EPOLL : Transport.NIO,
+                Transport.create(config).getName());
+
+        // fallback to nio if not available
+        config.setTransport(Transport.EPOLL);
+        Assert.assertEquals(Transport.isEpollAvailable() ? Transport.EPOLL : Transport.NIO,
+                Transport.create(config).getName());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreateUnknown() {
+        NodeConfig config = new NodeConfig();
+        config.setTransport("foo");
+        Transport.create(config);
+    }
+
+    @Test
+    public void testCreateBootstrap() {
+        NodeConfig config = new NodeConfig();
+        config.setSocketSendBufferSize(65536);
+        config.setWriteBufferHighWaterMark(16384);
+        Transport transport = Transport.nio(config);
+        EventLoopGroup group = transport.createEventLoopGroup(1);
+        try {
+            Bootstrap bootstrap = transport.createBootstrap(group);
+            Assert.assertEquals(true, bootstrap.config().options().get(ChannelOption.TCP_NODELAY));
+            Assert.assertEquals(65536, bootstrap.config().options().get(ChannelOption.SO_SNDBUF));
+            Assert.assertNull(bootstrap.config().options().get(ChannelOption.SO_RCVBUF));
+            WriteBufferWaterMark waterMark = (WriteBufferWaterMark) bootstrap.config().options().get(ChannelOption.WRITE_BUFFER_WATER_MARK);
+            Assert.assertEquals(16384, waterMark.high());
+            Assert.assertEquals(16384, waterMark.low());
+        } finally {
+            group.shutdownGracefully();
+        }
+    }
+
+}
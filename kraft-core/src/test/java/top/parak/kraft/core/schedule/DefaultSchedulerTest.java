@@ -1,11 +1,13 @@
 package top.parak.kraft.core.schedule;
 
+import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import top.parak.kraft.core.node.NodeBuilder;
 import top.parak.kraft.core.node.NodeEndpoint;
 import top.parak.kraft.core.node.NodeId;
 import top.parak.kraft.core.node.NodeImpl;
+import top.parak.kraft.core.node.config.NodeConfig;
 import top.parak.kraft.core.support.task.ListeningTaskExecutor;
 import top.parak.kraft.core.support.task.SingleThreadTaskExecutor;
 import top.parak.kraft.core.support.task.TaskExecutor;
@@ -39,6 +41,39 @@ public class DefaultSchedulerTest {
         }
     }
 
+    @Test
+    public void testStopWithSharedExecutor() throws InterruptedException {
+        ScheduledExecutorService scheduledExecutorService = Executors.newSingleThreadScheduledExecutor();
+        NodeConfig config = new NodeConfig();
+        config.setLogReplicationDelay(0);
+        config.setLogReplicationInterval(10);
+        DefaultScheduler scheduler = new DefaultScheduler(config, scheduledExecutorService);
+        CountDownLatch latch = new CountDownLatch(1);
+        LogReplicationTask task = scheduler.scheduleLogReplicationTask(latch::countDown);
+        Assert.assertTrue(latch.await(1, TimeUnit.SECONDS));
+
+        // periodic task is cancelled, but shared executor is not shut down
+        scheduler.stop();
+        Assert.assertTrue(task.isCancelled());
+        Assert.assertFalse(scheduledExecutorService.isShutdown());
+        scheduledExecutorService.shutdown();
+    }
+
+    @Test
+    public void testScheduleLogFlushTask() throws InterruptedException {
+        ScheduledExecutorService scheduledExecutorService = Executors.newSingleThreadScheduledExecutor();
+        DefaultScheduler scheduler = new DefaultScheduler(new NodeConfig(), scheduledExecutorService);
+        CountDownLatch latch = new CountDownLatch(1);
+        LogFlushTask task = scheduler.scheduleLogFlushTask(latch::countDown, 10);
+        Assert.assertTrue(latch.await(1, TimeUnit.SECONDS));
+
+        // cancelled periodic task is not scheduled any more
+        task.cancel();
+        Assert.assertTrue(task.isCancelled());
+        scheduler.stop();
+        scheduledExecutorService.shutdown();
+    }
+
     private static TaskExecutor taskExecutor;
     private static TaskExecutor groupConfigChangeTaskExecutor;
     private static TaskExecutor cachedThreadTaskExecutor;
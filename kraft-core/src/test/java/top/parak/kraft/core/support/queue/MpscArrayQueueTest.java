@@ -0,0 +1,80 @@
+package top.parak.kraft.core.support.queue;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class MpscArrayQueueTest {
+
+    @Test
+    public void testOfferPoll() {
+        MpscArrayQueue<Integer> queue = new MpscArrayQueue<>(3);
+        Assert.assertTrue(queue.isEmpty());
+        Assert.assertNull(queue.poll());
+        Assert.assertTrue(queue.offer(1));
+        Assert.assertTrue(queue.offer(2));
+        Assert.assertTrue(queue.offer(3));
+        Assert.assertFalse(queue.offer(4));
+        Assert.assertEquals(3, queue.size());
+        Assert.assertEquals(1, (int) queue.poll());
+        Assert.assertTrue(queue.offer(4));
+        Assert.assertEquals(2, (int) queue.poll());
+        Assert.assertEquals(3, (int) queue.poll());
+        Assert.assertEquals(4, (int) queue.poll());
+        Assert.assertNull(queue.poll());
+        Assert.assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testDrain() {
+        MpscArrayQueue<Integer> queue = new MpscArrayQueue<>(8);
+        for (int i = 0; i < 5; i++) {
+            queue.offer(i);
+        }
+        List<Integer> drained = new ArrayList<>();
+        Assert.assertEquals(3, queue.drain(3, drained::add));
+        Assert.assertEquals(2, queue.drain(3, drained::add));
+        Assert.assertEquals(0, queue.drain(3, drained::add));
+        Assert.assertEquals(5, drained.size());
+        Assert.assertEquals(4, (int) drained.get(4));
+    }
+
+    @Test
+    public void testMultipleProducers() throws InterruptedException {
+        MpscArrayQueue<Integer> queue = new MpscArrayQueue<>(64);
+        int producers = 4;
+        int count = 10000;
+        Thread[] threads = new Thread[producers];
+        for (int i = 0; i < producers; i++) {
+            int producer = i;
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < count; j++) {
+                    while (!queue.offer(producer * count + j)) {
+                        Thread.yield();
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        int[] next = new int[producers];
+        int polled = 0;
+        while (polled < producers * count) {
+            Integer element = queue.poll();
+            if (element == null) {
+                Thread.yield();
+                continue;
+            }
+            // elements of one producer are in order
+            int producer = element / count;
+            Assert.assertEquals(next[producer]++, element % count);
+            polled++;
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertTrue(queue.isEmpty());
+    }
+
+}
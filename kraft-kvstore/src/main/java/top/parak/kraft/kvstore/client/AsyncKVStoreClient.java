@@ -0,0 +1,298 @@
+package top.parak.kraft.kvstore.client;
+
+import com.google.common.base.Preconditions;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import top.parak.kraft.core.node.NodeId;
+import top.parak.kraft.core.rpc.Address;
+import top.parak.kraft.core.service.ChannelException;
+import top.parak.kraft.core.service.NoAvailableServerException;
+import top.parak.kraft.kvstore.message.Failure;
+import top.parak.kraft.kvstore.message.GetCommand;
+import top.parak.kraft.kvstore.message.GetCommandResponse;
+import top.parak.kraft.kvstore.message.MultiGetCommand;
+import top.parak.kraft.kvstore.message.MultiGetCommandResponse;
+import top.parak.kraft.kvstore.message.Redirect;
+import top.parak.kraft.kvstore.message.SetCommand;
+import top.parak.kraft.kvstore.message.Success;
+import top.parak.kraft.kvstore.message.WriteBatchCommand;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Asynchronous KV-store client.
+ * <p>
+ * Unlike {@link KVStoreClient} which creates a new socket for each command, this client keeps
+ * persistent connections to each server, and multiplexes requests on them with correlation id.
+ * Commands are sent to the leader known, and redirected or retried with other servers like
+ * {@link top.parak.kraft.core.service.ServerRouter ServerRouter}.
+ * </p>
+ * <p>
+ * Futures are completed in IO thread, so callbacks on them should not block.
+ * </p>
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+@ThreadSafe
+public class AsyncKVStoreClient implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncKVStoreClient.class);
+
+    public static final int DEFAULT_CONNECTIONS_PER_SERVER = 2;
+    public static final long DEFAULT_REQUEST_TIMEOUT_MILLIS = 3000;
+    private static final int CONNECT_TIMEOUT_MILLIS = 3000;
+
+    private final Map<NodeId, ConnectionPool> pools = new LinkedHashMap<>();
+    private final NioEventLoopGroup workerGroup = new NioEventLoopGroup(1);
+    private final Bootstrap bootstrap;
+    private final long requestTimeoutMillis;
+    private volatile NodeId leaderId;
+
+    /**
+     * Create AsyncKVStoreClient with default options.
+     *
+     * @param servers servers' id and address
+     */
+    public AsyncKVStoreClient(Map<NodeId, Address> servers) {
+        this(servers, DEFAULT_CONNECTIONS_PER_SERVER, DEFAULT_REQUEST_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Create AsyncKVStoreClient.
+     *
+     * @param servers              servers' id and address
+     * @param connectionsPerServer count of connections to each server
+     * @param requestTimeoutMillis timeout of request in milliseconds
+     */
+    public AsyncKVStoreClient(Map<NodeId, Address> servers, int connectionsPerServer, long requestTimeoutMillis) {
+        Preconditions.checkArgument(!servers.isEmpty(), "servers should not be empty");
+        Preconditions.checkArgument(connectionsPerServer > 0, "connections per server should > 0");
+        Preconditions.checkArgument(requestTimeoutMillis > 0, "request timeout should > 0");
+        this.requestTimeoutMillis = requestTimeoutMillis;
+        this.bootstrap = new Bootstrap()
+                .group(workerGroup)
+                .channel(NioSocketChannel.class)
+                .option(ChannelOption.TCP_NODELAY, true)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, CONNECT_TIMEOUT_MILLIS);
+        for (Map.Entry<NodeId, Address> entry : servers.entrySet()) {
+            Address address = entry.getValue();
+            pools.put(entry.getKey(), new ConnectionPool(
+                    new InetSocketAddress(address.getHost(), address.getPort()), connectionsPerServer));
+        }
+    }
+
+    /**
+     * Set key:value.
+     *
+     * @param key   key
+     * @param value value
+     * @return future completed when value is set
+     */
+    public CompletableFuture<Void> set(String key, byte[] value) {
+        return send(new SetCommand(key, value)).thenApply(response -> {
+            if (!(response instanceof Success)) {
+                throw new ChannelException("unexpected response " + response);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Get value by key.
+     *
+     * @param key key
+     * @return future of value, completed with {@code null} if not found
+     */
+    public CompletableFuture<byte[]> get(String key) {
+        return send(new GetCommand(key)).thenApply(response -> {
+            if (!(response instanceof GetCommandResponse)) {
+                throw new ChannelException("unexpected response " + response);
+            }
+            GetCommandResponse getCommandResponse = (GetCommandResponse) response;
+            return getCommandResponse.isFound() ? getCommandResponse.getValue() : null;
+        });
+    }
+
+    /**
+     * Set multiple key:value atomically.
+     *
+     * @param entries entries in the order of writing
+     * @return future completed when all values are set
+     * @see WriteBatchCommand
+     */
+    public CompletableFuture<Void> multiSet(Map<String, byte[]> entries) {
+        return send(new WriteBatchCommand(entries)).thenApply(response -> {
+            if (!(response instanceof Success)) {
+                throw new ChannelException("unexpected response " + response);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Get values by keys.
+     *
+     * @param keys keys
+     * @return future of values in the order of keys, {@code null} if not found
+     */
+    public CompletableFuture<List<byte[]>> multiGet(List<String> keys) {
+        return send(new MultiGetCommand(keys)).thenApply(response -> {
+            if (!(response instanceof MultiGetCommandResponse)) {
+                throw new ChannelException("unexpected response " + response);
+            }
+            return ((MultiGetCommandResponse) response).getValues();
+        });
+    }
+
+    /**
+     * Get leader id known.
+     *
+     * @return leader id, maybe {@code null}
+     */
+    public NodeId getLeaderId() {
+        return leaderId;
+    }
+
+    private CompletableFuture<Object> send(Object message) {
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        send(getCandidateNodeIds().iterator(), message, result, true);
+        return result;
+    }
+
+    /**
+     * Send message to candidates one by one until a response other than redirect.
+     *
+     * @param candidates     candidates of server
+     * @param message        message
+     * @param result         future of result
+     * @param followRedirect if redirect to leader on redirect response
+     */
+    private void send(Iterator<NodeId> candidates, Object message, CompletableFuture<Object> result, boolean followRedirect) {
+        if (!candidates.hasNext()) {
+            result.completeExceptionally(new NoAvailableServerException("no available server"));
+            return;
+        }
+        NodeId nodeId = candidates.next();
+        pools.get(nodeId).get()
+                .thenCompose(connection -> connection.send(message))
+                .whenComplete((response, cause) -> {
+                    if (cause != null) {
+                        logger.debug("failed to process with server {}, cause {}", nodeId, cause.getMessage());
+                        send(candidates, message, result, followRedirect);
+                    } else if (response instanceof Redirect) {
+                        NodeId redirectLeaderId = toNodeId(((Redirect) response).getLeaderId());
+                        if (followRedirect && redirectLeaderId != null) {
+                            logger.debug("not a leader server, redirect to server {}", redirectLeaderId);
+                            leaderId = redirectLeaderId;
+                            send(Collections.singleton(redirectLeaderId).iterator(), message, result, false);
+                        } else {
+                            send(candidates, message, result, followRedirect);
+                        }
+                    } else if (response instanceof Failure) {
+                        Failure failure = (Failure) response;
+                        result.completeExceptionally(new ChannelException("error code " + failure.getErrorCode() + ", message " + failure.getMessage()));
+                    } else {
+                        leaderId = nodeId;
+                        result.complete(response);
+                    }
+                });
+    }
+
+    private NodeId toNodeId(String rawLeaderId) {
+        if (rawLeaderId == null || rawLeaderId.isEmpty()) {
+            return null;
+        }
+        NodeId nodeId = NodeId.of(rawLeaderId);
+        return pools.containsKey(nodeId) ? nodeId : null;
+    }
+
+    private List<NodeId> getCandidateNodeIds() {
+        List<NodeId> nodeIds = new ArrayList<>(pools.size());
+        NodeId leaderId = this.leaderId;
+        if (leaderId != null) {
+            nodeIds.add(leaderId);
+        }
+        for (NodeId nodeId : pools.keySet()) {
+            if (!nodeId.equals(leaderId)) {
+                nodeIds.add(nodeId);
+            }
+        }
+        return nodeIds;
+    }
+
+    /**
+     * Close connections.
+     */
+    @Override
+    public void close() {
+        for (ConnectionPool pool : pools.values()) {
+            pool.close();
+        }
+        workerGroup.shutdownGracefully();
+    }
+
+    /**
+     * Connections to one server, chosen in round-robin, and reconnected lazily when closed.
+     */
+    private class ConnectionPool {
+
+        private final InetSocketAddress address;
+        private final AtomicReferenceArray<CompletableFuture<KVStoreConnection>> connections;
+        private final AtomicInteger nextIndex = new AtomicInteger(0);
+
+        ConnectionPool(InetSocketAddress address, int size) {
+            this.address = address;
+            this.connections = new AtomicReferenceArray<>(size);
+        }
+
+        CompletableFuture<KVStoreConnection> get() {
+            int index = Math.floorMod(nextIndex.getAndIncrement(), connections.length());
+            CompletableFuture<KVStoreConnection> connection = connections.get(index);
+            if (isAvailable(connection)) {
+                return connection;
+            }
+            synchronized (this) {
+                connection = connections.get(index);
+                if (!isAvailable(connection)) {
+                    connection = KVStoreConnection.connect(bootstrap, address, requestTimeoutMillis);
+                    connections.set(index, connection);
+                }
+                return connection;
+            }
+        }
+
+        private boolean isAvailable(CompletableFuture<KVStoreConnection> connection) {
+            return connection != null && !connection.isCompletedExceptionally() &&
+                    (!connection.isDone() || connection.join().isActive());
+        }
+
+        synchronized void close() {
+            for (int i = 0; i < connections.length(); i++) {
+                CompletableFuture<KVStoreConnection> connection = connections.get(i);
+                if (connection != null) {
+                    connection.thenAccept(KVStoreConnection::close);
+                }
+            }
+        }
+
+    }
+
+}
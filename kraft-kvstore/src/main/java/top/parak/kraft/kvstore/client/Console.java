@@ -58,7 +58,9 @@ public class Console {
                 new RaftAddNodeCommand(),
                 new RaftRemoveNodeCommand(),
                 new KVStoreGetCommand(),
-                new KVStoreSetCommand()
+                new KVStoreSetCommand(),
+                new KVStoreMultiGetCommand(),
+                new KVStoreMultiSetCommand()
         ));
         commandContext = new CommandContext(serverMap);
 
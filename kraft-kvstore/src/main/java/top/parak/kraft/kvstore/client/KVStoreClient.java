@@ -4,7 +4,12 @@ import top.parak.kraft.core.service.ServerRouter;
 import top.parak.kraft.kvstore.message.AddNodeCommand;
 import top.parak.kraft.kvstore.message.RemoveNodeCommand;
 import top.parak.kraft.kvstore.message.GetCommand;
+import top.parak.kraft.kvstore.message.MultiGetCommand;
 import top.parak.kraft.kvstore.message.SetCommand;
+import top.parak.kraft.kvstore.message.WriteBatchCommand;
+
+import java.util.List;
+import java.util.Map;
 
 /**
  * KV-store client.
@@ -71,6 +76,27 @@ public class KVStoreClient {
         return (byte[]) serverRouter.send(new GetCommand(key));
     }
 
+    /**
+     * Set multiple key:value atomically.
+     *
+     * @param entries entries in the order of writing
+     * @see WriteBatchCommand
+     */
+    public void multiSet(Map<String, byte[]> entries) {
+        serverRouter.send(new WriteBatchCommand(entries));
+    }
+
+    /**
+     * Get values by keys.
+     *
+     * @param keys keys
+     * @return values in the order of keys, {@code null} if not found
+     */
+    @SuppressWarnings("unchecked")
+    public List<byte[]> multiGet(List<String> keys) {
+        return (List<byte[]>) serverRouter.send(new MultiGetCommand(keys));
+    }
+
     /**
      * Get server router.
      *
@@ -9,13 +9,17 @@ import top.parak.kraft.kvstore.message.AddNodeCommand;
 import top.parak.kraft.kvstore.message.RemoveNodeCommand;
 import top.parak.kraft.kvstore.message.MessageConstants;
 import top.parak.kraft.kvstore.message.GetCommand;
+import top.parak.kraft.kvstore.message.MultiGetCommand;
 import top.parak.kraft.kvstore.message.SetCommand;
+import top.parak.kraft.kvstore.message.WriteBatchCommand;
 import top.parak.kraft.kvstore.server.KVStoreServer;
 import top.parak.kraft.kvstore.support.proto.Protos;
 
 import java.io.*;
 import java.net.InetSocketAddress;
 import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * KV-store client socket channel which is implemented by blocking io (BIO).
@@ -84,6 +88,13 @@ public class KVStoreClientSocketChannel implements Channel {
                     return null;
                 }
                 return protoGetCommandResponse.getValue().toByteArray();
+            case MessageConstants.MSG_TYPE_MULTI_GET_COMMAND_RESPONSE:
+                Protos.MultiGetCommandResponse protoMultiGetCommandResponse = Protos.MultiGetCommandResponse.parseFrom(message);
+                List<byte[]> values = new ArrayList<>(protoMultiGetCommandResponse.getValuesCount());
+                for (Protos.GetCommandResponse protoValue : protoMultiGetCommandResponse.getValuesList()) {
+                    values.add(protoValue.getFound() ? protoValue.getValue().toByteArray() : null);
+                }
+                return values;
             default:
                 throw new ChannelException("unexpected message type " + messageType);
         }
@@ -109,6 +120,13 @@ public class KVStoreClientSocketChannel implements Channel {
                     .setValue(ByteString.copyFrom(setCommand.getValue()))
                     .build();
             this.write(output, MessageConstants.MSG_TYPE_SET_COMMAND, protoSetCommand);
+        } else if (message instanceof MultiGetCommand) {
+            Protos.MultiGetCommand protoMultiGetCommand = Protos.MultiGetCommand.newBuilder()
+                    .addAllKeys(((MultiGetCommand) message).getKeys())
+                    .build();
+            this.write(output, MessageConstants.MSG_TYPE_MULTI_GET_COMMAND, protoMultiGetCommand);
+        } else if (message instanceof WriteBatchCommand) {
+            this.write(output, MessageConstants.MSG_TYPE_WRITE_BATCH_COMMAND, ((WriteBatchCommand) message).toProtoBuilder().build());
         } else if (message instanceof AddNodeCommand) {
             AddNodeCommand command = (AddNodeCommand) message;
             Protos.AddNodeCommand protoAddServerCommand = Protos.AddNodeCommand.newBuilder()
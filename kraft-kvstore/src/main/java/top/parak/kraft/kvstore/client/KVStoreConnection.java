@@ -0,0 +1,165 @@
+package top.parak.kraft.kvstore.client;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.util.concurrent.ScheduledFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import top.parak.kraft.core.service.ChannelException;
+import top.parak.kraft.kvstore.message.CorrelatedMessage;
+import top.parak.kraft.kvstore.server.KVStoreMessageDecoder;
+import top.parak.kraft.kvstore.server.KVStoreMessageEncoder;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.net.InetSocketAddress;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Persistent connection to KV-store server.
+ * <p>
+ * Requests are sent with increasing correlation id without waiting for previous responses,
+ * and responses are matched with pending requests by correlation id, so that many requests
+ * can be in flight on one connection.
+ * </p>
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+@ThreadSafe
+class KVStoreConnection {
+
+    private static final Logger logger = LoggerFactory.getLogger(KVStoreConnection.class);
+
+    private final InetSocketAddress address;
+    private final long requestTimeoutMillis;
+    private final AtomicLong nextCorrelationId = new AtomicLong(0);
+    private final ConcurrentMap<Long, CompletableFuture<Object>> pendingRequests = new ConcurrentHashMap<>();
+    private volatile Channel channel;
+
+    private KVStoreConnection(InetSocketAddress address, long requestTimeoutMillis) {
+        this.address = address;
+        this.requestTimeoutMillis = requestTimeoutMillis;
+    }
+
+    /**
+     * Connect to server.
+     *
+     * @param bootstrap            bootstrap with group and options
+     * @param address              server address
+     * @param requestTimeoutMillis timeout of request in milliseconds
+     * @return future of connection
+     */
+    static CompletableFuture<KVStoreConnection> connect(Bootstrap bootstrap, InetSocketAddress address, long requestTimeoutMillis) {
+        KVStoreConnection connection = new KVStoreConnection(address, requestTimeoutMillis);
+        CompletableFuture<KVStoreConnection> future = new CompletableFuture<>();
+        bootstrap.clone()
+                .handler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        ChannelPipeline pipeline = ch.pipeline();
+                        pipeline.addLast(new KVStoreMessageDecoder());
+                        pipeline.addLast(new KVStoreMessageEncoder());
+                        pipeline.addLast(connection.new ResponseHandler());
+                    }
+                })
+                .connect(address)
+                .addListener((ChannelFutureListener) cf -> {
+                    if (cf.isSuccess()) {
+                        logger.debug("connected to kv-store server {}", address);
+                        connection.channel = cf.channel();
+                        future.complete(connection);
+                    } else {
+                        future.completeExceptionally(new ChannelException("failed to connect to " + address, cf.cause()));
+                    }
+                });
+        return future;
+    }
+
+    /**
+     * Send message, and receive response asynchronously.
+     *
+     * @param message message
+     * @return future of response
+     */
+    CompletableFuture<Object> send(Object message) {
+        long correlationId = nextCorrelationId.incrementAndGet();
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        pendingRequests.put(correlationId, future);
+        ScheduledFuture<?> timeout = channel.eventLoop().schedule(
+                () -> fail(correlationId, new ChannelException("request timeout")),
+                requestTimeoutMillis, TimeUnit.MILLISECONDS
+        );
+        future.whenComplete((response, cause) -> timeout.cancel(false));
+        channel.writeAndFlush(new CorrelatedMessage(correlationId, message)).addListener((ChannelFutureListener) cf -> {
+            if (!cf.isSuccess()) {
+                fail(correlationId, new ChannelException("failed to send to " + address, cf.cause()));
+            }
+        });
+        return future;
+    }
+
+    private void fail(long correlationId, Throwable cause) {
+        CompletableFuture<Object> future = pendingRequests.remove(correlationId);
+        if (future != null) {
+            future.completeExceptionally(cause);
+        }
+    }
+
+    /**
+     * Check if connection is active.
+     *
+     * @return true if active, otherwise false
+     */
+    boolean isActive() {
+        return channel.isActive();
+    }
+
+    /**
+     * Close connection, pending requests are failed.
+     */
+    void close() {
+        channel.close();
+    }
+
+    private class ResponseHandler extends SimpleChannelInboundHandler<CorrelatedMessage> {
+
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, CorrelatedMessage msg) {
+            CompletableFuture<Object> future = pendingRequests.remove(msg.getCorrelationId());
+            if (future == null) {
+                logger.debug("no pending request for response {}, maybe timeout", msg);
+                return;
+            }
+            future.complete(msg.getMessage());
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) {
+            logger.debug("disconnected from kv-store server {}", address);
+            ChannelException cause = new ChannelException("connection to " + address + " closed");
+            for (Long correlationId : pendingRequests.keySet()) {
+                fail(correlationId, cause);
+            }
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            logger.warn("connection to kv-store server {} occurs exception: {}", address, cause.getMessage());
+            ctx.close();
+        }
+
+    }
+
+}
@@ -0,0 +1,44 @@
+package top.parak.kraft.kvstore.client.cmd;
+
+import top.parak.kraft.core.service.NoAvailableServerException;
+import top.parak.kraft.kvstore.client.CommandContext;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <code>kvstore-mget</code> command.
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+public class KVStoreMultiGetCommand implements Command {
+
+    @Override
+    public String getName() {
+        return "kvstore-mget";
+    }
+
+    @Override
+    public void execute(String arguments, CommandContext context) {
+        if (arguments.isEmpty()) {
+            throw new IllegalArgumentException("usage: " + getName() + " <key> [<key>...]");
+        }
+
+        List<String> keys = Arrays.asList(arguments.split("\\s+"));
+        List<byte[]> values;
+        try {
+            values = context.getClient().multiGet(keys);
+        } catch (NoAvailableServerException e) {
+            System.err.println(e.getMessage());
+            return;
+        }
+
+        for (int i = 0; i < keys.size(); i++) {
+            byte[] valueBytes = values.get(i);
+            System.out.println(keys.get(i) + " " + (valueBytes == null ? "null" : new String(valueBytes)));
+        }
+    }
+
+}
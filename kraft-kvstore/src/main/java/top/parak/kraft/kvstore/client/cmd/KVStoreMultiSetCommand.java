@@ -0,0 +1,35 @@
+package top.parak.kraft.kvstore.client.cmd;
+
+import top.parak.kraft.kvstore.client.CommandContext;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <code>kvstore-mset</code> command.
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+public class KVStoreMultiSetCommand implements Command {
+
+    @Override
+    public String getName() {
+        return "kvstore-mset";
+    }
+
+    @Override
+    public void execute(String arguments, CommandContext context) {
+        String[] pieces = arguments.split("\\s+");
+        if (arguments.isEmpty() || pieces.length % 2 != 0) {
+            throw new IllegalArgumentException("usage: " + getName() + " <key> <value> [<key> <value>...]");
+        }
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        for (int i = 0; i < pieces.length; i += 2) {
+            entries.put(pieces[i], pieces[i + 1].getBytes());
+        }
+        context.getClient().multiSet(entries);
+    }
+
+}
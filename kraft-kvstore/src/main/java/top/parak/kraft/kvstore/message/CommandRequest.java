@@ -18,14 +18,37 @@ public class CommandRequest<T> {
 
     private final T command;
     private final Channel channel;
+    /**
+     * Correlation id of request, {@code 0} if not correlated.
+     */
+    private final long correlationId;
 
     public CommandRequest(T command, Channel channel) {
+        this(command, channel, 0);
+    }
+
+    public CommandRequest(T command, Channel channel, long correlationId) {
         this.command = command;
         this.channel = channel;
+        this.correlationId = correlationId;
     }
 
     public void reply(Object response) {
-        this.channel.writeAndFlush(response);
+        this.channel.writeAndFlush(correlate(response));
+    }
+
+    /**
+     * Write response without flush, the channel should be flushed later.
+     *
+     * @param response response
+     * @see #getChannel()
+     */
+    public void write(Object response) {
+        this.channel.write(correlate(response));
+    }
+
+    private Object correlate(Object response) {
+        return correlationId != 0 ? new CorrelatedMessage(correlationId, response) : response;
     }
 
     public void addCloseListener(Runnable runnable) {
@@ -36,4 +59,8 @@ public class CommandRequest<T> {
         return command;
     }
 
+    public Channel getChannel() {
+        return channel;
+    }
+
 }
@@ -0,0 +1,40 @@
+package top.parak.kraft.kvstore.message;
+
+/**
+ * Message with correlation id, to match response with request when requests are
+ * multiplexed on one connection.
+ * <p>
+ * Correlation id {@code 0} means not correlated, and the message is sent as is.
+ * </p>
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+public class CorrelatedMessage {
+
+    private final long correlationId;
+    private final Object message;
+
+    public CorrelatedMessage(long correlationId, Object message) {
+        this.correlationId = correlationId;
+        this.message = message;
+    }
+
+    public long getCorrelationId() {
+        return correlationId;
+    }
+
+    public Object getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return "CorrelatedMessage{" +
+                "correlationId=" + correlationId +
+                ", message=" + message +
+                '}';
+    }
+
+}
@@ -20,5 +20,8 @@ public class MessageConstants {
     public static final int MSG_TYPE_GET_COMMAND = 100;
     public static final int MSG_TYPE_GET_COMMAND_RESPONSE = 101;
     public static final int MSG_TYPE_SET_COMMAND = 102;
+    public static final int MSG_TYPE_MULTI_GET_COMMAND = 103;
+    public static final int MSG_TYPE_MULTI_GET_COMMAND_RESPONSE = 104;
+    public static final int MSG_TYPE_WRITE_BATCH_COMMAND = 105;
 
 }
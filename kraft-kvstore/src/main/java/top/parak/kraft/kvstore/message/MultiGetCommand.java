@@ -0,0 +1,31 @@
+package top.parak.kraft.kvstore.message;
+
+import java.util.List;
+
+/**
+ * MultiGetCommand message.
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+public class MultiGetCommand {
+
+    private final List<String> keys;
+
+    public MultiGetCommand(List<String> keys) {
+        this.keys = keys;
+    }
+
+    public List<String> getKeys() {
+        return keys;
+    }
+
+    @Override
+    public String toString() {
+        return "MultiGetCommand{" +
+                "keys=" + keys.size() +
+                '}';
+    }
+
+}
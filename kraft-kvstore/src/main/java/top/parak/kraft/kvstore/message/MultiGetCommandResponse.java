@@ -0,0 +1,32 @@
+package top.parak.kraft.kvstore.message;
+
+import java.util.List;
+
+/**
+ * MultiGetCommandResponse message.
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+public class MultiGetCommandResponse {
+
+    /**
+     * Values in the order of keys, {@code null} if not found.
+     */
+    private final List<byte[]> values;
+
+    public MultiGetCommandResponse(List<byte[]> values) {
+        this.values = values;
+    }
+
+    public List<byte[]> getValues() {
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        return "MultiGetCommandResponse{values=" + values.size() + '}';
+    }
+
+}
@@ -0,0 +1,114 @@
+package top.parak.kraft.kvstore.message;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import top.parak.kraft.kvstore.support.proto.Protos;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * WriteBatchCommand message, to set multiple key:value atomically.
+ * <p>
+ * The batch is appended as one log entry and applied at once. In log entry it's encoded with
+ * a leading zero byte, which is never the first byte of {@link SetCommand} since field number
+ * {@code 0} is illegal in protobuf.
+ * </p>
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+public class WriteBatchCommand {
+
+    private static final byte MARKER = 0;
+
+    private final String requestId;
+    /**
+     * Entries in the order of writing.
+     */
+    private final Map<String, byte[]> entries;
+
+    public WriteBatchCommand(Map<String, byte[]> entries) {
+        this(UUID.randomUUID().toString(), entries);
+    }
+
+    public WriteBatchCommand(String requestId, Map<String, byte[]> entries) {
+        this.requestId = requestId;
+        this.entries = entries;
+    }
+
+    /**
+     * Check if bytes of log entry is write batch.
+     *
+     * @param bytes bytes of log entry
+     * @return true if write batch, otherwise false
+     */
+    public static boolean isWriteBatch(byte[] bytes) {
+        return bytes.length > 0 && bytes[0] == MARKER;
+    }
+
+    public static WriteBatchCommand fromBytes(byte[] bytes) {
+        try {
+            Protos.WriteBatchCommand protoCommand = Protos.WriteBatchCommand.parseFrom(ByteBuffer.wrap(bytes, 1, bytes.length - 1));
+            return fromProto(protoCommand);
+        } catch (InvalidProtocolBufferException e) {
+            throw new IllegalStateException("failed to deserialize write batch command", e);
+        }
+    }
+
+    public static WriteBatchCommand fromProto(Protos.WriteBatchCommand protoCommand) {
+        Map<String, byte[]> entries = new LinkedHashMap<>((int) (protoCommand.getEntriesCount() / 0.75f) + 1);
+        for (Protos.EntryList.Entry protoEntry : protoCommand.getEntriesList()) {
+            entries.put(protoEntry.getKey(), protoEntry.getValue().toByteArray());
+        }
+        return new WriteBatchCommand(protoCommand.getRequestId(), entries);
+    }
+
+    public String getRequestId() {
+        return requestId;
+    }
+
+    public Map<String, byte[]> getEntries() {
+        return entries;
+    }
+
+    public Protos.WriteBatchCommand.Builder toProtoBuilder() {
+        Protos.WriteBatchCommand.Builder builder = Protos.WriteBatchCommand.newBuilder()
+                .setRequestId(this.requestId);
+        for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+            builder.addEntries(Protos.EntryList.Entry.newBuilder()
+                    .setKey(entry.getKey())
+                    .setValue(ByteString.copyFrom(entry.getValue()))
+                    .build());
+        }
+        return builder;
+    }
+
+    public byte[] toBytes() {
+        Protos.WriteBatchCommand protoCommand = toProtoBuilder().build();
+        byte[] bytes = new byte[1 + protoCommand.getSerializedSize()];
+        bytes[0] = MARKER;
+        try {
+            CodedOutputStream output = CodedOutputStream.newInstance(bytes, 1, bytes.length - 1);
+            protoCommand.writeTo(output);
+            output.checkNoSpaceLeft();
+        } catch (IOException e) {
+            throw new IllegalStateException("failed to serialize write batch command", e);
+        }
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return "WriteBatchCommand{" +
+                "entries=" + entries.size() +
+                ", requestId='" + requestId + '\'' +
+                '}';
+    }
+
+}
@@ -4,12 +4,25 @@ import org.apache.commons.cli.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import top.parak.kraft.core.node.MultiRaftHost;
 import top.parak.kraft.core.node.Node;
 import top.parak.kraft.core.node.NodeBuilder;
 import top.parak.kraft.core.node.NodeEndpoint;
 import top.parak.kraft.core.node.NodeId;
+import top.parak.kraft.core.node.config.DefaultNodeConfigLoader;
+import top.parak.kraft.core.node.config.NodeConfig;
+import top.parak.kraft.core.rpc.nio.Transport;
+import top.parak.kraft.kvstore.server.lsm.LsmKVStorage;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -32,6 +45,8 @@ public class CommandServerLauncher {
     private static final String MODE_STANDALONE   = "standalone";
     private static final String MODE_STANDBY      = "standby";
     private static final String MODE_GROUP_MEMBER = "group-member";
+    private static final String ENGINE_MEMORY     = "memory";
+    private static final String ENGINE_LSM        = "lsm";
 
     /**
      * KV-store server.
@@ -83,6 +98,34 @@ public class CommandServerLauncher {
                 .argName("data-dir")
                 .desc("data directory, optional. must be present")
                 .build());
+        options.addOption(Option.builder("e")
+                .longOpt("engine")
+                .hasArg()
+                .argName("engine")
+                .desc("storage engine of state machine, available: memory, lsm. default is memory. " +
+                        "lsm requires data directory")
+                .build());
+        options.addOption(Option.builder("pn")
+                .longOpt("partitions")
+                .hasArg()
+                .argName("partitions")
+                .type(Number.class)
+                .desc("count of partitions, each of which is served by one raft group in process, default is 1. " +
+                        "not available in standby mode")
+                .build());
+        options.addOption(Option.builder("c")
+                .longOpt("config")
+                .hasArg()
+                .argName("config-file")
+                .desc("config file of raft node, optional. format: properties with prefix kraft.core.")
+                .build());
+        options.addOption(Option.builder("t")
+                .longOpt("transport")
+                .hasArg()
+                .argName("transport")
+                .desc("transport of raft rpc and service, available: auto, nio, epoll. " +
+                        "default is transport in config file, or auto")
+                .build());
         options.addOption(Option.builder("gc")
                 .hasArgs()
                 .argName("node-endpoint")
@@ -138,13 +181,26 @@ public class CommandServerLauncher {
         int servicePort = ((Long) cmdLine.getParsedOptionValue("p2")).intValue();
 
         NodeEndpoint nodeEndpoint = new NodeEndpoint(id, host, raftRpcPort);
-        Node node = new NodeBuilder(nodeEndpoint)
-                .setStandby(standby)
-                .setDataDir(cmdLine.getOptionValue('d'))
-                .build();
-        KVStoreServer KVStoreServer = new KVStoreServer(node, new InetSocketAddress(host, servicePort));
+        InetSocketAddress serviceAddress = new InetSocketAddress(host, servicePort);
+        int partitions = getPartitions(cmdLine);
+        NodeConfig config = createConfig(cmdLine);
+        KVStoreServer KVStoreServer;
+        if (partitions > 1) {
+            if (standby) {
+                throw new IllegalArgumentException("partitions not available in standby mode");
+            }
+            KVStoreServer = createPartitionedServer(cmdLine, config, nodeEndpoint, Collections.singleton(nodeEndpoint),
+                    serviceAddress, partitions);
+        } else {
+            Node node = new NodeBuilder(nodeEndpoint)
+                    .setConfig(config)
+                    .setStandby(standby)
+                    .setDataDir(cmdLine.getOptionValue('d'))
+                    .build();
+            KVStoreServer = new KVStoreServer(node, serviceAddress, createStorage(cmdLine, "kv"));
+        }
         logger.info("id {}, start with mode {}", id, (standby ? "standby" : "standalone"));
-        startServer(KVStoreServer);
+        startServer(KVStoreServer, config);
     }
 
     /**
@@ -167,12 +223,111 @@ public class CommandServerLauncher {
                 .map(this::parseNodeEndpoint)
                 .collect(Collectors.toSet());
 
-        Node node = new NodeBuilder(nodeEndpoints, new NodeId(rawNodeId))
-                .setDataDir(cmdLine.getOptionValue('d'))
-                .build();
-        KVStoreServer KVStoreServer = new KVStoreServer(node, new InetSocketAddress(host, servicePort));
+        InetSocketAddress serviceAddress = new InetSocketAddress(host, servicePort);
+        int partitions = getPartitions(cmdLine);
+        NodeConfig config = createConfig(cmdLine);
+        KVStoreServer KVStoreServer;
+        if (partitions > 1) {
+            NodeEndpoint selfEndpoint = nodeEndpoints.stream()
+                    .filter(e -> e.getId().getValue().equals(rawNodeId))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("node id [" + rawNodeId + "] not in group config"));
+            KVStoreServer = createPartitionedServer(cmdLine, config, selfEndpoint, nodeEndpoints, serviceAddress, partitions);
+        } else {
+            Node node = new NodeBuilder(nodeEndpoints, new NodeId(rawNodeId))
+                    .setConfig(config)
+                    .setDataDir(cmdLine.getOptionValue('d'))
+                    .build();
+            KVStoreServer = new KVStoreServer(node, serviceAddress, createStorage(cmdLine, "kv"));
+        }
         logger.info("id {}, start as group member, group config {}", rawNodeId, nodeEndpoints);
-        startServer(KVStoreServer);
+        startServer(KVStoreServer, config);
+    }
+
+    /**
+     * Get count of partitions.
+     *
+     * @param cmdLine command line
+     * @return count of partitions
+     * @throws ParseException if failed to parse
+     */
+    private int getPartitions(CommandLine cmdLine) throws ParseException {
+        if (!cmdLine.hasOption("pn")) {
+            return 1;
+        }
+        int partitions = ((Long) cmdLine.getParsedOptionValue("pn")).intValue();
+        if (partitions <= 0) {
+            throw new IllegalArgumentException("partitions should > 0");
+        }
+        return partitions;
+    }
+
+    /**
+     * Create config of raft node, loaded from config file if present, and overridden by transport.
+     *
+     * @param cmdLine command line
+     * @return config
+     * @throws IOException if failed to read config file
+     */
+    private NodeConfig createConfig(CommandLine cmdLine) throws IOException {
+        NodeConfig config;
+        if (cmdLine.hasOption('c')) {
+            try (InputStream input = new FileInputStream(cmdLine.getOptionValue('c'))) {
+                config = new DefaultNodeConfigLoader("kraft.core.").load(input);
+            }
+        } else {
+            config = new NodeConfig();
+        }
+        if (cmdLine.hasOption('t')) {
+            config.setTransport(cmdLine.getOptionValue('t'));
+        }
+        return config;
+    }
+
+    /**
+     * Create server whose partitions are served by raft groups in one host.
+     *
+     * @param cmdLine        command line
+     * @param config         config of raft groups
+     * @param selfEndpoint   self endpoint
+     * @param endpoints      endpoints of each group
+     * @param serviceAddress service address
+     * @param partitions     count of partitions
+     * @return server
+     */
+    private KVStoreServer createPartitionedServer(CommandLine cmdLine, NodeConfig config, NodeEndpoint selfEndpoint,
+                                                  Collection<NodeEndpoint> endpoints, InetSocketAddress serviceAddress,
+                                                  int partitions) {
+        MultiRaftHost host = new MultiRaftHost(selfEndpoint, config, cmdLine.getOptionValue('d'));
+        List<KVStorage> storages = new ArrayList<>(partitions);
+        for (int groupId = 1; groupId <= partitions; groupId++) {
+            host.addGroup(groupId, endpoints);
+            storages.add(createStorage(cmdLine, "group-" + groupId + File.separator + "kv"));
+        }
+        logger.info("serve {} partitions", partitions);
+        return new KVStoreServer(host, serviceAddress, storages);
+    }
+
+    /**
+     * Create storage of state machine by engine.
+     *
+     * @param cmdLine command line
+     * @param dirName name of directory in data directory for persistent storage
+     * @return storage
+     */
+    private KVStorage createStorage(CommandLine cmdLine, String dirName) {
+        String engine = cmdLine.getOptionValue('e', ENGINE_MEMORY);
+        switch (engine) {
+            case ENGINE_MEMORY:
+                return new MemoryKVStorage();
+            case ENGINE_LSM:
+                if (!cmdLine.hasOption('d')) {
+                    throw new IllegalArgumentException("data-dir required when engine is lsm");
+                }
+                return new LsmKVStorage(new File(cmdLine.getOptionValue('d'), dirName));
+            default:
+                throw new IllegalArgumentException("illegal engine [" + engine + "]");
+        }
     }
 
     /**
@@ -201,9 +356,11 @@ public class CommandServerLauncher {
      * Start server.
      *
      * @param server     server
+     * @param config     config with transport of service
      * @throws Exception if server failed to start
      */
-    private void startServer(KVStoreServer server) throws Exception {
+    private void startServer(KVStoreServer server, NodeConfig config) throws Exception {
+        server.setTransport(Transport.create(config));
         this.server = server;
         this.server.start();
         Runtime.getRuntime().addShutdownHook(new Thread(this::stopServer, "shutdown"));
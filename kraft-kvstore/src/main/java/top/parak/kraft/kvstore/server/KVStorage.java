@@ -0,0 +1,133 @@
+package top.parak.kraft.kvstore.server;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Storage of KV state machine.
+ * <p>
+ * Read and written in state machine thread, except {@link #newLoader(int)} which is used in the
+ * thread applying snapshot.
+ * </p>
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+public interface KVStorage {
+
+    /**
+     * Get the last applied index persisted.
+     * <p>
+     * Log after it will be applied again after restart, {@code 0} if not persistent.
+     * </p>
+     *
+     * @return the last applied index
+     */
+    int getLastApplied();
+
+    /**
+     * Get value.
+     *
+     * @param key key
+     * @return value, {@code null} if not found
+     */
+    @Nullable
+    byte[] get(@Nonnull String key);
+
+    /**
+     * Put value.
+     *
+     * @param key   key
+     * @param value value
+     * @param index index of log entry
+     */
+    void put(@Nonnull String key, @Nonnull byte[] value, int index);
+
+    /**
+     * Put values atomically, they are persisted together with the index.
+     *
+     * @param entries entries in the order of writing
+     * @param index   index of log entry
+     */
+    void putAll(@Nonnull Map<String, byte[]> entries, int index);
+
+    /**
+     * Take a point-in-time view of all entries.
+     *
+     * @return view
+     */
+    @Nonnull
+    View takeView();
+
+    /**
+     * Create loader to replace all entries, e.g. by snapshot.
+     *
+     * @param count count of entries, or the upper bound
+     * @return loader
+     */
+    @Nonnull
+    Loader newLoader(int count);
+
+    /**
+     * Close storage.
+     */
+    void close();
+
+    /**
+     * Point-in-time view of entries, which can be iterated in other thread once.
+     */
+    interface View extends AutoCloseable {
+
+        /**
+         * Get count of entries, or the upper bound.
+         *
+         * @return count
+         */
+        int getCount();
+
+        /**
+         * Get iterator of entries, keys are distinct.
+         *
+         * @return iterator
+         * @throws IOException if IO exception occurs
+         */
+        @Nonnull
+        Iterator<Map.Entry<String, byte[]>> iterator() throws IOException;
+
+        /**
+         * Release the view.
+         */
+        @Override
+        void close();
+
+    }
+
+    /**
+     * Loader to replace all entries.
+     */
+    interface Loader {
+
+        /**
+         * Put entry.
+         *
+         * @param key   key
+         * @param value value
+         * @throws IOException if IO exception occurs
+         */
+        void put(@Nonnull String key, @Nonnull byte[] value) throws IOException;
+
+        /**
+         * Replace all entries of storage by entries put.
+         *
+         * @param lastIncludedIndex the last applied index of entries
+         * @throws IOException if IO exception occurs
+         */
+        void finish(int lastIncludedIndex) throws IOException;
+
+    }
+
+}
@@ -0,0 +1,20 @@
+package top.parak.kraft.kvstore.server;
+
+/**
+ * Thrown when storage of KV state machine fails.
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+public class KVStorageException extends RuntimeException {
+
+    public KVStorageException(String message) {
+        super(message);
+    }
+
+    public KVStorageException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+}
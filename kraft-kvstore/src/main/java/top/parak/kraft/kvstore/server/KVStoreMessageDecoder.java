@@ -10,6 +10,7 @@ import top.parak.kraft.kvstore.message.MessageConstants;
 import top.parak.kraft.kvstore.support.proto.Protos;
 import top.parak.kraft.kvstore.message.*;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -22,6 +23,9 @@ import java.util.List;
  *   |   Message Type   |  Message Length  | Message Content  |
  *   +------------------+------------------+------------------+
  * </pre>
+ * <p>
+ * Messages with correlation id in message content are wrapped in {@link CorrelatedMessage}.
+ * </p>
  *
  * @author KHighness
  * @since 2022-03-30
@@ -45,15 +49,16 @@ public class KVStoreMessageDecoder extends ByteToMessageDecoder {
         in.readBytes(message);
         switch (messageType) {
             case MessageConstants.MSG_TYPE_SUCCESS:
-                out.add(Success.INSTANCE);
+                Protos.Success protoSuccess = Protos.Success.parseFrom(message);
+                out.add(correlate(protoSuccess.getCorrelationId(), Success.INSTANCE));
                 break;
             case MessageConstants.MSG_TYPE_FAILURE:
                 Protos.Failure protoFailure = Protos.Failure.parseFrom(message);
-                out.add(new Failure(protoFailure.getErrorCode(), protoFailure.getMessage()));
+                out.add(correlate(protoFailure.getCorrelationId(), new Failure(protoFailure.getErrorCode(), protoFailure.getMessage())));
                 break;
             case MessageConstants.MSG_TYPE_REDIRECT:
                 Protos.Redirect protoRedirect = Protos.Redirect.parseFrom(message);
-                out.add(new Redirect(protoRedirect.getLeaderId()));
+                out.add(correlate(protoRedirect.getCorrelationId(), new Redirect(protoRedirect.getLeaderId())));
                 break;
             case MessageConstants.MSG_TYPE_ADD_SERVER_COMMAND:
                 Protos.AddNodeCommand protoAddServerCommand = Protos.AddNodeCommand.parseFrom(message);
@@ -65,19 +70,50 @@ public class KVStoreMessageDecoder extends ByteToMessageDecoder {
                 break;
             case MessageConstants.MSG_TYPE_GET_COMMAND:
                 Protos.GetCommand protoGetCommand = Protos.GetCommand.parseFrom(message);
-                out.add(new GetCommand(protoGetCommand.getKey()));
+                out.add(correlate(protoGetCommand.getCorrelationId(), new GetCommand(protoGetCommand.getKey())));
                 break;
             case MessageConstants.MSG_TYPE_GET_COMMAND_RESPONSE:
                 Protos.GetCommandResponse protoGetCommandResponse = Protos.GetCommandResponse.parseFrom(message);
-                out.add(new GetCommandResponse(protoGetCommandResponse.getFound(), protoGetCommandResponse.getValue().toByteArray()));
+                out.add(correlate(protoGetCommandResponse.getCorrelationId(),
+                        new GetCommandResponse(protoGetCommandResponse.getFound(), protoGetCommandResponse.getValue().toByteArray())));
                 break;
             case MessageConstants.MSG_TYPE_SET_COMMAND:
                 Protos.SetCommand protoSetCommand = Protos.SetCommand.parseFrom(message);
-                out.add(new SetCommand(protoSetCommand.getKey(), protoSetCommand.getValue().toByteArray()));
+                out.add(correlate(protoSetCommand.getCorrelationId(),
+                        new SetCommand(protoSetCommand.getKey(), protoSetCommand.getValue().toByteArray())));
+                break;
+            case MessageConstants.MSG_TYPE_MULTI_GET_COMMAND:
+                Protos.MultiGetCommand protoMultiGetCommand = Protos.MultiGetCommand.parseFrom(message);
+                out.add(correlate(protoMultiGetCommand.getCorrelationId(),
+                        new MultiGetCommand(new ArrayList<>(protoMultiGetCommand.getKeysList()))));
+                break;
+            case MessageConstants.MSG_TYPE_MULTI_GET_COMMAND_RESPONSE:
+                Protos.MultiGetCommandResponse protoMultiGetCommandResponse = Protos.MultiGetCommandResponse.parseFrom(message);
+                List<byte[]> values = new ArrayList<>(protoMultiGetCommandResponse.getValuesCount());
+                for (Protos.GetCommandResponse protoValue : protoMultiGetCommandResponse.getValuesList()) {
+                    values.add(protoValue.getFound() ? protoValue.getValue().toByteArray() : null);
+                }
+                out.add(correlate(protoMultiGetCommandResponse.getCorrelationId(), new MultiGetCommandResponse(values)));
+                break;
+            case MessageConstants.MSG_TYPE_WRITE_BATCH_COMMAND:
+                Protos.WriteBatchCommand protoWriteBatchCommand = Protos.WriteBatchCommand.parseFrom(message);
+                out.add(correlate(protoWriteBatchCommand.getCorrelationId(),
+                        new WriteBatchCommand(WriteBatchCommand.fromProto(protoWriteBatchCommand).getEntries())));
                 break;
             default:
                 throw new IllegalStateException("unexpected message type " + messageType);
         }
     }
 
+    /**
+     * Wrap message with correlation id if present.
+     *
+     * @param correlationId correlation id, {@code 0} if not present
+     * @param message       message
+     * @return message or correlated message
+     */
+    private Object correlate(long correlationId, Object message) {
+        return correlationId != 0 ? new CorrelatedMessage(correlationId, message) : message;
+    }
+
 }
@@ -24,6 +24,9 @@ import java.io.IOException;
  *   |   Message Type   |  Message Length  | Message Content  |
  *   +------------------+------------------+------------------+
  * </pre>
+ * <p>
+ * Messages wrapped in {@link CorrelatedMessage} carry the correlation id in message content.
+ * </p>
  *
  * @author KHighness
  * @since 2022-03-30
@@ -33,19 +36,29 @@ public class KVStoreMessageEncoder extends MessageToByteEncoder<Object> {
 
     @Override
     protected void encode(ChannelHandlerContext ctx, Object msg, ByteBuf out) throws Exception {
+        long correlationId = 0;
+        if (msg instanceof CorrelatedMessage) {
+            correlationId = ((CorrelatedMessage) msg).getCorrelationId();
+            msg = ((CorrelatedMessage) msg).getMessage();
+        }
         if (msg instanceof Success) {
-            this.writeMessage(MessageConstants.MSG_TYPE_SUCCESS, Protos.Success.newBuilder().build(), out);
+            Protos.Success protoSuccess = Protos.Success.newBuilder()
+                    .setCorrelationId(correlationId)
+                    .build();
+            this.writeMessage(MessageConstants.MSG_TYPE_SUCCESS, protoSuccess, out);
         } else if (msg instanceof Failure) {
             Failure failure = (Failure) msg;
             Protos.Failure protoFailure = Protos.Failure.newBuilder()
                     .setErrorCode(failure.getErrorCode())
                     .setMessage(failure.getMessage())
+                    .setCorrelationId(correlationId)
                     .build();
             this.writeMessage(MessageConstants.MSG_TYPE_FAILURE, protoFailure, out);
         } else if (msg instanceof Redirect) {
             Redirect redirect = (Redirect) msg;
             Protos.Redirect protoRedirect = Protos.Redirect.newBuilder()
                     .setLeaderId(redirect.getLeaderId())
+                    .setCorrelationId(correlationId)
                     .build();
             this.writeMessage(MessageConstants.MSG_TYPE_REDIRECT, protoRedirect, out);
         } else if (msg instanceof AddNodeCommand) {
@@ -66,6 +79,7 @@ public class KVStoreMessageEncoder extends MessageToByteEncoder<Object> {
             GetCommand command = (GetCommand) msg;
             Protos.GetCommand protoGetCommand = Protos.GetCommand.newBuilder()
                     .setKey(command.getKey())
+                    .setCorrelationId(correlationId)
                     .build();
             this.writeMessage(MessageConstants.MSG_TYPE_GET_COMMAND, protoGetCommand, out);
         } else if (msg instanceof GetCommandResponse) {
@@ -74,6 +88,7 @@ public class KVStoreMessageEncoder extends MessageToByteEncoder<Object> {
             Protos.GetCommandResponse protoResponse = Protos.GetCommandResponse.newBuilder()
                     .setFound(response.isFound())
                     .setValue(value != null ? ByteString.copyFrom(value) : ByteString.EMPTY)
+                    .setCorrelationId(correlationId)
                     .build();
             this.writeMessage(MessageConstants.MSG_TYPE_GET_COMMAND_RESPONSE, protoResponse, out);
         } else if (msg instanceof SetCommand) {
@@ -81,8 +96,32 @@ public class KVStoreMessageEncoder extends MessageToByteEncoder<Object> {
             Protos.SetCommand protoSetCommand = Protos.SetCommand.newBuilder()
                     .setKey(command.getKey())
                     .setValue(ByteString.copyFrom(command.getValue()))
+                    .setCorrelationId(correlationId)
                     .build();
             this.writeMessage(MessageConstants.MSG_TYPE_SET_COMMAND, protoSetCommand, out);
+        } else if (msg instanceof MultiGetCommand) {
+            MultiGetCommand command = (MultiGetCommand) msg;
+            Protos.MultiGetCommand protoCommand = Protos.MultiGetCommand.newBuilder()
+                    .addAllKeys(command.getKeys())
+                    .setCorrelationId(correlationId)
+                    .build();
+            this.writeMessage(MessageConstants.MSG_TYPE_MULTI_GET_COMMAND, protoCommand, out);
+        } else if (msg instanceof MultiGetCommandResponse) {
+            MultiGetCommandResponse response = (MultiGetCommandResponse) msg;
+            Protos.MultiGetCommandResponse.Builder builder = Protos.MultiGetCommandResponse.newBuilder()
+                    .setCorrelationId(correlationId);
+            for (byte[] value : response.getValues()) {
+                builder.addValues(Protos.GetCommandResponse.newBuilder()
+                        .setFound(value != null)
+                        .setValue(value != null ? ByteString.copyFrom(value) : ByteString.EMPTY)
+                        .build());
+            }
+            this.writeMessage(MessageConstants.MSG_TYPE_MULTI_GET_COMMAND_RESPONSE, builder.build(), out);
+        } else if (msg instanceof WriteBatchCommand) {
+            Protos.WriteBatchCommand protoCommand = ((WriteBatchCommand) msg).toProtoBuilder()
+                    .setCorrelationId(correlationId)
+                    .build();
+            this.writeMessage(MessageConstants.MSG_TYPE_WRITE_BATCH_COMMAND, protoCommand, out);
         }
     }
 
@@ -1,20 +1,26 @@
 package top.parak.kraft.kvstore.server;
 
+import com.google.common.base.Preconditions;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
+import io.netty.channel.EventLoopGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import top.parak.kraft.core.node.MultiRaftHost;
 import top.parak.kraft.core.node.Node;
+import top.parak.kraft.core.rpc.nio.Transport;
 import top.parak.kraft.kvstore.support.toolkit.RuntimeUtil;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * KV-store server.
@@ -28,25 +34,33 @@ public class KVStoreServer {
     private static final Logger logger = LoggerFactory.getLogger(KVStoreServer.class);
 
     /**
-     * Raft node.
+     * Raft node, {@code null} if partitioned.
      */
     private final Node node;
+    /**
+     * Host of raft groups of partitions, {@code null} if not partitioned.
+     */
+    private final MultiRaftHost host;
     /**
      * Service address;
      */
     private final InetSocketAddress serviceAddress;
     /**
-     * KV-store service.
+     * KV-store service of each partition.
+     */
+    private final List<KVStoreServerService> services;
+    /**
+     * Transport of service channels, default nio.
      */
-    private final KVStoreServerService KVStoreServerService;
+    private Transport transport = Transport.nio();
     /**
-     * Netty boss group, default 1 thread.
+     * Netty boss group, default 1 thread, created by transport when started.
      */
-    private final NioEventLoopGroup bossGroup = new NioEventLoopGroup(1);
+    private EventLoopGroup bossGroup;
     /**
-     * Netty worker group, default (2 * cpu) thread.
+     * Netty worker group, default (2 * cpu) thread, created by transport when started.
      */
-    private final NioEventLoopGroup workerGroup = new NioEventLoopGroup(2 * RuntimeUtil.cpus());
+    private EventLoopGroup workerGroup;
     /**
      * Netty handler group.
      */
@@ -59,9 +73,52 @@ public class KVStoreServer {
      * @param serviceAddress service address
      */
     public KVStoreServer(Node node, InetSocketAddress serviceAddress) {
+        this(node, serviceAddress, new MemoryKVStorage());
+    }
+
+    /**
+     * Create KVStoreServer.
+     *
+     * @param node           raft node
+     * @param serviceAddress service address
+     * @param storage        storage of state machine
+     */
+    public KVStoreServer(Node node, InetSocketAddress serviceAddress, KVStorage storage) {
         this.node = node;
+        this.host = null;
         this.serviceAddress = serviceAddress;
-        this.KVStoreServerService = new KVStoreServerService(node);
+        this.services = Collections.singletonList(new KVStoreServerService(node, storage));
+    }
+
+    /**
+     * Create KVStoreServer whose keys are partitioned among raft groups of host.
+     *
+     * @param host           host of raft groups, each group serves one partition in the order of group id
+     * @param serviceAddress service address
+     * @param storages       storage of state machine of each group, in the order of group id
+     * @see KeyPartitioner
+     */
+    public KVStoreServer(MultiRaftHost host, InetSocketAddress serviceAddress, List<KVStorage> storages) {
+        List<Integer> groupIds = host.listGroupIds();
+        Preconditions.checkArgument(!groupIds.isEmpty(), "no raft group in host");
+        Preconditions.checkArgument(groupIds.size() == storages.size(), "count of storages should equal to count of groups");
+        this.node = null;
+        this.host = host;
+        this.serviceAddress = serviceAddress;
+        this.services = new ArrayList<>(groupIds.size());
+        for (int i = 0; i < groupIds.size(); i++) {
+            services.add(new KVStoreServerService(host.getGroup(groupIds.get(i)), storages.get(i)));
+        }
+    }
+
+    /**
+     * Set transport of service channels, should be called before started.
+     *
+     * @param transport transport
+     */
+    public void setTransport(Transport transport) {
+        Preconditions.checkNotNull(transport);
+        this.transport = transport;
     }
 
     /**
@@ -70,13 +127,16 @@ public class KVStoreServer {
      * @throws IOException if IO exception occurs
      */
     public void start() throws Exception {
-        this.node.start();
+        if (host != null) {
+            host.start();
+        } else {
+            node.start();
+        }
 
-        ServerBootstrap serverBootstrap = new ServerBootstrap()
-                .group(bossGroup, workerGroup)
-                .channel(NioServerSocketChannel.class)
+        bossGroup = transport.createEventLoopGroup(1);
+        workerGroup = transport.createEventLoopGroup(2 * RuntimeUtil.cpus());
+        ServerBootstrap serverBootstrap = transport.createServerBootstrap(bossGroup, workerGroup)
                 .option(ChannelOption.SO_BACKLOG, 128)         // length of connection queue
-                .childOption(ChannelOption.TCP_NODELAY, true)  // use nagle algorithm
                 .childOption(ChannelOption.SO_KEEPALIVE, true) // open tcp heart beat
                 .childHandler(new ChannelInitializer<SocketChannel>() {
                     @Override
@@ -84,10 +144,10 @@ public class KVStoreServer {
                         ChannelPipeline pipeline = ch.pipeline();
                         pipeline.addLast(new KVStoreMessageEncoder());
                         pipeline.addLast(new KVStoreMessageDecoder());
-                        pipeline.addLast(handlerGroup, new KVStoreServerHandler(KVStoreServerService));
+                        pipeline.addLast(handlerGroup, new KVStoreServerHandler(services));
                     }
                 });
-        logger.info("kv-store server is serving at [{}]", this.serviceAddress.toString());
+        logger.info("kv-store server is serving at [{}] with {} transport", this.serviceAddress.toString(), transport.getName());
         serverBootstrap.bind(this.serviceAddress);
     }
 
@@ -99,7 +159,11 @@ public class KVStoreServer {
      */
     public void stop() throws Exception {
         logger.info("stopping kv-store server...");
-        this.node.stop();
+        if (host != null) {
+            host.stop();
+        } else {
+            node.stop();
+        }
         this.workerGroup.shutdownGracefully();
         this.bossGroup.shutdownGracefully();
     }
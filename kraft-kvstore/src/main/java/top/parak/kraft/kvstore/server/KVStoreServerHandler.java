@@ -8,8 +8,20 @@ import org.slf4j.LoggerFactory;
 import top.parak.kraft.kvstore.message.AddNodeCommand;
 import top.parak.kraft.kvstore.message.RemoveNodeCommand;
 import top.parak.kraft.kvstore.message.CommandRequest;
+import top.parak.kraft.kvstore.message.CorrelatedMessage;
+import top.parak.kraft.kvstore.message.Failure;
 import top.parak.kraft.kvstore.message.GetCommand;
+import top.parak.kraft.kvstore.message.MultiGetCommand;
+import top.parak.kraft.kvstore.message.MultiGetCommandResponse;
 import top.parak.kraft.kvstore.message.SetCommand;
+import top.parak.kraft.kvstore.message.WriteBatchCommand;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * KV-store server handler.
@@ -20,6 +32,11 @@ import top.parak.kraft.kvstore.message.SetCommand;
  * Custom {@link io.netty.channel.SimpleChannelInboundHandler SimpleChannelInboundHandler} can
  * help developers release msg after use, so it does not need to release msg manually.
  *
+ * <p><b>PARTITION</b></p>
+ * Keys are partitioned among services by {@link KeyPartitioner}, each of which is backed by one raft group.
+ * Multi-get across partitions is split and merged, and write batch across partitions is rejected
+ * since it cannot be atomic. Membership change is supported only with single partition.
+ *
  * @author KHighness
  * @since 2022-03-31
  * @email parakovo@gmail.com
@@ -28,22 +45,113 @@ public class KVStoreServerHandler extends ChannelInboundHandlerAdapter {
 
     private static final Logger logger = LoggerFactory.getLogger(KVStoreServerHandler.class);
 
-    private final KVStoreServerService KVStoreServerService;
+    /**
+     * Error code of command not supported across partitions.
+     */
+    private static final int ERROR_CODE_CROSS_PARTITION = 102;
+
+    private final List<KVStoreServerService> services;
+    private final KeyPartitioner partitioner;
 
     public KVStoreServerHandler(KVStoreServerService KVStoreServerService) {
-        this.KVStoreServerService = KVStoreServerService;
+        this(Collections.singletonList(KVStoreServerService));
+    }
+
+    /**
+     * Create KVStoreServerHandler.
+     *
+     * @param services service of each partition, in the order of partition
+     */
+    public KVStoreServerHandler(List<KVStoreServerService> services) {
+        this.services = services;
+        this.partitioner = new KeyPartitioner(services.size());
     }
 
     @Override
     public void channelRead(ChannelHandlerContext ctx, Object msg) {
+        long correlationId = 0;
+        if (msg instanceof CorrelatedMessage) {
+            correlationId = ((CorrelatedMessage) msg).getCorrelationId();
+            msg = ((CorrelatedMessage) msg).getMessage();
+        }
         if (msg instanceof AddNodeCommand) {
-            KVStoreServerService.addNode(new CommandRequest<>((AddNodeCommand) msg, ctx.channel()));
+            CommandRequest<AddNodeCommand> commandRequest = new CommandRequest<>((AddNodeCommand) msg, ctx.channel());
+            if (checkSinglePartition(commandRequest)) {
+                services.get(0).addNode(commandRequest);
+            }
         } else if (msg instanceof RemoveNodeCommand) {
-            KVStoreServerService.removeNode(new CommandRequest<>((RemoveNodeCommand) msg, ctx.channel()));
+            CommandRequest<RemoveNodeCommand> commandRequest = new CommandRequest<>((RemoveNodeCommand) msg, ctx.channel());
+            if (checkSinglePartition(commandRequest)) {
+                services.get(0).removeNode(commandRequest);
+            }
         } else if (msg instanceof GetCommand) {
-            KVStoreServerService.get(new CommandRequest<>((GetCommand) msg, ctx.channel()));
+            GetCommand command = (GetCommand) msg;
+            serviceOf(command.getKey()).get(new CommandRequest<>(command, ctx.channel(), correlationId));
         } else if (msg instanceof SetCommand) {
-            KVStoreServerService.set(new CommandRequest<>((SetCommand) msg, ctx.channel()));
+            SetCommand command = (SetCommand) msg;
+            serviceOf(command.getKey()).set(new CommandRequest<>(command, ctx.channel(), correlationId));
+        } else if (msg instanceof MultiGetCommand) {
+            multiGet(new CommandRequest<>((MultiGetCommand) msg, ctx.channel(), correlationId));
+        } else if (msg instanceof WriteBatchCommand) {
+            writeBatch(new CommandRequest<>((WriteBatchCommand) msg, ctx.channel(), correlationId));
+        }
+    }
+
+    private KVStoreServerService serviceOf(String key) {
+        return services.size() == 1 ? services.get(0) : services.get(partitioner.partitionOf(key));
+    }
+
+    private boolean checkSinglePartition(CommandRequest<?> commandRequest) {
+        if (services.size() == 1) {
+            return true;
+        }
+        commandRequest.reply(new Failure(ERROR_CODE_CROSS_PARTITION, "not supported with partitions"));
+        return false;
+    }
+
+    private void writeBatch(CommandRequest<WriteBatchCommand> commandRequest) {
+        Map<String, byte[]> entries = commandRequest.getCommand().getEntries();
+        int partition = -1;
+        for (String key : entries.keySet()) {
+            int keyPartition = partitioner.partitionOf(key);
+            if (partition >= 0 && keyPartition != partition) {
+                commandRequest.reply(new Failure(ERROR_CODE_CROSS_PARTITION, "keys of write batch span partitions"));
+                return;
+            }
+            partition = keyPartition;
+        }
+        services.get(Math.max(partition, 0)).writeBatch(commandRequest);
+    }
+
+    /**
+     * Get values by keys, split by partition if keys span partitions.
+     *
+     * @param commandRequest command request
+     */
+    private void multiGet(CommandRequest<MultiGetCommand> commandRequest) {
+        List<String> keys = commandRequest.getCommand().getKeys();
+        // positions of keys in each partition
+        Map<Integer, List<Integer>> partitionPositions = new TreeMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            partitionPositions.computeIfAbsent(partitioner.partitionOf(keys.get(i)), p -> new ArrayList<>()).add(i);
+        }
+        if (partitionPositions.size() <= 1) {
+            serviceOf(keys.isEmpty() ? "" : keys.get(0)).multiGet(commandRequest);
+            return;
+        }
+        MultiGetMerger merger = new MultiGetMerger(commandRequest, keys.size(), partitionPositions.size());
+        for (Map.Entry<Integer, List<Integer>> entry : partitionPositions.entrySet()) {
+            List<Integer> positions = entry.getValue();
+            List<String> partitionKeys = new ArrayList<>(positions.size());
+            for (int position : positions) {
+                partitionKeys.add(keys.get(position));
+            }
+            services.get(entry.getKey()).multiGet(new CommandRequest<MultiGetCommand>(new MultiGetCommand(partitionKeys), null) {
+                @Override
+                public void reply(Object response) {
+                    merger.merge(positions, response);
+                }
+            });
         }
     }
 
@@ -58,4 +166,44 @@ public class KVStoreServerHandler extends ChannelInboundHandlerAdapter {
         ctx.close();
     }
 
+    /**
+     * Merger of multi-get responses from partitions.
+     * <p>
+     * The first response other than values, e.g. redirect, is replied as the response of whole command.
+     * </p>
+     */
+    private static class MultiGetMerger {
+
+        private final CommandRequest<MultiGetCommand> commandRequest;
+        private final byte[][] values;
+        private int remaining;
+        private boolean replied = false;
+
+        MultiGetMerger(CommandRequest<MultiGetCommand> commandRequest, int keys, int partitions) {
+            this.commandRequest = commandRequest;
+            this.values = new byte[keys][];
+            this.remaining = partitions;
+        }
+
+        synchronized void merge(List<Integer> positions, Object response) {
+            if (replied) {
+                return;
+            }
+            if (!(response instanceof MultiGetCommandResponse)) {
+                replied = true;
+                commandRequest.reply(response);
+                return;
+            }
+            List<byte[]> partitionValues = ((MultiGetCommandResponse) response).getValues();
+            for (int i = 0; i < positions.size(); i++) {
+                values[positions.get(i)] = partitionValues.get(i);
+            }
+            if (--remaining == 0) {
+                replied = true;
+                commandRequest.reply(new MultiGetCommandResponse(Arrays.asList(values)));
+            }
+        }
+
+    }
+
 }
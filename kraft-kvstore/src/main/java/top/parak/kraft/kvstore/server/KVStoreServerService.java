@@ -1,30 +1,36 @@
 package top.parak.kraft.kvstore.server;
 
-import com.google.protobuf.ByteString;
+import io.netty.channel.Channel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import top.parak.kraft.core.log.statemachine.AbstractSingleThreadStateMachine;
+import top.parak.kraft.core.log.statemachine.SnapshotView;
 import top.parak.kraft.core.log.statemachine.StateMachine;
 import top.parak.kraft.core.log.statemachine.StateMachineContext;
 import top.parak.kraft.core.node.task.GroupConfigChangeTaskReference;
 import top.parak.kraft.core.node.Node;
+import top.parak.kraft.core.node.NotLeaderException;
 import top.parak.kraft.core.node.role.RoleName;
 import top.parak.kraft.core.node.role.RoleNameAndLeaderId;
 import top.parak.kraft.kvstore.message.AddNodeCommand;
 import top.parak.kraft.kvstore.message.RemoveNodeCommand;
-import top.parak.kraft.kvstore.support.proto.Protos;
 import top.parak.kraft.kvstore.message.*;
 
 import javax.annotation.Nonnull;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
 /**
  * KV-store server service.
@@ -41,27 +47,43 @@ public class KVStoreServerService {
      * Raft node.
      */
     private final Node node;
+    /**
+     * Storage of state machine.
+     */
+    private final KVStorage storage;
+    /**
+     * State machine.
+     */
+    private final StateMachineImpl stateMachine;
     /**
      * Map to store pending commands.
      * <p>
      * As for {@link SetCommand}, it will be stored in {@link #pendingCommands} until
-     * {@link StateMachine#applyLog(StateMachineContext, int, byte[], int)}.
+     * {@link StateMachine#applyLogs(StateMachineContext, List, int)}.
      * </p>
      */
     private final ConcurrentMap<String, CommandRequest<?>> pendingCommands = new ConcurrentHashMap<>();
+
     /**
-     * Map to store KV.
+     * Create KVStoreServerService with memory storage.
+     *
+     * @param node raft node
      */
-    private Map<String, byte[]> map = new HashMap<>();
+    public KVStoreServerService(Node node) {
+        this(node, new MemoryKVStorage());
+    }
 
     /**
      * Create KVStoreServerService.
      *
-     * @param node raft node
+     * @param node    raft node
+     * @param storage storage of state machine
      */
-    public KVStoreServerService(Node node) {
+    public KVStoreServerService(Node node, KVStorage storage) {
         this.node = node;
-        this.node.registerStateMachine(new StateMachineImpl());
+        this.storage = storage;
+        this.stateMachine = new StateMachineImpl(storage.getLastApplied());
+        this.node.registerStateMachine(stateMachine);
     }
 
     /**
@@ -119,15 +141,81 @@ public class KVStoreServerService {
 
     /**
      * Execute {@link GetCommand}.
+     * <p>
+     * Get read index from node, and read from state machine after the read index is applied,
+     * so that the read is linearizable on both leader and follower.
+     * </p>
      *
      * @param commandRequest get command request
      */
     public void get(CommandRequest<GetCommand> commandRequest) {
         String key = commandRequest.getCommand().getKey();
         logger.debug("process command: [get {}]", key);
-        byte[] value = this.map.get(key);
-        // TODO view from node state machine
-        commandRequest.reply(new GetCommandResponse(value));
+        readAfterApplied(commandRequest, () -> new GetCommandResponse(storage.get(key)));
+    }
+
+    /**
+     * Execute {@link WriteBatchCommand}.
+     * <p>
+     * All entries are appended as one log entry, and applied atomically.
+     * </p>
+     *
+     * @param commandRequest write batch command request
+     */
+    public void writeBatch(CommandRequest<WriteBatchCommand> commandRequest) {
+        Redirect redirect = checkLeadership();
+        if (redirect != null) {
+            commandRequest.reply(redirect);
+            return;
+        }
+
+        WriteBatchCommand command = commandRequest.getCommand();
+        logger.debug("process command: [write batch of {} entries]", command.getEntries().size());
+        this.pendingCommands.put(command.getRequestId(), commandRequest);
+        commandRequest.addCloseListener(() -> pendingCommands.remove(command.getRequestId()));
+        this.node.appendLog(command.toBytes());
+    }
+
+    /**
+     * Execute {@link MultiGetCommand}.
+     * <p>
+     * Values are read with one read index like {@link #get(CommandRequest)}.
+     * </p>
+     *
+     * @param commandRequest multi get command request
+     */
+    public void multiGet(CommandRequest<MultiGetCommand> commandRequest) {
+        List<String> keys = commandRequest.getCommand().getKeys();
+        logger.debug("process command: [multi get {} keys]", keys.size());
+        readAfterApplied(commandRequest, () -> {
+            List<byte[]> values = new ArrayList<>(keys.size());
+            for (String key : keys) {
+                values.add(storage.get(key));
+            }
+            return new MultiGetCommandResponse(values);
+        });
+    }
+
+    /**
+     * Get read index from node, and reply the response read in state machine thread after the read index is applied.
+     *
+     * @param commandRequest command request
+     * @param read           read the response
+     */
+    private void readAfterApplied(CommandRequest<?> commandRequest, Supplier<Object> read) {
+        node.readIndex().whenComplete((index, cause) -> {
+            if (cause == null) {
+                // read in state machine thread
+                stateMachine.runAfterApplied(index, () -> commandRequest.reply(read.get()));
+            } else if (cause instanceof NotLeaderException) {
+                commandRequest.reply(new Redirect(node.getRoleNameAndLeaderId().getLeaderId()));
+            } else if (cause instanceof TimeoutException) {
+                commandRequest.reply(new Failure(101, "timeout"));
+            } else {
+                logger.warn("failed to get read index", cause);
+                commandRequest.reply(new Failure(100, "error"));
+            }
+        });
     }
 
     /**
@@ -169,24 +257,47 @@ public class KVStoreServerService {
         }
     }
 
+    /**
+     * Write view of storage into output stream.
+     *
+     * @param view   view of storage
+     * @param output output stream
+     * @throws IOException if IO exception occurs
+     * @see KVStoreSnapshotFormat
+     */
+    static void toSnapshot(KVStorage.View view, OutputStream output) throws IOException {
+        KVStoreSnapshotFormat.write(view.iterator(), view.getCount(), output);
+    }
+
+    /**
+     * Read input stream into storage.
+     *
+     * @param input             input stream
+     * @param storage           storage
+     * @param lastIncludedIndex the last included index of snapshot
+     * @throws IOException if IO exception occurs
+     * @see KVStoreSnapshotFormat
+     */
+    static void fromSnapshot(InputStream input, KVStorage storage, int lastIncludedIndex) throws IOException {
+        KVStoreSnapshotFormat.Reader reader = new KVStoreSnapshotFormat.Reader(input);
+        KVStorage.Loader loader = storage.newLoader(reader.getCount());
+        Map.Entry<String, byte[]> entry;
+        while ((entry = reader.next()) != null) {
+            loader.put(entry.getKey(), entry.getValue());
+        }
+        loader.finish(lastIncludedIndex);
+    }
+
     /**
      * Transform map into output stream.
      *
      * @param map    map
      * @param output output stream
      * @throws IOException if IO exception occurs
+     * @see KVStoreSnapshotFormat
      */
     static void toSnapshot(Map<String, byte[]> map, OutputStream output) throws IOException {
-        Protos.EntryList.Builder entryList = Protos.EntryList.newBuilder();
-        for (Map.Entry<String, byte[]> entry : map.entrySet()) {
-            entryList.addEntries(
-                    Protos.EntryList.Entry.newBuilder()
-                            .setKey(entry.getKey())
-                            .setValue(ByteString.copyFrom(entry.getValue())).build()
-            );
-        }
-        entryList.build().writeTo(output);
-        entryList.build().getSerializedSize();
+        KVStoreSnapshotFormat.write(map, output);
     }
 
     /**
@@ -195,14 +306,10 @@ public class KVStoreServerService {
      * @param input input stream
      * @return map
      * @throws IOException if IO exception occurs
+     * @see KVStoreSnapshotFormat
      */
     static Map<String, byte[]> fromSnapshot(InputStream input) throws IOException {
-        Map<String, byte[]> map = new HashMap<>();
-        Protos.EntryList entryList = Protos.EntryList.parseFrom(input);
-        for (Protos.EntryList.Entry entry : entryList.getEntriesList()) {
-            map.put(entry.getKey(), entry.getValue().toByteArray());
-        }
-        return map;
+        return KVStoreSnapshotFormat.read(input);
     }
 
     /**
@@ -210,19 +317,49 @@ public class KVStoreServerService {
      */
     private class StateMachineImpl extends AbstractSingleThreadStateMachine {
 
+        /**
+         * Whether a view taken is not released, view is not taken again until released.
+         */
+        private final AtomicBoolean viewTaken = new AtomicBoolean(false);
+        /**
+         * Channels with replies written while applying, flushed once after the batch applied.
+         */
+        private final Set<Channel> channelsToFlush = new HashSet<>();
+
+        StateMachineImpl(int lastApplied) {
+            super(lastApplied);
+        }
+
         @Override
-        protected void applyCommand(@Nonnull byte[] commandBytes) {
-            SetCommand command = SetCommand.fromBytes(commandBytes);
-            map.put(command.getKey(), command.getValue());
-            CommandRequest<?> commandRequest = pendingCommands.remove(command.getRequestId());
+        protected void applyCommand(int index, @Nonnull byte[] commandBytes) {
+            String requestId;
+            if (WriteBatchCommand.isWriteBatch(commandBytes)) {
+                WriteBatchCommand command = WriteBatchCommand.fromBytes(commandBytes);
+                storage.putAll(command.getEntries(), index);
+                requestId = command.getRequestId();
+            } else {
+                SetCommand command = SetCommand.fromBytes(commandBytes);
+                storage.put(command.getKey(), command.getValue(), index);
+                requestId = command.getRequestId();
+            }
+            CommandRequest<?> commandRequest = pendingCommands.remove(requestId);
             if (commandRequest != null) {
-                commandRequest.reply(Success.INSTANCE);
+                commandRequest.write(Success.INSTANCE);
+                channelsToFlush.add(commandRequest.getChannel());
             }
         }
 
         @Override
-        protected void doApplySnapshot(@Nonnull InputStream input) throws IOException {
-            map = fromSnapshot(input);
+        protected void onApplied(int lastApplied) {
+            for (Channel channel : channelsToFlush) {
+                channel.flush();
+            }
+            channelsToFlush.clear();
+        }
+
+        @Override
+        protected void doApplySnapshot(int lastIncludedIndex, @Nonnull InputStream input) throws IOException {
+            fromSnapshot(input, storage, lastIncludedIndex);
         }
 
         /**
@@ -244,12 +381,45 @@ public class KVStoreServerService {
          */
         @Override
         public boolean shouldGenerateSnapshot(int firstLogIndex, int lastApplied) {
-            return lastApplied - firstLogIndex > 1;
+            return lastApplied - firstLogIndex > 1 && !viewTaken.get();
         }
 
         @Override
         public void generateSnapshot(@Nonnull OutputStream output) throws IOException {
-            toSnapshot(map, output);
+            try (KVStorage.View view = storage.takeView()) {
+                toSnapshot(view, output);
+            }
+        }
+
+        /**
+         * View of storage is taken in state machine thread, and serialized in snapshot thread while
+         * applying log continues.
+         *
+         * @return the view
+         */
+        @Override
+        @Nonnull
+        public SnapshotView takeSnapshotView() {
+            KVStorage.View view = storage.takeView();
+            viewTaken.set(true);
+            return new SnapshotView() {
+                @Override
+                public void writeTo(@Nonnull OutputStream output) throws IOException {
+                    toSnapshot(view, output);
+                }
+
+                @Override
+                public void release() {
+                    view.close();
+                    viewTaken.set(false);
+                }
+            };
+        }
+
+        @Override
+        public void shutdown() {
+            super.shutdown();
+            storage.close();
         }
 
     }
@@ -0,0 +1,247 @@
+package top.parak.kraft.kvstore.server;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+
+import top.parak.kraft.kvstore.support.proto.Protos;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming format of KV store snapshot.
+ * <p>
+ * Layout:
+ * </p>
+ * <pre>
+ * magic "KVS1" | count of entries (varint) | chunk ... | 0 (varint)
+ * chunk: bytes of records (varint) | record ...
+ * record: bytes of entry (varint) | {@link Protos.EntryList.Entry}
+ * </pre>
+ * <p>
+ * Records are written one by one without building the whole entry list, and read one by one
+ * into a map pre-sized by the count, so memory stays flat besides the map itself. Chunks are
+ * self-delimited, so that they can be skipped or decoded independently. The count may be larger than
+ * the actual count if it is not known exactly, e.g. entries merged from segments of LSM storage.
+ * Snapshot without magic is read as a single legacy {@link Protos.EntryList}.
+ * </p>
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+final class KVStoreSnapshotFormat {
+
+    private static final byte[] MAGIC = {'K', 'V', 'S', '1'};
+    private static final int FIELD_KEY = 1;
+    private static final int FIELD_VALUE = 2;
+    /**
+     * Min bytes of records in chunk, except the last one.
+     */
+    private static final int CHUNK_BYTES = 64 * 1024;
+    private static final int BUFFER_SIZE = 8 * 1024;
+    private static final byte[] EMPTY_VALUE = new byte[0];
+
+    private KVStoreSnapshotFormat() {
+    }
+
+    /**
+     * Write map into output stream.
+     *
+     * @param map    map
+     * @param output output stream
+     * @throws IOException if IO exception occurs
+     */
+    static void write(Map<String, byte[]> map, OutputStream output) throws IOException {
+        write(map.entrySet().iterator(), map.size(), output);
+    }
+
+    /**
+     * Write entries into output stream.
+     *
+     * @param entries entries with distinct keys
+     * @param count   count of entries, or the upper bound
+     * @param output  output stream
+     * @throws IOException if IO exception occurs
+     */
+    static void write(Iterator<Map.Entry<String, byte[]>> entries, int count, OutputStream output) throws IOException {
+        CodedOutputStream out = CodedOutputStream.newInstance(output, BUFFER_SIZE);
+        out.writeRawBytes(MAGIC);
+        out.writeUInt32NoTag(count);
+        List<Map.Entry<String, byte[]>> chunk = new ArrayList<>();
+        int chunkBytes = 0;
+        while (entries.hasNext()) {
+            Map.Entry<String, byte[]> entry = entries.next();
+            chunk.add(entry);
+            int entryBytes = computeEntrySize(entry.getKey(), entry.getValue());
+            chunkBytes += CodedOutputStream.computeUInt32SizeNoTag(entryBytes) + entryBytes;
+            if (chunkBytes >= CHUNK_BYTES) {
+                writeChunk(out, chunk, chunkBytes);
+                chunk.clear();
+                chunkBytes = 0;
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(out, chunk, chunkBytes);
+        }
+        out.writeUInt32NoTag(0);
+        out.flush();
+    }
+
+    private static void writeChunk(CodedOutputStream out, List<Map.Entry<String, byte[]>> chunk, int chunkBytes) throws IOException {
+        out.writeUInt32NoTag(chunkBytes);
+        for (Map.Entry<String, byte[]> entry : chunk) {
+            out.writeUInt32NoTag(computeEntrySize(entry.getKey(), entry.getValue()));
+            out.writeString(FIELD_KEY, entry.getKey());
+            out.writeByteArray(FIELD_VALUE, entry.getValue());
+        }
+    }
+
+    private static int computeEntrySize(String key, byte[] value) {
+        return CodedOutputStream.computeStringSize(FIELD_KEY, key) +
+                CodedOutputStream.computeByteArraySize(FIELD_VALUE, value);
+    }
+
+    /**
+     * Read map from input stream.
+     *
+     * @param input input stream
+     * @return map
+     * @throws IOException if IO exception occurs
+     */
+    static Map<String, byte[]> read(InputStream input) throws IOException {
+        Reader reader = new Reader(input);
+        Map<String, byte[]> map = new HashMap<>((int) (reader.getCount() / 0.75f) + 1);
+        Map.Entry<String, byte[]> entry;
+        while ((entry = reader.next()) != null) {
+            map.put(entry.getKey(), entry.getValue());
+        }
+        return map;
+    }
+
+    /**
+     * Reader to read entries one by one.
+     */
+    static class Reader {
+
+        private final CodedInputStream in;
+        private final int count;
+        /**
+         * Entries of legacy snapshot, {@code null} if not legacy.
+         */
+        private final Iterator<Protos.EntryList.Entry> legacyEntries;
+        /**
+         * Limit before current chunk, {@code -1} if not in chunk.
+         */
+        private int oldLimit = -1;
+        private boolean end = false;
+
+        /**
+         * Create Reader.
+         *
+         * @param input input stream
+         * @throws IOException if IO exception occurs
+         */
+        Reader(InputStream input) throws IOException {
+            PushbackInputStream pushbackInput = new PushbackInputStream(input, MAGIC.length);
+            byte[] magic = new byte[MAGIC.length];
+            int n = readFully(pushbackInput, magic);
+            if (n < MAGIC.length || !Arrays.equals(magic, MAGIC)) {
+                pushbackInput.unread(magic, 0, n);
+                Protos.EntryList entryList = Protos.EntryList.parseFrom(pushbackInput);
+                in = null;
+                count = entryList.getEntriesCount();
+                legacyEntries = entryList.getEntriesList().iterator();
+            } else {
+                in = CodedInputStream.newInstance(pushbackInput, BUFFER_SIZE);
+                count = in.readUInt32();
+                legacyEntries = null;
+            }
+        }
+
+        /**
+         * Get count of entries, or the upper bound.
+         *
+         * @return count
+         */
+        int getCount() {
+            return count;
+        }
+
+        /**
+         * Read next entry.
+         *
+         * @return entry, {@code null} if no more entry
+         * @throws IOException if IO exception occurs
+         */
+        Map.Entry<String, byte[]> next() throws IOException {
+            if (legacyEntries != null) {
+                if (!legacyEntries.hasNext()) {
+                    return null;
+                }
+                Protos.EntryList.Entry entry = legacyEntries.next();
+                return new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), entry.getValue().toByteArray());
+            }
+            while (!end) {
+                if (oldLimit >= 0 && !in.isAtEnd()) {
+                    return readEntry(in);
+                }
+                if (oldLimit >= 0) {
+                    in.popLimit(oldLimit);
+                    oldLimit = -1;
+                }
+                int chunkBytes = in.readUInt32();
+                if (chunkBytes == 0) {
+                    end = true;
+                } else {
+                    // size limit of coded input stream is counted per chunk
+                    in.resetSizeCounter();
+                    oldLimit = in.pushLimit(chunkBytes);
+                }
+            }
+            return null;
+        }
+
+    }
+
+    private static Map.Entry<String, byte[]> readEntry(CodedInputStream in) throws IOException {
+        int oldLimit = in.pushLimit(in.readUInt32());
+        String key = "";
+        byte[] value = EMPTY_VALUE;
+        int tag;
+        while ((tag = in.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case FIELD_KEY:
+                    key = in.readStringRequireUtf8();
+                    break;
+                case FIELD_VALUE:
+                    value = in.readByteArray();
+                    break;
+                default:
+                    in.skipField(tag);
+            }
+        }
+        in.popLimit(oldLimit);
+        return new AbstractMap.SimpleImmutableEntry<>(key, value);
+    }
+
+    private static int readFully(InputStream input, byte[] bytes) throws IOException {
+        int n = 0;
+        int count;
+        while (n < bytes.length && (count = input.read(bytes, n, bytes.length - n)) > 0) {
+            n += count;
+        }
+        return n;
+    }
+
+}
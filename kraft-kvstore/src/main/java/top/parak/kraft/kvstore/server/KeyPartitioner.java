@@ -0,0 +1,51 @@
+package top.parak.kraft.kvstore.server;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Hash partitioner of keys, each partition is served by one raft group.
+ * <p>
+ * {@link String#hashCode()} is specified by the language, so all servers and clients
+ * map the same key to the same partition.
+ * </p>
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+public class KeyPartitioner {
+
+    private final int partitions;
+
+    /**
+     * Create KeyPartitioner.
+     *
+     * @param partitions count of partitions
+     */
+    public KeyPartitioner(int partitions) {
+        Preconditions.checkArgument(partitions > 0, "partitions should > 0");
+        this.partitions = partitions;
+    }
+
+    /**
+     * Get partition of key.
+     *
+     * @param key key
+     * @return partition, from 0 to partitions - 1
+     */
+    public int partitionOf(String key) {
+        int hash = key.hashCode();
+        // spread high bits to low bits
+        return Math.floorMod(hash ^ (hash >>> 16), partitions);
+    }
+
+    /**
+     * Get count of partitions.
+     *
+     * @return count of partitions
+     */
+    public int getPartitions() {
+        return partitions;
+    }
+
+}
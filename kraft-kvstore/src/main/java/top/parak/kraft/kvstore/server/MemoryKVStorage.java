@@ -0,0 +1,140 @@
+package top.parak.kraft.kvstore.server;
+
+import javax.annotation.Nonnull;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Memory-based storage of KV state machine, applied from snapshot and log after restart.
+ *
+ * <p>A view is taken in constant time by freezing the current map, writes after that go to a pending
+ * map checked before the frozen one, which is merged into the frozen map by the next write or view
+ * after the view is closed. So the cost of a view is the writes during the snapshot, rather than a copy
+ * of all entries in the thread applying log. If a view is taken before the previous one is closed,
+ * the maps are merged into a new map.</p>
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+public class MemoryKVStorage implements KVStorage {
+
+    /**
+     * Map to store KV, frozen if {@link #pendingMap} is not {@code null}.
+     */
+    private volatile Map<String, byte[]> map = new HashMap<>();
+    /**
+     * Map to store KV written after the last view taken, {@code null} if no view open.
+     */
+    private volatile Map<String, byte[]> pendingMap;
+    /**
+     * Whether the last view is closed, {@code null} if no view open.
+     */
+    private AtomicBoolean viewClosed;
+
+    @Override
+    public int getLastApplied() {
+        return 0;
+    }
+
+    @Override
+    public byte[] get(@Nonnull String key) {
+        Map<String, byte[]> pending = pendingMap;
+        if (pending != null) {
+            byte[] value = pending.get(key);
+            if (value != null) {
+                return value;
+            }
+        }
+        return map.get(key);
+    }
+
+    @Override
+    public void put(@Nonnull String key, @Nonnull byte[] value, int index) {
+        mergeIfViewClosed();
+        (pendingMap != null ? pendingMap : map).put(key, value);
+    }
+
+    @Override
+    public void putAll(@Nonnull Map<String, byte[]> entries, int index) {
+        mergeIfViewClosed();
+        (pendingMap != null ? pendingMap : map).putAll(entries);
+    }
+
+    /**
+     * Merge pending map into map if the last view is closed.
+     */
+    private void mergeIfViewClosed() {
+        if (viewClosed != null && viewClosed.get()) {
+            map.putAll(pendingMap);
+            pendingMap = null;
+            viewClosed = null;
+        }
+    }
+
+    /**
+     * Freeze the map as a point-in-time view, values are never changed after put, so the view
+     * is iterated in snapshot thread while applying log continues.
+     *
+     * @return the view
+     */
+    @Nonnull
+    @Override
+    public View takeView() {
+        mergeIfViewClosed();
+        if (pendingMap != null) {
+            // the previous view is still open
+            Map<String, byte[]> newMap = new HashMap<>(map);
+            newMap.putAll(pendingMap);
+            map = newMap;
+        }
+        Map<String, byte[]> frozen = map;
+        AtomicBoolean closed = new AtomicBoolean(false);
+        pendingMap = new HashMap<>();
+        viewClosed = closed;
+        return new View() {
+            @Override
+            public int getCount() {
+                return frozen.size();
+            }
+
+            @Nonnull
+            @Override
+            public Iterator<Map.Entry<String, byte[]>> iterator() {
+                return frozen.entrySet().iterator();
+            }
+
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        };
+    }
+
+    @Nonnull
+    @Override
+    public Loader newLoader(int count) {
+        Map<String, byte[]> newMap = new HashMap<>((int) (count / 0.75f) + 1);
+        return new Loader() {
+            @Override
+            public void put(@Nonnull String key, @Nonnull byte[] value) {
+                newMap.put(key, value);
+            }
+
+            @Override
+            public void finish(int lastIncludedIndex) {
+                // the open view keeps the frozen map
+                map = newMap;
+                pendingMap = null;
+                viewClosed = null;
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+    }
+
+}
@@ -0,0 +1,577 @@
+package top.parak.kraft.kvstore.server.lsm;
+
+import com.google.common.base.Preconditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import top.parak.kraft.kvstore.server.KVStorage;
+import top.parak.kraft.kvstore.server.KVStorageException;
+
+import javax.annotation.Nonnull;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * LSM-based storage of KV state machine on disk.
+ * <p>
+ * Entries are put into the mem table, which is flushed into a sorted immutable segment file with
+ * bloom filter when it's full. Segments are merged into one in background when the count of segments
+ * reaches the threshold. The live segments and the last applied index of flushed entries are recorded
+ * in {@link Manifest}, so that after restart only log after the last applied index is applied again.
+ * </p>
+ * <p>
+ * View to generate snapshot flushes the mem table, and hard-links the live segments into a checkpoint
+ * directory, which is not affected by compaction while the snapshot is written.
+ * </p>
+ * <p>
+ * Flush, compaction and replacing segments run in the background thread, which is the only thread
+ * changing the list of segments and writing the manifest.
+ * </p>
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+public class LsmKVStorage implements KVStorage {
+
+    private static final Logger logger = LoggerFactory.getLogger(LsmKVStorage.class);
+
+    public static final int DEFAULT_MEM_TABLE_SIZE = 4 * 1024 * 1024;
+    public static final int DEFAULT_COMPACTION_THRESHOLD = 4;
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String CHECKPOINT_PREFIX = "checkpoint-";
+    /**
+     * Estimated bytes of an entry in mem table besides key and value.
+     */
+    private static final int ENTRY_OVERHEAD = 64;
+
+    private final File dir;
+    private final int memTableSize;
+    private final int compactionThreshold;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "kv-compaction"));
+    /**
+     * Lock of mem tables and segments, reader holds read lock, changes are made with write lock.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicLong nextSegmentId;
+    private final AtomicInteger nextCheckpointId = new AtomicInteger(0);
+
+    private volatile ConcurrentSkipListMap<String, byte[]> memTable = new ConcurrentSkipListMap<>();
+    /**
+     * Mem table being flushed, {@code null} if not flushing.
+     */
+    private volatile ConcurrentSkipListMap<String, byte[]> immutableMemTable = null;
+    /**
+     * Live segments, newest first.
+     */
+    private List<Segment> segments;
+    /**
+     * The last applied index persisted.
+     */
+    private volatile int lastApplied;
+
+    // state machine thread
+    private long memTableBytes = 0;
+    private volatile int memTableLastIndex;
+    private Future<?> flushFuture = null;
+
+    /**
+     * Create LsmKVStorage with default options.
+     *
+     * @param dir directory
+     */
+    public LsmKVStorage(File dir) {
+        this(dir, DEFAULT_MEM_TABLE_SIZE, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    /**
+     * Create LsmKVStorage.
+     *
+     * @param dir                 directory
+     * @param memTableSize        bytes of mem table to flush
+     * @param compactionThreshold count of segments to compact
+     */
+    public LsmKVStorage(File dir, int memTableSize, int compactionThreshold) {
+        Preconditions.checkArgument(memTableSize > 0, "mem table size should > 0");
+        Preconditions.checkArgument(compactionThreshold > 1, "compaction threshold should > 1");
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new KVStorageException("failed to create directory " + dir);
+        }
+        this.dir = dir;
+        this.memTableSize = memTableSize;
+        this.compactionThreshold = compactionThreshold;
+
+        List<Segment> openedSegments = new ArrayList<>();
+        try {
+            Manifest manifest = Manifest.read(dir);
+            for (long segmentId : manifest.getSegmentIds()) {
+                openedSegments.add(new Segment(segmentId, segmentFile(segmentId)));
+            }
+            removeObsoleteFiles(new HashSet<>(manifest.getSegmentIds()));
+            nextSegmentId = new AtomicLong(manifest.getNextSegmentId());
+            lastApplied = manifest.getLastApplied();
+        } catch (IOException e) {
+            closeSegments(openedSegments);
+            executor.shutdown();
+            throw new KVStorageException("failed to open storage in " + dir, e);
+        }
+        segments = Collections.unmodifiableList(openedSegments);
+        memTableLastIndex = lastApplied;
+        logger.info("open storage in {}, {} segments, last applied {}", dir, segments.size(), lastApplied);
+    }
+
+    private File segmentFile(long segmentId) {
+        return new File(dir, String.format("%016d", segmentId) + SEGMENT_SUFFIX);
+    }
+
+    /**
+     * Remove segments not in manifest, temporary files and checkpoints left by last run.
+     *
+     * @param liveSegmentIds ids of live segments
+     * @throws IOException if IO exception occurs
+     */
+    private void removeObsoleteFiles(Set<Long> liveSegmentIds) throws IOException {
+        Set<String> liveFileNames = liveSegmentIds.stream()
+                .map(id -> segmentFile(id).getName())
+                .collect(Collectors.toSet());
+        File[] files = dir.listFiles();
+        if (files == null) {
+            throw new IOException("failed to list files in " + dir);
+        }
+        for (File file : files) {
+            String name = file.getName();
+            if (name.startsWith(CHECKPOINT_PREFIX)) {
+                deleteRecursively(file);
+            } else if ((name.endsWith(SEGMENT_SUFFIX) && !liveFileNames.contains(name)) || name.endsWith(".tmp")) {
+                Files.delete(file.toPath());
+            }
+        }
+    }
+
+    private static void deleteRecursively(File file) throws IOException {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        Files.deleteIfExists(file.toPath());
+    }
+
+    @Override
+    public int getLastApplied() {
+        return lastApplied;
+    }
+
+    @Override
+    public byte[] get(@Nonnull String key) {
+        lock.readLock().lock();
+        try {
+            byte[] value = memTable.get(key);
+            ConcurrentSkipListMap<String, byte[]> flushingMemTable = immutableMemTable;
+            if (value == null && flushingMemTable != null) {
+                value = flushingMemTable.get(key);
+            }
+            if (value != null) {
+                return value;
+            }
+            for (Segment segment : segments) {
+                value = segment.get(key);
+                if (value != null) {
+                    return value;
+                }
+            }
+            return null;
+        } catch (IOException e) {
+            throw new KVStorageException("failed to get " + key, e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void put(@Nonnull String key, @Nonnull byte[] value, int index) {
+        putIntoMemTable(key, value);
+        memTableLastIndex = index;
+        if (memTableBytes >= memTableSize) {
+            scheduleFlush();
+        }
+    }
+
+    /**
+     * Put all entries into the same mem table, so that they are flushed together with the index.
+     *
+     * @param entries entries in the order of writing
+     * @param index   index of log entry
+     */
+    @Override
+    public void putAll(@Nonnull Map<String, byte[]> entries, int index) {
+        for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+            putIntoMemTable(entry.getKey(), entry.getValue());
+        }
+        memTableLastIndex = index;
+        if (memTableBytes >= memTableSize) {
+            scheduleFlush();
+        }
+    }
+
+    private void putIntoMemTable(String key, byte[] value) {
+        byte[] oldValue = memTable.put(key, value);
+        memTableBytes += (oldValue == null ? ENTRY_OVERHEAD + key.length() * 2 + value.length : value.length - oldValue.length);
+    }
+
+    /**
+     * Make mem table immutable and flush it in background.
+     * <p>
+     * Wait for the previous flush, so that at most one mem table is being flushed.
+     * </p>
+     */
+    private void scheduleFlush() {
+        awaitFlush();
+        ConcurrentSkipListMap<String, byte[]> table = memTable;
+        int index = memTableLastIndex;
+        lock.writeLock().lock();
+        try {
+            immutableMemTable = table;
+            memTable = new ConcurrentSkipListMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        memTableBytes = 0;
+        flushFuture = executor.submit(() -> {
+            flush(table, index);
+            return null;
+        });
+        executor.submit(this::compactIfNecessary);
+    }
+
+    private void awaitFlush() {
+        if (flushFuture == null) {
+            return;
+        }
+        await(flushFuture, "flush mem table");
+        flushFuture = null;
+    }
+
+    private static void await(Future<?> future, String action) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KVStorageException("interrupted to " + action, e);
+        } catch (ExecutionException e) {
+            throw new KVStorageException("failed to " + action, e.getCause());
+        }
+    }
+
+    /**
+     * Flush mem table and wait, then all entries applied are in segments and the last applied index is persisted.
+     */
+    private void flushAndWait() {
+        awaitFlush();
+        if (!memTable.isEmpty() || memTableLastIndex > lastApplied) {
+            scheduleFlush();
+            awaitFlush();
+        }
+    }
+
+    // background thread
+    private void flush(ConcurrentSkipListMap<String, byte[]> table, int index) throws IOException {
+        Segment segment = table.isEmpty() ? null : writeSegment(table.entrySet().iterator(), table.size());
+        List<Segment> newSegments = new ArrayList<>(segments.size() + 1);
+        if (segment != null) {
+            newSegments.add(segment);
+        }
+        newSegments.addAll(segments);
+        lock.writeLock().lock();
+        try {
+            segments = Collections.unmodifiableList(newSegments);
+            immutableMemTable = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        writeManifest(index, newSegments);
+        logger.debug("flush mem table, {} entries, last applied {}", table.size(), index);
+    }
+
+    private Segment writeSegment(Iterator<Map.Entry<String, byte[]>> entries, int expectedCount) throws IOException {
+        long segmentId = nextSegmentId.getAndIncrement();
+        File file = segmentFile(segmentId);
+        try (SegmentWriter writer = new SegmentWriter(file, expectedCount)) {
+            Map.Entry<String, byte[]> entry;
+            while (entries.hasNext()) {
+                entry = entries.next();
+                writer.append(entry.getKey(), entry.getValue());
+            }
+            writer.finish();
+        }
+        return new Segment(segmentId, file);
+    }
+
+    // background thread
+    private void writeManifest(int index, List<Segment> liveSegments) throws IOException {
+        List<Long> segmentIds = liveSegments.stream().map(Segment::getId).collect(Collectors.toList());
+        new Manifest(index, nextSegmentId.get(), segmentIds).write(dir);
+        lastApplied = index;
+    }
+
+    /**
+     * Merge all segments into one if the count of segments reaches the threshold.
+     * <p>
+     * Keys are never removed, so the merged segment keeps the newest value of each key.
+     * </p>
+     */
+    // background thread
+    private void compactIfNecessary() {
+        List<Segment> inputs = segments;
+        if (inputs.size() < compactionThreshold) {
+            return;
+        }
+        logger.info("compact {} segments", inputs.size());
+        try {
+            Segment merged;
+            List<Segment.RecordIterator> iterators = new ArrayList<>(inputs.size());
+            try {
+                int expectedCount = 0;
+                for (Segment segment : inputs) {
+                    iterators.add(segment.iterator());
+                    expectedCount += segment.getCount();
+                }
+                merged = writeSegment(new MergingIterator(iterators), expectedCount);
+            } finally {
+                for (Segment.RecordIterator iterator : iterators) {
+                    iterator.close();
+                }
+            }
+            List<Segment> newSegments = Collections.singletonList(merged);
+            lock.writeLock().lock();
+            try {
+                segments = newSegments;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            writeManifest(lastApplied, newSegments);
+            removeSegments(inputs);
+            logger.info("compacted into {}", merged);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("failed to compact segments", e);
+        }
+    }
+
+    // no reader after segments are replaced with write lock
+    private void removeSegments(List<Segment> obsoleteSegments) throws IOException {
+        for (Segment segment : obsoleteSegments) {
+            segment.close();
+            Files.deleteIfExists(segment.getFile().toPath());
+        }
+    }
+
+    private static void closeSegments(List<Segment> segmentsToClose) {
+        for (Segment segment : segmentsToClose) {
+            try {
+                segment.close();
+            } catch (IOException e) {
+                logger.warn("failed to close segment " + segment, e);
+            }
+        }
+    }
+
+    /**
+     * Flush mem table, and hard-link the live segments into a checkpoint directory.
+     *
+     * @return view
+     */
+    @Nonnull
+    @Override
+    public View takeView() {
+        flushAndWait();
+        File checkpointDir = new File(dir, CHECKPOINT_PREFIX + nextCheckpointId.incrementAndGet());
+        List<File> files = new ArrayList<>();
+        int count = 0;
+        lock.readLock().lock();
+        try {
+            Files.createDirectory(checkpointDir.toPath());
+            for (Segment segment : segments) {
+                File link = new File(checkpointDir, segment.getFile().getName());
+                try {
+                    Files.createLink(link.toPath(), segment.getFile().toPath());
+                } catch (UnsupportedOperationException | FileSystemException e) {
+                    Files.copy(segment.getFile().toPath(), link.toPath());
+                }
+                files.add(link);
+                count += segment.getCount();
+            }
+        } catch (IOException e) {
+            try {
+                deleteRecursively(checkpointDir);
+            } catch (IOException ignored) {
+            }
+            throw new KVStorageException("failed to create checkpoint", e);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new CheckpointView(checkpointDir, files, count);
+    }
+
+    @Nonnull
+    @Override
+    public Loader newLoader(int count) {
+        return new SegmentLoader();
+    }
+
+    @Override
+    public void close() {
+        try {
+            flushAndWait();
+        } catch (KVStorageException e) {
+            logger.warn("failed to flush mem table", e);
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                logger.warn("compaction not finished in 1 minute");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lock.writeLock().lock();
+        try {
+            closeSegments(segments);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * View of segments hard-linked in checkpoint directory.
+     */
+    private static class CheckpointView implements View {
+
+        private final File checkpointDir;
+        private final List<File> files;
+        private final int count;
+        private final List<Segment> openedSegments = new ArrayList<>();
+        private final List<Segment.RecordIterator> iterators = new ArrayList<>();
+
+        CheckpointView(File checkpointDir, List<File> files, int count) {
+            this.checkpointDir = checkpointDir;
+            this.files = files;
+            this.count = count;
+        }
+
+        @Override
+        public int getCount() {
+            return count;
+        }
+
+        @Nonnull
+        @Override
+        public Iterator<Map.Entry<String, byte[]>> iterator() throws IOException {
+            for (File file : files) {
+                Segment segment = new Segment(0, file);
+                openedSegments.add(segment);
+                iterators.add(segment.iterator());
+            }
+            return new MergingIterator(iterators);
+        }
+
+        @Override
+        public void close() {
+            try {
+                for (Segment.RecordIterator iterator : iterators) {
+                    iterator.close();
+                }
+                closeSegments(openedSegments);
+                deleteRecursively(checkpointDir);
+            } catch (IOException e) {
+                logger.warn("failed to remove checkpoint " + checkpointDir, e);
+            }
+        }
+
+    }
+
+    /**
+     * Loader writing entries into new segments, which replace all segments when finished.
+     */
+    private class SegmentLoader implements Loader {
+
+        private final TreeMap<String, byte[]> batch = new TreeMap<>();
+        private long batchBytes = 0;
+        /**
+         * Segments written, oldest first.
+         */
+        private final List<Segment> loadedSegments = new ArrayList<>();
+
+        @Override
+        public void put(@Nonnull String key, @Nonnull byte[] value) throws IOException {
+            batch.put(key, value);
+            batchBytes += ENTRY_OVERHEAD + key.length() * 2 + value.length;
+            if (batchBytes >= memTableSize) {
+                writeBatch();
+            }
+        }
+
+        private void writeBatch() throws IOException {
+            loadedSegments.add(writeSegment(batch.entrySet().iterator(), batch.size()));
+            batch.clear();
+            batchBytes = 0;
+        }
+
+        @Override
+        public void finish(int lastIncludedIndex) throws IOException {
+            if (!batch.isEmpty()) {
+                writeBatch();
+            }
+            List<Segment> newSegments = new ArrayList<>(loadedSegments);
+            Collections.reverse(newSegments);
+            awaitFlush();
+            await(executor.submit(() -> {
+                replaceSegments(Collections.unmodifiableList(newSegments), lastIncludedIndex);
+                return null;
+            }), "replace segments");
+            // mem table is replaced with an empty one
+            memTableBytes = 0;
+            executor.submit(LsmKVStorage.this::compactIfNecessary);
+        }
+
+    }
+
+    // background thread
+    private void replaceSegments(List<Segment> newSegments, int lastIncludedIndex) throws IOException {
+        List<Segment> oldSegments = segments;
+        lock.writeLock().lock();
+        try {
+            segments = newSegments;
+            memTable = new ConcurrentSkipListMap<>();
+            immutableMemTable = null;
+            memTableLastIndex = lastIncludedIndex;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        writeManifest(lastIncludedIndex, newSegments);
+        removeSegments(oldSegments);
+        logger.info("replace segments, {} segments, last applied {}", newSegments.size(), lastIncludedIndex);
+    }
+
+}
@@ -0,0 +1,126 @@
+package top.parak.kraft.kvstore.server.lsm;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Manifest of LSM storage, the live segments and the last applied index persisted.
+ * <p>
+ * Layout: magic (4) | last applied (4) | next segment id (8) | count (4) | segment id (8) ... | crc32 (8).
+ * The manifest is written to a temporary file, and replaces the old one by rename after synced.
+ * </p>
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+class Manifest {
+
+    static final String FILE_NAME = "MANIFEST";
+    private static final int MAGIC = 0x4b4d4631;
+
+    private final int lastApplied;
+    private final long nextSegmentId;
+    private final List<Long> segmentIds;
+
+    /**
+     * Create Manifest.
+     *
+     * @param lastApplied   the last applied index persisted
+     * @param nextSegmentId id of next segment
+     * @param segmentIds    ids of live segments, newest first
+     */
+    Manifest(int lastApplied, long nextSegmentId, List<Long> segmentIds) {
+        this.lastApplied = lastApplied;
+        this.nextSegmentId = nextSegmentId;
+        this.segmentIds = Collections.unmodifiableList(new ArrayList<>(segmentIds));
+    }
+
+    /**
+     * Read manifest in directory.
+     *
+     * @param dir directory
+     * @return manifest, or empty manifest if not found
+     * @throws IOException if IO exception occurs, or manifest is corrupted
+     */
+    static Manifest read(File dir) throws IOException {
+        File file = new File(dir, FILE_NAME);
+        if (!file.exists()) {
+            return new Manifest(0, 1, Collections.emptyList());
+        }
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        if (bytes.length < 8) {
+            throw new IOException("manifest too short");
+        }
+        CRC32 crc32 = new CRC32();
+        crc32.update(bytes, 0, bytes.length - 8);
+        if (crc32.getValue() != ByteBuffer.wrap(bytes, bytes.length - 8, 8).getLong()) {
+            throw new IOException("manifest corrupted");
+        }
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes));
+        if (input.readInt() != MAGIC) {
+            throw new IOException("illegal magic of manifest");
+        }
+        int lastApplied = input.readInt();
+        long nextSegmentId = input.readLong();
+        int count = input.readInt();
+        List<Long> segmentIds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            segmentIds.add(input.readLong());
+        }
+        return new Manifest(lastApplied, nextSegmentId, segmentIds);
+    }
+
+    /**
+     * Write manifest into directory.
+     *
+     * @param dir directory
+     * @throws IOException if IO exception occurs
+     */
+    void write(File dir) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.writeInt(MAGIC);
+        output.writeInt(lastApplied);
+        output.writeLong(nextSegmentId);
+        output.writeInt(segmentIds.size());
+        for (long segmentId : segmentIds) {
+            output.writeLong(segmentId);
+        }
+        CRC32 crc32 = new CRC32();
+        crc32.update(bytes.toByteArray());
+        output.writeLong(crc32.getValue());
+
+        File tmpFile = new File(dir, FILE_NAME + ".tmp");
+        try (FileOutputStream fileOutput = new FileOutputStream(tmpFile)) {
+            bytes.writeTo(fileOutput);
+            fileOutput.getFD().sync();
+        }
+        Files.move(tmpFile.toPath(), new File(dir, FILE_NAME).toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    int getLastApplied() {
+        return lastApplied;
+    }
+
+    long getNextSegmentId() {
+        return nextSegmentId;
+    }
+
+    List<Long> getSegmentIds() {
+        return segmentIds;
+    }
+
+}
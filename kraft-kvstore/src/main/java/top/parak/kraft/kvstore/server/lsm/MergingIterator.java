@@ -0,0 +1,82 @@
+package top.parak.kraft.kvstore.server.lsm;
+
+import com.google.common.collect.Iterators;
+import com.google.common.collect.PeekingIterator;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Iterator merging sorted iterators, the entry of the newest source wins if keys are equal.
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+class MergingIterator implements Iterator<Map.Entry<String, byte[]>> {
+
+    private final PriorityQueue<Source> queue;
+
+    /**
+     * Create MergingIterator.
+     *
+     * @param iterators sorted iterators, newest first
+     */
+    MergingIterator(List<? extends Iterator<Map.Entry<String, byte[]>>> iterators) {
+        queue = new PriorityQueue<>(Math.max(iterators.size(), 1));
+        for (int i = 0; i < iterators.size(); i++) {
+            addIfHasNext(new Source(i, Iterators.peekingIterator(iterators.get(i))));
+        }
+    }
+
+    private void addIfHasNext(Source source) {
+        if (source.iterator.hasNext()) {
+            queue.add(source);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !queue.isEmpty();
+    }
+
+    @Override
+    public Map.Entry<String, byte[]> next() {
+        Source source = queue.poll();
+        if (source == null) {
+            throw new NoSuchElementException();
+        }
+        Map.Entry<String, byte[]> entry = source.iterator.next();
+        addIfHasNext(source);
+        // skip entries of older sources with the same key
+        Source older;
+        while ((older = queue.peek()) != null && older.iterator.peek().getKey().equals(entry.getKey())) {
+            queue.poll();
+            older.iterator.next();
+            addIfHasNext(older);
+        }
+        return entry;
+    }
+
+    private static class Source implements Comparable<Source> {
+
+        private final int rank;
+        private final PeekingIterator<Map.Entry<String, byte[]>> iterator;
+
+        Source(int rank, PeekingIterator<Map.Entry<String, byte[]>> iterator) {
+            this.rank = rank;
+            this.iterator = iterator;
+        }
+
+        @Override
+        public int compareTo(Source o) {
+            int c = iterator.peek().getKey().compareTo(o.iterator.peek().getKey());
+            return c != 0 ? c : Integer.compare(rank, o.rank);
+        }
+
+    }
+
+}
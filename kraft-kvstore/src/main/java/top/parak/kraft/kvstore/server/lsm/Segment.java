@@ -0,0 +1,233 @@
+package top.parak.kraft.kvstore.server.lsm;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Sorted immutable segment file.
+ * <p>
+ * Index and bloom filter are loaded into memory, the block of key is read by positional read,
+ * so that segment can be read by multiple threads.
+ * </p>
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ * @see SegmentWriter
+ */
+class Segment implements AutoCloseable {
+
+    private final long id;
+    private final File file;
+    private final FileChannel channel;
+    private final long indexOffset;
+    private final int count;
+    private final String[] blockKeys;
+    private final long[] blockOffsets;
+    private final String lastKey;
+    private final BloomFilter<CharSequence> bloomFilter;
+
+    /**
+     * Open segment.
+     *
+     * @param id   id of segment
+     * @param file segment file
+     * @throws IOException if IO exception occurs
+     */
+    Segment(long id, File file) throws IOException {
+        this.id = id;
+        this.file = file;
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < SegmentWriter.FOOTER_LENGTH) {
+                throw new IOException("segment " + file + " too short");
+            }
+            ByteBuffer footer = read(size - SegmentWriter.FOOTER_LENGTH, SegmentWriter.FOOTER_LENGTH);
+            indexOffset = footer.getLong();
+            long bloomOffset = footer.getLong();
+            count = footer.getInt();
+            if (footer.getInt() != SegmentWriter.MAGIC) {
+                throw new IOException("illegal magic of segment " + file);
+            }
+
+            DataInputStream index = toDataInput(read(indexOffset, (int) (bloomOffset - indexOffset)));
+            int blockCount = index.readInt();
+            blockKeys = new String[blockCount];
+            blockOffsets = new long[blockCount];
+            for (int i = 0; i < blockCount; i++) {
+                blockKeys[i] = readString(index);
+                blockOffsets[i] = index.readLong();
+            }
+            lastKey = readString(index);
+
+            DataInputStream bloom = toDataInput(read(bloomOffset, (int) (size - SegmentWriter.FOOTER_LENGTH - bloomOffset)));
+            bloomFilter = BloomFilter.readFrom(bloom, Funnels.stringFunnel(StandardCharsets.UTF_8));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private ByteBuffer read(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("unexpected end of segment " + file);
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static DataInputStream toDataInput(ByteBuffer buffer) {
+        return new DataInputStream(new ByteArrayInputStream(buffer.array(), buffer.position(), buffer.remaining()));
+    }
+
+    private static byte[] readBytes(DataInputStream input) throws IOException {
+        byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return bytes;
+    }
+
+    private static String readString(DataInputStream input) throws IOException {
+        return new String(readBytes(input), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Get value.
+     *
+     * @param key key
+     * @return value, {@code null} if not found
+     * @throws IOException if IO exception occurs
+     */
+    byte[] get(String key) throws IOException {
+        if (count == 0 || key.compareTo(blockKeys[0]) < 0 || key.compareTo(lastKey) > 0 || !bloomFilter.mightContain(key)) {
+            return null;
+        }
+        int block = floorBlock(key);
+        long blockEnd = block + 1 < blockOffsets.length ? blockOffsets[block + 1] : indexOffset;
+        DataInputStream input = toDataInput(read(blockOffsets[block], (int) (blockEnd - blockOffsets[block])));
+        while (input.available() > 0) {
+            int c = readString(input).compareTo(key);
+            if (c == 0) {
+                return readBytes(input);
+            }
+            if (c > 0) {
+                return null;
+            }
+            input.skipBytes(input.readInt());
+        }
+        return null;
+    }
+
+    private int floorBlock(String key) {
+        int low = 0;
+        int high = blockKeys.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (blockKeys[mid].compareTo(key) <= 0) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Create iterator of records in order of key.
+     * <p>
+     * The iterator reads file independently, and must be closed.
+     * </p>
+     *
+     * @return iterator
+     * @throws IOException if IO exception occurs
+     */
+    RecordIterator iterator() throws IOException {
+        return new RecordIterator(new DataInputStream(new BufferedInputStream(new FileInputStream(file), 64 * 1024)), indexOffset);
+    }
+
+    long getId() {
+        return id;
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    int getCount() {
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    @Override
+    public String toString() {
+        return "Segment{" +
+                "file=" + file.getName() +
+                ", count=" + count +
+                '}';
+    }
+
+    /**
+     * Iterator of records in segment.
+     */
+    static class RecordIterator implements Iterator<Map.Entry<String, byte[]>>, AutoCloseable {
+
+        private final DataInputStream input;
+        private long remaining;
+
+        RecordIterator(DataInputStream input, long dataLength) {
+            this.input = input;
+            this.remaining = dataLength;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public Map.Entry<String, byte[]> next() {
+            if (remaining <= 0) {
+                throw new NoSuchElementException();
+            }
+            try {
+                byte[] key = readBytes(input);
+                byte[] value = readBytes(input);
+                remaining -= 8 + key.length + value.length;
+                return new AbstractMap.SimpleImmutableEntry<>(new String(key, StandardCharsets.UTF_8), value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            input.close();
+        }
+
+    }
+
+}
@@ -0,0 +1,139 @@
+package top.parak.kraft.kvstore.server.lsm;
+
+import com.google.common.base.Preconditions;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import com.google.common.io.CountingOutputStream;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writer of segment file.
+ * <p>
+ * Layout:
+ * </p>
+ * <pre>
+ * data:   record ..., record: key length (4) | key | value length (4) | value
+ * index:  count of blocks (4) | (first key of block | offset of block (8)) ... | last key
+ * bloom:  bloom filter of keys
+ * footer: offset of index (8) | offset of bloom (8) | count of records (4) | magic (4)
+ * </pre>
+ * <p>
+ * Records are sorted by key and grouped into blocks of about {@link #BLOCK_SIZE} bytes, the first
+ * key of each block is indexed. The file is written to a temporary file, and renamed after synced.
+ * </p>
+ *
+ * @author KHighness
+ * @since 2022-06-10
+ * @email parakovo@gmail.com
+ */
+class SegmentWriter implements AutoCloseable {
+
+    static final int MAGIC = 0x4b534731;
+    static final int FOOTER_LENGTH = 24;
+    static final int BLOCK_SIZE = 4096;
+    static final double BLOOM_FILTER_FPP = 0.01;
+
+    private final File file;
+    private final File tmpFile;
+    private final FileOutputStream fileOutput;
+    private final CountingOutputStream countingOutput;
+    private final DataOutputStream output;
+    private final BloomFilter<CharSequence> bloomFilter;
+    private final List<String> blockKeys = new ArrayList<>();
+    private final List<Long> blockOffsets = new ArrayList<>();
+    private String lastKey = null;
+    private int count = 0;
+    private boolean finished = false;
+
+    /**
+     * Create SegmentWriter.
+     *
+     * @param file          segment file
+     * @param expectedCount expected count of records, or the upper bound
+     * @throws IOException if IO exception occurs
+     */
+    SegmentWriter(File file, int expectedCount) throws IOException {
+        this.file = file;
+        this.tmpFile = new File(file.getPath() + ".tmp");
+        this.fileOutput = new FileOutputStream(tmpFile);
+        this.countingOutput = new CountingOutputStream(new BufferedOutputStream(fileOutput, 64 * 1024));
+        this.output = new DataOutputStream(countingOutput);
+        this.bloomFilter = BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), Math.max(expectedCount, 1), BLOOM_FILTER_FPP);
+    }
+
+    /**
+     * Append record, keys must be ascending.
+     *
+     * @param key   key
+     * @param value value
+     * @throws IOException if IO exception occurs
+     */
+    void append(String key, byte[] value) throws IOException {
+        Preconditions.checkArgument(lastKey == null || key.compareTo(lastKey) > 0, "key not ascending");
+        long position = countingOutput.getCount();
+        if (blockOffsets.isEmpty() || position - blockOffsets.get(blockOffsets.size() - 1) >= BLOCK_SIZE) {
+            blockKeys.add(key);
+            blockOffsets.add(position);
+        }
+        writeBytes(key.getBytes(StandardCharsets.UTF_8));
+        writeBytes(value);
+        bloomFilter.put(key);
+        lastKey = key;
+        count++;
+    }
+
+    private void writeBytes(byte[] bytes) throws IOException {
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    /**
+     * Write index, bloom filter and footer, then sync and rename the file.
+     *
+     * @throws IOException if IO exception occurs
+     */
+    void finish() throws IOException {
+        long indexOffset = countingOutput.getCount();
+        output.writeInt(blockKeys.size());
+        for (int i = 0; i < blockKeys.size(); i++) {
+            writeBytes(blockKeys.get(i).getBytes(StandardCharsets.UTF_8));
+            output.writeLong(blockOffsets.get(i));
+        }
+        writeBytes((lastKey != null ? lastKey : "").getBytes(StandardCharsets.UTF_8));
+        long bloomOffset = countingOutput.getCount();
+        bloomFilter.writeTo(output);
+        output.writeLong(indexOffset);
+        output.writeLong(bloomOffset);
+        output.writeInt(count);
+        output.writeInt(MAGIC);
+        output.flush();
+        fileOutput.getFD().sync();
+        output.close();
+        Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        finished = true;
+    }
+
+    /**
+     * Close writer, the temporary file is deleted if not finished.
+     *
+     * @throws IOException if IO exception occurs
+     */
+    @Override
+    public void close() throws IOException {
+        if (!finished) {
+            output.close();
+            Files.deleteIfExists(tmpFile.toPath());
+        }
+    }
+
+}
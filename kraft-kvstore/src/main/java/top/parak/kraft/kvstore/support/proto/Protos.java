@@ -29,6 +29,12 @@ public final class Protos {
      */
     com.google.protobuf.ByteString
         getLeaderIdBytes();
+
+    /**
+     * <code>int64 correlation_id = 2;</code>
+     * @return The correlationId.
+     */
+    long getCorrelationId();
   }
   /**
    * Protobuf type {@code Redirect}
@@ -82,6 +88,11 @@ public final class Protos {
               leaderId_ = s;
               break;
             }
+            case 16: {
+
+              correlationId_ = input.readInt64();
+              break;
+            }
             default: {
               if (!parseUnknownField(
                   input, unknownFields, extensionRegistry, tag)) {
@@ -152,6 +163,17 @@ public final class Protos {
       }
     }
 
+    public static final int CORRELATION_ID_FIELD_NUMBER = 2;
+    private long correlationId_;
+    /**
+     * <code>int64 correlation_id = 2;</code>
+     * @return The correlationId.
+     */
+    @java.lang.Override
+    public long getCorrelationId() {
+      return correlationId_;
+    }
+
     private byte memoizedIsInitialized = -1;
     @java.lang.Override
     public final boolean isInitialized() {
@@ -169,6 +191,9 @@ public final class Protos {
       if (!com.google.protobuf.GeneratedMessageV3.isStringEmpty(leaderId_)) {
         com.google.protobuf.GeneratedMessageV3.writeString(output, 1, leaderId_);
       }
+      if (correlationId_ != 0L) {
+        output.writeInt64(2, correlationId_);
+      }
       unknownFields.writeTo(output);
     }
 
@@ -181,6 +206,10 @@ public final class Protos {
       if (!com.google.protobuf.GeneratedMessageV3.isStringEmpty(leaderId_)) {
         size += com.google.protobuf.GeneratedMessageV3.computeStringSize(1, leaderId_);
       }
+      if (correlationId_ != 0L) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(2, correlationId_);
+      }
       size += unknownFields.getSerializedSize();
       memoizedSize = size;
       return size;
@@ -198,6 +227,8 @@ public final class Protos {
 
       if (!getLeaderId()
           .equals(other.getLeaderId())) return false;
+      if (getCorrelationId()
+          != other.getCorrelationId()) return false;
       if (!unknownFields.equals(other.unknownFields)) return false;
       return true;
     }
@@ -211,6 +242,9 @@ public final class Protos {
       hash = (19 * hash) + getDescriptor().hashCode();
       hash = (37 * hash) + LEADER_ID_FIELD_NUMBER;
       hash = (53 * hash) + getLeaderId().hashCode();
+      hash = (37 * hash) + CORRELATION_ID_FIELD_NUMBER;
+      hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+          getCorrelationId());
       hash = (29 * hash) + unknownFields.hashCode();
       memoizedHashCode = hash;
       return hash;
@@ -346,6 +380,8 @@ public final class Protos {
         super.clear();
         leaderId_ = "";
 
+        correlationId_ = 0L;
+
         return this;
       }
 
@@ -373,6 +409,7 @@ public final class Protos {
       public Protos.Redirect buildPartial() {
         Protos.Redirect result = new Protos.Redirect(this);
         result.leaderId_ = leaderId_;
+        result.correlationId_ = correlationId_;
         onBuilt();
         return result;
       }
@@ -425,6 +462,9 @@ public final class Protos {
           leaderId_ = other.leaderId_;
           onChanged();
         }
+        if (other.getCorrelationId() != 0L) {
+          setCorrelationId(other.getCorrelationId());
+        }
         this.mergeUnknownFields(other.unknownFields);
         onChanged();
         return this;
@@ -529,6 +569,37 @@ public final class Protos {
         onChanged();
         return this;
       }
+
+      private long correlationId_ ;
+      /**
+       * <code>int64 correlation_id = 2;</code>
+       * @return The correlationId.
+       */
+      @java.lang.Override
+      public long getCorrelationId() {
+        return correlationId_;
+      }
+      /**
+       * <code>int64 correlation_id = 2;</code>
+       * @param value The correlationId to set.
+       * @return This builder for chaining.
+       */
+      public Builder setCorrelationId(long value) {
+        
+        correlationId_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>int64 correlation_id = 2;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearCorrelationId() {
+        
+        correlationId_ = 0L;
+        onChanged();
+        return this;
+      }
       @java.lang.Override
       public final Builder setUnknownFields(
           final com.google.protobuf.UnknownFieldSet unknownFields) {
@@ -585,6 +656,12 @@ public final class Protos {
   public interface SuccessOrBuilder extends
       // @@protoc_insertion_point(interface_extends:Success)
       com.google.protobuf.MessageOrBuilder {
+
+    /**
+     * <code>int64 correlation_id = 1;</code>
+     * @return The correlationId.
+     */
+    long getCorrelationId();
   }
   /**
    * Protobuf type {@code Success}
@@ -631,6 +708,11 @@ public final class Protos {
             case 0:
               done = true;
               break;
+            case 8: {
+
+              correlationId_ = input.readInt64();
+              break;
+            }
             default: {
               if (!parseUnknownField(
                   input, unknownFields, extensionRegistry, tag)) {
@@ -663,6 +745,17 @@ public final class Protos {
               Protos.Success.class, Protos.Success.Builder.class);
     }
 
+    public static final int CORRELATION_ID_FIELD_NUMBER = 1;
+    private long correlationId_;
+    /**
+     * <code>int64 correlation_id = 1;</code>
+     * @return The correlationId.
+     */
+    @java.lang.Override
+    public long getCorrelationId() {
+      return correlationId_;
+    }
+
     private byte memoizedIsInitialized = -1;
     @java.lang.Override
     public final boolean isInitialized() {
@@ -677,6 +770,9 @@ public final class Protos {
     @java.lang.Override
     public void writeTo(com.google.protobuf.CodedOutputStream output)
                         throws java.io.IOException {
+      if (correlationId_ != 0L) {
+        output.writeInt64(1, correlationId_);
+      }
       unknownFields.writeTo(output);
     }
 
@@ -686,6 +782,10 @@ public final class Protos {
       if (size != -1) return size;
 
       size = 0;
+      if (correlationId_ != 0L) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(1, correlationId_);
+      }
       size += unknownFields.getSerializedSize();
       memoizedSize = size;
       return size;
@@ -701,6 +801,8 @@ public final class Protos {
       }
       Protos.Success other = (Protos.Success) obj;
 
+      if (getCorrelationId()
+          != other.getCorrelationId()) return false;
       if (!unknownFields.equals(other.unknownFields)) return false;
       return true;
     }
@@ -712,6 +814,9 @@ public final class Protos {
       }
       int hash = 41;
       hash = (19 * hash) + getDescriptor().hashCode();
+      hash = (37 * hash) + CORRELATION_ID_FIELD_NUMBER;
+      hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+          getCorrelationId());
       hash = (29 * hash) + unknownFields.hashCode();
       memoizedHashCode = hash;
       return hash;
@@ -845,6 +950,8 @@ public final class Protos {
       @java.lang.Override
       public Builder clear() {
         super.clear();
+        correlationId_ = 0L;
+
         return this;
       }
 
@@ -871,6 +978,7 @@ public final class Protos {
       @java.lang.Override
       public Protos.Success buildPartial() {
         Protos.Success result = new Protos.Success(this);
+        result.correlationId_ = correlationId_;
         onBuilt();
         return result;
       }
@@ -919,6 +1027,9 @@ public final class Protos {
 
       public Builder mergeFrom(Protos.Success other) {
         if (other == Protos.Success.getDefaultInstance()) return this;
+        if (other.getCorrelationId() != 0L) {
+          setCorrelationId(other.getCorrelationId());
+        }
         this.mergeUnknownFields(other.unknownFields);
         onChanged();
         return this;
@@ -947,6 +1058,37 @@ public final class Protos {
         }
         return this;
       }
+
+      private long correlationId_ ;
+      /**
+       * <code>int64 correlation_id = 1;</code>
+       * @return The correlationId.
+       */
+      @java.lang.Override
+      public long getCorrelationId() {
+        return correlationId_;
+      }
+      /**
+       * <code>int64 correlation_id = 1;</code>
+       * @param value The correlationId to set.
+       * @return This builder for chaining.
+       */
+      public Builder setCorrelationId(long value) {
+        
+        correlationId_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>int64 correlation_id = 1;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearCorrelationId() {
+        
+        correlationId_ = 0L;
+        onChanged();
+        return this;
+      }
       @java.lang.Override
       public final Builder setUnknownFields(
           final com.google.protobuf.UnknownFieldSet unknownFields) {
@@ -1021,6 +1163,12 @@ public final class Protos {
      */
     com.google.protobuf.ByteString
         getMessageBytes();
+
+    /**
+     * <code>int64 correlation_id = 3;</code>
+     * @return The correlationId.
+     */
+    long getCorrelationId();
   }
   /**
    * Protobuf type {@code Failure}
@@ -1079,6 +1227,11 @@ public final class Protos {
               message_ = s;
               break;
             }
+            case 24: {
+
+              correlationId_ = input.readInt64();
+              break;
+            }
             default: {
               if (!parseUnknownField(
                   input, unknownFields, extensionRegistry, tag)) {
@@ -1160,6 +1313,17 @@ public final class Protos {
       }
     }
 
+    public static final int CORRELATION_ID_FIELD_NUMBER = 3;
+    private long correlationId_;
+    /**
+     * <code>int64 correlation_id = 3;</code>
+     * @return The correlationId.
+     */
+    @java.lang.Override
+    public long getCorrelationId() {
+      return correlationId_;
+    }
+
     private byte memoizedIsInitialized = -1;
     @java.lang.Override
     public final boolean isInitialized() {
@@ -1180,6 +1344,9 @@ public final class Protos {
       if (!com.google.protobuf.GeneratedMessageV3.isStringEmpty(message_)) {
         com.google.protobuf.GeneratedMessageV3.writeString(output, 2, message_);
       }
+      if (correlationId_ != 0L) {
+        output.writeInt64(3, correlationId_);
+      }
       unknownFields.writeTo(output);
     }
 
@@ -1196,6 +1363,10 @@ public final class Protos {
       if (!com.google.protobuf.GeneratedMessageV3.isStringEmpty(message_)) {
         size += com.google.protobuf.GeneratedMessageV3.computeStringSize(2, message_);
       }
+      if (correlationId_ != 0L) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(3, correlationId_);
+      }
       size += unknownFields.getSerializedSize();
       memoizedSize = size;
       return size;
@@ -1215,6 +1386,8 @@ public final class Protos {
           != other.getErrorCode()) return false;
       if (!getMessage()
           .equals(other.getMessage())) return false;
+      if (getCorrelationId()
+          != other.getCorrelationId()) return false;
       if (!unknownFields.equals(other.unknownFields)) return false;
       return true;
     }
@@ -1230,6 +1403,9 @@ public final class Protos {
       hash = (53 * hash) + getErrorCode();
       hash = (37 * hash) + MESSAGE_FIELD_NUMBER;
       hash = (53 * hash) + getMessage().hashCode();
+      hash = (37 * hash) + CORRELATION_ID_FIELD_NUMBER;
+      hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+          getCorrelationId());
       hash = (29 * hash) + unknownFields.hashCode();
       memoizedHashCode = hash;
       return hash;
@@ -1367,6 +1543,8 @@ public final class Protos {
 
         message_ = "";
 
+        correlationId_ = 0L;
+
         return this;
       }
 
@@ -1395,6 +1573,7 @@ public final class Protos {
         Protos.Failure result = new Protos.Failure(this);
         result.errorCode_ = errorCode_;
         result.message_ = message_;
+        result.correlationId_ = correlationId_;
         onBuilt();
         return result;
       }
@@ -1450,6 +1629,9 @@ public final class Protos {
           message_ = other.message_;
           onChanged();
         }
+        if (other.getCorrelationId() != 0L) {
+          setCorrelationId(other.getCorrelationId());
+        }
         this.mergeUnknownFields(other.unknownFields);
         onChanged();
         return this;
@@ -1585,6 +1767,37 @@ public final class Protos {
         onChanged();
         return this;
       }
+
+      private long correlationId_ ;
+      /**
+       * <code>int64 correlation_id = 3;</code>
+       * @return The correlationId.
+       */
+      @java.lang.Override
+      public long getCorrelationId() {
+        return correlationId_;
+      }
+      /**
+       * <code>int64 correlation_id = 3;</code>
+       * @param value The correlationId to set.
+       * @return This builder for chaining.
+       */
+      public Builder setCorrelationId(long value) {
+        
+        correlationId_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>int64 correlation_id = 3;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearCorrelationId() {
+        
+        correlationId_ = 0L;
+        onChanged();
+        return this;
+      }
       @java.lang.Override
       public final Builder setUnknownFields(
           final com.google.protobuf.UnknownFieldSet unknownFields) {
@@ -1671,6 +1884,12 @@ public final class Protos {
      * @return The value.
      */
     com.google.protobuf.ByteString getValue();
+
+    /**
+     * <code>int64 correlation_id = 4;</code>
+     * @return The correlationId.
+     */
+    long getCorrelationId();
   }
   /**
    * Protobuf type {@code SetCommand}
@@ -1737,6 +1956,11 @@ public final class Protos {
               value_ = input.readBytes();
               break;
             }
+            case 32: {
+
+              correlationId_ = input.readInt64();
+              break;
+            }
             default: {
               if (!parseUnknownField(
                   input, unknownFields, extensionRegistry, tag)) {
@@ -1856,6 +2080,17 @@ public final class Protos {
       return value_;
     }
 
+    public static final int CORRELATION_ID_FIELD_NUMBER = 4;
+    private long correlationId_;
+    /**
+     * <code>int64 correlation_id = 4;</code>
+     * @return The correlationId.
+     */
+    @java.lang.Override
+    public long getCorrelationId() {
+      return correlationId_;
+    }
+
     private byte memoizedIsInitialized = -1;
     @java.lang.Override
     public final boolean isInitialized() {
@@ -1879,6 +2114,9 @@ public final class Protos {
       if (!value_.isEmpty()) {
         output.writeBytes(3, value_);
       }
+      if (correlationId_ != 0L) {
+        output.writeInt64(4, correlationId_);
+      }
       unknownFields.writeTo(output);
     }
 
@@ -1898,6 +2136,10 @@ public final class Protos {
         size += com.google.protobuf.CodedOutputStream
           .computeBytesSize(3, value_);
       }
+      if (correlationId_ != 0L) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(4, correlationId_);
+      }
       size += unknownFields.getSerializedSize();
       memoizedSize = size;
       return size;
@@ -1919,6 +2161,8 @@ public final class Protos {
           .equals(other.getKey())) return false;
       if (!getValue()
           .equals(other.getValue())) return false;
+      if (getCorrelationId()
+          != other.getCorrelationId()) return false;
       if (!unknownFields.equals(other.unknownFields)) return false;
       return true;
     }
@@ -1936,6 +2180,9 @@ public final class Protos {
       hash = (53 * hash) + getKey().hashCode();
       hash = (37 * hash) + VALUE_FIELD_NUMBER;
       hash = (53 * hash) + getValue().hashCode();
+      hash = (37 * hash) + CORRELATION_ID_FIELD_NUMBER;
+      hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+          getCorrelationId());
       hash = (29 * hash) + unknownFields.hashCode();
       memoizedHashCode = hash;
       return hash;
@@ -2075,6 +2322,8 @@ public final class Protos {
 
         value_ = com.google.protobuf.ByteString.EMPTY;
 
+        correlationId_ = 0L;
+
         return this;
       }
 
@@ -2104,6 +2353,7 @@ public final class Protos {
         result.requestId_ = requestId_;
         result.key_ = key_;
         result.value_ = value_;
+        result.correlationId_ = correlationId_;
         onBuilt();
         return result;
       }
@@ -2163,6 +2413,9 @@ public final class Protos {
         if (other.getValue() != com.google.protobuf.ByteString.EMPTY) {
           setValue(other.getValue());
         }
+        if (other.getCorrelationId() != 0L) {
+          setCorrelationId(other.getCorrelationId());
+        }
         this.mergeUnknownFields(other.unknownFields);
         onChanged();
         return this;
@@ -2377,6 +2630,37 @@ public final class Protos {
         onChanged();
         return this;
       }
+
+      private long correlationId_ ;
+      /**
+       * <code>int64 correlation_id = 4;</code>
+       * @return The correlationId.
+       */
+      @java.lang.Override
+      public long getCorrelationId() {
+        return correlationId_;
+      }
+      /**
+       * <code>int64 correlation_id = 4;</code>
+       * @param value The correlationId to set.
+       * @return This builder for chaining.
+       */
+      public Builder setCorrelationId(long value) {
+        
+        correlationId_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>int64 correlation_id = 4;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearCorrelationId() {
+        
+        correlationId_ = 0L;
+        onChanged();
+        return this;
+      }
       @java.lang.Override
       public final Builder setUnknownFields(
           final com.google.protobuf.UnknownFieldSet unknownFields) {
@@ -2445,6 +2729,12 @@ public final class Protos {
      */
     com.google.protobuf.ByteString
         getKeyBytes();
+
+    /**
+     * <code>int64 correlation_id = 2;</code>
+     * @return The correlationId.
+     */
+    long getCorrelationId();
   }
   /**
    * Protobuf type {@code GetCommand}
@@ -2498,6 +2788,11 @@ public final class Protos {
               key_ = s;
               break;
             }
+            case 16: {
+
+              correlationId_ = input.readInt64();
+              break;
+            }
             default: {
               if (!parseUnknownField(
                   input, unknownFields, extensionRegistry, tag)) {
@@ -2568,6 +2863,17 @@ public final class Protos {
       }
     }
 
+    public static final int CORRELATION_ID_FIELD_NUMBER = 2;
+    private long correlationId_;
+    /**
+     * <code>int64 correlation_id = 2;</code>
+     * @return The correlationId.
+     */
+    @java.lang.Override
+    public long getCorrelationId() {
+      return correlationId_;
+    }
+
     private byte memoizedIsInitialized = -1;
     @java.lang.Override
     public final boolean isInitialized() {
@@ -2585,6 +2891,9 @@ public final class Protos {
       if (!com.google.protobuf.GeneratedMessageV3.isStringEmpty(key_)) {
         com.google.protobuf.GeneratedMessageV3.writeString(output, 1, key_);
       }
+      if (correlationId_ != 0L) {
+        output.writeInt64(2, correlationId_);
+      }
       unknownFields.writeTo(output);
     }
 
@@ -2597,6 +2906,10 @@ public final class Protos {
       if (!com.google.protobuf.GeneratedMessageV3.isStringEmpty(key_)) {
         size += com.google.protobuf.GeneratedMessageV3.computeStringSize(1, key_);
       }
+      if (correlationId_ != 0L) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(2, correlationId_);
+      }
       size += unknownFields.getSerializedSize();
       memoizedSize = size;
       return size;
@@ -2614,6 +2927,8 @@ public final class Protos {
 
       if (!getKey()
           .equals(other.getKey())) return false;
+      if (getCorrelationId()
+          != other.getCorrelationId()) return false;
       if (!unknownFields.equals(other.unknownFields)) return false;
       return true;
     }
@@ -2627,6 +2942,9 @@ public final class Protos {
       hash = (19 * hash) + getDescriptor().hashCode();
       hash = (37 * hash) + KEY_FIELD_NUMBER;
       hash = (53 * hash) + getKey().hashCode();
+      hash = (37 * hash) + CORRELATION_ID_FIELD_NUMBER;
+      hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+          getCorrelationId());
       hash = (29 * hash) + unknownFields.hashCode();
       memoizedHashCode = hash;
       return hash;
@@ -2762,6 +3080,8 @@ public final class Protos {
         super.clear();
         key_ = "";
 
+        correlationId_ = 0L;
+
         return this;
       }
 
@@ -2789,6 +3109,7 @@ public final class Protos {
       public Protos.GetCommand buildPartial() {
         Protos.GetCommand result = new Protos.GetCommand(this);
         result.key_ = key_;
+        result.correlationId_ = correlationId_;
         onBuilt();
         return result;
       }
@@ -2841,6 +3162,9 @@ public final class Protos {
           key_ = other.key_;
           onChanged();
         }
+        if (other.getCorrelationId() != 0L) {
+          setCorrelationId(other.getCorrelationId());
+        }
         this.mergeUnknownFields(other.unknownFields);
         onChanged();
         return this;
@@ -2945,6 +3269,37 @@ public final class Protos {
         onChanged();
         return this;
       }
+
+      private long correlationId_ ;
+      /**
+       * <code>int64 correlation_id = 2;</code>
+       * @return The correlationId.
+       */
+      @java.lang.Override
+      public long getCorrelationId() {
+        return correlationId_;
+      }
+      /**
+       * <code>int64 correlation_id = 2;</code>
+       * @param value The correlationId to set.
+       * @return This builder for chaining.
+       */
+      public Builder setCorrelationId(long value) {
+        
+        correlationId_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>int64 correlation_id = 2;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearCorrelationId() {
+        
+        correlationId_ = 0L;
+        onChanged();
+        return this;
+      }
       @java.lang.Override
       public final Builder setUnknownFields(
           final com.google.protobuf.UnknownFieldSet unknownFields) {
@@ -3013,6 +3368,12 @@ public final class Protos {
      * @return The value.
      */
     com.google.protobuf.ByteString getValue();
+
+    /**
+     * <code>int64 correlation_id = 3;</code>
+     * @return The correlationId.
+     */
+    long getCorrelationId();
   }
   /**
    * Protobuf type {@code GetCommandResponse}
@@ -3070,6 +3431,11 @@ public final class Protos {
               value_ = input.readBytes();
               break;
             }
+            case 24: {
+
+              correlationId_ = input.readInt64();
+              break;
+            }
             default: {
               if (!parseUnknownField(
                   input, unknownFields, extensionRegistry, tag)) {
@@ -3124,6 +3490,17 @@ public final class Protos {
       return value_;
     }
 
+    public static final int CORRELATION_ID_FIELD_NUMBER = 3;
+    private long correlationId_;
+    /**
+     * <code>int64 correlation_id = 3;</code>
+     * @return The correlationId.
+     */
+    @java.lang.Override
+    public long getCorrelationId() {
+      return correlationId_;
+    }
+
     private byte memoizedIsInitialized = -1;
     @java.lang.Override
     public final boolean isInitialized() {
@@ -3144,6 +3521,9 @@ public final class Protos {
       if (!value_.isEmpty()) {
         output.writeBytes(2, value_);
       }
+      if (correlationId_ != 0L) {
+        output.writeInt64(3, correlationId_);
+      }
       unknownFields.writeTo(output);
     }
 
@@ -3161,6 +3541,10 @@ public final class Protos {
         size += com.google.protobuf.CodedOutputStream
           .computeBytesSize(2, value_);
       }
+      if (correlationId_ != 0L) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(3, correlationId_);
+      }
       size += unknownFields.getSerializedSize();
       memoizedSize = size;
       return size;
@@ -3180,6 +3564,8 @@ public final class Protos {
           != other.getFound()) return false;
       if (!getValue()
           .equals(other.getValue())) return false;
+      if (getCorrelationId()
+          != other.getCorrelationId()) return false;
       if (!unknownFields.equals(other.unknownFields)) return false;
       return true;
     }
@@ -3196,6 +3582,9 @@ public final class Protos {
           getFound());
       hash = (37 * hash) + VALUE_FIELD_NUMBER;
       hash = (53 * hash) + getValue().hashCode();
+      hash = (37 * hash) + CORRELATION_ID_FIELD_NUMBER;
+      hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+          getCorrelationId());
       hash = (29 * hash) + unknownFields.hashCode();
       memoizedHashCode = hash;
       return hash;
@@ -3333,6 +3722,8 @@ public final class Protos {
 
         value_ = com.google.protobuf.ByteString.EMPTY;
 
+        correlationId_ = 0L;
+
         return this;
       }
 
@@ -3361,6 +3752,7 @@ public final class Protos {
         Protos.GetCommandResponse result = new Protos.GetCommandResponse(this);
         result.found_ = found_;
         result.value_ = value_;
+        result.correlationId_ = correlationId_;
         onBuilt();
         return result;
       }
@@ -3415,6 +3807,9 @@ public final class Protos {
         if (other.getValue() != com.google.protobuf.ByteString.EMPTY) {
           setValue(other.getValue());
         }
+        if (other.getCorrelationId() != 0L) {
+          setCorrelationId(other.getCorrelationId());
+        }
         this.mergeUnknownFields(other.unknownFields);
         onChanged();
         return this;
@@ -3508,6 +3903,37 @@ public final class Protos {
         onChanged();
         return this;
       }
+
+      private long correlationId_ ;
+      /**
+       * <code>int64 correlation_id = 3;</code>
+       * @return The correlationId.
+       */
+      @java.lang.Override
+      public long getCorrelationId() {
+        return correlationId_;
+      }
+      /**
+       * <code>int64 correlation_id = 3;</code>
+       * @param value The correlationId to set.
+       * @return This builder for chaining.
+       */
+      public Builder setCorrelationId(long value) {
+        
+        correlationId_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>int64 correlation_id = 3;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearCorrelationId() {
+        
+        correlationId_ = 0L;
+        onChanged();
+        return this;
+      }
       @java.lang.Override
       public final Builder setUnknownFields(
           final com.google.protobuf.UnknownFieldSet unknownFields) {
@@ -3561,55 +3987,62 @@ public final class Protos {
 
   }
 
-  public interface EntryListOrBuilder extends
-      // @@protoc_insertion_point(interface_extends:EntryList)
+  public interface MultiGetCommandOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:MultiGetCommand)
       com.google.protobuf.MessageOrBuilder {
 
     /**
-     * <code>repeated .EntryList.Entry entries = 1;</code>
+     * <code>repeated string keys = 1;</code>
+     * @return A list containing the keys.
      */
-    java.util.List<Protos.EntryList.Entry>
-        getEntriesList();
+    java.util.List<java.lang.String>
+        getKeysList();
     /**
-     * <code>repeated .EntryList.Entry entries = 1;</code>
+     * <code>repeated string keys = 1;</code>
+     * @return The count of keys.
      */
-    Protos.EntryList.Entry getEntries(int index);
+    int getKeysCount();
     /**
-     * <code>repeated .EntryList.Entry entries = 1;</code>
+     * <code>repeated string keys = 1;</code>
+     * @param index The index of the element to return.
+     * @return The keys at the given index.
      */
-    int getEntriesCount();
+    java.lang.String getKeys(int index);
     /**
-     * <code>repeated .EntryList.Entry entries = 1;</code>
+     * <code>repeated string keys = 1;</code>
+     * @param index The index of the value to return.
+     * @return The bytes of the keys at the given index.
      */
-    java.util.List<? extends Protos.EntryList.EntryOrBuilder>
-        getEntriesOrBuilderList();
+    com.google.protobuf.ByteString
+        getKeysBytes(int index);
+
     /**
-     * <code>repeated .EntryList.Entry entries = 1;</code>
+     * <code>int64 correlation_id = 2;</code>
+     * @return The correlationId.
      */
-    Protos.EntryList.EntryOrBuilder getEntriesOrBuilder(
-        int index);
+    long getCorrelationId();
   }
   /**
-   * Protobuf type {@code EntryList}
+   * Protobuf type {@code MultiGetCommand}
    */
-  public static final class EntryList extends
+  public static final class MultiGetCommand extends
       com.google.protobuf.GeneratedMessageV3 implements
-      // @@protoc_insertion_point(message_implements:EntryList)
-      EntryListOrBuilder {
+      // @@protoc_insertion_point(message_implements:MultiGetCommand)
+      MultiGetCommandOrBuilder {
   private static final long serialVersionUID = 0L;
-    // Use EntryList.newBuilder() to construct.
-    private EntryList(com.google.protobuf.GeneratedMessageV3.Builder<?> builder) {
+    // Use MultiGetCommand.newBuilder() to construct.
+    private MultiGetCommand(com.google.protobuf.GeneratedMessageV3.Builder<?> builder) {
       super(builder);
     }
-    private EntryList() {
-      entries_ = java.util.Collections.emptyList();
+    private MultiGetCommand() {
+      keys_ = com.google.protobuf.LazyStringArrayList.EMPTY;
     }
 
     @java.lang.Override
     @SuppressWarnings({"unused"})
     protected java.lang.Object newInstance(
         UnusedPrivateParameter unused) {
-      return new EntryList();
+      return new MultiGetCommand();
     }
 
     @java.lang.Override
@@ -3617,7 +4050,7 @@ public final class Protos {
     getUnknownFields() {
       return this.unknownFields;
     }
-    private EntryList(
+    private MultiGetCommand(
         com.google.protobuf.CodedInputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
@@ -3637,12 +4070,17 @@ public final class Protos {
               done = true;
               break;
             case 10: {
+              java.lang.String s = input.readStringRequireUtf8();
               if (!((mutable_bitField0_ & 0x00000001) != 0)) {
-                entries_ = new java.util.ArrayList<Protos.EntryList.Entry>();
+                keys_ = new com.google.protobuf.LazyStringArrayList();
                 mutable_bitField0_ |= 0x00000001;
               }
-              entries_.add(
-                  input.readMessage(Protos.EntryList.Entry.parser(), extensionRegistry));
+              keys_.add(s);
+              break;
+            }
+            case 16: {
+
+              correlationId_ = input.readInt64();
               break;
             }
             default: {
@@ -3661,7 +4099,7 @@ public final class Protos {
             e).setUnfinishedMessage(this);
       } finally {
         if (((mutable_bitField0_ & 0x00000001) != 0)) {
-          entries_ = java.util.Collections.unmodifiableList(entries_);
+          keys_ = keys_.getUnmodifiableView();
         }
         this.unknownFields = unknownFields.build();
         makeExtensionsImmutable();
@@ -3669,22 +4107,2597 @@ public final class Protos {
     }
     public static final com.google.protobuf.Descriptors.Descriptor
         getDescriptor() {
-      return Protos.internal_static_EntryList_descriptor;
+      return Protos.internal_static_MultiGetCommand_descriptor;
     }
 
     @java.lang.Override
     protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
         internalGetFieldAccessorTable() {
-      return Protos.internal_static_EntryList_fieldAccessorTable
+      return Protos.internal_static_MultiGetCommand_fieldAccessorTable
           .ensureFieldAccessorsInitialized(
-              Protos.EntryList.class, Protos.EntryList.Builder.class);
+              Protos.MultiGetCommand.class, Protos.MultiGetCommand.Builder.class);
     }
 
-    public interface EntryOrBuilder extends
-        // @@protoc_insertion_point(interface_extends:EntryList.Entry)
-        com.google.protobuf.MessageOrBuilder {
-
-      /**
+    public static final int KEYS_FIELD_NUMBER = 1;
+    private com.google.protobuf.LazyStringList keys_;
+    /**
+     * <code>repeated string keys = 1;</code>
+     * @return A list containing the keys.
+     */
+    public com.google.protobuf.ProtocolStringList
+        getKeysList() {
+      return keys_;
+    }
+    /**
+     * <code>repeated string keys = 1;</code>
+     * @return The count of keys.
+     */
+    public int getKeysCount() {
+      return keys_.size();
+    }
+    /**
+     * <code>repeated string keys = 1;</code>
+     * @param index The index of the element to return.
+     * @return The keys at the given index.
+     */
+    public java.lang.String getKeys(int index) {
+      return keys_.get(index);
+    }
+    /**
+     * <code>repeated string keys = 1;</code>
+     * @param index The index of the value to return.
+     * @return The bytes of the keys at the given index.
+     */
+    public com.google.protobuf.ByteString
+        getKeysBytes(int index) {
+      return keys_.getByteString(index);
+    }
+
+    public static final int CORRELATION_ID_FIELD_NUMBER = 2;
+    private long correlationId_;
+    /**
+     * <code>int64 correlation_id = 2;</code>
+     * @return The correlationId.
+     */
+    @java.lang.Override
+    public long getCorrelationId() {
+      return correlationId_;
+    }
+
+    private byte memoizedIsInitialized = -1;
+    @java.lang.Override
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    @java.lang.Override
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      for (int i = 0; i < keys_.size(); i++) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 1, keys_.getRaw(i));
+      }
+      if (correlationId_ != 0L) {
+        output.writeInt64(2, correlationId_);
+      }
+      unknownFields.writeTo(output);
+    }
+
+    @java.lang.Override
+    public int getSerializedSize() {
+      int size = memoizedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      {
+        int dataSize = 0;
+        for (int i = 0; i < keys_.size(); i++) {
+          dataSize += computeStringSizeNoTag(keys_.getRaw(i));
+        }
+        size += dataSize;
+        size += 1 * getKeysList().size();
+      }
+      if (correlationId_ != 0L) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(2, correlationId_);
+      }
+      size += unknownFields.getSerializedSize();
+      memoizedSize = size;
+      return size;
+    }
+
+    @java.lang.Override
+    public boolean equals(final java.lang.Object obj) {
+      if (obj == this) {
+       return true;
+      }
+      if (!(obj instanceof Protos.MultiGetCommand)) {
+        return super.equals(obj);
+      }
+      Protos.MultiGetCommand other = (Protos.MultiGetCommand) obj;
+
+      if (!getKeysList()
+          .equals(other.getKeysList())) return false;
+      if (getCorrelationId()
+          != other.getCorrelationId()) return false;
+      if (!unknownFields.equals(other.unknownFields)) return false;
+      return true;
+    }
+
+    @java.lang.Override
+    public int hashCode() {
+      if (memoizedHashCode != 0) {
+        return memoizedHashCode;
+      }
+      int hash = 41;
+      hash = (19 * hash) + getDescriptor().hashCode();
+      if (getKeysCount() > 0) {
+        hash = (37 * hash) + KEYS_FIELD_NUMBER;
+        hash = (53 * hash) + getKeysList().hashCode();
+      }
+      hash = (37 * hash) + CORRELATION_ID_FIELD_NUMBER;
+      hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+          getCorrelationId());
+      hash = (29 * hash) + unknownFields.hashCode();
+      memoizedHashCode = hash;
+      return hash;
+    }
+
+    public static Protos.MultiGetCommand parseFrom(
+        java.nio.ByteBuffer data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static Protos.MultiGetCommand parseFrom(
+        java.nio.ByteBuffer data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static Protos.MultiGetCommand parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static Protos.MultiGetCommand parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static Protos.MultiGetCommand parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static Protos.MultiGetCommand parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static Protos.MultiGetCommand parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static Protos.MultiGetCommand parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static Protos.MultiGetCommand parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input);
+    }
+    public static Protos.MultiGetCommand parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static Protos.MultiGetCommand parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static Protos.MultiGetCommand parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    @java.lang.Override
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder() {
+      return DEFAULT_INSTANCE.toBuilder();
+    }
+    public static Builder newBuilder(Protos.MultiGetCommand prototype) {
+      return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+    }
+    @java.lang.Override
+    public Builder toBuilder() {
+      return this == DEFAULT_INSTANCE
+          ? new Builder() : new Builder().mergeFrom(this);
+    }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code MultiGetCommand}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessageV3.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:MultiGetCommand)
+        Protos.MultiGetCommandOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return Protos.internal_static_MultiGetCommand_descriptor;
+      }
+
+      @java.lang.Override
+      protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return Protos.internal_static_MultiGetCommand_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                Protos.MultiGetCommand.class, Protos.MultiGetCommand.Builder.class);
+      }
+
+      // Construct using top.parak.kraft.kvstore.support.toolkit.Protos.MultiGetCommand.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessageV3
+                .alwaysUseFieldBuilders) {
+        }
+      }
+      @java.lang.Override
+      public Builder clear() {
+        super.clear();
+        keys_ = com.google.protobuf.LazyStringArrayList.EMPTY;
+        bitField0_ = (bitField0_ & ~0x00000001);
+        correlationId_ = 0L;
+
+        return this;
+      }
+
+      @java.lang.Override
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return Protos.internal_static_MultiGetCommand_descriptor;
+      }
+
+      @java.lang.Override
+      public Protos.MultiGetCommand getDefaultInstanceForType() {
+        return Protos.MultiGetCommand.getDefaultInstance();
+      }
+
+      @java.lang.Override
+      public Protos.MultiGetCommand build() {
+        Protos.MultiGetCommand result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      @java.lang.Override
+      public Protos.MultiGetCommand buildPartial() {
+        Protos.MultiGetCommand result = new Protos.MultiGetCommand(this);
+        int from_bitField0_ = bitField0_;
+        if (((bitField0_ & 0x00000001) != 0)) {
+          keys_ = keys_.getUnmodifiableView();
+          bitField0_ = (bitField0_ & ~0x00000001);
+        }
+        result.keys_ = keys_;
+        result.correlationId_ = correlationId_;
+        onBuilt();
+        return result;
+      }
+
+      @java.lang.Override
+      public Builder clone() {
+        return super.clone();
+      }
+      @java.lang.Override
+      public Builder setField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          java.lang.Object value) {
+        return super.setField(field, value);
+      }
+      @java.lang.Override
+      public Builder clearField(
+          com.google.protobuf.Descriptors.FieldDescriptor field) {
+        return super.clearField(field);
+      }
+      @java.lang.Override
+      public Builder clearOneof(
+          com.google.protobuf.Descriptors.OneofDescriptor oneof) {
+        return super.clearOneof(oneof);
+      }
+      @java.lang.Override
+      public Builder setRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          int index, java.lang.Object value) {
+        return super.setRepeatedField(field, index, value);
+      }
+      @java.lang.Override
+      public Builder addRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          java.lang.Object value) {
+        return super.addRepeatedField(field, value);
+      }
+      @java.lang.Override
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof Protos.MultiGetCommand) {
+          return mergeFrom((Protos.MultiGetCommand)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(Protos.MultiGetCommand other) {
+        if (other == Protos.MultiGetCommand.getDefaultInstance()) return this;
+        if (!other.keys_.isEmpty()) {
+          if (keys_.isEmpty()) {
+            keys_ = other.keys_;
+            bitField0_ = (bitField0_ & ~0x00000001);
+          } else {
+            ensureKeysIsMutable();
+            keys_.addAll(other.keys_);
+          }
+          onChanged();
+        }
+        if (other.getCorrelationId() != 0L) {
+          setCorrelationId(other.getCorrelationId());
+        }
+        this.mergeUnknownFields(other.unknownFields);
+        onChanged();
+        return this;
+      }
+
+      @java.lang.Override
+      public final boolean isInitialized() {
+        return true;
+      }
+
+      @java.lang.Override
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        Protos.MultiGetCommand parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (Protos.MultiGetCommand) e.getUnfinishedMessage();
+          throw e.unwrapIOException();
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      private com.google.protobuf.LazyStringList keys_ = com.google.protobuf.LazyStringArrayList.EMPTY;
+      private void ensureKeysIsMutable() {
+        if (!((bitField0_ & 0x00000001) != 0)) {
+          keys_ = new com.google.protobuf.LazyStringArrayList(keys_);
+          bitField0_ |= 0x00000001;
+         }
+      }
+      /**
+       * <code>repeated string keys = 1;</code>
+       * @return A list containing the keys.
+       */
+      public com.google.protobuf.ProtocolStringList
+          getKeysList() {
+        return keys_.getUnmodifiableView();
+      }
+      /**
+       * <code>repeated string keys = 1;</code>
+       * @return The count of keys.
+       */
+      public int getKeysCount() {
+        return keys_.size();
+      }
+      /**
+       * <code>repeated string keys = 1;</code>
+       * @param index The index of the element to return.
+       * @return The keys at the given index.
+       */
+      public java.lang.String getKeys(int index) {
+        return keys_.get(index);
+      }
+      /**
+       * <code>repeated string keys = 1;</code>
+       * @param index The index of the value to return.
+       * @return The bytes of the keys at the given index.
+       */
+      public com.google.protobuf.ByteString
+          getKeysBytes(int index) {
+        return keys_.getByteString(index);
+      }
+      /**
+       * <code>repeated string keys = 1;</code>
+       * @param index The index to set the value at.
+       * @param value The keys to set.
+       * @return This builder for chaining.
+       */
+      public Builder setKeys(
+          int index, java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  ensureKeysIsMutable();
+        keys_.set(index, value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated string keys = 1;</code>
+       * @param value The keys to add.
+       * @return This builder for chaining.
+       */
+      public Builder addKeys(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  ensureKeysIsMutable();
+        keys_.add(value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated string keys = 1;</code>
+       * @param values The keys to add.
+       * @return This builder for chaining.
+       */
+      public Builder addAllKeys(
+          java.lang.Iterable<java.lang.String> values) {
+        ensureKeysIsMutable();
+        com.google.protobuf.AbstractMessageLite.Builder.addAll(
+            values, keys_);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated string keys = 1;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearKeys() {
+        keys_ = com.google.protobuf.LazyStringArrayList.EMPTY;
+        bitField0_ = (bitField0_ & ~0x00000001);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated string keys = 1;</code>
+       * @param value The bytes of the keys to add.
+       * @return This builder for chaining.
+       */
+      public Builder addKeysBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  checkByteStringIsUtf8(value);
+        ensureKeysIsMutable();
+        keys_.add(value);
+        onChanged();
+        return this;
+      }
+
+      private long correlationId_ ;
+      /**
+       * <code>int64 correlation_id = 2;</code>
+       * @return The correlationId.
+       */
+      @java.lang.Override
+      public long getCorrelationId() {
+        return correlationId_;
+      }
+      /**
+       * <code>int64 correlation_id = 2;</code>
+       * @param value The correlationId to set.
+       * @return This builder for chaining.
+       */
+      public Builder setCorrelationId(long value) {
+        
+        correlationId_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>int64 correlation_id = 2;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearCorrelationId() {
+        
+        correlationId_ = 0L;
+        onChanged();
+        return this;
+      }
+      @java.lang.Override
+      public final Builder setUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.setUnknownFields(unknownFields);
+      }
+
+      @java.lang.Override
+      public final Builder mergeUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.mergeUnknownFields(unknownFields);
+      }
+
+
+      // @@protoc_insertion_point(builder_scope:MultiGetCommand)
+    }
+
+    // @@protoc_insertion_point(class_scope:MultiGetCommand)
+    private static final Protos.MultiGetCommand DEFAULT_INSTANCE;
+    static {
+      DEFAULT_INSTANCE = new Protos.MultiGetCommand();
+    }
+
+    public static Protos.MultiGetCommand getDefaultInstance() {
+      return DEFAULT_INSTANCE;
+    }
+
+    private static final com.google.protobuf.Parser<MultiGetCommand>
+        PARSER = new com.google.protobuf.AbstractParser<MultiGetCommand>() {
+      @java.lang.Override
+      public MultiGetCommand parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return new MultiGetCommand(input, extensionRegistry);
+      }
+    };
+
+    public static com.google.protobuf.Parser<MultiGetCommand> parser() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<MultiGetCommand> getParserForType() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public Protos.MultiGetCommand getDefaultInstanceForType() {
+      return DEFAULT_INSTANCE;
+    }
+
+  }
+
+  public interface MultiGetCommandResponseOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:MultiGetCommandResponse)
+      com.google.protobuf.MessageOrBuilder {
+
+    /**
+     * <code>repeated .GetCommandResponse values = 1;</code>
+     */
+    java.util.List<Protos.GetCommandResponse>
+        getValuesList();
+    /**
+     * <code>repeated .GetCommandResponse values = 1;</code>
+     */
+    Protos.GetCommandResponse getValues(int index);
+    /**
+     * <code>repeated .GetCommandResponse values = 1;</code>
+     */
+    int getValuesCount();
+    /**
+     * <code>repeated .GetCommandResponse values = 1;</code>
+     */
+    java.util.List<? extends Protos.GetCommandResponseOrBuilder>
+        getValuesOrBuilderList();
+    /**
+     * <code>repeated .GetCommandResponse values = 1;</code>
+     */
+    Protos.GetCommandResponseOrBuilder getValuesOrBuilder(
+        int index);
+
+    /**
+     * <code>int64 correlation_id = 2;</code>
+     * @return The correlationId.
+     */
+    long getCorrelationId();
+  }
+  /**
+   * Protobuf type {@code MultiGetCommandResponse}
+   */
+  public static final class MultiGetCommandResponse extends
+      com.google.protobuf.GeneratedMessageV3 implements
+      // @@protoc_insertion_point(message_implements:MultiGetCommandResponse)
+      MultiGetCommandResponseOrBuilder {
+  private static final long serialVersionUID = 0L;
+    // Use MultiGetCommandResponse.newBuilder() to construct.
+    private MultiGetCommandResponse(com.google.protobuf.GeneratedMessageV3.Builder<?> builder) {
+      super(builder);
+    }
+    private MultiGetCommandResponse() {
+      values_ = java.util.Collections.emptyList();
+    }
+
+    @java.lang.Override
+    @SuppressWarnings({"unused"})
+    protected java.lang.Object newInstance(
+        UnusedPrivateParameter unused) {
+      return new MultiGetCommandResponse();
+    }
+
+    @java.lang.Override
+    public final com.google.protobuf.UnknownFieldSet
+    getUnknownFields() {
+      return this.unknownFields;
+    }
+    private MultiGetCommandResponse(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      this();
+      if (extensionRegistry == null) {
+        throw new java.lang.NullPointerException();
+      }
+      int mutable_bitField0_ = 0;
+      com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+          com.google.protobuf.UnknownFieldSet.newBuilder();
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            case 10: {
+              if (!((mutable_bitField0_ & 0x00000001) != 0)) {
+                values_ = new java.util.ArrayList<Protos.GetCommandResponse>();
+                mutable_bitField0_ |= 0x00000001;
+              }
+              values_.add(
+                  input.readMessage(Protos.GetCommandResponse.parser(), extensionRegistry));
+              break;
+            }
+            case 16: {
+
+              correlationId_ = input.readInt64();
+              break;
+            }
+            default: {
+              if (!parseUnknownField(
+                  input, unknownFields, extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e).setUnfinishedMessage(this);
+      } finally {
+        if (((mutable_bitField0_ & 0x00000001) != 0)) {
+          values_ = java.util.Collections.unmodifiableList(values_);
+        }
+        this.unknownFields = unknownFields.build();
+        makeExtensionsImmutable();
+      }
+    }
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return Protos.internal_static_MultiGetCommandResponse_descriptor;
+    }
+
+    @java.lang.Override
+    protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return Protos.internal_static_MultiGetCommandResponse_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              Protos.MultiGetCommandResponse.class, Protos.MultiGetCommandResponse.Builder.class);
+    }
+
+    public static final int VALUES_FIELD_NUMBER = 1;
+    private java.util.List<Protos.GetCommandResponse> values_;
+    /**
+     * <code>repeated .GetCommandResponse values = 1;</code>
+     */
+    @java.lang.Override
+    public java.util.List<Protos.GetCommandResponse> getValuesList() {
+      return values_;
+    }
+    /**
+     * <code>repeated .GetCommandResponse values = 1;</code>
+     */
+    @java.lang.Override
+    public java.util.List<? extends Protos.GetCommandResponseOrBuilder>
+        getValuesOrBuilderList() {
+      return values_;
+    }
+    /**
+     * <code>repeated .GetCommandResponse values = 1;</code>
+     */
+    @java.lang.Override
+    public int getValuesCount() {
+      return values_.size();
+    }
+    /**
+     * <code>repeated .GetCommandResponse values = 1;</code>
+     */
+    @java.lang.Override
+    public Protos.GetCommandResponse getValues(int index) {
+      return values_.get(index);
+    }
+    /**
+     * <code>repeated .GetCommandResponse values = 1;</code>
+     */
+    @java.lang.Override
+    public Protos.GetCommandResponseOrBuilder getValuesOrBuilder(
+        int index) {
+      return values_.get(index);
+    }
+
+    public static final int CORRELATION_ID_FIELD_NUMBER = 2;
+    private long correlationId_;
+    /**
+     * <code>int64 correlation_id = 2;</code>
+     * @return The correlationId.
+     */
+    @java.lang.Override
+    public long getCorrelationId() {
+      return correlationId_;
+    }
+
+    private byte memoizedIsInitialized = -1;
+    @java.lang.Override
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    @java.lang.Override
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      for (int i = 0; i < values_.size(); i++) {
+        output.writeMessage(1, values_.get(i));
+      }
+      if (correlationId_ != 0L) {
+        output.writeInt64(2, correlationId_);
+      }
+      unknownFields.writeTo(output);
+    }
+
+    @java.lang.Override
+    public int getSerializedSize() {
+      int size = memoizedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      for (int i = 0; i < values_.size(); i++) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(1, values_.get(i));
+      }
+      if (correlationId_ != 0L) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(2, correlationId_);
+      }
+      size += unknownFields.getSerializedSize();
+      memoizedSize = size;
+      return size;
+    }
+
+    @java.lang.Override
+    public boolean equals(final java.lang.Object obj) {
+      if (obj == this) {
+       return true;
+      }
+      if (!(obj instanceof Protos.MultiGetCommandResponse)) {
+        return super.equals(obj);
+      }
+      Protos.MultiGetCommandResponse other = (Protos.MultiGetCommandResponse) obj;
+
+      if (!getValuesList()
+          .equals(other.getValuesList())) return false;
+      if (getCorrelationId()
+          != other.getCorrelationId()) return false;
+      if (!unknownFields.equals(other.unknownFields)) return false;
+      return true;
+    }
+
+    @java.lang.Override
+    public int hashCode() {
+      if (memoizedHashCode != 0) {
+        return memoizedHashCode;
+      }
+      int hash = 41;
+      hash = (19 * hash) + getDescriptor().hashCode();
+      if (getValuesCount() > 0) {
+        hash = (37 * hash) + VALUES_FIELD_NUMBER;
+        hash = (53 * hash) + getValuesList().hashCode();
+      }
+      hash = (37 * hash) + CORRELATION_ID_FIELD_NUMBER;
+      hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+          getCorrelationId());
+      hash = (29 * hash) + unknownFields.hashCode();
+      memoizedHashCode = hash;
+      return hash;
+    }
+
+    public static Protos.MultiGetCommandResponse parseFrom(
+        java.nio.ByteBuffer data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static Protos.MultiGetCommandResponse parseFrom(
+        java.nio.ByteBuffer data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static Protos.MultiGetCommandResponse parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static Protos.MultiGetCommandResponse parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static Protos.MultiGetCommandResponse parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static Protos.MultiGetCommandResponse parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static Protos.MultiGetCommandResponse parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static Protos.MultiGetCommandResponse parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static Protos.MultiGetCommandResponse parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input);
+    }
+    public static Protos.MultiGetCommandResponse parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static Protos.MultiGetCommandResponse parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static Protos.MultiGetCommandResponse parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    @java.lang.Override
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder() {
+      return DEFAULT_INSTANCE.toBuilder();
+    }
+    public static Builder newBuilder(Protos.MultiGetCommandResponse prototype) {
+      return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+    }
+    @java.lang.Override
+    public Builder toBuilder() {
+      return this == DEFAULT_INSTANCE
+          ? new Builder() : new Builder().mergeFrom(this);
+    }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code MultiGetCommandResponse}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessageV3.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:MultiGetCommandResponse)
+        Protos.MultiGetCommandResponseOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return Protos.internal_static_MultiGetCommandResponse_descriptor;
+      }
+
+      @java.lang.Override
+      protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return Protos.internal_static_MultiGetCommandResponse_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                Protos.MultiGetCommandResponse.class, Protos.MultiGetCommandResponse.Builder.class);
+      }
+
+      // Construct using top.parak.kraft.kvstore.support.toolkit.Protos.MultiGetCommandResponse.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessageV3
+                .alwaysUseFieldBuilders) {
+          getValuesFieldBuilder();
+        }
+      }
+      @java.lang.Override
+      public Builder clear() {
+        super.clear();
+        if (valuesBuilder_ == null) {
+          values_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000001);
+        } else {
+          valuesBuilder_.clear();
+        }
+        correlationId_ = 0L;
+
+        return this;
+      }
+
+      @java.lang.Override
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return Protos.internal_static_MultiGetCommandResponse_descriptor;
+      }
+
+      @java.lang.Override
+      public Protos.MultiGetCommandResponse getDefaultInstanceForType() {
+        return Protos.MultiGetCommandResponse.getDefaultInstance();
+      }
+
+      @java.lang.Override
+      public Protos.MultiGetCommandResponse build() {
+        Protos.MultiGetCommandResponse result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      @java.lang.Override
+      public Protos.MultiGetCommandResponse buildPartial() {
+        Protos.MultiGetCommandResponse result = new Protos.MultiGetCommandResponse(this);
+        int from_bitField0_ = bitField0_;
+        if (valuesBuilder_ == null) {
+          if (((bitField0_ & 0x00000001) != 0)) {
+            values_ = java.util.Collections.unmodifiableList(values_);
+            bitField0_ = (bitField0_ & ~0x00000001);
+          }
+          result.values_ = values_;
+        } else {
+          result.values_ = valuesBuilder_.build();
+        }
+        result.correlationId_ = correlationId_;
+        onBuilt();
+        return result;
+      }
+
+      @java.lang.Override
+      public Builder clone() {
+        return super.clone();
+      }
+      @java.lang.Override
+      public Builder setField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          java.lang.Object value) {
+        return super.setField(field, value);
+      }
+      @java.lang.Override
+      public Builder clearField(
+          com.google.protobuf.Descriptors.FieldDescriptor field) {
+        return super.clearField(field);
+      }
+      @java.lang.Override
+      public Builder clearOneof(
+          com.google.protobuf.Descriptors.OneofDescriptor oneof) {
+        return super.clearOneof(oneof);
+      }
+      @java.lang.Override
+      public Builder setRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          int index, java.lang.Object value) {
+        return super.setRepeatedField(field, index, value);
+      }
+      @java.lang.Override
+      public Builder addRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          java.lang.Object value) {
+        return super.addRepeatedField(field, value);
+      }
+      @java.lang.Override
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof Protos.MultiGetCommandResponse) {
+          return mergeFrom((Protos.MultiGetCommandResponse)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(Protos.MultiGetCommandResponse other) {
+        if (other == Protos.MultiGetCommandResponse.getDefaultInstance()) return this;
+        if (valuesBuilder_ == null) {
+          if (!other.values_.isEmpty()) {
+            if (values_.isEmpty()) {
+              values_ = other.values_;
+              bitField0_ = (bitField0_ & ~0x00000001);
+            } else {
+              ensureValuesIsMutable();
+              values_.addAll(other.values_);
+            }
+            onChanged();
+          }
+        } else {
+          if (!other.values_.isEmpty()) {
+            if (valuesBuilder_.isEmpty()) {
+              valuesBuilder_.dispose();
+              valuesBuilder_ = null;
+              values_ = other.values_;
+              bitField0_ = (bitField0_ & ~0x00000001);
+              valuesBuilder_ = 
+                com.google.protobuf.GeneratedMessageV3.alwaysUseFieldBuilders ?
+                   getValuesFieldBuilder() : null;
+            } else {
+              valuesBuilder_.addAllMessages(other.values_);
+            }
+          }
+        }
+        if (other.getCorrelationId() != 0L) {
+          setCorrelationId(other.getCorrelationId());
+        }
+        this.mergeUnknownFields(other.unknownFields);
+        onChanged();
+        return this;
+      }
+
+      @java.lang.Override
+      public final boolean isInitialized() {
+        return true;
+      }
+
+      @java.lang.Override
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        Protos.MultiGetCommandResponse parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (Protos.MultiGetCommandResponse) e.getUnfinishedMessage();
+          throw e.unwrapIOException();
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      private java.util.List<Protos.GetCommandResponse> values_ =
+        java.util.Collections.emptyList();
+      private void ensureValuesIsMutable() {
+        if (!((bitField0_ & 0x00000001) != 0)) {
+          values_ = new java.util.ArrayList<Protos.GetCommandResponse>(values_);
+          bitField0_ |= 0x00000001;
+         }
+      }
+
+      private com.google.protobuf.RepeatedFieldBuilderV3<
+          Protos.GetCommandResponse, Protos.GetCommandResponse.Builder, Protos.GetCommandResponseOrBuilder> valuesBuilder_;
+
+      /**
+       * <code>repeated .GetCommandResponse values = 1;</code>
+       */
+      public java.util.List<Protos.GetCommandResponse> getValuesList() {
+        if (valuesBuilder_ == null) {
+          return java.util.Collections.unmodifiableList(values_);
+        } else {
+          return valuesBuilder_.getMessageList();
+        }
+      }
+      /**
+       * <code>repeated .GetCommandResponse values = 1;</code>
+       */
+      public int getValuesCount() {
+        if (valuesBuilder_ == null) {
+          return values_.size();
+        } else {
+          return valuesBuilder_.getCount();
+        }
+      }
+      /**
+       * <code>repeated .GetCommandResponse values = 1;</code>
+       */
+      public Protos.GetCommandResponse getValues(int index) {
+        if (valuesBuilder_ == null) {
+          return values_.get(index);
+        } else {
+          return valuesBuilder_.getMessage(index);
+        }
+      }
+      /**
+       * <code>repeated .GetCommandResponse values = 1;</code>
+       */
+      public Builder setValues(
+          int index, Protos.GetCommandResponse value) {
+        if (valuesBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureValuesIsMutable();
+          values_.set(index, value);
+          onChanged();
+        } else {
+          valuesBuilder_.setMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .GetCommandResponse values = 1;</code>
+       */
+      public Builder setValues(
+          int index, Protos.GetCommandResponse.Builder builderForValue) {
+        if (valuesBuilder_ == null) {
+          ensureValuesIsMutable();
+          values_.set(index, builderForValue.build());
+          onChanged();
+        } else {
+          valuesBuilder_.setMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .GetCommandResponse values = 1;</code>
+       */
+      public Builder addValues(Protos.GetCommandResponse value) {
+        if (valuesBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureValuesIsMutable();
+          values_.add(value);
+          onChanged();
+        } else {
+          valuesBuilder_.addMessage(value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .GetCommandResponse values = 1;</code>
+       */
+      public Builder addValues(
+          int index, Protos.GetCommandResponse value) {
+        if (valuesBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureValuesIsMutable();
+          values_.add(index, value);
+          onChanged();
+        } else {
+          valuesBuilder_.addMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .GetCommandResponse values = 1;</code>
+       */
+      public Builder addValues(
+          Protos.GetCommandResponse.Builder builderForValue) {
+        if (valuesBuilder_ == null) {
+          ensureValuesIsMutable();
+          values_.add(builderForValue.build());
+          onChanged();
+        } else {
+          valuesBuilder_.addMessage(builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .GetCommandResponse values = 1;</code>
+       */
+      public Builder addValues(
+          int index, Protos.GetCommandResponse.Builder builderForValue) {
+        if (valuesBuilder_ == null) {
+          ensureValuesIsMutable();
+          values_.add(index, builderForValue.build());
+          onChanged();
+        } else {
+          valuesBuilder_.addMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .GetCommandResponse values = 1;</code>
+       */
+      public Builder addAllValues(
+          java.lang.Iterable<? extends Protos.GetCommandResponse> values) {
+        if (valuesBuilder_ == null) {
+          ensureValuesIsMutable();
+          com.google.protobuf.AbstractMessageLite.Builder.addAll(
+              values, values_);
+          onChanged();
+        } else {
+          valuesBuilder_.addAllMessages(values);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .GetCommandResponse values = 1;</code>
+       */
+      public Builder clearValues() {
+        if (valuesBuilder_ == null) {
+          values_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000001);
+          onChanged();
+        } else {
+          valuesBuilder_.clear();
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .GetCommandResponse values = 1;</code>
+       */
+      public Builder removeValues(int index) {
+        if (valuesBuilder_ == null) {
+          ensureValuesIsMutable();
+          values_.remove(index);
+          onChanged();
+        } else {
+          valuesBuilder_.remove(index);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .GetCommandResponse values = 1;</code>
+       */
+      public Protos.GetCommandResponse.Builder getValuesBuilder(
+          int index) {
+        return getValuesFieldBuilder().getBuilder(index);
+      }
+      /**
+       * <code>repeated .GetCommandResponse values = 1;</code>
+       */
+      public Protos.GetCommandResponseOrBuilder getValuesOrBuilder(
+          int index) {
+        if (valuesBuilder_ == null) {
+          return values_.get(index);  } else {
+          return valuesBuilder_.getMessageOrBuilder(index);
+        }
+      }
+      /**
+       * <code>repeated .GetCommandResponse values = 1;</code>
+       */
+      public java.util.List<? extends Protos.GetCommandResponseOrBuilder>
+           getValuesOrBuilderList() {
+        if (valuesBuilder_ != null) {
+          return valuesBuilder_.getMessageOrBuilderList();
+        } else {
+          return java.util.Collections.unmodifiableList(values_);
+        }
+      }
+      /**
+       * <code>repeated .GetCommandResponse values = 1;</code>
+       */
+      public Protos.GetCommandResponse.Builder addValuesBuilder() {
+        return getValuesFieldBuilder().addBuilder(
+            Protos.GetCommandResponse.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .GetCommandResponse values = 1;</code>
+       */
+      public Protos.GetCommandResponse.Builder addValuesBuilder(
+          int index) {
+        return getValuesFieldBuilder().addBuilder(
+            index, Protos.GetCommandResponse.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .GetCommandResponse values = 1;</code>
+       */
+      public java.util.List<Protos.GetCommandResponse.Builder>
+           getValuesBuilderList() {
+        return getValuesFieldBuilder().getBuilderList();
+      }
+      private com.google.protobuf.RepeatedFieldBuilderV3<
+          Protos.GetCommandResponse, Protos.GetCommandResponse.Builder, Protos.GetCommandResponseOrBuilder>
+          getValuesFieldBuilder() {
+        if (valuesBuilder_ == null) {
+          valuesBuilder_ = new com.google.protobuf.RepeatedFieldBuilderV3<
+              Protos.GetCommandResponse, Protos.GetCommandResponse.Builder, Protos.GetCommandResponseOrBuilder>(
+                  values_,
+                  ((bitField0_ & 0x00000001) != 0),
+                  getParentForChildren(),
+                  isClean());
+          values_ = null;
+        }
+        return valuesBuilder_;
+      }
+
+      private long correlationId_ ;
+      /**
+       * <code>int64 correlation_id = 2;</code>
+       * @return The correlationId.
+       */
+      @java.lang.Override
+      public long getCorrelationId() {
+        return correlationId_;
+      }
+      /**
+       * <code>int64 correlation_id = 2;</code>
+       * @param value The correlationId to set.
+       * @return This builder for chaining.
+       */
+      public Builder setCorrelationId(long value) {
+        
+        correlationId_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>int64 correlation_id = 2;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearCorrelationId() {
+        
+        correlationId_ = 0L;
+        onChanged();
+        return this;
+      }
+      @java.lang.Override
+      public final Builder setUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.setUnknownFields(unknownFields);
+      }
+
+      @java.lang.Override
+      public final Builder mergeUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.mergeUnknownFields(unknownFields);
+      }
+
+
+      // @@protoc_insertion_point(builder_scope:MultiGetCommandResponse)
+    }
+
+    // @@protoc_insertion_point(class_scope:MultiGetCommandResponse)
+    private static final Protos.MultiGetCommandResponse DEFAULT_INSTANCE;
+    static {
+      DEFAULT_INSTANCE = new Protos.MultiGetCommandResponse();
+    }
+
+    public static Protos.MultiGetCommandResponse getDefaultInstance() {
+      return DEFAULT_INSTANCE;
+    }
+
+    private static final com.google.protobuf.Parser<MultiGetCommandResponse>
+        PARSER = new com.google.protobuf.AbstractParser<MultiGetCommandResponse>() {
+      @java.lang.Override
+      public MultiGetCommandResponse parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return new MultiGetCommandResponse(input, extensionRegistry);
+      }
+    };
+
+    public static com.google.protobuf.Parser<MultiGetCommandResponse> parser() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<MultiGetCommandResponse> getParserForType() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public Protos.MultiGetCommandResponse getDefaultInstanceForType() {
+      return DEFAULT_INSTANCE;
+    }
+
+  }
+
+  public interface WriteBatchCommandOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:WriteBatchCommand)
+      com.google.protobuf.MessageOrBuilder {
+
+    /**
+     * <code>string request_id = 1;</code>
+     * @return The requestId.
+     */
+    java.lang.String getRequestId();
+    /**
+     * <code>string request_id = 1;</code>
+     * @return The bytes for requestId.
+     */
+    com.google.protobuf.ByteString
+        getRequestIdBytes();
+
+    /**
+     * <code>repeated .EntryList.Entry entries = 2;</code>
+     */
+    java.util.List<Protos.EntryList.Entry>
+        getEntriesList();
+    /**
+     * <code>repeated .EntryList.Entry entries = 2;</code>
+     */
+    Protos.EntryList.Entry getEntries(int index);
+    /**
+     * <code>repeated .EntryList.Entry entries = 2;</code>
+     */
+    int getEntriesCount();
+    /**
+     * <code>repeated .EntryList.Entry entries = 2;</code>
+     */
+    java.util.List<? extends Protos.EntryList.EntryOrBuilder>
+        getEntriesOrBuilderList();
+    /**
+     * <code>repeated .EntryList.Entry entries = 2;</code>
+     */
+    Protos.EntryList.EntryOrBuilder getEntriesOrBuilder(
+        int index);
+
+    /**
+     * <code>int64 correlation_id = 3;</code>
+     * @return The correlationId.
+     */
+    long getCorrelationId();
+  }
+  /**
+   * Protobuf type {@code WriteBatchCommand}
+   */
+  public static final class WriteBatchCommand extends
+      com.google.protobuf.GeneratedMessageV3 implements
+      // @@protoc_insertion_point(message_implements:WriteBatchCommand)
+      WriteBatchCommandOrBuilder {
+  private static final long serialVersionUID = 0L;
+    // Use WriteBatchCommand.newBuilder() to construct.
+    private WriteBatchCommand(com.google.protobuf.GeneratedMessageV3.Builder<?> builder) {
+      super(builder);
+    }
+    private WriteBatchCommand() {
+      requestId_ = "";
+      entries_ = java.util.Collections.emptyList();
+    }
+
+    @java.lang.Override
+    @SuppressWarnings({"unused"})
+    protected java.lang.Object newInstance(
+        UnusedPrivateParameter unused) {
+      return new WriteBatchCommand();
+    }
+
+    @java.lang.Override
+    public final com.google.protobuf.UnknownFieldSet
+    getUnknownFields() {
+      return this.unknownFields;
+    }
+    private WriteBatchCommand(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      this();
+      if (extensionRegistry == null) {
+        throw new java.lang.NullPointerException();
+      }
+      int mutable_bitField0_ = 0;
+      com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+          com.google.protobuf.UnknownFieldSet.newBuilder();
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            case 10: {
+              java.lang.String s = input.readStringRequireUtf8();
+
+              requestId_ = s;
+              break;
+            }
+            case 18: {
+              if (!((mutable_bitField0_ & 0x00000001) != 0)) {
+                entries_ = new java.util.ArrayList<Protos.EntryList.Entry>();
+                mutable_bitField0_ |= 0x00000001;
+              }
+              entries_.add(
+                  input.readMessage(Protos.EntryList.Entry.parser(), extensionRegistry));
+              break;
+            }
+            case 24: {
+
+              correlationId_ = input.readInt64();
+              break;
+            }
+            default: {
+              if (!parseUnknownField(
+                  input, unknownFields, extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e).setUnfinishedMessage(this);
+      } finally {
+        if (((mutable_bitField0_ & 0x00000001) != 0)) {
+          entries_ = java.util.Collections.unmodifiableList(entries_);
+        }
+        this.unknownFields = unknownFields.build();
+        makeExtensionsImmutable();
+      }
+    }
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return Protos.internal_static_WriteBatchCommand_descriptor;
+    }
+
+    @java.lang.Override
+    protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return Protos.internal_static_WriteBatchCommand_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              Protos.WriteBatchCommand.class, Protos.WriteBatchCommand.Builder.class);
+    }
+
+    public static final int REQUEST_ID_FIELD_NUMBER = 1;
+    private volatile java.lang.Object requestId_;
+    /**
+     * <code>string request_id = 1;</code>
+     * @return The requestId.
+     */
+    @java.lang.Override
+    public java.lang.String getRequestId() {
+      java.lang.Object ref = requestId_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        requestId_ = s;
+        return s;
+      }
+    }
+    /**
+     * <code>string request_id = 1;</code>
+     * @return The bytes for requestId.
+     */
+    @java.lang.Override
+    public com.google.protobuf.ByteString
+        getRequestIdBytes() {
+      java.lang.Object ref = requestId_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        requestId_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    public static final int ENTRIES_FIELD_NUMBER = 2;
+    private java.util.List<Protos.EntryList.Entry> entries_;
+    /**
+     * <code>repeated .EntryList.Entry entries = 2;</code>
+     */
+    @java.lang.Override
+    public java.util.List<Protos.EntryList.Entry> getEntriesList() {
+      return entries_;
+    }
+    /**
+     * <code>repeated .EntryList.Entry entries = 2;</code>
+     */
+    @java.lang.Override
+    public java.util.List<? extends Protos.EntryList.EntryOrBuilder>
+        getEntriesOrBuilderList() {
+      return entries_;
+    }
+    /**
+     * <code>repeated .EntryList.Entry entries = 2;</code>
+     */
+    @java.lang.Override
+    public int getEntriesCount() {
+      return entries_.size();
+    }
+    /**
+     * <code>repeated .EntryList.Entry entries = 2;</code>
+     */
+    @java.lang.Override
+    public Protos.EntryList.Entry getEntries(int index) {
+      return entries_.get(index);
+    }
+    /**
+     * <code>repeated .EntryList.Entry entries = 2;</code>
+     */
+    @java.lang.Override
+    public Protos.EntryList.EntryOrBuilder getEntriesOrBuilder(
+        int index) {
+      return entries_.get(index);
+    }
+
+    public static final int CORRELATION_ID_FIELD_NUMBER = 3;
+    private long correlationId_;
+    /**
+     * <code>int64 correlation_id = 3;</code>
+     * @return The correlationId.
+     */
+    @java.lang.Override
+    public long getCorrelationId() {
+      return correlationId_;
+    }
+
+    private byte memoizedIsInitialized = -1;
+    @java.lang.Override
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    @java.lang.Override
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      if (!com.google.protobuf.GeneratedMessageV3.isStringEmpty(requestId_)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 1, requestId_);
+      }
+      for (int i = 0; i < entries_.size(); i++) {
+        output.writeMessage(2, entries_.get(i));
+      }
+      if (correlationId_ != 0L) {
+        output.writeInt64(3, correlationId_);
+      }
+      unknownFields.writeTo(output);
+    }
+
+    @java.lang.Override
+    public int getSerializedSize() {
+      int size = memoizedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (!com.google.protobuf.GeneratedMessageV3.isStringEmpty(requestId_)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(1, requestId_);
+      }
+      for (int i = 0; i < entries_.size(); i++) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(2, entries_.get(i));
+      }
+      if (correlationId_ != 0L) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(3, correlationId_);
+      }
+      size += unknownFields.getSerializedSize();
+      memoizedSize = size;
+      return size;
+    }
+
+    @java.lang.Override
+    public boolean equals(final java.lang.Object obj) {
+      if (obj == this) {
+       return true;
+      }
+      if (!(obj instanceof Protos.WriteBatchCommand)) {
+        return super.equals(obj);
+      }
+      Protos.WriteBatchCommand other = (Protos.WriteBatchCommand) obj;
+
+      if (!getRequestId()
+          .equals(other.getRequestId())) return false;
+      if (!getEntriesList()
+          .equals(other.getEntriesList())) return false;
+      if (getCorrelationId()
+          != other.getCorrelationId()) return false;
+      if (!unknownFields.equals(other.unknownFields)) return false;
+      return true;
+    }
+
+    @java.lang.Override
+    public int hashCode() {
+      if (memoizedHashCode != 0) {
+        return memoizedHashCode;
+      }
+      int hash = 41;
+      hash = (19 * hash) + getDescriptor().hashCode();
+      hash = (37 * hash) + REQUEST_ID_FIELD_NUMBER;
+      hash = (53 * hash) + getRequestId().hashCode();
+      if (getEntriesCount() > 0) {
+        hash = (37 * hash) + ENTRIES_FIELD_NUMBER;
+        hash = (53 * hash) + getEntriesList().hashCode();
+      }
+      hash = (37 * hash) + CORRELATION_ID_FIELD_NUMBER;
+      hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+          getCorrelationId());
+      hash = (29 * hash) + unknownFields.hashCode();
+      memoizedHashCode = hash;
+      return hash;
+    }
+
+    public static Protos.WriteBatchCommand parseFrom(
+        java.nio.ByteBuffer data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static Protos.WriteBatchCommand parseFrom(
+        java.nio.ByteBuffer data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static Protos.WriteBatchCommand parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static Protos.WriteBatchCommand parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static Protos.WriteBatchCommand parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static Protos.WriteBatchCommand parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static Protos.WriteBatchCommand parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static Protos.WriteBatchCommand parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static Protos.WriteBatchCommand parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input);
+    }
+    public static Protos.WriteBatchCommand parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static Protos.WriteBatchCommand parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static Protos.WriteBatchCommand parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    @java.lang.Override
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder() {
+      return DEFAULT_INSTANCE.toBuilder();
+    }
+    public static Builder newBuilder(Protos.WriteBatchCommand prototype) {
+      return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+    }
+    @java.lang.Override
+    public Builder toBuilder() {
+      return this == DEFAULT_INSTANCE
+          ? new Builder() : new Builder().mergeFrom(this);
+    }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code WriteBatchCommand}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessageV3.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:WriteBatchCommand)
+        Protos.WriteBatchCommandOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return Protos.internal_static_WriteBatchCommand_descriptor;
+      }
+
+      @java.lang.Override
+      protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return Protos.internal_static_WriteBatchCommand_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                Protos.WriteBatchCommand.class, Protos.WriteBatchCommand.Builder.class);
+      }
+
+      // Construct using top.parak.kraft.kvstore.support.toolkit.Protos.WriteBatchCommand.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessageV3
+                .alwaysUseFieldBuilders) {
+          getEntriesFieldBuilder();
+        }
+      }
+      @java.lang.Override
+      public Builder clear() {
+        super.clear();
+        requestId_ = "";
+
+        if (entriesBuilder_ == null) {
+          entries_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000001);
+        } else {
+          entriesBuilder_.clear();
+        }
+        correlationId_ = 0L;
+
+        return this;
+      }
+
+      @java.lang.Override
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return Protos.internal_static_WriteBatchCommand_descriptor;
+      }
+
+      @java.lang.Override
+      public Protos.WriteBatchCommand getDefaultInstanceForType() {
+        return Protos.WriteBatchCommand.getDefaultInstance();
+      }
+
+      @java.lang.Override
+      public Protos.WriteBatchCommand build() {
+        Protos.WriteBatchCommand result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      @java.lang.Override
+      public Protos.WriteBatchCommand buildPartial() {
+        Protos.WriteBatchCommand result = new Protos.WriteBatchCommand(this);
+        int from_bitField0_ = bitField0_;
+        result.requestId_ = requestId_;
+        if (entriesBuilder_ == null) {
+          if (((bitField0_ & 0x00000001) != 0)) {
+            entries_ = java.util.Collections.unmodifiableList(entries_);
+            bitField0_ = (bitField0_ & ~0x00000001);
+          }
+          result.entries_ = entries_;
+        } else {
+          result.entries_ = entriesBuilder_.build();
+        }
+        result.correlationId_ = correlationId_;
+        onBuilt();
+        return result;
+      }
+
+      @java.lang.Override
+      public Builder clone() {
+        return super.clone();
+      }
+      @java.lang.Override
+      public Builder setField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          java.lang.Object value) {
+        return super.setField(field, value);
+      }
+      @java.lang.Override
+      public Builder clearField(
+          com.google.protobuf.Descriptors.FieldDescriptor field) {
+        return super.clearField(field);
+      }
+      @java.lang.Override
+      public Builder clearOneof(
+          com.google.protobuf.Descriptors.OneofDescriptor oneof) {
+        return super.clearOneof(oneof);
+      }
+      @java.lang.Override
+      public Builder setRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          int index, java.lang.Object value) {
+        return super.setRepeatedField(field, index, value);
+      }
+      @java.lang.Override
+      public Builder addRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          java.lang.Object value) {
+        return super.addRepeatedField(field, value);
+      }
+      @java.lang.Override
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof Protos.WriteBatchCommand) {
+          return mergeFrom((Protos.WriteBatchCommand)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(Protos.WriteBatchCommand other) {
+        if (other == Protos.WriteBatchCommand.getDefaultInstance()) return this;
+        if (!other.getRequestId().isEmpty()) {
+          requestId_ = other.requestId_;
+          onChanged();
+        }
+        if (entriesBuilder_ == null) {
+          if (!other.entries_.isEmpty()) {
+            if (entries_.isEmpty()) {
+              entries_ = other.entries_;
+              bitField0_ = (bitField0_ & ~0x00000001);
+            } else {
+              ensureEntriesIsMutable();
+              entries_.addAll(other.entries_);
+            }
+            onChanged();
+          }
+        } else {
+          if (!other.entries_.isEmpty()) {
+            if (entriesBuilder_.isEmpty()) {
+              entriesBuilder_.dispose();
+              entriesBuilder_ = null;
+              entries_ = other.entries_;
+              bitField0_ = (bitField0_ & ~0x00000001);
+              entriesBuilder_ = 
+                com.google.protobuf.GeneratedMessageV3.alwaysUseFieldBuilders ?
+                   getEntriesFieldBuilder() : null;
+            } else {
+              entriesBuilder_.addAllMessages(other.entries_);
+            }
+          }
+        }
+        if (other.getCorrelationId() != 0L) {
+          setCorrelationId(other.getCorrelationId());
+        }
+        this.mergeUnknownFields(other.unknownFields);
+        onChanged();
+        return this;
+      }
+
+      @java.lang.Override
+      public final boolean isInitialized() {
+        return true;
+      }
+
+      @java.lang.Override
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        Protos.WriteBatchCommand parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (Protos.WriteBatchCommand) e.getUnfinishedMessage();
+          throw e.unwrapIOException();
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      private java.lang.Object requestId_ = "";
+      /**
+       * <code>string request_id = 1;</code>
+       * @return The requestId.
+       */
+      public java.lang.String getRequestId() {
+        java.lang.Object ref = requestId_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          requestId_ = s;
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>string request_id = 1;</code>
+       * @return The bytes for requestId.
+       */
+      public com.google.protobuf.ByteString
+          getRequestIdBytes() {
+        java.lang.Object ref = requestId_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          requestId_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>string request_id = 1;</code>
+       * @param value The requestId to set.
+       * @return This builder for chaining.
+       */
+      public Builder setRequestId(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  
+        requestId_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>string request_id = 1;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearRequestId() {
+        
+        requestId_ = getDefaultInstance().getRequestId();
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>string request_id = 1;</code>
+       * @param value The bytes for requestId to set.
+       * @return This builder for chaining.
+       */
+      public Builder setRequestIdBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  checkByteStringIsUtf8(value);
+        
+        requestId_ = value;
+        onChanged();
+        return this;
+      }
+
+      private java.util.List<Protos.EntryList.Entry> entries_ =
+        java.util.Collections.emptyList();
+      private void ensureEntriesIsMutable() {
+        if (!((bitField0_ & 0x00000001) != 0)) {
+          entries_ = new java.util.ArrayList<Protos.EntryList.Entry>(entries_);
+          bitField0_ |= 0x00000001;
+         }
+      }
+
+      private com.google.protobuf.RepeatedFieldBuilderV3<
+          Protos.EntryList.Entry, Protos.EntryList.Entry.Builder, Protos.EntryList.EntryOrBuilder> entriesBuilder_;
+
+      /**
+       * <code>repeated .EntryList.Entry entries = 2;</code>
+       */
+      public java.util.List<Protos.EntryList.Entry> getEntriesList() {
+        if (entriesBuilder_ == null) {
+          return java.util.Collections.unmodifiableList(entries_);
+        } else {
+          return entriesBuilder_.getMessageList();
+        }
+      }
+      /**
+       * <code>repeated .EntryList.Entry entries = 2;</code>
+       */
+      public int getEntriesCount() {
+        if (entriesBuilder_ == null) {
+          return entries_.size();
+        } else {
+          return entriesBuilder_.getCount();
+        }
+      }
+      /**
+       * <code>repeated .EntryList.Entry entries = 2;</code>
+       */
+      public Protos.EntryList.Entry getEntries(int index) {
+        if (entriesBuilder_ == null) {
+          return entries_.get(index);
+        } else {
+          return entriesBuilder_.getMessage(index);
+        }
+      }
+      /**
+       * <code>repeated .EntryList.Entry entries = 2;</code>
+       */
+      public Builder setEntries(
+          int index, Protos.EntryList.Entry value) {
+        if (entriesBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureEntriesIsMutable();
+          entries_.set(index, value);
+          onChanged();
+        } else {
+          entriesBuilder_.setMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .EntryList.Entry entries = 2;</code>
+       */
+      public Builder setEntries(
+          int index, Protos.EntryList.Entry.Builder builderForValue) {
+        if (entriesBuilder_ == null) {
+          ensureEntriesIsMutable();
+          entries_.set(index, builderForValue.build());
+          onChanged();
+        } else {
+          entriesBuilder_.setMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .EntryList.Entry entries = 2;</code>
+       */
+      public Builder addEntries(Protos.EntryList.Entry value) {
+        if (entriesBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureEntriesIsMutable();
+          entries_.add(value);
+          onChanged();
+        } else {
+          entriesBuilder_.addMessage(value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .EntryList.Entry entries = 2;</code>
+       */
+      public Builder addEntries(
+          int index, Protos.EntryList.Entry value) {
+        if (entriesBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureEntriesIsMutable();
+          entries_.add(index, value);
+          onChanged();
+        } else {
+          entriesBuilder_.addMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .EntryList.Entry entries = 2;</code>
+       */
+      public Builder addEntries(
+          Protos.EntryList.Entry.Builder builderForValue) {
+        if (entriesBuilder_ == null) {
+          ensureEntriesIsMutable();
+          entries_.add(builderForValue.build());
+          onChanged();
+        } else {
+          entriesBuilder_.addMessage(builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .EntryList.Entry entries = 2;</code>
+       */
+      public Builder addEntries(
+          int index, Protos.EntryList.Entry.Builder builderForValue) {
+        if (entriesBuilder_ == null) {
+          ensureEntriesIsMutable();
+          entries_.add(index, builderForValue.build());
+          onChanged();
+        } else {
+          entriesBuilder_.addMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .EntryList.Entry entries = 2;</code>
+       */
+      public Builder addAllEntries(
+          java.lang.Iterable<? extends Protos.EntryList.Entry> values) {
+        if (entriesBuilder_ == null) {
+          ensureEntriesIsMutable();
+          com.google.protobuf.AbstractMessageLite.Builder.addAll(
+              values, entries_);
+          onChanged();
+        } else {
+          entriesBuilder_.addAllMessages(values);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .EntryList.Entry entries = 2;</code>
+       */
+      public Builder clearEntries() {
+        if (entriesBuilder_ == null) {
+          entries_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000001);
+          onChanged();
+        } else {
+          entriesBuilder_.clear();
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .EntryList.Entry entries = 2;</code>
+       */
+      public Builder removeEntries(int index) {
+        if (entriesBuilder_ == null) {
+          ensureEntriesIsMutable();
+          entries_.remove(index);
+          onChanged();
+        } else {
+          entriesBuilder_.remove(index);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .EntryList.Entry entries = 2;</code>
+       */
+      public Protos.EntryList.Entry.Builder getEntriesBuilder(
+          int index) {
+        return getEntriesFieldBuilder().getBuilder(index);
+      }
+      /**
+       * <code>repeated .EntryList.Entry entries = 2;</code>
+       */
+      public Protos.EntryList.EntryOrBuilder getEntriesOrBuilder(
+          int index) {
+        if (entriesBuilder_ == null) {
+          return entries_.get(index);  } else {
+          return entriesBuilder_.getMessageOrBuilder(index);
+        }
+      }
+      /**
+       * <code>repeated .EntryList.Entry entries = 2;</code>
+       */
+      public java.util.List<? extends Protos.EntryList.EntryOrBuilder>
+           getEntriesOrBuilderList() {
+        if (entriesBuilder_ != null) {
+          return entriesBuilder_.getMessageOrBuilderList();
+        } else {
+          return java.util.Collections.unmodifiableList(entries_);
+        }
+      }
+      /**
+       * <code>repeated .EntryList.Entry entries = 2;</code>
+       */
+      public Protos.EntryList.Entry.Builder addEntriesBuilder() {
+        return getEntriesFieldBuilder().addBuilder(
+            Protos.EntryList.Entry.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .EntryList.Entry entries = 2;</code>
+       */
+      public Protos.EntryList.Entry.Builder addEntriesBuilder(
+          int index) {
+        return getEntriesFieldBuilder().addBuilder(
+            index, Protos.EntryList.Entry.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .EntryList.Entry entries = 2;</code>
+       */
+      public java.util.List<Protos.EntryList.Entry.Builder>
+           getEntriesBuilderList() {
+        return getEntriesFieldBuilder().getBuilderList();
+      }
+      private com.google.protobuf.RepeatedFieldBuilderV3<
+          Protos.EntryList.Entry, Protos.EntryList.Entry.Builder, Protos.EntryList.EntryOrBuilder>
+          getEntriesFieldBuilder() {
+        if (entriesBuilder_ == null) {
+          entriesBuilder_ = new com.google.protobuf.RepeatedFieldBuilderV3<
+              Protos.EntryList.Entry, Protos.EntryList.Entry.Builder, Protos.EntryList.EntryOrBuilder>(
+                  entries_,
+                  ((bitField0_ & 0x00000001) != 0),
+                  getParentForChildren(),
+                  isClean());
+          entries_ = null;
+        }
+        return entriesBuilder_;
+      }
+
+      private long correlationId_ ;
+      /**
+       * <code>int64 correlation_id = 3;</code>
+       * @return The correlationId.
+       */
+      @java.lang.Override
+      public long getCorrelationId() {
+        return correlationId_;
+      }
+      /**
+       * <code>int64 correlation_id = 3;</code>
+       * @param value The correlationId to set.
+       * @return This builder for chaining.
+       */
+      public Builder setCorrelationId(long value) {
+        
+        correlationId_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>int64 correlation_id = 3;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearCorrelationId() {
+        
+        correlationId_ = 0L;
+        onChanged();
+        return this;
+      }
+      @java.lang.Override
+      public final Builder setUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.setUnknownFields(unknownFields);
+      }
+
+      @java.lang.Override
+      public final Builder mergeUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.mergeUnknownFields(unknownFields);
+      }
+
+
+      // @@protoc_insertion_point(builder_scope:WriteBatchCommand)
+    }
+
+    // @@protoc_insertion_point(class_scope:WriteBatchCommand)
+    private static final Protos.WriteBatchCommand DEFAULT_INSTANCE;
+    static {
+      DEFAULT_INSTANCE = new Protos.WriteBatchCommand();
+    }
+
+    public static Protos.WriteBatchCommand getDefaultInstance() {
+      return DEFAULT_INSTANCE;
+    }
+
+    private static final com.google.protobuf.Parser<WriteBatchCommand>
+        PARSER = new com.google.protobuf.AbstractParser<WriteBatchCommand>() {
+      @java.lang.Override
+      public WriteBatchCommand parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return new WriteBatchCommand(input, extensionRegistry);
+      }
+    };
+
+    public static com.google.protobuf.Parser<WriteBatchCommand> parser() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<WriteBatchCommand> getParserForType() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public Protos.WriteBatchCommand getDefaultInstanceForType() {
+      return DEFAULT_INSTANCE;
+    }
+
+  }
+
+  public interface EntryListOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:EntryList)
+      com.google.protobuf.MessageOrBuilder {
+
+    /**
+     * <code>repeated .EntryList.Entry entries = 1;</code>
+     */
+    java.util.List<Protos.EntryList.Entry>
+        getEntriesList();
+    /**
+     * <code>repeated .EntryList.Entry entries = 1;</code>
+     */
+    Protos.EntryList.Entry getEntries(int index);
+    /**
+     * <code>repeated .EntryList.Entry entries = 1;</code>
+     */
+    int getEntriesCount();
+    /**
+     * <code>repeated .EntryList.Entry entries = 1;</code>
+     */
+    java.util.List<? extends Protos.EntryList.EntryOrBuilder>
+        getEntriesOrBuilderList();
+    /**
+     * <code>repeated .EntryList.Entry entries = 1;</code>
+     */
+    Protos.EntryList.EntryOrBuilder getEntriesOrBuilder(
+        int index);
+  }
+  /**
+   * Protobuf type {@code EntryList}
+   */
+  public static final class EntryList extends
+      com.google.protobuf.GeneratedMessageV3 implements
+      // @@protoc_insertion_point(message_implements:EntryList)
+      EntryListOrBuilder {
+  private static final long serialVersionUID = 0L;
+    // Use EntryList.newBuilder() to construct.
+    private EntryList(com.google.protobuf.GeneratedMessageV3.Builder<?> builder) {
+      super(builder);
+    }
+    private EntryList() {
+      entries_ = java.util.Collections.emptyList();
+    }
+
+    @java.lang.Override
+    @SuppressWarnings({"unused"})
+    protected java.lang.Object newInstance(
+        UnusedPrivateParameter unused) {
+      return new EntryList();
+    }
+
+    @java.lang.Override
+    public final com.google.protobuf.UnknownFieldSet
+    getUnknownFields() {
+      return this.unknownFields;
+    }
+    private EntryList(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      this();
+      if (extensionRegistry == null) {
+        throw new java.lang.NullPointerException();
+      }
+      int mutable_bitField0_ = 0;
+      com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+          com.google.protobuf.UnknownFieldSet.newBuilder();
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            case 10: {
+              if (!((mutable_bitField0_ & 0x00000001) != 0)) {
+                entries_ = new java.util.ArrayList<Protos.EntryList.Entry>();
+                mutable_bitField0_ |= 0x00000001;
+              }
+              entries_.add(
+                  input.readMessage(Protos.EntryList.Entry.parser(), extensionRegistry));
+              break;
+            }
+            default: {
+              if (!parseUnknownField(
+                  input, unknownFields, extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e).setUnfinishedMessage(this);
+      } finally {
+        if (((mutable_bitField0_ & 0x00000001) != 0)) {
+          entries_ = java.util.Collections.unmodifiableList(entries_);
+        }
+        this.unknownFields = unknownFields.build();
+        makeExtensionsImmutable();
+      }
+    }
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return Protos.internal_static_EntryList_descriptor;
+    }
+
+    @java.lang.Override
+    protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return Protos.internal_static_EntryList_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              Protos.EntryList.class, Protos.EntryList.Builder.class);
+    }
+
+    public interface EntryOrBuilder extends
+        // @@protoc_insertion_point(interface_extends:EntryList.Entry)
+        com.google.protobuf.MessageOrBuilder {
+
+      /**
        * <code>string key = 1;</code>
        * @return The key.
        */
@@ -6382,6 +9395,21 @@ public final class Protos {
   private static final 
     com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
       internal_static_GetCommandResponse_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_MultiGetCommand_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_MultiGetCommand_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_MultiGetCommandResponse_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_MultiGetCommandResponse_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_WriteBatchCommand_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_WriteBatchCommand_fieldAccessorTable;
   private static final com.google.protobuf.Descriptors.Descriptor
     internal_static_EntryList_descriptor;
   private static final 
@@ -6411,18 +9439,28 @@ public final class Protos {
       descriptor;
   static {
     java.lang.String[] descriptorData = {
-      "\n\rkvstore.proto\"\035\n\010Redirect\022\021\n\tleader_id" +
-      "\030\001 \001(\t\"\t\n\007Success\".\n\007Failure\022\022\n\nerror_co" +
-      "de\030\001 \001(\005\022\017\n\007message\030\002 \001(\t\"<\n\nSetCommand\022" +
-      "\022\n\nrequest_id\030\001 \001(\t\022\013\n\003key\030\002 \001(\t\022\r\n\005valu" +
-      "e\030\003 \001(\014\"\031\n\nGetCommand\022\013\n\003key\030\001 \001(\t\"2\n\022Ge" +
+      "\n\rkvstore.proto\"5\n\010Redirect\022\021\n\tleader_id" +
+      "\030\001 \001(\t\022\026\n\016correlation_id\030\002 \001(\003\"!\n\007Succes" +
+      "s\022\026\n\016correlation_id\030\001 \001(\003\"F\n\007Failure\022\022\n\n" +
+      "error_code\030\001 \001(\005\022\017\n\007message\030\002 \001(\t\022\026\n\016cor" +
+      "relation_id\030\003 \001(\003\"T\n\nSetCommand\022\022\n\nreque" +
+      "st_id\030\001 \001(\t\022\013\n\003key\030\002 \001(\t\022\r\n\005value\030\003 \001(\014\022" +
+      "\026\n\016correlation_id\030\004 \001(\003\"1\n\nGetCommand\022\013\n" +
+      "\003key\030\001 \001(\t\022\026\n\016correlation_id\030\002 \001(\003\"J\n\022Ge" +
       "tCommandResponse\022\r\n\005found\030\001 \001(\010\022\r\n\005value" +
-      "\030\002 \001(\014\"S\n\tEntryList\022!\n\007entries\030\001 \003(\0132\020.E" +
-      "ntryList.Entry\032#\n\005Entry\022\013\n\003key\030\001 \001(\t\022\r\n\005" +
-      "value\030\002 \001(\014\"=\n\016AddNodeCommand\022\017\n\007node_id" +
-      "\030\001 \001(\t\022\014\n\004host\030\002 \001(\t\022\014\n\004port\030\003 \001(\005\"$\n\021Re" +
-      "moveNodeCommand\022\017\n\007node_id\030\001 \001(\tB!\n\027top." +
-      "parak.kraft.kvstoreB\006Protosb\006proto3"
+      "\030\002 \001(\014\022\026\n\016correlation_id\030\003 \001(\003\"7\n\017MultiG" +
+      "etCommand\022\014\n\004keys\030\001 \003(\t\022\026\n\016correlation_i" +
+      "d\030\002 \001(\003\"V\n\027MultiGetCommandResponse\022#\n\006va" +
+      "lues\030\001 \003(\0132\023.GetCommandResponse\022\026\n\016corre" +
+      "lation_id\030\002 \001(\003\"b\n\021WriteBatchCommand\022\022\n\n" +
+      "request_id\030\001 \001(\t\022!\n\007entries\030\002 \003(\0132\020.Entr" +
+      "yList.Entry\022\026\n\016correlation_id\030\003 \001(\003\"S\n\tE" +
+      "ntryList\022!\n\007entries\030\001 \003(\0132\020.EntryList.En" +
+      "try\032#\n\005Entry\022\013\n\003key\030\001 \001(\t\022\r\n\005value\030\002 \001(\014" +
+      "\"=\n\016AddNodeCommand\022\017\n\007node_id\030\001 \001(\t\022\014\n\004h" +
+      "ost\030\002 \001(\t\022\014\n\004port\030\003 \001(\005\"$\n\021RemoveNodeCom" +
+      "mand\022\017\n\007node_id\030\001 \001(\tB!\n\027top.parak.kraft" +
+      ".kvstoreB\006Protosb\006proto3"
     };
     descriptor = com.google.protobuf.Descriptors.FileDescriptor
       .internalBuildGeneratedFileFrom(descriptorData,
@@ -6433,39 +9471,57 @@ public final class Protos {
     internal_static_Redirect_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_Redirect_descriptor,
-        new java.lang.String[] { "LeaderId", });
+        new java.lang.String[] { "LeaderId", "CorrelationId", });
     internal_static_Success_descriptor =
       getDescriptor().getMessageTypes().get(1);
     internal_static_Success_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_Success_descriptor,
-        new java.lang.String[] { });
+        new java.lang.String[] { "CorrelationId", });
     internal_static_Failure_descriptor =
       getDescriptor().getMessageTypes().get(2);
     internal_static_Failure_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_Failure_descriptor,
-        new java.lang.String[] { "ErrorCode", "Message", });
+        new java.lang.String[] { "ErrorCode", "Message", "CorrelationId", });
     internal_static_SetCommand_descriptor =
       getDescriptor().getMessageTypes().get(3);
     internal_static_SetCommand_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_SetCommand_descriptor,
-        new java.lang.String[] { "RequestId", "Key", "Value", });
+        new java.lang.String[] { "RequestId", "Key", "Value", "CorrelationId", });
     internal_static_GetCommand_descriptor =
       getDescriptor().getMessageTypes().get(4);
     internal_static_GetCommand_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_GetCommand_descriptor,
-        new java.lang.String[] { "Key", });
+        new java.lang.String[] { "Key", "CorrelationId", });
     internal_static_GetCommandResponse_descriptor =
       getDescriptor().getMessageTypes().get(5);
     internal_static_GetCommandResponse_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_GetCommandResponse_descriptor,
-        new java.lang.String[] { "Found", "Value", });
-    internal_static_EntryList_descriptor =
+        new java.lang.String[] { "Found", "Value", "CorrelationId", });
+    internal_static_MultiGetCommand_descriptor =
       getDescriptor().getMessageTypes().get(6);
+    internal_static_MultiGetCommand_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_MultiGetCommand_descriptor,
+        new java.lang.String[] { "Keys", "CorrelationId", });
+    internal_static_MultiGetCommandResponse_descriptor =
+      getDescriptor().getMessageTypes().get(7);
+    internal_static_MultiGetCommandResponse_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_MultiGetCommandResponse_descriptor,
+        new java.lang.String[] { "Values", "CorrelationId", });
+    internal_static_WriteBatchCommand_descriptor =
+      getDescriptor().getMessageTypes().get(8);
+    internal_static_WriteBatchCommand_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_WriteBatchCommand_descriptor,
+        new java.lang.String[] { "RequestId", "Entries", "CorrelationId", });
+    internal_static_EntryList_descriptor =
+      getDescriptor().getMessageTypes().get(9);
     internal_static_EntryList_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_EntryList_descriptor,
@@ -6477,13 +9533,13 @@ public final class Protos {
         internal_static_EntryList_Entry_descriptor,
         new java.lang.String[] { "Key", "Value", });
     internal_static_AddNodeCommand_descriptor =
-      getDescriptor().getMessageTypes().get(7);
+      getDescriptor().getMessageTypes().get(10);
     internal_static_AddNodeCommand_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_AddNodeCommand_descriptor,
         new java.lang.String[] { "NodeId", "Host", "Port", });
     internal_static_RemoveNodeCommand_descriptor =
-      getDescriptor().getMessageTypes().get(8);
+      getDescriptor().getMessageTypes().get(11);
     internal_static_RemoveNodeCommand_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_RemoveNodeCommand_descriptor,
@@ -0,0 +1,179 @@
+package top.parak.kraft.kvstore.client;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import top.parak.kraft.core.node.NodeId;
+import top.parak.kraft.core.rpc.Address;
+import top.parak.kraft.core.service.ChannelException;
+import top.parak.kraft.kvstore.message.CorrelatedMessage;
+import top.parak.kraft.kvstore.message.GetCommand;
+import top.parak.kraft.kvstore.message.GetCommandResponse;
+import top.parak.kraft.kvstore.server.KVStoreMessageDecoder;
+import top.parak.kraft.kvstore.server.KVStoreMessageEncoder;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class KVStoreConnectionTest {
+
+    private NioEventLoopGroup group;
+    private Channel serverChannel;
+    /**
+     * Requests received by server, with the channel to reply.
+     */
+    private final BlockingQueue<Object[]> requests = new LinkedBlockingQueue<>();
+
+    @Before
+    public void setUp() throws InterruptedException {
+        group = new NioEventLoopGroup(2);
+        serverChannel = new ServerBootstrap()
+                .group(group)
+                .channel(NioServerSocketChannel.class)
+                .childHandler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        ch.pipeline().addLast(new KVStoreMessageDecoder());
+                        ch.pipeline().addLast(new KVStoreMessageEncoder());
+                        ch.pipeline().addLast(new SimpleChannelInboundHandler<CorrelatedMessage>() {
+                            @Override
+                            protected void channelRead0(ChannelHandlerContext ctx, CorrelatedMessage msg) {
+                                requests.add(new Object[]{ctx.channel(), msg});
+                            }
+                        });
+                    }
+                })
+                .bind(new InetSocketAddress("127.0.0.1", 0)).sync().channel();
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        serverChannel.close().sync();
+        group.shutdownGracefully(0, 1, TimeUnit.SECONDS).sync();
+    }
+
+    private KVStoreConnection connect(long requestTimeoutMillis) throws ExecutionException, InterruptedException {
+        Bootstrap bootstrap = new Bootstrap().group(group).channel(NioSocketChannel.class);
+        return KVStoreConnection.connect(bootstrap, (InetSocketAddress) serverChannel.localAddress(), requestTimeoutMillis).get();
+    }
+
+    private Object[] takeRequest() throws InterruptedException {
+        Object[] request = requests.poll(3, TimeUnit.SECONDS);
+        Assert.assertNotNull("no request received", request);
+        return request;
+    }
+
+    @Test
+    public void testResponseOutOfOrder() throws Exception {
+        KVStoreConnection connection = connect(3000);
+        List<CompletableFuture<Object>> futures = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            futures.add(connection.send(new GetCommand("key" + i)));
+        }
+        List<Object[]> received = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            received.add(takeRequest());
+        }
+        // reply in reverse order, value is the key of request
+        for (int i = 2; i >= 0; i--) {
+            Channel channel = (Channel) received.get(i)[0];
+            CorrelatedMessage request = (CorrelatedMessage) received.get(i)[1];
+            String key = ((GetCommand) request.getMessage()).getKey();
+            channel.writeAndFlush(new CorrelatedMessage(request.getCorrelationId(), new GetCommandResponse(key.getBytes())));
+        }
+        for (int i = 0; i < 3; i++) {
+            GetCommandResponse response = (GetCommandResponse) futures.get(i).get(3, TimeUnit.SECONDS);
+            Assert.assertEquals("key" + i, new String(response.getValue()));
+        }
+        connection.close();
+    }
+
+    @Test
+    public void testClientResponseOutOfOrder() throws Exception {
+        InetSocketAddress address = (InetSocketAddress) serverChannel.localAddress();
+        try (AsyncKVStoreClient client = new AsyncKVStoreClient(
+                Collections.singletonMap(NodeId.of("A"), new Address("127.0.0.1", address.getPort())), 1, 3000)) {
+            CompletableFuture<byte[]> future1 = client.get("a");
+            CompletableFuture<byte[]> future2 = client.get("b");
+            // requests are sent concurrently, so match them by key
+            Map<String, CorrelatedMessage> messages = new HashMap<>();
+            Channel channel = null;
+            for (int i = 0; i < 2; i++) {
+                Object[] request = takeRequest();
+                Assert.assertTrue(channel == null || channel == request[0]);
+                channel = (Channel) request[0];
+                CorrelatedMessage message = (CorrelatedMessage) request[1];
+                messages.put(((GetCommand) message.getMessage()).getKey(), message);
+            }
+            channel.writeAndFlush(new CorrelatedMessage(messages.get("b").getCorrelationId(), new GetCommandResponse(null)));
+            Assert.assertNull(future2.get(3, TimeUnit.SECONDS));
+            Assert.assertFalse(future1.isDone());
+            channel.writeAndFlush(new CorrelatedMessage(messages.get("a").getCorrelationId(), new GetCommandResponse("1".getBytes())));
+            Assert.assertArrayEquals("1".getBytes(), future1.get(3, TimeUnit.SECONDS));
+            Assert.assertEquals(NodeId.of("A"), client.getLeaderId());
+        }
+    }
+
+    @Test
+    public void testPendingFailedWhenClosedByServer() throws Exception {
+        KVStoreConnection connection = connect(3000);
+        CompletableFuture<Object> future1 = connection.send(new GetCommand("a"));
+        CompletableFuture<Object> future2 = connection.send(new GetCommand("b"));
+        Channel channel = (Channel) takeRequest()[0];
+        takeRequest();
+        channel.close().sync();
+        assertFailed(future1);
+        assertFailed(future2);
+        Assert.assertFalse(connection.isActive());
+    }
+
+    @Test
+    public void testPendingFailedWhenClosed() throws Exception {
+        KVStoreConnection connection = connect(3000);
+        CompletableFuture<Object> future = connection.send(new GetCommand("a"));
+        takeRequest();
+        connection.close();
+        assertFailed(future);
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        KVStoreConnection connection = connect(100);
+        CompletableFuture<Object> future = connection.send(new GetCommand("a"));
+        CorrelatedMessage request = (CorrelatedMessage) takeRequest()[1];
+        assertFailed(future);
+        connection.close();
+        Assert.assertTrue(request.getCorrelationId() > 0);
+    }
+
+    private static void assertFailed(CompletableFuture<Object> future) throws Exception {
+        try {
+            future.get(3, TimeUnit.SECONDS);
+            Assert.fail("future should fail");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof ChannelException);
+        }
+    }
+
+}
@@ -0,0 +1,113 @@
+package top.parak.kraft.kvstore.server;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.Assert;
+import org.junit.Test;
+
+import top.parak.kraft.kvstore.message.CorrelatedMessage;
+import top.parak.kraft.kvstore.message.GetCommand;
+import top.parak.kraft.kvstore.message.GetCommandResponse;
+import top.parak.kraft.kvstore.message.MultiGetCommand;
+import top.parak.kraft.kvstore.message.MultiGetCommandResponse;
+import top.parak.kraft.kvstore.message.SetCommand;
+import top.parak.kraft.kvstore.message.Success;
+import top.parak.kraft.kvstore.message.WriteBatchCommand;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class KVStoreMessageCodecTest {
+
+    private static Object roundTrip(Object message) {
+        EmbeddedChannel encoderChannel = new EmbeddedChannel(new KVStoreMessageEncoder());
+        Assert.assertTrue(encoderChannel.writeOutbound(message));
+        ByteBuf buffer = Unpooled.buffer();
+        ByteBuf frame;
+        while ((frame = encoderChannel.readOutbound()) != null) {
+            buffer.writeBytes(frame);
+            frame.release();
+        }
+        EmbeddedChannel decoderChannel = new EmbeddedChannel(new KVStoreMessageDecoder());
+        // split to check partial message
+        Assert.assertFalse(decoderChannel.writeInbound(buffer.readRetainedSlice(buffer.readableBytes() / 2)));
+        Assert.assertTrue(decoderChannel.writeInbound(buffer));
+        Object decoded = decoderChannel.readInbound();
+        Assert.assertNull(decoderChannel.readInbound());
+        return decoded;
+    }
+
+    private static CorrelatedMessage roundTripCorrelated(long correlationId, Object message) {
+        Object decoded = roundTrip(new CorrelatedMessage(correlationId, message));
+        Assert.assertTrue(decoded instanceof CorrelatedMessage);
+        CorrelatedMessage correlatedMessage = (CorrelatedMessage) decoded;
+        Assert.assertEquals(correlationId, correlatedMessage.getCorrelationId());
+        return correlatedMessage;
+    }
+
+    @Test
+    public void testCorrelationId() {
+        GetCommand getCommand = (GetCommand) roundTripCorrelated(Long.MAX_VALUE, new GetCommand("a")).getMessage();
+        Assert.assertEquals("a", getCommand.getKey());
+
+        SetCommand setCommand = (SetCommand) roundTripCorrelated(2, new SetCommand("b", "1".getBytes())).getMessage();
+        Assert.assertEquals("b", setCommand.getKey());
+        Assert.assertArrayEquals("1".getBytes(), setCommand.getValue());
+
+        Assert.assertSame(Success.INSTANCE, roundTripCorrelated(3, Success.INSTANCE).getMessage());
+
+        GetCommandResponse response = (GetCommandResponse) roundTripCorrelated(4, new GetCommandResponse("2".getBytes())).getMessage();
+        Assert.assertTrue(response.isFound());
+        Assert.assertArrayEquals("2".getBytes(), response.getValue());
+        response = (GetCommandResponse) roundTripCorrelated(5, new GetCommandResponse(null)).getMessage();
+        Assert.assertFalse(response.isFound());
+    }
+
+    @Test
+    public void testMultiGet() {
+        MultiGetCommand command = (MultiGetCommand) roundTripCorrelated(1, new MultiGetCommand(Arrays.asList("b", "a", "c"))).getMessage();
+        Assert.assertEquals(Arrays.asList("b", "a", "c"), command.getKeys());
+
+        MultiGetCommandResponse response = (MultiGetCommandResponse) roundTripCorrelated(1,
+                new MultiGetCommandResponse(Arrays.asList("1".getBytes(), null, new byte[0]))).getMessage();
+        List<byte[]> values = response.getValues();
+        Assert.assertEquals(3, values.size());
+        Assert.assertArrayEquals("1".getBytes(), values.get(0));
+        Assert.assertNull(values.get(1));
+        // empty value is found
+        Assert.assertArrayEquals(new byte[0], values.get(2));
+    }
+
+    @Test
+    public void testWriteBatch() {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("c", "1".getBytes());
+        entries.put("a", "2".getBytes());
+        entries.put("b", new byte[0]);
+        WriteBatchCommand command = (WriteBatchCommand) roundTripCorrelated(1, new WriteBatchCommand(entries)).getMessage();
+        Assert.assertEquals(Arrays.asList("c", "a", "b"), new ArrayList<>(command.getEntries().keySet()));
+        Assert.assertArrayEquals("2".getBytes(), command.getEntries().get("a"));
+
+        // bytes of log entry
+        byte[] bytes = new WriteBatchCommand("request-1", entries).toBytes();
+        Assert.assertTrue(WriteBatchCommand.isWriteBatch(bytes));
+        Assert.assertFalse(WriteBatchCommand.isWriteBatch(new SetCommand("a", "1".getBytes()).toBytes()));
+        command = WriteBatchCommand.fromBytes(bytes);
+        Assert.assertEquals("request-1", command.getRequestId());
+        Assert.assertEquals(Arrays.asList("c", "a", "b"), new ArrayList<>(command.getEntries().keySet()));
+        Assert.assertArrayEquals("1".getBytes(), command.getEntries().get("c"));
+    }
+
+    @Test
+    public void testWithoutCorrelationId() {
+        // request of client without correlation id, e.g. KVStoreClient
+        Object decoded = roundTrip(new GetCommand("a"));
+        Assert.assertTrue(decoded instanceof GetCommand);
+        Assert.assertEquals("a", ((GetCommand) decoded).getKey());
+    }
+
+}
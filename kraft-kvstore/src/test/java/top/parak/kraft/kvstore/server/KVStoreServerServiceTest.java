@@ -0,0 +1,58 @@
+package top.parak.kraft.kvstore.server;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import top.parak.kraft.core.log.statemachine.StateMachine;
+import top.parak.kraft.kvstore.message.SetCommand;
+import top.parak.kraft.kvstore.message.WriteBatchCommand;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class KVStoreServerServiceTest {
+
+    @Test
+    public void testApplyWriteBatch() throws InterruptedException {
+        RecordingKVStorage storage = new RecordingKVStorage();
+        MockNode node = new MockNode();
+        new KVStoreServerService(node, storage);
+        StateMachine stateMachine = node.getStateMachine();
+
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("b", "1".getBytes());
+        entries.put("a", "2".getBytes());
+        entries.put("c", "3".getBytes());
+        stateMachine.applyLog(null, 1, new SetCommand("a", "1".getBytes()).toBytes(), 1);
+        stateMachine.applyLog(null, 2, new WriteBatchCommand(entries).toBytes(), 2);
+        stateMachine.shutdown();
+
+        Assert.assertEquals(2, stateMachine.getLastApplied());
+        // all entries are put together under the index of log entry
+        Assert.assertEquals(Arrays.asList("put a 1", "putAll [b, a, c] 2"), storage.operations);
+        Assert.assertArrayEquals("2".getBytes(), storage.get("a"));
+    }
+
+    private static class RecordingKVStorage extends MemoryKVStorage {
+
+        private final List<String> operations = new ArrayList<>();
+
+        @Override
+        public void put(@Nonnull String key, @Nonnull byte[] value, int index) {
+            operations.add("put " + key + " " + index);
+            super.put(key, value, index);
+        }
+
+        @Override
+        public void putAll(@Nonnull Map<String, byte[]> entries, int index) {
+            operations.add("putAll " + entries.keySet() + " " + index);
+            super.putAll(entries, index);
+        }
+
+    }
+
+}
@@ -0,0 +1,92 @@
+package top.parak.kraft.kvstore.server;
+
+import com.google.protobuf.ByteString;
+import org.junit.Assert;
+import org.junit.Test;
+
+import top.parak.kraft.kvstore.support.proto.Protos;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public class KVStoreSnapshotFormatTest {
+
+    private static byte[] write(Map<String, byte[]> map) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        KVStoreSnapshotFormat.write(map, output);
+        return output.toByteArray();
+    }
+
+    private static Map<String, byte[]> read(byte[] bytes) throws IOException {
+        return KVStoreSnapshotFormat.read(new ByteArrayInputStream(bytes));
+    }
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        Map<String, byte[]> map = new HashMap<>();
+        // more than one chunk
+        for (int i = 0; i < 1000; i++) {
+            map.put("key" + i, new byte[i % 200]);
+        }
+        map.put("", "empty".getBytes());
+        Map<String, byte[]> result = read(write(map));
+        Assert.assertEquals(map.size(), result.size());
+        for (Map.Entry<String, byte[]> entry : map.entrySet()) {
+            Assert.assertArrayEquals(entry.getKey(), entry.getValue(), result.get(entry.getKey()));
+        }
+    }
+
+    @Test
+    public void testWriteAndReadEmpty() throws IOException {
+        byte[] bytes = write(Collections.emptyMap());
+        KVStoreSnapshotFormat.Reader reader = new KVStoreSnapshotFormat.Reader(new ByteArrayInputStream(bytes));
+        Assert.assertEquals(0, reader.getCount());
+        Assert.assertNull(reader.next());
+        Assert.assertTrue(read(bytes).isEmpty());
+    }
+
+    @Test
+    public void testReadCountUpperBound() throws IOException {
+        Map<String, byte[]> map = Collections.singletonMap("a", "1".getBytes());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        KVStoreSnapshotFormat.write(map.entrySet().iterator(), 10, output);
+        KVStoreSnapshotFormat.Reader reader = new KVStoreSnapshotFormat.Reader(new ByteArrayInputStream(output.toByteArray()));
+        Assert.assertEquals(10, reader.getCount());
+        Assert.assertEquals("a", reader.next().getKey());
+        Assert.assertNull(reader.next());
+    }
+
+    @Test
+    public void testReadLegacy() throws IOException {
+        Protos.EntryList entryList = Protos.EntryList.newBuilder()
+                .addEntries(Protos.EntryList.Entry.newBuilder().setKey("a").setValue(ByteString.copyFromUtf8("1")).build())
+                .addEntries(Protos.EntryList.Entry.newBuilder().setKey("b").setValue(ByteString.copyFromUtf8("2")).build())
+                .build();
+        Map<String, byte[]> result = read(entryList.toByteArray());
+        Assert.assertEquals(2, result.size());
+        Assert.assertArrayEquals("2".getBytes(), result.get("b"));
+    }
+
+    @Test
+    public void testReadTruncated() throws IOException {
+        Map<String, byte[]> map = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            map.put("key" + i, ("value" + i).getBytes());
+        }
+        byte[] bytes = write(map);
+        // truncated after magic, in count, in chunk header, in record and before end of chunks
+        for (int length : new int[]{4, 5, 6, 20, bytes.length / 2, bytes.length - 1}) {
+            try {
+                read(Arrays.copyOf(bytes, length));
+                Assert.fail("truncated at " + length + " of " + bytes.length);
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+}
@@ -0,0 +1,39 @@
+package top.parak.kraft.kvstore.server;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class KeyPartitionerTest {
+
+    @Test
+    public void testPartitionOf() {
+        KeyPartitioner partitioner = new KeyPartitioner(3);
+        int[] counts = new int[3];
+        for (int i = 0; i < 3000; i++) {
+            String key = "key" + i;
+            int partition = partitioner.partitionOf(key);
+            Assert.assertTrue(partition >= 0 && partition < 3);
+            // same partition on another partitioner, e.g. client side
+            Assert.assertEquals(partition, new KeyPartitioner(3).partitionOf(key));
+            counts[partition]++;
+        }
+        for (int count : counts) {
+            Assert.assertTrue(count > 500);
+        }
+    }
+
+    @Test
+    public void testNegativeHash() {
+        // "polygenelubricants".hashCode() is Integer.MIN_VALUE
+        Assert.assertEquals(Integer.MIN_VALUE, "polygenelubricants".hashCode());
+        int partition = new KeyPartitioner(7).partitionOf("polygenelubricants");
+        Assert.assertTrue(partition >= 0 && partition < 7);
+        Assert.assertEquals(0, new KeyPartitioner(1).partitionOf("polygenelubricants"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIllegalPartitions() {
+        new KeyPartitioner(0);
+    }
+
+}
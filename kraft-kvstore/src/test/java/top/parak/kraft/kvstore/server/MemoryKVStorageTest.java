@@ -0,0 +1,83 @@
+package top.parak.kraft.kvstore.server;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+public class MemoryKVStorageTest {
+
+    private static Map<String, String> toMap(KVStorage.View view) throws IOException {
+        Map<String, String> map = new HashMap<>();
+        Iterator<Map.Entry<String, byte[]>> iterator = view.iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, byte[]> entry = iterator.next();
+            map.put(entry.getKey(), new String(entry.getValue()));
+        }
+        return map;
+    }
+
+    @Test
+    public void testViewNotChangedByPut() throws IOException {
+        MemoryKVStorage storage = new MemoryKVStorage();
+        storage.put("a", "1".getBytes(), 1);
+        storage.put("b", "1".getBytes(), 2);
+        KVStorage.View view = storage.takeView();
+        storage.put("a", "2".getBytes(), 3);
+        storage.put("c", "1".getBytes(), 4);
+        Assert.assertEquals("2", new String(storage.get("a")));
+        Assert.assertEquals("1", new String(storage.get("b")));
+        Assert.assertEquals("1", new String(storage.get("c")));
+
+        Assert.assertEquals(2, view.getCount());
+        Map<String, String> map = toMap(view);
+        Assert.assertEquals("1", map.get("a"));
+        Assert.assertFalse(map.containsKey("c"));
+        view.close();
+
+        // merged after view closed
+        storage.put("d", "1".getBytes(), 5);
+        try (KVStorage.View view2 = storage.takeView()) {
+            Assert.assertEquals(4, view2.getCount());
+            Assert.assertEquals("2", toMap(view2).get("a"));
+        }
+    }
+
+    @Test
+    public void testTakeViewBeforePreviousClosed() throws IOException {
+        MemoryKVStorage storage = new MemoryKVStorage();
+        storage.put("a", "1".getBytes(), 1);
+        KVStorage.View view1 = storage.takeView();
+        storage.put("a", "2".getBytes(), 2);
+        KVStorage.View view2 = storage.takeView();
+        storage.put("a", "3".getBytes(), 3);
+        view1.close();
+        storage.put("b", "1".getBytes(), 4);
+
+        Assert.assertEquals("1", toMap(view1).get("a"));
+        Assert.assertEquals("2", toMap(view2).get("a"));
+        Assert.assertEquals(1, view2.getCount());
+        Assert.assertEquals("3", new String(storage.get("a")));
+        view2.close();
+    }
+
+    @Test
+    public void testLoaderWithViewOpen() throws IOException {
+        MemoryKVStorage storage = new MemoryKVStorage();
+        storage.put("a", "1".getBytes(), 1);
+        KVStorage.View view = storage.takeView();
+        KVStorage.Loader loader = storage.newLoader(1);
+        loader.put("b", "1".getBytes());
+        loader.finish(10);
+        Assert.assertNull(storage.get("a"));
+        Assert.assertEquals("1", new String(storage.get("b")));
+        Assert.assertEquals("1", toMap(view).get("a"));
+        view.close();
+        storage.put("c", "1".getBytes(), 11);
+        Assert.assertNull(storage.get("a"));
+    }
+
+}
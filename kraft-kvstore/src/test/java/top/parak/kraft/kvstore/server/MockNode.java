@@ -0,0 +1,88 @@
+package top.parak.kraft.kvstore.server;
+
+import top.parak.kraft.core.log.statemachine.StateMachine;
+import top.parak.kraft.core.node.Node;
+import top.parak.kraft.core.node.NodeEndpoint;
+import top.parak.kraft.core.node.NodeId;
+import top.parak.kraft.core.node.NodeRoleListener;
+import top.parak.kraft.core.node.role.RoleNameAndLeaderId;
+import top.parak.kraft.core.node.task.GroupConfigChangeTaskReference;
+import top.parak.kraft.core.support.metrics.Histogram;
+import top.parak.kraft.core.support.metrics.MetricRegistry;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.CompletableFuture;
+
+public class MockNode implements Node {
+
+    private StateMachine stateMachine;
+
+    public StateMachine getStateMachine() {
+        return stateMachine;
+    }
+
+    @Override
+    public void registerStateMachine(@Nonnull StateMachine stateMachine) {
+        this.stateMachine = stateMachine;
+    }
+
+    @Nonnull
+    @Override
+    public RoleNameAndLeaderId getRoleNameAndLeaderId() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void addNodeRoleListener(@Nonnull NodeRoleListener listener) {
+    }
+
+    @Override
+    public void start() {
+    }
+
+    @Override
+    public void appendLog(@Nonnull byte[] commandBytes) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Nonnull
+    @Override
+    public Histogram getAppendBatchSizeHistogram() {
+        return new Histogram();
+    }
+
+    @Nonnull
+    @Override
+    public Histogram getAppendLatencyHistogram() {
+        return new Histogram();
+    }
+
+    @Nonnull
+    @Override
+    public MetricRegistry getMetricRegistry() {
+        return new MetricRegistry();
+    }
+
+    @Nonnull
+    @Override
+    public CompletableFuture<Integer> readIndex() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Nonnull
+    @Override
+    public GroupConfigChangeTaskReference addNode(@Nonnull NodeEndpoint endpoint) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Nonnull
+    @Override
+    public GroupConfigChangeTaskReference removeNode(@Nonnull NodeId id) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void stop() {
+    }
+
+}
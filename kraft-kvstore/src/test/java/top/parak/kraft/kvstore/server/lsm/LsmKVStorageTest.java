@@ -0,0 +1,221 @@
+package top.parak.kraft.kvstore.server.lsm;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import top.parak.kraft.core.log.statemachine.StateMachine;
+import top.parak.kraft.kvstore.message.SetCommand;
+import top.parak.kraft.kvstore.server.KVStorage;
+import top.parak.kraft.kvstore.server.KVStoreServerService;
+import top.parak.kraft.kvstore.server.MockNode;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+public class LsmKVStorageTest {
+
+    // 64 bytes overhead + 2 * 4 bytes key + 16 bytes value, flush every 4 entries
+    private static final int MEM_TABLE_SIZE = 320;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = folder.newFolder("kv");
+    }
+
+    private LsmKVStorage newStorage(int compactionThreshold) {
+        return new LsmKVStorage(dir, MEM_TABLE_SIZE, compactionThreshold);
+    }
+
+    private static byte[] value(String key, int version) {
+        return String.format("%s-%012d", key, version).getBytes();
+    }
+
+    private static String key(int i) {
+        return String.format("k%03d", i);
+    }
+
+    private int countSegmentFiles() {
+        File[] files = dir.listFiles((d, name) -> name.endsWith(".seg"));
+        return files == null ? 0 : files.length;
+    }
+
+    private static Map<String, byte[]> toMap(KVStorage.View view) throws IOException {
+        Map<String, byte[]> map = new HashMap<>();
+        Iterator<Map.Entry<String, byte[]>> iterator = view.iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, byte[]> entry = iterator.next();
+            Assert.assertNull("duplicate key " + entry.getKey(), map.put(entry.getKey(), entry.getValue()));
+        }
+        return map;
+    }
+
+    @Test
+    public void testPutAndGet() {
+        LsmKVStorage storage = newStorage(100);
+        // keys in mem table, mem table being flushed and segments
+        for (int i = 1; i <= 30; i++) {
+            storage.put(key(i), value(key(i), 1), i);
+            for (int j = 1; j <= i; j++) {
+                Assert.assertArrayEquals(value(key(j), 1), storage.get(key(j)));
+            }
+        }
+        Assert.assertNull(storage.get("foo"));
+        storage.put(key(1), value(key(1), 2), 31);
+        Assert.assertArrayEquals(value(key(1), 2), storage.get(key(1)));
+        storage.close();
+        Assert.assertTrue(countSegmentFiles() > 1);
+
+        storage = newStorage(100);
+        Assert.assertArrayEquals(value(key(1), 2), storage.get(key(1)));
+        Assert.assertArrayEquals(value(key(30), 1), storage.get(key(30)));
+        storage.close();
+    }
+
+    @Test
+    public void testNewestAfterCompaction() {
+        LsmKVStorage storage = newStorage(2);
+        int index = 0;
+        for (int version = 1; version <= 10; version++) {
+            for (int i = 1; i <= 4; i++) {
+                storage.put(key(i), value(key(i), version), ++index);
+            }
+        }
+        storage.close();
+        // merged into one segment, and the last mem table
+        Assert.assertTrue(countSegmentFiles() <= 2);
+
+        storage = newStorage(2);
+        for (int i = 1; i <= 4; i++) {
+            Assert.assertArrayEquals(value(key(i), 10), storage.get(key(i)));
+        }
+        storage.close();
+    }
+
+    @Test
+    public void testRestart() throws InterruptedException {
+        LsmKVStorage storage = newStorage(4);
+        storage.put("a", value("a", 1), 1);
+        storage.put("b", value("b", 1), 2);
+        Assert.assertEquals(0, storage.getLastApplied());
+        storage.close();
+
+        storage = newStorage(4);
+        Assert.assertEquals(2, storage.getLastApplied());
+        MockNode node = new MockNode();
+        new KVStoreServerService(node, storage);
+        StateMachine stateMachine = node.getStateMachine();
+        Assert.assertEquals(2, stateMachine.getLastApplied());
+        // log applied before restart is skipped
+        stateMachine.applyLog(null, 2, new SetCommand("b", value("b", 2)).toBytes(), 2);
+        stateMachine.applyLog(null, 3, new SetCommand("c", value("c", 1)).toBytes(), 3);
+        stateMachine.shutdown();
+        Assert.assertEquals(3, stateMachine.getLastApplied());
+
+        storage = newStorage(4);
+        Assert.assertEquals(3, storage.getLastApplied());
+        Assert.assertArrayEquals(value("b", 1), storage.get("b"));
+        Assert.assertArrayEquals(value("c", 1), storage.get("c"));
+        storage.close();
+    }
+
+    @Test
+    public void testRemoveObsoleteFiles() throws IOException {
+        LsmKVStorage storage = newStorage(4);
+        storage.put("a", value("a", 1), 1);
+        storage.close();
+        Assert.assertEquals(1, countSegmentFiles());
+
+        File orphanSegment = new File(dir, String.format("%016d", 99) + ".seg");
+        File tmp = new File(dir, "MANIFEST.tmp");
+        File checkpointDir = new File(dir, "checkpoint-1");
+        Files.write(orphanSegment.toPath(), new byte[16]);
+        Files.write(tmp.toPath(), new byte[16]);
+        Assert.assertTrue(checkpointDir.mkdir());
+        Files.write(new File(checkpointDir, "0000000000000001.seg").toPath(), new byte[16]);
+
+        storage = newStorage(4);
+        Assert.assertFalse(orphanSegment.exists());
+        Assert.assertFalse(tmp.exists());
+        Assert.assertFalse(checkpointDir.exists());
+        Assert.assertEquals(1, countSegmentFiles());
+        Assert.assertArrayEquals(value("a", 1), storage.get("a"));
+        storage.close();
+    }
+
+    @Test
+    public void testViewWithConcurrentCompaction() throws IOException {
+        LsmKVStorage storage = newStorage(3);
+        storage.put("a", value("a", 1), 1);
+        storage.put("b", value("b", 1), 2);
+        KVStorage.View view = storage.takeView();
+        File[] segmentFiles = dir.listFiles((d, name) -> name.endsWith(".seg"));
+
+        // compact segments, and remove them after view taken
+        for (int i = 1; i <= 12; i++) {
+            storage.put(key(i), value(key(i), 1), 2 + i);
+        }
+        storage.put("a", value("a", 2), 15);
+        storage.takeView().close();
+        for (File file : segmentFiles) {
+            Assert.assertFalse(file.exists());
+        }
+
+        Map<String, byte[]> map = toMap(view);
+        Assert.assertEquals(2, map.size());
+        Assert.assertArrayEquals(value("a", 1), map.get("a"));
+        Assert.assertArrayEquals(value("b", 1), map.get("b"));
+        view.close();
+        Assert.assertArrayEquals(value("a", 2), storage.get("a"));
+        storage.close();
+        Assert.assertEquals(0, dir.listFiles((d, name) -> name.startsWith("checkpoint-")).length);
+    }
+
+    @Test
+    public void testNewLoader() throws IOException, InterruptedException {
+        LsmKVStorage storage = newStorage(100);
+        storage.put("a", value("a", 1), 1);
+        storage.takeView().close();
+        // nearly full mem table
+        for (int i = 1; i <= 3; i++) {
+            storage.put(key(i), value(key(i), 1), 1 + i);
+        }
+
+        KVStorage.Loader loader = storage.newLoader(2);
+        loader.put("b", value("b", 1));
+        loader.put("c", value("c", 1));
+        loader.finish(100);
+        Assert.assertEquals(100, storage.getLastApplied());
+        Assert.assertNull(storage.get("a"));
+        Assert.assertNull(storage.get(key(1)));
+        Assert.assertArrayEquals(value("b", 1), storage.get("b"));
+
+        // mem table is empty after replaced, not flushed by the next put
+        storage.put("d", value("d", 1), 101);
+        TimeUnit.MILLISECONDS.sleep(100);
+        Assert.assertEquals(100, storage.getLastApplied());
+        storage.close();
+
+        storage = newStorage(100);
+        Assert.assertEquals(101, storage.getLastApplied());
+        Assert.assertNull(storage.get("a"));
+        for (String key : Arrays.asList("b", "c", "d")) {
+            Assert.assertArrayEquals(value(key, 1), storage.get(key));
+        }
+        storage.close();
+    }
+
+}